@@ -19,6 +19,7 @@ package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -107,6 +108,45 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
     return true;
   }
 
+  /**
+   * Copies the rows straight into the batch buffers. We only wait for an empty buffer for the first
+   * row of the batch.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    this.rowMeta = rowMeta;
+
+    int count = 0;
+    int nrRows = rows.size();
+    while (count < nrRows) {
+      if (inputBuffer == null) {
+        try {
+          inputBuffer =
+              putArray.poll(count == 0 ? Const.TIMEOUT_PUT_MILLIS : 0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          return count;
+        }
+        if (inputBuffer == null) {
+          return count;
+        }
+        putIndex = 0;
+      }
+      int chunk = Math.min(size - putIndex, nrRows - count);
+      for (int i = 0; i < chunk; i++) {
+        inputBuffer[putIndex++] = rows.get(count++);
+      }
+      if (putIndex == size) {
+        try {
+          getArray.offer(inputBuffer, Const.TIMEOUT_PUT_MILLIS, TimeUnit.MILLISECONDS);
+          inputBuffer = null;
+        } catch (InterruptedException e) {
+          return count;
+        }
+      }
+    }
+    return count;
+  }
+
   // default getRow with wait time = 100ms
   //
   /*
@@ -154,6 +194,35 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
     return row;
   }
 
+  /** Copies the rows straight out of the batch buffers which are ready for delivery. */
+  @Override
+  public int drainRowsTo(List<Object[]> rows, int max) {
+    int count = 0;
+    while (count < max) {
+      if (outputBuffer == null) {
+        outputBuffer = getArray.poll();
+        if (outputBuffer == null) {
+          break;
+        }
+        getIndex = 0;
+      }
+
+      Object[] row = outputBuffer[getIndex];
+      outputBuffer[getIndex++] = null; // prevent any hold-up to GC
+      if (getIndex == size) {
+        putArray.offer(outputBuffer);
+        outputBuffer = null;
+      }
+      if (row == null) {
+        // The end of a partially filled buffer
+        break;
+      }
+      rows.add(row);
+      count++;
+    }
+    return count;
+  }
+
   @Override
   public int size() {
     // does BlockingQueue.size() grab a lock? If so, frequent call to this method
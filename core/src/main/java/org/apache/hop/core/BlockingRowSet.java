@@ -19,6 +19,7 @@ package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -77,6 +78,31 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     }
   }
 
+  /**
+   * Only waits for room for the first row of the batch. The other rows are added as long as there
+   * is room without waiting.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    this.rowMeta = rowMeta;
+    int count = 0;
+    try {
+      for (Object[] row : rows) {
+        boolean added =
+            count == 0
+                ? queArray.offer(row, timeoutPut, TimeUnit.MILLISECONDS)
+                : queArray.offer(row);
+        if (!added) {
+          break;
+        }
+        count++;
+      }
+    } catch (InterruptedException | NullPointerException e) {
+      // Report the rows we did manage to add
+    }
+    return count;
+  }
+
   // default getRow with wait time = 100ms
   //
   /*
@@ -115,11 +141,25 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     }
   }
 
+  /** Moves the available rows over while taking the lock of the queue only once. */
+  @Override
+  public int drainRowsTo(List<Object[]> rows, int max) {
+    if (max <= 0) {
+      return 0;
+    }
+    return queArray.drainTo(rows, max);
+  }
+
   @Override
   public int size() {
     return queArray.size();
   }
 
+  @Override
+  public int remainingCapacity() {
+    return queArray.remainingCapacity();
+  }
+
   @Override
   public void clear() {
     queArray.clear();
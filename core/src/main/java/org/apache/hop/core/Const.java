@@ -90,6 +90,9 @@ public class Const {
   /** Size of rowset: bigger = faster for large amounts of data */
   public static final int ROWS_IN_ROWSET = 10000;
 
+  /** Number of rows handed over at once by transforms using putRows/getRows */
+  public static final int ROWS_IN_BATCH = 1000;
+
   /** Fetch size in rows when querying a database */
   public static final int FETCH_SIZE = 10000;
 
@@ -618,6 +621,24 @@ public class Const {
           "This project variable is used by the Text File Output transform. It defines the max number of milliseconds between flushes of files opened by the transform.")
   public static final String HOP_FILE_OUTPUT_MAX_STREAM_LIFE = "HOP_FILE_OUTPUT_MAX_STREAM_LIFE";
 
+  /** The size of the buffer the file output transforms collect rows in before they write them. */
+  @Variable(
+      value = "5000",
+      description =
+          "This project variable is used by the Text File Output, JSON Output and XML Output transforms. It defines the number of bytes they buffer before writing to a file.")
+  public static final String HOP_FILE_OUTPUT_BUFFER_SIZE = "HOP_FILE_OUTPUT_BUFFER_SIZE";
+
+  /**
+   * Set this variable to Y to compress and write the files of the file output transforms in the
+   * background.
+   */
+  @Variable(
+      value = "N",
+      description =
+          "This project variable is used by the Text File Output, JSON Output and XML Output transforms. Set it to 'Y' to compress and write files in background threads. GZip files are compressed in blocks by a thread per processor, shared by all files.")
+  public static final String HOP_FILE_OUTPUT_PARALLEL_COMPRESSION =
+      "HOP_FILE_OUTPUT_PARALLEL_COMPRESSION";
+
   /** Set this variable to Y to disable standard Hop logging to the console. (stdout) */
   @Variable(
       value = "N",
@@ -878,6 +899,16 @@ public class Const {
   public static final String HOP_DEFAULT_BUFFER_POLLING_WAITTIME =
       "HOP_DEFAULT_BUFFER_POLLING_WAITTIME";
 
+  /**
+   * The Database Lookup transforms rebuild the caches they share when the value of this variable
+   * changes.
+   */
+  @Variable(
+      description =
+          "Change the value of this variable to make the Database Lookup transforms load the caches they share again")
+  public static final String HOP_DATABASE_LOOKUP_CACHE_VERSION =
+      "HOP_DATABASE_LOOKUP_CACHE_VERSION";
+
   /**
    * rounds double f to any number of places after decimal point Does arithmetic using BigDecimal
    * class to avoid integer overflow while rounding
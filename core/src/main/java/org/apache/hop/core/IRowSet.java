@@ -18,7 +18,10 @@
 package org.apache.hop.core;
 
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public interface IRowSet {
@@ -45,6 +48,41 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a batch of rows to this rowset providing for the description (metadata) of the rows. If
+   * the buffer is full, wait (block) for a small period of time. Row sets which can hand over
+   * multiple rows at once should override this method to lower the per-row overhead.
+   *
+   * @param rowMeta The description of the row data
+   * @param rows the rows of data
+   * @return the number of rows, counted from the start of the list, that were added to the rowset.
+   *     This is less than the size of the list if the buffer stayed full.
+   */
+  default int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    int count = 0;
+    for (Object[] row : rows) {
+      if (!putRow(rowMeta, row)) {
+        break;
+      }
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Offer a columnar batch of rows to this rowset. If the buffer is full, wait (block) for a small
+   * period of time. By default the batch is converted to rows, row sets which can store batches
+   * as they are should override this method.
+   *
+   * @param rowMeta The description of the row data
+   * @param batch the rows of data
+   * @return the number of rows, counted from the start of the batch, that were added to the
+   *     rowset. This is less than the size of the batch if the buffer stayed full.
+   */
+  default int putRowBatch(IRowMeta rowMeta, RowBatch batch) {
+    return putRows(rowMeta, batch.toRows());
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -67,6 +105,62 @@ public interface IRowSet {
    */
   Object[] getRowWait(long timeout, TimeUnit tu);
 
+  /**
+   * Get a batch of rows from the input buffer. It blocks for a short period until a first row
+   * becomes available and then adds the rows which are immediately available, up to the given
+   * maximum.
+   *
+   * @param max the maximum number of rows to return
+   * @return the rows or an empty list if no row is available.
+   */
+  default List<Object[]> getRows(int max) {
+    List<Object[]> rows = new ArrayList<>(Math.min(max, 1024));
+    Object[] row = getRow();
+    if (row != null) {
+      rows.add(row);
+      drainRowsTo(rows, max - 1);
+    }
+    return rows;
+  }
+
+  /**
+   * Get a columnar batch of rows from the input buffer. It blocks for a short period until a first
+   * row becomes available. By default the rows are read with {@link #getRows(int)} and converted to
+   * a batch, row sets which store batches hand them over as they are.
+   *
+   * @param max the maximum number of rows to return
+   * @return a batch of rows or null if no row is available.
+   */
+  default RowBatch getRowBatch(int max) {
+    List<Object[]> rows = getRows(max);
+    if (rows.isEmpty()) {
+      return null;
+    }
+    return RowBatch.fromRows(getRowMeta(), rows);
+  }
+
+  /**
+   * Move the rows which are immediately available to the given list, without waiting. Row sets
+   * which can hand over multiple rows at once should override this method to lower the per-row
+   * overhead.
+   *
+   * @param rows the list to add the rows to
+   * @param max the maximum number of rows to move
+   * @return the number of rows added to the list
+   */
+  default int drainRowsTo(List<Object[]> rows, int max) {
+    int count = 0;
+    while (count < max) {
+      Object[] row = getRowImmediate();
+      if (row == null) {
+        break;
+      }
+      rows.add(row);
+      count++;
+    }
+    return count;
+  }
+
   /** @return Set indication that there is no more input */
   void setDone();
 
@@ -90,6 +184,14 @@ public interface IRowSet {
   /** @return Return the size (or max capacity) of the IRowSet */
   int size();
 
+  /**
+   * @return the number of rows which can be added without waiting, or {@link Integer#MAX_VALUE}
+   *     if the row set doesn't keep track of that
+   */
+  default int remainingCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
   /**
    * This method is used only in Pipeline.java when created IRowSet at line 333. Don't need any
    * synchronization on this method
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Waits on row sets without starving a {@link ForkJoinPool} which runs transforms. This only
+ * applies to the threads of pools created with {@link #newThreadFactory(String)}. When such a
+ * thread would have to wait for a row or for room in a row set, the operation runs as a {@link
+ * ForkJoinPool.ManagedBlocker}. The pool can then run other tasks, like the transform on the other
+ * side of the row set, on a spare thread while this one waits. Operations which can be done right
+ * away, and all operations on other threads, are plain row set calls.
+ */
+public final class ManagedRowSetWaits {
+
+  private ManagedRowSetWaits() {}
+
+  /**
+   * Create a thread factory for a pool whose threads wait on row sets through this class.
+   *
+   * @param name the name of the threads, a number is added
+   * @return the thread factory
+   */
+  public static ForkJoinPool.ForkJoinWorkerThreadFactory newThreadFactory(String name) {
+    AtomicInteger threadNr = new AtomicInteger();
+    return pool -> {
+      ForkJoinWorkerThread thread = new TransformWorkerThread(pool);
+      thread.setName(name + " " + threadNr.incrementAndGet());
+      return thread;
+    };
+  }
+
+  /** @return true if the current thread may let its pool start a spare thread while it waits */
+  static boolean isManagedThread() {
+    return Thread.currentThread() instanceof TransformWorkerThread;
+  }
+
+  /** @see IRowSet#putRow(IRowMeta, Object[]) */
+  public static boolean putRow(IRowSet rowSet, IRowMeta rowMeta, Object[] row) {
+    if (!isManagedThread() || rowSet.remainingCapacity() > 0) {
+      return rowSet.putRow(rowMeta, row);
+    }
+    return Boolean.TRUE.equals(block(() -> rowSet.putRow(rowMeta, row)));
+  }
+
+  /** @see IRowSet#putRows(IRowMeta, List) */
+  public static int putRows(IRowSet rowSet, IRowMeta rowMeta, List<Object[]> rows) {
+    if (!isManagedThread() || rows.isEmpty() || rowSet.remainingCapacity() > 0) {
+      return rowSet.putRows(rowMeta, rows);
+    }
+    Integer count = block(() -> rowSet.putRows(rowMeta, rows));
+    return count == null ? 0 : count;
+  }
+
+  /** @see IRowSet#putRowBatch(IRowMeta, RowBatch) */
+  public static int putRowBatch(IRowSet rowSet, IRowMeta rowMeta, RowBatch batch) {
+    if (!isManagedThread()
+        || batch.size() == 0
+        || rowSet.size() == 0
+        || rowSet.remainingCapacity() >= batch.size()) {
+      return rowSet.putRowBatch(rowMeta, batch);
+    }
+    Integer count = block(() -> rowSet.putRowBatch(rowMeta, batch));
+    return count == null ? 0 : count;
+  }
+
+  /** @see IRowSet#getRowBatch(int) */
+  public static RowBatch getRowBatch(IRowSet rowSet, int max) {
+    if (!isManagedThread() || hasRows(rowSet)) {
+      return rowSet.getRowBatch(max);
+    }
+    return block(() -> rowSet.getRowBatch(max));
+  }
+
+  /** @see IRowSet#getRow() */
+  public static Object[] getRow(IRowSet rowSet) {
+    if (!isManagedThread() || hasRows(rowSet)) {
+      return rowSet.getRow();
+    }
+    return block(rowSet::getRow);
+  }
+
+  /** @see IRowSet#getRowWait(long, TimeUnit) */
+  public static Object[] getRowWait(IRowSet rowSet, long timeout, TimeUnit unit) {
+    if (!isManagedThread() || hasRows(rowSet)) {
+      return rowSet.getRowWait(timeout, unit);
+    }
+    return block(() -> rowSet.getRowWait(timeout, unit));
+  }
+
+  /** @return true if reading from the row set doesn't have to wait */
+  private static boolean hasRows(IRowSet rowSet) {
+    return rowSet.size() > 0 || rowSet.isDone();
+  }
+
+  private static <T> T block(Supplier<T> operation) {
+    Blocker<T> blocker = new Blocker<>(operation);
+    try {
+      ForkJoinPool.managedBlock(blocker);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return blocker.result;
+  }
+
+  private static final class Blocker<T> implements ForkJoinPool.ManagedBlocker {
+    private final Supplier<T> operation;
+    private boolean done;
+    private T result;
+
+    private Blocker(Supplier<T> operation) {
+      this.operation = operation;
+    }
+
+    @Override
+    public boolean block() {
+      result = operation.get();
+      done = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return done;
+    }
+  }
+
+  /** The threads of a pool created with {@link #newThreadFactory(String)} */
+  private static final class TransformWorkerThread extends ForkJoinWorkerThread {
+    private TransformWorkerThread(ForkJoinPool pool) {
+      super(pool);
+    }
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.hop.core;
 import org.apache.hop.core.row.IRowMeta;
 
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -62,6 +63,23 @@ public class QueueRowSet extends BaseRowSet implements Comparable<IRowSet>, IRow
     return putRow(rowMeta, rowData);
   }
 
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    this.rowMeta = rowMeta;
+    buffer.addAll(rows);
+    return rows.size();
+  }
+
+  @Override
+  public int drainRowsTo(List<Object[]> rows, int max) {
+    int count = 0;
+    while (count < max && !buffer.isEmpty()) {
+      rows.add(buffer.pollFirst());
+      count++;
+    }
+    return count;
+  }
+
   @Override
   public int size() {
     return buffer.size();
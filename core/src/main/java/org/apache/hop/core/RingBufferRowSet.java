@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.row.IRowMeta;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free row set backed by a ring buffer. It is only safe to use with a single thread writing
+ * rows and a single (other) thread reading them, which is the case for a hop between one copy of a
+ * transform and one copy of the next transform.
+ *
+ * <p>Rows are never handed over under a lock. The writer publishes a row by advancing the tail
+ * index, the reader releases a slot by advancing the head index. When the buffer is full or empty
+ * the waiting thread applies the given {@link RowSetWaitStrategy} until the time-out expires.
+ */
+public class RingBufferRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+  private final Object[][] buffer;
+  private final int mask;
+  private final RowSetWaitStrategy waitStrategy;
+
+  /** The index of the next row to read, only advanced by the reader */
+  private final AtomicLong head;
+
+  /** The index of the next row to write, only advanced by the writer */
+  private final AtomicLong tail;
+
+  /** The last head index seen by the writer, avoids reading the shared head on every row */
+  private long headCache;
+
+  /** The last tail index seen by the reader, avoids reading the shared tail on every row */
+  private long tailCache;
+
+  private int timeoutPut;
+  private int timeoutGet;
+
+  /**
+   * Create a new ring buffer row set. The capacity is rounded up to the next power of 2.
+   *
+   * @param maxSize the minimum number of rows the buffer can hold
+   * @param waitStrategy what to do when the buffer is full or empty
+   */
+  public RingBufferRowSet(int maxSize, RowSetWaitStrategy waitStrategy) {
+    super();
+
+    int capacity = 1;
+    while (capacity < Math.max(2, maxSize)) {
+      capacity <<= 1;
+    }
+    buffer = new Object[capacity][];
+    mask = capacity - 1;
+    this.waitStrategy = waitStrategy == null ? RowSetWaitStrategy.PARK : waitStrategy;
+
+    head = new AtomicLong(0L);
+    tail = new AtomicLong(0L);
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  /**
+   * Create a new ring buffer row set which parks waiting threads.
+   *
+   * @param maxSize the minimum number of rows the buffer can hold
+   */
+  public RingBufferRowSet(int maxSize) {
+    this(maxSize, RowSetWaitStrategy.PARK);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    if (rowData == null) {
+      // Same behavior as the blocking row set
+      return false;
+    }
+    this.rowMeta = rowMeta;
+
+    long currentTail = tail.get();
+    long wrapPoint = currentTail - buffer.length;
+    if (headCache <= wrapPoint) {
+      headCache = head.get();
+      if (headCache <= wrapPoint) {
+        long deadline = System.nanoTime() + tu.toNanos(time);
+        int idleCount = 0;
+        while ((headCache = head.get()) <= wrapPoint) {
+          if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+            return false;
+          }
+          waitStrategy.idle(idleCount++);
+        }
+      }
+    }
+
+    buffer[(int) currentTail & mask] = rowData;
+    // Publish the row: the ordered write makes the slot visible before the new tail
+    tail.lazySet(currentTail + 1);
+    return true;
+  }
+
+  /**
+   * Waits for room for the first row only. All rows which fit in the buffer are then published at
+   * once with a single update of the tail index.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    if (rows.isEmpty()) {
+      return 0;
+    }
+    if (!putRow(rowMeta, rows.get(0))) {
+      return 0;
+    }
+
+    long currentTail = tail.get();
+    long free = buffer.length - (currentTail - headCache);
+    if (free < rows.size() - 1) {
+      headCache = head.get();
+      free = buffer.length - (currentTail - headCache);
+    }
+    int count = (int) Math.min(free, rows.size() - 1L);
+    for (int i = 0; i < count; i++) {
+      Object[] row = rows.get(i + 1);
+      if (row == null) {
+        count = i;
+        break;
+      }
+      buffer[(int) (currentTail + i) & mask] = row;
+    }
+    tail.lazySet(currentTail + count);
+    return count + 1;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    long currentHead = head.get();
+    if (currentHead >= tailCache) {
+      tailCache = tail.get();
+      if (currentHead >= tailCache) {
+        return null;
+      }
+    }
+    return takeRow(currentHead);
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    long currentHead = head.get();
+    if (currentHead >= tailCache) {
+      tailCache = tail.get();
+      if (currentHead >= tailCache) {
+        long deadline = System.nanoTime() + tu.toNanos(timeout);
+        int idleCount = 0;
+        while (currentHead >= (tailCache = tail.get())) {
+          if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+            return null;
+          }
+          waitStrategy.idle(idleCount++);
+        }
+      }
+    }
+    return takeRow(currentHead);
+  }
+
+  private Object[] takeRow(long currentHead) {
+    int index = (int) currentHead & mask;
+    Object[] row = buffer[index];
+    buffer[index] = null; // prevent any hold-up to GC
+    head.lazySet(currentHead + 1);
+    return row;
+  }
+
+  /** Takes all the available rows and releases their slots with a single update of the head. */
+  @Override
+  public int drainRowsTo(List<Object[]> rows, int max) {
+    long currentHead = head.get();
+    if (currentHead + max > tailCache) {
+      tailCache = tail.get();
+    }
+    int count = (int) Math.min(max, tailCache - currentHead);
+    if (count <= 0) {
+      return 0;
+    }
+    for (int i = 0; i < count; i++) {
+      int index = (int) (currentHead + i) & mask;
+      rows.add(buffer[index]);
+      buffer[index] = null; // prevent any hold-up to GC
+    }
+    head.lazySet(currentHead + count);
+    return count;
+  }
+
+  @Override
+  public int size() {
+    long size = tail.get() - head.get();
+    return (int) Math.max(0L, Math.min(size, buffer.length));
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return buffer.length - size();
+  }
+
+  /** @return the number of rows this row set can hold */
+  public int getCapacity() {
+    return buffer.length;
+  }
+
+  /** @return the wait strategy used when the buffer is full or empty */
+  public RowSetWaitStrategy getWaitStrategy() {
+    return waitStrategy;
+  }
+
+  /**
+   * Clears the buffer. This is not thread safe: only call this when no other thread is reading or
+   * writing.
+   */
+  @Override
+  public void clear() {
+    for (int i = 0; i < buffer.length; i++) {
+      buffer[i] = null;
+    }
+    head.set(0L);
+    tail.set(0L);
+    headCache = 0L;
+    tailCache = 0L;
+    done.set(false);
+  }
+}
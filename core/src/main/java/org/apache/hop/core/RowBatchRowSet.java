@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A row set which can hold both Object[] rows and columnar {@link RowBatch}es. Batches are stored
+ * and handed over as they are, so two transforms which both work with batches never materialize
+ * the rows in between. A transform reading rows one by one from a batch gets them converted on the
+ * fly, a transform reading a batch gets consecutive Object[] rows converted into a batch.
+ *
+ * <p>The capacity is counted in rows. A batch is only accepted when all its rows fit, except when
+ * the row set is empty: then a batch larger than the capacity is accepted as well.
+ */
+public class RowBatchRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+  private final ReentrantLock lock;
+  private final Condition notEmpty;
+  private final Condition notFull;
+
+  /** Object[] rows and RowBatch entries, in the order in which they were put */
+  private final ArrayDeque<Object> entries;
+
+  private final int maxSize;
+
+  /** The number of rows in the row set */
+  private int rowCount;
+
+  /** The number of rows already read from the batch at the head of the entries */
+  private int headPosition;
+
+  private int timeoutPut;
+  private int timeoutGet;
+
+  /**
+   * Create a new row set.
+   *
+   * @param maxSize the number of rows the row set can hold
+   */
+  public RowBatchRowSet(int maxSize) {
+    super();
+
+    this.maxSize = Math.max(1, maxSize);
+    lock = new ReentrantLock();
+    notEmpty = lock.newCondition();
+    notFull = lock.newCondition();
+    entries = new ArrayDeque<>();
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    if (rowData == null) {
+      // Same behavior as the blocking row set
+      return false;
+    }
+    this.rowMeta = rowMeta;
+    lock.lock();
+    try {
+      if (!awaitRoom(1, tu.toNanos(time))) {
+        return false;
+      }
+      entries.addLast(rowData);
+      rowCount++;
+      notEmpty.signal();
+      return true;
+    } catch (InterruptedException e) {
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Only waits for room for the first row of the batch. The other rows are added as long as there
+   * is room without waiting.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows) {
+    if (rows.isEmpty()) {
+      return 0;
+    }
+    this.rowMeta = rowMeta;
+    lock.lock();
+    try {
+      if (!awaitRoom(1, TimeUnit.MILLISECONDS.toNanos(timeoutPut))) {
+        return 0;
+      }
+      int count = Math.min(rows.size(), maxSize - rowCount);
+      for (int i = 0; i < count; i++) {
+        Object[] row = rows.get(i);
+        if (row == null) {
+          count = i;
+          break;
+        }
+        entries.addLast(row);
+      }
+      rowCount += count;
+      notEmpty.signal();
+      return count;
+    } catch (InterruptedException e) {
+      return 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Stores the batch as it is. Either the whole batch is added or nothing. */
+  @Override
+  public int putRowBatch(IRowMeta rowMeta, RowBatch batch) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    this.rowMeta = rowMeta;
+    lock.lock();
+    try {
+      if (!awaitRoom(batch.size(), TimeUnit.MILLISECONDS.toNanos(timeoutPut))) {
+        return 0;
+      }
+      entries.addLast(batch);
+      rowCount += batch.size();
+      notEmpty.signal();
+      return batch.size();
+    } catch (InterruptedException e) {
+      return 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Wait until there is room for the given number of rows, or the row set is empty. */
+  private boolean awaitRoom(int rows, long nanos) throws InterruptedException {
+    while (rowCount > 0 && rowCount + rows > maxSize) {
+      if (nanos <= 0L) {
+        return false;
+      }
+      nanos = notFull.awaitNanos(nanos);
+    }
+    return true;
+  }
+
+  /** Wait until there is at least one row. */
+  private boolean awaitRows(long nanos) throws InterruptedException {
+    while (rowCount == 0) {
+      if (nanos <= 0L) {
+        return false;
+      }
+      nanos = notEmpty.awaitNanos(nanos);
+    }
+    return true;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    lock.lock();
+    try {
+      if (rowCount == 0) {
+        return null;
+      }
+      return takeRow();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    lock.lock();
+    try {
+      if (!awaitRows(tu.toNanos(timeout))) {
+        return null;
+      }
+      return takeRow();
+    } catch (InterruptedException e) {
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Take the first row, converting it from the head batch if needed. Call with the lock held. */
+  private Object[] takeRow() {
+    Object entry = entries.peekFirst();
+    Object[] row;
+    if (entry instanceof RowBatch) {
+      RowBatch batch = (RowBatch) entry;
+      row = batch.getRow(headPosition++);
+      if (headPosition >= batch.size()) {
+        entries.pollFirst();
+        headPosition = 0;
+      }
+    } else {
+      row = (Object[]) entries.pollFirst();
+    }
+    rowCount--;
+    notFull.signal();
+    return row;
+  }
+
+  @Override
+  public int drainRowsTo(List<Object[]> rows, int max) {
+    lock.lock();
+    try {
+      int count = 0;
+      while (count < max && rowCount > 0) {
+        Object entry = entries.peekFirst();
+        if (entry instanceof RowBatch) {
+          RowBatch batch = (RowBatch) entry;
+          int to = Math.min(batch.size(), headPosition + max - count);
+          batch.toRows(rows, headPosition, to);
+          count += to - headPosition;
+          rowCount -= to - headPosition;
+          if (to >= batch.size()) {
+            entries.pollFirst();
+            headPosition = 0;
+          } else {
+            headPosition = to;
+          }
+        } else {
+          rows.add((Object[]) entries.pollFirst());
+          count++;
+          rowCount--;
+        }
+      }
+      if (count > 0) {
+        notFull.signalAll();
+      }
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Hands over the batch at the head of the row set as it is when it fits, otherwise the part of
+   * it that does. Consecutive Object[] rows are converted into a new batch.
+   */
+  @Override
+  public RowBatch getRowBatch(int max) {
+    lock.lock();
+    try {
+      if (!awaitRows(TimeUnit.MILLISECONDS.toNanos(timeoutGet))) {
+        return null;
+      }
+      RowBatch result;
+      Object entry = entries.peekFirst();
+      if (entry instanceof RowBatch) {
+        RowBatch batch = (RowBatch) entry;
+        int to = Math.min(batch.size(), headPosition + max);
+        result = batch.slice(headPosition, to);
+        rowCount -= to - headPosition;
+        if (to >= batch.size()) {
+          entries.pollFirst();
+          headPosition = 0;
+        } else {
+          headPosition = to;
+        }
+      } else {
+        List<Object[]> rows = new ArrayList<>(Math.min(max, rowCount));
+        while (rows.size() < max && entries.peekFirst() instanceof Object[]) {
+          rows.add((Object[]) entries.pollFirst());
+        }
+        rowCount -= rows.size();
+        result = RowBatch.fromRows(rowMeta, rows);
+      }
+      notFull.signalAll();
+      return result;
+    } catch (InterruptedException e) {
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return rowCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return Math.max(0, maxSize - rowCount);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      entries.clear();
+      rowCount = 0;
+      headPosition = 0;
+      done.set(false);
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.util.Utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Describes what a thread does while it waits for a lock-free row set to become non-empty (reader)
+ * or non-full (writer).
+ */
+public enum RowSetWaitStrategy {
+  /** Keep the CPU busy: lowest latency, one core burned per waiting transform. */
+  BUSY_SPIN,
+  /** Give the CPU back to the scheduler between checks. */
+  YIELD,
+  /** Park the thread for a short while between checks: lowest CPU use when idle. */
+  PARK;
+
+  /** The number of times we spin before applying the actual strategy */
+  private static final int SPIN_TRIES = 100;
+
+  /** The time we park the thread in the PARK strategy */
+  private static final long PARK_NANOS = 50_000L;
+
+  /**
+   * Wait a little bit.
+   *
+   * @param idleCount the number of times we already waited without seeing progress
+   */
+  public void idle(int idleCount) {
+    if (this == BUSY_SPIN || idleCount < SPIN_TRIES) {
+      Thread.onSpinWait();
+    } else if (this == YIELD) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(PARK_NANOS);
+    }
+  }
+
+  /**
+   * Look up a wait strategy by its name.
+   *
+   * @param name the name of the strategy
+   * @return the wait strategy or PARK if the name is empty or unknown
+   */
+  public static RowSetWaitStrategy lookupName(String name) {
+    if (Utils.isEmpty(name)) {
+      return PARK;
+    }
+    for (RowSetWaitStrategy strategy : values()) {
+      if (strategy.name().equalsIgnoreCase(name)) {
+        return strategy;
+      }
+    }
+    return PARK;
+  }
+}
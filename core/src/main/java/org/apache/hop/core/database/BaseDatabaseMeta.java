@@ -87,6 +87,69 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
    */
   public static final String ATTRIBUTE_PRESERVE_RESERVED_WORD_CASE = "PRESERVE_RESERVED_WORD_CASE";
 
+  /** A flag to determine if connections are taken from a shared connection pool */
+  public static final String ATTRIBUTE_USE_POOLING = "USE_POOLING";
+
+  /** The maximum number of connections in the connection pool */
+  public static final String ATTRIBUTE_MAX_POOL_SIZE = "MAX_POOL_SIZE";
+
+  /** The prefix for all the connection pool parameters */
+  public static final String ATTRIBUTE_POOLING_PARAMETER_PREFIX = "POOLING_";
+
+  /** The default maximum number of connections in a connection pool */
+  public static final int DEFAULT_MAX_POOL_SIZE = 10;
+
+  /** The parameters which can be set on a connection pool */
+  public static final DatabaseConnectionPoolParameter[] poolingParameters =
+      new DatabaseConnectionPoolParameter[] {
+        new DatabaseConnectionPoolParameter(
+            "validationQuery",
+            null,
+            "The SQL query that will be used to validate connections from this pool before"
+                + " returning them to the caller. If left empty the JDBC driver checks if the"
+                + " connection is still valid."),
+        new DatabaseConnectionPoolParameter(
+            "testOnBorrow",
+            "true",
+            "Indicates whether connections are validated before being borrowed from the pool."
+                + " Connections failing the validation are dropped and another one is tried."),
+        new DatabaseConnectionPoolParameter(
+            "testWhileIdle",
+            "false",
+            "Indicates whether idle connections are validated by the idle connection evictor."
+                + " Connections failing the validation are dropped from the pool."),
+        new DatabaseConnectionPoolParameter(
+            "maxIdle",
+            null,
+            "The maximum number of connections that can remain idle in the pool. By default"
+                + " this is the maximum pool size."),
+        new DatabaseConnectionPoolParameter(
+            "minIdle",
+            "0",
+            "The minimum number of connections that can remain idle in the pool, without extra"
+                + " ones being created."),
+        new DatabaseConnectionPoolParameter(
+            "maxWait",
+            "60000",
+            "The maximum number of milliseconds to wait for a connection to be returned to the"
+                + " pool when all connections are in use, or -1 to wait indefinitely."),
+        new DatabaseConnectionPoolParameter(
+            "timeBetweenEvictionRunsMillis",
+            "30000",
+            "The number of milliseconds to sleep between runs of the idle connection evictor."
+                + " When non-positive, no idle connection evictor is run."),
+        new DatabaseConnectionPoolParameter(
+            "minEvictableIdleTimeMillis",
+            "300000",
+            "The minimum amount of time a connection may sit idle in the pool before it is"
+                + " eligible for eviction by the idle connection evictor."),
+        new DatabaseConnectionPoolParameter(
+            "numTestsPerEvictionRun",
+            "3",
+            "The number of connections to examine during each run of the idle connection"
+                + " evictor."),
+      };
+
   public static final String SEQUENCE_FOR_BATCH_ID = "SEQUENCE_FOR_BATCH_ID";
   public static final String AUTOINCREMENT_SQL_FOR_BATCH_ID = "AUTOINCREMENT_SQL_FOR_BATCH_ID";
 
@@ -1017,6 +1080,53 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
     attributes.put(ATTRIBUTE_FORCE_IDENTIFIERS_TO_UPPERCASE, forceUpperCase ? "Y" : "N");
   }
 
+  /** @return true if connections are taken from a shared connection pool */
+  @Override
+  public boolean isUsingConnectionPool() {
+    String usePool = getAttributeProperty(ATTRIBUTE_USE_POOLING, "N"); // DEFAULT TO NO!!
+    return "Y".equalsIgnoreCase(usePool);
+  }
+
+  /** @param usePool true if connections should be taken from a shared connection pool */
+  @Override
+  public void setUsingConnectionPool(boolean usePool) {
+    attributes.put(ATTRIBUTE_USE_POOLING, usePool ? "Y" : "N");
+  }
+
+  /** @return the maximum number of connections in the connection pool, can contain variables */
+  @Override
+  public String getMaximumPoolSizeString() {
+    return getAttributeProperty(ATTRIBUTE_MAX_POOL_SIZE, Integer.toString(DEFAULT_MAX_POOL_SIZE));
+  }
+
+  /** @param maxPoolSize the maximum number of connections in the connection pool */
+  @Override
+  public void setMaximumPoolSizeString(String maxPoolSize) {
+    attributes.put(ATTRIBUTE_MAX_POOL_SIZE, maxPoolSize);
+  }
+
+  /** @return the connection pool parameters which are set for this connection */
+  @Override
+  public Properties getConnectionPoolingProperties() {
+    Properties properties = new Properties();
+    for (String attribute : attributes.keySet()) {
+      if (attribute.startsWith(ATTRIBUTE_POOLING_PARAMETER_PREFIX)) {
+        String value = getAttributeProperty(attribute, "");
+        properties.put(attribute.substring(ATTRIBUTE_POOLING_PARAMETER_PREFIX.length()), value);
+      }
+    }
+    return properties;
+  }
+
+  /** @param properties the connection pool parameters to set, replacing the existing ones */
+  @Override
+  public void setConnectionPoolingProperties(Properties properties) {
+    attributes.keySet().removeIf(key -> key.startsWith(ATTRIBUTE_POOLING_PARAMETER_PREFIX));
+    for (String name : properties.stringPropertyNames()) {
+      attributes.put(ATTRIBUTE_POOLING_PARAMETER_PREFIX + name, properties.getProperty(name));
+    }
+  }
+
   /**
    * @return true if we use a double decimal separator to specify schema/table combinations on
    *     MS-SQL server
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.commons.dbcp.DriverManagerConnectionFactory;
+import org.apache.commons.dbcp.PoolableConnectionFactory;
+import org.apache.commons.dbcp.PoolingDataSource;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.i18n.BaseMessages;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the JDBC connection pools of the database connections which have pooling enabled. The
+ * pools are shared by everything running in this JVM (or Hop Server): there is one pool per
+ * resolved URL, user and set of connection properties. The pool settings of the connection which
+ * creates a pool are the ones used.
+ *
+ * <p>Closing a connection handed out by a pool returns it to the pool.
+ */
+public class ConnectionPoolUtil {
+  private static final Class<?> PKG = Database.class; // For Translator
+
+  /** The number of seconds to wait for the driver to validate a connection */
+  private static final int VALIDATION_TIMEOUT = 5;
+
+  private static final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+  private ConnectionPoolUtil() {}
+
+  /**
+   * Get a connection from the pool for the given URL, user and connection properties. The pool is
+   * created if there is none yet.
+   *
+   * @param log the log channel to report the pool metrics to
+   * @param databaseMeta the database connection which is connecting
+   * @param variables the variables to resolve the pool parameters with
+   * @param url the resolved URL
+   * @param username the resolved user name
+   * @param properties the connection properties, including the user and password
+   * @return a connection from the pool
+   * @throws HopDatabaseException in case no connection could be obtained
+   */
+  public static Connection getConnection(
+      ILogChannel log,
+      DatabaseMeta databaseMeta,
+      IVariables variables,
+      String url,
+      String username,
+      Properties properties)
+      throws HopDatabaseException {
+    String key = getPoolKey(url, username, properties);
+    ConnectionPool pool =
+        pools.computeIfAbsent(key, k -> createPool(databaseMeta, variables, url, properties));
+
+    long startTime = System.currentTimeMillis();
+    Connection connection;
+    try {
+      connection = pool.dataSource.getConnection();
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          BaseMessages.getString(
+              PKG, "ConnectionPoolUtil.Exception.UnableToGetConnection", databaseMeta.getName()),
+          e);
+    }
+    long time = System.currentTimeMillis() - startTime;
+
+    String subject = databaseMeta.getName();
+    log.snap(Metrics.METRIC_DATABASE_POOL_GET_CONNECTION_COUNT, subject);
+    log.snap(Metrics.METRIC_DATABASE_POOL_GET_CONNECTION_SUM_TIME, subject, time);
+    log.snap(Metrics.METRIC_DATABASE_POOL_GET_CONNECTION_MAX_TIME, subject, time);
+    log.snap(Metrics.METRIC_DATABASE_POOL_MAX_ACTIVE, subject, pool.objectPool.getNumActive());
+    log.snap(Metrics.METRIC_DATABASE_POOL_MAX_IDLE, subject, pool.objectPool.getNumIdle());
+
+    if (log.isDebug()) {
+      log.logDebug(
+          BaseMessages.getString(
+              PKG,
+              "ConnectionPoolUtil.Log.ConnectionFromPool",
+              Long.toString(time),
+              Integer.toString(pool.objectPool.getNumActive()),
+              Integer.toString(pool.objectPool.getNumIdle())));
+    }
+    return connection;
+  }
+
+  private static ConnectionPool createPool(
+      DatabaseMeta databaseMeta, IVariables variables, String url, Properties properties) {
+    Properties parameters = databaseMeta.getConnectionPoolingProperties();
+
+    int maxActive =
+        Const.toInt(
+            variables.resolve(databaseMeta.getMaximumPoolSizeString()),
+            BaseDatabaseMeta.DEFAULT_MAX_POOL_SIZE);
+
+    GenericObjectPool objectPool = new GenericObjectPool();
+    objectPool.setMaxActive(maxActive);
+    objectPool.setMaxIdle(getParameter(variables, parameters, "maxIdle", maxActive));
+    objectPool.setMinIdle(getParameter(variables, parameters, "minIdle", 0));
+    objectPool.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_BLOCK);
+    objectPool.setMaxWait(getParameter(variables, parameters, "maxWait", 60000));
+    objectPool.setTestOnBorrow(getParameter(variables, parameters, "testOnBorrow", true));
+    objectPool.setTestWhileIdle(getParameter(variables, parameters, "testWhileIdle", false));
+    objectPool.setTimeBetweenEvictionRunsMillis(
+        getParameter(variables, parameters, "timeBetweenEvictionRunsMillis", 30000));
+    objectPool.setMinEvictableIdleTimeMillis(
+        getParameter(variables, parameters, "minEvictableIdleTimeMillis", 300000));
+    objectPool.setNumTestsPerEvictionRun(
+        getParameter(variables, parameters, "numTestsPerEvictionRun", 3));
+
+    String validationQuery = variables.resolve(parameters.getProperty("validationQuery"));
+    if (Utils.isEmpty(validationQuery)) {
+      validationQuery = null;
+    }
+
+    // The factory registers itself with the pool
+    //
+    new ValidatingConnectionFactory(
+        new DriverManagerConnectionFactory(url, (Properties) properties.clone()),
+        objectPool,
+        validationQuery);
+
+    return new ConnectionPool(objectPool, new PoolingDataSource(objectPool));
+  }
+
+  private static int getParameter(
+      IVariables variables, Properties parameters, String name, int defaultValue) {
+    return Const.toInt(variables.resolve(parameters.getProperty(name)), defaultValue);
+  }
+
+  private static boolean getParameter(
+      IVariables variables, Properties parameters, String name, boolean defaultValue) {
+    String value = variables.resolve(parameters.getProperty(name));
+    if (Utils.isEmpty(value)) {
+      return defaultValue;
+    }
+    return "true".equalsIgnoreCase(value) || "Y".equalsIgnoreCase(value);
+  }
+
+  /**
+   * The key of a pool: connections are only shared if they go to the same URL as the same user
+   * with the same properties.
+   */
+  private static String getPoolKey(String url, String username, Properties properties) {
+    return url + "|" + Const.NVL(username, "") + "|" + new TreeMap<>(properties);
+  }
+
+  /** @return the number of connection pools in this JVM */
+  public static int getPoolCount() {
+    return pools.size();
+  }
+
+  /**
+   * Close all the connection pools. Connections which are in use are closed when they are given
+   * back.
+   */
+  public static void closePools() {
+    for (String key : pools.keySet()) {
+      ConnectionPool pool = pools.remove(key);
+      if (pool != null) {
+        try {
+          pool.objectPool.close();
+        } catch (Exception e) {
+          // Nothing we can do about it at this point
+        }
+      }
+    }
+  }
+
+  private static class ConnectionPool {
+    private final GenericObjectPool objectPool;
+    private final PoolingDataSource dataSource;
+
+    private ConnectionPool(GenericObjectPool objectPool, PoolingDataSource dataSource) {
+      this.objectPool = objectPool;
+      this.dataSource = dataSource;
+    }
+  }
+
+  /**
+   * Without a validation query the driver is asked if the connection is still valid. That is
+   * cheaper than a round trip with a query for most drivers.
+   */
+  private static class ValidatingConnectionFactory extends PoolableConnectionFactory {
+    private final boolean hasValidationQuery;
+
+    private ValidatingConnectionFactory(
+        DriverManagerConnectionFactory connectionFactory,
+        GenericObjectPool objectPool,
+        String validationQuery) {
+      super(connectionFactory, objectPool, null, validationQuery, false, true);
+      this.hasValidationQuery = validationQuery != null;
+    }
+
+    @Override
+    public void validateConnection(Connection connection) throws SQLException {
+      if (hasValidationQuery) {
+        super.validateConnection(connection);
+        return;
+      }
+      boolean valid;
+      try {
+        valid = connection.isValid(VALIDATION_TIMEOUT);
+      } catch (AbstractMethodError e) {
+        // A driver from before JDBC 4, just check that the connection is still open
+        //
+        valid = !connection.isClosed();
+      }
+      if (!valid) {
+        throw new SQLException("The connection is no longer valid");
+      }
+    }
+  }
+}
@@ -34,7 +34,6 @@ import org.apache.hop.core.plugins.IPlugin;
 import org.apache.hop.core.plugins.PluginRegistry;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
-import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.*;
 import org.apache.hop.core.util.Utils;
@@ -81,6 +80,12 @@ public class Database implements IVariables, ILoggingObject {
 
   private IRowMeta rowMeta;
 
+  /** Reads the rows of the result sets, created with the first row */
+  private ResultSetRowReader rowReader;
+
+  /** Timings of the calls to the driver, always gathered */
+  private DatabaseStatistics statistics;
+
   private int written;
 
   private ILogChannel log;
@@ -141,6 +146,16 @@ public class Database implements IVariables, ILoggingObject {
       log.setGatheringMetrics(parentObject.isGatheringMetrics());
     }
 
+    // Publish the statistics where the owner of the connection, usually a transform, can find them
+    //
+    String statisticsChannelId = log.getLogChannelId();
+    if (parentObject != null && parentObject.getLogChannelId() != null) {
+      statisticsChannelId = parentObject.getLogChannelId();
+    }
+    statistics =
+        new DatabaseStatistics(
+            statisticsChannelId, databaseMeta == null ? null : databaseMeta.getName());
+
     pstmt = null;
     rowMeta = null;
     dbmd = null;
@@ -397,10 +412,10 @@ public class Database implements IVariables, ILoggingObject {
               url += ";instanceName=" + instance;
             }
           }
-          connection = DriverManager.getConnection(url, properties);
+          connection = openConnection(url, username, properties);
         } else {
           // Perhaps the username is in the URL or no username is required...
-          connection = DriverManager.getConnection(url, properties);
+          connection = openConnection(url, username, properties);
         }
       } else {
         if (!Utils.isEmpty(username)) {
@@ -410,7 +425,7 @@ public class Database implements IVariables, ILoggingObject {
           properties.put("password", password);
         }
 
-        connection = DriverManager.getConnection(url, properties);
+        connection = openConnection(url, username, properties);
       }
     } catch (Exception e) {
       throw new HopDatabaseException(
@@ -418,6 +433,22 @@ public class Database implements IVariables, ILoggingObject {
     }
   }
 
+  /**
+   * Open a connection to the database, either a new one or one from the shared connection pool.
+   *
+   * @param url the resolved URL
+   * @param username the resolved user name
+   * @param properties the connection properties, including the user and password
+   * @return the connection
+   */
+  private Connection openConnection(String url, String username, Properties properties)
+      throws HopDatabaseException, SQLException {
+    if (databaseMeta.isUsingConnectionPool()) {
+      return ConnectionPoolUtil.getConnection(log, databaseMeta, this, url, username, properties);
+    }
+    return DriverManager.getConnection(url, properties);
+  }
+
   /** Disconnect from the database and close all open prepared statements. */
   public synchronized void disconnect() {
     if (connection == null) {
@@ -484,6 +515,8 @@ public class Database implements IVariables, ILoggingObject {
       pstmtSeq = null;
     }
 
+    statistics.release();
+
     // See if there are other transforms using this connection in a connection
     // group.
     // If so, we will hold commit & connection close until then.
@@ -644,7 +677,10 @@ public class Database implements IVariables, ILoggingObject {
         if (log.isDebug()) {
           log.logDebug("Commit on database connection [" + toString() + "]");
         }
+        long start = statistics.start();
         connection.commit();
+        statistics.record(DatabaseStatistics.StatementType.COMMIT, start);
+        statistics.publish();
         nrExecutedCommits++;
       } else {
         if (log.isDetailed()) {
@@ -1076,13 +1112,19 @@ public class Database implements IVariables, ILoggingObject {
       if (!isAutoCommit()) {
         if (useBatchInsert) {
           debug = "insertRow add batch";
+          long start = statistics.start();
           ps.addBatch(); // Add the batch, but don't forget to run the batch
+          statistics.record(DatabaseStatistics.StatementType.ADD_BATCH, start);
         } else {
           debug = "insertRow exec update";
+          long start = statistics.start();
           ps.executeUpdate();
+          statistics.record(DatabaseStatistics.StatementType.UPDATE, start);
         }
       } else {
+        long start = statistics.start();
         ps.executeUpdate();
+        statistics.record(DatabaseStatistics.StatementType.UPDATE, start);
       }
 
       written++;
@@ -1096,7 +1138,7 @@ public class Database implements IVariables, ILoggingObject {
         if (useBatchInsert) {
           isBatchUpdate = true;
           debug = "insertRow executeBatch commit";
-          ps.executeBatch();
+          executeBatch(ps);
           commit();
           ps.clearBatch();
         } else {
@@ -1122,6 +1164,21 @@ public class Database implements IVariables, ILoggingObject {
     }
   }
 
+  /**
+   * Execute the batch of a prepared statement and time it. The exceptions of the driver are passed
+   * on so that a {@link BatchUpdateException} can be handled by the caller.
+   *
+   * @param preparedStatement the prepared statement with the batch to execute
+   * @return the update counts of the batch
+   * @throws SQLException in case the driver fails to execute the batch
+   */
+  public int[] executeBatch(PreparedStatement preparedStatement) throws SQLException {
+    long start = statistics.start();
+    int[] updateCounts = preparedStatement.executeBatch();
+    statistics.record(DatabaseStatistics.StatementType.BATCH, start);
+    return updateCounts;
+  }
+
   public void clearBatch(PreparedStatement preparedStatement) throws HopDatabaseException {
     try {
       preparedStatement.clearBatch();
@@ -1134,7 +1191,7 @@ public class Database implements IVariables, ILoggingObject {
       throws HopDatabaseException {
     try {
       if (written > 0 && getDatabaseMetaData().supportsBatchUpdates()) {
-        preparedStatement.executeBatch();
+        executeBatch(preparedStatement);
       }
 
       written = 0;
@@ -1197,7 +1254,7 @@ public class Database implements IVariables, ILoggingObject {
             // That leaves the task of keeping track of the number of rows up to
             // our responsibility.
             isBatchUpdate = true;
-            ps.executeBatch();
+            executeBatch(ps);
             commit();
             ps.clearBatch();
           } else {
@@ -1275,13 +1332,17 @@ public class Database implements IVariables, ILoggingObject {
       if (params != null) {
         PreparedStatement prepStmt = connection.prepareStatement(databaseMeta.stripCR(sql));
         setValues(params, data, prepStmt); // set the parameters!
+        long start = statistics.start();
         resultSet = prepStmt.execute();
+        statistics.record(DatabaseStatistics.StatementType.STATEMENT, start);
         count = prepStmt.getUpdateCount();
         prepStmt.close();
       } else {
         String sqlStripped = databaseMeta.stripCR(sql);
         try (Statement stmt = connection.createStatement()) {
+          long start = statistics.start();
           resultSet = stmt.execute(sqlStripped);
+          statistics.record(DatabaseStatistics.StatementType.STATEMENT, start);
           count = stmt.getUpdateCount();
         }
       }
@@ -1485,7 +1546,9 @@ public class Database implements IVariables, ILoggingObject {
         }
 
         log.snap(Metrics.METRIC_DATABASE_EXECUTE_SQL_START, databaseMeta.getName());
+        long start = statistics.start();
         res = pstmt.executeQuery();
+        statistics.record(DatabaseStatistics.StatementType.QUERY, start);
         log.snap(Metrics.METRIC_DATABASE_EXECUTE_SQL_STOP, databaseMeta.getName());
       } else {
         log.snap(Metrics.METRIC_DATABASE_CREATE_SQL_START, databaseMeta.getName());
@@ -1506,9 +1569,12 @@ public class Database implements IVariables, ILoggingObject {
         }
 
         log.snap(Metrics.METRIC_DATABASE_EXECUTE_SQL_START, databaseMeta.getName());
+        long start = statistics.start();
         res = selStmt.executeQuery(databaseMeta.stripCR(sql));
+        statistics.record(DatabaseStatistics.StatementType.QUERY, start);
         log.snap(Metrics.METRIC_DATABASE_EXECUTE_SQL_STOP, databaseMeta.getName());
       }
+      statistics.resultSetOpened(res.getFetchSize());
 
       // MySQL Hack only. It seems too much for the cursor type of operation on
       // MySQL, to have another cursor opened
@@ -1565,7 +1631,10 @@ public class Database implements IVariables, ILoggingObject {
       }
 
       log.snap(Metrics.METRIC_DATABASE_EXECUTE_SQL_START, databaseMeta.getName());
+      long start = statistics.start();
       res = ps.executeQuery();
+      statistics.record(DatabaseStatistics.StatementType.QUERY, start);
+      statistics.resultSetOpened(res.getFetchSize());
       log.snap(Metrics.METRIC_DATABASE_EXECUTE_SQL_STOP, databaseMeta.getName());
 
       // MySQL Hack only. It seems too much for the cursor type of operation on
@@ -2214,6 +2283,8 @@ public class Database implements IVariables, ILoggingObject {
       }
     } catch (SQLException ex) {
       throw new HopDatabaseException("Couldn't close query: resultset or prepared statements", ex);
+    } finally {
+      statistics.publish();
     }
   }
 
@@ -2362,6 +2433,23 @@ public class Database implements IVariables, ILoggingObject {
     return getRow(rs, null, rowMeta);
   }
 
+  /**
+   * Get the metadata of the rows in a resultset without changing the row metadata of the queries
+   * and lookups done on this database. Use it to read the rows with {@link #getRow(ResultSet,
+   * ResultSetMetaData, IRowMeta)}.
+   *
+   * @param rs The resultset to describe
+   * @return the metadata of the rows in the resultset
+   * @throws HopDatabaseException in case the metadata can't be retrieved
+   */
+  public IRowMeta getResultSetRowMeta(ResultSet rs) throws HopDatabaseException {
+    try {
+      return getRowInfo(rs.getMetaData(), databaseMeta.isMySqlVariant(), false);
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Unable to retrieve metadata from resultset", e);
+    }
+  }
+
   /**
    * Get a row from the resultset.
    *
@@ -2371,23 +2459,20 @@ public class Database implements IVariables, ILoggingObject {
   public Object[] getRow(ResultSet rs, ResultSetMetaData dummy, IRowMeta rowInfo)
       throws HopDatabaseException {
     long startTime = System.currentTimeMillis();
+    long start = statistics.start();
 
     try {
 
-      int nrcols = rowInfo.size();
-      Object[] data = RowDataUtil.allocateRowData(nrcols);
-
-      if (rs.next()) {
-        for (int i = 0; i < nrcols; i++) {
-          IValueMeta val = rowInfo.getValueMeta(i);
-
-          data[i] = databaseMeta.getValueFromResultSet(rs, val, i);
-        }
-      } else {
-        data = null;
+      if (!rs.next()) {
+        statistics.recordFetch(start, null);
+        return null;
       }
-
-      return data;
+      if (rowReader == null) {
+        rowReader = new ResultSetRowReader(databaseMeta);
+      }
+      Object[] row = rowReader.readRow(rs, rowInfo);
+      statistics.recordFetch(start, row);
+      return row;
     } catch (Exception ex) {
       throw new HopDatabaseException("Couldn't get row from result set", ex);
     } finally {
@@ -2761,7 +2846,10 @@ public class Database implements IVariables, ILoggingObject {
     ResultSet res = null;
     try {
       log.snap(Metrics.METRIC_DATABASE_GET_LOOKUP_START, databaseMeta.getName());
+      long start = statistics.start();
       res = ps.executeQuery();
+      statistics.record(DatabaseStatistics.StatementType.LOOKUP, start);
+      statistics.resultSetOpened(0);
 
       Object[] ret = getRow(res, lazyConversion);
 
@@ -4572,6 +4660,15 @@ public class Database implements IVariables, ILoggingObject {
     }
   }
 
+  /**
+   * Gets the timings of the calls to the driver made through this connection
+   *
+   * @return the statistics
+   */
+  public DatabaseStatistics getStatistics() {
+    return statistics;
+  }
+
   @Override
   public boolean isGatheringMetrics() {
     return log != null && log.isGatheringMetrics();
@@ -1923,6 +1923,36 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
     iDatabase.setForcingIdentifiersToUpperCase(forceUpperCase);
   }
 
+  /** @return true if connections are taken from a shared connection pool */
+  public boolean isUsingConnectionPool() {
+    return iDatabase.isUsingConnectionPool();
+  }
+
+  /** @param usePool true if connections should be taken from a shared connection pool */
+  public void setUsingConnectionPool(boolean usePool) {
+    iDatabase.setUsingConnectionPool(usePool);
+  }
+
+  /** @return the maximum number of connections in the connection pool, can contain variables */
+  public String getMaximumPoolSizeString() {
+    return iDatabase.getMaximumPoolSizeString();
+  }
+
+  /** @param maxPoolSize the maximum number of connections in the connection pool */
+  public void setMaximumPoolSizeString(String maxPoolSize) {
+    iDatabase.setMaximumPoolSizeString(maxPoolSize);
+  }
+
+  /** @return the connection pool parameters which are set for this connection */
+  public Properties getConnectionPoolingProperties() {
+    return iDatabase.getConnectionPoolingProperties();
+  }
+
+  /** @param properties the connection pool parameters to set, replacing the existing ones */
+  public void setConnectionPoolingProperties(Properties properties) {
+    iDatabase.setConnectionPoolingProperties(properties);
+  }
+
   /**
    * Find a database with a certain name in an arraylist of databases.
    *
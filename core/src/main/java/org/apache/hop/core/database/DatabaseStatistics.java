@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.logging.MetricsRegistry;
+import org.apache.hop.core.metrics.IMetricsSnapshot;
+import org.apache.hop.core.metrics.LatencyHistogram;
+import org.apache.hop.core.metrics.MetricsSnapshot;
+import org.apache.hop.core.metrics.MetricsSnapshotType;
+import org.apache.hop.core.row.RowSizeEstimator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of where a database connection spends its time: latency histograms per type of
+ * statement, the rows and bytes fetched, the round trips to the database and the time spent in the
+ * driver versus the time spent in Hop between calls.
+ *
+ * <p>The statistics are always gathered, no matter the log level, and published as metrics
+ * snapshots in the {@link MetricsRegistry} under the log channel of the object which owns the
+ * connection, usually a transform. Publishing happens at most once a second while working and
+ * after every commit, closed query and disconnect. The subject of the metrics is the name of the
+ * connection. When the owner has more than one connection to the same database open, the other
+ * connections get a number after the name, "db (2)" for example.
+ *
+ * <p>The size of the rows fetched is estimated for a sample of the rows only.
+ *
+ * <p>The statistics aren't thread safe, just like the database connection they belong to.
+ */
+public class DatabaseStatistics {
+
+  /** The types of statement we time */
+  public enum StatementType {
+    QUERY("query", true),
+    FETCH("fetch", false),
+    LOOKUP("lookup", true),
+    UPDATE("update", true),
+    ADD_BATCH("add batch", false),
+    BATCH("batch", true),
+    COMMIT("commit", true),
+    STATEMENT("statement", true);
+
+    private final String description;
+    private final boolean roundTrip;
+
+    private final Metrics countMetric;
+    private final Metrics timeMetric;
+    private final Metrics p50Metric;
+    private final Metrics p95Metric;
+    private final Metrics p99Metric;
+    private final Metrics maxMetric;
+
+    StatementType(String description, boolean roundTrip) {
+      this.description = description;
+      this.roundTrip = roundTrip;
+
+      String code = "METRIC_DATABASE_" + name() + "_";
+      String label = "Database " + description;
+      countMetric = new Metrics(MetricsSnapshotType.COUNT, code + "COUNT", label + " (count)");
+      timeMetric = new Metrics(MetricsSnapshotType.SUM, code + "TIME", label + " (total ms)");
+      p50Metric = new Metrics(MetricsSnapshotType.MAX, code + "P50", label + " (median us)");
+      p95Metric = new Metrics(MetricsSnapshotType.MAX, code + "P95", label + " (95th pct us)");
+      p99Metric = new Metrics(MetricsSnapshotType.MAX, code + "P99", label + " (99th pct us)");
+      maxMetric = new Metrics(MetricsSnapshotType.MAX, code + "MAX", label + " (max us)");
+    }
+
+    /** @return a short description of the statement type */
+    public String getDescription() {
+      return description;
+    }
+
+    /** @return true if every statement of this type goes to the database and back */
+    public boolean isRoundTrip() {
+      return roundTrip;
+    }
+  }
+
+  private static final long PUBLISH_INTERVAL_NANOS = 1000000000L;
+
+  /** Estimate the size of one in this many rows fetched, a power of 2 */
+  private static final int SAMPLE_INTERVAL = 64;
+
+  /** The subjects used by open connections, per log channel */
+  private static final Map<String, Set<String>> subjectsInUse = new HashMap<>();
+
+  private final String logChannelId;
+  private final String name;
+
+  /** The subject we publish under, null if we don't have one */
+  private String subject;
+
+  private final LatencyHistogram[] histograms;
+  private long rowsFetched;
+  private long sampledRows;
+  private long sampledBytes;
+  private long roundTrips;
+  private long driverNanos;
+
+  private boolean started;
+  private long firstStartNanos;
+  private long lastEndNanos;
+  private long lastPublishNanos;
+
+  private int fetchSize;
+  private long rowsInResultSet;
+
+  /**
+   * @param logChannelId the log channel to publish the metrics under
+   * @param subject the subject of the metrics, the name of the database connection
+   */
+  public DatabaseStatistics(String logChannelId, String subject) {
+    this.logChannelId = logChannelId;
+    this.name = subject;
+    this.histograms = new LatencyHistogram[StatementType.values().length];
+  }
+
+  /**
+   * Call this right before calling the driver.
+   *
+   * @return the start time to pass to {@link #record(StatementType, long)}
+   */
+  public long start() {
+    long now = System.nanoTime();
+    if (subject == null) {
+      claimSubject();
+    }
+    if (!started) {
+      started = true;
+      firstStartNanos = now;
+      lastPublishNanos = now;
+    }
+    return now;
+  }
+
+  /**
+   * Record a call to the driver which just finished.
+   *
+   * @param type the type of statement
+   * @param startNanos the value {@link #start()} returned
+   */
+  public void record(StatementType type, long startNanos) {
+    long end = System.nanoTime();
+    long elapsed = end - startNanos;
+    LatencyHistogram histogram = histograms[type.ordinal()];
+    if (histogram == null) {
+      histogram = new LatencyHistogram();
+      histograms[type.ordinal()] = histogram;
+    }
+    histogram.record(elapsed);
+    driverNanos += elapsed;
+    lastEndNanos = end;
+    if (type.roundTrip) {
+      roundTrips++;
+    }
+    if (end - lastPublishNanos >= PUBLISH_INTERVAL_NANOS) {
+      publish();
+    }
+  }
+
+  /**
+   * Record fetching a row from a result set. The driver fetches rows in batches of the fetch size
+   * so a round trip is counted for every batch after the first one, which came with the query.
+   *
+   * @param startNanos the value {@link #start()} returned
+   * @param row the row fetched or null at the end of the result set
+   */
+  public void recordFetch(long startNanos, Object[] row) {
+    if (row != null) {
+      if ((rowsFetched & (SAMPLE_INTERVAL - 1)) == 0) {
+        sampledRows++;
+        sampledBytes += RowSizeEstimator.estimateSize(row);
+      }
+      rowsFetched++;
+      if (fetchSize > 0 && rowsInResultSet > 0 && rowsInResultSet % fetchSize == 0) {
+        roundTrips++;
+      }
+      rowsInResultSet++;
+    }
+    record(StatementType.FETCH, startNanos);
+  }
+
+  /**
+   * Call this when a new result set was opened so round trips for fetching can be estimated.
+   *
+   * @param fetchSize the fetch size of the result set, 0 or less if unknown
+   */
+  public void resultSetOpened(int fetchSize) {
+    this.fetchSize = fetchSize;
+    this.rowsInResultSet = 0;
+  }
+
+  private void claimSubject() {
+    synchronized (subjectsInUse) {
+      Set<String> subjects = subjectsInUse.computeIfAbsent(logChannelId, id -> new HashSet<>());
+      String candidate = name;
+      for (int nr = 2; !subjects.add(candidate); nr++) {
+        candidate = name + " (" + nr + ")";
+      }
+      subject = candidate;
+    }
+  }
+
+  /**
+   * Publish the statistics and let other connections use the subject. Call this when the connection
+   * is closed.
+   */
+  public void release() {
+    publish();
+    if (subject == null) {
+      return;
+    }
+    synchronized (subjectsInUse) {
+      Set<String> subjects = subjectsInUse.get(logChannelId);
+      if (subjects != null) {
+        subjects.remove(subject);
+        if (subjects.isEmpty()) {
+          subjectsInUse.remove(logChannelId);
+        }
+      }
+    }
+    subject = null;
+  }
+
+  /** Publish the statistics as metrics snapshots in the metrics registry */
+  public void publish() {
+    if (!started || subject == null) {
+      return;
+    }
+    lastPublishNanos = System.nanoTime();
+    Map<String, IMetricsSnapshot> map =
+        MetricsRegistry.getInstance().getSnapshotMap(logChannelId);
+
+    put(map, Metrics.METRIC_DATABASE_ROWS_FETCHED, rowsFetched);
+    put(map, Metrics.METRIC_DATABASE_BYTES_FETCHED, getBytesFetched());
+    put(map, Metrics.METRIC_DATABASE_ROUND_TRIPS, roundTrips);
+    put(map, Metrics.METRIC_DATABASE_DRIVER_TIME, driverNanos / 1000000L);
+    put(map, Metrics.METRIC_DATABASE_HOP_TIME, getHopNanos() / 1000000L);
+
+    for (StatementType type : StatementType.values()) {
+      LatencyHistogram histogram = histograms[type.ordinal()];
+      if (histogram == null) {
+        continue;
+      }
+      put(map, type.countMetric, histogram.getCount());
+      put(map, type.timeMetric, histogram.getSum() / 1000000L);
+      put(map, type.p50Metric, histogram.getValueAtPercentile(50.0) / 1000L);
+      put(map, type.p95Metric, histogram.getValueAtPercentile(95.0) / 1000L);
+      put(map, type.p99Metric, histogram.getValueAtPercentile(99.0) / 1000L);
+      put(map, type.maxMetric, histogram.getMax() / 1000L);
+    }
+  }
+
+  private void put(Map<String, IMetricsSnapshot> map, Metrics metric, long value) {
+    MetricsSnapshot snapshot =
+        new MetricsSnapshot(metric.getType(), metric, subject, value, logChannelId);
+    map.put(snapshot.getKey(), snapshot);
+  }
+
+  /**
+   * Summarize the database statistics published under a log channel, one line per database.
+   *
+   * @param logChannelId the log channel of a transform or other object using databases
+   * @return the summary or null if no database statistics were published
+   */
+  public static String getSummary(String logChannelId) {
+    if (logChannelId == null) {
+      return null;
+    }
+    Map<String, IMetricsSnapshot> map =
+        MetricsRegistry.getInstance().getSnapshotMaps().get(logChannelId);
+    if (map == null) {
+      return null;
+    }
+
+    List<String> subjects = new ArrayList<>();
+    for (IMetricsSnapshot snapshot : map.values()) {
+      if (Metrics.METRIC_DATABASE_ROUND_TRIPS.getCode().equals(snapshot.getMetric().getCode())) {
+        subjects.add(snapshot.getSubject());
+      }
+    }
+    if (subjects.isEmpty()) {
+      return null;
+    }
+    subjects.sort(null);
+
+    StringBuilder summary = new StringBuilder();
+    for (String name : subjects) {
+      if (summary.length() > 0) {
+        summary.append("\n");
+      }
+      summary
+          .append(name)
+          .append(": ")
+          .append(getValue(map, Metrics.METRIC_DATABASE_ROWS_FETCHED, name))
+          .append(" rows fetched, ")
+          .append(getValue(map, Metrics.METRIC_DATABASE_ROUND_TRIPS, name))
+          .append(" round trips, ")
+          .append(formatSeconds(getValue(map, Metrics.METRIC_DATABASE_DRIVER_TIME, name)))
+          .append(" in database, ")
+          .append(formatSeconds(getValue(map, Metrics.METRIC_DATABASE_HOP_TIME, name)))
+          .append(" in Hop");
+
+      String separator = "; p99 ";
+      for (StatementType type : StatementType.values()) {
+        if (map.containsKey(MetricsSnapshot.getKey(type.p99Metric, name))) {
+          summary
+              .append(separator)
+              .append(type.description)
+              .append(" ")
+              .append(formatMicros(getValue(map, type.p99Metric, name)));
+          separator = ", ";
+        }
+      }
+    }
+    return summary.toString();
+  }
+
+  private static long getValue(Map<String, IMetricsSnapshot> map, Metrics metric, String name) {
+    IMetricsSnapshot snapshot = map.get(MetricsSnapshot.getKey(metric, name));
+    if (snapshot == null || snapshot.getValue() == null) {
+      return 0L;
+    }
+    return snapshot.getValue();
+  }
+
+  private static String formatSeconds(long millis) {
+    return String.format(Locale.US, "%.1fs", millis / 1000.0);
+  }
+
+  private static String formatMicros(long micros) {
+    return String.format(Locale.US, "%.2fms", micros / 1000.0);
+  }
+
+  /** @return the time spent in Hop between the first and the last call to the driver */
+  public long getHopNanos() {
+    if (!started) {
+      return 0L;
+    }
+    return Math.max(0L, lastEndNanos - firstStartNanos - driverNanos);
+  }
+
+  /**
+   * @param type the type of statement
+   * @return the latencies of the statements of this type or null if none were executed
+   */
+  public LatencyHistogram getHistogram(StatementType type) {
+    return histograms[type.ordinal()];
+  }
+
+  /** @return the number of rows fetched from result sets */
+  public long getRowsFetched() {
+    return rowsFetched;
+  }
+
+  /** @return the estimated heap size of the rows fetched from result sets */
+  public long getBytesFetched() {
+    if (sampledRows == 0) {
+      return 0L;
+    }
+    return sampledBytes * rowsFetched / sampledRows;
+  }
+
+  /** @return the subject the statistics are published under, null if none was used yet */
+  public String getSubject() {
+    return subject;
+  }
+
+  /** @return the (partly estimated) number of round trips to the database */
+  public long getRoundTrips() {
+    return roundTrips;
+  }
+
+  /** @return the time spent in calls to the driver */
+  public long getDriverNanos() {
+    return driverNanos;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+
+/**
+ * The data of a COPY ... FROM STDIN statement which is being sent to the database. Created with
+ * {@link IDatabase#startBinaryCopy(java.sql.Connection, String)}. The statement ends with {@link
+ * #endCopy()} or {@link #cancelCopy()}, after which the connection can be used for other
+ * statements again.
+ */
+public interface ICopyIn {
+
+  /**
+   * Send data to the database.
+   *
+   * @param data the buffer with the data
+   * @param offset the offset of the data in the buffer
+   * @param length the number of bytes to send
+   * @throws HopDatabaseException in case the data can't be sent
+   */
+  void writeToCopy(byte[] data, int offset, int length) throws HopDatabaseException;
+
+  /**
+   * Finish the statement.
+   *
+   * @return the number of rows which were copied
+   * @throws HopDatabaseException in case the database rejected the data
+   */
+  long endCopy() throws HopDatabaseException;
+
+  /** Abort the statement, after an error. */
+  void cancelCopy();
+}
@@ -23,12 +23,15 @@ import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.metadata.api.HopMetadataObject;
 
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * This interface describes the methods that a database connection needs to have in order to
@@ -585,6 +588,24 @@ public interface IDatabase extends Cloneable {
   /** @param forceUpperCase true if all identifiers should be forced to upper case */
   void setForcingIdentifiersToUpperCase(boolean forceUpperCase);
 
+  /** @return true if connections are taken from a shared connection pool */
+  boolean isUsingConnectionPool();
+
+  /** @param usePool true if connections should be taken from a shared connection pool */
+  void setUsingConnectionPool(boolean usePool);
+
+  /** @return the maximum number of connections in the connection pool, can contain variables */
+  String getMaximumPoolSizeString();
+
+  /** @param maxPoolSize the maximum number of connections in the connection pool */
+  void setMaximumPoolSizeString(String maxPoolSize);
+
+  /** @return the connection pool parameters which are set for this connection */
+  Properties getConnectionPoolingProperties();
+
+  /** @param properties the connection pool parameters to set, replacing the existing ones */
+  void setConnectionPoolingProperties(Properties properties);
+
   /**
    * @return true if we use a double decimal separator to specify schema/table combinations on
    *     MS-SQL server
@@ -957,6 +978,198 @@ public interface IDatabase extends Cloneable {
     return "";
   }
 
+  /**
+   * @return true if the database can load rows sent in the PostgreSQL binary COPY format, see
+   *     {@link #startBinaryCopy(Connection, String)}
+   */
+  default boolean supportsBinaryCopy() {
+    return false;
+  }
+
+  /**
+   * Start a COPY ... FROM STDIN statement which reads the PostgreSQL binary COPY format.
+   *
+   * @param connection the connection to run the statement on
+   * @param sql the COPY statement
+   * @return the data of the statement, to write to
+   * @throws HopDatabaseException in case the statement can't be started
+   */
+  default ICopyIn startBinaryCopy(Connection connection, String sql) throws HopDatabaseException {
+    throw new HopDatabaseException("Binary COPY is not supported on this database");
+  }
+
+  /**
+   * @return true if rows can be merged into a table from a temporary table, see {@link
+   *     #getCreateTemporaryTableStatement(String, String, List)} and {@link
+   *     #getMergeStatements(String, String, List, List, List)}
+   */
+  default boolean supportsMerge() {
+    return false;
+  }
+
+  /**
+   * @param name the name of the table
+   * @return the name to use for a temporary table which is only visible to the current session
+   */
+  default String getTemporaryTableName(String name) {
+    return name;
+  }
+
+  /**
+   * Get the statement to create an empty temporary table with a number of columns of another table.
+   * The temporary table is only visible to the current session.
+   *
+   * @param temporaryTable the name of the temporary table, see {@link
+   *     #getTemporaryTableName(String)}
+   * @param sourceTable the schema and table to copy the column definitions from
+   * @param columns the quoted names of the columns
+   * @return the statement
+   */
+  default String getCreateTemporaryTableStatement(
+      String temporaryTable, String sourceTable, List<String> columns) {
+    return "CREATE TEMPORARY TABLE "
+        + temporaryTable
+        + " AS SELECT "
+        + String.join(", ", columns)
+        + " FROM "
+        + sourceTable
+        + " WHERE 1=0";
+  }
+
+  /**
+   * @param temporaryTable the name of the temporary table
+   * @return the statement to drop a temporary table if it exists
+   */
+  default String getDropTemporaryTableStatement(String temporaryTable) {
+    return getDropTableIfExistsStatement(temporaryTable);
+  }
+
+  /**
+   * Get the statements which merge all rows of a source table into a target table, to be executed
+   * in order. Rows of the source with matching key columns in the target update the target when
+   * one of the update columns differs, the other rows are inserted. The rows are matched on the key
+   * columns only, no unique index on them is needed.
+   *
+   * @param targetTable the schema and table to merge into
+   * @param sourceTable the table to read the rows from, with the same column names as the target
+   * @param keyColumns the quoted names of the columns to match the rows on
+   * @param insertColumns the quoted names of the columns to insert, empty to only update rows
+   * @param updateColumns the quoted names of the columns to update, empty to only insert rows
+   * @return the statements
+   */
+  default List<String> getMergeStatements(
+      String targetTable,
+      String sourceTable,
+      List<String> keyColumns,
+      List<String> insertColumns,
+      List<String> updateColumns) {
+    StringBuilder sql = new StringBuilder();
+    sql.append("MERGE INTO ").append(targetTable).append(" t USING ").append(sourceTable);
+    sql.append(" s ON (").append(getKeysMatchCondition(keyColumns)).append(")");
+    if (!updateColumns.isEmpty()) {
+      sql.append(" WHEN MATCHED AND (").append(getColumnsDifferCondition(updateColumns));
+      sql.append(") THEN UPDATE SET ");
+      for (int i = 0; i < updateColumns.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(updateColumns.get(i)).append(" = s.").append(updateColumns.get(i));
+      }
+    }
+    if (!insertColumns.isEmpty()) {
+      sql.append(" WHEN NOT MATCHED THEN INSERT (").append(String.join(", ", insertColumns));
+      sql.append(") VALUES (");
+      for (int i = 0; i < insertColumns.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("s.").append(insertColumns.get(i));
+      }
+      sql.append(")");
+    }
+    return Collections.singletonList(sql.toString());
+  }
+
+  /**
+   * Get the statement which inserts the rows of a source table without a matching row in a target
+   * table.
+   *
+   * @param targetTable the schema and table to insert into
+   * @param sourceTable the table to read the rows from, with the same column names as the target
+   * @param keyColumns the quoted names of the columns to match the rows on
+   * @param insertColumns the quoted names of the columns to insert
+   * @return the statement
+   */
+  default String getInsertMissingStatement(
+      String targetTable, String sourceTable, List<String> keyColumns, List<String> insertColumns) {
+    StringBuilder sql = new StringBuilder();
+    sql.append("INSERT INTO ").append(targetTable);
+    sql.append(" (").append(String.join(", ", insertColumns)).append(") SELECT ");
+    for (int i = 0; i < insertColumns.size(); i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append("s.").append(insertColumns.get(i));
+    }
+    sql.append(" FROM ").append(sourceTable).append(" s WHERE NOT EXISTS (SELECT 1 FROM ");
+    sql.append(targetTable).append(" t WHERE ").append(getKeysMatchCondition(keyColumns));
+    sql.append(")");
+    return sql.toString();
+  }
+
+  /**
+   * @param keyColumns the quoted names of the key columns
+   * @return the condition matching the rows of target t with those of source s on the key columns
+   */
+  default String getKeysMatchCondition(List<String> keyColumns) {
+    StringBuilder sql = new StringBuilder();
+    for (int i = 0; i < keyColumns.size(); i++) {
+      if (i > 0) {
+        sql.append(" AND ");
+      }
+      sql.append("t.").append(keyColumns.get(i)).append(" = s.").append(keyColumns.get(i));
+    }
+    return sql.toString();
+  }
+
+  /**
+   * @param columns the quoted names of the columns
+   * @return the condition which is true when one of the columns differs between target t and
+   *     source s, a null value only being equal to another null value
+   */
+  default String getColumnsDifferCondition(List<String> columns) {
+    StringBuilder sql = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        sql.append(" OR ");
+      }
+      sql.append(getValuesDifferCondition("t." + columns.get(i), "s." + columns.get(i)));
+    }
+    return sql.toString();
+  }
+
+  /**
+   * @param left the first value
+   * @param right the second value
+   * @return the condition which is true when the values differ, a null value only being equal to
+   *     another null value
+   */
+  default String getValuesDifferCondition(String left, String right) {
+    return "("
+        + left
+        + " <> "
+        + right
+        + " OR ("
+        + left
+        + " IS NULL AND "
+        + right
+        + " IS NOT NULL) OR ("
+        + left
+        + " IS NOT NULL AND "
+        + right
+        + " IS NULL))";
+  }
+
   /**
    * Allows to get the column name for JDBC drivers with different behavior for aliases depending on
    * the connector version.
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads rows from a result set with a reader per column which is chosen once, instead of going
+ * through the database dialect and the value metadata for every value.
+ *
+ * <p>Plain integers, numbers, booleans, big numbers, strings and dates are read straight from the
+ * result set. The primitive getters only ask the result set whether the value was null when they
+ * return 0 or false, the object getters return null themselves. Everything else, like the values
+ * of dialects which convert values their own way, is read with {@link
+ * DatabaseMeta#getValueFromResultSet(ResultSet, IValueMeta, int)} as before.
+ */
+public class ResultSetRowReader {
+
+  @FunctionalInterface
+  interface IColumnReader {
+    Object read(ResultSet resultSet) throws SQLException, HopDatabaseException;
+  }
+
+  private final DatabaseMeta databaseMeta;
+  private final boolean dialectReadsValues;
+
+  private IValueMeta[] valueMetas;
+  private IColumnReader[] readers;
+
+  /**
+   * @param databaseMeta the database the result sets come from
+   */
+  public ResultSetRowReader(DatabaseMeta databaseMeta) {
+    this.databaseMeta = databaseMeta;
+    this.dialectReadsValues = isDialectReadingValues(databaseMeta);
+    this.valueMetas = new IValueMeta[0];
+    this.readers = new IColumnReader[0];
+  }
+
+  /** A dialect which overrides getValueFromResultSet() has to read all the values itself */
+  private static boolean isDialectReadingValues(DatabaseMeta databaseMeta) {
+    IDatabase iDatabase = databaseMeta == null ? null : databaseMeta.getIDatabase();
+    if (iDatabase == null) {
+      return true;
+    }
+    try {
+      return iDatabase
+              .getClass()
+              .getMethod("getValueFromResultSet", ResultSet.class, IValueMeta.class, int.class)
+              .getDeclaringClass()
+          != BaseDatabaseMeta.class;
+    } catch (NoSuchMethodException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Read the current row of a result set, the caller moves the cursor.
+   *
+   * @param resultSet the result set
+   * @param rowMeta the metadata of the values to read
+   * @return the row
+   * @throws HopDatabaseException in case a value can't be read
+   */
+  public Object[] readRow(ResultSet resultSet, IRowMeta rowMeta) throws HopDatabaseException {
+    int nrcols = rowMeta.size();
+    if (nrcols != readers.length) {
+      valueMetas = new IValueMeta[nrcols];
+      readers = new IColumnReader[nrcols];
+    }
+    Object[] row = RowDataUtil.allocateRowData(nrcols);
+    for (int i = 0; i < nrcols; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      if (valueMeta != valueMetas[i]) {
+        valueMetas[i] = valueMeta;
+        readers[i] = createReader(valueMeta, i);
+      }
+      try {
+        row[i] = readers[i].read(resultSet);
+      } catch (SQLException e) {
+        throw new HopDatabaseException(
+            "Unable to get value '"
+                + valueMeta.toStringMeta()
+                + "' from database resultset, index "
+                + i,
+            e);
+      }
+    }
+    return row;
+  }
+
+  IColumnReader createReader(IValueMeta valueMeta, int index) {
+    final int column = index + 1;
+    if (!dialectReadsValues) {
+      Class<?> valueMetaClass = valueMeta.getClass();
+      if (valueMetaClass == ValueMetaInteger.class) {
+        return resultSet -> {
+          long value = resultSet.getLong(column);
+          return value == 0L && resultSet.wasNull() ? null : Long.valueOf(value);
+        };
+      }
+      if (valueMetaClass == ValueMetaNumber.class) {
+        return resultSet -> {
+          double value = resultSet.getDouble(column);
+          return value == 0.0 && resultSet.wasNull() ? null : Double.valueOf(value);
+        };
+      }
+      if (valueMetaClass == ValueMetaBoolean.class) {
+        return resultSet -> {
+          boolean value = resultSet.getBoolean(column);
+          return !value && resultSet.wasNull() ? null : Boolean.valueOf(value);
+        };
+      }
+      if (valueMetaClass == ValueMetaBigNumber.class) {
+        return resultSet -> resultSet.getBigDecimal(column);
+      }
+      if (valueMetaClass == ValueMetaString.class) {
+        // The storage type is checked for every value: lazy conversion can be switched on later
+        //
+        return resultSet ->
+            valueMeta.isStorageBinaryString()
+                ? resultSet.getBytes(column)
+                : resultSet.getString(column);
+      }
+      IDatabase iDatabase = databaseMeta.getIDatabase();
+      if (valueMetaClass == ValueMetaDate.class && !iDatabase.isNetezzaVariant()) {
+        boolean timestamps = iDatabase.isSupportsTimeStampToDateConversion();
+        return resultSet ->
+            timestamps && valueMeta.getPrecision() != 1
+                ? resultSet.getTimestamp(column)
+                : resultSet.getDate(column);
+      }
+    }
+    return resultSet -> databaseMeta.getValueFromResultSet(resultSet, valueMeta, index);
+  }
+}
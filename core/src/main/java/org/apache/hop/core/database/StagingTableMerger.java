@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Merges rows into a table in batches. The rows of a batch are written to a temporary staging table
+ * with a batched INSERT, after which one MERGE statement (or what the database uses instead) moves
+ * them into the target table. This takes a few statements per batch instead of one or two per row.
+ * The rows are matched on the key columns only, the target table doesn't need a unique index on
+ * them.
+ *
+ * <p>The keys of the rows in a batch should be unique: databases refuse to change the same row
+ * twice in one MERGE.
+ *
+ * <p>A batch is merged with {@link #merge()}, or in two steps: {@link #stage()} writes the batch
+ * to the staging table and counts the matching rows, {@link #apply()} changes the target table.
+ * In between the caller can decide not to change anything.
+ */
+public class StagingTableMerger {
+  private final Database db;
+  private final String targetTable;
+  private final String stagingTable;
+  private final IRowMeta rowMeta;
+  private final List<String> keyColumns;
+  private final List<String> insertColumns;
+  private final List<String> updateColumns;
+
+  private PreparedStatement insertStatement;
+  private PreparedStatement countStatement;
+  private PreparedStatement changedStatement;
+  private List<PreparedStatement> mergeStatements;
+  private PreparedStatement clearStatement;
+  private boolean created;
+  private int batchRows;
+  private int stagedRows;
+  private long changedRows;
+
+  /**
+   * @param db the connected database
+   * @param targetTable the quoted schema and table to merge into
+   * @param stagingName the name of the staging table, unique within the session
+   * @param rowMeta the rows to merge, the names of the values are the columns of the target table
+   * @param keyColumns the columns to match the rows on
+   * @param insertColumns the columns to insert for new rows, empty to not insert rows
+   * @param updateColumns the columns to update for existing rows, empty to not update rows
+   */
+  public StagingTableMerger(
+      Database db,
+      String targetTable,
+      String stagingName,
+      IRowMeta rowMeta,
+      List<String> keyColumns,
+      List<String> insertColumns,
+      List<String> updateColumns) {
+    this.db = db;
+    this.targetTable = targetTable;
+    this.stagingTable = db.getDatabaseMeta().getIDatabase().getTemporaryTableName(stagingName);
+    this.rowMeta = rowMeta;
+    this.keyColumns = keyColumns;
+    this.insertColumns = insertColumns;
+    this.updateColumns = updateColumns;
+  }
+
+  /**
+   * @param transformName the name of the transform
+   * @param copyNr the copy of the transform
+   * @return a staging table name which doesn't clash with those of other transforms sharing the
+   *     connection
+   */
+  public static String getStagingName(String transformName, int copyNr) {
+    return "hop_staging_" + Integer.toHexString(transformName.hashCode()) + "_" + copyNr;
+  }
+
+  /**
+   * Create the staging table and prepare the statements.
+   *
+   * @throws HopDatabaseException in case the table or the statements can't be created
+   */
+  public void open() throws HopDatabaseException {
+    DatabaseMeta databaseMeta = db.getDatabaseMeta();
+    IDatabase dbInterface = databaseMeta.getIDatabase();
+
+    List<String> columns = quote(databaseMeta, Arrays.asList(rowMeta.getFieldNames()));
+    List<String> keys = quote(databaseMeta, keyColumns);
+
+    db.execStatement(dbInterface.getDropTemporaryTableStatement(stagingTable));
+    db.execStatement(
+        dbInterface.getCreateTemporaryTableStatement(stagingTable, targetTable, columns));
+    created = true;
+
+    StringBuilder insert = new StringBuilder();
+    insert.append("INSERT INTO ").append(stagingTable).append(" (");
+    insert.append(String.join(", ", columns)).append(") VALUES (");
+    for (int i = 0; i < columns.size(); i++) {
+      insert.append(i > 0 ? ", ?" : "?");
+    }
+    insert.append(")");
+
+    String count =
+        "SELECT COUNT(*) FROM "
+            + stagingTable
+            + " s WHERE EXISTS (SELECT 1 FROM "
+            + targetTable
+            + " t WHERE "
+            + dbInterface.getKeysMatchCondition(keys);
+
+    List<String> updates = quote(databaseMeta, updateColumns);
+    List<String> merge =
+        dbInterface.getMergeStatements(
+            targetTable, stagingTable, keys, quote(databaseMeta, insertColumns), updates);
+
+    insertStatement = prepare(insert.toString());
+    countStatement = prepare(count + ")");
+    if (!updates.isEmpty()) {
+      // The matching rows which will actually change
+      //
+      changedStatement =
+          prepare(count + " AND (" + dbInterface.getColumnsDifferCondition(updates) + "))");
+    }
+    mergeStatements = new ArrayList<>(merge.size());
+    for (String sql : merge) {
+      mergeStatements.add(prepare(sql));
+    }
+    clearStatement = prepare("DELETE FROM " + stagingTable);
+  }
+
+  private static List<String> quote(DatabaseMeta databaseMeta, List<String> names) {
+    List<String> quoted = new ArrayList<>(names.size());
+    for (String name : names) {
+      quoted.add(databaseMeta.quoteField(name));
+    }
+    return quoted;
+  }
+
+  private PreparedStatement prepare(String sql) throws HopDatabaseException {
+    try {
+      return db.getConnection().prepareStatement(db.getDatabaseMeta().stripCR(sql));
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to prepare statement for SQL statement [" + sql + "]", e);
+    }
+  }
+
+  /**
+   * Add a row to the current batch.
+   *
+   * @param row the row, with the layout of the row metadata
+   * @throws HopDatabaseException in case the row can't be added
+   */
+  public void addRow(Object[] row) throws HopDatabaseException {
+    db.setValues(rowMeta, row, insertStatement);
+    try {
+      insertStatement.addBatch();
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to add a row to the batch for staging table " + stagingTable, e);
+    }
+    batchRows++;
+  }
+
+  /** @return the number of rows in the current batch */
+  public int getBatchRows() {
+    return batchRows;
+  }
+
+  /**
+   * Merge the rows of the current batch into the target table and start a new batch.
+   *
+   * @return the number of rows of the batch which matched a row in the target table, see also
+   *     {@link #getChangedRows()}
+   * @throws HopDatabaseException in case the rows can't be merged
+   */
+  public long merge() throws HopDatabaseException {
+    long matched = stage();
+    apply();
+    return matched;
+  }
+
+  /**
+   * Write the rows of the current batch to the staging table and start a new batch. The target
+   * table isn't changed until {@link #apply()} is called.
+   *
+   * @return the number of rows of the batch which matched a row in the target table, see also
+   *     {@link #getChangedRows()}
+   * @throws HopDatabaseException in case the rows can't be staged
+   */
+  public long stage() throws HopDatabaseException {
+    if (batchRows == 0) {
+      return 0L;
+    }
+    try {
+      insertStatement.executeBatch();
+      insertStatement.clearBatch();
+      stagedRows = batchRows;
+
+      long matched = count(countStatement);
+      changedRows = changedStatement == null ? 0L : count(changedStatement);
+      return matched;
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to stage a batch of " + batchRows + " rows for table " + targetTable, e);
+    } finally {
+      batchRows = 0;
+    }
+  }
+
+  /**
+   * Merge the staged rows into the target table and clear the staging table.
+   *
+   * @throws HopDatabaseException in case the rows can't be merged
+   */
+  public void apply() throws HopDatabaseException {
+    if (stagedRows == 0) {
+      return;
+    }
+    try {
+      for (PreparedStatement mergeStatement : mergeStatements) {
+        mergeStatement.executeUpdate();
+      }
+      clearStatement.executeUpdate();
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to merge a batch of " + stagedRows + " rows into table " + targetTable, e);
+    } finally {
+      stagedRows = 0;
+    }
+  }
+
+  private static long count(PreparedStatement statement) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  /**
+   * @return the number of rows of the last merged batch which matched a row in the target table
+   *     with a different value in one of the update columns
+   */
+  public long getChangedRows() {
+    return changedRows;
+  }
+
+  /**
+   * Close the statements and drop the staging table.
+   *
+   * @throws HopDatabaseException in case the staging table can't be dropped
+   */
+  public void close() throws HopDatabaseException {
+    List<PreparedStatement> statements = new ArrayList<>();
+    statements.add(insertStatement);
+    statements.add(countStatement);
+    statements.add(changedStatement);
+    if (mergeStatements != null) {
+      statements.addAll(mergeStatements);
+    }
+    statements.add(clearStatement);
+    for (PreparedStatement statement : statements) {
+      if (statement != null) {
+        db.closePreparedStatement(statement);
+      }
+    }
+    insertStatement = null;
+    countStatement = null;
+    changedStatement = null;
+    mergeStatements = null;
+    clearStatement = null;
+
+    if (created) {
+      created = false;
+      db.execStatement(
+          db.getDatabaseMeta().getIDatabase().getDropTemporaryTableStatement(stagingTable));
+    }
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.i18n.BaseMessages;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded cache of looked up values by key, for transforms which look up rows in a database. The
+ * keys are rows which are hashed and compared with the compiled functions of their row metadata,
+ * so a lookup doesn't need a wrapper object or a serialized key. A key row can be longer than the
+ * key metadata: only the first values are used.
+ *
+ * <p>When the cache holds more entries than allowed, the least recently used entries are evicted.
+ * The cache counts hits, misses and evictions. It isn't thread safe: every transform copy uses its
+ * own cache.
+ *
+ * @param <V> the type of the cached values
+ */
+public class LookupCache<V> {
+  private static final Class<?> PKG = LookupCache.class; // For Translator
+
+  private static final int MINIMUM_CAPACITY = 16;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private static final class Entry<V> {
+    private final Object[] key;
+    private final int hash;
+    private V value;
+
+    /** The next entry in the same bucket */
+    private Entry<V> next;
+
+    /** The entries used before and after this one */
+    private Entry<V> before;
+
+    private Entry<V> after;
+
+    private Entry(Object[] key, int hash, V value) {
+      this.key = key;
+      this.hash = hash;
+      this.value = value;
+    }
+  }
+
+  private final ToIntFunction<Object[]> hasher;
+  private final Comparator<Object[]> comparator;
+  private final long maxEntries;
+  private final boolean accessOrder;
+
+  /** The entries from the least to the most recently used, the header is not an entry itself */
+  private final Entry<V> header;
+
+  private Entry<V>[] table;
+  private int size;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * Create a cache which evicts the least recently used entries.
+   *
+   * @param keyMeta the metadata of the keys
+   * @param maxEntries the maximum number of entries, 0 for no maximum
+   */
+  public LookupCache(IRowMeta keyMeta, long maxEntries) {
+    this(keyMeta, maxEntries, true);
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param keyMeta the metadata of the keys
+   * @param maxEntries the maximum number of entries, 0 for no maximum
+   * @param accessOrder true to evict the least recently used entries, false to evict the entries
+   *     in the order in which they were added
+   */
+  public LookupCache(IRowMeta keyMeta, long maxEntries, boolean accessOrder) {
+    int[] fieldnrs = new int[keyMeta.size()];
+    for (int i = 0; i < fieldnrs.length; i++) {
+      fieldnrs[i] = i;
+    }
+    this.hasher = keyMeta.getRowHasher(fieldnrs);
+    this.comparator = keyMeta.getRowComparator(fieldnrs);
+    this.maxEntries = Math.max(0L, maxEntries);
+    this.accessOrder = accessOrder;
+
+    header = new Entry<>(null, 0, null);
+    header.before = header;
+    header.after = header;
+
+    int capacity = MINIMUM_CAPACITY;
+    long expected = this.maxEntries > 0 ? this.maxEntries * 4 / 3 + 1 : 0L;
+    while (capacity < expected && capacity < MAXIMUM_CAPACITY) {
+      capacity <<= 1;
+    }
+    table = newTable(capacity);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> Entry<V>[] newTable(int capacity) {
+    return (Entry<V>[]) new Entry[capacity];
+  }
+
+  /**
+   * Get the value cached for a key and count a hit or a miss.
+   *
+   * @param key the key row
+   * @return the cached value or null if the key is not in the cache
+   */
+  public V get(Object[] key) {
+    Entry<V> entry = find(key, hash(key));
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    if (accessOrder) {
+      unlink(entry);
+      linkLast(entry);
+    }
+    return entry.value;
+  }
+
+  /**
+   * Get the value cached for a key without counting it or changing the order of the entries.
+   *
+   * @param key the key row
+   * @return the cached value or null if the key is not in the cache
+   */
+  public V peek(Object[] key) {
+    Entry<V> entry = find(key, hash(key));
+    return entry == null ? null : entry.value;
+  }
+
+  /**
+   * Cache a value and evict entries if the cache holds too much. The cache keeps the key row, don't
+   * change it afterwards.
+   *
+   * @param key the key row
+   * @param value the value
+   */
+  public void put(Object[] key, V value) {
+    int hash = hash(key);
+    Entry<V> entry = find(key, hash);
+    if (entry != null) {
+      entry.value = value;
+      if (accessOrder) {
+        unlink(entry);
+        linkLast(entry);
+      }
+    } else {
+      entry = new Entry<>(key, hash, value);
+      int index = hash & (table.length - 1);
+      entry.next = table[index];
+      table[index] = entry;
+      linkLast(entry);
+      size++;
+      if (size > table.length / 4 * 3 && table.length < MAXIMUM_CAPACITY) {
+        resize();
+      }
+    }
+    evict();
+  }
+
+  /**
+   * Remove a key from the cache.
+   *
+   * @param key the key row
+   * @return the value which was cached for the key or null if the key was not in the cache
+   */
+  public V remove(Object[] key) {
+    Entry<V> entry = find(key, hash(key));
+    if (entry == null) {
+      return null;
+    }
+    removeEntry(entry);
+    return entry.value;
+  }
+
+  /** Remove all entries, the counters are kept. */
+  public void clear() {
+    table = newTable(table.length);
+    header.before = header;
+    header.after = header;
+    size = 0;
+  }
+
+  /**
+   * Get the value of the first key, in the order in which they will be evicted, which matches. This
+   * tests all the keys until one matches: use it only when the keys can't be hashed, for example
+   * to find a key in a range. A hit or a miss is counted.
+   *
+   * @param matcher tests the keys
+   * @return the value of the first matching key or null if no key matches
+   * @throws HopException in case a key couldn't be tested
+   */
+  public V findFirst(IKeyMatcher matcher) throws HopException {
+    for (Entry<V> entry = header.after; entry != header; entry = entry.after) {
+      if (matcher.matches(entry.key)) {
+        hitCount++;
+        if (accessOrder) {
+          unlink(entry);
+          linkLast(entry);
+        }
+        return entry.value;
+      }
+    }
+    missCount++;
+    return null;
+  }
+
+  /** Tests the keys of the cache in {@link #findFirst(IKeyMatcher)} */
+  @FunctionalInterface
+  public interface IKeyMatcher {
+    boolean matches(Object[] key) throws HopException;
+  }
+
+  /**
+   * Get the keys in the order in which they will be evicted, least recently used first.
+   *
+   * @return a copy of the list of keys
+   */
+  public List<Object[]> getKeys() {
+    List<Object[]> keys = new ArrayList<>(size);
+    for (Entry<V> entry = header.after; entry != header; entry = entry.after) {
+      keys.add(entry.key);
+    }
+    return keys;
+  }
+
+  private int hash(Object[] key) {
+    int hash = hasher.applyAsInt(key);
+    return hash ^ (hash >>> 16);
+  }
+
+  private Entry<V> find(Object[] key, int hash) {
+    for (Entry<V> entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next) {
+      if (entry.hash == hash && comparator.compare(entry.key, key) == 0) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private void evict() {
+    while (maxEntries > 0 && size > maxEntries) {
+      removeEntry(header.after);
+      evictionCount++;
+    }
+  }
+
+  private void removeEntry(Entry<V> entry) {
+    int index = entry.hash & (table.length - 1);
+    Entry<V> previous = null;
+    for (Entry<V> e = table[index]; e != null; previous = e, e = e.next) {
+      if (e == entry) {
+        if (previous == null) {
+          table[index] = e.next;
+        } else {
+          previous.next = e.next;
+        }
+        break;
+      }
+    }
+    unlink(entry);
+    size--;
+  }
+
+  private void resize() {
+    Entry<V>[] newTable = newTable(table.length << 1);
+    int mask = newTable.length - 1;
+    for (Entry<V> entry = header.after; entry != header; entry = entry.after) {
+      int index = entry.hash & mask;
+      entry.next = newTable[index];
+      newTable[index] = entry;
+    }
+    table = newTable;
+  }
+
+  private void linkLast(Entry<V> entry) {
+    entry.after = header;
+    entry.before = header.before;
+    header.before.after = entry;
+    header.before = entry;
+  }
+
+  private void unlink(Entry<V> entry) {
+    entry.before.after = entry.after;
+    entry.after.before = entry.before;
+  }
+
+  /**
+   * Record the hits, misses and evictions in the metrics of a log channel and log them.
+   *
+   * @param log the log channel of the transform using the cache
+   */
+  public void logStatistics(ILogChannel log) {
+    log.snap(Metrics.METRIC_LOOKUP_CACHE_HIT_COUNT, hitCount);
+    log.snap(Metrics.METRIC_LOOKUP_CACHE_MISS_COUNT, missCount);
+    log.snap(Metrics.METRIC_LOOKUP_CACHE_EVICTION_COUNT, evictionCount);
+    if (log.isDetailed()) {
+      log.logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "LookupCache.Log.Statistics",
+              Long.toString(hitCount),
+              Long.toString(missCount),
+              Long.toString(evictionCount),
+              Integer.toString(size)));
+    }
+  }
+
+  /**
+   * Gets the number of entries
+   *
+   * @return the number of entries in the cache
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets hitCount
+   *
+   * @return the number of times a key was found
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Gets missCount
+   *
+   * @return the number of times a key was not found
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Gets evictionCount
+   *
+   * @return the number of entries evicted because the cache held too much
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+}
@@ -104,6 +104,51 @@ public class Metrics implements IMetrics {
           MetricsSnapshotType.MAX,
           "METRIC_DATABASE_GET_ROW_MAX_TIME",
           "Get row from DB (max time)");
+  public static Metrics METRIC_DATABASE_POOL_GET_CONNECTION_COUNT =
+      new Metrics(
+          MetricsSnapshotType.COUNT,
+          "METRIC_DATABASE_POOL_GET_CONNECTION_COUNT",
+          "Get connection from pool (count)");
+  public static Metrics METRIC_DATABASE_POOL_GET_CONNECTION_SUM_TIME =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_POOL_GET_CONNECTION_SUM_TIME",
+          "Get connection from pool (total time)");
+  public static Metrics METRIC_DATABASE_POOL_GET_CONNECTION_MAX_TIME =
+      new Metrics(
+          MetricsSnapshotType.MAX,
+          "METRIC_DATABASE_POOL_GET_CONNECTION_MAX_TIME",
+          "Get connection from pool (max time)");
+  public static Metrics METRIC_DATABASE_POOL_MAX_ACTIVE =
+      new Metrics(
+          MetricsSnapshotType.MAX,
+          "METRIC_DATABASE_POOL_MAX_ACTIVE",
+          "Connections in use in the pool (max)");
+  public static Metrics METRIC_DATABASE_POOL_MAX_IDLE =
+      new Metrics(
+          MetricsSnapshotType.MAX,
+          "METRIC_DATABASE_POOL_MAX_IDLE",
+          "Idle connections in the pool (max)");
+  public static Metrics METRIC_DATABASE_ROWS_FETCHED =
+      new Metrics(
+          MetricsSnapshotType.SUM, "METRIC_DATABASE_ROWS_FETCHED", "Rows fetched from DB");
+  public static Metrics METRIC_DATABASE_BYTES_FETCHED =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_BYTES_FETCHED",
+          "Bytes fetched from DB (estimated heap size)");
+  public static Metrics METRIC_DATABASE_ROUND_TRIPS =
+      new Metrics(MetricsSnapshotType.COUNT, "METRIC_DATABASE_ROUND_TRIPS", "Round trips to DB");
+  public static Metrics METRIC_DATABASE_DRIVER_TIME =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_DRIVER_TIME",
+          "Time spent in the DB driver (total ms)");
+  public static Metrics METRIC_DATABASE_HOP_TIME =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_DATABASE_HOP_TIME",
+          "Time spent in Hop between DB calls (total ms)");
 
   // Pipeline
   //
@@ -124,6 +169,24 @@ public class Metrics implements IMetrics {
   public static Metrics METRIC_TRANSFORM_INIT_STOP =
       new Metrics(MetricsSnapshotType.STOP, "METRIC_TRANSFORM_INIT", "Initialize a transform");
 
+  // Lookup caches
+  //
+  public static Metrics METRIC_LOOKUP_CACHE_HIT_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_HIT_COUNT",
+          "Number of keys found in a lookup cache");
+  public static Metrics METRIC_LOOKUP_CACHE_MISS_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_MISS_COUNT",
+          "Number of keys not found in a lookup cache");
+  public static Metrics METRIC_LOOKUP_CACHE_EVICTION_COUNT =
+      new Metrics(
+          MetricsSnapshotType.SUM,
+          "METRIC_LOOKUP_CACHE_EVICTION_COUNT",
+          "Number of entries evicted from a lookup cache");
+
   // Logging back-end
   //
   public static Metrics METRIC_CENTRAL_LOG_STORE_TIMEOUT_CLEAN_TIME =
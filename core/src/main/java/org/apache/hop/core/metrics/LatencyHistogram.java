@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of latencies in nanoseconds with a fixed relative precision, in the spirit of
+ * HdrHistogram. Values below 64 are counted exactly. Larger values go into buckets that split every
+ * power of two in 32, so a percentile is off by at most about 3%. Recording a value is a few shifts
+ * and an array increment, which makes it cheap enough to time every database call.
+ *
+ * <p>A histogram isn't thread safe: record values from one thread only.
+ */
+public class LatencyHistogram {
+
+  /** The number of bits a bucket keeps of a value */
+  private static final int PRECISION_BITS = 6;
+
+  private static final int HALF_BUCKET_COUNT = 1 << (PRECISION_BITS - 1);
+
+  /** Larger values, 2^40 nanoseconds or about 18 minutes, all go into the last bucket */
+  private static final long HIGHEST_VALUE = (1L << 40) - 1;
+
+  private final long[] counts;
+  private long count;
+  private long sum;
+  private long min;
+  private long max;
+
+  public LatencyHistogram() {
+    counts = new long[bucketIndex(HIGHEST_VALUE) + 1];
+    min = Long.MAX_VALUE;
+  }
+
+  /**
+   * Record a latency.
+   *
+   * @param nanos the latency in nanoseconds, negative values are counted as 0
+   */
+  public void record(long nanos) {
+    long value = Math.max(0L, nanos);
+    counts[bucketIndex(Math.min(value, HIGHEST_VALUE))]++;
+    count++;
+    sum += value;
+    if (value < min) {
+      min = value;
+    }
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Get the latency below or at which the given percentage of the recorded values lie.
+   *
+   * @param percentile the percentile, 0 to 100
+   * @return the latency in nanoseconds, 0 if nothing was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0L;
+    }
+    long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count);
+    rank = Math.max(1L, rank);
+    long seen = 0;
+    for (int index = 0; index < counts.length; index++) {
+      seen += counts[index];
+      if (seen >= rank) {
+        if (index == counts.length - 1) {
+          return max;
+        }
+        return Math.max(min, Math.min(max, highestValueInBucket(index)));
+      }
+    }
+    return max;
+  }
+
+  /** Forget all recorded values */
+  public void reset() {
+    Arrays.fill(counts, 0L);
+    count = 0;
+    sum = 0;
+    min = Long.MAX_VALUE;
+    max = 0;
+  }
+
+  static int bucketIndex(long value) {
+    int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - PRECISION_BITS);
+    return shift * HALF_BUCKET_COUNT + (int) (value >>> shift);
+  }
+
+  static long highestValueInBucket(int index) {
+    if (index < 2 * HALF_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / HALF_BUCKET_COUNT - 1;
+    long subBucket = index % HALF_BUCKET_COUNT + HALF_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  /** @return the number of recorded values */
+  public long getCount() {
+    return count;
+  }
+
+  /** @return the sum of all recorded values in nanoseconds */
+  public long getSum() {
+    return sum;
+  }
+
+  /** @return the smallest recorded value in nanoseconds, 0 if nothing was recorded */
+  public long getMin() {
+    return count == 0 ? 0L : min;
+  }
+
+  /** @return the largest recorded value in nanoseconds */
+  public long getMax() {
+    return max;
+  }
+
+  /** @return the average of the recorded values in nanoseconds, 0 if nothing was recorded */
+  public long getMean() {
+    return count == 0 ? 0L : sum / count;
+  }
+}
@@ -27,8 +27,10 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.SocketTimeoutException;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * This interface provides methods to describe and manipulate a row&#39;s structure. The interface
@@ -462,6 +464,46 @@ public interface IRowMeta extends Cloneable {
    */
   int compare(Object[] rowData1, Object[] rowData2) throws HopValueException;
 
+  /**
+   * Create a comparator for rows of this metadata which gives the same results as {@link
+   * #compare(Object[], Object[], int[])}. The type and options of the fields are looked up once
+   * instead of for every comparison, so the comparator doesn't see later changes to this metadata.
+   * Conversion errors are thrown as a RuntimeException.
+   *
+   * @param fieldnrs the fields to compare on (in that order)
+   * @return a new comparator
+   */
+  default Comparator<Object[]> getRowComparator(int[] fieldnrs) {
+    return RowComparators.createComparator(this, fieldnrs);
+  }
+
+  /**
+   * Create a comparator which gives the same results as {@link #compare(Object[], IRowMeta,
+   * Object[], int[], int[])}. The first row passed to the comparator is a row of this metadata, the
+   * second one a row of the second metadata.
+   *
+   * @param fieldnrs1 The indexes of the values to compare in the first row
+   * @param rowMeta2 the metadata of the second row of data
+   * @param fieldnrs2 The indexes of the values to compare with in the second row
+   * @return a new comparator
+   */
+  default Comparator<Object[]> getRowComparator(
+      int[] fieldnrs1, IRowMeta rowMeta2, int[] fieldnrs2) {
+    return RowComparators.createComparator(this, fieldnrs1, rowMeta2, fieldnrs2);
+  }
+
+  /**
+   * Create a hash function for the given fields of rows of this metadata. The values are hashed in
+   * their normal storage form, like {@link #hashCode(Object[])} does for a row of normal storage
+   * values. Conversion errors are thrown as a RuntimeException.
+   *
+   * @param fieldnrs the fields to calculate the hash code for
+   * @return a new hash function
+   */
+  default ToIntFunction<Object[]> getRowHasher(int[] fieldnrs) {
+    return RowComparators.createHasher(this, fieldnrs);
+  }
+
   /**
    * Calculates a simple hashCode of all the native data objects in the supplied row. This method
    * will return a better distribution of values for rows of numbers or rows with the same values in
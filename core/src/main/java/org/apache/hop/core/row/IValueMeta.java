@@ -34,6 +34,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
@@ -948,6 +949,19 @@ public interface IValueMeta extends Cloneable {
    */
   int compare(Object data1, IValueMeta meta2, Object data2) throws HopValueException;
 
+  /**
+   * Create a comparator which gives the same results as {@link #compare(Object, Object)} without
+   * looking at the data type, storage type and sort options of this metadata for every value. The
+   * comparator uses the options as they are when it is created.
+   *
+   * @return a comparator for values of this metadata or null if there is no such comparator, for
+   *     example because the values are not stored in their normal (native) form. Use {@link
+   *     #compare(Object, Object)} in that case.
+   */
+  default Comparator<Object> createValueComparator() {
+    return null;
+  }
+
   /**
    * Convert the specified data to the data type specified in this object.
    *
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.row.vector.ColumnVector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of rows stored column by column. Every field of the row metadata has a {@link
+ * ColumnVector} holding the values of that field for all rows in the batch. Numbers, integers,
+ * booleans and dates are kept in primitive arrays, strings are dictionary encoded, so a batch of
+ * numeric rows doesn't need an object per value.
+ *
+ * <p>Transforms which work on whole columns can read and write batches with {@link
+ * org.apache.hop.core.IRowSet#getRowBatch(int)} and {@link
+ * org.apache.hop.core.IRowSet#putRowBatch(IRowMeta, RowBatch)}. Row sets which don't store batches
+ * convert them from and to Object[] rows.
+ */
+public class RowBatch {
+
+  private final IRowMeta rowMeta;
+  private final ColumnVector[] columns;
+  private int size;
+
+  /**
+   * Create an empty batch to add rows to.
+   *
+   * @param rowMeta the description of the rows
+   * @param capacity the expected number of rows
+   */
+  public RowBatch(IRowMeta rowMeta, int capacity) {
+    this.rowMeta = rowMeta;
+    this.columns = new ColumnVector[rowMeta.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = ColumnVector.create(rowMeta.getValueMeta(i), capacity);
+    }
+  }
+
+  /**
+   * Create a batch from existing vectors. The vectors all need to have the same size.
+   *
+   * @param rowMeta the description of the rows
+   * @param columns a vector for every field in the row metadata
+   * @param size the number of rows
+   */
+  public RowBatch(IRowMeta rowMeta, ColumnVector[] columns, int size) {
+    if (columns.length != rowMeta.size()) {
+      throw new IllegalArgumentException(
+          "Expected " + rowMeta.size() + " columns but got " + columns.length);
+    }
+    for (ColumnVector column : columns) {
+      if (column.size() != size) {
+        throw new IllegalArgumentException(
+            "All columns need to contain " + size + " values, found " + column.size());
+      }
+    }
+    this.rowMeta = rowMeta;
+    this.columns = columns;
+    this.size = size;
+  }
+
+  /**
+   * Convert rows to a batch.
+   *
+   * @param rowMeta the description of the rows
+   * @param rows the rows
+   * @return a new batch with the values of the rows
+   */
+  public static RowBatch fromRows(IRowMeta rowMeta, List<Object[]> rows) {
+    RowBatch batch = new RowBatch(rowMeta, rows.size());
+    for (Object[] row : rows) {
+      batch.addRow(row);
+    }
+    return batch;
+  }
+
+  /**
+   * Append a row to this batch. A value which doesn't fit the primitive vector of its field, for
+   * example a java.sql.Timestamp in a Date field, turns that vector into an object vector.
+   *
+   * @param row the row to add
+   */
+  public void addRow(Object[] row) {
+    for (int i = 0; i < columns.length; i++) {
+      addValue(i, row != null && i < row.length ? row[i] : null);
+    }
+    size++;
+  }
+
+  /**
+   * Append a value to the vector of a field, turning the vector into an object vector if needed.
+   * Call {@link #rowAppended()} once a value was added to every vector.
+   */
+  void addValue(int index, Object value) {
+    if (!columns[index].addObject(value)) {
+      columns[index] = columns[index].toObjectVector();
+      columns[index].addObject(value);
+    }
+  }
+
+  /** Count a row of which the values were appended to the vectors directly. */
+  void rowAppended() {
+    size++;
+  }
+
+  /**
+   * Convert a row of this batch to an Object[] row. The row is allocated with the usual extra room
+   * for transforms to add fields.
+   *
+   * @param index the index of the row
+   * @return a new row
+   */
+  public Object[] getRow(int index) {
+    Object[] row = RowDataUtil.allocateRowData(columns.length);
+    for (int i = 0; i < columns.length; i++) {
+      row[i] = columns[i].getObject(index);
+    }
+    return row;
+  }
+
+  /** @return all rows of this batch as new Object[] rows */
+  public List<Object[]> toRows() {
+    List<Object[]> rows = new ArrayList<>(size);
+    toRows(rows, 0, size);
+    return rows;
+  }
+
+  /**
+   * Convert a range of the rows of this batch to Object[] rows.
+   *
+   * @param rows the list to add the rows to
+   * @param from the index of the first row, inclusive
+   * @param to the index of the last row, exclusive
+   */
+  public void toRows(List<Object[]> rows, int from, int to) {
+    for (int r = from; r < to; r++) {
+      rows.add(getRow(r));
+    }
+  }
+
+  /**
+   * Create a new batch with a subset of the rows of this batch, for example the rows which passed
+   * a filter.
+   *
+   * @param positions the indexes of the rows to keep
+   * @param count the number of positions to use
+   * @return a new batch with count rows
+   */
+  public RowBatch select(int[] positions, int count) {
+    ColumnVector[] selected = new ColumnVector[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      selected[i] = columns[i].select(positions, count);
+    }
+    return new RowBatch(rowMeta, selected, count);
+  }
+
+  /**
+   * Create a new batch with a range of the rows of this batch.
+   *
+   * @param from the index of the first row, inclusive
+   * @param to the index of the last row, exclusive
+   * @return a new batch with to-from rows
+   */
+  public RowBatch slice(int from, int to) {
+    if (from == 0 && to == size) {
+      return this;
+    }
+    ColumnVector[] sliced = new ColumnVector[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      sliced[i] = columns[i].slice(from, to);
+    }
+    return new RowBatch(rowMeta, sliced, to - from);
+  }
+
+  /**
+   * Create a new batch with the given fields of this batch. The vectors are shared, not copied.
+   *
+   * @param outputRowMeta the description of the new rows
+   * @param fieldIndexes for every field of the output row metadata, the index of the field in this
+   *     batch
+   * @return a new batch
+   */
+  public RowBatch selectFields(IRowMeta outputRowMeta, int[] fieldIndexes) {
+    ColumnVector[] selected = new ColumnVector[fieldIndexes.length];
+    for (int i = 0; i < fieldIndexes.length; i++) {
+      selected[i] = columns[fieldIndexes[i]];
+    }
+    return new RowBatch(outputRowMeta, selected, size);
+  }
+
+  /** @return the description of the rows */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * @param index the index of the field
+   * @return the values of the field
+   */
+  public ColumnVector getColumn(int index) {
+    return columns[index];
+  }
+
+  /** @return the number of rows */
+  public int size() {
+    return size;
+  }
+
+  /** @return true if the batch doesn't contain any rows */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+}
@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.exception.HopEofException;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.vector.ColumnVector;
+import org.apache.hop.core.row.vector.DoubleColumnVector;
+import org.apache.hop.core.row.vector.LongColumnVector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Compact binary serialization of rows with a fixed row metadata. The data type and storage type of
+ * every field are looked at once, when the codec is created.
+ *
+ * <p>A row is written as the length of the rest of the row (4 bytes), a bitmap with a bit for
+ * every field which is null, followed by the values which are not null. Integers and dates are
+ * written as variable length (zigzag) longs, numbers as 8 bytes, strings as UTF-8 prefixed with
+ * their length. Integers, numbers, dates and booleans are encoded and decoded without creating
+ * objects beyond the values themselves, and not even those when decoding into a {@link RowBatch}.
+ *
+ * <p>Streams of encoded rows start with a header holding the version of the format, see {@link
+ * #writeHeader(OutputStream)} and {@link #readHeader(InputStream)}. Streams without a header were
+ * written with {@link IRowMeta#writeData(DataOutputStream, Object[])} and are read with {@link
+ * IRowMeta#readData(DataInputStream)}, see {@link #LEGACY_VERSION}.
+ *
+ * <p>A codec keeps buffers to re-use between rows and is not thread safe.
+ */
+public class RowCodec {
+
+  /** The current version of the format */
+  public static final int VERSION = 1;
+
+  /** The version of streams without a header, holding rows written by IRowMeta.writeData() */
+  public static final int LEGACY_VERSION = 0;
+
+  /** The bytes at the start of a stream of rows, before the version */
+  private static final byte[] MAGIC = {'H', 'R', 'C'};
+
+  private static final int KIND_INTEGER = 0;
+  private static final int KIND_NUMBER = 1;
+  private static final int KIND_DATE = 2;
+  private static final int KIND_BOOLEAN = 3;
+  private static final int KIND_STRING = 4;
+  private static final int KIND_BIGNUMBER = 5;
+  private static final int KIND_BYTES = 6;
+  private static final int KIND_TIMESTAMP = 7;
+  private static final int KIND_INDEX = 8;
+  private static final int KIND_OTHER = 9;
+
+  private static final int INITIAL_BUFFER_SIZE = 4096;
+
+  private final IRowMeta rowMeta;
+  private final IValueMeta[] valueMetas;
+  private final int[] kinds;
+  private final int bitmapLength;
+
+  /** The buffer used to read and write rows from and to streams */
+  private ByteBuffer streamBuffer;
+
+  /** Used to serialize values of types without a compact form */
+  private ByteArrayOutputStream otherBytes;
+
+  private DataOutputStream otherOutput;
+
+  /** Reads rows of streams without a header, see {@link #LEGACY_VERSION} */
+  private InputStream legacyStream;
+
+  private DataInputStream legacyInput;
+
+  /**
+   * Create a codec for rows with the given metadata.
+   *
+   * @param rowMeta the metadata of the rows to encode and decode
+   */
+  public RowCodec(IRowMeta rowMeta) {
+    this.rowMeta = rowMeta;
+    this.valueMetas = rowMeta.getValueMetaList().toArray(new IValueMeta[0]);
+    this.kinds = new int[valueMetas.length];
+    for (int i = 0; i < valueMetas.length; i++) {
+      kinds[i] = getKind(valueMetas[i]);
+    }
+    this.bitmapLength = (valueMetas.length + 7) / 8;
+  }
+
+  private static int getKind(IValueMeta valueMeta) {
+    switch (valueMeta.getStorageType()) {
+      case IValueMeta.STORAGE_TYPE_BINARY_STRING:
+        return KIND_BYTES;
+      case IValueMeta.STORAGE_TYPE_INDEXED:
+        return KIND_INDEX;
+      default:
+        break;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return KIND_INTEGER;
+      case IValueMeta.TYPE_NUMBER:
+        return KIND_NUMBER;
+      case IValueMeta.TYPE_DATE:
+        return KIND_DATE;
+      case IValueMeta.TYPE_BOOLEAN:
+        return KIND_BOOLEAN;
+      case IValueMeta.TYPE_STRING:
+        return KIND_STRING;
+      case IValueMeta.TYPE_BIGNUMBER:
+        return KIND_BIGNUMBER;
+      case IValueMeta.TYPE_BINARY:
+        return KIND_BYTES;
+      case IValueMeta.TYPE_TIMESTAMP:
+        return KIND_TIMESTAMP;
+      default:
+        return KIND_OTHER;
+    }
+  }
+
+  /**
+   * Write the header of a stream of rows: a marker and the version of the format.
+   *
+   * @param outputStream the stream to write to
+   * @throws HopFileException in case of an I/O error
+   */
+  public static void writeHeader(OutputStream outputStream) throws HopFileException {
+    try {
+      outputStream.write(MAGIC);
+      outputStream.write(VERSION);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to write the row codec header", e);
+    }
+  }
+
+  /**
+   * Read the header of a stream of rows written with {@link #writeHeader(OutputStream)}. When the
+   * stream supports mark and reset, a stream without a header is taken to hold rows written by
+   * {@link IRowMeta#writeData(DataOutputStream, Object[])}: the stream is reset to its start and
+   * {@link #LEGACY_VERSION} is returned.
+   *
+   * @param inputStream the stream to read from
+   * @return the version of the format the rows were written in
+   * @throws HopFileException if the stream doesn't start with a header and can't be reset, or if
+   *     the version is not supported
+   */
+  public static int readHeader(InputStream inputStream) throws HopFileException {
+    byte[] header = new byte[MAGIC.length + 1];
+    boolean markSupported = inputStream.markSupported();
+    int read;
+    try {
+      if (markSupported) {
+        inputStream.mark(header.length);
+      }
+      read = readAtMost(inputStream, header, header.length);
+      if (markSupported && !hasMagic(header, read)) {
+        inputStream.reset();
+        return LEGACY_VERSION;
+      }
+    } catch (IOException e) {
+      throw new HopFileException("Unable to read the row codec header", e);
+    }
+    if (!hasMagic(header, read)) {
+      throw new HopFileException("The data doesn't start with a row codec header");
+    }
+    int version = header[MAGIC.length];
+    if (version < 1 || version > VERSION) {
+      throw new HopFileException("Unsupported row codec version " + version);
+    }
+    return version;
+  }
+
+  private static boolean hasMagic(byte[] header, int read) {
+    if (read < header.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (header[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Encode a row at the position of the buffer. The position is moved past the encoded row.
+   *
+   * @param row the row to encode
+   * @param buffer the buffer to encode the row into
+   * @throws BufferOverflowException if there is not enough room left in the buffer. The content
+   *     and position of the buffer are undefined in that case.
+   * @throws HopFileException if a value can't be serialized
+   */
+  public void encode(Object[] row, ByteBuffer buffer) throws HopFileException {
+    int start = buffer.position();
+    buffer.putInt(0);
+    int bitmapStart = buffer.position();
+    for (int i = 0; i < bitmapLength; i++) {
+      buffer.put((byte) 0);
+    }
+
+    for (int i = 0; i < kinds.length; i++) {
+      Object value = i < row.length ? row[i] : null;
+      if (value == null) {
+        int position = bitmapStart + (i >>> 3);
+        buffer.put(position, (byte) (buffer.get(position) | (1 << (i & 7))));
+        continue;
+      }
+      switch (kinds[i]) {
+        case KIND_INTEGER:
+          putVarLong(buffer, zigzag((Long) value));
+          break;
+        case KIND_NUMBER:
+          buffer.putDouble((Double) value);
+          break;
+        case KIND_DATE:
+          putVarLong(buffer, zigzag(((Date) value).getTime()));
+          break;
+        case KIND_BOOLEAN:
+          buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+          break;
+        case KIND_STRING:
+          putString(buffer, (String) value);
+          break;
+        case KIND_BIGNUMBER:
+          BigDecimal bigNumber = (BigDecimal) value;
+          putVarLong(buffer, zigzag(bigNumber.scale()));
+          putBytes(buffer, bigNumber.unscaledValue().toByteArray());
+          break;
+        case KIND_BYTES:
+          putBytes(buffer, (byte[]) value);
+          break;
+        case KIND_TIMESTAMP:
+          Timestamp timestamp = (Timestamp) value;
+          putVarLong(buffer, zigzag(timestamp.getTime()));
+          putVarLong(buffer, timestamp.getNanos());
+          break;
+        case KIND_INDEX:
+          putVarLong(buffer, (Integer) value);
+          break;
+        default:
+          putBytes(buffer, serialize(valueMetas[i], value));
+          break;
+      }
+    }
+    buffer.putInt(start, buffer.position() - start - 4);
+  }
+
+  /**
+   * Decode the row at the position of the buffer. The position is moved past the row.
+   *
+   * @param buffer the buffer holding the encoded row
+   * @return the decoded row
+   * @throws HopFileException if a value can't be de-serialized
+   */
+  public Object[] decode(ByteBuffer buffer) throws HopFileException {
+    buffer.getInt();
+    int bitmapStart = buffer.position();
+    buffer.position(bitmapStart + bitmapLength);
+
+    Object[] row = RowDataUtil.allocateRowData(kinds.length);
+    for (int i = 0; i < kinds.length; i++) {
+      if (!isNull(buffer, bitmapStart, i)) {
+        row[i] = decodeValue(buffer, i);
+      }
+    }
+    return row;
+  }
+
+  /**
+   * Decode the row at the position of the buffer and append it to a batch. Integers, numbers,
+   * dates and booleans go straight into the primitive vectors of the batch.
+   *
+   * @param buffer the buffer holding the encoded row
+   * @param batch the batch to add the row to, with the same row metadata as this codec
+   * @throws HopFileException if a value can't be de-serialized
+   */
+  public void decode(ByteBuffer buffer, RowBatch batch) throws HopFileException {
+    buffer.getInt();
+    int bitmapStart = buffer.position();
+    buffer.position(bitmapStart + bitmapLength);
+
+    for (int i = 0; i < kinds.length; i++) {
+      ColumnVector column = batch.getColumn(i);
+      if (isNull(buffer, bitmapStart, i)) {
+        column.addNull();
+        continue;
+      }
+      switch (kinds[i]) {
+        case KIND_INTEGER:
+        case KIND_DATE:
+          long value = unzigzag(getVarLong(buffer));
+          if (column instanceof LongColumnVector) {
+            ((LongColumnVector) column).addLong(value);
+          } else {
+            batch.addValue(i, kinds[i] == KIND_DATE ? new Date(value) : (Object) value);
+          }
+          break;
+        case KIND_NUMBER:
+          double number = buffer.getDouble();
+          if (column instanceof DoubleColumnVector) {
+            ((DoubleColumnVector) column).addDouble(number);
+          } else {
+            batch.addValue(i, number);
+          }
+          break;
+        case KIND_BOOLEAN:
+          boolean flag = buffer.get() != 0;
+          if (column instanceof LongColumnVector) {
+            ((LongColumnVector) column).addLong(flag ? 1L : 0L);
+          } else {
+            batch.addValue(i, flag);
+          }
+          break;
+        default:
+          batch.addValue(i, decodeValue(buffer, i));
+          break;
+      }
+    }
+    batch.rowAppended();
+  }
+
+  private Object decodeValue(ByteBuffer buffer, int index) throws HopFileException {
+    switch (kinds[index]) {
+      case KIND_INTEGER:
+        return unzigzag(getVarLong(buffer));
+      case KIND_NUMBER:
+        return buffer.getDouble();
+      case KIND_DATE:
+        return new Date(unzigzag(getVarLong(buffer)));
+      case KIND_BOOLEAN:
+        return buffer.get() != 0;
+      case KIND_STRING:
+        return getString(buffer);
+      case KIND_BIGNUMBER:
+        int scale = (int) unzigzag(getVarLong(buffer));
+        return new BigDecimal(new BigInteger(getBytes(buffer)), scale);
+      case KIND_BYTES:
+        return getBytes(buffer);
+      case KIND_TIMESTAMP:
+        Timestamp timestamp = new Timestamp(unzigzag(getVarLong(buffer)));
+        timestamp.setNanos((int) getVarLong(buffer));
+        return timestamp;
+      case KIND_INDEX:
+        return (int) getVarLong(buffer);
+      default:
+        return deserialize(valueMetas[index], getBytes(buffer));
+    }
+  }
+
+  /**
+   * Write a row to a stream. The row is encoded in a buffer kept by the codec, which grows when a
+   * row doesn't fit.
+   *
+   * @param outputStream the stream to write to
+   * @param row the row to write
+   * @throws HopFileException in case of an I/O error or if a value can't be serialized
+   */
+  public void writeRow(OutputStream outputStream, Object[] row) throws HopFileException {
+    ByteBuffer buffer = getStreamBuffer(INITIAL_BUFFER_SIZE);
+    while (true) {
+      try {
+        buffer.clear();
+        encode(row, buffer);
+        break;
+      } catch (BufferOverflowException e) {
+        buffer = getStreamBuffer(buffer.capacity() * 2);
+      }
+    }
+    try {
+      outputStream.write(buffer.array(), 0, buffer.position());
+    } catch (IOException e) {
+      throw new HopFileException("Unable to write row to output stream", e);
+    }
+  }
+
+  /**
+   * Read a row written with {@link #writeRow(OutputStream, Object[])} from a stream.
+   *
+   * @param inputStream the stream to read from
+   * @return the row or null if the end of the stream was reached
+   * @throws HopFileException in case of an I/O error or if the stream ends halfway a row
+   */
+  public Object[] readRow(InputStream inputStream) throws HopFileException {
+    return readRow(inputStream, VERSION);
+  }
+
+  /**
+   * Read a row from a stream in the format of the given version, as returned by {@link
+   * #readHeader(InputStream)}.
+   *
+   * @param inputStream the stream to read from
+   * @param version the version of the format of the stream
+   * @return the row or null if the end of the stream was reached
+   * @throws HopFileException in case of an I/O error or if the stream ends halfway a row
+   */
+  public Object[] readRow(InputStream inputStream, int version) throws HopFileException {
+    if (version == LEGACY_VERSION) {
+      return readLegacyRow(inputStream);
+    }
+    try {
+      int first = inputStream.read();
+      if (first < 0) {
+        return null;
+      }
+      ByteBuffer buffer = getStreamBuffer(INITIAL_BUFFER_SIZE);
+      buffer.clear();
+      buffer.put((byte) first);
+      readFully(inputStream, buffer.array(), 1, 3);
+      int length = buffer.getInt(0);
+      if (length + 4 > buffer.capacity()) {
+        buffer = getStreamBuffer(Integer.highestOneBit(length + 4) * 2);
+        buffer.putInt(0, length);
+      }
+      readFully(inputStream, buffer.array(), 4, length);
+      buffer.limit(length + 4);
+      buffer.position(0);
+      return decode(buffer);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to read row from input stream", e);
+    }
+  }
+
+  private Object[] readLegacyRow(InputStream inputStream) throws HopFileException {
+    if (legacyInput == null || legacyStream != inputStream) {
+      legacyStream = inputStream;
+      legacyInput = new DataInputStream(inputStream);
+    }
+    try {
+      return rowMeta.readData(legacyInput);
+    } catch (HopEofException e) {
+      return null;
+    } catch (SocketTimeoutException e) {
+      throw new HopFileException("Unable to read row from input stream", e);
+    }
+  }
+
+  /** @return the metadata of the rows this codec encodes and decodes */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  private ByteBuffer getStreamBuffer(int minimumCapacity) {
+    if (streamBuffer == null || streamBuffer.capacity() < minimumCapacity) {
+      streamBuffer = ByteBuffer.allocate(minimumCapacity);
+    }
+    return streamBuffer;
+  }
+
+  private static boolean isNull(ByteBuffer buffer, int bitmapStart, int index) {
+    return (buffer.get(bitmapStart + (index >>> 3)) & (1 << (index & 7))) != 0;
+  }
+
+  private byte[] serialize(IValueMeta valueMeta, Object value) throws HopFileException {
+    if (otherBytes == null) {
+      otherBytes = new ByteArrayOutputStream();
+      otherOutput = new DataOutputStream(otherBytes);
+    }
+    otherBytes.reset();
+    valueMeta.writeData(otherOutput, value);
+    return otherBytes.toByteArray();
+  }
+
+  private static Object deserialize(IValueMeta valueMeta, byte[] bytes) throws HopFileException {
+    try {
+      return valueMeta.readData(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new HopFileException("Unable to read value of " + valueMeta.toStringMeta(), e);
+    }
+  }
+
+  private static void readFully(InputStream inputStream, byte[] bytes, int offset, int length)
+      throws IOException {
+    int read = 0;
+    while (read < length) {
+      int count = inputStream.read(bytes, offset + read, length - read);
+      if (count < 0) {
+        throw new EOFException("Unexpected end of stream in the middle of a row");
+      }
+      read += count;
+    }
+  }
+
+  private static int readAtMost(InputStream inputStream, byte[] bytes, int length)
+      throws IOException {
+    int read = 0;
+    while (read < length) {
+      int count = inputStream.read(bytes, read, length - read);
+      if (count < 0) {
+        break;
+      }
+      read += count;
+    }
+    return read;
+  }
+
+  static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static void putVarLong(ByteBuffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  static long getVarLong(ByteBuffer buffer) {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      result |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return result;
+      }
+    }
+    throw new IllegalStateException("Malformed variable length number in encoded row");
+  }
+
+  private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+    putVarLong(buffer, bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static byte[] getBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[(int) getVarLong(buffer)];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Write a string as UTF-8 without the intermediate byte array of {@link String#getBytes}.
+   * Unpaired surrogates are written as '?', like the JDK encoder does.
+   */
+  private static void putString(ByteBuffer buffer, String string) {
+    int length = string.length();
+    putVarLong(buffer, utf8Length(string));
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(string.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, string.charAt(++i));
+          buffer.put((byte) (0xF0 | (codePoint >> 18)));
+          buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+          buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+          buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+          buffer.put((byte) '?');
+        }
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+
+  private static int utf8Length(String string) {
+    int length = string.length();
+    int utf8Length = length;
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          utf8Length += 1;
+        } else if (Character.isSurrogate(c)) {
+          if (Character.isHighSurrogate(c)
+              && i + 1 < length
+              && Character.isLowSurrogate(string.charAt(i + 1))) {
+            // 4 bytes for 2 chars
+            utf8Length += 2;
+            i++;
+          }
+        } else {
+          utf8Length += 2;
+        }
+      }
+    }
+    return utf8Length;
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = (int) getVarLong(buffer);
+    String string;
+    if (buffer.hasArray()) {
+      string =
+          new String(
+              buffer.array(),
+              buffer.arrayOffset() + buffer.position(),
+              length,
+              StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + length);
+    } else {
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      string = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return string;
+  }
+}
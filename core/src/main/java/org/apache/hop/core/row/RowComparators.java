@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.exception.HopValueException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Builds comparators and hash functions for rows on a fixed set of key fields. The data type,
+ * storage type and sort options of every key field are looked at once, when the comparator is
+ * created, instead of for every value like {@link IRowMeta#compare(Object[], Object[], int[])}
+ * does.
+ *
+ * <p>The comparators and hash functions use the row metadata as it is when they are created. Create
+ * new ones when the metadata changes.
+ */
+public final class RowComparators {
+
+  /** Compares one key field of two rows */
+  @FunctionalInterface
+  private interface IFieldComparator {
+    int compare(Object[] row1, Object[] row2);
+  }
+
+  private RowComparators() {}
+
+  /**
+   * Create a comparator which gives the same results as {@link IRowMeta#compare(Object[],
+   * Object[], int[])}.
+   *
+   * @param rowMeta the metadata of the rows to compare
+   * @param fieldnrs the fields to compare on (in that order)
+   * @return a new comparator
+   */
+  public static Comparator<Object[]> createComparator(IRowMeta rowMeta, int[] fieldnrs) {
+    IFieldComparator[] comparators = new IFieldComparator[fieldnrs.length];
+    for (int i = 0; i < fieldnrs.length; i++) {
+      comparators[i] = createFieldComparator(rowMeta.getValueMeta(fieldnrs[i]), fieldnrs[i]);
+    }
+    return combine(comparators);
+  }
+
+  /**
+   * Create a comparator which gives the same results as {@link IRowMeta#compare(Object[],
+   * IRowMeta, Object[], int[], int[])}: the first row is described by the first row metadata, the
+   * second row by the second.
+   *
+   * @param rowMeta1 the metadata of the first row
+   * @param fieldnrs1 the indexes of the values to compare in the first row
+   * @param rowMeta2 the metadata of the second row
+   * @param fieldnrs2 the indexes of the values to compare with in the second row
+   * @return a new comparator
+   */
+  public static Comparator<Object[]> createComparator(
+      IRowMeta rowMeta1, int[] fieldnrs1, IRowMeta rowMeta2, int[] fieldnrs2) {
+    int length = Math.min(fieldnrs1.length, fieldnrs2.length);
+    IFieldComparator[] comparators = new IFieldComparator[length];
+    for (int i = 0; i < length; i++) {
+      comparators[i] =
+          createFieldComparator(
+              rowMeta1.getValueMeta(fieldnrs1[i]),
+              fieldnrs1[i],
+              rowMeta2.getValueMeta(fieldnrs2[i]),
+              fieldnrs2[i]);
+    }
+    return combine(comparators);
+  }
+
+  /**
+   * Create a hash function for the given fields of a row. The hash code is the one {@link
+   * Arrays#deepHashCode(Object[])} calculates for the key values in normal storage, so rows with
+   * the same key values get the same hash code regardless of how their values are stored.
+   *
+   * @param rowMeta the metadata of the rows
+   * @param fieldnrs the key fields
+   * @return a new hash function
+   */
+  public static ToIntFunction<Object[]> createHasher(IRowMeta rowMeta, int[] fieldnrs) {
+    int[] indexes = fieldnrs.clone();
+    IValueMeta[] converters = new IValueMeta[indexes.length];
+    boolean normalStorage = true;
+    for (int i = 0; i < indexes.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(indexes[i]);
+      if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+        converters[i] = valueMeta;
+        normalStorage = false;
+      }
+    }
+
+    if (normalStorage) {
+      return row -> {
+        int hash = 1;
+        for (int index : indexes) {
+          hash = 31 * hash + hashCode(row[index]);
+        }
+        return hash;
+      };
+    }
+
+    return row -> {
+      int hash = 1;
+      for (int i = 0; i < indexes.length; i++) {
+        Object value = row[indexes[i]];
+        if (converters[i] != null) {
+          try {
+            value = converters[i].convertToNormalStorageType(value);
+          } catch (HopValueException e) {
+            throw new RuntimeException(
+                "Unable to calculate the hash code of value " + converters[i].toStringMeta(), e);
+          }
+        }
+        hash = 31 * hash + hashCode(value);
+      }
+      return hash;
+    };
+  }
+
+  private static int hashCode(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof byte[]) {
+      return Arrays.hashCode((byte[]) value);
+    }
+    return value.hashCode();
+  }
+
+  private static IFieldComparator createFieldComparator(IValueMeta valueMeta, int index) {
+    Comparator<Object> comparator = valueMeta.createValueComparator();
+    if (comparator != null) {
+      return (row1, row2) -> comparator.compare(row1[index], row2[index]);
+    }
+    return (row1, row2) -> {
+      try {
+        return valueMeta.compare(row1[index], row2[index]);
+      } catch (HopValueException e) {
+        throw new RuntimeException("Unable to compare values of " + valueMeta.toStringMeta(), e);
+      }
+    };
+  }
+
+  private static IFieldComparator createFieldComparator(
+      IValueMeta valueMeta1, int index1, IValueMeta valueMeta2, int index2) {
+    // Values of the same type and storage are compared by the first metadata alone
+    //
+    if (valueMeta1.getType() == valueMeta2.getType()
+        && valueMeta1.getStorageType() == valueMeta2.getStorageType()) {
+      Comparator<Object> comparator = valueMeta1.createValueComparator();
+      if (comparator != null) {
+        return (row1, row2) -> comparator.compare(row1[index1], row2[index2]);
+      }
+    }
+    return (row1, row2) -> {
+      try {
+        return valueMeta1.compare(row1[index1], valueMeta2, row2[index2]);
+      } catch (HopValueException e) {
+        throw new RuntimeException("Unable to compare values of " + valueMeta1.toStringMeta(), e);
+      }
+    };
+  }
+
+  private static Comparator<Object[]> combine(IFieldComparator[] comparators) {
+    switch (comparators.length) {
+      case 0:
+        return (row1, row2) -> 0;
+      case 1:
+        IFieldComparator only = comparators[0];
+        return only::compare;
+      case 2:
+        IFieldComparator first = comparators[0];
+        IFieldComparator second = comparators[1];
+        return (row1, row2) -> {
+          int cmp = first.compare(row1, row2);
+          return cmp != 0 ? cmp : second.compare(row1, row2);
+        };
+      default:
+        return (row1, row2) -> {
+          for (IFieldComparator comparator : comparators) {
+            int cmp = comparator.compare(row1, row2);
+            if (cmp != 0) {
+              return cmp;
+            }
+          }
+          return 0;
+        };
+    }
+  }
+}
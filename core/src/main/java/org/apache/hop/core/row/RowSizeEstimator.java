@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Estimates how many bytes of heap rows take, so transforms which keep rows in memory can work
+ * with a memory budget instead of a number of rows. The estimates assume a 64-bit JVM with
+ * compressed object pointers and compact (Latin-1) strings, the defaults for heaps below 32GB.
+ */
+public final class RowSizeEstimator {
+
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+
+  private static final int BOXED_SIZE = 16;
+  private static final int DATE_SIZE = 24;
+  private static final int TIMESTAMP_SIZE = 32;
+  private static final int STRING_SIZE = 24;
+  private static final int BIG_DECIMAL_SIZE = 40;
+  private static final int BIG_INTEGER_SIZE = 40;
+
+  /** The precision up to which a BigDecimal keeps its unscaled value in a long */
+  private static final int COMPACT_PRECISION = 18;
+
+  /** What we assume values of other classes take */
+  private static final int OTHER_SIZE = 64;
+
+  private RowSizeEstimator() {}
+
+  /**
+   * Estimate the heap size of a row: the array and the values in it.
+   *
+   * @param row the row
+   * @return the estimated number of bytes
+   */
+  public static long estimateSize(Object[] row) {
+    if (row == null) {
+      return 0L;
+    }
+    long size = align(ARRAY_HEADER + (long) REFERENCE * row.length);
+    for (Object value : row) {
+      size += estimateSize(value);
+    }
+    return size;
+  }
+
+  /**
+   * Estimate the heap size of a single value. Shared instances like Boolean.TRUE take no room.
+   *
+   * @param value the value
+   * @return the estimated number of bytes
+   */
+  public static long estimateSize(Object value) {
+    if (value == null || value instanceof Boolean) {
+      return 0L;
+    }
+    if (value instanceof String) {
+      return STRING_SIZE + align(ARRAY_HEADER + (long) ((String) value).length());
+    }
+    if (value instanceof Long || value instanceof Double || value instanceof Integer) {
+      return BOXED_SIZE;
+    }
+    if (value instanceof Timestamp) {
+      return TIMESTAMP_SIZE;
+    }
+    if (value instanceof Date) {
+      return DATE_SIZE;
+    }
+    if (value instanceof byte[]) {
+      return align(ARRAY_HEADER + (long) ((byte[]) value).length);
+    }
+    if (value instanceof BigDecimal) {
+      int precision = ((BigDecimal) value).precision();
+      if (precision <= COMPACT_PRECISION) {
+        return BIG_DECIMAL_SIZE;
+      }
+      // About 3.32 bits per decimal digit, stored in ints
+      //
+      long ints = (precision * 3322L / 1000L + 32L) / 32L;
+      return BIG_DECIMAL_SIZE + BIG_INTEGER_SIZE + align(ARRAY_HEADER + ints * 4L);
+    }
+    return OTHER_SIZE;
+  }
+
+  /** Objects take a multiple of 8 bytes */
+  private static long align(long size) {
+    return (size + 7L) & ~7L;
+  }
+}
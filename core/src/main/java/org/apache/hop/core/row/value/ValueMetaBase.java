@@ -43,6 +43,7 @@ import java.sql.*;
 import java.text.*;
 import java.util.Date;
 import java.util.*;
+import java.util.function.Function;
 
 public class ValueMetaBase implements IValueMeta {
 
@@ -3777,6 +3778,132 @@ public class ValueMetaBase implements IValueMeta {
     }
   }
 
+  /**
+   * Create a comparator for values in normal storage. Subclasses which change the way values are
+   * compared don't get a comparator unless they override this method as well.
+   */
+  @Override
+  public Comparator<Object> createValueComparator() {
+    if (storageType != STORAGE_TYPE_NORMAL || comparator != null || isComparisonOverridden()) {
+      return null;
+    }
+
+    Comparator<Object> typeComparator;
+    switch (type) {
+      case TYPE_STRING:
+        typeComparator = createStringComparator();
+        break;
+      case TYPE_INTEGER:
+        typeComparator = (data1, data2) -> ((Long) data1).compareTo((Long) data2);
+        break;
+      case TYPE_NUMBER:
+        typeComparator = (data1, data2) -> Double.compare((Double) data1, (Double) data2);
+        break;
+      case TYPE_DATE:
+        typeComparator =
+            (data1, data2) -> Long.compare(((Date) data1).getTime(), ((Date) data2).getTime());
+        break;
+      case TYPE_BIGNUMBER:
+        typeComparator = (data1, data2) -> ((BigDecimal) data1).compareTo((BigDecimal) data2);
+        break;
+      case TYPE_BOOLEAN:
+        typeComparator = (data1, data2) -> Boolean.compare((Boolean) data1, (Boolean) data2);
+        break;
+      case TYPE_BINARY:
+        typeComparator = ValueMetaBase::compareBinary;
+        break;
+      default:
+        return null;
+    }
+
+    // Nulls come first, empty strings are null unless configured otherwise
+    //
+    Comparator<Object> nullComparator;
+    if (type == TYPE_STRING && !emptyStringAndNullAreDifferent) {
+      nullComparator =
+          (data1, data2) -> {
+            boolean n1 = data1 == null || data1.toString().length() == 0;
+            boolean n2 = data2 == null || data2.toString().length() == 0;
+            if (n1 || n2) {
+              return n1 == n2 ? 0 : (n1 ? -1 : 1);
+            }
+            return typeComparator.compare(data1, data2);
+          };
+    } else {
+      nullComparator =
+          (data1, data2) -> {
+            if (data1 == null || data2 == null) {
+              return data1 == data2 ? 0 : (data1 == null ? -1 : 1);
+            }
+            return typeComparator.compare(data1, data2);
+          };
+    }
+
+    if (sortedDescending) {
+      return (data1, data2) -> -nullComparator.compare(data1, data2);
+    }
+    return nullComparator;
+  }
+
+  private Comparator<Object> createStringComparator() {
+    int trim = trimType;
+    boolean trimWhitespace = ignoreWhitespace;
+    if (trim == TRIM_TYPE_NONE && !trimWhitespace) {
+      if (!collatorDisabled) {
+        Collator stringCollator = collator;
+        return (data1, data2) -> stringCollator.compare(data1.toString(), data2.toString());
+      }
+      if (caseInsensitive) {
+        return (data1, data2) -> data1.toString().compareToIgnoreCase(data2.toString());
+      }
+      return (data1, data2) -> data1.toString().compareTo(data2.toString());
+    }
+
+    Function<Object, String> toString =
+        data -> {
+          String string = Const.trimToType(data.toString(), trim);
+          return trimWhitespace ? string.trim() : string;
+        };
+    if (!collatorDisabled) {
+      Collator stringCollator = collator;
+      return (data1, data2) -> stringCollator.compare(toString.apply(data1), toString.apply(data2));
+    }
+    if (caseInsensitive) {
+      return (data1, data2) -> toString.apply(data1).compareToIgnoreCase(toString.apply(data2));
+    }
+    return (data1, data2) -> toString.apply(data1).compareTo(toString.apply(data2));
+  }
+
+  private static int compareBinary(Object data1, Object data2) {
+    byte[] b1 = (byte[]) data1;
+    byte[] b2 = (byte[]) data2;
+
+    int cmp = b1.length - b2.length;
+    if (cmp == 0) {
+      for (int i = 0; i < b1.length; i++) {
+        cmp = b1[i] - b2[i];
+        if (cmp != 0) {
+          return cmp < 0 ? -1 : 1;
+        }
+      }
+    }
+    return cmp;
+  }
+
+  /** @return true if this class changes the way values are compared or checked for null */
+  private boolean isComparisonOverridden() {
+    try {
+      return getClass().getMethod("compare", Object.class, Object.class).getDeclaringClass()
+              != ValueMetaBase.class
+          || getClass().getMethod("isNull", Object.class).getDeclaringClass()
+              != ValueMetaBase.class
+          || getClass().getMethod("getString", Object.class).getDeclaringClass()
+              != ValueMetaBase.class;
+    } catch (NoSuchMethodException e) {
+      return true;
+    }
+  }
+
   private int typeCompare(Object data1, Object data2) throws HopValueException {
     int cmp = 0;
     switch (getType()) {
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.vector;
+
+import org.apache.hop.core.row.IValueMeta;
+
+import java.util.Arrays;
+
+/**
+ * The values of one field for all the rows of a {@link org.apache.hop.core.row.RowBatch}. Null
+ * values are kept in a bitmap, which is only allocated once the first null value is added.
+ *
+ * <p>Values are only ever appended. Once a vector is part of a batch which was handed to another
+ * transform it must not be modified anymore: the other transform can share the vector in the
+ * batches it writes.
+ */
+public abstract class ColumnVector {
+
+  /** The number of values in this vector */
+  protected int size;
+
+  /** Bit i is set when value i is null, null if there are no null values */
+  protected long[] nulls;
+
+  /**
+   * Create an empty vector suitable for the data of the given value metadata. Integer, Boolean
+   * and Number values are stored in primitive arrays, Strings are dictionary encoded. All other
+   * values, and values which are not stored in their normal (native) form, are kept as objects.
+   *
+   * @param valueMeta the description of the values
+   * @param capacity the expected number of values
+   * @return a new empty vector
+   */
+  public static ColumnVector create(IValueMeta valueMeta, int capacity) {
+    if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return new ObjectColumnVector(capacity);
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+      case IValueMeta.TYPE_BOOLEAN:
+      case IValueMeta.TYPE_DATE:
+        return new LongColumnVector(valueMeta.getType(), capacity);
+      case IValueMeta.TYPE_NUMBER:
+        return new DoubleColumnVector(capacity);
+      case IValueMeta.TYPE_STRING:
+        return new StringColumnVector(capacity);
+      default:
+        return new ObjectColumnVector(capacity);
+    }
+  }
+
+  /** @return the number of values in this vector */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param index the index of the value
+   * @return true if the value is null
+   */
+  public boolean isNull(int index) {
+    return nulls != null && (nulls[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /** @return true if this vector contains at least one null value */
+  public boolean hasNulls() {
+    if (nulls != null) {
+      for (long word : nulls) {
+        if (word != 0L) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Flag value index as null */
+  protected void setNull(int index) {
+    int word = index >>> 6;
+    if (nulls == null) {
+      nulls = new long[Math.max(word + 1, (capacity() + 63) >>> 6)];
+    } else if (word >= nulls.length) {
+      nulls = Arrays.copyOf(nulls, Math.max(word + 1, nulls.length * 2));
+    }
+    nulls[word] |= 1L << index;
+  }
+
+  /**
+   * Copy the null flags of the given positions of the source vector into this vector.
+   *
+   * @param source the vector to copy from
+   * @param positions the positions in the source vector
+   * @param count the number of positions to use
+   */
+  protected void selectNulls(ColumnVector source, int[] positions, int count) {
+    if (source.nulls == null) {
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      if (source.isNull(positions[i])) {
+        setNull(i);
+      }
+    }
+  }
+
+  /** @return the number of values this vector can hold without growing */
+  public abstract int capacity();
+
+  /**
+   * Get a value in the form it has in an Object[] row.
+   *
+   * @param index the index of the value
+   * @return the value or null
+   */
+  public abstract Object getObject(int index);
+
+  /**
+   * Append a value in the form it has in an Object[] row.
+   *
+   * @param value the value to add, can be null
+   * @return false if the value can't be stored in this kind of vector, nothing is added in that
+   *     case
+   */
+  public abstract boolean addObject(Object value);
+
+  /** Append a null value */
+  public abstract void addNull();
+
+  /**
+   * Create a new vector with the values at the given positions.
+   *
+   * @param positions the positions of the values to keep, in the order in which to keep them
+   * @param count the number of positions to use
+   * @return a new vector with count values
+   */
+  public abstract ColumnVector select(int[] positions, int count);
+
+  /**
+   * Create a new vector with a range of the values of this vector.
+   *
+   * @param from the index of the first value to copy, inclusive
+   * @param to the index of the last value to copy, exclusive
+   * @return a new vector with to-from values
+   */
+  public ColumnVector slice(int from, int to) {
+    int[] positions = new int[to - from];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = from + i;
+    }
+    return select(positions, positions.length);
+  }
+
+  /**
+   * Get the values of this vector as objects, copying them to a new vector if needed.
+   *
+   * @return a vector holding the same values as objects
+   */
+  public ObjectColumnVector toObjectVector() {
+    ObjectColumnVector vector = new ObjectColumnVector(Math.max(capacity(), size));
+    for (int i = 0; i < size; i++) {
+      vector.addObject(getObject(i));
+    }
+    return vector;
+  }
+
+  /**
+   * Compute the new capacity of a vector which needs to hold at least the given number of values.
+   */
+  protected static int grow(int capacity, int minCapacity) {
+    return Math.max(minCapacity, Math.max(16, capacity + (capacity >> 1)));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.vector;
+
+import java.util.Arrays;
+
+/** Stores Number values in a double array. */
+public class DoubleColumnVector extends ColumnVector {
+
+  private double[] values;
+
+  /** @param capacity the expected number of values */
+  public DoubleColumnVector(int capacity) {
+    this.values = new double[Math.max(1, capacity)];
+  }
+
+  /**
+   * @param index the index of the value
+   * @return the primitive value, 0 if the value is null
+   */
+  public double getDouble(int index) {
+    return values[index];
+  }
+
+  /**
+   * Gives direct access to the values, for loops over the whole vector. Only the first {@link
+   * #size()} values are used. Check {@link #isNull(int)} for the values which are null.
+   *
+   * @return the values
+   */
+  public double[] getValues() {
+    return values;
+  }
+
+  /**
+   * Append a primitive value.
+   *
+   * @param value the value to add
+   */
+  public void addDouble(double value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, grow(values.length, size + 1));
+    }
+    values[size++] = value;
+  }
+
+  @Override
+  public void addNull() {
+    setNull(size);
+    addDouble(0.0);
+  }
+
+  @Override
+  public int capacity() {
+    return values.length;
+  }
+
+  @Override
+  public Object getObject(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return values[index];
+  }
+
+  @Override
+  public boolean addObject(Object value) {
+    if (value == null) {
+      addNull();
+      return true;
+    }
+    if (value instanceof Double) {
+      addDouble((Double) value);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public DoubleColumnVector select(int[] positions, int count) {
+    DoubleColumnVector vector = new DoubleColumnVector(count);
+    for (int i = 0; i < count; i++) {
+      vector.values[i] = values[positions[i]];
+    }
+    vector.size = count;
+    vector.selectNulls(this, positions, count);
+    return vector;
+  }
+
+  @Override
+  public DoubleColumnVector slice(int from, int to) {
+    DoubleColumnVector vector = new DoubleColumnVector(to - from);
+    System.arraycopy(values, from, vector.values, 0, to - from);
+    vector.size = to - from;
+    if (nulls != null) {
+      for (int i = from; i < to; i++) {
+        if (isNull(i)) {
+          vector.setNull(i - from);
+        }
+      }
+    }
+    return vector;
+  }
+}
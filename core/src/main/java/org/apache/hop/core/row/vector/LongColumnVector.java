@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.vector;
+
+import org.apache.hop.core.row.IValueMeta;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Stores Integer, Boolean or Date values in a long array. Booleans are stored as 0 or 1, dates as
+ * milliseconds since the epoch. Only plain java.util.Date values are accepted for dates, subclasses
+ * like java.sql.Timestamp would lose their extra precision.
+ */
+public class LongColumnVector extends ColumnVector {
+
+  private final int type;
+  private long[] values;
+
+  /**
+   * @param type the value type: {@link IValueMeta#TYPE_INTEGER}, {@link IValueMeta#TYPE_BOOLEAN}
+   *     or {@link IValueMeta#TYPE_DATE}
+   * @param capacity the expected number of values
+   */
+  public LongColumnVector(int type, int capacity) {
+    if (type != IValueMeta.TYPE_INTEGER
+        && type != IValueMeta.TYPE_BOOLEAN
+        && type != IValueMeta.TYPE_DATE) {
+      throw new IllegalArgumentException("Unsupported value type for a long vector: " + type);
+    }
+    this.type = type;
+    this.values = new long[Math.max(1, capacity)];
+  }
+
+  /** @return the value type stored in this vector */
+  public int getType() {
+    return type;
+  }
+
+  /**
+   * @param index the index of the value
+   * @return the primitive value, 0 if the value is null
+   */
+  public long getLong(int index) {
+    return values[index];
+  }
+
+  /**
+   * Gives direct access to the values, for loops over the whole vector. Only the first {@link
+   * #size()} values are used. Check {@link #isNull(int)} for the values which are null.
+   *
+   * @return the values
+   */
+  public long[] getValues() {
+    return values;
+  }
+
+  /**
+   * Append a primitive value.
+   *
+   * @param value the value to add
+   */
+  public void addLong(long value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, grow(values.length, size + 1));
+    }
+    values[size++] = value;
+  }
+
+  @Override
+  public void addNull() {
+    setNull(size);
+    addLong(0L);
+  }
+
+  @Override
+  public int capacity() {
+    return values.length;
+  }
+
+  @Override
+  public Object getObject(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    switch (type) {
+      case IValueMeta.TYPE_BOOLEAN:
+        return values[index] != 0L;
+      case IValueMeta.TYPE_DATE:
+        return new Date(values[index]);
+      default:
+        return values[index];
+    }
+  }
+
+  @Override
+  public boolean addObject(Object value) {
+    if (value == null) {
+      addNull();
+      return true;
+    }
+    switch (type) {
+      case IValueMeta.TYPE_INTEGER:
+        if (value instanceof Long) {
+          addLong((Long) value);
+          return true;
+        }
+        return false;
+      case IValueMeta.TYPE_BOOLEAN:
+        if (value instanceof Boolean) {
+          addLong((Boolean) value ? 1L : 0L);
+          return true;
+        }
+        return false;
+      default:
+        if (value.getClass() == Date.class) {
+          addLong(((Date) value).getTime());
+          return true;
+        }
+        return false;
+    }
+  }
+
+  @Override
+  public LongColumnVector select(int[] positions, int count) {
+    LongColumnVector vector = new LongColumnVector(type, count);
+    for (int i = 0; i < count; i++) {
+      vector.values[i] = values[positions[i]];
+    }
+    vector.size = count;
+    vector.selectNulls(this, positions, count);
+    return vector;
+  }
+
+  @Override
+  public LongColumnVector slice(int from, int to) {
+    LongColumnVector vector = new LongColumnVector(type, to - from);
+    System.arraycopy(values, from, vector.values, 0, to - from);
+    vector.size = to - from;
+    if (nulls != null) {
+      for (int i = from; i < to; i++) {
+        if (isNull(i)) {
+          vector.setNull(i - from);
+        }
+      }
+    }
+    return vector;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.vector;
+
+import java.util.Arrays;
+
+/**
+ * Stores any kind of value as an object: BigNumber, Timestamp, Binary, ... values and values which
+ * are not in their normal storage form (lazy conversion, indexed).
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+  private Object[] values;
+
+  /** @param capacity the expected number of values */
+  public ObjectColumnVector(int capacity) {
+    this.values = new Object[Math.max(1, capacity)];
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return values[index] == null;
+  }
+
+  @Override
+  public boolean hasNulls() {
+    for (int i = 0; i < size; i++) {
+      if (values[i] == null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void addNull() {
+    addObject(null);
+  }
+
+  @Override
+  public int capacity() {
+    return values.length;
+  }
+
+  @Override
+  public Object getObject(int index) {
+    return values[index];
+  }
+
+  @Override
+  public boolean addObject(Object value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, grow(values.length, size + 1));
+    }
+    values[size++] = value;
+    return true;
+  }
+
+  @Override
+  public ObjectColumnVector select(int[] positions, int count) {
+    ObjectColumnVector vector = new ObjectColumnVector(count);
+    for (int i = 0; i < count; i++) {
+      vector.values[i] = values[positions[i]];
+    }
+    vector.size = count;
+    return vector;
+  }
+
+  @Override
+  public ObjectColumnVector slice(int from, int to) {
+    ObjectColumnVector vector = new ObjectColumnVector(to - from);
+    System.arraycopy(values, from, vector.values, 0, to - from);
+    vector.size = to - from;
+    return vector;
+  }
+
+  @Override
+  public ObjectColumnVector toObjectVector() {
+    return this;
+  }
+}
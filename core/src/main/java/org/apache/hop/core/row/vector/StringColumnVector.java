@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores String values dictionary encoded: every distinct string is kept once and the vector holds
+ * the index (code) of the string in the dictionary. Comparing codes is a lot cheaper than comparing
+ * strings when values repeat, which is common for codes, flags and categories.
+ *
+ * <p>Vectors created with {@link #select(int[], int)} or {@link #slice(int, int)} share the
+ * dictionary of the original vector. The dictionary is copied before a new string is added to a
+ * vector which shares its dictionary.
+ */
+public class StringColumnVector extends ColumnVector {
+
+  private int[] codes;
+  private List<String> dictionary;
+  private Map<String, Integer> dictionaryIndex;
+  private boolean dictionaryShared;
+
+  /** @param capacity the expected number of values */
+  public StringColumnVector(int capacity) {
+    this.codes = new int[Math.max(1, capacity)];
+    this.dictionary = new ArrayList<>();
+    this.dictionaryIndex = new HashMap<>();
+  }
+
+  private StringColumnVector(int capacity, StringColumnVector source) {
+    this.codes = new int[Math.max(1, capacity)];
+    this.dictionary = source.dictionary;
+    this.dictionaryIndex = source.dictionaryIndex;
+    this.dictionaryShared = true;
+    source.dictionaryShared = true;
+  }
+
+  /**
+   * @param index the index of the value
+   * @return the string or null
+   */
+  public String getString(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return dictionary.get(codes[index]);
+  }
+
+  /**
+   * @param index the index of the value
+   * @return the index of the value in the dictionary, -1 if the value is null
+   */
+  public int getCode(int index) {
+    if (isNull(index)) {
+      return -1;
+    }
+    return codes[index];
+  }
+
+  /**
+   * Gives direct access to the dictionary codes, for loops over the whole vector. Only the first
+   * {@link #size()} codes are used. Check {@link #isNull(int)} for the values which are null.
+   *
+   * @return the dictionary codes
+   */
+  public int[] getCodes() {
+    return codes;
+  }
+
+  /** @return the distinct strings, indexed by code. Don't modify this list. */
+  public List<String> getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Append a string.
+   *
+   * @param value the string to add, can be null
+   */
+  public void addString(String value) {
+    if (value == null) {
+      addNull();
+      return;
+    }
+    Integer code = dictionaryIndex.get(value);
+    if (code == null) {
+      if (dictionaryShared) {
+        dictionary = new ArrayList<>(dictionary);
+        dictionaryIndex = new HashMap<>(dictionaryIndex);
+        dictionaryShared = false;
+      }
+      code = dictionary.size();
+      dictionary.add(value);
+      dictionaryIndex.put(value, code);
+    }
+    addCode(code);
+  }
+
+  private void addCode(int code) {
+    if (size == codes.length) {
+      codes = Arrays.copyOf(codes, grow(codes.length, size + 1));
+    }
+    codes[size++] = code;
+  }
+
+  @Override
+  public void addNull() {
+    setNull(size);
+    addCode(0);
+  }
+
+  @Override
+  public int capacity() {
+    return codes.length;
+  }
+
+  @Override
+  public Object getObject(int index) {
+    return getString(index);
+  }
+
+  @Override
+  public boolean addObject(Object value) {
+    if (value == null || value instanceof String) {
+      addString((String) value);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public StringColumnVector select(int[] positions, int count) {
+    StringColumnVector vector = new StringColumnVector(count, this);
+    for (int i = 0; i < count; i++) {
+      vector.codes[i] = codes[positions[i]];
+    }
+    vector.size = count;
+    vector.selectNulls(this, positions, count);
+    return vector;
+  }
+
+  @Override
+  public StringColumnVector slice(int from, int to) {
+    StringColumnVector vector = new StringColumnVector(to - from, this);
+    System.arraycopy(codes, from, vector.codes, 0, to - from);
+    vector.size = to - from;
+    if (nulls != null) {
+      for (int i = from; i < to; i++) {
+        if (isNull(i)) {
+          vector.setNull(i - from);
+        }
+      }
+    }
+    return vector;
+  }
+}
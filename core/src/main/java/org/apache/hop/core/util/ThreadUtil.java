@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the threads which run transforms. Virtual threads are only available from Java 21 on
+ * while Hop is built for Java 11, so they are looked up with reflection. When the running JVM
+ * doesn't offer them, platform threads are created instead.
+ */
+public class ThreadUtil {
+  private static final Method OF_VIRTUAL = lookupOfVirtual();
+
+  private ThreadUtil() {}
+
+  private static Method lookupOfVirtual() {
+    try {
+      return Thread.class.getMethod("ofVirtual");
+    } catch (NoSuchMethodException | SecurityException e) {
+      return null;
+    }
+  }
+
+  /** @return true if the running JVM can create virtual threads */
+  public static boolean isVirtualThreadsSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Create a new thread which isn't started yet.
+   *
+   * @param runnable the code to run in the thread
+   * @param name the name of the thread
+   * @param virtual true if a virtual thread should be created. If the JVM doesn't support virtual
+   *     threads a platform thread is created.
+   * @return the new thread
+   */
+  public static Thread newThread(Runnable runnable, String name, boolean virtual) {
+    if (virtual && OF_VIRTUAL != null) {
+      try {
+        // Thread.ofVirtual().name(name).unstarted(runnable)
+        //
+        Object builder = OF_VIRTUAL.invoke(null);
+        Class<?> builderClass = OF_VIRTUAL.getReturnType();
+        builder = builderClass.getMethod("name", String.class).invoke(builder, name);
+        return (Thread) builderClass.getMethod("unstarted", Runnable.class).invoke(builder, runnable);
+      } catch (ReflectiveOperationException e) {
+        // Fall back to a platform thread
+      }
+    }
+    Thread thread = new Thread(runnable);
+    thread.setName(name);
+    return thread;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ManagedRowSetWaitsTest {
+
+  private static final int NR_ROWS = 100;
+
+  private ForkJoinPool pool;
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() {
+    // A single pool thread: without managed blocking the producer below never lets the consumer
+    // run
+    pool = new ForkJoinPool(1, ManagedRowSetWaits.newThreadFactory("Test"), null, false);
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test(timeout = 30000)
+  public void testProducerAndConsumerShareOneThread() throws Exception {
+    IRowSet rowSet = new BlockingRowSet(2);
+
+    Future<?> producer =
+        pool.submit(
+            () -> {
+              for (long i = 0; i < NR_ROWS; i++) {
+                while (!ManagedRowSetWaits.putRow(rowSet, rowMeta, new Object[] {i})) {
+                  // retry until the consumer made room
+                }
+              }
+              rowSet.setDone();
+            });
+    Future<Long> consumer =
+        pool.submit(
+            () -> {
+              long sum = 0;
+              Object[] row;
+              while ((row = nextRow(rowSet)) != null) {
+                sum += (Long) row[0];
+              }
+              return sum;
+            });
+
+    producer.get(20, TimeUnit.SECONDS);
+    assertEquals(NR_ROWS * (NR_ROWS - 1) / 2, (long) consumer.get(20, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testOutsidePool() {
+    IRowSet rowSet = new BlockingRowSet(1);
+
+    assertTrue(ManagedRowSetWaits.putRow(rowSet, rowMeta, new Object[] {1L}));
+    assertFalse(ManagedRowSetWaits.putRow(rowSet, rowMeta, new Object[] {2L}));
+    assertEquals(1L, ManagedRowSetWaits.getRow(rowSet)[0]);
+    assertNull(ManagedRowSetWaits.getRowWait(rowSet, 1, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testOnlyThreadsOfTransformPoolsAreManaged() throws Exception {
+    assertTrue(pool.submit(ManagedRowSetWaits::isManagedThread).get());
+    assertFalse(ForkJoinPool.commonPool().submit(ManagedRowSetWaits::isManagedThread).get());
+    assertFalse(ManagedRowSetWaits.isManagedThread());
+  }
+
+  private static Object[] nextRow(IRowSet rowSet) {
+    Object[] row = ManagedRowSetWaits.getRowWait(rowSet, 10, TimeUnit.MILLISECONDS);
+    while (row == null && !rowSet.isDone()) {
+      row = ManagedRowSetWaits.getRowWait(rowSet, 10, TimeUnit.MILLISECONDS);
+    }
+    if (row == null) {
+      // The producer may have added the last rows just before setting the row set done
+      row = rowSet.getRowImmediate();
+    }
+    return row;
+  }
+}
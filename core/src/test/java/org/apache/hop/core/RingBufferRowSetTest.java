@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/** Test class for the basic functionality of the lock-free ring buffer row set. */
+public class RingBufferRowSetTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rowMeta;
+  }
+
+  @Test
+  public void testBasicCreation() {
+    RingBufferRowSet set = new RingBufferRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertEquals(16, set.getCapacity());
+    assertEquals(RowSetWaitStrategy.PARK, set.getWaitStrategy());
+  }
+
+  @Test
+  public void testPutAndGet() {
+    RingBufferRowSet set = new RingBufferRowSet(4, RowSetWaitStrategy.YIELD);
+    IRowMeta rowMeta = createRowMeta();
+
+    assertNull(set.getRowImmediate());
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+
+    Object[][] rows = new Object[4][];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = new Object[] {(long) i};
+      assertTrue(set.putRow(rowMeta, rows[i]));
+    }
+    assertEquals(4, set.size());
+    assertSame(rowMeta, set.getRowMeta());
+
+    // The buffer is full: the next put has to time out
+    //
+    assertFalse(set.putRowWait(rowMeta, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+
+    for (Object[] row : rows) {
+      assertSame(row, set.getRowImmediate());
+    }
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+
+    set.setDone();
+    assertTrue(set.isDone());
+
+    set.clear();
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testProducerConsumer() throws Exception {
+    final int nrRows = 100000;
+    final RingBufferRowSet set = new RingBufferRowSet(64, RowSetWaitStrategy.BUSY_SPIN);
+    final IRowMeta rowMeta = createRowMeta();
+    final AtomicReference<String> error = new AtomicReference<>();
+
+    Thread consumer =
+        new Thread(
+            () -> {
+              long expected = 0;
+              while (expected < nrRows) {
+                Object[] row = set.getRow();
+                if (row == null) {
+                  continue;
+                }
+                if (((Long) row[0]) != expected) {
+                  error.set("Expected row " + expected + " but got " + row[0]);
+                  return;
+                }
+                expected++;
+              }
+            });
+    consumer.start();
+
+    for (long i = 0; i < nrRows; i++) {
+      Object[] row = new Object[] {i};
+      while (!set.putRow(rowMeta, row)) {
+        // retry until the consumer catches up
+      }
+    }
+    set.setDone();
+    consumer.join(60000);
+
+    assertFalse(consumer.isAlive());
+    assertNull(error.get());
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testLookupWaitStrategy() {
+    assertEquals(RowSetWaitStrategy.YIELD, RowSetWaitStrategy.lookupName("yield"));
+    assertEquals(RowSetWaitStrategy.BUSY_SPIN, RowSetWaitStrategy.lookupName("BUSY_SPIN"));
+    assertEquals(RowSetWaitStrategy.PARK, RowSetWaitStrategy.lookupName(null));
+    assertEquals(RowSetWaitStrategy.PARK, RowSetWaitStrategy.lookupName("unknown"));
+  }
+}
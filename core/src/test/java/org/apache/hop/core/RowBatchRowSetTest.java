@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/** Test class for the row set which stores columnar row batches. */
+public class RowBatchRowSetTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rowMeta;
+  }
+
+  private RowBatch createBatch(IRowMeta rowMeta, long from, long to) {
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = from; i < to; i++) {
+      rows.add(new Object[] {i});
+    }
+    return RowBatch.fromRows(rowMeta, rows);
+  }
+
+  @Test
+  public void testBatchHandedOverAsIs() {
+    IRowMeta rowMeta = createRowMeta();
+    RowBatchRowSet set = new RowBatchRowSet(10);
+
+    RowBatch batch = createBatch(rowMeta, 0, 8);
+    assertEquals(8, set.putRowBatch(rowMeta, batch));
+    assertEquals(8, set.size());
+
+    // There is no room for another batch of 8 rows
+    //
+    assertEquals(0, set.putRowBatch(rowMeta, createBatch(rowMeta, 8, 16)));
+
+    assertSame(batch, set.getRowBatch(100));
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  public void testLargeBatchInEmptyRowSet() {
+    IRowMeta rowMeta = createRowMeta();
+    RowBatchRowSet set = new RowBatchRowSet(4);
+
+    assertEquals(10, set.putRowBatch(rowMeta, createBatch(rowMeta, 0, 10)));
+    assertEquals(10, set.size());
+
+    RowBatch first = set.getRowBatch(6);
+    assertEquals(6, first.size());
+    assertEquals(0L, first.getRow(0)[0]);
+    RowBatch second = set.getRowBatch(6);
+    assertEquals(4, second.size());
+    assertEquals(6L, second.getRow(0)[0]);
+  }
+
+  @Test
+  public void testMixingRowsAndBatches() {
+    IRowMeta rowMeta = createRowMeta();
+    RowBatchRowSet set = new RowBatchRowSet(100);
+
+    set.putRow(rowMeta, new Object[] {0L});
+    set.putRow(rowMeta, new Object[] {1L});
+    set.putRowBatch(rowMeta, createBatch(rowMeta, 2, 6));
+    set.putRow(rowMeta, new Object[] {6L});
+    assertEquals(7, set.size());
+
+    // Rows are read in order, whether they were put one by one or in a batch
+    //
+    assertEquals(0L, set.getRow()[0]);
+    RowBatch rows = set.getRowBatch(100);
+    assertEquals(1, rows.size());
+    assertEquals(1L, rows.getRow(0)[0]);
+    assertEquals(2L, set.getRowImmediate()[0]);
+
+    List<Object[]> drained = new ArrayList<>();
+    assertEquals(4, set.drainRowsTo(drained, 100));
+    for (int i = 0; i < drained.size(); i++) {
+      assertEquals(3L + i, drained.get(i)[0]);
+    }
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testDefaultBatchConversion() {
+    IRowMeta rowMeta = createRowMeta();
+    IRowSet set = new BlockingRowSet(10);
+
+    assertEquals(5, set.putRowBatch(rowMeta, createBatch(rowMeta, 0, 5)));
+    assertEquals(5, set.size());
+    RowBatch batch = set.getRowBatch(3);
+    assertEquals(3, batch.size());
+    assertEquals(2L, batch.getRow(2)[0]);
+    assertEquals(2, set.size());
+  }
+}
@@ -25,7 +25,11 @@ import org.apache.hop.junit.rules.RestoreHopEnvironment;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /** Test class for the basic functionality of IRowSet. */
@@ -172,4 +176,42 @@ public class RowSetTest {
     assertEquals(set.toString(), set.getName());
     assertEquals("from.2 - to.3", set.getName());
   }
+
+  /** Batch test: putRows and getRows keep the row order and respect the capacity. */
+  @Test
+  public void testBatches() {
+    testBatches(new BlockingRowSet(5), 5);
+    testBatches(new RingBufferRowSet(8), 8);
+    testBatches(new QueueRowSet(), 12);
+    testBatches(new RowBatchRowSet(5), 5);
+  }
+
+  private void testBatches(IRowSet set, int capacity) {
+    IRowMeta rm = createRowMetaInterface();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 12; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // Only the rows which fit are accepted, from the head of the list
+    //
+    int accepted = set.putRows(rm, rows);
+    assertEquals(capacity, accepted);
+    assertEquals(capacity, set.size());
+
+    List<Object[]> batch = set.getRows(3);
+    assertEquals(3, batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      assertSame(rows.get(i), batch.get(i));
+    }
+
+    List<Object[]> rest = new ArrayList<>();
+    assertEquals(capacity - 3, set.drainRowsTo(rest, 100));
+    for (int i = 0; i < rest.size(); i++) {
+      assertSame(rows.get(i + 3), rest.get(i));
+    }
+    assertEquals(0, set.size());
+    assertEquals(0, set.drainRowsTo(rest, 100));
+  }
 }
@@ -111,6 +111,9 @@ public class BaseDatabaseMetaTest {
     assertFalse(nativeMeta.isForcingIdentifiersToUpperCase());
     assertFalse(nativeMeta.isUsingDoubleDecimalAsSchemaTableSeparator());
     assertTrue(nativeMeta.isRequiringTransactionsOnQueries());
+    assertFalse(nativeMeta.isUsingConnectionPool());
+    assertEquals("10", nativeMeta.getMaximumPoolSizeString());
+    assertTrue(nativeMeta.getConnectionPoolingProperties().isEmpty());
     assertEquals(
         "org.apache.hop.core.database.DatabaseFactory", nativeMeta.getDatabaseFactoryName());
     assertNull(nativeMeta.getPreferredSchemaName());
@@ -231,6 +234,18 @@ public class BaseDatabaseMetaTest {
     poolProperties.put("ZZZZZZZZZZZZZZ", "Z.Z.Z.Z.Z.Z.Z.Z.a.a.a.a.a.a.a.a.a");
     poolProperties.put("TOM", "JANE");
     poolProperties.put("AAAAAAAAAAAAA", "BBBBB.BBB.BBBBBBB.BBBBBBBB.BBBBBBBBBBBBBB");
+    nativeMeta.setUsingConnectionPool(true);
+    assertTrue(nativeMeta.isUsingConnectionPool());
+    nativeMeta.setMaximumPoolSizeString("${POOL_SIZE}");
+    assertEquals("${POOL_SIZE}", nativeMeta.getMaximumPoolSizeString());
+    nativeMeta.setConnectionPoolingProperties(poolProperties);
+    assertEquals(poolProperties, nativeMeta.getConnectionPoolingProperties());
+    assertEquals("BAR", nativeMeta.getAttributes().get("POOLING_FOO"));
+    Properties otherPoolProperties = new Properties();
+    otherPoolProperties.put("maxIdle", "2");
+    nativeMeta.setConnectionPoolingProperties(otherPoolProperties);
+    assertEquals(otherPoolProperties, nativeMeta.getConnectionPoolingProperties());
+    assertEquals(expectedOptionsMap, nativeMeta.getExtraOptions());
     nativeMeta.setStreamingResults(false);
     assertFalse(nativeMeta.isStreamingResults());
     nativeMeta.setQuoteAllFields(true);
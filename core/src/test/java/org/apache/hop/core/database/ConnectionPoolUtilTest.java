@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionPoolUtilTest {
+  private static final String URL = "jdbc:hop-pool-test:database";
+
+  private static TestDriver driver;
+
+  private ILogChannel log;
+  private DatabaseMeta databaseMeta;
+  private IVariables variables;
+  private Properties poolProperties;
+
+  @BeforeClass
+  public static void registerDriver() throws Exception {
+    driver = new TestDriver();
+    DriverManager.registerDriver(driver);
+  }
+
+  @AfterClass
+  public static void deregisterDriver() throws Exception {
+    DriverManager.deregisterDriver(driver);
+  }
+
+  @Before
+  public void setUp() {
+    TestDriver.connections.clear();
+    log = mock(ILogChannel.class);
+    poolProperties = new Properties();
+    databaseMeta = mock(DatabaseMeta.class);
+    when(databaseMeta.getName()).thenReturn("test");
+    when(databaseMeta.getMaximumPoolSizeString()).thenReturn("${POOL_SIZE}");
+    when(databaseMeta.getConnectionPoolingProperties()).thenReturn(poolProperties);
+    variables = new Variables();
+    variables.setVariable("POOL_SIZE", "2");
+  }
+
+  @After
+  public void tearDown() {
+    ConnectionPoolUtil.closePools();
+  }
+
+  private Connection getConnection(String username) throws HopDatabaseException {
+    Properties properties = new Properties();
+    properties.put("user", username);
+    return ConnectionPoolUtil.getConnection(
+        log, databaseMeta, variables, URL, username, properties);
+  }
+
+  @Test
+  public void testConnectionsAreReused() throws Exception {
+    Connection connection = getConnection("hop");
+    connection.close();
+    getConnection("hop").close();
+
+    assertEquals(1, TestDriver.connections.size());
+    assertEquals(1, ConnectionPoolUtil.getPoolCount());
+    verify(log, times(2)).snap(Metrics.METRIC_DATABASE_POOL_GET_CONNECTION_COUNT, "test");
+  }
+
+  @Test
+  public void testPoolPerUser() throws Exception {
+    Connection connection1 = getConnection("hop");
+    Connection connection2 = getConnection("other");
+    assertNotSame(connection1, connection2);
+    connection1.close();
+    connection2.close();
+
+    assertEquals(2, TestDriver.connections.size());
+    assertEquals(2, ConnectionPoolUtil.getPoolCount());
+  }
+
+  @Test
+  public void testInvalidConnectionsAreReplaced() throws Exception {
+    getConnection("hop").close();
+    when(TestDriver.connections.get(0).isValid(anyInt())).thenReturn(false);
+    getConnection("hop").close();
+
+    assertEquals(2, TestDriver.connections.size());
+  }
+
+  @Test
+  public void testValidationQuery() throws Exception {
+    poolProperties.put("validationQuery", "SELECT 1");
+    getConnection("hop").close();
+    when(TestDriver.connections.get(0).createStatement()).thenThrow(new SQLException("closed"));
+    getConnection("hop").close();
+
+    assertEquals(2, TestDriver.connections.size());
+  }
+
+  @Test
+  public void testMaximumPoolSize() throws Exception {
+    poolProperties.put("maxWait", "10");
+    getConnection("hop");
+    getConnection("hop");
+    try {
+      getConnection("hop");
+      throw new AssertionError("The pool should be exhausted");
+    } catch (HopDatabaseException e) {
+      assertTrue(e.getMessage().contains("test"));
+    }
+    assertEquals(2, TestDriver.connections.size());
+  }
+
+  @Test
+  public void testClosePools() throws Exception {
+    getConnection("hop").close();
+    ConnectionPoolUtil.closePools();
+
+    assertEquals(0, ConnectionPoolUtil.getPoolCount());
+    verify(TestDriver.connections.get(0)).close();
+  }
+
+  /** Hands out mocked connections and keeps track of them */
+  public static class TestDriver implements Driver {
+    private static final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+      if (!acceptsURL(url)) {
+        return null;
+      }
+      Connection connection = mock(Connection.class);
+      when(connection.isValid(anyInt())).thenReturn(true);
+      when(connection.getAutoCommit()).thenReturn(true);
+      Statement statement = mock(Statement.class);
+      ResultSet resultSet = mock(ResultSet.class);
+      when(connection.createStatement()).thenReturn(statement);
+      when(statement.executeQuery(anyString())).thenReturn(resultSet);
+      when(resultSet.next()).thenReturn(true);
+      connections.add(connection);
+      return connection;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+      return url.startsWith(URL);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      throw new SQLFeatureNotSupportedException();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.database.DatabaseStatistics.StatementType;
+import org.apache.hop.core.logging.Metrics;
+import org.apache.hop.core.logging.MetricsRegistry;
+import org.apache.hop.core.metrics.IMetricsSnapshot;
+import org.apache.hop.core.metrics.MetricsSnapshot;
+import org.apache.hop.core.row.RowSizeEstimator;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatabaseStatisticsTest {
+
+  private static final String CHANNEL_ID = "DatabaseStatisticsTest";
+
+  private final List<DatabaseStatistics> created = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    for (DatabaseStatistics statistics : created) {
+      statistics.release();
+    }
+    MetricsRegistry.getInstance().getSnapshotMaps().remove(CHANNEL_ID);
+  }
+
+  private DatabaseStatistics newStatistics(String subject) {
+    DatabaseStatistics statistics = new DatabaseStatistics(CHANNEL_ID, subject);
+    created.add(statistics);
+    return statistics;
+  }
+
+  @Test
+  public void testRecord() {
+    DatabaseStatistics statistics = newStatistics("db");
+    assertNull(statistics.getHistogram(StatementType.QUERY));
+
+    statistics.record(StatementType.QUERY, statistics.start());
+    statistics.record(StatementType.ADD_BATCH, statistics.start());
+    statistics.record(StatementType.ADD_BATCH, statistics.start());
+    statistics.record(StatementType.BATCH, statistics.start());
+    statistics.record(StatementType.COMMIT, statistics.start());
+
+    assertEquals(1L, statistics.getHistogram(StatementType.QUERY).getCount());
+    assertEquals(2L, statistics.getHistogram(StatementType.ADD_BATCH).getCount());
+    assertNull(statistics.getHistogram(StatementType.UPDATE));
+
+    // Adding to a batch doesn't go to the database
+    //
+    assertEquals(3L, statistics.getRoundTrips());
+    assertTrue(statistics.getDriverNanos() > 0L);
+    assertTrue(statistics.getHopNanos() >= 0L);
+  }
+
+  @Test
+  public void testFetchRoundTrips() {
+    DatabaseStatistics statistics = newStatistics("db");
+    statistics.record(StatementType.QUERY, statistics.start());
+    statistics.resultSetOpened(10);
+
+    Object[] row = new Object[] {1L, "hop"};
+    for (int i = 0; i < 25; i++) {
+      statistics.recordFetch(statistics.start(), row);
+    }
+    statistics.recordFetch(statistics.start(), null);
+
+    // The first 10 rows came with the query, two more fetches for the rest
+    //
+    assertEquals(3L, statistics.getRoundTrips());
+    assertEquals(25L, statistics.getRowsFetched());
+    assertEquals(25L * RowSizeEstimator.estimateSize(row), statistics.getBytesFetched());
+    assertEquals(26L, statistics.getHistogram(StatementType.FETCH).getCount());
+
+    // Without a fetch size we can't tell
+    //
+    statistics.resultSetOpened(0);
+    for (int i = 0; i < 25; i++) {
+      statistics.recordFetch(statistics.start(), row);
+    }
+    assertEquals(3L, statistics.getRoundTrips());
+  }
+
+  @Test
+  public void testPublish() {
+    DatabaseStatistics statistics = newStatistics("db");
+    assertNull(DatabaseStatistics.getSummary(CHANNEL_ID));
+
+    // Nothing to publish yet
+    //
+    statistics.publish();
+    assertNull(DatabaseStatistics.getSummary(CHANNEL_ID));
+
+    statistics.record(StatementType.QUERY, statistics.start());
+    statistics.resultSetOpened(0);
+    statistics.recordFetch(statistics.start(), new Object[] {1L});
+    statistics.publish();
+
+    Map<String, IMetricsSnapshot> map =
+        MetricsRegistry.getInstance().getSnapshotMaps().get(CHANNEL_ID);
+    assertNotNull(map);
+    IMetricsSnapshot rows =
+        map.get(MetricsSnapshot.getKey(Metrics.METRIC_DATABASE_ROWS_FETCHED, "db"));
+    assertEquals(Long.valueOf(1L), rows.getValue());
+    IMetricsSnapshot roundTrips =
+        map.get(MetricsSnapshot.getKey(Metrics.METRIC_DATABASE_ROUND_TRIPS, "db"));
+    assertEquals(Long.valueOf(1L), roundTrips.getValue());
+
+    String summary = DatabaseStatistics.getSummary(CHANNEL_ID);
+    assertTrue(summary, summary.startsWith("db: 1 rows fetched, 1 round trips, "));
+    assertTrue(summary, summary.contains("p99 query "));
+    assertTrue(summary, summary.contains(", fetch "));
+
+    // Publishing again replaces the values
+    //
+    statistics.recordFetch(statistics.start(), new Object[] {2L});
+    statistics.publish();
+    rows = map.get(MetricsSnapshot.getKey(Metrics.METRIC_DATABASE_ROWS_FETCHED, "db"));
+    assertEquals(Long.valueOf(2L), rows.getValue());
+  }
+
+  @Test
+  public void testSummaryPerDatabase() {
+    DatabaseStatistics source = newStatistics("source");
+    DatabaseStatistics target = newStatistics("target");
+    target.record(StatementType.UPDATE, target.start());
+    target.publish();
+    source.record(StatementType.LOOKUP, source.start());
+    source.publish();
+
+    String[] lines = DatabaseStatistics.getSummary(CHANNEL_ID).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0], lines[0].startsWith("source: ") && lines[0].contains("p99 lookup "));
+    assertTrue(lines[1], lines[1].startsWith("target: ") && lines[1].contains("p99 update "));
+  }
+
+  @Test
+  public void testConnectionsToTheSameDatabase() {
+    DatabaseStatistics first = newStatistics("db");
+    DatabaseStatistics second = newStatistics("db");
+    first.record(StatementType.QUERY, first.start());
+    second.record(StatementType.LOOKUP, second.start());
+    first.publish();
+    second.publish();
+    assertEquals("db", first.getSubject());
+    assertEquals("db (2)", second.getSubject());
+
+    String[] lines = DatabaseStatistics.getSummary(CHANNEL_ID).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0], lines[0].startsWith("db: ") && lines[0].contains("p99 query "));
+    assertTrue(lines[1], lines[1].startsWith("db (2): ") && lines[1].contains("p99 lookup "));
+
+    // A closed connection leaves its subject to the next one
+    //
+    first.release();
+    DatabaseStatistics third = newStatistics("db");
+    third.start();
+    assertEquals("db", third.getSubject());
+  }
+
+  @Test
+  public void testBytesFetchedAreSampled() {
+    DatabaseStatistics statistics = newStatistics("db");
+    statistics.resultSetOpened(0);
+    Object[] small = new Object[] {1L};
+    Object[] large = new Object[] {new String(new char[1000])};
+    for (int i = 0; i < 256; i++) {
+      statistics.recordFetch(statistics.start(), i % 2 == 0 ? small : large);
+    }
+
+    // Only the even rows are sampled
+    //
+    assertEquals(256L, statistics.getRowsFetched());
+    assertEquals(256L * RowSizeEstimator.estimateSize(small), statistics.getBytesFetched());
+  }
+}
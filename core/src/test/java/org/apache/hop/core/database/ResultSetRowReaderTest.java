@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResultSetRowReaderTest {
+
+  private DatabaseMeta databaseMeta;
+  private ResultSet resultSet;
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() throws Exception {
+    databaseMeta = mock(DatabaseMeta.class);
+    when(databaseMeta.getIDatabase()).thenReturn(new ConcreteBaseDatabaseMeta());
+
+    resultSet = mock(ResultSet.class);
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+  }
+
+  @Test
+  public void testReadValues() throws Exception {
+    Timestamp timestamp = new Timestamp(1600000000000L);
+    when(resultSet.getLong(1)).thenReturn(42L);
+    when(resultSet.getDouble(2)).thenReturn(1.5);
+    when(resultSet.getString(3)).thenReturn("hop");
+    when(resultSet.getBigDecimal(4)).thenReturn(BigDecimal.TEN);
+    when(resultSet.getBoolean(5)).thenReturn(true);
+    when(resultSet.getTimestamp(6)).thenReturn(timestamp);
+
+    ResultSetRowReader reader = new ResultSetRowReader(databaseMeta);
+    Object[] row = reader.readRow(resultSet, rowMeta);
+    assertEquals(42L, row[0]);
+    assertEquals(1.5, row[1]);
+    assertEquals("hop", row[2]);
+    assertEquals(BigDecimal.TEN, row[3]);
+    assertEquals(Boolean.TRUE, row[4]);
+    assertEquals(timestamp, row[5]);
+
+    // Non-zero primitives are never null, the dialect isn't asked for the values
+    //
+    verify(resultSet, never()).wasNull();
+    verify(databaseMeta, never()).getValueFromResultSet(any(), any(), anyInt());
+  }
+
+  @Test
+  public void testReadNulls() throws Exception {
+    when(resultSet.wasNull()).thenReturn(true);
+
+    Object[] row = new ResultSetRowReader(databaseMeta).readRow(resultSet, rowMeta);
+    for (int i = 0; i < rowMeta.size(); i++) {
+      assertNull(row[i]);
+    }
+  }
+
+  @Test
+  public void testZeroIsNotNull() throws Exception {
+    when(resultSet.wasNull()).thenReturn(false);
+
+    Object[] row = new ResultSetRowReader(databaseMeta).readRow(resultSet, rowMeta);
+    assertEquals(0L, row[0]);
+    assertEquals(0.0, row[1]);
+    assertEquals(Boolean.FALSE, row[4]);
+  }
+
+  @Test
+  public void testBinaryStrings() throws Exception {
+    byte[] bytes = "hop".getBytes(StandardCharsets.UTF_8);
+    when(resultSet.getBytes(3)).thenReturn(bytes);
+    when(resultSet.getString(3)).thenReturn("hop");
+
+    ResultSetRowReader reader = new ResultSetRowReader(databaseMeta);
+    assertEquals("hop", reader.readRow(resultSet, rowMeta)[2]);
+
+    // Lazy conversion switched on after the first row
+    //
+    rowMeta.getValueMeta(2).setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    assertArrayEquals(bytes, (byte[]) reader.readRow(resultSet, rowMeta)[2]);
+  }
+
+  @Test
+  public void testOtherValuesReadByDialect() throws Exception {
+    IRowMeta timestampRowMeta = new RowMeta();
+    ValueMetaTimestamp valueMeta = new ValueMetaTimestamp("timestamp");
+    timestampRowMeta.addValueMeta(valueMeta);
+
+    ResultSetRowReader reader = new ResultSetRowReader(databaseMeta);
+    reader.readRow(resultSet, timestampRowMeta);
+    reader.readRow(resultSet, timestampRowMeta);
+    verify(databaseMeta, times(2)).getValueFromResultSet(resultSet, valueMeta, 0);
+  }
+
+  @Test
+  public void testDialectReadingValues() throws Exception {
+    when(databaseMeta.getIDatabase())
+        .thenReturn(
+            new ConcreteBaseDatabaseMeta() {
+              @Override
+              public Object getValueFromResultSet(ResultSet rs, IValueMeta val, int i) {
+                return "dialect";
+              }
+            });
+    when(databaseMeta.getValueFromResultSet(any(), any(), anyInt())).thenReturn("dialect");
+
+    Object[] row = new ResultSetRowReader(databaseMeta).readRow(resultSet, rowMeta);
+    for (int i = 0; i < rowMeta.size(); i++) {
+      assertEquals("dialect", row[i]);
+    }
+  }
+}
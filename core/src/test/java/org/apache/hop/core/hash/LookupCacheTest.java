@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LookupCacheTest {
+
+  private IRowMeta createKeyMeta() {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("name"));
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    return keyMeta;
+  }
+
+  @Test
+  public void testGetAndPut() {
+    LookupCache<Long> cache = new LookupCache<>(createKeyMeta(), 0);
+    for (long i = 0; i < 1000; i++) {
+      cache.put(new Object[] {"key" + (i % 10), i}, i * 2);
+    }
+    assertEquals(1000, cache.size());
+
+    // Only the key values count, extra values in the row are ignored
+    //
+    assertEquals(Long.valueOf(84L), cache.get(new Object[] {"key2", 42L, "extra"}));
+    assertNull(cache.get(new Object[] {"key3", 42L}));
+    assertNull(cache.get(new Object[] {null, null}));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+
+    cache.put(new Object[] {null, null}, -1L);
+    assertEquals(Long.valueOf(-1L), cache.get(new Object[] {null, null}));
+
+    cache.put(new Object[] {"key2", 42L}, 0L);
+    assertEquals(1001, cache.size());
+    assertEquals(Long.valueOf(0L), cache.remove(new Object[] {"key2", 42L}));
+    assertNull(cache.peek(new Object[] {"key2", 42L}));
+    assertEquals(1000, cache.size());
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() {
+    LookupCache<String> cache = new LookupCache<>(createKeyMeta(), 3);
+    cache.put(new Object[] {"a", 1L}, "a");
+    cache.put(new Object[] {"b", 2L}, "b");
+    cache.put(new Object[] {"c", 3L}, "c");
+    cache.get(new Object[] {"a", 1L});
+    cache.put(new Object[] {"d", 4L}, "d");
+
+    assertEquals(3, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.peek(new Object[] {"b", 2L}));
+    List<Object[]> keys = cache.getKeys();
+    assertEquals("c", keys.get(0)[0]);
+    assertEquals("a", keys.get(1)[0]);
+    assertEquals("d", keys.get(2)[0]);
+  }
+
+  @Test
+  public void testInsertionOrder() {
+    LookupCache<String> cache = new LookupCache<>(createKeyMeta(), 2, false);
+    Object[] first = {"a", 1L};
+    cache.put(first, "a");
+    cache.put(new Object[] {"b", 2L}, "b");
+    cache.get(new Object[] {"a", 1L});
+    cache.put(new Object[] {"c", 3L}, "c");
+
+    // The first key is evicted even though it was used last
+    //
+    assertNull(cache.peek(first));
+    assertEquals("b", cache.getKeys().get(0)[0]);
+  }
+
+  @Test
+  public void testFindFirst() throws Exception {
+    LookupCache<String> cache = new LookupCache<>(createKeyMeta(), 0, false);
+    cache.put(new Object[] {"a", 1L}, "a1");
+    cache.put(new Object[] {"b", 2L}, "b2");
+    cache.put(new Object[] {"c", 3L}, "c3");
+
+    // The keys are tested in the order in which they were added
+    //
+    assertEquals("b2", cache.findFirst(key -> (Long) key[1] > 1L));
+    assertNull(cache.findFirst(key -> (Long) key[1] > 3L));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testClear() {
+    LookupCache<String> cache = new LookupCache<>(createKeyMeta(), 10);
+    cache.put(new Object[] {"a", 1L}, "a");
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertNull(cache.get(new Object[] {"a", 1L}));
+    cache.put(new Object[] {"a", 1L}, "b");
+    assertEquals("b", cache.get(new Object[] {"a", 1L}));
+  }
+}
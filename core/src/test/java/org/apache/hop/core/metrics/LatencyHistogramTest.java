@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0L, histogram.getCount());
+    assertEquals(0L, histogram.getMin());
+    assertEquals(0L, histogram.getMax());
+    assertEquals(0L, histogram.getMean());
+    assertEquals(0L, histogram.getValueAtPercentile(99.0));
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 50; value++) {
+      histogram.record(value);
+    }
+    assertEquals(50L, histogram.getCount());
+    assertEquals(1275L, histogram.getSum());
+    assertEquals(1L, histogram.getMin());
+    assertEquals(50L, histogram.getMax());
+    assertEquals(25L, histogram.getValueAtPercentile(50.0));
+    assertEquals(50L, histogram.getValueAtPercentile(99.0));
+    assertEquals(1L, histogram.getValueAtPercentile(0.0));
+  }
+
+  @Test
+  public void testBuckets() {
+    // Every value falls in the bucket its index says, and the buckets are contiguous
+    //
+    long previousHighest = -1;
+    for (int index = 0; index <= LatencyHistogram.bucketIndex((1L << 40) - 1); index++) {
+      long highest = LatencyHistogram.highestValueInBucket(index);
+      assertEquals(index, LatencyHistogram.bucketIndex(previousHighest + 1));
+      assertEquals(index, LatencyHistogram.bucketIndex(highest));
+      previousHighest = highest;
+    }
+  }
+
+  @Test
+  public void testPercentilePrecision() {
+    Random random = new Random(1234);
+    long[] values = new long[10000];
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 1000L + (long) (random.nextDouble() * random.nextDouble() * 50000000L);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double percentile : new double[] {50.0, 90.0, 95.0, 99.0, 99.9}) {
+      long expected = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+      long actual = histogram.getValueAtPercentile(percentile);
+      assertTrue(actual >= expected);
+      assertTrue(actual <= expected + expected / 32);
+    }
+    assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100.0));
+  }
+
+  @Test
+  public void testLargeAndNegativeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5L);
+    histogram.record(Long.MAX_VALUE / 2);
+    assertEquals(0L, histogram.getMin());
+    assertEquals(Long.MAX_VALUE / 2, histogram.getMax());
+    assertEquals(Long.MAX_VALUE / 2, histogram.getValueAtPercentile(100.0));
+
+    histogram.reset();
+    assertEquals(0L, histogram.getCount());
+    assertEquals(0L, histogram.getMax());
+  }
+}
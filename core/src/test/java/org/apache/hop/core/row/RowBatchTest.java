@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.vector.DoubleColumnVector;
+import org.apache.hop.core.row.vector.LongColumnVector;
+import org.apache.hop.core.row.vector.ObjectColumnVector;
+import org.apache.hop.core.row.vector.StringColumnVector;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RowBatchTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("big"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows() {
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 100; i++) {
+      rows.add(
+          new Object[] {
+            i,
+            i % 10 == 0 ? null : i * 1.5,
+            "code" + (i % 3),
+            new Date(1000L * i),
+            i % 2 == 0,
+            new BigDecimal(i)
+          });
+    }
+    return rows;
+  }
+
+  @Test
+  public void testRoundTrip() {
+    IRowMeta rowMeta = createRowMeta();
+    List<Object[]> rows = createRows();
+
+    RowBatch batch = RowBatch.fromRows(rowMeta, rows);
+    assertEquals(100, batch.size());
+    assertSame(rowMeta, batch.getRowMeta());
+
+    assertTrue(batch.getColumn(0) instanceof LongColumnVector);
+    assertTrue(batch.getColumn(1) instanceof DoubleColumnVector);
+    assertTrue(batch.getColumn(2) instanceof StringColumnVector);
+    assertTrue(batch.getColumn(3) instanceof LongColumnVector);
+    assertTrue(batch.getColumn(4) instanceof LongColumnVector);
+    assertTrue(batch.getColumn(5) instanceof ObjectColumnVector);
+
+    // Repeating strings are only stored once
+    //
+    assertEquals(3, ((StringColumnVector) batch.getColumn(2)).getDictionary().size());
+
+    assertFalse(batch.getColumn(0).hasNulls());
+    assertTrue(batch.getColumn(1).hasNulls());
+    assertTrue(batch.getColumn(1).isNull(10));
+    assertFalse(batch.getColumn(1).isNull(11));
+
+    List<Object[]> converted = batch.toRows();
+    assertEquals(rows.size(), converted.size());
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = converted.get(i);
+      assertTrue(row.length >= rowMeta.size());
+      for (int f = 0; f < rowMeta.size(); f++) {
+        assertEquals(rows.get(i)[f], row[f]);
+      }
+    }
+  }
+
+  @Test
+  public void testValueNotFittingVector() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+
+    Timestamp timestamp = new Timestamp(12345L);
+    timestamp.setNanos(123456789);
+
+    RowBatch batch = new RowBatch(rowMeta, 4);
+    batch.addRow(new Object[] {new Date(1L)});
+    batch.addRow(new Object[] {timestamp});
+    batch.addRow(new Object[] {null});
+
+    // The Timestamp can't be stored as milliseconds without losing the nanoseconds
+    //
+    assertTrue(batch.getColumn(0) instanceof ObjectColumnVector);
+    assertEquals(new Date(1L), batch.getRow(0)[0]);
+    assertSame(timestamp, batch.getRow(1)[0]);
+    assertEquals(null, batch.getRow(2)[0]);
+  }
+
+  @Test
+  public void testSelectAndSlice() {
+    IRowMeta rowMeta = createRowMeta();
+    List<Object[]> rows = createRows();
+    RowBatch batch = RowBatch.fromRows(rowMeta, rows);
+
+    RowBatch selected = batch.select(new int[] {10, 20, 21}, 3);
+    assertEquals(3, selected.size());
+    assertEquals(10L, selected.getRow(0)[0]);
+    assertEquals(null, selected.getRow(0)[1]);
+    assertEquals(21L, selected.getRow(2)[0]);
+    assertEquals("code0", selected.getRow(2)[2]);
+
+    RowBatch slice = batch.slice(95, 100);
+    assertEquals(5, slice.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(rows.get(95 + i)[2], slice.getRow(i)[2]);
+      assertEquals(rows.get(95 + i)[3], slice.getRow(i)[3]);
+    }
+    assertSame(batch, batch.slice(0, 100));
+
+    // Adding a new string to a slice doesn't change the dictionary of the original
+    //
+    StringColumnVector codes = (StringColumnVector) slice.getColumn(2);
+    codes.addString("new");
+    assertEquals(4, codes.getDictionary().size());
+    assertEquals(3, ((StringColumnVector) batch.getColumn(2)).getDictionary().size());
+  }
+
+  @Test
+  public void testSelectFields() {
+    IRowMeta rowMeta = createRowMeta();
+    RowBatch batch = RowBatch.fromRows(rowMeta, createRows());
+
+    IRowMeta outputRowMeta = new RowMeta();
+    outputRowMeta.addValueMeta(new ValueMetaString("code"));
+    outputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    RowBatch output = batch.selectFields(outputRowMeta, new int[] {2, 0});
+    assertEquals(batch.size(), output.size());
+    assertSame(batch.getColumn(2), output.getColumn(0));
+    assertSame(batch.getColumn(0), output.getColumn(1));
+    assertArrayEquals(new Object[] {"code1", 7L}, slice(output.getRow(7), 2));
+  }
+
+  private static Object[] slice(Object[] row, int length) {
+    Object[] result = new Object[length];
+    System.arraycopy(row, 0, result, 0, length);
+    return result;
+  }
+}
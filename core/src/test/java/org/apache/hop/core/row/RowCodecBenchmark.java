@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing and reading rows with {@link IRowMeta#writeData(DataOutputStream, Object[])}
+ * and {@link IRowMeta#readData(DataInputStream)} with the compact encoding of {@link RowCodec}.
+ *
+ * <p>This is not a unit test. Run the main method with the test class path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowCodecBenchmark {
+
+  private static final int ROW_COUNT = 10000;
+
+  @State(Scope.Thread)
+  public static class Rows {
+    private IRowMeta rowMeta;
+    private Object[][] rows;
+    private RowCodec codec;
+    private ByteBuffer buffer;
+    private byte[] rowMetaBytes;
+    private RowBatch batch;
+
+    @Setup(Level.Trial)
+    public void createRows() throws HopException {
+      rowMeta = new RowMeta();
+      rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+      rowMeta.addValueMeta(new ValueMetaNumber("number"));
+      rowMeta.addValueMeta(new ValueMetaDate("date"));
+      rowMeta.addValueMeta(new ValueMetaString("string"));
+
+      Random random = new Random(1234);
+      rows = new Object[ROW_COUNT][];
+      for (int i = 0; i < ROW_COUNT; i++) {
+        rows[i] =
+            new Object[] {
+              (long) random.nextInt(1000000),
+              random.nextInt(100) == 0 ? null : random.nextDouble(),
+              new Date(1600000000000L + random.nextInt(1000) * 86400000L),
+              "customer-" + random.nextInt(1000)
+            };
+      }
+
+      codec = new RowCodec(rowMeta);
+      buffer = ByteBuffer.allocate(ROW_COUNT * 64);
+      for (Object[] row : rows) {
+        codec.encode(row, buffer);
+      }
+
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+      for (Object[] row : rows) {
+        rowMeta.writeData(dataOutputStream, row);
+      }
+      rowMetaBytes = outputStream.toByteArray();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBatch() {
+      batch = new RowBatch(rowMeta, ROW_COUNT);
+    }
+  }
+
+  @Benchmark
+  public int writeRowMeta(Rows rows) throws HopException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(rows.rowMetaBytes.length);
+    DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+    for (Object[] row : rows.rows) {
+      rows.rowMeta.writeData(dataOutputStream, row);
+    }
+    return outputStream.size();
+  }
+
+  @Benchmark
+  public int encodeCodec(Rows rows) throws HopException {
+    rows.buffer.clear();
+    for (Object[] row : rows.rows) {
+      rows.codec.encode(row, rows.buffer);
+    }
+    return rows.buffer.position();
+  }
+
+  @Benchmark
+  public Object readRowMeta(Rows rows) throws Exception {
+    DataInputStream dataInputStream =
+        new DataInputStream(new ByteArrayInputStream(rows.rowMetaBytes));
+    Object[] row = null;
+    for (int i = 0; i < ROW_COUNT; i++) {
+      row = rows.rowMeta.readData(dataInputStream);
+    }
+    return row;
+  }
+
+  @Benchmark
+  public Object decodeCodec(Rows rows) throws HopException {
+    ByteBuffer buffer = rows.buffer.duplicate();
+    buffer.flip();
+    Object[] row = null;
+    for (int i = 0; i < ROW_COUNT; i++) {
+      row = rows.codec.decode(buffer);
+    }
+    return row;
+  }
+
+  @Benchmark
+  public RowBatch decodeCodecBatch(Rows rows) throws HopException {
+    ByteBuffer buffer = rows.buffer.duplicate();
+    buffer.flip();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      rows.codec.decode(buffer, rows.batch);
+    }
+    return rows.batch;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options =
+        new OptionsBuilder().include(RowCodecBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.apache.hop.core.row.vector.DoubleColumnVector;
+import org.apache.hop.core.row.vector.LongColumnVector;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RowCodecTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    return rowMeta;
+  }
+
+  private Object[] createRow(long id) {
+    Timestamp timestamp = new Timestamp(1600000000123L + id);
+    timestamp.setNanos(123456789);
+    return new Object[] {
+      id,
+      "row " + id,
+      id / 3.0,
+      new Date(-86400000L * id),
+      new BigDecimal("-12345678901234567890.0123").add(BigDecimal.valueOf(id)),
+      id % 2 == 0,
+      new byte[] {(byte) id, 0, -1},
+      timestamp
+    };
+  }
+
+  private void assertRowEquals(Object[] expected, Object[] actual) {
+    for (int i = 0; i < expected.length; i++) {
+      if (expected[i] instanceof byte[]) {
+        assertArrayEquals((byte[]) expected[i], (byte[]) actual[i]);
+      } else {
+        assertEquals(expected[i], actual[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    RowCodec codec = new RowCodec(createRowMeta());
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    Object[][] rows = {
+      createRow(0),
+      createRow(1),
+      createRow(Long.MAX_VALUE),
+      createRow(Long.MIN_VALUE),
+      new Object[8]
+    };
+    for (Object[] row : rows) {
+      codec.encode(row, buffer);
+    }
+    buffer.flip();
+    for (Object[] row : rows) {
+      assertRowEquals(row, codec.decode(buffer));
+    }
+    assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  public void testStrings() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    RowCodec codec = new RowCodec(rowMeta);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+
+    String[] strings = {"", "plain", "caf\u00e9", "\u20ac 10", "\ud83d\ude00 smile", "lone \ud83d"};
+    for (String string : strings) {
+      buffer.clear();
+      codec.encode(new Object[] {string}, buffer);
+      buffer.flip();
+      String expected =
+          new String(string.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+      assertEquals(expected, codec.decode(buffer)[0]);
+    }
+  }
+
+  @Test
+  public void testNonNormalStorage() throws Exception {
+    ValueMetaString binaryString = new ValueMetaString("binary");
+    binaryString.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    binaryString.setStorageMetadata(new ValueMetaString("binary"));
+    ValueMetaString indexed = new ValueMetaString("indexed");
+    indexed.setStorageType(IValueMeta.STORAGE_TYPE_INDEXED);
+    indexed.setIndex(new Object[] {"a", "b"});
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(binaryString);
+    rowMeta.addValueMeta(indexed);
+    RowCodec codec = new RowCodec(rowMeta);
+
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    codec.encode(new Object[] {"hop".getBytes(StandardCharsets.UTF_8), 1}, buffer);
+    buffer.flip();
+    Object[] row = codec.decode(buffer);
+    assertArrayEquals("hop".getBytes(StandardCharsets.UTF_8), (byte[]) row[0]);
+    assertEquals(1, row[1]);
+  }
+
+  @Test
+  public void testDecodeIntoBatch() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    RowCodec codec = new RowCodec(rowMeta);
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    for (long i = 0; i < 10; i++) {
+      codec.encode(i == 5 ? new Object[8] : createRow(i), buffer);
+    }
+    buffer.flip();
+
+    RowBatch batch = new RowBatch(rowMeta, 10);
+    while (buffer.hasRemaining()) {
+      codec.decode(buffer, batch);
+    }
+    assertEquals(10, batch.size());
+    assertTrue(batch.getColumn(0) instanceof LongColumnVector);
+    assertTrue(batch.getColumn(2) instanceof DoubleColumnVector);
+    for (int i = 0; i < 10; i++) {
+      if (i == 5) {
+        assertRowEquals(new Object[8], batch.getRow(i));
+      } else {
+        assertRowEquals(createRow(i), batch.getRow(i));
+      }
+    }
+  }
+
+  @Test(expected = BufferOverflowException.class)
+  public void testBufferTooSmall() throws Exception {
+    new RowCodec(createRowMeta()).encode(createRow(1), ByteBuffer.allocate(16));
+  }
+
+  @Test
+  public void testStreams() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    RowCodec codec = new RowCodec(rowMeta);
+
+    // A row larger than the initial buffer of the codec
+    //
+    Object[] large = createRow(7);
+    large[1] = new String(new char[10000]).replace('\0', 'x');
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    RowCodec.writeHeader(outputStream);
+    codec.writeRow(outputStream, createRow(1));
+    codec.writeRow(outputStream, large);
+    codec.writeRow(outputStream, createRow(2));
+
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    assertEquals(RowCodec.VERSION, RowCodec.readHeader(inputStream));
+    assertRowEquals(createRow(1), codec.readRow(inputStream));
+    assertRowEquals(large, codec.readRow(inputStream));
+    assertRowEquals(createRow(2), codec.readRow(inputStream));
+    assertNull(codec.readRow(inputStream));
+  }
+
+  @Test
+  public void testLegacyStream() throws Exception {
+    // Rows written by IRowMeta.writeData() don't have a header
+    //
+    IRowMeta rowMeta = createRowMeta();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+    rowMeta.writeData(dataOutputStream, createRow(1));
+    rowMeta.writeData(dataOutputStream, createRow(2));
+    dataOutputStream.flush();
+
+    RowCodec codec = new RowCodec(rowMeta);
+    InputStream inputStream =
+        new BufferedInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+    int version = RowCodec.readHeader(inputStream);
+    assertEquals(RowCodec.LEGACY_VERSION, version);
+    assertRowEquals(createRow(1), codec.readRow(inputStream, version));
+    assertRowEquals(createRow(2), codec.readRow(inputStream, version));
+    assertNull(codec.readRow(inputStream, version));
+  }
+
+  @Test
+  public void testEmptyLegacyStream() throws Exception {
+    InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+    int version = RowCodec.readHeader(inputStream);
+    assertEquals(RowCodec.LEGACY_VERSION, version);
+    assertNull(new RowCodec(createRowMeta()).readRow(inputStream, version));
+  }
+
+  @Test(expected = HopFileException.class)
+  public void testNoHeaderWithoutMark() throws Exception {
+    // Without mark and reset the start of a stream without a header can't be read again
+    //
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    createRowMeta().writeData(new DataOutputStream(outputStream), createRow(1));
+    InputStream inputStream =
+        new FilterInputStream(new ByteArrayInputStream(outputStream.toByteArray())) {
+          @Override
+          public boolean markSupported() {
+            return false;
+          }
+        };
+    RowCodec.readHeader(inputStream);
+  }
+
+  @Test(expected = HopFileException.class)
+  public void testTruncatedRow() throws Exception {
+    RowCodec codec = new RowCodec(createRowMeta());
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    codec.writeRow(outputStream, createRow(1));
+    byte[] bytes = outputStream.toByteArray();
+    codec.readRow(new ByteArrayInputStream(bytes, 0, bytes.length - 2));
+  }
+
+  @Test
+  public void testVarLong() {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    long[] values = {0, 1, -1, 63, -64, 64, 300, Long.MAX_VALUE, Long.MIN_VALUE};
+    for (long value : values) {
+      buffer.clear();
+      RowCodec.putVarLong(buffer, RowCodec.zigzag(value));
+      buffer.flip();
+      assertEquals(value, RowCodec.unzigzag(RowCodec.getVarLong(buffer)));
+    }
+    buffer.clear();
+    RowCodec.putVarLong(buffer, RowCodec.zigzag(-1));
+    assertEquals(1, buffer.position());
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compares sorting and hashing rows through {@link IRowMeta#compare(Object[], Object[], int[])}
+ * and {@link IRowMeta#hashCode(Object[])}, the way the sort, merge, lookup and group by transforms
+ * used to do it, with the comparators and hash functions created by {@link RowComparators}.
+ *
+ * <p>This is not a unit test. Run the main method with the test class path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowComparatorsBenchmark {
+
+  private static final int ROW_COUNT = 10000;
+
+  @State(Scope.Thread)
+  public static class Rows {
+    /** The key fields to sort and hash on */
+    @Param({"integer", "string", "string,integer", "date,number,string"})
+    public String keys;
+
+    private IRowMeta rowMeta;
+    private int[] fieldnrs;
+    private List<Object[]> rows;
+    private List<Object[]> sorted;
+
+    private Comparator<Object[]> rowMetaComparator;
+    private Comparator<Object[]> compiledComparator;
+    private ToIntFunction<Object[]> compiledHasher;
+
+    @Setup(Level.Trial)
+    public void createRows() {
+      rowMeta = new RowMeta();
+      rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+      rowMeta.addValueMeta(new ValueMetaString("string"));
+      rowMeta.addValueMeta(new ValueMetaNumber("number"));
+      rowMeta.addValueMeta(new ValueMetaDate("date"));
+
+      fieldnrs = Arrays.stream(keys.split(",")).mapToInt(rowMeta::indexOfValue).toArray();
+
+      Random random = new Random(1234);
+      rows = new ArrayList<>(ROW_COUNT);
+      for (int i = 0; i < ROW_COUNT; i++) {
+        rows.add(
+            new Object[] {
+              (long) random.nextInt(1000),
+              "customer-" + random.nextInt(1000),
+              random.nextInt(100) == 0 ? null : random.nextDouble(),
+              new Date(1600000000000L + random.nextInt(1000) * 86400000L)
+            });
+      }
+
+      rowMetaComparator =
+          (row1, row2) -> {
+            try {
+              return rowMeta.compare(row1, row2, fieldnrs);
+            } catch (HopValueException e) {
+              throw new RuntimeException(e);
+            }
+          };
+      compiledComparator = rowMeta.getRowComparator(fieldnrs);
+      compiledHasher = rowMeta.getRowHasher(fieldnrs);
+    }
+
+    /** Every sort starts from the unsorted rows */
+    @Setup(Level.Invocation)
+    public void copyRows() {
+      sorted = new ArrayList<>(rows);
+    }
+  }
+
+  @Benchmark
+  public List<Object[]> sortRowMeta(Rows rows) {
+    rows.sorted.sort(rows.rowMetaComparator);
+    return rows.sorted;
+  }
+
+  @Benchmark
+  public List<Object[]> sortCompiled(Rows rows) {
+    rows.sorted.sort(rows.compiledComparator);
+    return rows.sorted;
+  }
+
+  @Benchmark
+  public int hashRowMeta(Rows rows) throws HopValueException {
+    int result = 0;
+    for (Object[] row : rows.rows) {
+      Object[] key = new Object[rows.fieldnrs.length];
+      for (int i = 0; i < key.length; i++) {
+        IValueMeta valueMeta = rows.rowMeta.getValueMeta(rows.fieldnrs[i]);
+        key[i] = valueMeta.convertToNormalStorageType(row[rows.fieldnrs[i]]);
+      }
+      result += rows.rowMeta.hashCode(key);
+    }
+    return result;
+  }
+
+  @Benchmark
+  public int hashCompiled(Rows rows) {
+    int result = 0;
+    for (Object[] row : rows.rows) {
+      result += rows.compiledHasher.applyAsInt(row);
+    }
+    return result;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options =
+        new OptionsBuilder().include(RowComparatorsBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
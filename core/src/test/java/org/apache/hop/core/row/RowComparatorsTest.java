@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class RowComparatorsTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows() {
+    Random random = new Random(42);
+    String[] strings = {"a", "A", "b", " b", "B ", "", null};
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      rows.add(
+          new Object[] {
+            random.nextInt(5) == 0 ? null : (long) random.nextInt(3),
+            strings[random.nextInt(strings.length)],
+            random.nextInt(5) == 0 ? null : (double) random.nextInt(3),
+            random.nextInt(5) == 0 ? null : new Date(random.nextInt(3)),
+            random.nextInt(5) == 0 ? null : new BigDecimal(random.nextInt(3)),
+            random.nextInt(5) == 0 ? null : random.nextBoolean(),
+            random.nextInt(5) == 0 ? null : new byte[] {(byte) random.nextInt(3)},
+            random.nextInt(5) == 0 ? null : new Timestamp(random.nextInt(3))
+          });
+    }
+    return rows;
+  }
+
+  /** The compiled comparator gives the same results as IRowMeta.compare() for all pairs of rows */
+  private void assertSameResults(IRowMeta rowMeta, int[] fieldnrs) throws Exception {
+    Comparator<Object[]> comparator = rowMeta.getRowComparator(fieldnrs);
+    List<Object[]> rows = createRows();
+    for (Object[] row1 : rows) {
+      for (Object[] row2 : rows) {
+        assertEquals(
+            Integer.signum(rowMeta.compare(row1, row2, fieldnrs)),
+            Integer.signum(comparator.compare(row1, row2)));
+      }
+    }
+  }
+
+  @Test
+  public void testCompareAllTypes() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    for (int i = 0; i < rowMeta.size(); i++) {
+      assertSameResults(rowMeta, new int[] {i});
+    }
+    assertSameResults(rowMeta, new int[] {1, 0});
+    assertSameResults(rowMeta, new int[] {5, 2, 1, 0});
+    assertSameResults(rowMeta, new int[] {});
+  }
+
+  @Test
+  public void testCompareDescending() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    for (IValueMeta valueMeta : rowMeta.getValueMetaList()) {
+      valueMeta.setSortedDescending(true);
+    }
+    assertSameResults(rowMeta, new int[] {0, 1, 2, 3, 4, 5, 6, 7});
+    assertSameResults(rowMeta, new int[] {1, 3});
+  }
+
+  @Test
+  public void testCompareStringOptions() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    IValueMeta valueMeta = rowMeta.getValueMeta(1);
+
+    valueMeta.setCaseInsensitive(true);
+    assertSameResults(rowMeta, new int[] {1});
+
+    valueMeta.setIgnoreWhitespace(true);
+    assertSameResults(rowMeta, new int[] {1});
+
+    valueMeta.setTrimType(IValueMeta.TRIM_TYPE_RIGHT);
+    assertSameResults(rowMeta, new int[] {1});
+
+    valueMeta.setCollatorDisabled(false);
+    valueMeta.setCollatorStrength(0);
+    assertSameResults(rowMeta, new int[] {1});
+  }
+
+  @Test
+  public void testValueComparatorOnlyForNormalStorage() {
+    IValueMeta valueMeta = new ValueMetaString("string");
+    assertNotNull(valueMeta.createValueComparator());
+
+    valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    assertNull(valueMeta.createValueComparator());
+
+    // The timestamp compares values its own way
+    //
+    assertNull(new ValueMetaTimestamp("timestamp").createValueComparator());
+  }
+
+  @Test
+  public void testCompareTwoRowMetas() throws Exception {
+    IRowMeta rowMeta1 = new RowMeta();
+    rowMeta1.addValueMeta(new ValueMetaString("name"));
+    rowMeta1.addValueMeta(new ValueMetaInteger("id"));
+
+    IRowMeta rowMeta2 = new RowMeta();
+    rowMeta2.addValueMeta(new ValueMetaInteger("key"));
+    rowMeta2.addValueMeta(new ValueMetaString("id"));
+
+    int[] fieldnrs1 = {1};
+    int[] fieldnrs2 = {1};
+    Comparator<Object[]> comparator = rowMeta1.getRowComparator(fieldnrs1, rowMeta2, fieldnrs2);
+
+    Object[][] rows1 = {{"x", 1L}, {"y", 2L}, {"z", null}};
+    Object[][] rows2 = {{5L, "1"}, {6L, "02"}, {7L, null}};
+    for (Object[] row1 : rows1) {
+      for (Object[] row2 : rows2) {
+        assertEquals(
+            Integer.signum(rowMeta1.compare(row1, rowMeta2, row2, fieldnrs1, fieldnrs2)),
+            Integer.signum(comparator.compare(row1, row2)));
+      }
+    }
+  }
+
+  @Test
+  public void testHasher() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    int[] fieldnrs = {6, 1, 0};
+    ToIntFunction<Object[]> hasher = rowMeta.getRowHasher(fieldnrs);
+
+    for (Object[] row : createRows()) {
+      Object[] key = new Object[fieldnrs.length];
+      for (int i = 0; i < fieldnrs.length; i++) {
+        key[i] = row[fieldnrs[i]];
+      }
+      assertEquals(Arrays.deepHashCode(key), hasher.applyAsInt(row));
+    }
+  }
+
+  @Test
+  public void testHasherConvertsBinaryStrings() throws Exception {
+    ValueMetaString storageMeta = new ValueMetaString("string");
+    ValueMetaString valueMeta = new ValueMetaString("string");
+    valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    valueMeta.setStorageMetadata(storageMeta);
+
+    IRowMeta binaryRowMeta = new RowMeta();
+    binaryRowMeta.addValueMeta(valueMeta);
+    IRowMeta normalRowMeta = new RowMeta();
+    normalRowMeta.addValueMeta(storageMeta);
+
+    int[] fieldnrs = {0};
+    assertEquals(
+        normalRowMeta.getRowHasher(fieldnrs).applyAsInt(new Object[] {"hop"}),
+        binaryRowMeta
+            .getRowHasher(fieldnrs)
+            .applyAsInt(new Object[] {"hop".getBytes(StandardCharsets.UTF_8)}));
+  }
+}
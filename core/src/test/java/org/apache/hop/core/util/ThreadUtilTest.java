@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadUtilTest {
+
+  @Test
+  public void testPlatformThread() throws Exception {
+    testThread(false);
+  }
+
+  @Test
+  public void testVirtualThread() throws Exception {
+    // Falls back to a platform thread on Java versions without virtual threads
+    testThread(true);
+  }
+
+  private void testThread(boolean virtual) throws Exception {
+    AtomicBoolean ran = new AtomicBoolean(false);
+    Thread thread = ThreadUtil.newThread(() -> ran.set(true), "test thread", virtual);
+
+    assertEquals("test thread", thread.getName());
+    assertFalse(thread.isAlive());
+
+    thread.start();
+    thread.join(10000);
+    assertTrue(ran.get());
+  }
+}
@@ -59,6 +59,32 @@ public interface ICompressionProvider {
    */
   boolean supportsOutput();
 
+  /**
+   * Whether this compression provider can compress blocks of data independently, see {@link
+   * #compressBlock(byte[], int, int)}.
+   *
+   * @return true if the provider supports block compression, false otherwise
+   */
+  default boolean supportsBlockCompression() {
+    return false;
+  }
+
+  /**
+   * Compresses a block of data on its own. The concatenation of compressed blocks must be a valid
+   * compressed stream of the concatenated data, so blocks can be compressed in parallel and written
+   * one after the other.
+   *
+   * @param data the data to compress
+   * @param offset the offset of the block in the data
+   * @param length the length of the block
+   * @return the compressed block
+   * @throws IOException
+   */
+  default byte[] compressBlock(byte[] data, int offset, int length) throws IOException {
+    throw new UnsupportedOperationException(
+        "Compression provider " + getName() + " does not support block compression");
+  }
+
   /**
    * Gets the name of this provider. Used for display and as a reference in saved artifacts
    * (pipelines, e.g.)
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.compress;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An output stream which compresses and writes in the background. The written bytes are collected
+ * in blocks. If the compression provider supports block compression the blocks are compressed in
+ * parallel by a pool of threads shared by all streams, and a writer thread of the stream writes the
+ * compressed blocks in order. Otherwise the writer thread passes the blocks to a regular
+ * compression output stream, so the thread writing the data only has to fill blocks.
+ *
+ * <p>Errors in the background are thrown by the next write, flush or close.
+ */
+public class ParallelCompressionOutputStream extends CompressionOutputStream {
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+  private static final FutureTask<Void> END = new FutureTask<>(() -> null);
+
+  /** Compresses the blocks of all streams, created when first needed */
+  private static ExecutorService compressors;
+
+  /** The compression stream the writer thread writes to, null if the blocks are compressed */
+  private final CompressionOutputStream compressionOutputStream;
+
+  private final boolean compressingBlocks;
+  private final BlockingQueue<FutureTask<Void>> tasks;
+  private final Thread writer;
+
+  private final int blockSize;
+  private byte[] block;
+  private int position;
+  private long blockCount;
+
+  private volatile Throwable failure;
+  private boolean closed;
+
+  /**
+   * Create a stream which uses a block of 1MB and compresses up to a block per processor at a time.
+   *
+   * @param out the stream to write the compressed data to
+   * @param provider the compression provider
+   * @throws IOException
+   */
+  public ParallelCompressionOutputStream(OutputStream out, ICompressionProvider provider)
+      throws IOException {
+    this(out, provider, DEFAULT_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param out the stream to write the compressed data to
+   * @param provider the compression provider
+   * @param blockSize the number of bytes to collect before a block is compressed
+   * @param parallelism the number of blocks of this stream compressed at the same time, at most
+   * @throws IOException
+   */
+  public ParallelCompressionOutputStream(
+      OutputStream out, ICompressionProvider provider, int blockSize, int parallelism)
+      throws IOException {
+    super(out, provider);
+    if (blockSize <= 0 || parallelism <= 0) {
+      throw new IllegalArgumentException("The block size and the parallelism must be > 0");
+    }
+    this.blockSize = blockSize;
+    this.block = new byte[blockSize];
+
+    compressingBlocks = provider.supportsBlockCompression();
+    if (compressingBlocks) {
+      compressionOutputStream = null;
+    } else {
+      compressionOutputStream = provider.createOutputStream(out);
+      parallelism = 1;
+    }
+
+    // Bound the number of blocks in memory
+    //
+    tasks = new ArrayBlockingQueue<>(parallelism * 2);
+    writer = new Thread(this::writeBlocks, "Writer of " + provider.getName() + " output");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Get the threads which compress the blocks of all streams: a thread per processor, stopped when
+   * idle for a minute.
+   */
+  private static synchronized ExecutorService getCompressors() {
+    if (compressors == null) {
+      int threads = Runtime.getRuntime().availableProcessors();
+      ThreadPoolExecutor executor =
+          new ThreadPoolExecutor(
+              threads,
+              threads,
+              60L,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              r -> {
+                Thread thread = new Thread(r, "Block compression");
+                thread.setDaemon(true);
+                return thread;
+              });
+      executor.allowCoreThreadTimeOut(true);
+      compressors = executor;
+    }
+    return compressors;
+  }
+
+  /** The writer thread runs the tasks in order until the stream is closed or a task fails */
+  private void writeBlocks() {
+    try {
+      while (true) {
+        FutureTask<Void> task = tasks.take();
+        if (task == END) {
+          return;
+        }
+        if (failure != null) {
+          task.cancel(false);
+          continue;
+        }
+        task.run();
+        try {
+          task.get();
+        } catch (ExecutionException e) {
+          failure = unwrap(e);
+        }
+      }
+    } catch (InterruptedException e) {
+      failure = e;
+    }
+  }
+
+  private static Throwable unwrap(Throwable e) {
+    while (e instanceof ExecutionException && e.getCause() != null) {
+      e = e.getCause();
+    }
+    return e;
+  }
+
+  private void checkFailure() throws IOException {
+    Throwable e = failure;
+    if (e instanceof IOException) {
+      throw new IOException(e.getMessage(), e);
+    }
+    if (e != null) {
+      throw new IOException("Error writing compressed data", e);
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    checkFailure();
+  }
+
+  private void enqueue(FutureTask<Void> task) throws IOException {
+    try {
+      tasks.put(task);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while queueing a block");
+    }
+  }
+
+  /** Hand the current block over to the background threads */
+  private void submitBlock() throws IOException {
+    byte[] data = block;
+    int length = position;
+    block = new byte[blockSize];
+    position = 0;
+    blockCount++;
+
+    if (!compressingBlocks) {
+      enqueue(
+          new FutureTask<>(
+              () -> {
+                compressionOutputStream.write(data, 0, length);
+                return null;
+              }));
+    } else {
+      ICompressionProvider provider = getCompressionProvider();
+      Future<byte[]> compressed =
+          getCompressors().submit(() -> provider.compressBlock(data, 0, length));
+      enqueue(
+          new FutureTask<>(
+              () -> {
+                delegate.write(compressed.get());
+                return null;
+              }));
+    }
+  }
+
+  /** Wait until the writer thread ran the task */
+  private void await(FutureTask<Void> task) throws IOException {
+    try {
+      task.get();
+    } catch (CancellationException | ExecutionException e) {
+      checkFailure();
+      throw new IOException("Error writing compressed data", unwrap(e));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing compressed data");
+    }
+  }
+
+  @Override
+  public void addEntry(String filename, String extension) throws IOException {
+    checkOpen();
+    if (compressionOutputStream != null) {
+      FutureTask<Void> task =
+          new FutureTask<>(
+              () -> {
+                compressionOutputStream.addEntry(filename, extension);
+                return null;
+              });
+      enqueue(task);
+      await(task);
+    }
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    checkOpen();
+    block[position++] = (byte) b;
+    if (position == blockSize) {
+      submitBlock();
+    }
+  }
+
+  @Override
+  public void write(byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    checkOpen();
+    while (len > 0) {
+      int size = Math.min(len, blockSize - position);
+      System.arraycopy(b, off, block, position, size);
+      position += size;
+      off += size;
+      len -= size;
+      if (position == blockSize) {
+        submitBlock();
+      }
+    }
+  }
+
+  /** Writes the collected bytes and waits until they are written and flushed. */
+  @Override
+  public void flush() throws IOException {
+    checkOpen();
+    if (position > 0) {
+      submitBlock();
+    }
+    OutputStream target = compressionOutputStream == null ? delegate : compressionOutputStream;
+    FutureTask<Void> task =
+        new FutureTask<>(
+            () -> {
+              target.flush();
+              return null;
+            });
+    enqueue(task);
+    await(task);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      // An empty stream still needs a compressed block, e.g. an empty gzip member
+      //
+      if (failure == null && (position > 0 || blockCount == 0)) {
+        submitBlock();
+      }
+      enqueue(END);
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing compressed data");
+    } finally {
+      closed = true;
+      block = null;
+    }
+
+    try {
+      checkFailure();
+    } finally {
+      if (compressionOutputStream != null) {
+        compressionOutputStream.close();
+      } else {
+        delegate.close();
+      }
+    }
+  }
+}
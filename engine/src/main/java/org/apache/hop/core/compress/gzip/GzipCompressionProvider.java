@@ -20,9 +20,11 @@ package org.apache.hop.core.compress.gzip;
 import org.apache.hop.core.compress.CompressionPlugin;
 import org.apache.hop.core.compress.ICompressionProvider;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
 
 @CompressionPlugin(id = "GZIP", name = "GZip", description = "GZIP compression")
 public class GzipCompressionProvider implements ICompressionProvider {
@@ -47,6 +49,21 @@ public class GzipCompressionProvider implements ICompressionProvider {
     return true;
   }
 
+  @Override
+  public boolean supportsBlockCompression() {
+    return true;
+  }
+
+  /** Every block becomes a complete gzip member. Readers decompress concatenated members. */
+  @Override
+  public byte[] compressBlock(byte[] data, int offset, int length) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(length / 2 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 65536)) {
+      gzip.write(data, offset, length);
+    }
+    return bytes.toByteArray();
+  }
+
   @Override
   public String getDescription() {
     return "GZIP compression";
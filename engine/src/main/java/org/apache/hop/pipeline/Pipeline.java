@@ -32,6 +32,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowBuffer;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.core.util.ThreadUtil;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
@@ -57,6 +58,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.hop.pipeline.Pipeline.BitMaskStatus.*;
@@ -251,6 +253,8 @@ public abstract class Pipeline
   /** The number of finished transforms. */
   private int nrOfFinishedTransforms;
 
+  private final ReentrantLock finishedTransformsLock = new ReentrantLock();
+
   /** The named parameters. */
   private INamedParameters namedParams = new NamedParameters();
 
@@ -301,6 +305,18 @@ public abstract class Pipeline
 
   protected int rowSetSize;
 
+  /** Use lock-free ring buffer row sets for hops between a single writer and reader copy. */
+  protected boolean ringBufferRowSets;
+
+  /** What the ring buffer row sets do while waiting for rows or room in the buffer. */
+  protected RowSetWaitStrategy rowSetWaitStrategy;
+
+  /** Run the transform copies in virtual threads instead of platform threads. */
+  protected boolean virtualThreads;
+
+  /** Use row sets which pass columnar row batches between transforms as they are. */
+  protected boolean rowBatchRowSets;
+
   /** Whether the feedback is shown. */
   protected boolean feedbackShown;
 
@@ -332,6 +348,7 @@ public abstract class Pipeline
     extensionDataMap = new HashMap<>();
 
     rowSetSize = Const.ROWS_IN_ROWSET;
+    rowSetWaitStrategy = RowSetWaitStrategy.PARK;
   }
 
   /**
@@ -641,7 +658,15 @@ public abstract class Pipeline
                 Boolean batchingRowSet =
                     ValueMetaString.convertStringToBoolean(
                         System.getProperty(Const.HOP_BATCHING_ROWSET));
-                if (batchingRowSet != null && batchingRowSet.booleanValue()) {
+                if (rowBatchRowSets) {
+                  // Batches are handed over without converting them to rows
+                  //
+                  rowSet = new RowBatchRowSet(rowSetSize);
+                } else if (ringBufferRowSets && dispatchType == TYPE_DISP_1_1) {
+                  // Exactly one thread writes and one thread reads: no locking needed
+                  //
+                  rowSet = new RingBufferRowSet(rowSetSize, rowSetWaitStrategy);
+                } else if (batchingRowSet != null && batchingRowSet.booleanValue()) {
                   rowSet = new BlockingBatchingRowSet(rowSetSize);
                 } else {
                   rowSet = new BlockingRowSet(rowSetSize);
@@ -850,6 +875,7 @@ public abstract class Pipeline
       ITransform baseTransform = sid.transform;
 
       baseTransform.setPartitioned(transformMeta.isPartitioned());
+      baseTransform.setRowsInBatch(Const.ROWS_IN_BATCH);
 
       // Now let's take a look at the source and target relation
       //
@@ -916,6 +942,9 @@ public abstract class Pipeline
           BaseMessages.getString(
               PKG, "Pipeline.Log.InitialisingTransforms", String.valueOf(transforms.size())));
     }
+    if (virtualThreads && !ThreadUtil.isVirtualThreadsSupported()) {
+      log.logBasic(BaseMessages.getString(PKG, "Pipeline.Log.VirtualThreadsNotSupported"));
+    }
 
     TransformInitThread[] initThreads = new TransformInitThread[transforms.size()];
     Thread[] threads = new Thread[transforms.size()];
@@ -933,9 +962,9 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
-      threads[i].setName(
-          "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
+      threads[i] =
+          ThreadUtil.newThread(
+              initThreads[i], "init of " + sid.transformName + "." + sid.copy, virtualThreads);
 
       ExtensionPointHandler.callExtensionPoint(
           log, this, HopExtensionPoint.TransformBeforeInitialize.id, initThreads[i]);
@@ -1059,7 +1088,11 @@ public abstract class Pipeline
       //
       ITransformFinishedListener finishedListener =
           (pipeline, transformMeta, transform) -> {
-            synchronized (Pipeline.this) {
+            // The finished listeners can block: use a lock rather than a monitor so that
+            // virtual threads are not pinned to their carrier thread.
+            //
+            finishedTransformsLock.lock();
+            try {
               nrOfFinishedTransforms++;
 
               if (nrOfFinishedTransforms >= transforms.size()) {
@@ -1105,6 +1138,8 @@ public abstract class Pipeline
 
                 killAllNoWait();
               }
+            } finally {
+              finishedTransformsLock.unlock();
             }
           };
 
@@ -1196,8 +1231,6 @@ public abstract class Pipeline
         //
         for (final TransformMetaDataCombi combi : transforms) {
           RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -1213,7 +1246,7 @@ public abstract class Pipeline
                 }
               });
 
-          thread.start();
+          startRunThread(combi, runThread);
         }
         break;
 
@@ -1373,6 +1406,19 @@ public abstract class Pipeline
     }
   }
 
+  /**
+   * Start running a transform copy. By default every copy runs in its own thread. Engines can
+   * override this to schedule the transforms differently.
+   *
+   * @param combi the transform copy to run
+   * @param runThread the code which runs the transform copy
+   */
+  protected void startRunThread(TransformMetaDataCombi combi, RunThread runThread) {
+    Thread thread =
+        ThreadUtil.newThread(runThread, getName() + " - " + combi.transformName, virtualThreads);
+    thread.start();
+  }
+
   /** Waits until all RunThreads have finished. */
   @Override
   public void waitUntilFinished() {
@@ -3411,6 +3457,62 @@ public abstract class Pipeline
     this.rowSetSize = rowSetSize;
   }
 
+  /**
+   * Gets ringBufferRowSets
+   *
+   * @return value of ringBufferRowSets
+   */
+  public boolean isRingBufferRowSets() {
+    return ringBufferRowSets;
+  }
+
+  /** @param ringBufferRowSets The ringBufferRowSets to set */
+  public void setRingBufferRowSets(boolean ringBufferRowSets) {
+    this.ringBufferRowSets = ringBufferRowSets;
+  }
+
+  /**
+   * Gets rowSetWaitStrategy
+   *
+   * @return value of rowSetWaitStrategy
+   */
+  public RowSetWaitStrategy getRowSetWaitStrategy() {
+    return rowSetWaitStrategy;
+  }
+
+  /** @param rowSetWaitStrategy The rowSetWaitStrategy to set */
+  public void setRowSetWaitStrategy(RowSetWaitStrategy rowSetWaitStrategy) {
+    this.rowSetWaitStrategy = rowSetWaitStrategy;
+  }
+
+  /**
+   * Gets virtualThreads
+   *
+   * @return value of virtualThreads
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /** @param virtualThreads The virtualThreads to set */
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Gets rowBatchRowSets
+   *
+   * @return value of rowBatchRowSets
+   */
+  public boolean isRowBatchRowSets() {
+    return rowBatchRowSets;
+  }
+
+  /** @param rowBatchRowSets The rowBatchRowSets to set */
+  public void setRowBatchRowSets(boolean rowBatchRowSets) {
+    this.rowBatchRowSets = rowBatchRowSets;
+  }
+
   /**
    * Gets feedbackShown
    *
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.engines.local;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.Result;
+import org.apache.hop.core.RowSetWaitStrategy;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.map.DatabaseConnectionMap;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -98,6 +99,10 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
 
     int sizeRowsSet = Const.toInt(resolve(config.getRowSetSize()), Const.ROWS_IN_ROWSET);
     setRowSetSize(sizeRowsSet);
+    setRingBufferRowSets(config.isRingBufferRowSets());
+    setRowSetWaitStrategy(RowSetWaitStrategy.lookupName(resolve(config.getRowSetWaitStrategy())));
+    setVirtualThreads(config.isVirtualThreads());
+    setRowBatchRowSets(config.isRowBatchRowSets());
     setSafeModeEnabled(config.isSafeModeEnabled());
     setSortingTransformsTopologically(config.isSortingTransformsTopologically());
     setGatheringMetrics(config.isGatheringMetrics());
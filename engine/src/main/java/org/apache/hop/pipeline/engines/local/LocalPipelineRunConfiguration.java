@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.engines.local;
 
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowSetWaitStrategy;
 import org.apache.hop.core.gui.plugin.GuiElementType;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.gui.plugin.GuiWidgetElement;
@@ -144,6 +145,55 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  @GuiWidgetElement(
+      id = "ringBufferRowSets",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RingBufferRowSets.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RingBufferRowSets.ToolTip")
+  @HopMetadataProperty(key = "ring_buffer_rowsets")
+  protected boolean ringBufferRowSets;
+
+  @GuiWidgetElement(
+      id = "rowSetWaitStrategy",
+      order = "120",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetWaitStrategy.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowSetWaitStrategy.ToolTip",
+      comboValuesMethod = "getRowSetWaitStrategies")
+  @HopMetadataProperty(key = "rowset_wait_strategy")
+  protected String rowSetWaitStrategy;
+
+  @GuiWidgetElement(
+      id = "virtualThreads",
+      order = "130",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.ToolTip")
+  @HopMetadataProperty(key = "virtual_threads")
+  protected boolean virtualThreads;
+
+  @GuiWidgetElement(
+      id = "rowBatchRowSets",
+      order = "140",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowBatchRowSets.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RowBatchRowSets.ToolTip")
+  @HopMetadataProperty(key = "row_batch_rowsets")
+  protected boolean rowBatchRowSets;
+
   public enum SampleType {
     None,
     First,
@@ -160,6 +210,10 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = SampleType.Last.name();
     this.sampleSize = "100";
     this.transactional = false;
+    this.ringBufferRowSets = false;
+    this.rowSetWaitStrategy = RowSetWaitStrategy.PARK.name();
+    this.virtualThreads = false;
+    this.rowBatchRowSets = false;
   }
 
   public LocalPipelineRunConfiguration(LocalPipelineRunConfiguration config) {
@@ -174,6 +228,10 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.ringBufferRowSets = config.ringBufferRowSets;
+    this.rowSetWaitStrategy = config.rowSetWaitStrategy;
+    this.virtualThreads = config.virtualThreads;
+    this.rowBatchRowSets = config.rowBatchRowSets;
   }
 
   @Override
@@ -188,6 +246,15 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     }
     return list;
   }
+
+  public List<String> getRowSetWaitStrategies(
+      ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (RowSetWaitStrategy strategy : RowSetWaitStrategy.values()) {
+      list.add(strategy.name());
+    }
+    return list;
+  }
   /**
    * Gets rowSetSize
    *
@@ -347,4 +414,68 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets ringBufferRowSets
+   *
+   * @return value of ringBufferRowSets
+   */
+  public boolean isRingBufferRowSets() {
+    return ringBufferRowSets;
+  }
+
+  /**
+   * @param ringBufferRowSets The ringBufferRowSets to set
+   */
+  public void setRingBufferRowSets(boolean ringBufferRowSets) {
+    this.ringBufferRowSets = ringBufferRowSets;
+  }
+
+  /**
+   * Gets rowSetWaitStrategy
+   *
+   * @return value of rowSetWaitStrategy
+   */
+  public String getRowSetWaitStrategy() {
+    return rowSetWaitStrategy;
+  }
+
+  /**
+   * @param rowSetWaitStrategy The rowSetWaitStrategy to set
+   */
+  public void setRowSetWaitStrategy(String rowSetWaitStrategy) {
+    this.rowSetWaitStrategy = rowSetWaitStrategy;
+  }
+
+  /**
+   * Gets virtualThreads
+   *
+   * @return value of virtualThreads
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @param virtualThreads The virtualThreads to set
+   */
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Gets rowBatchRowSets
+   *
+   * @return value of rowBatchRowSets
+   */
+  public boolean isRowBatchRowSets() {
+    return rowBatchRowSets;
+  }
+
+  /**
+   * @param rowBatchRowSets The rowBatchRowSets to set
+   */
+  public void setRowBatchRowSets(boolean rowBatchRowSets) {
+    this.rowBatchRowSets = rowBatchRowSets;
+  }
 }
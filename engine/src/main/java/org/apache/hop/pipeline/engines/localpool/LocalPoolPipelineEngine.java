@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.localpool;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.ManagedRowSetWaits;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.parameters.INamedParameters;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.engine.PipelineEnginePlugin;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.RunThread;
+import org.apache.hop.pipeline.transform.TransformMetaDataCombi;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs all transform copies as tasks on a work-stealing thread pool sized to the number of
+ * processors. A transform copy only gets a thread when it has input rows available and room in its
+ * output row sets. The pool is shared by all pipelines running with the same pool size, so many
+ * small pipelines can run at the same time without running more threads than there are
+ * processors.
+ *
+ * <p>A transform waiting on a full or empty row set inside processRow() lets the pool start a
+ * spare thread, see {@link ManagedRowSetWaits}, up to {@link #MAX_SPARE_THREADS} of them. After
+ * that the transform waits without a spare thread. Transforms running other pipelines or workflows
+ * can block for a long time in ways the pool can't see, so they get their own thread like in the
+ * local engine.
+ *
+ * <p>A pool is shut down once no pipeline uses it anymore.
+ */
+@PipelineEnginePlugin(
+    id = "LocalPool",
+    name = "Hop local pool pipeline engine",
+    description =
+        "Executes your pipeline locally, running the transforms as tasks on a shared work-stealing thread pool")
+public class LocalPoolPipelineEngine extends LocalPipelineEngine
+    implements IPipelineEngine<PipelineMeta> {
+
+  /** The maximum number of threads a pool starts on top of its size for waiting transforms */
+  public static final int MAX_SPARE_THREADS = 256;
+
+  /** The shared pools, per pool size */
+  private static final Map<Integer, SharedPool> pools = new HashMap<>();
+
+  private ForkJoinPool pool;
+  private int poolSize;
+  private final AtomicBoolean poolReleased = new AtomicBoolean();
+
+  public LocalPoolPipelineEngine() {
+    super();
+  }
+
+  public LocalPoolPipelineEngine(PipelineMeta pipelineMeta) {
+    super(pipelineMeta);
+  }
+
+  public LocalPoolPipelineEngine(
+      PipelineMeta pipelineMeta, IVariables variables, ILoggingObject parent) {
+    super(pipelineMeta, variables, parent);
+  }
+
+  public <Parent extends IVariables & INamedParameters> LocalPoolPipelineEngine(
+      Parent parent, String name, String filename, IHopMetadataProvider metadataProvider)
+      throws HopException {
+    super(parent, name, filename, metadataProvider);
+  }
+
+  @Override
+  public IPipelineEngineRunConfiguration createDefaultPipelineEngineRunConfiguration() {
+    return new LocalPoolPipelineRunConfiguration();
+  }
+
+  @Override
+  public void prepareExecution() throws HopException {
+    if (!(pipelineRunConfiguration.getEngineRunConfiguration()
+        instanceof LocalPoolPipelineRunConfiguration)) {
+      throw new HopException(
+          "A local pool pipeline execution expects a local pool pipeline configuration, not an instance of class "
+              + pipelineRunConfiguration.getEngineRunConfiguration().getClass().getName());
+    }
+    LocalPoolPipelineRunConfiguration config =
+        (LocalPoolPipelineRunConfiguration) pipelineRunConfiguration.getEngineRunConfiguration();
+
+    int poolSize =
+        Const.toInt(resolve(config.getPoolSize()), Runtime.getRuntime().availableProcessors());
+    if (poolSize <= 0) {
+      poolSize = Runtime.getRuntime().availableProcessors();
+    }
+    this.poolSize = poolSize;
+    pool = acquirePool(poolSize);
+    poolReleased.set(false);
+    addExecutionFinishedListener(pipeline -> releasePool());
+
+    try {
+      super.prepareExecution();
+    } catch (HopException | RuntimeException e) {
+      releasePool();
+      throw e;
+    }
+
+    // The transforms run in the threads of the pool
+    //
+    setVirtualThreads(false);
+  }
+
+  /** Stop using the pool, once. */
+  private void releasePool() {
+    if (pool != null && !poolReleased.getAndSet(true)) {
+      releasePool(poolSize);
+    }
+  }
+
+  /**
+   * Get the shared pool with the given number of threads, create it if needed. Every call has to be
+   * followed by a call to {@link #releasePool(int)} once the pool isn't used anymore.
+   *
+   * @param poolSize the number of threads in the pool
+   * @return the pool
+   */
+  public static ForkJoinPool acquirePool(int poolSize) {
+    synchronized (pools) {
+      SharedPool sharedPool = pools.computeIfAbsent(poolSize, SharedPool::new);
+      sharedPool.users++;
+      return sharedPool.pool;
+    }
+  }
+
+  /**
+   * Stop using the shared pool with the given number of threads. The pool is shut down when no
+   * pipeline uses it anymore.
+   *
+   * @param poolSize the number of threads in the pool
+   */
+  public static void releasePool(int poolSize) {
+    synchronized (pools) {
+      SharedPool sharedPool = pools.get(poolSize);
+      if (sharedPool != null && --sharedPool.users <= 0) {
+        pools.remove(poolSize);
+        sharedPool.pool.shutdown();
+      }
+    }
+  }
+
+  /** @return the pool the transforms of this pipeline run on, null before the preparation */
+  public ForkJoinPool getPool() {
+    return pool;
+  }
+
+  @Override
+  protected void startRunThread(TransformMetaDataCombi combi, RunThread runThread) {
+    if (runsOtherObjects(combi)) {
+      super.startRunThread(combi, runThread);
+    } else {
+      new TransformTask(runThread, pool, getRowSetSize()).schedule();
+    }
+  }
+
+  /** @return true if the transform executes other pipelines or workflows */
+  private static boolean runsOtherObjects(TransformMetaDataCombi combi) {
+    String[] descriptions = combi.meta.getReferencedObjectDescriptions();
+    return descriptions != null && descriptions.length > 0;
+  }
+
+  /** A pool and the number of pipelines using it */
+  private static final class SharedPool {
+    private final ForkJoinPool pool;
+    private int users;
+
+    private SharedPool(int size) {
+      // Waiting transforms get spare threads up to a maximum, after that they just wait
+      //
+      pool =
+          new ForkJoinPool(
+              size,
+              ManagedRowSetWaits.newThreadFactory("Transform pool " + size),
+              null,
+              true,
+              size,
+              size + MAX_SPARE_THREADS,
+              1,
+              forkJoinPool -> true,
+              60,
+              TimeUnit.SECONDS);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.localpool;
+
+import org.apache.hop.core.gui.plugin.GuiElementType;
+import org.apache.hop.core.gui.plugin.GuiPlugin;
+import org.apache.hop.core.gui.plugin.GuiWidgetElement;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.pipeline.config.IPipelineEngineRunConfiguration;
+import org.apache.hop.pipeline.config.PipelineRunConfiguration;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+
+/**
+ * The options of the local pool engine: all the options of the local engine plus the size of the
+ * shared thread pool.
+ */
+@GuiPlugin(description = "Local pool pipeline run configuration widgets")
+public class LocalPoolPipelineRunConfiguration extends LocalPipelineRunConfiguration
+    implements IPipelineEngineRunConfiguration {
+
+  @GuiWidgetElement(
+      id = "poolSize",
+      order = "200",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.PoolSize.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.PoolSize.ToolTip")
+  @HopMetadataProperty(key = "pool_size")
+  protected String poolSize;
+
+  public LocalPoolPipelineRunConfiguration() {
+    super();
+    this.poolSize = "";
+  }
+
+  public LocalPoolPipelineRunConfiguration(LocalPoolPipelineRunConfiguration config) {
+    super(config);
+    this.poolSize = config.poolSize;
+  }
+
+  @Override
+  public LocalPoolPipelineRunConfiguration clone() {
+    return new LocalPoolPipelineRunConfiguration(this);
+  }
+
+  /**
+   * Gets poolSize
+   *
+   * @return value of poolSize
+   */
+  public String getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * @param poolSize The poolSize to set
+   */
+  public void setPoolSize(String poolSize) {
+    this.poolSize = poolSize;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.localpool;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.RunThread;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one transform copy cooperatively on a thread pool. Every time the task gets a thread it
+ * calls processRow() for as long as the transform has input rows to work on and room in its output
+ * row sets, up to a short time slice. It then gives the thread back to the pool and schedules
+ * itself again. When the transform can't make progress the task is rescheduled after a growing
+ * delay so idle transforms don't keep the pool threads busy.
+ *
+ * <p>A transform which waits for rows in processRow() anyway, like one reading an info stream or
+ * writing many rows at once, blocks through a {@link java.util.concurrent.ForkJoinPool
+ * ManagedBlocker} so the pool can run its neighbours on a spare thread in the meantime.
+ */
+public class TransformTask implements Runnable {
+
+  /** The time a transform keeps the pool thread, in nanoseconds */
+  private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  private static final long MIN_DELAY_MICROS = 50;
+  private static final long MAX_DELAY_MICROS = 1000;
+
+  /** Run anyway after being idle this long, in case rows trickle in below the threshold */
+  private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  private final RunThread runThread;
+  private final ITransform transform;
+  private final ExecutorService pool;
+
+  /** Don't bother running for less than this number of input rows unless the input is done */
+  private final int inputThreshold;
+
+  /** Only run when all output row sets have room for this number of rows */
+  private final int outputRoom;
+
+  private final int rowSetSize;
+
+  private boolean started;
+  private boolean finished;
+  private long delayMicros;
+  private long idleSince;
+
+  public TransformTask(RunThread runThread, ExecutorService pool, int rowSetSize) {
+    this.runThread = runThread;
+    this.transform = runThread.getTransform();
+    this.pool = pool;
+    this.rowSetSize = rowSetSize;
+    this.inputThreshold = Math.max(1, rowSetSize / 100);
+    this.outputRoom = Math.max(1, Math.min(Const.ROWS_IN_BATCH, rowSetSize / 2));
+    this.delayMicros = MIN_DELAY_MICROS;
+  }
+
+  /** Submit the task to the pool */
+  public void schedule() {
+    pool.execute(this);
+  }
+
+  @Override
+  public void run() {
+    if (finished) {
+      return;
+    }
+    boolean progress = false;
+    try {
+      if (!started) {
+        started = true;
+        runThread.startRunning();
+      }
+
+      long sliceStart = System.nanoTime();
+      while (isReady()) {
+        progress = true;
+        if (!transform.processRow() || transform.isStopped()) {
+          finish();
+          return;
+        }
+        if (System.nanoTime() - sliceStart > SLICE_NANOS) {
+          break;
+        }
+      }
+      if (transform.isStopped()) {
+        finish();
+        return;
+      }
+    } catch (Throwable t) {
+      runThread.handleError(t);
+      finish();
+      return;
+    }
+
+    if (progress) {
+      delayMicros = MIN_DELAY_MICROS;
+      idleSince = 0L;
+      pool.execute(this);
+    } else {
+      if (idleSince == 0L) {
+        idleSince = System.nanoTime();
+      }
+      CompletableFuture.delayedExecutor(delayMicros, TimeUnit.MICROSECONDS, pool).execute(this);
+      delayMicros = Math.min(MAX_DELAY_MICROS, delayMicros * 2);
+    }
+  }
+
+  private void finish() {
+    if (!finished) {
+      finished = true;
+      runThread.finishRunning();
+    }
+  }
+
+  /** @return true if the transform can process rows without waiting for its neighbours */
+  private boolean isReady() {
+    return hasInput() && hasOutputRoom();
+  }
+
+  private boolean hasInput() {
+    List<IRowSet> inputRowSets = transform.getInputRowSets();
+    if (inputRowSets.isEmpty()) {
+      return true;
+    }
+    boolean allDone = true;
+    for (int i = 0; i < inputRowSets.size(); i++) {
+      IRowSet rowSet = inputRowSets.get(i);
+      int size = rowSet.size();
+      boolean done = rowSet.isDone();
+      if (size >= inputThreshold || (done && size > 0)) {
+        return true;
+      }
+      allDone &= done;
+    }
+    if (allDone) {
+      // processRow() will signal the end of the rows
+      return true;
+    }
+    // A few rows are waiting and nothing arrived for a while: process them
+    for (int i = 0; i < inputRowSets.size(); i++) {
+      if (inputRowSets.get(i).size() > 0) {
+        return idleSince != 0L && System.nanoTime() - idleSince > MAX_IDLE_NANOS;
+      }
+    }
+    return false;
+  }
+
+  private boolean hasOutputRoom() {
+    List<IRowSet> outputRowSets = transform.getOutputRowSets();
+    for (int i = 0; i < outputRowSets.size(); i++) {
+      if (outputRowSets.get(i).size() > rowSetSize - outputRoom) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** @return true once the transform finished running */
+  public boolean isFinished() {
+    return finished;
+  }
+}
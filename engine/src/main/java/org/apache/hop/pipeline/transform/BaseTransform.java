@@ -29,6 +29,7 @@ import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.logging.*;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaString;
@@ -54,6 +55,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -135,7 +137,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private final IPipelineEngine<PipelineMeta> pipeline;
 
-  private final Object statusCountersLock = new Object();
+  private final ReentrantLock markStopLock = new ReentrantLock();
 
   protected Date initStartDate;
   protected Date executionStartDate;
@@ -143,26 +145,31 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   protected Date lastRowWrittenDate;
   protected Date executionEndDate;
 
+  /*
+   * The status counters are updated for every row by the transform thread and read by the status
+   * and metrics threads at the same time. Striped counters keep both sides from blocking each other.
+   */
+
   /** Number of lines read from previous transform(s) */
-  private long linesRead;
+  private final StatusCounter linesRead = new StatusCounter();
 
   /** Number of lines written to next transform(s) */
-  private long linesWritten;
+  private final StatusCounter linesWritten = new StatusCounter();
 
   /** Number of lines read from file or database */
-  private long linesInput;
+  private final StatusCounter linesInput = new StatusCounter();
 
   /** Number of lines written to file or database */
-  private long linesOutput;
+  private final StatusCounter linesOutput = new StatusCounter();
 
   /** Number of updates in a database table or file */
-  private long linesUpdated;
+  private final StatusCounter linesUpdated = new StatusCounter();
 
   /** Number of lines skipped */
-  private long linesSkipped;
+  private final StatusCounter linesSkipped = new StatusCounter();
 
   /** Number of lines rejected to an error handling transform */
-  private long linesRejected;
+  private final StatusCounter linesRejected = new StatusCounter();
 
   private boolean distributed;
 
@@ -252,6 +259,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   private int repartitioning;
 
+  /** The number of rows this transform reads or passes on in one go */
+  private int rowsInBatch = 1;
+
   /** The partition ID to rowset mapping */
   private Map<String, BlockingRowSet> partitionTargets;
 
@@ -370,15 +380,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     init = false;
 
-    synchronized (statusCountersLock) {
-      linesRead = 0L;
-      linesWritten = 0L;
-      linesUpdated = 0L;
-      linesSkipped = 0L;
-      linesRejected = 0L;
-      linesInput = 0L;
-      linesOutput = 0L;
-    }
+    linesRead.set(0);
+    linesWritten.set(0);
+    linesUpdated.set(0);
+    linesSkipped.set(0);
+    linesRejected.set(0);
+    linesInput.set(0);
+    linesOutput.set(0);
 
     inputRowSets = null;
     outputRowSets = null;
@@ -610,9 +618,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesRead() {
-    synchronized (statusCountersLock) {
-      return linesRead;
-    }
+    return linesRead.get();
   }
 
   /**
@@ -622,9 +628,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long incrementLinesRead() {
-    synchronized (statusCountersLock) {
-      return ++linesRead;
-    }
+    return linesRead.add(1);
   }
 
   /**
@@ -633,9 +637,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long decrementLinesRead() {
-    synchronized (statusCountersLock) {
-      return --linesRead;
-    }
+    return linesRead.add(-1);
   }
 
   /**
@@ -643,9 +645,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesRead()}, {@link #incrementLinesRead()}, {@link #decrementLinesRead()}
    */
   public void setLinesRead(long newLinesReadValue) {
-    synchronized (statusCountersLock) {
-      linesRead = newLinesReadValue;
-    }
+    linesRead.set(newLinesReadValue);
+  }
+
+  /**
+   * Increments the number of lines read from previous transforms by the given number
+   *
+   * @param nrLines the number of lines to add
+   * @return Returns the new value
+   */
+  public long addLinesRead(long nrLines) {
+    return linesRead.add(nrLines);
   }
 
   /**
@@ -654,9 +664,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesInput() {
-    synchronized (statusCountersLock) {
-      return linesInput;
-    }
+    return linesInput.get();
   }
 
   /**
@@ -666,9 +674,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return the new incremented value
    */
   public long incrementLinesInput() {
-    synchronized (statusCountersLock) {
-      return ++linesInput;
-    }
+    return linesInput.add(1);
+  }
+
+  /**
+   * Increments the number of lines read from an input source by the given number
+   *
+   * @param nrLines the number of lines to add
+   * @return Returns the new value
+   */
+  public long addLinesInput(long nrLines) {
+    return linesInput.add(nrLines);
   }
 
   /**
@@ -677,9 +693,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesInput()} or {@link #incrementLinesInput()}
    */
   public void setLinesInput(long newLinesInputValue) {
-    synchronized (statusCountersLock) {
-      linesInput = newLinesInputValue;
-    }
+    linesInput.set(newLinesInputValue);
   }
 
   /**
@@ -688,9 +702,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesOutput() {
-    synchronized (statusCountersLock) {
-      return linesOutput;
-    }
+    return linesOutput.get();
   }
 
   /**
@@ -700,9 +712,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesOutput()}, {@link #setLinesOutput(long)}
    */
   public long incrementLinesOutput() {
-    synchronized (statusCountersLock) {
-      return ++linesOutput;
-    }
+    return linesOutput.add(1);
+  }
+
+  /**
+   * Increments the number of lines written to an output target by the given number
+   *
+   * @param nrLines the number of lines to add
+   * @return Returns the new value
+   */
+  public long addLinesOutput(long nrLines) {
+    return linesOutput.add(nrLines);
   }
 
   /**
@@ -711,9 +731,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesOutput()} or {@link #incrementLinesOutput()}
    */
   public void setLinesOutput(long newLinesOutputValue) {
-    synchronized (statusCountersLock) {
-      linesOutput = newLinesOutputValue;
-    }
+    linesOutput.set(newLinesOutputValue);
   }
 
   /**
@@ -724,9 +742,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesWritten() {
-    synchronized (statusCountersLock) {
-      return linesWritten;
-    }
+    return linesWritten.get();
   }
 
   /**
@@ -736,9 +752,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long incrementLinesWritten() {
-    synchronized (statusCountersLock) {
-      return ++linesWritten;
-    }
+    return linesWritten.add(1);
   }
 
   /**
@@ -748,9 +762,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return Returns the new value
    */
   public long decrementLinesWritten() {
-    synchronized (statusCountersLock) {
-      return --linesWritten;
-    }
+    return linesWritten.add(-1);
   }
 
   /**
@@ -761,9 +773,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    *     #decrementLinesWritten()}
    */
   public void setLinesWritten(long newLinesWrittenValue) {
-    synchronized (statusCountersLock) {
-      linesWritten = newLinesWrittenValue;
-    }
+    linesWritten.set(newLinesWrittenValue);
+  }
+
+  /**
+   * Increments the number of lines written to next transforms by the given number
+   *
+   * @param nrLines the number of lines to add
+   * @return Returns the new value
+   */
+  public long addLinesWritten(long nrLines) {
+    return linesWritten.add(nrLines);
   }
 
   /**
@@ -772,9 +792,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesUpdated() {
-    synchronized (statusCountersLock) {
-      return linesUpdated;
-    }
+    return linesUpdated.get();
   }
 
   /**
@@ -784,9 +802,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesUpdated()}, {@link #setLinesUpdated(long)}
    */
   public long incrementLinesUpdated() {
-    synchronized (statusCountersLock) {
-      return ++linesUpdated;
-    }
+    return linesUpdated.add(1);
+  }
+
+  /**
+   * Increments the number of lines updated in an output target by the given number
+   *
+   * @param nrLines the number of lines to add
+   * @return Returns the new value
+   */
+  public long addLinesUpdated(long nrLines) {
+    return linesUpdated.add(nrLines);
   }
 
   /**
@@ -795,9 +821,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesUpdated()}, {@link #incrementLinesUpdated()}
    */
   public void setLinesUpdated(long newLinesUpdatedValue) {
-    synchronized (statusCountersLock) {
-      linesUpdated = newLinesUpdatedValue;
-    }
+    linesUpdated.set(newLinesUpdatedValue);
   }
 
   /**
@@ -808,9 +832,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public long getLinesRejected() {
-    synchronized (statusCountersLock) {
-      return linesRejected;
-    }
+    return linesRejected.get();
   }
 
   /**
@@ -820,9 +842,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @return the new incremented value
    */
   public long incrementLinesRejected() {
-    synchronized (statusCountersLock) {
-      return ++linesRejected;
-    }
+    return linesRejected.add(1);
   }
 
   /**
@@ -831,9 +851,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void setLinesRejected(long newLinesRejectedValue) {
-    synchronized (statusCountersLock) {
-      linesRejected = newLinesRejectedValue;
-    }
+    linesRejected.set(newLinesRejectedValue);
   }
 
   /**
@@ -841,9 +859,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #setLinesSkipped(long)}, {@link #incrementLinesSkipped()}
    */
   public long getLinesSkipped() {
-    synchronized (statusCountersLock) {
-      return linesSkipped;
-    }
+    return linesSkipped.get();
   }
 
   /**
@@ -853,9 +869,17 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesSkipped()}, {@link #setLinesSkipped(long)}
    */
   public long incrementLinesSkipped() {
-    synchronized (statusCountersLock) {
-      return ++linesSkipped;
-    }
+    return linesSkipped.add(1);
+  }
+
+  /**
+   * Increments the number of lines skipped by the given number
+   *
+   * @param nrLines the number of lines to add
+   * @return Returns the new value
+   */
+  public long addLinesSkipped(long nrLines) {
+    return linesSkipped.add(nrLines);
   }
 
   /**
@@ -863,9 +887,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see {@link #getLinesSkipped()}, {@link #incrementLinesSkipped()}
    */
   public void setLinesSkipped(long newLinesSkippedValue) {
-    synchronized (statusCountersLock) {
-      linesSkipped = newLinesSkippedValue;
-    }
+    linesSkipped.set(newLinesSkippedValue);
   }
 
   @Override
@@ -957,6 +979,94 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    checkOutputFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRow(rowMeta, row);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /**
+   * putRows is used to copy a batch of rows to the output rowset(s). The rows are distributed,
+   * copied or partitioned exactly like with {@link #putRow(IRowMeta, Object[])} but the locking and
+   * the bookkeeping is done once per batch instead of once per row.
+   *
+   * @param rowMeta The description of the rows
+   * @param rows The rows to put to the destination rowset(s). The list can be re-used afterwards.
+   * @throws HopTransformException
+   */
+  @Override
+  public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    checkOutputFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRows(rowMeta, rows);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /**
+   * putRowBatch is used to copy a columnar batch of rows to the output rowset(s). When the rows go
+   * to a single output rowset, without repartitioning or row listeners, the batch is handed over as
+   * it is. Otherwise the batch is converted to rows and sent with {@link #putRows(IRowMeta, List)}.
+   *
+   * @param batch The rows to put to the destination rowset(s).
+   * @throws HopTransformException
+   */
+  @Override
+  public void putRowBatch(RowBatch batch) throws HopTransformException {
+    if (batch.isEmpty()) {
+      return;
+    }
+    IRowSet rowSet = getBatchOutputRowSet();
+    if (rowSet == null) {
+      putRows(batch.getRowMeta(), batch.toRows());
+      return;
+    }
+    checkOutputFieldNamesAndTypes(batch.getRowMeta());
+    if (waitToPutRows()) {
+      outputRowSetsLock.readLock().lock();
+      try {
+        putRowBatchToRowSet(rowSet, batch);
+        addLinesWritten(batch.size());
+      } finally {
+        outputRowSetsLock.readLock().unlock();
+      }
+    }
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /** @return the output rowset a batch can be handed to as it is, or null */
+  private IRowSet getBatchOutputRowSet() {
+    if (!(getRowHandler() instanceof BaseTransform.DefaultRowHandler)
+        || !rowListeners.isEmpty()
+        || terminator
+        || repartitioning != TransformPartitioningMeta.PARTITIONING_METHOD_NONE
+        || (distributed && rowDistribution != null)) {
+      return null;
+    }
+    outputRowSetsLock.readLock().lock();
+    try {
+      return outputRowSets.size() == 1 ? outputRowSets.get(0) : null;
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  private void checkOutputFieldNamesAndTypes(IRowMeta rowMeta) throws HopTransformException {
     if (rowMeta != null) {
       if (!allowEmptyFieldNamesAndTypes) {
         // check row meta for empty field name (BACKLOG-18004)
@@ -974,16 +1084,15 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         }
       }
     }
-    getRowHandler().putRow(rowMeta, row);
-
-    // This transform is not reading data, only writing
-    //
-    if (firstRowReadDate == null) {
-      firstRowReadDate = new Date();
-    }
   }
 
-  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+  /**
+   * Wait while the transform is paused and until the pipeline is running.
+   *
+   * @return false if the transform is stopped and no rows should be written anymore
+   * @throws HopTransformException
+   */
+  private boolean waitToPutRows() throws HopTransformException {
     // Are we pausing the transform? If so, stall forever...
     //
     while (paused.get() && !stopped.get()) {
@@ -1002,7 +1111,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopPuttingARow"));
       }
       stopAll();
-      return;
+      return false;
     }
 
     // Have all threads started?
@@ -1025,6 +1134,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       }
       this.checkPipelineRunning = true;
     }
+    return true;
+  }
+
+  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    if (!waitToPutRows()) {
+      return;
+    }
 
     // call all row listeners...
     //
@@ -1079,6 +1195,72 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void handlePutRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (!waitToPutRows()) {
+      return;
+    }
+
+    // call all row listeners...
+    //
+    if (!rowListeners.isEmpty()) {
+      for (Object[] row : rows) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowWrittenEvent(rowMeta, row);
+        }
+      }
+    }
+
+    // Keep adding to terminator_rows buffer...
+    //
+    if (terminator && terminatorRows != null) {
+      try {
+        for (Object[] row : rows) {
+          terminatorRows.add(rowMeta.cloneRow(row));
+        }
+      } catch (HopValueException e) {
+        throw new HopTransformException(
+            "Unable to clone row while adding rows to the terminator rows.", e);
+      }
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.isEmpty()) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        addLinesWritten(rows.size());
+
+        return; // we're done here!
+      }
+
+      switch (repartitioning) {
+        case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
+          noPartitioning(rowMeta, rows);
+          break;
+
+        case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
+          specialPartitioning(rowMeta, rows);
+          break;
+        case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
+          mirrorPartitioning(rowMeta, rows);
+          break;
+        default:
+          throw new HopTransformException(
+              "Internal error: invalid repartitioning type: " + repartitioning);
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  /** Copy always to all target transforms/copies */
+  private void mirrorPartitioning(IRowMeta rowMeta, List<Object[]> rows) {
+    for (IRowSet rowSet : outputRowSets) {
+      putRowsToRowSet(rowSet, rowMeta, rows);
+    }
+  }
+
   /** Copy always to all target transforms/copies */
   private void mirrorPartitioning(IRowMeta rowMeta, Object[] row) {
     for (IRowSet rowSet : outputRowSets) {
@@ -1086,7 +1268,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
-  private void specialPartitioning(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+  private void lookupNextTransformPartitioningMeta() {
     if (nextTransformPartitioningMeta == null) {
       // Look up the partitioning of the next transform.
       // This is the case for non-clustered partitioning...
@@ -1099,6 +1281,70 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       // TODO: throw exception if we're not partitioning yet.
       // For now it throws a NP Exception.
     }
+  }
+
+  /**
+   * Partition a batch of rows: the rows are first grouped per partition so that every target
+   * rowset receives its rows in one go.
+   */
+  private void specialPartitioning(IRowMeta rowMeta, List<Object[]> rows)
+      throws HopTransformException {
+    lookupNextTransformPartitioningMeta();
+
+    // Count of partitioned row at one transform
+    int partCount =
+        ((BasePartitioner) nextTransformPartitioningMeta.getPartitioner()).getNrPartitions();
+
+    List<List<Object[]>> partitions = new ArrayList<>(partCount);
+    for (int p = 0; p < partCount; p++) {
+      partitions.add(new ArrayList<>());
+    }
+    for (Object[] row : rows) {
+      try {
+        partitions.get(nextTransformPartitioningMeta.getPartition(this, rowMeta, row)).add(row);
+      } catch (HopException e) {
+        throw new HopTransformException(
+            "Unable to convert a value to integer while calculating the partition number", e);
+      }
+    }
+
+    for (int partitionNr = 0; partitionNr < partCount; partitionNr++) {
+      List<Object[]> partitionRows = partitions.get(partitionNr);
+      if (partitionRows.isEmpty()) {
+        continue;
+      }
+      for (int i = 0; i < nextTransforms.length; i++) {
+        IRowSet selectedRowSet = outputRowSets.get(partitionNr + i * partCount);
+        if (selectedRowSet == null) {
+          logBasic(
+              BaseMessages.getString(
+                  PKG, "BaseTransform.TargetRowsetIsNotAvailable", partitionNr));
+        } else {
+          putRowsToRowSet(selectedRowSet, rowMeta, partitionRows);
+          addLinesWritten(partitionRows.size());
+
+          if (log.isRowLevel()) {
+            try {
+              for (Object[] row : partitionRows) {
+                logRowlevel(
+                    BaseMessages.getString(
+                        PKG,
+                        "BaseTransform.PartitionedToRow",
+                        partitionNr,
+                        selectedRowSet,
+                        rowMeta.getString(row)));
+              }
+            } catch (HopValueException e) {
+              throw new HopTransformException(e);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void specialPartitioning(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    lookupNextTransformPartitioningMeta();
 
     int partitionNr;
     try {
@@ -1148,6 +1394,73 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void noPartitioning(IRowMeta rowMeta, List<Object[]> rows)
+      throws HopTransformException {
+    if (distributed) {
+      if (rowDistribution != null) {
+        // Plugin defined row distribution works row by row
+        //
+        for (Object[] row : rows) {
+          rowDistribution.distributeRow(rowMeta, row, this);
+          incrementLinesWritten();
+        }
+      } else if (outputRowSets.size() == 1) {
+        putRowsToRowSet(outputRowSets.get(0), rowMeta, rows);
+        addLinesWritten(rows.size());
+      } else {
+        // ROUND ROBIN DISTRIBUTION:
+        // --------------------------
+        // Deal the rows out over the output rowsets, exactly like we do row by row.
+        // Then hand every rowset its share of the rows in one go.
+        //
+        int nrRowSets = outputRowSets.size();
+        List<List<Object[]>> targets = new ArrayList<>(nrRowSets);
+        for (int i = 0; i < nrRowSets; i++) {
+          targets.add(new ArrayList<>(rows.size() / nrRowSets + 1));
+        }
+        int rowSetNr = currentOutputRowSetNr < nrRowSets ? currentOutputRowSetNr : 0;
+        for (Object[] row : rows) {
+          targets.get(rowSetNr).add(row);
+          rowSetNr++;
+          if (rowSetNr >= nrRowSets) {
+            rowSetNr = 0;
+          }
+        }
+        currentOutputRowSetNr = rowSetNr;
+
+        for (int i = 0; i < nrRowSets; i++) {
+          List<Object[]> targetRows = targets.get(i);
+          if (!targetRows.isEmpty()) {
+            putRowsToRowSet(outputRowSets.get(i), rowMeta, targetRows);
+            addLinesWritten(targetRows.size());
+          }
+        }
+      }
+    } else {
+
+      // Copy the rows to all output rowsets
+      //
+      for (int i = 1; i < outputRowSets.size(); i++) { // start at 1
+        List<Object[]> copies = new ArrayList<>(rows.size());
+        try {
+          for (Object[] row : rows) {
+            copies.add(rowMeta.cloneRow(row));
+          }
+        } catch (HopValueException e) {
+          throw new HopTransformException(
+              "Unable to clone row while copying rows to multiple target transforms", e);
+        }
+        putRowsToRowSet(outputRowSets.get(i), rowMeta, copies);
+        addLinesWritten(copies.size());
+      }
+
+      // set the rows in the first output rowset
+      //
+      putRowsToRowSet(outputRowSets.get(0), rowMeta, rows);
+      addLinesWritten(rows.size());
+    }
+  }
+
   private void noPartitioning(IRowMeta rowMeta, Object[] row) throws HopTransformException {
     if (distributed) {
       if (rowDistribution != null) {
@@ -1240,13 +1553,56 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       toBeSent = metaFromRs;
     }
 
-    while (!rs.putRow(toBeSent, row)) {
+    while (!ManagedRowSetWaits.putRow(rs, toBeSent, row)) {
       if (isStopped() && !safeStopped.get()) {
         return;
       }
     }
   }
 
+  private void putRowsToRowSet(IRowSet rs, IRowMeta rowMeta, List<Object[]> rows) {
+    IRowMeta toBeSent;
+    IRowMeta metaFromRs = rs.getRowMeta();
+    if (metaFromRs == null) {
+      // IRowSet is not initialised so far
+      toBeSent = rowMeta.clone();
+    } else {
+      // use the existing
+      toBeSent = metaFromRs;
+    }
+
+    // Loop until all rows found room in the target rowset
+    //
+    int nrRows = rows.size();
+    int offset = 0;
+    while (offset < nrRows) {
+      offset +=
+          ManagedRowSetWaits.putRows(
+              rs, toBeSent, offset == 0 ? rows : rows.subList(offset, nrRows));
+      if (offset < nrRows && isStopped() && !safeStopped.get()) {
+        return;
+      }
+    }
+  }
+
+  private void putRowBatchToRowSet(IRowSet rs, RowBatch batch) {
+    IRowMeta metaFromRs = rs.getRowMeta();
+    IRowMeta toBeSent = metaFromRs == null ? batch.getRowMeta().clone() : metaFromRs;
+
+    // Loop until all rows found room in the target rowset
+    //
+    int nrRows = batch.size();
+    int offset = 0;
+    while (offset < nrRows) {
+      offset +=
+          ManagedRowSetWaits.putRowBatch(
+              rs, toBeSent, offset == 0 ? batch : batch.slice(offset, nrRows));
+      if (offset < nrRows && isStopped() && !safeStopped.get()) {
+        return;
+      }
+    }
+  }
+
   /**
    * putRowTo is used to put a row in a certain specific IRowSet.
    *
@@ -1305,7 +1661,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     // Don't distribute or anything, only go to this rowset!
     //
-    while (!rowSet.putRow(rowMeta, row)) {
+    while (!ManagedRowSetWaits.putRow(rowSet, rowMeta, row)) {
       if (isStopped()) {
         break;
       }
@@ -1313,6 +1669,86 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     incrementLinesWritten();
   }
 
+  /**
+   * putRowsTo is used to put a batch of rows in a certain specific IRowSet.
+   *
+   * @param rowMeta The row meta-data to put to the destination IRowSet.
+   * @param rows the rows to put in the IRowSet. The list can be re-used afterwards.
+   * @param rowSet the RoWset to put the rows into.
+   * @throws HopTransformException In case something unexpected goes wrong
+   */
+  public void putRowsTo(IRowMeta rowMeta, List<Object[]> rows, IRowSet rowSet)
+      throws HopTransformException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    getRowHandler().putRowsTo(rowMeta, rows, rowSet);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  public void handlePutRowsTo(IRowMeta rowMeta, List<Object[]> rows, IRowSet rowSet)
+      throws HopTransformException {
+
+    // Are we pausing the transform? If so, stall forever...
+    //
+    while (paused.get() && !stopped.get()) {
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        throw new HopTransformException(e);
+      }
+    }
+
+    // call all row listeners...
+    //
+    if (!rowListeners.isEmpty()) {
+      for (Object[] row : rows) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowWrittenEvent(rowMeta, row);
+        }
+      }
+    }
+
+    // Keep adding to terminator_rows buffer...
+    if (terminator && terminatorRows != null) {
+      try {
+        for (Object[] row : rows) {
+          terminatorRows.add(rowMeta.cloneRow(row));
+        }
+      } catch (HopValueException e) {
+        throw new HopTransformException(
+            "Unable to clone row while adding rows to the terminator buffer", e);
+      }
+    }
+
+    if (stopped.get()) {
+      if (log.isDebug()) {
+        logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopPuttingARow"));
+      }
+      stopAll();
+      return;
+    }
+
+    // Don't distribute or anything, only go to this rowset!
+    //
+    int nrRows = rows.size();
+    int offset = 0;
+    while (offset < nrRows) {
+      offset +=
+          ManagedRowSetWaits.putRows(
+              rowSet, rowMeta, offset == 0 ? rows : rows.subList(offset, nrRows));
+      if (offset < nrRows && isStopped()) {
+        break;
+      }
+    }
+    addLinesWritten(offset);
+  }
+
   /**
    * Put error.
    *
@@ -1379,7 +1815,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
 
     if (errorRowSet != null) {
-      while (!errorRowSet.putRow(errorRowMeta, errorRowData)) {
+      while (!ManagedRowSetWaits.putRow(errorRowSet, errorRowMeta, errorRowData)) {
         if (isStopped()) {
           break;
         }
@@ -1498,6 +1934,172 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * Get a batch of rows. The first row is read with {@link #getRow()}, waiting for it if needed.
+   * After that all rows which are immediately available in the same input rowset are added, up to
+   * the given maximum.
+   *
+   * @param max the maximum number of rows to return
+   * @return between 1 and max rows or null if there are no more rows
+   * @throws HopException
+   */
+  @Override
+  public List<Object[]> getRows(int max) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(Math.min(max, Const.ROWS_IN_BATCH));
+    rows.add(row);
+    if (max > 1) {
+      getRowHandler().drainRowsTo(rows, max - 1);
+    }
+    return rows;
+  }
+
+  /**
+   * Get a columnar batch of rows. When the transform reads from a single input rowset, without row
+   * listeners or safe mode, batches stored in that rowset are handed over as they are. Otherwise
+   * the rows are read with {@link #getRows(int)} and converted to a batch.
+   *
+   * @param max the maximum number of rows to return
+   * @return between 1 and max rows or null if there are no more rows
+   * @throws HopException
+   */
+  public RowBatch getRowBatch(int max) throws HopException {
+    IRowSet rowSet = getBatchInputRowSet();
+    if (rowSet == null) {
+      List<Object[]> rows = getRows(max);
+      if (rows == null) {
+        return null;
+      }
+      return RowBatch.fromRows(getInputRowMeta(), rows);
+    }
+
+    // Are we pausing the transform? If so, stall forever...
+    //
+    while (paused.get() && !stopped.get()) {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        throw new HopTransformException(e);
+      }
+    }
+
+    if (stopped.get()) {
+      if (log.isDebug()) {
+        logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopLookingForMoreRows"));
+      }
+      stopAll();
+      return null;
+    }
+
+    waitUntilPipelineIsStarted();
+
+    RowBatch batch = null;
+    while (batch == null && !isStopped()) {
+      batch = ManagedRowSetWaits.getRowBatch(rowSet, max);
+      if (batch == null && rowSet.isDone() && rowSet.size() == 0) {
+        // No more rows will arrive, we're done.
+        //
+        inputRowSetsLock.writeLock().lock();
+        try {
+          removeRowSetFromInputRowSets(rowSet);
+        } finally {
+          inputRowSetsLock.writeLock().unlock();
+        }
+        return null;
+      }
+    }
+    if (batch == null) {
+      return null;
+    }
+
+    if (inputRowMeta == null) {
+      inputRowMeta = rowSet.getRowMeta();
+    }
+    addLinesRead(batch.size());
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+
+    // Check the rejection rates etc. as well.
+    verifyRejectionRates();
+
+    return batch;
+  }
+
+  /**
+   * @return true if the rows arrive in a single rowset which stores columnar batches. Reading them
+   *     with {@link #getRowBatch(int)} then avoids converting the batches to rows.
+   */
+  protected boolean isRowBatchInput() {
+    return getBatchInputRowSet() instanceof RowBatchRowSet;
+  }
+
+  /** @return the input rowset batches can be read from as they are, or null */
+  private IRowSet getBatchInputRowSet() {
+    if (!(getRowHandler() instanceof BaseTransform.DefaultRowHandler)
+        || !rowListeners.isEmpty()
+        || pipeline.isSafeModeEnabled()) {
+      return null;
+    }
+    inputRowSetsLock.readLock().lock();
+    try {
+      return inputRowSets.size() == 1 ? inputRowSets.get(0) : null;
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Move the rows which are immediately available in the current input rowset to the given list.
+   * This is called right after a row was read from that rowset.
+   */
+  private int handleDrainRowsTo(List<Object[]> rows, int max) throws HopException {
+    IRowSet inputRowSet;
+    int count;
+
+    inputRowSetsLock.readLock().lock();
+    try {
+      if (stopped.get() || currentInputRowSetNr >= inputRowSets.size()) {
+        return 0;
+      }
+      inputRowSet = currentInputStream();
+      int first = rows.size();
+      count = inputRowSet.drainRowsTo(rows, max);
+      if (count == 0) {
+        return 0;
+      }
+      blockPointer += count;
+      addLinesRead(count);
+
+      // call all rowlisteners...
+      //
+      if (!rowListeners.isEmpty()) {
+        IRowMeta rowMeta = inputRowSet.getRowMeta();
+        for (int i = first; i < rows.size(); i++) {
+          for (IRowListener listener : rowListeners) {
+            listener.rowReadEvent(rowMeta, rows.get(i));
+          }
+        }
+      }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
+    }
+
+    // The same check on mixing row compositions as in getRow(), once for the batch
+    //
+    if (pipeline.isSafeModeEnabled()) {
+      pipelineMeta.checkRowMixingStatically(this, transformMeta, null);
+    }
+
+    // Check the rejection rates etc. as well.
+    verifyRejectionRates();
+
+    return count;
+  }
+
   private Object[] handleGetRow() throws HopException {
 
     // Are we pausing the transform? If so, stall forever...
@@ -1596,7 +2198,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         // Timeout immediately if nothing is there to read.
         // We will then switch to the next row set to read from...
         //
-        row = inputRowSet.getRowWait(waitingTime.get(), TimeUnit.MILLISECONDS);
+        row =
+            ManagedRowSetWaits.getRowWait(
+                inputRowSet, waitingTime.get(), TimeUnit.MILLISECONDS);
         boolean timeout = false;
         if (row != null) {
           incrementLinesRead();
@@ -1880,9 +2484,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     // Grab a row... If nothing received after a timeout, try again.
     //
-    rowData = rowSet.getRow();
+    rowData = ManagedRowSetWaits.getRow(rowSet);
     while (rowData == null && !rowSet.isDone() && !stopped.get()) {
-      rowData = rowSet.getRow();
+      rowData = ManagedRowSetWaits.getRow(rowSet);
     }
 
     // Still nothing: no more rows to be had?
@@ -2725,33 +3329,44 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    * @see org.apache.hop.pipeline.transform.ITransform#markStop()
    */
   @Override
-  public synchronized void markStop() {
-
-    // Only mark a transform as stopped once
+  public void markStop() {
+    // A lock instead of a monitor: the listeners can block (I/O, logging) and a virtual thread
+    // blocking inside a monitor would pin its carrier thread.
     //
-    if (!markStopped.get()) {
-      markStopped.set(true);
+    markStopLock.lock();
+    try {
+      // Only mark a transform as stopped once
+      //
+      if (!markStopped.get()) {
+        markStopped.set(true);
 
-      Calendar cal = Calendar.getInstance();
-      stopTime = cal.getTime();
+        Calendar cal = Calendar.getInstance();
+        stopTime = cal.getTime();
 
-      // Here we are completely done with the pipeline.
-      // Call all the attached listeners and notify the outside world that the transform has
-      // finished.
-      //
-      fireTransformFinishedListeners();
+        // Here we are completely done with the pipeline.
+        // Call all the attached listeners and notify the outside world that the transform has
+        // finished.
+        //
+        fireTransformFinishedListeners();
 
-      // We're finally completely done with this transform.
-      //
-      setRunning(false);
+        // We're finally completely done with this transform.
+        //
+        setRunning(false);
+      }
+    } finally {
+      markStopLock.unlock();
     }
   }
 
-  private synchronized void fireTransformFinishedListeners() {
+  private void fireTransformFinishedListeners() {
+    // Call the listeners on a copy of the list, not while holding the monitor of the list
+    //
+    List<ITransformFinishedListener> listeners;
     synchronized (transformFinishedListeners) {
-      for (ITransformFinishedListener transformListener : transformFinishedListeners) {
-        transformListener.transformFinished(pipeline, transformMeta, this);
-      }
+      listeners = new ArrayList<>(transformFinishedListeners);
+    }
+    for (ITransformFinishedListener transformListener : listeners) {
+      transformListener.transformFinished(pipeline, transformMeta, this);
     }
   }
 
@@ -2868,36 +3483,34 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   /** Log summary. */
   public void logSummary() {
-    synchronized (statusCountersLock) {
-      long li = getLinesInput();
-      long lo = getLinesOutput();
-      long lr = getLinesRead();
-      long lw = getLinesWritten();
-      long lu = getLinesUpdated();
-      long lj = getLinesRejected();
-      if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0) {
-        logBasic(
-            BaseMessages.getString(
-                PKG,
-                "BaseTransform.Log.SummaryInfo",
-                String.valueOf(li),
-                String.valueOf(lo),
-                String.valueOf(lr),
-                String.valueOf(lw),
-                String.valueOf(lw),
-                String.valueOf(errors + lj)));
-      } else {
-        logDetailed(
-            BaseMessages.getString(
-                PKG,
-                "BaseTransform.Log.SummaryInfo",
-                String.valueOf(li),
-                String.valueOf(lo),
-                String.valueOf(lr),
-                String.valueOf(lw),
-                String.valueOf(lw),
-                String.valueOf(errors + lj)));
-      }
+    long li = getLinesInput();
+    long lo = getLinesOutput();
+    long lr = getLinesRead();
+    long lw = getLinesWritten();
+    long lu = getLinesUpdated();
+    long lj = getLinesRejected();
+    if (li > 0 || lo > 0 || lr > 0 || lw > 0 || lu > 0 || lj > 0 || errors > 0) {
+      logBasic(
+          BaseMessages.getString(
+              PKG,
+              "BaseTransform.Log.SummaryInfo",
+              String.valueOf(li),
+              String.valueOf(lo),
+              String.valueOf(lr),
+              String.valueOf(lw),
+              String.valueOf(lw),
+              String.valueOf(errors + lj)));
+    } else {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "BaseTransform.Log.SummaryInfo",
+              String.valueOf(li),
+              String.valueOf(lo),
+              String.valueOf(lr),
+              String.valueOf(lw),
+              String.valueOf(lw),
+              String.valueOf(errors + lj)));
     }
   }
 
@@ -3203,6 +3816,22 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     this.repartitioning = repartitioning;
   }
 
+  /**
+   * @return the rowsInBatch
+   */
+  @Override
+  public int getRowsInBatch() {
+    return rowsInBatch;
+  }
+
+  /**
+   * @param rowsInBatch the rowsInBatch to set
+   */
+  @Override
+  public void setRowsInBatch(int rowsInBatch) {
+    this.rowsInBatch = Math.max(1, rowsInBatch);
+  }
+
   /**
    * @return the partitioned
    */
@@ -3232,6 +3861,21 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         && (lines % getPipeline().getFeedbackSize()) == 0;
   }
 
+  /**
+   * Check feedback after processing a batch of rows.
+   *
+   * @param previousLines the number of lines before the batch was processed
+   * @param lines the number of lines after the batch was processed
+   * @return true if a multiple of the feedback size was passed while processing the batch
+   */
+  protected boolean checkFeedback(long previousLines, long lines) {
+    int feedbackSize = getPipeline().getFeedbackSize();
+    return getPipeline().isFeedbackShown()
+        && (lines > 0)
+        && (feedbackSize > 0)
+        && (lines / feedbackSize) > (previousLines / feedbackSize);
+  }
+
   /**
    * @return the rowMeta
    */
@@ -3764,6 +4408,16 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       handlePutRow(rowMeta, row);
     }
 
+    @Override
+    public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+      handlePutRows(rowMeta, rows);
+    }
+
+    @Override
+    public int drainRowsTo(List<Object[]> rows, int max) throws HopException {
+      return handleDrainRowsTo(rows, max);
+    }
+
     @Override
     public void putError(
         IRowMeta rowMeta,
@@ -3786,6 +4440,12 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         throws HopTransformException {
       handlePutRowTo(rowMeta, row, rowSet);
     }
+
+    @Override
+    public void putRowsTo(IRowMeta rowMeta, List<Object[]> rows, IRowSet rowSet)
+        throws HopTransformException {
+      handlePutRowsTo(rowMeta, rows, rowSet);
+    }
   }
 
   /**
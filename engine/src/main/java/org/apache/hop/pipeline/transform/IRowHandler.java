@@ -23,6 +23,8 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.i18n.BaseMessages;
 
+import java.util.List;
+
 /**
  * Defines methods used for handling row data within transforms.
  *
@@ -38,6 +40,32 @@ public interface IRowHandler {
 
   void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException;
 
+  /**
+   * Put a batch of rows. By default the rows are handed over one by one.
+   *
+   * @param rowMeta the description of the rows
+   * @param rows the rows to put
+   * @throws HopTransformException
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
+  /**
+   * Move the rows which are immediately available on the input to the given list, without waiting.
+   * By default no extra rows are returned.
+   *
+   * @param rows the list to add the rows to
+   * @param max the maximum number of rows to add
+   * @return the number of rows added
+   * @throws HopException
+   */
+  default int drainRowsTo(List<Object[]> rows, int max) throws HopException {
+    return 0;
+  }
+
   void putError(
       IRowMeta rowMeta,
       Object[] row,
@@ -54,6 +82,21 @@ public interface IRowHandler {
             PKG, "BaseTransform.RowHandler.PutRowToNotSupported", this.getClass().getName()));
   }
 
+  /**
+   * Put a batch of rows in a specific rowset. By default the rows are handed over one by one.
+   *
+   * @param rowMeta the description of the rows
+   * @param rows the rows to put
+   * @param rowSet the rowset to put the rows into
+   * @throws HopTransformException
+   */
+  default void putRowsTo(IRowMeta rowMeta, List<Object[]> rows, IRowSet rowSet)
+      throws HopTransformException {
+    for (Object[] row : rows) {
+      putRowTo(rowMeta, row, rowSet);
+    }
+  }
+
   default Object[] getRowFrom(IRowSet rowSet) throws HopTransformException {
     throw new UnsupportedOperationException(
         BaseMessages.getString(
@@ -25,6 +25,7 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.logging.IHasLogChannel;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -183,6 +184,46 @@ public interface ITransform
   /** @return a row from the source transform(s). */
   Object[] getRow() throws HopException;
 
+  /**
+   * Put a batch of rows on the destination rowsets. Transforms which produce many rows at once can
+   * use this to pay the per-row hand-over overhead only once per batch.
+   *
+   * @param rowMeta The description of the rows
+   * @param rows The rows to send to the destinations transforms
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
+  /**
+   * Get a batch of rows from the source transform(s). It waits for the first row and adds the rows
+   * that are immediately available after that.
+   *
+   * @param max The maximum number of rows to return
+   * @return between 1 and max rows or null if there are no more rows.
+   */
+  default List<Object[]> getRows(int max) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(row);
+    return rows;
+  }
+
+  /**
+   * Put a columnar batch of rows on the destination rowsets. Row sets which store batches receive
+   * the batch as it is, otherwise the batch is converted to rows.
+   *
+   * @param batch The rows to send to the destinations transforms
+   */
+  default void putRowBatch(RowBatch batch) throws HopException {
+    putRows(batch.getRowMeta(), batch.toRows());
+  }
+
   /** Signal output done to destination transforms */
   void setOutputDone();
 
@@ -294,6 +335,21 @@ public interface ITransform
   /** @param partitioningMethod The repartitioning method */
   void setRepartitioning(int partitioningMethod);
 
+  /**
+   * Transforms which use {@link #putRows(IRowMeta, List)} or {@link #getRows(int)} pass on or read
+   * at most this many rows in one processRow() call. The pipeline engine sets it to {@link
+   * org.apache.hop.core.Const#ROWS_IN_BATCH}. A transform which is called directly keeps the
+   * default of one row per call.
+   *
+   * @return the maximum number of rows handled in one go
+   */
+  default int getRowsInBatch() {
+    return 1;
+  }
+
+  /** @param rowsInBatch the maximum number of rows handled in one go */
+  default void setRowsInBatch(int rowsInBatch) {}
+
   /**
    * Calling this method will alert the transform that we finished passing a batch of records to the
    * transform. Specifically for transforms like "Sort Rows" it means that the buffered rows can be
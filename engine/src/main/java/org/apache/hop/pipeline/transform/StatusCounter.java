@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A status counter of a transform, like the number of lines read. The transform thread updates it
+ * for every row while the status and metrics threads read it.
+ *
+ * <p>The total is kept in a {@link LongAdder}, so other threads which update the counter as well
+ * never block the transform thread, and reading it doesn't stop the writers. Summing the stripes
+ * is left to the readers: the value returned by an update is a plain count kept next to the total.
+ * It is exact as long as one thread updates the counter, which is how transforms use it. When
+ * several threads update the counter, it is the count as seen by the last updating thread and the
+ * total is only exact through {@link #get()}.
+ */
+final class StatusCounter {
+  private final LongAdder total = new LongAdder();
+
+  /** The count returned by the updates, without summing the stripes of the total */
+  private long count;
+
+  /** @return the total, summed over all updating threads */
+  long get() {
+    return total.sum();
+  }
+
+  /**
+   * Add to the counter.
+   *
+   * @param delta the number to add, can be negative
+   * @return the new count (see the class documentation)
+   */
+  long add(long delta) {
+    total.add(delta);
+    return count += delta;
+  }
+
+  /**
+   * Set the counter. This is a single update of the total, so readers see either the old or the
+   * new value and never an intermediate one.
+   *
+   * @param value the new value
+   */
+  void set(long value) {
+    total.add(value - total.sum());
+    count = value;
+  }
+}
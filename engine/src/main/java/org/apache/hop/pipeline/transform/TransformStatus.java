@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transform;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.database.DatabaseStatistics;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -54,6 +55,7 @@ public class TransformStatus {
   private boolean stopped;
   private boolean paused;
   private long accumulatedRuntime;
+  private String databaseStatistics;
 
   private IRowMeta sampleRowMeta;
   private List<Object[]> sampleRows;
@@ -109,6 +111,13 @@ public class TransformStatus {
     //
     this.inputBufferSize += component.getInputBufferSize();
     this.outputBufferSize += component.getOutputBufferSize();
+
+    // The timings of the database connections of the component, if any
+    //
+    String summary = DatabaseStatistics.getSummary(component.getLogChannelId());
+    if (summary != null) {
+      this.databaseStatistics = summary;
+    }
   }
 
   public String getHTMLTableRow(boolean urlInTransformName) {
@@ -178,6 +187,9 @@ public class TransformStatus {
       xml.append(XmlHandler.addTagValue("priority", priority, false));
       xml.append(XmlHandler.addTagValue("stopped", stopped, false));
       xml.append(XmlHandler.addTagValue("paused", paused, false));
+      if (databaseStatistics != null) {
+        xml.append(XmlHandler.addTagValue("database_statistics", databaseStatistics, false));
+      }
 
       if (sampleRowMeta != null) {
         xml.append(XmlHandler.openTag("samples"));
@@ -222,6 +234,7 @@ public class TransformStatus {
     priority = XmlHandler.getTagValue(node, "priority");
     stopped = "Y".equalsIgnoreCase(XmlHandler.getTagValue(node, "stopped"));
     paused = "Y".equalsIgnoreCase(XmlHandler.getTagValue(node, "paused"));
+    databaseStatistics = XmlHandler.getTagValue(node, "database_statistics");
 
     Node samplesNode = XmlHandler.getSubNode(node, "samples");
     if (samplesNode != null) {
@@ -510,4 +523,19 @@ public class TransformStatus {
   public void setOutputBufferSize(long outputBufferSize) {
     this.outputBufferSize = outputBufferSize;
   }
+
+  /**
+   * Gets databaseStatistics: a summary of the time spent in the database connections of the
+   * transform, one line per connection
+   *
+   * @return value of databaseStatistics or null if the transform doesn't use a database
+   */
+  public String getDatabaseStatistics() {
+    return databaseStatistics;
+  }
+
+  /** @param databaseStatistics The databaseStatistics to set */
+  public void setDatabaseStatistics(String databaseStatistics) {
+    this.databaseStatistics = databaseStatistics;
+  }
 }
@@ -396,6 +396,8 @@ public class GetPipelineStatusServlet extends BaseHttpServlet implements IHopSer
                   + BaseMessages.getString(PKG, "PipelineStatusServlet.Speed")
                   + "</th> <th class=\"cellTableHeader\">"
                   + BaseMessages.getString(PKG, "PipelineStatusServlet.prinout")
+                  + "</th> <th class=\"cellTableHeader\">"
+                  + BaseMessages.getString(PKG, "PipelineStatusServlet.Database")
                   + "</th> </tr>");
 
           boolean evenRow = true;
@@ -492,10 +494,18 @@ public class GetPipelineStatusServlet extends BaseHttpServlet implements IHopSer
                       + "\">"
                       + transformStatus.getSpeed()
                       + "</td>"
-                      + "<td class=\"cellTableCell cellTableLastColumn "
+                      + "<td class=\"cellTableCell "
                       + cellClass
                       + "\">"
                       + transformStatus.getPriority()
+                      + "</td>"
+                      + "<td class=\"cellTableCell cellTableLastColumn "
+                      + cellClass
+                      + "\">"
+                      + (transformStatus.getDatabaseStatistics() == null
+                          ? ""
+                          : Encode.forHtml(transformStatus.getDatabaseStatistics())
+                              .replace("\n", "<br>"))
                       + "</td></tr>";
               evenRow = !evenRow;
               out.print(htmlString);
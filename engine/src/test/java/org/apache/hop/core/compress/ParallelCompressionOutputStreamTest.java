@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.compress;
+
+import org.apache.hop.core.compress.gzip.GzipCompressionProvider;
+import org.apache.hop.core.compress.zip.ZipCompressionProvider;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelCompressionOutputStreamTest {
+
+  private byte[] createData(int size) {
+    Random random = new Random(1234);
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      // Compressible but not trivially
+      data[i] = (byte) ('a' + random.nextInt(8));
+    }
+    return data;
+  }
+
+  private byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) >= 0) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testGzipMembers() throws Exception {
+    byte[] data = createData(100000);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ParallelCompressionOutputStream stream =
+        new ParallelCompressionOutputStream(out, new GzipCompressionProvider(), 1000, 4)) {
+      stream.write(data, 0, 1500);
+      for (int i = 1500; i < 2000; i++) {
+        stream.write(data[i]);
+      }
+      stream.flush();
+      stream.write(data, 2000, data.length - 2000);
+    }
+    byte[] read = readAll(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+    assertArrayEquals(data, read);
+  }
+
+  @Test
+  public void testEmptyGzip() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ParallelCompressionOutputStream(out, new GzipCompressionProvider()).close();
+    byte[] read = readAll(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+    assertEquals(0, read.length);
+  }
+
+  @Test
+  public void testSerialZip() throws Exception {
+    byte[] data = createData(10000);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ParallelCompressionOutputStream stream =
+        new ParallelCompressionOutputStream(out, new ZipCompressionProvider(), 1024, 4)) {
+      stream.addEntry("/tmp/data.zip", "txt");
+      stream.write(data);
+    }
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      ZipEntry entry = zip.getNextEntry();
+      assertEquals("data.txt", entry.getName());
+      assertArrayEquals(data, readAll(zip));
+    }
+  }
+
+  @Test
+  public void testNoCompression() throws Exception {
+    byte[] data = createData(5000);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ParallelCompressionOutputStream stream =
+        new ParallelCompressionOutputStream(out, new NoneCompressionProvider(), 100, 1);
+    stream.write(data);
+    stream.flush();
+    assertArrayEquals(data, out.toByteArray());
+    stream.close();
+    assertArrayEquals(data, out.toByteArray());
+  }
+
+  @Test
+  public void testWriteError() throws Exception {
+    OutputStream failing =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("Disk full");
+          }
+        };
+    ParallelCompressionOutputStream stream =
+        new ParallelCompressionOutputStream(failing, new GzipCompressionProvider(), 10, 2);
+    try {
+      stream.write(createData(1000));
+      stream.flush();
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("Disk full"));
+    }
+    try {
+      stream.close();
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("Disk full"));
+    }
+  }
+
+  @Test
+  public void testStreamsShareTheCompressionThreads() throws Exception {
+    byte[] data = createData(20000);
+    List<ByteArrayOutputStream> outs = new ArrayList<>();
+    List<ParallelCompressionOutputStream> streams = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      outs.add(out);
+      streams.add(new ParallelCompressionOutputStream(out, new GzipCompressionProvider(), 1000, 4));
+    }
+    for (ParallelCompressionOutputStream stream : streams) {
+      stream.write(data);
+    }
+
+    int compressionThreads = 0;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if ("Block compression".equals(thread.getName())) {
+        compressionThreads++;
+      }
+    }
+    assertTrue(compressionThreads > 0);
+    assertTrue(compressionThreads <= Runtime.getRuntime().availableProcessors());
+
+    for (ParallelCompressionOutputStream stream : streams) {
+      stream.close();
+    }
+    for (ByteArrayOutputStream out : outs) {
+      byte[] read = readAll(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+      assertArrayEquals(data, read);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testWriteAfterClose() throws Exception {
+    ParallelCompressionOutputStream stream =
+        new ParallelCompressionOutputStream(
+            new ByteArrayOutputStream(), new GzipCompressionProvider());
+    stream.close();
+    stream.write(1);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.engines.localpool;
+
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LocalPoolPipelineEngineTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final int POOL_SIZE = 2;
+  private static final int NR_TRANSFORMS = 12;
+  private static final int NR_ROWS = 25000;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopEnvironment.init();
+  }
+
+  @Test(timeout = 60000)
+  public void testMoreTransformsThanThreads() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("testMoreTransformsThanThreads");
+
+    TransformMeta previous = new TransformMeta("Injector", "injector", new InjectorMeta());
+    pipelineMeta.addTransform(previous);
+    for (int i = 1; i <= NR_TRANSFORMS; i++) {
+      TransformMeta dummy = new TransformMeta("Dummy", "dummy" + i, new DummyMeta());
+      if (i == NR_TRANSFORMS / 2) {
+        dummy.setCopies(3);
+      }
+      pipelineMeta.addTransform(dummy);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, dummy));
+      previous = dummy;
+    }
+
+    LocalPoolPipelineEngine pipeline = new LocalPoolPipelineEngine(pipelineMeta);
+    ((LocalPoolPipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration())
+        .setPoolSize(Integer.toString(POOL_SIZE));
+    pipeline.prepareExecution();
+
+    ForkJoinPool pool = pipeline.getPool();
+    assertEquals(POOL_SIZE, pool.getParallelism());
+
+    AtomicLong count = new AtomicLong();
+    AtomicLong sum = new AtomicLong();
+    pipeline
+        .getTransform("dummy" + NR_TRANSFORMS, 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                count.incrementAndGet();
+                sum.addAndGet((Long) row[0]);
+              }
+            });
+
+    RowProducer producer = pipeline.addRowProducer("injector", 0);
+    pipeline.startThreads();
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long i = 0; i < NR_ROWS; i++) {
+      producer.putRow(rowMeta, new Object[] {i});
+    }
+    producer.finished();
+    pipeline.waitUntilFinished();
+
+    assertEquals(0, pipeline.getErrors());
+    assertEquals(NR_ROWS, count.get());
+    assertEquals((long) NR_ROWS * (NR_ROWS - 1) / 2, sum.get());
+
+    // The pipeline was the only user of the pool
+    //
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPoolsAreSharedAndShutDown() {
+    ForkJoinPool pool = LocalPoolPipelineEngine.acquirePool(3);
+    assertSame(pool, LocalPoolPipelineEngine.acquirePool(3));
+
+    LocalPoolPipelineEngine.releasePool(3);
+    assertFalse(pool.isShutdown());
+    LocalPoolPipelineEngine.releasePool(3);
+    assertTrue(pool.isShutdown());
+
+    ForkJoinPool newPool = LocalPoolPipelineEngine.acquirePool(3);
+    assertNotSame(pool, newPool);
+    LocalPoolPipelineEngine.releasePool(3);
+  }
+}
@@ -435,4 +435,37 @@ public class BaseTransformTest {
     verify(mockHelper.pipelineMeta, times(1))
         .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), anyObject());
   }
+
+  @Test
+  public void testGetRowsSafeModeEnabled() throws HopException {
+    Pipeline pipelineMock = spy(new LocalPipelineEngine());
+    when(pipelineMock.isSafeModeEnabled()).thenReturn(true);
+    BaseTransform baseTransformSpy =
+        spy(
+            new BaseTransform(
+                mockHelper.transformMeta,
+                mockHelper.iTransformMeta,
+                mockHelper.iTransformData,
+                0,
+                mockHelper.pipelineMeta,
+                pipelineMock));
+    doNothing().when(baseTransformSpy).waitUntilPipelineIsStarted();
+
+    BlockingRowSet rowSet = new BlockingRowSet(3);
+    RowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("x"));
+    for (long i = 0; i < 3; i++) {
+      rowSet.putRow(rowMeta, new Object[] {i});
+    }
+
+    baseTransformSpy.setInputRowSets(Arrays.asList(rowSet));
+    doReturn(rowSet).when(baseTransformSpy).currentInputStream();
+
+    assertEquals(3, baseTransformSpy.getRows(3).size());
+
+    // Once for the first row and once for the rows drained after it
+    //
+    verify(mockHelper.pipelineMeta, times(2))
+        .checkRowMixingStatically(any(IVariables.class), any(TransformMeta.class), anyObject());
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatusCounterTest {
+
+  @Test
+  public void testAddReturnsTheNewCount() {
+    StatusCounter counter = new StatusCounter();
+    assertEquals(1, counter.add(1));
+    assertEquals(11, counter.add(10));
+    assertEquals(10, counter.add(-1));
+    assertEquals(10, counter.get());
+  }
+
+  @Test
+  public void testSet() {
+    StatusCounter counter = new StatusCounter();
+    counter.add(5);
+    counter.set(42);
+    assertEquals(42, counter.get());
+    assertEquals(43, counter.add(1));
+    counter.set(0);
+    assertEquals(0, counter.get());
+  }
+
+  @Test
+  public void testTotalOfSeveralThreads() throws Exception {
+    StatusCounter counter = new StatusCounter();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 10000; i++) {
+                  counter.add(1);
+                }
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(40000, counter.get());
+  }
+}
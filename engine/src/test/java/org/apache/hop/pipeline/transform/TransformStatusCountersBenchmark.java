@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the monitor based status counters BaseTransform used to have with the striped counters
+ * it uses now. Like in a running pipeline every writing thread is a transform copy which updates
+ * its own counters for every row, while a single status thread keeps reading the counters of all
+ * the copies.
+ *
+ * <p>This is not a unit test. Run the main method with the test class path, it measures 1, 4 and 16
+ * writing threads (transform copies).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformStatusCountersBenchmark {
+
+  /** The way the counters were kept before: every access takes the monitor of the transform. */
+  public static class SynchronizedCounters {
+    private final Object statusCountersLock = new Object();
+    private long linesRead;
+    private long linesWritten;
+
+    public long incrementLinesRead() {
+      synchronized (statusCountersLock) {
+        return ++linesRead;
+      }
+    }
+
+    public long incrementLinesWritten() {
+      synchronized (statusCountersLock) {
+        return ++linesWritten;
+      }
+    }
+
+    public long getLinesRead() {
+      synchronized (statusCountersLock) {
+        return linesRead;
+      }
+    }
+
+    public long getLinesWritten() {
+      synchronized (statusCountersLock) {
+        return linesWritten;
+      }
+    }
+  }
+
+  /** The way BaseTransform keeps the counters now. */
+  public static class StripedCounters {
+    private final StatusCounter linesRead = new StatusCounter();
+    private final StatusCounter linesWritten = new StatusCounter();
+
+    public long incrementLinesRead() {
+      return linesRead.add(1);
+    }
+
+    public long incrementLinesWritten() {
+      return linesWritten.add(1);
+    }
+
+    public long getLinesRead() {
+      return linesRead.get();
+    }
+
+    public long getLinesWritten() {
+      return linesWritten.get();
+    }
+  }
+
+  /** The counters of all the transform copies of a group, read by its status thread. */
+  @State(Scope.Group)
+  public static class Transforms {
+    private final List<SynchronizedCounters> synchronizedCopies = new CopyOnWriteArrayList<>();
+    private final List<StripedCounters> stripedCopies = new CopyOnWriteArrayList<>();
+  }
+
+  /** The counters of the transform copy of a writing thread. */
+  @State(Scope.Thread)
+  public static class Copy {
+    private SynchronizedCounters synchronizedCounters;
+    private StripedCounters stripedCounters;
+  }
+
+  @Benchmark
+  @Group("synchronized")
+  @GroupThreads(4)
+  public long synchronizedRow(Transforms transforms, Copy copy) {
+    SynchronizedCounters counters = copy.synchronizedCounters;
+    if (counters == null) {
+      counters = new SynchronizedCounters();
+      copy.synchronizedCounters = counters;
+      transforms.synchronizedCopies.add(counters);
+    }
+    counters.incrementLinesRead();
+    return counters.incrementLinesWritten();
+  }
+
+  @Benchmark
+  @Group("synchronized")
+  @GroupThreads(1)
+  public long synchronizedStatus(Transforms transforms) {
+    long lines = 0;
+    for (SynchronizedCounters counters : transforms.synchronizedCopies) {
+      lines += counters.getLinesRead() + counters.getLinesWritten();
+    }
+    return lines;
+  }
+
+  @Benchmark
+  @Group("striped")
+  @GroupThreads(4)
+  public long stripedRow(Transforms transforms, Copy copy) {
+    StripedCounters counters = copy.stripedCounters;
+    if (counters == null) {
+      counters = new StripedCounters();
+      copy.stripedCounters = counters;
+      transforms.stripedCopies.add(counters);
+    }
+    counters.incrementLinesRead();
+    return counters.incrementLinesWritten();
+  }
+
+  @Benchmark
+  @Group("striped")
+  @GroupThreads(1)
+  public long stripedStatus(Transforms transforms) {
+    long lines = 0;
+    for (StripedCounters counters : transforms.stripedCopies) {
+      lines += counters.getLinesRead() + counters.getLinesWritten();
+    }
+    return lines;
+  }
+
+  public static void main(String[] args) throws Exception {
+    for (int copies : new int[] {1, 4, 16}) {
+      Options options =
+          new OptionsBuilder()
+              .include(TransformStatusCountersBenchmark.class.getSimpleName())
+              .threadGroups(copies, 1)
+              .build();
+      new Runner(options).run();
+    }
+  }
+}
@@ -27,4 +27,11 @@ import org.apache.hop.databases.postgresql.PostgreSqlDatabaseMeta;
  */
 @DatabaseMetaPlugin(type = "COCKROACHDB", typeDescription = "CockroachDB", documentationUrl = "/database/databases/postgresql.html")
 @GuiPlugin(id = "GUI-CockroachDatabaseMeta")
-public class CockroachDatabaseMeta extends PostgreSqlDatabaseMeta implements IDatabase {}
+public class CockroachDatabaseMeta extends PostgreSqlDatabaseMeta implements IDatabase {
+
+  /** @return false: temporary tables are an experimental feature which is off by default */
+  @Override
+  public boolean supportsMerge() {
+    return false;
+  }
+}
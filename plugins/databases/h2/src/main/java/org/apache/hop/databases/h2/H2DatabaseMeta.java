@@ -26,6 +26,8 @@ import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.util.Utils;
 
+import java.util.List;
+
 /**
  * Contains H2 specific information through static final members
  */
@@ -280,4 +282,22 @@ public class H2DatabaseMeta extends BaseDatabaseMeta implements IDatabase {
   public boolean isSupportsPreparedStatementMetadataRetrieval() {
     return false;
   }
+
+  @Override
+  public boolean supportsMerge() {
+    return true;
+  }
+
+  /** @return the statement to create a LOCAL temporary table, only visible to the session */
+  @Override
+  public String getCreateTemporaryTableStatement(
+      String temporaryTable, String sourceTable, List<String> columns) {
+    return "CREATE LOCAL TEMPORARY TABLE "
+        + temporaryTable
+        + " AS SELECT "
+        + String.join(", ", columns)
+        + " FROM "
+        + sourceTable
+        + " WHERE 1=0";
+  }
 }
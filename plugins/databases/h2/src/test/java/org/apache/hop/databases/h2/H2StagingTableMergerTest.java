@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.h2;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.DatabasePluginType;
+import org.apache.hop.core.database.StagingTableMerger;
+import org.apache.hop.core.logging.LoggingObject;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/** Merges batches into an in-memory H2 table without a unique index on the key. */
+public class H2StagingTableMergerTest {
+
+  private Database db;
+  private StagingTableMerger merger;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+    PluginRegistry.getInstance()
+        .registerPluginClass(
+            H2DatabaseMeta.class.getName(), DatabasePluginType.class, DatabaseMetaPlugin.class);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setIDatabase(new H2DatabaseMeta());
+    databaseMeta.setName("merger");
+    databaseMeta.setDBName("mem:merger");
+
+    db = new Database(new LoggingObject("H2StagingTableMergerTest"), new Variables(), databaseMeta);
+    db.connect();
+    db.execStatement("CREATE TABLE FOO (ID INT, NAME VARCHAR(10))");
+    db.execStatement("INSERT INTO FOO VALUES (1, 'a'), (2, 'b')");
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ID"));
+    rowMeta.addValueMeta(new ValueMetaString("NAME"));
+    merger =
+        new StagingTableMerger(
+            db,
+            "FOO",
+            StagingTableMerger.getStagingName("merge", 0),
+            rowMeta,
+            Collections.singletonList("ID"),
+            Arrays.asList("ID", "NAME"),
+            Collections.singletonList("NAME"));
+    merger.open();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    merger.close();
+    db.execStatement("DROP TABLE FOO");
+    db.disconnect();
+  }
+
+  @Test
+  public void testMergeCountsChangedRows() throws Exception {
+    merger.addRow(new Object[] {1L, "a"});
+    merger.addRow(new Object[] {2L, "x"});
+    merger.addRow(new Object[] {3L, "c"});
+    assertEquals(2L, merger.merge());
+    assertEquals(1L, merger.getChangedRows());
+    assertEquals(Arrays.asList("1=a", "2=x", "3=c"), readTable());
+
+    merger.addRow(new Object[] {3L, null});
+    assertEquals(1L, merger.merge());
+    assertEquals(1L, merger.getChangedRows());
+
+    // A null value is the same as another null value
+    merger.addRow(new Object[] {3L, null});
+    assertEquals(1L, merger.merge());
+    assertEquals(0L, merger.getChangedRows());
+    assertEquals(Arrays.asList("1=a", "2=x", "3=null"), readTable());
+  }
+
+  @Test
+  public void testMergeMatchesOnKeysWithoutUniqueIndex() throws Exception {
+    merger.addRow(new Object[] {2L, "b"});
+    merger.addRow(new Object[] {4L, "d"});
+    assertEquals(1L, merger.merge());
+    assertEquals(0L, merger.getChangedRows());
+
+    merger.addRow(new Object[] {4L, "d"});
+    assertEquals(1L, merger.merge());
+    assertEquals(Arrays.asList("1=a", "2=b", "4=d"), readTable());
+  }
+
+  private List<String> readTable() throws Exception {
+    List<String> rows = new ArrayList<>();
+    try (Statement statement = db.getConnection().createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT ID, NAME FROM FOO ORDER BY ID")) {
+      while (resultSet.next()) {
+        rows.add(resultSet.getInt(1) + "=" + resultSet.getString(2));
+      }
+    }
+    return rows;
+  }
+}
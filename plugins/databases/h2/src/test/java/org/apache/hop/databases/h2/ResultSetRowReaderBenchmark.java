@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.h2;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.ResultSetRowReader;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the rows of a result set value by value through the database dialect, the way
+ * Database.getRow() used to, with a {@link ResultSetRowReader}. The rows come from an in-memory H2
+ * table.
+ *
+ * <p>This is not a unit test. Run the main method with the test class path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetRowReaderBenchmark {
+
+  private static final int ROW_COUNT = 100000;
+
+  private static final String QUERY =
+      "SELECT id, amount, name, price, active, created FROM customers";
+
+  @State(Scope.Benchmark)
+  public static class Table {
+    private Connection connection;
+    private DatabaseMeta databaseMeta;
+    private IRowMeta rowMeta;
+
+    @Setup(Level.Trial)
+    public void createTable() throws Exception {
+      HopClientEnvironment.init();
+      databaseMeta = new DatabaseMeta();
+      databaseMeta.setIDatabase(new H2DatabaseMeta());
+
+      connection = DriverManager.getConnection("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(
+            "CREATE TABLE customers (id BIGINT, amount DOUBLE, name VARCHAR(50), "
+                + "price DECIMAL(12, 2), active BOOLEAN, created TIMESTAMP)");
+      }
+      try (PreparedStatement statement =
+          connection.prepareStatement("INSERT INTO customers VALUES (?, ?, ?, ?, ?, ?)")) {
+        for (int i = 0; i < ROW_COUNT; i++) {
+          statement.setLong(1, i);
+          statement.setDouble(2, i * 1.5);
+          statement.setString(3, "customer-" + i);
+          statement.setBigDecimal(4, BigDecimal.valueOf(i, 2));
+          statement.setBoolean(5, i % 2 == 0);
+          statement.setTimestamp(6, new Timestamp(1600000000000L + i * 1000L));
+          statement.addBatch();
+        }
+        statement.executeBatch();
+      }
+
+      rowMeta = new RowMeta();
+      rowMeta.addValueMeta(new ValueMetaInteger("id"));
+      rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+      rowMeta.addValueMeta(new ValueMetaString("name"));
+      rowMeta.addValueMeta(new ValueMetaBigNumber("price"));
+      rowMeta.addValueMeta(new ValueMetaBoolean("active"));
+      rowMeta.addValueMeta(new ValueMetaDate("created"));
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTable() throws Exception {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("DROP TABLE customers");
+      }
+      connection.close();
+    }
+  }
+
+  @Benchmark
+  public Object readValueByValue(Table table) throws Exception {
+    Object[] row = null;
+    try (Statement statement = table.connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(QUERY)) {
+      int nrcols = table.rowMeta.size();
+      while (resultSet.next()) {
+        row = new Object[nrcols];
+        for (int i = 0; i < nrcols; i++) {
+          row[i] =
+              table.databaseMeta.getValueFromResultSet(
+                  resultSet, table.rowMeta.getValueMeta(i), i);
+        }
+      }
+    }
+    return row;
+  }
+
+  @Benchmark
+  public Object readWithRowReader(Table table) throws Exception {
+    Object[] row = null;
+    ResultSetRowReader reader = new ResultSetRowReader(table.databaseMeta);
+    try (Statement statement = table.connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(QUERY)) {
+      while (resultSet.next()) {
+        row = reader.readRow(resultSet, table.rowMeta);
+      }
+    }
+    return row;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options =
+        new OptionsBuilder().include(ResultSetRowReaderBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+}
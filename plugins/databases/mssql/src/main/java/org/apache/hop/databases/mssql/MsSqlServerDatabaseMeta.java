@@ -28,6 +28,8 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.metadata.api.HopMetadataProperty;
 
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Contains MS SQL specific information through static final members
@@ -898,4 +900,44 @@ public class MsSqlServerDatabaseMeta extends BaseDatabaseMeta implements IDataba
   public String getEndQuote() {
     return "";
   }
+
+  @Override
+  public boolean supportsMerge() {
+    return true;
+  }
+
+  /** @return the name of a local temporary table: starting with # */
+  @Override
+  public String getTemporaryTableName(String name) {
+    return "#" + name;
+  }
+
+  @Override
+  public String getCreateTemporaryTableStatement(
+      String temporaryTable, String sourceTable, List<String> columns) {
+    return "SELECT "
+        + String.join(", ", columns)
+        + " INTO "
+        + temporaryTable
+        + " FROM "
+        + sourceTable
+        + " WHERE 1=0";
+  }
+
+  /** @return the MERGE statement, SQL Server requires it to end with a semicolon */
+  @Override
+  public List<String> getMergeStatements(
+      String targetTable,
+      String sourceTable,
+      List<String> keyColumns,
+      List<String> insertColumns,
+      List<String> updateColumns) {
+    List<String> statements = new ArrayList<>();
+    for (String statement :
+        super.getMergeStatements(
+            targetTable, sourceTable, keyColumns, insertColumns, updateColumns)) {
+      statements.add(statement + ";");
+    }
+    return statements;
+  }
 }
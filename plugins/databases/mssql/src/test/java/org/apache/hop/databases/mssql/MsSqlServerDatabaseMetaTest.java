@@ -37,6 +37,8 @@ import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
 
 import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
@@ -70,6 +72,27 @@ public class MsSqlServerDatabaseMetaTest {
     variables = spy(new Variables());
   }
 
+  @Test
+  public void testMergeStatements() {
+    assertTrue(nativeMeta.supportsMerge());
+    assertEquals("#STAGE", nativeMeta.getTemporaryTableName("STAGE"));
+    assertEquals(
+        "SELECT ID, NAME INTO #STAGE FROM FOO WHERE 1=0",
+        nativeMeta.getCreateTemporaryTableStatement("#STAGE", "FOO", Arrays.asList("ID", "NAME")));
+    assertEquals(
+        Collections.singletonList(
+            "MERGE INTO FOO t USING #STAGE s ON (t.ID = s.ID)"
+                + " WHEN MATCHED AND ((t.NAME <> s.NAME OR (t.NAME IS NULL AND s.NAME IS NOT NULL)"
+                + " OR (t.NAME IS NOT NULL AND s.NAME IS NULL))) THEN UPDATE SET NAME = s.NAME"
+                + " WHEN NOT MATCHED THEN INSERT (ID, NAME) VALUES (s.ID, s.NAME);"),
+        nativeMeta.getMergeStatements(
+            "FOO",
+            "#STAGE",
+            Collections.singletonList("ID"),
+            Arrays.asList("ID", "NAME"),
+            Collections.singletonList("NAME")));
+  }
+
   @Test
   public void testSettings() throws Exception {
     assertFalse(nativeMeta.isSupportsCatalogs());
@@ -771,4 +771,53 @@ public class MySqlDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
     names.add("Mysql 8+");
     return names;
   }
+
+  /**
+   * @return true: rows are merged with an UPDATE ... JOIN followed by an INSERT ... SELECT of the
+   *     missing rows
+   */
+  @Override
+  public boolean supportsMerge() {
+    return true;
+  }
+
+  /** @return the statement to drop a temporary table, never a regular table with the same name */
+  @Override
+  public String getDropTemporaryTableStatement(String temporaryTable) {
+    return "DROP TEMPORARY TABLE IF EXISTS " + temporaryTable;
+  }
+
+  @Override
+  public List<String> getMergeStatements(
+      String targetTable,
+      String sourceTable,
+      List<String> keyColumns,
+      List<String> insertColumns,
+      List<String> updateColumns) {
+    List<String> statements = new ArrayList<>();
+    if (!updateColumns.isEmpty()) {
+      StringBuilder sql = new StringBuilder();
+      sql.append("UPDATE ").append(targetTable).append(" t JOIN ").append(sourceTable);
+      sql.append(" s ON ").append(getKeysMatchCondition(keyColumns)).append(" SET ");
+      for (int i = 0; i < updateColumns.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append("t.").append(updateColumns.get(i)).append(" = s.").append(updateColumns.get(i));
+      }
+      sql.append(" WHERE ").append(getColumnsDifferCondition(updateColumns));
+      statements.add(sql.toString());
+    }
+    if (!insertColumns.isEmpty()) {
+      statements.add(
+          getInsertMissingStatement(targetTable, sourceTable, keyColumns, insertColumns));
+    }
+    return statements;
+  }
+
+  /** @return the negated null-safe equality */
+  @Override
+  public String getValuesDifferCondition(String left, String right) {
+    return "NOT (" + left + " <=> " + right + ")";
+  }
 }
@@ -35,6 +35,8 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import java.sql.*;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -736,4 +738,45 @@ public class MySqlDatabaseMetaTest {
     IValueMeta valueMeta = rowMeta.getValueMeta(0);
     assertEquals(IValueMeta.TYPE_BINARY, valueMeta.getType());
   }
+
+  @Test
+  public void testMergeStatements() {
+    MySqlDatabaseMeta mySqlMeta = new MySqlDatabaseMeta();
+    assertTrue(mySqlMeta.supportsMerge());
+    assertEquals(
+        Arrays.asList(
+            "UPDATE FOO t JOIN STAGE s ON t.ID = s.ID SET t.NAME = s.NAME"
+                + " WHERE NOT (t.NAME <=> s.NAME)",
+            "INSERT INTO FOO (ID, NAME) SELECT s.ID, s.NAME FROM STAGE s"
+                + " WHERE NOT EXISTS (SELECT 1 FROM FOO t WHERE t.ID = s.ID)"),
+        mySqlMeta.getMergeStatements(
+            "FOO",
+            "STAGE",
+            Collections.singletonList("ID"),
+            Arrays.asList("ID", "NAME"),
+            Collections.singletonList("NAME")));
+    assertEquals(
+        Collections.singletonList(
+            "INSERT INTO FOO (ID, NAME) SELECT s.ID, s.NAME FROM STAGE s"
+                + " WHERE NOT EXISTS (SELECT 1 FROM FOO t WHERE t.ID = s.ID)"),
+        mySqlMeta.getMergeStatements(
+            "FOO",
+            "STAGE",
+            Collections.singletonList("ID"),
+            Arrays.asList("ID", "NAME"),
+            Collections.emptyList()));
+    assertEquals(
+        Collections.singletonList(
+            "UPDATE FOO t JOIN STAGE s ON t.ID = s.ID AND t.NR = s.NR"
+                + " SET t.NAME = s.NAME, t.CITY = s.CITY"
+                + " WHERE NOT (t.NAME <=> s.NAME) OR NOT (t.CITY <=> s.CITY)"),
+        mySqlMeta.getMergeStatements(
+            "FOO",
+            "STAGE",
+            Arrays.asList("ID", "NR"),
+            Collections.emptyList(),
+            Arrays.asList("NAME", "CITY")));
+    assertEquals(
+        "DROP TEMPORARY TABLE IF EXISTS STAGE", mySqlMeta.getDropTemporaryTableStatement("STAGE"));
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.databases.postgresql;
+
+import org.apache.hop.core.database.ICopyIn;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/** Sends the data of a COPY ... FROM STDIN statement with the copy API of the PostgreSQL driver. */
+public class PostgreSqlCopyIn implements ICopyIn {
+  private final CopyIn copyIn;
+
+  public PostgreSqlCopyIn(Connection connection, String sql) throws HopDatabaseException {
+    try {
+      copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Unable to start COPY statement: " + sql, e);
+    }
+  }
+
+  @Override
+  public void writeToCopy(byte[] data, int offset, int length) throws HopDatabaseException {
+    try {
+      copyIn.writeToCopy(data, offset, length);
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error sending COPY data", e);
+    }
+  }
+
+  @Override
+  public long endCopy() throws HopDatabaseException {
+    try {
+      return copyIn.endCopy();
+    } catch (SQLException e) {
+      throw new HopDatabaseException("Error ending COPY statement", e);
+    }
+  }
+
+  @Override
+  public void cancelCopy() {
+    try {
+      if (copyIn.isActive()) {
+        copyIn.cancelCopy();
+      }
+    } catch (SQLException e) {
+      // The statement is aborted anyway
+    }
+  }
+}
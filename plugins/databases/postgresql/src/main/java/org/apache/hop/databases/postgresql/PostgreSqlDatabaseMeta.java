@@ -21,10 +21,16 @@ import org.apache.hop.core.Const;
 import org.apache.hop.core.database.BaseDatabaseMeta;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.ICopyIn;
 import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.gui.plugin.GuiPlugin;
 import org.apache.hop.core.row.IValueMeta;
 
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Contains PostgreSQL specific information through static final members
  */
@@ -1091,6 +1097,60 @@ public class PostgreSqlDatabaseMeta extends BaseDatabaseMeta implements IDatabas
     return true;
   }
 
+  /** @return true: rows can be loaded with COPY FROM STDIN in the binary format */
+  @Override
+  public boolean supportsBinaryCopy() {
+    return true;
+  }
+
+  @Override
+  public ICopyIn startBinaryCopy(Connection connection, String sql) throws HopDatabaseException {
+    return new PostgreSqlCopyIn(connection, sql);
+  }
+
+  /**
+   * @return true: rows are merged with an UPDATE ... FROM followed by an INSERT ... SELECT of the
+   *     missing rows
+   */
+  @Override
+  public boolean supportsMerge() {
+    return true;
+  }
+
+  @Override
+  public List<String> getMergeStatements(
+      String targetTable,
+      String sourceTable,
+      List<String> keyColumns,
+      List<String> insertColumns,
+      List<String> updateColumns) {
+    List<String> statements = new ArrayList<>();
+    if (!updateColumns.isEmpty()) {
+      StringBuilder sql = new StringBuilder();
+      sql.append("UPDATE ").append(targetTable).append(" t SET ");
+      for (int i = 0; i < updateColumns.size(); i++) {
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(updateColumns.get(i)).append(" = s.").append(updateColumns.get(i));
+      }
+      sql.append(" FROM ").append(sourceTable).append(" s WHERE ");
+      sql.append(getKeysMatchCondition(keyColumns));
+      sql.append(" AND (").append(getColumnsDifferCondition(updateColumns)).append(")");
+      statements.add(sql.toString());
+    }
+    if (!insertColumns.isEmpty()) {
+      statements.add(
+          getInsertMissingStatement(targetTable, sourceTable, keyColumns, insertColumns));
+    }
+    return statements;
+  }
+
+  @Override
+  public String getValuesDifferCondition(String left, String right) {
+    return left + " IS DISTINCT FROM " + right;
+  }
+
   @Override
   public int getMaxVARCHARLength() {
     return GB_LIMIT;
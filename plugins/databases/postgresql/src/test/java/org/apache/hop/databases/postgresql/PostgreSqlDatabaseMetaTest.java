@@ -21,6 +21,9 @@ import org.apache.hop.core.row.value.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 
 public class PostgreSqlDatabaseMetaTest {
@@ -695,6 +698,47 @@ public class PostgreSqlDatabaseMetaTest {
     assertTrue(nativeMeta.isUseSafePoints());
   }
 
+  @Test
+  public void testMergeStatements() {
+    assertTrue(nativeMeta.supportsMerge());
+    assertEquals(
+        Arrays.asList(
+            "UPDATE FOO t SET NAME = s.NAME FROM STAGE s"
+                + " WHERE t.ID = s.ID AND (t.NAME IS DISTINCT FROM s.NAME)",
+            "INSERT INTO FOO (ID, NAME) SELECT s.ID, s.NAME FROM STAGE s"
+                + " WHERE NOT EXISTS (SELECT 1 FROM FOO t WHERE t.ID = s.ID)"),
+        nativeMeta.getMergeStatements(
+            "FOO",
+            "STAGE",
+            Collections.singletonList("ID"),
+            Arrays.asList("ID", "NAME"),
+            Collections.singletonList("NAME")));
+    assertEquals(
+        Collections.singletonList(
+            "INSERT INTO FOO (ID, NAME) SELECT s.ID, s.NAME FROM STAGE s"
+                + " WHERE NOT EXISTS (SELECT 1 FROM FOO t WHERE t.ID = s.ID)"),
+        nativeMeta.getMergeStatements(
+            "FOO",
+            "STAGE",
+            Collections.singletonList("ID"),
+            Arrays.asList("ID", "NAME"),
+            Collections.emptyList()));
+    assertEquals(
+        Collections.singletonList(
+            "UPDATE FOO t SET NAME = s.NAME, CITY = s.CITY FROM STAGE s"
+                + " WHERE t.ID = s.ID AND t.NR = s.NR"
+                + " AND (t.NAME IS DISTINCT FROM s.NAME OR t.CITY IS DISTINCT FROM s.CITY)"),
+        nativeMeta.getMergeStatements(
+            "FOO",
+            "STAGE",
+            Arrays.asList("ID", "NR"),
+            Collections.emptyList(),
+            Arrays.asList("NAME", "CITY")));
+    assertEquals(
+        "CREATE TEMPORARY TABLE STAGE AS SELECT ID, NAME FROM FOO WHERE 1=0",
+        nativeMeta.getCreateTemporaryTableStatement("STAGE", "FOO", Arrays.asList("ID", "NAME")));
+  }
+
   @Test
   public void testSqlStatements() {
     assertEquals("SELECT * FROM FOO limit 1", nativeMeta.getSqlQueryFields("FOO"));
@@ -76,4 +76,24 @@ public class RedshiftDatabaseMeta extends PostgreSqlDatabaseMeta {
   public boolean isSupportsSetMaxRows() {
     return false;
   }
+
+  /**
+   * Redshift only copies data from files in S3 and similar storage, not from the connection
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsBinaryCopy() {
+    return false;
+  }
+
+  /**
+   * Redshift doesn't support IS DISTINCT FROM to find the rows to update
+   *
+   * @return false
+   */
+  @Override
+  public boolean supportsMerge() {
+    return false;
+  }
 }
@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * A simple condition on a field of the Parquet file: field, operator and value. The conditions of
+ * the transform are all pushed down to the Parquet reader. It skips the row groups which can't have
+ * matching rows based on their statistics and dictionaries and filters the remaining rows.
+ *
+ * <p>The value is converted to the way the field is stored, following its logical type: dates as
+ * yyyy-MM-dd, timestamps as yyyy-MM-dd HH:mm:ss[.fraction] in the local time zone, times as
+ * HH:mm:ss[.fraction] and decimals as numbers.
+ */
+public class ParquetFilter {
+
+  public static final String[] OPERATORS = {
+    "=", "<>", "<", "<=", ">", ">=", "IS NULL", "IS NOT NULL",
+  };
+
+  @HopMetadataProperty(key = "source_field")
+  private String sourceField;
+
+  @HopMetadataProperty(key = "operator")
+  private String operator;
+
+  @HopMetadataProperty(key = "value")
+  private String value;
+
+  public ParquetFilter() {}
+
+  public ParquetFilter(ParquetFilter f) {
+    this.sourceField = f.sourceField;
+    this.operator = f.operator;
+    this.value = f.value;
+  }
+
+  public ParquetFilter(String sourceField, String operator, String value) {
+    this.sourceField = sourceField;
+    this.operator = operator;
+    this.value = value;
+  }
+
+  /**
+   * Combine the given filters into a single predicate which the Parquet reader can push down.
+   *
+   * @param filters the filters, all of which need to match
+   * @param schema the schema of the file to read
+   * @param variables to resolve the filter values with
+   * @return the predicate or null if there are no filters
+   * @throws HopException in case a filter can't be applied to the file
+   */
+  public static FilterPredicate createPredicate(
+      List<ParquetFilter> filters, MessageType schema, IVariables variables) throws HopException {
+    FilterPredicate predicate = null;
+    for (ParquetFilter filter : filters) {
+      FilterPredicate filterPredicate = filter.createPredicate(schema, variables);
+      predicate = predicate == null ? filterPredicate : FilterApi.and(predicate, filterPredicate);
+    }
+    return predicate;
+  }
+
+  /**
+   * Create a predicate for this filter.
+   *
+   * @param schema the schema of the file to read
+   * @param variables to resolve the filter value with
+   * @return the predicate
+   * @throws HopException in case the field isn't a primitive field of the file or the value can't
+   *     be converted to the type of the field
+   */
+  public FilterPredicate createPredicate(MessageType schema, IVariables variables)
+      throws HopException {
+    Type type = null;
+    for (Type fieldType : schema.getFields()) {
+      if (fieldType.getName().equalsIgnoreCase(sourceField)) {
+        type = fieldType;
+        break;
+      }
+    }
+    if (type == null || !type.isPrimitive()) {
+      throw new HopException(
+          "Unable to filter on '" + sourceField + "': it's not a primitive field of the file");
+    }
+    String column = type.getName();
+    boolean nullCheck =
+        "IS NULL".equalsIgnoreCase(operator) || "IS NOT NULL".equalsIgnoreCase(operator);
+    String realValue = Const.NVL(variables.resolve(value), "");
+
+    PrimitiveType primitiveType = type.asPrimitiveType();
+    LogicalTypeAnnotation logicalType = primitiveType.getLogicalTypeAnnotation();
+    try {
+      switch (primitiveType.getPrimitiveTypeName()) {
+        case INT32:
+          return compare(
+              FilterApi.intColumn(column),
+              nullCheck ? null : Math.toIntExact(toLong(realValue.trim(), logicalType, column)));
+        case INT64:
+          return compare(
+              FilterApi.longColumn(column),
+              nullCheck ? null : toLong(realValue.trim(), logicalType, column));
+        case FLOAT:
+          return compare(
+              FilterApi.floatColumn(column), nullCheck ? null : Float.valueOf(realValue.trim()));
+        case DOUBLE:
+          return compare(
+              FilterApi.doubleColumn(column), nullCheck ? null : Double.valueOf(realValue.trim()));
+        case BINARY:
+        case FIXED_LEN_BYTE_ARRAY:
+          return compare(
+              FilterApi.binaryColumn(column),
+              nullCheck ? null : toBinary(realValue, primitiveType, column));
+        case BOOLEAN:
+          Operators.BooleanColumn booleanColumn = FilterApi.booleanColumn(column);
+          Boolean booleanValue = nullCheck ? null : Boolean.valueOf(realValue.trim());
+          if ("=".equals(operator) || "IS NULL".equalsIgnoreCase(operator)) {
+            return FilterApi.eq(booleanColumn, booleanValue);
+          }
+          if ("<>".equals(operator) || "IS NOT NULL".equalsIgnoreCase(operator)) {
+            return FilterApi.notEq(booleanColumn, booleanValue);
+          }
+          break;
+        default:
+          throw new HopException(
+              "Unable to filter on field '"
+                  + column
+                  + "': filters on type "
+                  + type
+                  + " are not supported");
+      }
+    } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+      throw new HopException(
+          "Unable to convert value '"
+              + realValue
+              + "' to the type of field '"
+              + column
+              + "': "
+              + type,
+          e);
+    }
+    throw new HopException(
+        "Operator '" + operator + "' isn't supported for field '" + column + "' of type " + type);
+  }
+
+  /** Convert a value to the way an INT32 or INT64 field with the given logical type stores it */
+  private static long toLong(String value, LogicalTypeAnnotation logicalType, String column)
+      throws HopException {
+    if (logicalType == null
+        || logicalType instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation) {
+      return Long.parseLong(value);
+    }
+    if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+      return toUnscaled(value, (LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType)
+          .longValueExact();
+    }
+    if (logicalType instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+      return LocalDate.parse(value).toEpochDay();
+    }
+    if (logicalType instanceof LogicalTypeAnnotation.TimeLogicalTypeAnnotation) {
+      LogicalTypeAnnotation.TimeLogicalTypeAnnotation time =
+          (LogicalTypeAnnotation.TimeLogicalTypeAnnotation) logicalType;
+      long nanos = LocalTime.parse(value).toNanoOfDay();
+      switch (time.getUnit()) {
+        case MILLIS:
+          return nanos / 1000000L;
+        case MICROS:
+          return nanos / 1000L;
+        default:
+          return nanos;
+      }
+    }
+    if (logicalType instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) {
+      LogicalTypeAnnotation.TimestampLogicalTypeAnnotation timestamp =
+          (LogicalTypeAnnotation.TimestampLogicalTypeAnnotation) logicalType;
+      LocalDateTime dateTime =
+          value.length() <= 10
+              ? LocalDate.parse(value).atStartOfDay()
+              : LocalDateTime.parse(value.replace(' ', 'T'));
+      // Instants are shown in the local time zone, local timestamps as they are
+      ZoneId zone = timestamp.isAdjustedToUTC() ? ZoneId.systemDefault() : ZoneOffset.UTC;
+      Instant instant = dateTime.atZone(zone).toInstant();
+      switch (timestamp.getUnit()) {
+        case MILLIS:
+          return instant.toEpochMilli();
+        case MICROS:
+          return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+        default:
+          return ChronoUnit.NANOS.between(Instant.EPOCH, instant);
+      }
+    }
+    throw new HopException(
+        "Unable to filter on field '"
+            + column
+            + "': logical type "
+            + logicalType
+            + " is not supported");
+  }
+
+  /** Convert a value to the way a BINARY or FIXED_LEN_BYTE_ARRAY field stores it */
+  private static Binary toBinary(String value, PrimitiveType type, String column)
+      throws HopException {
+    LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+    if (logicalType == null
+        || logicalType instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation
+        || logicalType instanceof LogicalTypeAnnotation.EnumLogicalTypeAnnotation
+        || logicalType instanceof LogicalTypeAnnotation.JsonLogicalTypeAnnotation) {
+      return Binary.fromString(value);
+    }
+    if (logicalType instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) {
+      // The unscaled value as a big-endian two's complement number
+      LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal =
+          (LogicalTypeAnnotation.DecimalLogicalTypeAnnotation) logicalType;
+      byte[] bytes = toUnscaled(value.trim(), decimal).toByteArray();
+      if (type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+        int length = type.getTypeLength();
+        if (bytes.length > length) {
+          throw new ArithmeticException("Value doesn't fit in " + length + " bytes");
+        }
+        byte[] fixed = new byte[length];
+        byte sign = bytes[0] < 0 ? (byte) -1 : 0;
+        for (int i = 0; i < length - bytes.length; i++) {
+          fixed[i] = sign;
+        }
+        System.arraycopy(bytes, 0, fixed, length - bytes.length, bytes.length);
+        bytes = fixed;
+      }
+      return Binary.fromConstantByteArray(bytes);
+    }
+    throw new HopException(
+        "Unable to filter on field '"
+            + column
+            + "': logical type "
+            + logicalType
+            + " is not supported");
+  }
+
+  private static BigInteger toUnscaled(
+      String value, LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimal) {
+    // Fails with an ArithmeticException when the value has more digits than the field
+    return new BigDecimal(value).setScale(decimal.getScale()).unscaledValue();
+  }
+
+  private <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+      FilterPredicate compare(C column, T value) throws HopException {
+    switch (operator == null ? "" : operator.toUpperCase()) {
+      case "=":
+      case "IS NULL":
+        return FilterApi.eq(column, value);
+      case "<>":
+      case "IS NOT NULL":
+        return FilterApi.notEq(column, value);
+      case "<":
+        return FilterApi.lt(column, value);
+      case "<=":
+        return FilterApi.ltEq(column, value);
+      case ">":
+        return FilterApi.gt(column, value);
+      case ">=":
+        return FilterApi.gtEq(column, value);
+      default:
+        throw new HopException("Unknown filter operator '" + operator + "'");
+    }
+  }
+
+  /**
+   * Gets sourceField
+   *
+   * @return value of sourceField
+   */
+  public String getSourceField() {
+    return sourceField;
+  }
+
+  /** @param sourceField The sourceField to set */
+  public void setSourceField(String sourceField) {
+    this.sourceField = sourceField;
+  }
+
+  /**
+   * Gets operator
+   *
+   * @return value of operator
+   */
+  public String getOperator() {
+    return operator;
+  }
+
+  /** @param operator The operator to set */
+  public void setOperator(String operator) {
+    this.operator = operator;
+  }
+
+  /**
+   * Gets value
+   *
+   * @return value of value
+   */
+  public String getValue() {
+    return value;
+  }
+
+  /** @param value The value to set */
+  public void setValue(String value) {
+    this.value = value;
+  }
+}
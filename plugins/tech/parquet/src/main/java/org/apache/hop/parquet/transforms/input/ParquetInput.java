@@ -17,23 +17,25 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetReader;
-
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import org.apache.parquet.schema.MessageType;
 
 public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputData>
 {
+  private static final Class<?> PKG = ParquetInputMeta.class;
+
   public ParquetInput(
       TransformMeta transformMeta,
       ParquetInputMeta meta,
@@ -44,6 +46,24 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
+  @Override
+  public boolean init() {
+    if (meta.isSplittingRowGroups() && getTransformMeta().getCopies(this) > 1) {
+      // Every copy needs to see every file name, so the file names can't be distributed
+      //
+      int nrCopies = getTransformMeta().getCopies(this);
+      for (TransformMeta previous : getPipelineMeta().findPreviousTransforms(getTransformMeta())) {
+        if (previous.isDistributes() || previous.getCopies(this) == nrCopies) {
+          logError(
+              BaseMessages.getString(
+                  PKG, "ParquetInput.Error.FileNamesNotCopied", previous.getName()));
+          return false;
+        }
+      }
+    }
+    return super.init();
+  }
+
   @Override
   public boolean processRow() throws HopException {
 
@@ -64,6 +84,10 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
         throw new HopException(
             "Unable to find filename field " + meta.getFilenameField() + " in the input");
       }
+
+      // All copies get all the file names and read a part of the row groups of every file
+      //
+      data.nrCopies = meta.isSplittingRowGroups() ? getTransformMeta().getCopies(this) : 1;
     }
 
     // Skip null values for file names
@@ -76,26 +100,43 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     FileObject fileObject = HopVfs.getFileObject(filename);
 
     try {
-      long size = fileObject.getContent().getSize();
-      InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-      // Reads the whole file into memory...
+      // The reader only reads the footer and the column chunks of the fields we need
       //
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-      IOUtils.copy(inputStream, outputStream);
-      ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
+      ParquetInputFile inputFile = new ParquetInputFile(fileObject);
+
+      ParquetReadSupport readSupport = new ParquetReadSupport(meta.getFields(), meta.getFilters());
+      ParquetReaderBuilder<RowMetaAndData> builder =
+          new ParquetReaderBuilder<>(readSupport, inputFile);
 
-      ParquetReadSupport readSupport = new ParquetReadSupport(meta.getFields());
-      ParquetReader<RowMetaAndData> reader =
-          new ParquetReaderBuilder<>(readSupport, inputFile).build();
+      if (!meta.getFilters().isEmpty()) {
+        // The predicate depends on the types of the columns in the file
+        //
+        MessageType schema;
+        try (ParquetFileReader fileReader = ParquetFileReader.open(inputFile)) {
+          schema = fileReader.getFileMetaData().getSchema();
+        }
+        builder.withFilter(
+            FilterCompat.get(ParquetFilter.createPredicate(meta.getFilters(), schema, this)));
+      }
 
-      RowMetaAndData r = reader.read();
-      while (r != null && !isStopped()) {
-        // Add r to the input rows...
+      if (data.nrCopies > 1) {
+        // The reader takes the row groups with their middle in the given range of bytes
         //
-        Object[] outputRow = RowDataUtil.addRowData(row, getInputRowMeta().size(), r.getData());
-        putRow(data.outputRowMeta, outputRow);
-        r = reader.read();
+        long length = inputFile.getLength();
+        long start = length * getCopyNr() / data.nrCopies;
+        long end = length * (getCopyNr() + 1) / data.nrCopies;
+        builder.withFileRange(start, end);
+      }
+
+      try (ParquetReader<RowMetaAndData> reader = builder.build()) {
+        RowMetaAndData r = reader.read();
+        while (r != null && !isStopped()) {
+          // Add r to the input rows...
+          //
+          Object[] outputRow = RowDataUtil.addRowData(row, getInputRowMeta().size(), r.getData());
+          putRow(data.outputRowMeta, outputRow);
+          r = reader.read();
+        }
       }
     } catch (Exception e) {
       throw new HopException("Error read file " + filename, e);
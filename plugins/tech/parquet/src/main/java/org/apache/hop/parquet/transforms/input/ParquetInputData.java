@@ -24,6 +24,7 @@ import org.apache.hop.pipeline.transform.ITransformData;
 public class ParquetInputData extends BaseTransformData implements ITransformData {  
   public IRowMeta outputRowMeta;
   public int filenameFieldIndex;
+  public int nrCopies;
   
   public ParquetInputData() {
     super();
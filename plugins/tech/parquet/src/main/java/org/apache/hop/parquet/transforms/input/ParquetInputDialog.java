@@ -17,10 +17,7 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.logging.LogChannel;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
@@ -38,7 +35,7 @@ import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.parquet.column.ColumnDescriptor;
-import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.PrimitiveType;
 import org.eclipse.swt.SWT;
@@ -47,9 +44,6 @@ import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.widgets.*;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.List;
 
 public class ParquetInputDialog extends BaseTransformDialog implements ITransformDialog {
@@ -59,7 +53,9 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
   protected ParquetInputMeta input;
 
   private Combo wFilenameField;
+  private Button wSplitRowGroups;
   private TableView wFields;
+  private TableView wFilters;
 
   private String returnValue;
 
@@ -140,6 +136,28 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
     wFilenameField.setLayoutData(fdFilenameField);
     lastControl = wFilenameField;
 
+    Label wlSplitRowGroups = new Label(shell, SWT.RIGHT);
+    wlSplitRowGroups.setText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.SplitRowGroups.Label"));
+    wlSplitRowGroups.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.SplitRowGroups.Tooltip"));
+    props.setLook(wlSplitRowGroups);
+    FormData fdlSplitRowGroups = new FormData();
+    fdlSplitRowGroups.left = new FormAttachment(0, 0);
+    fdlSplitRowGroups.right = new FormAttachment(middle, -margin);
+    fdlSplitRowGroups.top = new FormAttachment(lastControl, margin);
+    wlSplitRowGroups.setLayoutData(fdlSplitRowGroups);
+    wSplitRowGroups = new Button(shell, SWT.CHECK);
+    wSplitRowGroups.setToolTipText(
+        BaseMessages.getString(PKG, "ParquetInputDialog.SplitRowGroups.Tooltip"));
+    props.setLook(wSplitRowGroups);
+    FormData fdSplitRowGroups = new FormData();
+    fdSplitRowGroups.left = new FormAttachment(middle, 0);
+    fdSplitRowGroups.top = new FormAttachment(wlSplitRowGroups, 0, SWT.CENTER);
+    fdSplitRowGroups.right = new FormAttachment(100, 0);
+    wSplitRowGroups.setLayoutData(fdSplitRowGroups);
+    lastControl = wSplitRowGroups;
+
     Label wlFields = new Label(shell, SWT.LEFT);
     wlFields.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Fields.Label"));
     props.setLook(wlFields);
@@ -189,9 +207,55 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
     fdFields.left = new FormAttachment(0, 0);
     fdFields.top = new FormAttachment(wlFields, margin);
     fdFields.right = new FormAttachment(100, 0);
-    fdFields.bottom = new FormAttachment(wOk, -2 * margin);
+    fdFields.bottom = new FormAttachment(70, 0);
     wFields.setLayoutData(fdFields);
 
+    Label wlFilters = new Label(shell, SWT.LEFT);
+    wlFilters.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Filters.Label"));
+    props.setLook(wlFilters);
+    FormData fdlFilters = new FormData();
+    fdlFilters.left = new FormAttachment(0, 0);
+    fdlFilters.right = new FormAttachment(100, 0);
+    fdlFilters.top = new FormAttachment(wFields, margin);
+    wlFilters.setLayoutData(fdlFilters);
+
+    ColumnInfo[] filterColumns =
+        new ColumnInfo[] {
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.SourceField.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.Operator.Label"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              ParquetFilter.OPERATORS,
+              true),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "ParquetInputDialog.FiltersColumn.Value.Label"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false,
+              false),
+        };
+    filterColumns[2].setUsingVariables(true);
+    wFilters =
+        new TableView(
+            variables,
+            shell,
+            SWT.BORDER,
+            filterColumns,
+            input.getFilters().size(),
+            false,
+            null,
+            props);
+    props.setLook(wFilters);
+    FormData fdFilters = new FormData();
+    fdFilters.left = new FormAttachment(0, 0);
+    fdFilters.top = new FormAttachment(wlFilters, margin);
+    fdFilters.right = new FormAttachment(100, 0);
+    fdFilters.bottom = new FormAttachment(wOk, -2 * margin);
+    wFilters.setLayoutData(fdFilters);
+
     getData();
 
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -209,29 +273,13 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
               new String[] {"Parquet files", "All files"},
               true);
       if (filename != null) {
-        FileObject fileObject = HopVfs.getFileObject(filename);
-
-        long size = fileObject.getContent().getSize();
-        InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-        // Reads the whole file into memory...
-        //
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-        IOUtils.copy(inputStream, outputStream);
-        ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
-        // Empty list of fields to retrieve: we still grab the schema
-        //
-        ParquetReadSupport readSupport = new ParquetReadSupport(new ArrayList<>());
-        ParquetReader<RowMetaAndData> reader =
-            new ParquetReaderBuilder<>(readSupport, inputFile).build();
-
-        // Read one empty row...
+        // The schema is in the footer of the file, no need to read any rows
         //
-        reader.read();
-
-        // Now we have the schema...
-        //
-        MessageType schema = readSupport.getMessageType();
+        MessageType schema;
+        ParquetInputFile inputFile = new ParquetInputFile(HopVfs.getFileObject(filename));
+        try (ParquetFileReader fileReader = ParquetFileReader.open(inputFile)) {
+          schema = fileReader.getFileMetaData().getSchema();
+        }
         IRowMeta rowMeta = new RowMeta();
         List<ColumnDescriptor> columns = schema.getColumns();
         for (ColumnDescriptor column : columns) {
@@ -287,6 +335,7 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
 
     wTransformName.setText(Const.NVL(transformName, ""));
     wFilenameField.setText(Const.NVL(input.getFilenameField(), ""));
+    wSplitRowGroups.setSelection(input.isSplittingRowGroups());
     for (int i = 0; i < input.getFields().size(); i++) {
       ParquetField field = input.getFields().get(i);
       TableItem item = wFields.table.getItem(i);
@@ -298,6 +347,14 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
       item.setText(index++, Const.NVL(field.getTargetLength(), ""));
       item.setText(index++, Const.NVL(field.getTargetPrecision(), ""));
     }
+    for (int i = 0; i < input.getFilters().size(); i++) {
+      ParquetFilter filter = input.getFilters().get(i);
+      TableItem item = wFilters.table.getItem(i);
+      int index = 1;
+      item.setText(index++, Const.NVL(filter.getSourceField(), ""));
+      item.setText(index++, Const.NVL(filter.getOperator(), ""));
+      item.setText(index++, Const.NVL(filter.getValue(), ""));
+    }
   }
 
   private void ok() {
@@ -323,6 +380,12 @@ public class ParquetInputDialog extends BaseTransformDialog implements ITransfor
                   item.getText(index++),
                   item.getText(index)));
     }
+    meta.setSplittingRowGroups(wSplitRowGroups.getSelection());
+    meta.getFilters().clear();
+    for (TableItem item : wFilters.getNonEmptyItems()) {
+      meta.getFilters()
+          .add(new ParquetFilter(item.getText(1), item.getText(2), item.getText(3)));
+    }
   }
 
   private void cancel() {
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.commons.vfs2.provider.local.LocalFile;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Parquet input file on top of Hop VFS. The reader only reads the footer and the column chunks
+ * it needs so we don't load the whole file:
+ *
+ * <ul>
+ *   <li>Local files are mapped into memory.
+ *   <li>Files on file systems with random access are read where the reader seeks to.
+ *   <li>Only for other file systems the file is read into memory, once.
+ * </ul>
+ */
+public class ParquetInputFile implements InputFile {
+
+  /** Local files are mapped in segments of 1GB */
+  private static final int SEGMENT_BITS = 30;
+
+  private final FileObject fileObject;
+  private final String filename;
+  private final long length;
+  private final int segmentBits;
+
+  private MappedByteBuffer[] segments;
+  private ParquetStream inMemoryFile;
+
+  public ParquetInputFile(FileObject fileObject) throws IOException {
+    this(fileObject, SEGMENT_BITS);
+  }
+
+  /**
+   * @param fileObject the file to read
+   * @param segmentBits the size of the segments local files are mapped in, as a power of 2
+   */
+  ParquetInputFile(FileObject fileObject, int segmentBits) throws IOException {
+    this.fileObject = fileObject;
+    this.filename = HopVfs.getFriendlyURI(fileObject);
+    this.length = fileObject.getContent().getSize();
+    this.segmentBits = segmentBits;
+  }
+
+  @Override
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    if (fileObject instanceof LocalFile) {
+      if (segments == null) {
+        segments = map();
+      }
+      return new MappedInputStream(segments, length, segmentBits);
+    }
+    if (fileObject.getFileSystem().hasCapability(Capability.RANDOM_ACCESS_READ)) {
+      return new RandomAccessInputStream(
+          fileObject.getContent().getRandomAccessContent(RandomAccessMode.READ), length);
+    }
+    if (inMemoryFile == null) {
+      try (InputStream inputStream = HopVfs.getInputStream(fileObject)) {
+        inMemoryFile = new ParquetStream(IOUtils.toByteArray(inputStream), filename);
+      } catch (Exception e) {
+        throw new IOException("Unable to read file " + filename + " into memory", e);
+      }
+    }
+    return inMemoryFile.newStream();
+  }
+
+  private MappedByteBuffer[] map() throws IOException {
+    String localFilename = HopVfs.getFilename(fileObject);
+    try (FileChannel channel =
+        FileChannel.open(Paths.get(localFilename), StandardOpenOption.READ)) {
+      long segmentSize = 1L << segmentBits;
+      int count = (int) ((length + segmentSize - 1) >>> segmentBits);
+      MappedByteBuffer[] buffers = new MappedByteBuffer[count];
+      for (int i = 0; i < buffers.length; i++) {
+        long start = i * segmentSize;
+        long size = Math.min(segmentSize, length - start);
+        buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+      }
+      return buffers;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ParquetInputFile of file '" + filename + "'";
+  }
+
+  /** Reads a file mapped into memory, every stream has its own view of the shared mapping */
+  private static class MappedInputStream extends SeekableInputStream {
+    private final ByteBuffer[] buffers;
+    private final long length;
+    private final int segmentBits;
+    private long position;
+
+    MappedInputStream(MappedByteBuffer[] segments, long length, int segmentBits) {
+      this.buffers = new ByteBuffer[segments.length];
+      for (int i = 0; i < segments.length; i++) {
+        buffers[i] = segments[i].duplicate();
+      }
+      this.length = length;
+      this.segmentBits = segmentBits;
+    }
+
+    @Override
+    public long getPos() {
+      return position;
+    }
+
+    @Override
+    public void seek(long newPosition) throws IOException {
+      if (newPosition < 0 || newPosition > length) {
+        throw new EOFException("Unable to seek to position " + newPosition);
+      }
+      position = newPosition;
+    }
+
+    /** @return the buffer positioned at the current position, with as many bytes as we can get */
+    private ByteBuffer current() {
+      ByteBuffer buffer = buffers[(int) (position >>> segmentBits)];
+      buffer.clear();
+      buffer.position((int) (position & ((1L << segmentBits) - 1)));
+      return buffer;
+    }
+
+    @Override
+    public int read() {
+      if (position >= length) {
+        return -1;
+      }
+      int b = current().get() & 0xFF;
+      position++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (position >= length) {
+        return -1;
+      }
+      int total = 0;
+      while (total < len && position < length) {
+        ByteBuffer buffer = current();
+        int count = Math.min(len - total, buffer.remaining());
+        buffer.get(bytes, offset + total, count);
+        position += count;
+        total += count;
+      }
+      return total;
+    }
+
+    @Override
+    public long skip(long n) {
+      long skipped = Math.max(0L, Math.min(n, length - position));
+      position += skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int len) throws IOException {
+      if (length - position < len) {
+        throw new EOFException("Unable to read " + len + " bytes at position " + position);
+      }
+      read(bytes, offset, len);
+    }
+
+    @Override
+    public int read(ByteBuffer target) {
+      if (!target.hasRemaining()) {
+        return 0;
+      }
+      if (position >= length) {
+        return -1;
+      }
+      int total = 0;
+      while (target.hasRemaining() && position < length) {
+        ByteBuffer buffer = current();
+        int count = Math.min(target.remaining(), buffer.remaining());
+        buffer.limit(buffer.position() + count);
+        target.put(buffer);
+        position += count;
+        total += count;
+      }
+      return total;
+    }
+
+    @Override
+    public void readFully(ByteBuffer target) throws IOException {
+      if (length - position < target.remaining()) {
+        throw new EOFException(
+            "Unable to read " + target.remaining() + " bytes at position " + position);
+      }
+      read(target);
+    }
+  }
+
+  /** Reads a file through the random access content of its VFS file system */
+  private static class RandomAccessInputStream extends SeekableInputStream {
+    private final RandomAccessContent content;
+    private final long length;
+    private long position;
+    private byte[] copyBuffer;
+
+    RandomAccessInputStream(RandomAccessContent content, long length) {
+      this.content = content;
+      this.length = length;
+    }
+
+    @Override
+    public long getPos() {
+      return position;
+    }
+
+    @Override
+    public void seek(long newPosition) throws IOException {
+      if (newPosition < 0 || newPosition > length) {
+        throw new EOFException("Unable to seek to position " + newPosition);
+      }
+      position = newPosition;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      content.seek(position);
+      int b = content.readUnsignedByte();
+      position++;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (position >= length) {
+        return -1;
+      }
+      int count = (int) Math.min(len, length - position);
+      content.seek(position);
+      content.readFully(bytes, offset, count);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      long skipped = Math.max(0L, Math.min(n, length - position));
+      position += skipped;
+      return skipped;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+      readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int len) throws IOException {
+      if (length - position < len) {
+        throw new EOFException("Unable to read " + len + " bytes at position " + position);
+      }
+      read(bytes, offset, len);
+    }
+
+    @Override
+    public int read(ByteBuffer target) throws IOException {
+      if (!target.hasRemaining()) {
+        return 0;
+      }
+      if (position >= length) {
+        return -1;
+      }
+      int count = (int) Math.min(target.remaining(), length - position);
+      if (target.hasArray()) {
+        read(target.array(), target.arrayOffset() + target.position(), count);
+        target.position(target.position() + count);
+      } else {
+        if (copyBuffer == null || copyBuffer.length < count) {
+          copyBuffer = new byte[Math.max(count, 64 * 1024)];
+        }
+        read(copyBuffer, 0, count);
+        target.put(copyBuffer, 0, count);
+      }
+      return count;
+    }
+
+    @Override
+    public void readFully(ByteBuffer target) throws IOException {
+      if (length - position < target.remaining()) {
+        throw new EOFException(
+            "Unable to read " + target.remaining() + " bytes at position " + position);
+      }
+      read(target);
+    }
+
+    @Override
+    public void close() throws IOException {
+      content.close();
+    }
+  }
+}
@@ -47,8 +47,17 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   @HopMetadataProperty(groupKey = "fields", key = "field")
   private List<ParquetField> fields;
 
+  /** Conditions on the rows of the files, pushed down to the Parquet reader */
+  @HopMetadataProperty(groupKey = "filters", key = "filter")
+  private List<ParquetFilter> filters;
+
+  /** Every copy of the transform reads a part of the row groups of every file */
+  @HopMetadataProperty(key = "split_row_groups")
+  private boolean splittingRowGroups;
+
   public ParquetInputMeta() {
     fields = new ArrayList<>();
+    filters = new ArrayList<>();
   }
 
   @Override
@@ -101,4 +110,32 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   public void setFields(List<ParquetField> fields) {
     this.fields = fields;
   }
+
+  /**
+   * Gets filters
+   *
+   * @return value of filters
+   */
+  public List<ParquetFilter> getFilters() {
+    return filters;
+  }
+
+  /** @param filters The filters to set */
+  public void setFilters(List<ParquetFilter> filters) {
+    this.filters = filters;
+  }
+
+  /**
+   * Gets splittingRowGroups
+   *
+   * @return value of splittingRowGroups
+   */
+  public boolean isSplittingRowGroups() {
+    return splittingRowGroups;
+  }
+
+  /** @param splittingRowGroups The splittingRowGroups to set */
+  public void setSplittingRowGroups(boolean splittingRowGroups) {
+    this.splittingRowGroups = splittingRowGroups;
+  }
 }
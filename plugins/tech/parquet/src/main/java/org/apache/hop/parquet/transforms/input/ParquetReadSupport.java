@@ -23,7 +23,10 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +34,19 @@ import java.util.Map;
 public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
 
   private List<ParquetField> fields;
+  private List<ParquetFilter> filters;
 
   public ParquetReadSupport(List<ParquetField> fields) {
+    this(fields, Collections.emptyList());
+  }
+
+  /**
+   * @param fields the fields to read
+   * @param filters the filters on the rows, the fields they use are read as well
+   */
+  public ParquetReadSupport(List<ParquetField> fields, List<ParquetFilter> filters) {
     this.fields = fields;
+    this.filters = filters;
   }
 
   private MessageType messageType;
@@ -41,7 +54,34 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
   @Override
   public ReadContext init(InitContext context) {
     this.messageType = context.getFileSchema();
-    return new ReadContext(messageType, new HashMap<>());
+    if (fields.isEmpty()) {
+      return new ReadContext(messageType, new HashMap<>());
+    }
+
+    // Only read the columns of the fields we need
+    //
+    List<Type> projectedTypes = new ArrayList<>();
+    for (Type type : messageType.getFields()) {
+      if (isProjected(type.getName())) {
+        projectedTypes.add(type);
+      }
+    }
+    MessageType requestedSchema = new MessageType(messageType.getName(), projectedTypes);
+    return new ReadContext(requestedSchema, new HashMap<>());
+  }
+
+  private boolean isProjected(String name) {
+    for (ParquetField field : fields) {
+      if (name.equalsIgnoreCase(field.getSourceField())) {
+        return true;
+      }
+    }
+    for (ParquetFilter filter : filters) {
+      if (name.equalsIgnoreCase(filter.getSourceField())) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -50,7 +90,7 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
       Map<String, String> keyValueMetaData,
       MessageType messageType,
       ReadContext readContext) {
-    return new ParquetRecordMaterializer(messageType, fields);
+    return new ParquetRecordMaterializer(readContext.getRequestedSchema(), fields);
   }
 
   /**
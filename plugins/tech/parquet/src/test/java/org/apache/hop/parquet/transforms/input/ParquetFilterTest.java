@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit.MICROS;
+import static org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit.MILLIS;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT96;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParquetFilterTest {
+
+  private MessageType schema;
+  private IVariables variables;
+
+  @Before
+  public void setUp() {
+    schema =
+        Types.buildMessage()
+            .required(INT32)
+            .named("id")
+            .required(INT32)
+            .as(LogicalTypeAnnotation.dateType())
+            .named("day")
+            .required(INT32)
+            .as(LogicalTypeAnnotation.timeType(false, MILLIS))
+            .named("time")
+            .required(INT64)
+            .as(LogicalTypeAnnotation.timestampType(true, MILLIS))
+            .named("created")
+            .required(INT64)
+            .as(LogicalTypeAnnotation.timestampType(false, MICROS))
+            .named("local_created")
+            .required(INT64)
+            .as(LogicalTypeAnnotation.decimalType(2, 18))
+            .named("amount")
+            .required(BINARY)
+            .as(LogicalTypeAnnotation.decimalType(2, 30))
+            .named("big_amount")
+            .required(FIXED_LEN_BYTE_ARRAY)
+            .length(4)
+            .as(LogicalTypeAnnotation.decimalType(2, 9))
+            .named("fixed_amount")
+            .required(BINARY)
+            .as(LogicalTypeAnnotation.stringType())
+            .named("name")
+            .required(INT96)
+            .named("legacy")
+            .named("test");
+    variables = new Variables();
+    variables.setVariable("ID", "42");
+  }
+
+  private Object valueOf(String field, String operator, String value) throws HopException {
+    FilterPredicate predicate =
+        new ParquetFilter(field, operator, value).createPredicate(schema, variables);
+    if (predicate instanceof Operators.Eq) {
+      return ((Operators.Eq<?>) predicate).getValue();
+    }
+    if (predicate instanceof Operators.NotEq) {
+      return ((Operators.NotEq<?>) predicate).getValue();
+    }
+    if (predicate instanceof Operators.Lt) {
+      return ((Operators.Lt<?>) predicate).getValue();
+    }
+    if (predicate instanceof Operators.GtEq) {
+      return ((Operators.GtEq<?>) predicate).getValue();
+    }
+    throw new IllegalStateException("Unexpected predicate " + predicate);
+  }
+
+  @Test
+  public void testInteger() throws Exception {
+    assertEquals(42, valueOf("ID", "=", "${ID}"));
+    assertNull(valueOf("id", "IS NULL", null));
+  }
+
+  @Test
+  public void testDate() throws Exception {
+    assertEquals((int) LocalDate.of(2024, 1, 1).toEpochDay(), valueOf("day", ">=", "2024-01-01"));
+  }
+
+  @Test
+  public void testTime() throws Exception {
+    assertEquals((10 * 3600 + 30 * 60) * 1000 + 500, valueOf("time", "<", "10:30:00.500"));
+  }
+
+  @Test
+  public void testTimestamp() throws Exception {
+    // An instant, given in the local time zone
+    long millis =
+        LocalDateTime.of(2024, 1, 1, 12, 30)
+            .atZone(ZoneId.systemDefault())
+            .toInstant()
+            .toEpochMilli();
+    assertEquals(millis, valueOf("created", "=", "2024-01-01 12:30:00"));
+    assertEquals(millis, valueOf("created", "=", "2024-01-01T12:30"));
+
+    // A local timestamp, as it is
+    assertEquals(
+        LocalDate.of(2024, 1, 1).toEpochDay() * 86400L * 1000000L,
+        valueOf("local_created", "=", "2024-01-01"));
+  }
+
+  @Test
+  public void testDecimal() throws Exception {
+    assertEquals(12345L, valueOf("amount", "=", "123.45"));
+    assertEquals(-1000L, valueOf("amount", "=", "-10"));
+    assertEquals(
+        Binary.fromConstantByteArray(new byte[] {0x30, 0x39}),
+        valueOf("big_amount", "=", "123.45"));
+
+    // Fixed length values are sign extended
+    Binary negative = (Binary) valueOf("fixed_amount", "=", "-1.00");
+    assertEquals(Binary.fromConstantByteArray(new byte[] {-1, -1, -1, -100}), negative);
+    Binary positive = (Binary) valueOf("fixed_amount", "=", "0.01");
+    assertEquals(Binary.fromConstantByteArray(new byte[] {0, 0, 0, 1}), positive);
+    PrimitiveType fixedType = schema.getType("fixed_amount").asPrimitiveType();
+    assertTrue(fixedType.comparator().compare(negative, positive) < 0);
+  }
+
+  @Test
+  public void testString() throws Exception {
+    assertEquals(Binary.fromString(" Hop "), valueOf("name", "<>", " Hop "));
+  }
+
+  @Test
+  public void testInvalidValues() {
+    assertFails("id", "not a number");
+    assertFails("day", "01/01/2024");
+    assertFails("created", "yesterday");
+    // Too many decimals or digits for the field
+    assertFails("amount", "1.234");
+    assertFails("fixed_amount", "100000000");
+  }
+
+  @Test
+  public void testUnsupportedType() {
+    assertFails("legacy", "2024-01-01");
+    assertFails("unknown", "1");
+  }
+
+  private void assertFails(String field, String value) {
+    try {
+      new ParquetFilter(field, "=", value).createPredicate(schema, variables);
+      fail("Filtering " + field + " on '" + value + "' should fail");
+    } catch (HopException e) {
+      // expected
+    }
+  }
+}
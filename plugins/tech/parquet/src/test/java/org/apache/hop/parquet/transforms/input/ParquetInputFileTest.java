@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.provider.local.LocalFile;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.EOFException;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParquetInputFileTest {
+
+  /** Map the file in segments of 16 bytes so reads cross segments */
+  private static final int SEGMENT_BITS = 4;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private byte[] data;
+  private ParquetInputFile inputFile;
+
+  @Before
+  public void setUp() throws Exception {
+    data = new byte[100];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    File file = folder.newFile("test.parquet");
+    Files.write(file.toPath(), data);
+    FileObject fileObject = HopVfs.getFileObject(file.getAbsolutePath());
+    assertTrue(fileObject instanceof LocalFile);
+    inputFile = new ParquetInputFile(fileObject, SEGMENT_BITS);
+  }
+
+  @Test
+  public void testReadAcrossSegments() throws Exception {
+    assertEquals(data.length, inputFile.getLength());
+    try (SeekableInputStream stream = inputFile.newStream()) {
+      stream.seek(10);
+      byte[] bytes = new byte[40];
+      stream.readFully(bytes);
+      assertArrayEquals(slice(10, 40), bytes);
+      assertEquals(50, stream.getPos());
+
+      // Single bytes on both sides of a segment boundary
+      stream.seek(47);
+      assertEquals(47, stream.read());
+      assertEquals(48, stream.read());
+
+      stream.seek(90);
+      assertEquals(10, stream.read(new byte[20], 0, 20));
+      assertEquals(-1, stream.read());
+    }
+  }
+
+  @Test
+  public void testReadByteBuffersAcrossSegments() throws Exception {
+    try (SeekableInputStream stream = inputFile.newStream()) {
+      stream.seek(5);
+      ByteBuffer heap = ByteBuffer.allocate(30);
+      stream.readFully(heap);
+      assertArrayEquals(slice(5, 30), heap.array());
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(33);
+      stream.readFully(direct);
+      direct.flip();
+      byte[] bytes = new byte[direct.remaining()];
+      direct.get(bytes);
+      assertArrayEquals(slice(35, 33), bytes);
+      assertEquals(68, stream.getPos());
+    }
+  }
+
+  @Test
+  public void testStreamsHaveTheirOwnPosition() throws Exception {
+    try (SeekableInputStream first = inputFile.newStream();
+        SeekableInputStream second = inputFile.newStream()) {
+      first.seek(15);
+      second.seek(63);
+      assertEquals(15, first.read());
+      assertEquals(63, second.read());
+      assertEquals(16, first.read());
+    }
+  }
+
+  @Test(expected = EOFException.class)
+  public void testReadPastEnd() throws Exception {
+    try (SeekableInputStream stream = inputFile.newStream()) {
+      stream.seek(95);
+      stream.readFully(new byte[10]);
+    }
+  }
+
+  private byte[] slice(int offset, int length) {
+    byte[] bytes = new byte[length];
+    System.arraycopy(data, offset, bytes, 0, length);
+    return bytes;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class ParquetInputTest {
+
+  private TransformMockHelper<ParquetInputMeta, ParquetInputData> helper;
+  private TransformMeta filenames;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  @Before
+  public void setUp() {
+    helper =
+        new TransformMockHelper<>("input", ParquetInputMeta.class, ParquetInputData.class);
+    when(helper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(helper.iLogChannel);
+    when(helper.pipeline.isRunning()).thenReturn(true);
+    when(helper.transformMeta.getCopies(any())).thenReturn(3);
+
+    filenames = new TransformMeta("filenames", new DummyMeta());
+    when(helper.pipelineMeta.findPreviousTransforms(helper.transformMeta))
+        .thenReturn(Collections.singletonList(filenames));
+  }
+
+  @After
+  public void tearDown() {
+    helper.cleanUp();
+  }
+
+  @Test
+  public void testSplittingNeedsCopiedFileNames() {
+    when(helper.iTransformMeta.isSplittingRowGroups()).thenReturn(true);
+
+    filenames.setDistributes(true);
+    assertFalse(init(0));
+
+    filenames.setDistributes(false);
+    assertTrue(init(0));
+    assertTrue(init(2));
+
+    // The same number of copies on both sides connects every copy to one other copy only
+    //
+    filenames.setCopies(3);
+    assertFalse(init(1));
+  }
+
+  @Test
+  public void testDistributingWithoutSplitting() {
+    when(helper.iTransformMeta.isSplittingRowGroups()).thenReturn(false);
+    filenames.setDistributes(true);
+    assertTrue(init(0));
+  }
+
+  private boolean init(int copyNr) {
+    ParquetInput transform =
+        new ParquetInput(
+            helper.transformMeta,
+            helper.iTransformMeta,
+            helper.iTransformData,
+            copyNr,
+            helper.pipelineMeta,
+            helper.pipeline);
+    return transform.init();
+  }
+}
@@ -18,10 +18,10 @@
 package org.apache.hop.pipeline.transforms.combinationlookup;
 
 import org.apache.hop.core.Const;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.*;
+import org.apache.hop.core.hash.LookupCache;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -105,10 +105,21 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
 
     // try to find the row in the cache...
     //
-    Long tk = data.cache.get(new RowMetaAndData(rowMeta, row));
+    Long tk = getCache(rowMeta).get(row);
     return tk;
   }
 
+  /**
+   * The cache is created for the row metadata of the first key we look up. It keeps the given
+   * number of most recently used keys, or all of them when the cache size is 0.
+   */
+  private LookupCache<Long> getCache(IRowMeta rowMeta) {
+    if (data.cache == null) {
+      data.cache = new LookupCache<>(rowMeta, meta.getCacheSize());
+    }
+    return data.cache;
+  }
+
   /**
    * Adds a row to the cache In case we are doing updates, we need to store the complete rows from
    * the database. These are the values we need to store
@@ -128,72 +139,9 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
     }
 
     // store it in the cache if needed.
-    data.cache.put(new RowMetaAndData(rowMeta, row), tk);
-
-    // check if the size is not too big...
-    // Allow for a buffer overrun of 20% and then remove those 20% in one go.
-    // Just to keep performance in track.
+    // The least recently used keys are evicted when the cache gets too big.
     //
-    int tenPercent = meta.getCacheSize() / 10;
-    if (meta.getCacheSize() > 0 && data.cache.size() > meta.getCacheSize() + tenPercent) {
-      // Which cache entries do we delete here?
-      // We delete those with the lowest technical key...
-      // Those would arguably be the "oldest" dimension entries.
-      // Oh well... Nothing is going to be perfect here...
-      //
-      // Getting the lowest 20% requires some kind of sorting algorithm and I'm not sure we want to
-      // do that.
-      // Sorting is slow and even in the best case situation we need to do 2 passes over the cache
-      // entries...
-      //
-      // Perhaps we should get 20% random values and delete everything below the lowest but one TK.
-      //
-      List<RowMetaAndData> keys = new ArrayList<>(data.cache.keySet());
-      int sizeBefore = keys.size();
-      List<Long> samples = new ArrayList<>();
-
-      // Take 10 sample technical keys....
-      int transformsize = keys.size() / 5;
-      if (transformsize < 1) {
-        transformsize = 1; // make sure we have no endless loop
-      }
-      for (int i = 0; i < keys.size(); i += transformsize) {
-        RowMetaAndData key = keys.get(i);
-        Long value = data.cache.get(key);
-        if (value != null) {
-          samples.add(value);
-        }
-      }
-      // Sort these 5 elements...
-      Collections.sort(samples);
-
-      // What is the smallest?
-      // Take the second, not the fist in the list, otherwise we would be removing a single entry =
-      // not good.
-      if (samples.size() > 1) {
-        data.smallestCacheKey = samples.get(1).longValue();
-      } else { // except when there is only one sample
-        data.smallestCacheKey = samples.get(0).longValue();
-      }
-
-      // Remove anything in the cache <= smallest.
-      // This makes it almost single pass...
-      // This algorithm is not 100% correct, but I guess it beats sorting the whole cache all the
-      // time.
-      //
-      for (int i = 0; i < keys.size(); i++) {
-        RowMetaAndData key = keys.get(i);
-        Long value = data.cache.get(key);
-        if (value != null) {
-          if (value.longValue() <= data.smallestCacheKey) {
-            data.cache.remove(key); // this one has to go.
-          }
-        }
-      }
-
-      int sizeAfter = data.cache.size();
-      logDetailed("Reduced the lookup cache from " + sizeBefore + " to " + sizeAfter + " rows.");
-    }
+    getCache(rowMeta).put(row, tk);
 
     if (isRowLevel()) {
       logRowlevel("Cache store: key=" + rowMeta.getString(row) + "    key=" + tk);
@@ -680,11 +628,6 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
       data.realSchemaName = resolve(meta.getSchemaName());
       data.realTableName = resolve(meta.getTableName());
 
-      if (meta.getCacheSize() > 0) {
-        data.cache = new HashMap<>((int) (meta.getCacheSize() * 1.5));
-      } else {
-        data.cache = new HashMap<>();
-      }
       if (meta.getDatabaseMeta() == null) {
         logError(
             BaseMessages.getString(
@@ -712,6 +655,10 @@ public class CombinationLookup extends BaseTransform<CombinationLookupMeta, Comb
 
   @Override
   public void dispose() {
+    if (data.cache != null) {
+      data.cache.logStatistics(log);
+      data.cache = null;
+    }
     if (data.db != null) {
       try {
         if (!data.db.isAutoCommit()) {
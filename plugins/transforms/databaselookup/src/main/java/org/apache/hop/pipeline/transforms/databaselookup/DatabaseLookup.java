@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.databaselookup;
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
@@ -40,15 +41,26 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /** Looks up values in a database using keys from input streams. */
 public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLookupData> {
 
   private static final Class<?> PKG = DatabaseLookupMeta.class; // For Translator
 
+  /** Oracle accepts at most 1000 expressions in a list, we keep batch queries below that */
+  private static final int MAX_BATCH_PARAMETERS = 1000;
+
   public DatabaseLookup(
       TransformMeta transformMeta,
       DatabaseLookupMeta meta,
@@ -68,39 +80,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
    */
   @VisibleForTesting
   synchronized Object[] lookupValues(IRowMeta inputRowMeta, Object[] row) throws HopException {
-    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
-
-    Object[] lookupRow = new Object[data.lookupMeta.size()];
-    int lookupIndex = 0;
-
-    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
-      if (data.keynrs[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-      if (data.keynrs2[i] >= 0) {
-        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
-        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
-        lookupRow[lookupIndex] = row[data.keynrs2[i]];
-
-        // Try to convert type if needed
-        if (input.getType() != value.getType()
-            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
-          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
-          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
-        }
-        lookupIndex++;
-      }
-    }
+    Object[] lookupRow = createLookupRow(inputRowMeta, row);
 
     Object[] add;
     boolean cacheNow = false;
@@ -136,6 +116,83 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
     }
 
+    return addLookupValues(
+        inputRowMeta,
+        row,
+        lookupRow,
+        add,
+        cacheHit,
+        cacheNow,
+        cacheNow ? data.db.getReturnRowMeta() : null);
+  }
+
+  /**
+   * Create the row with the key values to look up, converted to the data types of the table.
+   *
+   * @param inputRowMeta The metadata of the input row
+   * @param row The input row
+   * @return the key values to look up
+   * @throws HopException In case a key value can't be converted.
+   */
+  private Object[] createLookupRow(IRowMeta inputRowMeta, Object[] row) throws HopException {
+    Object[] lookupRow = new Object[data.lookupMeta.size()];
+    int lookupIndex = 0;
+
+    for (int i = 0; i < meta.getLookup().getKeyFields().size(); i++) {
+      if (data.keynrs[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+      if (data.keynrs2[i] >= 0) {
+        IValueMeta input = inputRowMeta.getValueMeta(data.keynrs2[i]);
+        IValueMeta value = data.lookupMeta.getValueMeta(lookupIndex);
+        lookupRow[lookupIndex] = row[data.keynrs2[i]];
+
+        // Try to convert type if needed
+        if (input.getType() != value.getType()
+            || IValueMeta.STORAGE_TYPE_BINARY_STRING == input.getStorageType()) {
+          lookupRow[lookupIndex] = value.convertData(input, lookupRow[lookupIndex]);
+          value.setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+        }
+        lookupIndex++;
+      }
+    }
+    return lookupRow;
+  }
+
+  /**
+   * Add the looked up values, or the defaults when nothing was found, to the input row.
+   *
+   * @param inputRowMeta The metadata of the input row
+   * @param row The input row
+   * @param lookupRow The key values which were looked up
+   * @param add The values which were found or null if nothing was found
+   * @param cacheHit true if the values came from the cache
+   * @param cacheNow true if the values came from the database and can be stored in the cache
+   * @param returnedRowMeta The metadata of the values the database returned
+   * @return the resulting row or null if the row was removed or sent to error handling
+   * @throws HopException In case something goes wrong.
+   */
+  private Object[] addLookupValues(
+      IRowMeta inputRowMeta,
+      Object[] row,
+      Object[] lookupRow,
+      Object[] add,
+      boolean cacheHit,
+      boolean cacheNow,
+      IRowMeta returnedRowMeta)
+      throws HopException {
+    Object[] outputRow = RowDataUtil.resizeArray(row, data.outputRowMeta.size());
+
     if (add == null) { // nothing was found, unknown code: add default values
       if (meta.getLookup().isEatingRowOnLookupFailure()) {
         return null;
@@ -185,7 +242,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
         //
         int[] types = data.returnValueTypes;
         for (int i = 0; i < types.length; i++) {
-          IValueMeta returned = data.db.getReturnRowMeta().getValueMeta(i);
+          IValueMeta returned = returnedRowMeta.getValueMeta(i);
           IValueMeta expected = data.returnMeta.getValueMeta(i);
 
           if (returned != null && types[i] > 0 && types[i] != returned.getType()) {
@@ -324,6 +381,9 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public boolean processRow() throws HopException {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      if (data.batchRows != null && !data.batchRows.isEmpty() && !lookupBatch()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -416,7 +476,10 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
 
       if (meta.isCached()) {
-        data.cache = DefaultCache.newCache(data, meta.getCacheSize());
+        // When all data is loaded in the cache we keep all of it
+        //
+        data.cache =
+            DefaultCache.newCache(data, meta.isLoadingAllDataInCache() ? 0 : meta.getCacheSize());
       }
 
       determineFieldsTypesQueryingDb();
@@ -441,7 +504,25 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       // If the user selected to load all data into the cache at startup, that's what we do now...
       //
       if (meta.isCached() && meta.isLoadingAllDataInCache()) {
-        loadAllTableDataIntoTheCache();
+        if (meta.isSharingCache()) {
+          acquireSharedCache();
+        } else {
+          loadAllTableDataIntoTheCache();
+        }
+      }
+
+      // Look up the keys of a number of rows at once?
+      //
+      if (meta.getBatchSize() > 1) {
+        if (isBatchLookupPossible()) {
+          data.batchRows = new ArrayList<>(meta.getBatchSize());
+          data.batchQueryKeys =
+              Math.max(
+                  1, Math.min(meta.getBatchSize(), MAX_BATCH_PARAMETERS / data.lookupMeta.size()));
+          data.batchStatements = new HashMap<>();
+        } else {
+          logBasic(BaseMessages.getString(PKG, "DatabaseLookup.Log.BatchLookupDisabled"));
+        }
       }
     }
 
@@ -451,81 +532,413 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
               + getInputRowMeta().getString(r));
     }
 
+    if (data.batchRows != null) {
+      data.batchRows.add(r);
+      if (data.batchRows.size() >= meta.getBatchSize()) {
+        return lookupBatch();
+      }
+      return true;
+    }
+
+    return lookupRow(r);
+  }
+
+  /**
+   * Look up the values for a single row and pass the result on.
+   *
+   * @param r The input row
+   * @return false if the transform has to stop
+   * @throws HopException In case something goes wrong.
+   */
+  private boolean lookupRow(Object[] r) throws HopException {
     try {
       // add new lookup values to the row
       Object[] outputRow = lookupValues(getInputRowMeta(), r);
 
       if (outputRow != null) {
-        // copy row to output rowset(s)
-        putRow(data.outputRowMeta, outputRow);
+        putLookupResult(r, outputRow);
+      }
+    } catch (HopException e) {
+      return handleLookupError(r, e);
+    }
 
-        if (log.isRowLevel()) {
-          logRowlevel(
-              BaseMessages.getString(PKG, "DatabaseLookup.Log.WroteRowToNextTransform")
-                  + getInputRowMeta().getString(r));
+    return true;
+  }
+
+  private void putLookupResult(Object[] r, Object[] outputRow) throws HopException {
+    // copy row to output rowset(s)
+    putRow(data.outputRowMeta, outputRow);
+
+    if (log.isRowLevel()) {
+      logRowlevel(
+          BaseMessages.getString(PKG, "DatabaseLookup.Log.WroteRowToNextTransform")
+              + getInputRowMeta().getString(r));
+    }
+    if (checkFeedback(getLinesRead())) {
+      logBasic("linenr " + getLinesRead());
+    }
+  }
+
+  /**
+   * Send a row which couldn't be looked up to the error handling or stop the transform.
+   *
+   * @return false if the transform has to stop
+   */
+  private boolean handleLookupError(Object[] r, HopException e) throws HopException {
+    if (getTransformMeta().isDoingErrorHandling()) {
+      putError(getInputRowMeta(), r, 1, e.getMessage(), null, "DBLOOKUPD001");
+      return true;
+    }
+    logError(
+        BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
+            + e.getMessage());
+    setErrors(1);
+    stopAll();
+    setOutputDone(); // signal end to receiver(s)
+    return false;
+  }
+
+  /**
+   * We can only look up the keys of many rows with a single query when they are all compared with
+   * "=". When all data is in the cache we don't go to the database at all.
+   */
+  private boolean isBatchLookupPossible() {
+    if (meta.isCached() && meta.isLoadingAllDataInCache()) {
+      return false;
+    }
+    for (int condition : data.conditions) {
+      if (condition != DatabaseLookupMeta.CONDITION_EQ) {
+        return false;
+      }
+    }
+    return data.lookupMeta.size() > 0
+        && data.lookupMeta.size() == meta.getLookup().getKeyFields().size();
+  }
+
+  /**
+   * Look up the distinct keys of the buffered rows which are not in the cache with as few queries
+   * as possible and pass the rows on in the order in which they came in.
+   *
+   * @return false if the transform has to stop
+   * @throws HopException In case something goes wrong.
+   */
+  private boolean lookupBatch() throws HopException {
+    List<Object[]> rows = data.batchRows;
+    data.batchRows = new ArrayList<>(meta.getBatchSize());
+
+    Object[][] lookupRows = new Object[rows.size()][];
+    Object[][] cachedRows = new Object[rows.size()][];
+    Map<RowMetaAndData, Object[]> found = new LinkedHashMap<>();
+    try {
+      for (int i = 0; i < rows.size(); i++) {
+        lookupRows[i] = createLookupRow(getInputRowMeta(), rows.get(i));
+        if (meta.isCached()) {
+          cachedRows[i] = data.cache.getRowFromCache(data.lookupMeta, lookupRows[i]);
         }
-        if (checkFeedback(getLinesRead())) {
-          logBasic("linenr " + getLinesRead());
+        if (cachedRows[i] == null) {
+          found.put(new RowMetaAndData(data.lookupMeta, lookupRows[i]), null);
         }
       }
+      lookupKeys(found);
     } catch (HopException e) {
-      if (getTransformMeta().isDoingErrorHandling()) {
-        putError(getInputRowMeta(), r, 1, e.getMessage(), null, "DBLOOKUPD001");
-      } else {
-        logError(
-            BaseMessages.getString(PKG, "DatabaseLookup.ERROR003.UnexpectedErrorDuringProcessing")
-                + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
+      // Look up the rows one by one to report the problem with the rows that cause it
+      //
+      if (log.isDetailed()) {
+        logDetailed(e.getMessage());
+      }
+      for (Object[] r : rows) {
+        if (!lookupRow(r)) {
+          return false;
+        }
       }
+      return true;
     }
 
+    Set<RowMetaAndData> stored = new HashSet<>();
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] r = rows.get(i);
+      try {
+        Object[] outputRow;
+        if (cachedRows[i] != null) {
+          outputRow =
+              addLookupValues(
+                  getInputRowMeta(), r, lookupRows[i], cachedRows[i], true, false, null);
+        } else {
+          RowMetaAndData key = new RowMetaAndData(data.lookupMeta, lookupRows[i]);
+          Object[] add = found.get(key);
+
+          // Rows with the same key each get their own copy of the values to convert
+          //
+          outputRow =
+              addLookupValues(
+                  getInputRowMeta(),
+                  r,
+                  lookupRows[i],
+                  add == null ? null : add.clone(),
+                  false,
+                  stored.add(key),
+                  data.batchReturnMeta);
+        }
+        if (outputRow != null) {
+          putLookupResult(r, outputRow);
+        }
+      } catch (HopException e) {
+        if (!handleLookupError(r, e)) {
+          return false;
+        }
+      }
+    }
     return true;
   }
 
-  private void loadAllTableDataIntoTheCache() throws HopException {
-    DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+  /**
+   * Look up the values for the given keys, at most {@code data.batchQueryKeys} keys per query.
+   *
+   * @param found The keys to look up, the values found are stored with them
+   * @throws HopException In case something goes wrong.
+   */
+  private void lookupKeys(Map<RowMetaAndData, Object[]> found) throws HopException {
+    // A key with a null value never equals anything in the database
+    //
+    List<RowMetaAndData> keys = new ArrayList<>(found.size());
+    for (RowMetaAndData key : found.keySet()) {
+      if (!Arrays.asList(key.getData()).contains(null)) {
+        keys.add(key);
+      }
+    }
 
-    Database db = getDatabase(dbMeta);
-    connectDatabase(db);
+    for (int start = 0; start < keys.size(); start += data.batchQueryKeys) {
+      List<RowMetaAndData> queryKeys =
+          keys.subList(start, Math.min(keys.size(), start + data.batchQueryKeys));
+      if (!lookupKeys(queryKeys, found)) {
+        // The database returned keys we can't match, for example because it compares strings
+        // without regard to case. Look up the keys which weren't matched one by one.
+        //
+        for (RowMetaAndData key : queryKeys) {
+          if (found.get(key) == null) {
+            data.db.setValuesLookup(data.lookupMeta, key.getData());
+            found.put(key, data.db.getLookup(meta.getLookup().isFailingOnMultipleResults()));
+          }
+        }
+      }
+    }
+  }
 
-    Lookup lookup = meta.getLookup();
+  /**
+   * Look up the values for a number of keys with a single query.
+   *
+   * @return false if the database returned keys we couldn't match with the given keys
+   */
+  private boolean lookupKeys(List<RowMetaAndData> keys, Map<RowMetaAndData, Object[]> found)
+      throws HopException {
+    // Use a few statement sizes so the database can reuse the execution plans
+    //
+    int nrKeys = 1;
+    while (nrKeys < keys.size()) {
+      nrKeys <<= 1;
+    }
+    nrKeys = Math.min(nrKeys, data.batchQueryKeys);
 
-    try {
-      // We only want to get the used table fields...
-      //
-      String sql = "SELECT ";
-      List<KeyField> keyFields = lookup.getKeyFields();
+    PreparedStatement ps = data.batchStatements.get(nrKeys);
+    if (ps == null) {
+      ps = data.db.prepareSql(getBatchLookupSql(nrKeys));
+      data.batchStatements.put(nrKeys, ps);
+    }
 
-      for (int i = 0; i < keyFields.size(); i++) {
-        KeyField keyField = keyFields.get(i);
+    // Repeat the last key to fill up the statement
+    //
+    int nrValues = data.lookupMeta.size();
+    List<IValueMeta> parameterMetas = new ArrayList<>(nrKeys * nrValues);
+    Object[] parameters = new Object[nrKeys * nrValues];
+    for (int k = 0; k < nrKeys; k++) {
+      Object[] key = keys.get(Math.min(k, keys.size() - 1)).getData();
+      System.arraycopy(key, 0, parameters, k * nrValues, nrValues);
+      parameterMetas.addAll(data.lookupMeta.getValueMetaList());
+    }
+    IRowMeta parameterMeta = new RowMeta();
+    parameterMeta.setValueMetaList(parameterMetas);
 
-        if (i > 0) {
-          sql += ", ";
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "DatabaseLookup.Log.BatchLookup", Integer.toString(keys.size())));
+    }
+    data.db.setValues(parameterMeta, parameters, ps);
+
+    boolean allMatched = true;
+    ResultSet resultSet = null;
+    try {
+      resultSet = ps.executeQuery();
+      if (data.batchResultMeta == null) {
+        data.batchResultMeta = data.db.getResultSetRowMeta(resultSet);
+        data.batchReturnMeta = new RowMeta();
+        for (int i = nrValues; i < data.batchResultMeta.size(); i++) {
+          data.batchReturnMeta.addValueMeta(data.batchResultMeta.getValueMeta(i));
         }
-        sql += dbMeta.quoteField(keyField.getTableField());
       }
 
-      // Also grab the return field...
-      //
-      List<ReturnValue> returnValues = lookup.getReturnValues();
-      for (int i = 0; i < returnValues.size(); i++) {
-        ReturnValue returnValue = returnValues.get(i);
-        sql += ", " + dbMeta.quoteField(returnValue.getTableField());
+      Object[] resultRow;
+      while ((resultRow = data.db.getRow(resultSet, null, data.batchResultMeta)) != null) {
+        Object[] keyData = new Object[nrValues];
+        for (int i = 0; i < nrValues; i++) {
+          IValueMeta keyMeta = data.lookupMeta.getValueMeta(i);
+          IValueMeta resultMeta = data.batchResultMeta.getValueMeta(i);
+          keyData[i] =
+              keyMeta.getType() == resultMeta.getType()
+                  ? resultRow[i]
+                  : keyMeta.convertData(resultMeta, resultRow[i]);
+        }
+        RowMetaAndData key = new RowMetaAndData(data.lookupMeta, keyData);
+        if (!found.containsKey(key)) {
+          allMatched = false;
+        } else if (found.get(key) == null) {
+          // The first row wins, just like with a single lookup
+          //
+          found.put(key, Arrays.copyOfRange(resultRow, nrValues, data.batchResultMeta.size()));
+        } else if (meta.getLookup().isFailingOnMultipleResults()) {
+          throw new HopDatabaseException(
+              BaseMessages.getString(
+                  PKG,
+                  "DatabaseLookup.Exception.MultipleResults",
+                  data.lookupMeta.getString(keyData)));
+        }
       }
-      // The schema/table
-      //
-      sql +=
-          " FROM "
-              + dbMeta.getQuotedSchemaTableCombination(
-                  this, meta.getSchemaName(), meta.getTableName());
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          BaseMessages.getString(PKG, "DatabaseLookup.Exception.BatchLookupFailed"), e);
+    } finally {
+      if (resultSet != null) {
+        try {
+          resultSet.close();
+        } catch (SQLException e) {
+          logError(BaseMessages.getString(PKG, "DatabaseLookup.Exception.BatchLookupFailed"), e);
+        }
+      }
+    }
+    return allMatched;
+  }
+
+  /** The query to look up the given number of keys */
+  private String getBatchLookupSql(int nrKeys) {
+    DatabaseMeta databaseMeta = data.db.getDatabaseMeta();
+    Lookup lookup = meta.getLookup();
+
+    List<String> keyFields = new ArrayList<>();
+    for (KeyField keyField : lookup.getKeyFields()) {
+      keyFields.add(databaseMeta.quoteField(keyField.getTableField()));
+    }
 
-      // order by?
-      if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
-        sql += " ORDER BY " + lookup.getOrderByClause();
+    StringBuilder sql = new StringBuilder("SELECT ");
+    sql.append(String.join(", ", keyFields));
+    for (ReturnValue returnValue : lookup.getReturnValues()) {
+      sql.append(", ").append(databaseMeta.quoteField(returnValue.getTableField()));
+    }
+    sql.append(" FROM ")
+        .append(
+            databaseMeta.getQuotedSchemaTableCombination(
+                this, meta.getSchemaName(), meta.getTableName()));
+
+    sql.append(" WHERE ");
+    if (keyFields.size() == 1) {
+      sql.append(keyFields.get(0)).append(" IN (");
+      for (int k = 0; k < nrKeys; k++) {
+        sql.append(k == 0 ? "?" : ", ?");
       }
+      sql.append(')');
+    } else {
+      for (int k = 0; k < nrKeys; k++) {
+        sql.append(k == 0 ? "(" : " OR (");
+        for (int i = 0; i < keyFields.size(); i++) {
+          sql.append(i == 0 ? "" : " AND ").append(keyFields.get(i)).append(" = ?");
+        }
+        sql.append(')');
+      }
+    }
+
+    if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
+      sql.append(" ORDER BY ").append(lookup.getOrderByClause());
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Use the cache with all the rows of the table which the copies of all transforms reading the
+   * same rows share. The first one loads it.
+   */
+  private void acquireSharedCache() throws HopException {
+    DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+
+    // The rows and the way they are indexed depend on the connection, the query and the conditions
+    //
+    String key =
+        dbMeta.getURL(this)
+            + Const.CR
+            + Const.NVL(resolve(dbMeta.getUsername()), "")
+            + Const.CR
+            + getLoadAllSql(dbMeta)
+            + Const.CR
+            + Arrays.toString(data.conditions)
+            + Const.CR
+            + Const.NVL(getVariable(Const.HOP_DATABASE_LOOKUP_CACHE_VERSION), "");
+
+    data.cache =
+        SharedCache.acquire(
+            key,
+            meta.getCacheTimeToLive() * 1000L,
+            () -> {
+              data.cache = DefaultCache.newSharedCache(data);
+              loadAllTableDataIntoTheCache();
+              return data.cache;
+            });
+    data.sharedCacheKey = key;
+  }
+
+  private String getLoadAllSql(DatabaseMeta dbMeta) {
+    Lookup lookup = meta.getLookup();
+
+    // We only want to get the used table fields...
+    //
+    String sql = "SELECT ";
+    List<KeyField> keyFields = lookup.getKeyFields();
+
+    for (int i = 0; i < keyFields.size(); i++) {
+      KeyField keyField = keyFields.get(i);
+
+      if (i > 0) {
+        sql += ", ";
+      }
+      sql += dbMeta.quoteField(keyField.getTableField());
+    }
+
+    // Also grab the return field...
+    //
+    List<ReturnValue> returnValues = lookup.getReturnValues();
+    for (int i = 0; i < returnValues.size(); i++) {
+      ReturnValue returnValue = returnValues.get(i);
+      sql += ", " + dbMeta.quoteField(returnValue.getTableField());
+    }
+    // The schema/table
+    //
+    sql +=
+        " FROM "
+            + dbMeta.getQuotedSchemaTableCombination(
+                this, meta.getSchemaName(), meta.getTableName());
+
+    // order by?
+    if (StringUtils.isNotEmpty(lookup.getOrderByClause())) {
+      sql += " ORDER BY " + lookup.getOrderByClause();
+    }
+    return sql;
+  }
+
+  private void loadAllTableDataIntoTheCache() throws HopException {
+    DatabaseMeta dbMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
+
+    Database db = getDatabase(dbMeta);
+    connectDatabase(db);
+
+    try {
+      String sql = getLoadAllSql(dbMeta);
 
       // Now that we have the SQL constructed, let's store the rows...
       //
@@ -554,9 +967,6 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
     //
     for (Object[] row : rows) {
       int index = 0;
-      // not sure it is efficient to re-create the same on every row,
-      // but this was done earlier, so I'm keeping this behaviour
-      IRowMeta keyMeta = prototype.clone();
       Object[] keyData = new Object[keysAmount];
       for (int i = 0; i < keysAmount; i++) {
         keyData[i] = row[index++];
@@ -567,7 +977,7 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
       }
       // Store the data...
       //
-      data.cache.storeRowInCache(meta, keyMeta, keyData, valueData);
+      data.cache.storeRowInCache(meta, prototype, keyData, valueData);
       incrementLinesInput();
     }
   }
@@ -673,9 +1083,26 @@ public class DatabaseLookup extends BaseTransform<DatabaseLookupMeta, DatabaseLo
   public void dispose() {
 
     if (data.db != null) {
+      if (data.batchStatements != null) {
+        for (PreparedStatement ps : data.batchStatements.values()) {
+          try {
+            data.db.closePreparedStatement(ps);
+          } catch (HopDatabaseException e) {
+            logError(BaseMessages.getString(PKG, "DatabaseLookup.Exception.BatchLookupFailed"), e);
+          }
+        }
+        data.batchStatements = null;
+      }
       data.db.disconnect();
     }
 
+    if (data.sharedCacheKey != null) {
+      SharedCache.release(data.sharedCacheKey);
+      data.sharedCacheKey = null;
+    } else if (data.cache != null) {
+      data.cache.logStatistics(log);
+    }
+
     // Recover memory immediately, allow in-memory data to be garbage collected
     //
     data.cache = null;
@@ -19,11 +19,14 @@ package org.apache.hop.pipeline.transforms.databaselookup;
 
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.sql.PreparedStatement;
 import java.util.List;
+import java.util.Map;
 
 public class DatabaseLookupData extends BaseTransformData implements ITransformData {
   public ICache cache;
@@ -45,6 +48,14 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
   public String[] returnTrimTypes;
   public List<Integer> trimIndexes;
 
+  public List<Object[]> batchRows; // Input rows waiting for a batched lookup, null: row by row
+  public int batchQueryKeys; // The maximum number of keys to look up with one query
+  public Map<Integer, PreparedStatement> batchStatements; // Batch lookup statements per nr of keys
+  public IRowMeta batchResultMeta; // Key and return values of the batch lookup queries
+  public IRowMeta batchReturnMeta; // The return values of the batch lookup queries
+
+  public String sharedCacheKey; // The key of the shared cache in use, null: not shared
+
   public DatabaseLookupData() {
     super();
 
@@ -74,5 +85,13 @@ public class DatabaseLookupData extends BaseTransformData implements ITransformD
      */
     void storeRowInCache(
         DatabaseLookupMeta meta, IRowMeta lookupMeta, Object[] lookupRow, Object[] add);
+
+    /**
+     * Records the hits, misses and evictions of the cache in the metrics of the transform, if the
+     * cache keeps track of them.
+     *
+     * @param log the log channel of the transform
+     */
+    default void logStatistics(ILogChannel log) {}
   }
 }
@@ -66,6 +66,15 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
   private Label wlCacheLoadAll;
   private Button wCacheLoadAll;
 
+  private Label wlCacheShared;
+  private Button wCacheShared;
+
+  private Label wlCacheTimeToLive;
+  private Text wCacheTimeToLive;
+
+  private Label wlBatchSize;
+  private Text wBatchSize;
+
   private Label wlCachesize;
   private Text wCachesize;
 
@@ -284,12 +293,79 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
           }
         });
 
+    // ICache : Share it?
+    wlCacheShared = new Label(shell, SWT.RIGHT);
+    wlCacheShared.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheShared.Label"));
+    wlCacheShared.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheShared.Tooltip"));
+    props.setLook(wlCacheShared);
+    FormData fdlCacheShared = new FormData();
+    fdlCacheShared.left = new FormAttachment(0, 0);
+    fdlCacheShared.right = new FormAttachment(middle, -margin);
+    fdlCacheShared.top = new FormAttachment(wCacheLoadAll, margin);
+    wlCacheShared.setLayoutData(fdlCacheShared);
+    wCacheShared = new Button(shell, SWT.CHECK);
+    props.setLook(wCacheShared);
+    FormData fdCacheShared = new FormData();
+    fdCacheShared.left = new FormAttachment(middle, 0);
+    fdCacheShared.top = new FormAttachment(wlCacheShared, 0, SWT.CENTER);
+    wCacheShared.setLayoutData(fdCacheShared);
+    wCacheShared.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            enableFields();
+          }
+        });
+
+    // ICache : time to live
+    wlCacheTimeToLive = new Label(shell, SWT.RIGHT);
+    wlCacheTimeToLive.setText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheTimeToLive.Label"));
+    wlCacheTimeToLive.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.CacheTimeToLive.Tooltip"));
+    props.setLook(wlCacheTimeToLive);
+    FormData fdlCacheTimeToLive = new FormData();
+    fdlCacheTimeToLive.left = new FormAttachment(0, 0);
+    fdlCacheTimeToLive.right = new FormAttachment(middle, -margin);
+    fdlCacheTimeToLive.top = new FormAttachment(wCacheShared, margin);
+    wlCacheTimeToLive.setLayoutData(fdlCacheTimeToLive);
+    wCacheTimeToLive = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    props.setLook(wCacheTimeToLive);
+    wCacheTimeToLive.addModifyListener(lsMod);
+    FormData fdCacheTimeToLive = new FormData();
+    fdCacheTimeToLive.left = new FormAttachment(middle, 0);
+    fdCacheTimeToLive.right = new FormAttachment(100, 0);
+    fdCacheTimeToLive.top = new FormAttachment(wCacheShared, margin);
+    wCacheTimeToLive.setLayoutData(fdCacheTimeToLive);
+
+    // Lookup batch size line
+    wlBatchSize = new Label(shell, SWT.RIGHT);
+    wlBatchSize.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Label"));
+    wlBatchSize.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseLookupDialog.BatchSize.Tooltip"));
+    props.setLook(wlBatchSize);
+    FormData fdlBatchSize = new FormData();
+    fdlBatchSize.left = new FormAttachment(0, 0);
+    fdlBatchSize.right = new FormAttachment(middle, -margin);
+    fdlBatchSize.top = new FormAttachment(wCacheTimeToLive, margin);
+    wlBatchSize.setLayoutData(fdlBatchSize);
+    wBatchSize = new Text(shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    props.setLook(wBatchSize);
+    wBatchSize.addModifyListener(lsMod);
+    FormData fdBatchSize = new FormData();
+    fdBatchSize.left = new FormAttachment(middle, 0);
+    fdBatchSize.right = new FormAttachment(100, 0);
+    fdBatchSize.top = new FormAttachment(wCacheTimeToLive, margin);
+    wBatchSize.setLayoutData(fdBatchSize);
+
     Label wlKey = new Label(shell, SWT.NONE);
     wlKey.setText(BaseMessages.getString(PKG, "DatabaseLookupDialog.Keys.Label"));
     props.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wCacheLoadAll, margin);
+    fdlKey.top = new FormAttachment(wBatchSize, margin);
     wlKey.setLayoutData(fdlKey);
 
     int nrKeyCols = 4;
@@ -594,6 +670,13 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     wlCachesize.setEnabled(wCache.getSelection() && !wCacheLoadAll.getSelection());
     wCacheLoadAll.setEnabled(wCache.getSelection());
     wlCacheLoadAll.setEnabled(wCache.getSelection());
+    boolean loadingAll = wCache.getSelection() && wCacheLoadAll.getSelection();
+    wCacheShared.setEnabled(loadingAll);
+    wlCacheShared.setEnabled(loadingAll);
+    wCacheTimeToLive.setEnabled(loadingAll && wCacheShared.getSelection());
+    wlCacheTimeToLive.setEnabled(loadingAll && wCacheShared.getSelection());
+    wBatchSize.setEnabled(!(wCache.getSelection() && wCacheLoadAll.getSelection()));
+    wlBatchSize.setEnabled(!(wCache.getSelection() && wCacheLoadAll.getSelection()));
     wFailMultiple.setEnabled(!wCache.getSelection());
     wlFailMultiple.setEnabled(!wCache.getSelection());
   }
@@ -605,6 +688,9 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     wCache.setSelection(input.isCached());
     wCachesize.setText("" + input.getCacheSize());
     wCacheLoadAll.setSelection(input.isLoadingAllDataInCache());
+    wCacheShared.setSelection(input.isSharingCache());
+    wCacheTimeToLive.setText("" + input.getCacheTimeToLive());
+    wBatchSize.setText("" + input.getBatchSize());
 
     Lookup lookup = input.getLookup();
 
@@ -668,6 +754,9 @@ public class DatabaseLookupDialog extends BaseTransformDialog implements ITransf
     input.setCached(wCache.getSelection());
     input.setCacheSize(Const.toInt(wCachesize.getText(), 0));
     input.setLoadingAllDataInCache(wCacheLoadAll.getSelection());
+    input.setSharingCache(wCacheShared.getSelection());
+    input.setCacheTimeToLive(Const.toInt(wCacheTimeToLive.getText(), 0));
+    input.setBatchSize(Const.toInt(wBatchSize.getText(), 0));
 
     for (TableItem item : wKey.getNonEmptyItems()) {
       KeyField keyField = new KeyField();
@@ -99,6 +99,24 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
       injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheLoadAll")
   private boolean loadingAllDataInCache;
 
+  /** Share the cache with all the rows with the other transforms reading the same rows */
+  @HopMetadataProperty(
+      key = "cache_shared",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheShared")
+  private boolean sharingCache;
+
+  /** The number of seconds to keep a shared cache, 0 to keep it while it is used */
+  @HopMetadataProperty(
+      key = "cache_time_to_live",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.CacheTimeToLive")
+  private int cacheTimeToLive;
+
+  /** Look up the keys of this many rows with a single query, 0 or 1 looks up row by row */
+  @HopMetadataProperty(
+      key = "batch_size",
+      injectionKeyDescription = "DatabaseLookupMeta.Injection.BatchSize")
+  private int batchSize;
+
   @HopMetadataProperty(key = "lookup")
   private Lookup lookup;
 
@@ -110,6 +128,9 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.cached = m.cached;
     this.cacheSize = m.cacheSize;
     this.loadingAllDataInCache = m.loadingAllDataInCache;
+    this.sharingCache = m.sharingCache;
+    this.cacheTimeToLive = m.cacheTimeToLive;
+    this.batchSize = m.batchSize;
     this.lookup = new Lookup(m.lookup);
   }
 
@@ -558,6 +579,54 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     this.loadingAllDataInCache = loadingAllDataInCache;
   }
 
+  /**
+   * Gets sharingCache
+   *
+   * @return value of sharingCache
+   */
+  public boolean isSharingCache() {
+    return sharingCache;
+  }
+
+  /**
+   * @param sharingCache The sharingCache to set
+   */
+  public void setSharingCache(boolean sharingCache) {
+    this.sharingCache = sharingCache;
+  }
+
+  /**
+   * Gets cacheTimeToLive
+   *
+   * @return value of cacheTimeToLive
+   */
+  public int getCacheTimeToLive() {
+    return cacheTimeToLive;
+  }
+
+  /**
+   * @param cacheTimeToLive The cacheTimeToLive to set
+   */
+  public void setCacheTimeToLive(int cacheTimeToLive) {
+    this.cacheTimeToLive = cacheTimeToLive;
+  }
+
+  /**
+   * Gets batchSize
+   *
+   * @return value of batchSize
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * @param batchSize The batchSize to set
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
   /**
    * Gets lookup
    *
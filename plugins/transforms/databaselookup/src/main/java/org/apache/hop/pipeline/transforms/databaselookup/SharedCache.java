@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import org.apache.hop.core.exception.HopException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The caches with all the rows of a lookup table, shared by the copies of all Database Lookup
+ * transforms in the JVM which read the same rows. The first user loads a cache, the others wait
+ * for it and use the same rows. Shared caches are only read, never changed.
+ *
+ * <p>Without a time to live a cache is dropped when the last user releases it. With a time to live
+ * it is kept for later users until it expires. An expired cache is loaded again by the next user,
+ * the users of the previous version keep on using it until they release it.
+ */
+public final class SharedCache {
+
+  /** Loads the rows of a shared cache */
+  @FunctionalInterface
+  public interface ILoader {
+    /**
+     * @return the loaded cache
+     * @throws HopException in case the rows can't be loaded
+     */
+    DatabaseLookupData.ICache load() throws HopException;
+  }
+
+  private static final class Entry {
+    private DatabaseLookupData.ICache cache;
+    private long loadTime;
+    private long timeToLive;
+    private int references;
+    private boolean removed;
+    private volatile boolean loading;
+
+    private boolean isExpired(long now) {
+      return timeToLive > 0 && now - loadTime >= timeToLive;
+    }
+  }
+
+  private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+  private SharedCache() {}
+
+  /**
+   * Get the shared cache for a key, load it if there is none or if it expired.
+   *
+   * @param key describes the rows in the cache: the connection, the query and the conditions
+   * @param timeToLive the time in ms to keep the cache after it was loaded, 0 to keep it while it
+   *     is used
+   * @param loader loads the rows
+   * @return the shared cache
+   * @throws HopException in case the rows can't be loaded
+   */
+  public static DatabaseLookupData.ICache acquire(String key, long timeToLive, ILoader loader)
+      throws HopException {
+    removeExpired();
+    while (true) {
+      Entry entry = ENTRIES.computeIfAbsent(key, k -> new Entry());
+      synchronized (entry) {
+        if (entry.removed) {
+          // Released by its last user in the meantime
+          continue;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.cache == null || entry.isExpired(now)) {
+          entry.loading = true;
+          try {
+            entry.cache = loader.load();
+          } catch (HopException | RuntimeException e) {
+            if (entry.cache == null && entry.references == 0) {
+              remove(key, entry);
+            }
+            throw e;
+          } finally {
+            entry.loading = false;
+          }
+          entry.loadTime = now;
+          entry.timeToLive = timeToLive;
+        }
+        entry.references++;
+        return entry.cache;
+      }
+    }
+  }
+
+  /**
+   * Release a cache obtained with {@link #acquire(String, long, ILoader)}.
+   *
+   * @param key the key of the cache
+   */
+  public static void release(String key) {
+    Entry entry = ENTRIES.get(key);
+    if (entry != null) {
+      synchronized (entry) {
+        if (entry.references > 0) {
+          entry.references--;
+        }
+        if (entry.references == 0
+            && (entry.timeToLive <= 0 || entry.isExpired(System.currentTimeMillis()))) {
+          remove(key, entry);
+        }
+      }
+    }
+    removeExpired();
+  }
+
+  /** Drop the expired caches nobody uses anymore */
+  private static void removeExpired() {
+    long now = System.currentTimeMillis();
+    Iterator<Map.Entry<String, Entry>> iterator = ENTRIES.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, Entry> mapEntry = iterator.next();
+      Entry entry = mapEntry.getValue();
+      if (entry.loading) {
+        // Don't wait for a cache which is being loaded
+        continue;
+      }
+      synchronized (entry) {
+        if (entry.references == 0 && entry.cache != null && entry.isExpired(now)) {
+          remove(mapEntry.getKey(), entry);
+        }
+      }
+    }
+  }
+
+  private static void remove(String key, Entry entry) {
+    entry.removed = true;
+    entry.cache = null;
+    ENTRIES.remove(key, entry);
+  }
+
+  /** @return the number of caches kept */
+  static int size() {
+    return ENTRIES.size();
+  }
+}
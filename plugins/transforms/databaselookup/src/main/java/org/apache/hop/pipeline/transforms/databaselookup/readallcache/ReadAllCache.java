@@ -26,18 +26,17 @@ import org.apache.hop.pipeline.transforms.databaselookup.DatabaseLookupMeta;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * This is a read-only array-based cache to be used in {@linkplain
  * org.apache.hop.pipeline.transforms.databaselookup.DatabaseLookup DatabaseLookup} when "Load All
  * Data In ICache" checkbox is selected. Internally, it uses some optimizations to reduce memory
  * consumption.
+ *
+ * <p>The cache doesn't change once it is built, so the copies of the transform can share it.
  */
 public class ReadAllCache implements DatabaseLookupData.ICache {
 
-  private final DatabaseLookupData transformData;
-
   private final Object[][] keys;
   private final IRowMeta keysMeta;
 
@@ -49,12 +48,15 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
   // such structure was chosen not to introduce separate data-container class
   private final int[][] otherConditions;
 
+  // the database has to evaluate the conditions (LIKE)
+  private volatile boolean hasDBCondition;
+
   ReadAllCache(
       DatabaseLookupData transformData, Object[][] keys, IRowMeta keysMeta, Object[][] data) {
-    this.transformData = transformData;
     this.keys = keys;
     this.keysMeta = keysMeta;
     this.data = data;
+    this.hasDBCondition = transformData.hasDBCondition;
 
     Object[] pair = createIndexes(transformData, keysMeta, keys);
     indexes = (Index[]) pair[0];
@@ -69,8 +71,7 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
     // it makes sense to apply restrictions in the specific order, namely, to use those, that can
     // filter more elements
     // Index.restrictionComparator() uses heuristic "restriction power" of each index
-    PriorityQueue<Index> indexes =
-        new PriorityQueue<>(conditions.length, Index.restrictionComparator());
+    List<Index> indexes = new ArrayList<>(conditions.length);
     List<int[]> otherConditions = new ArrayList<>();
     for (int i = 0, len = conditions.length; i < len; i++) {
       int condition = conditions[i];
@@ -104,11 +105,15 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
       if (index == null) {
         otherConditions.add(new int[] {i, condition});
       } else {
-        index.performIndexingOf(keys);
         indexes.add(index);
       }
     }
 
+    // the indexes sort their own column, so we sort them all at once
+    indexes.parallelStream().forEach(index -> index.performIndexingOf(keys));
+
+    indexes.sort(Index.restrictionComparator());
+
     return new Object[] {
       indexes.toArray(new Index[indexes.size()]),
       otherConditions.toArray(new int[otherConditions.size()][])
@@ -117,7 +122,7 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
 
   @Override
   public Object[] getRowFromCache(IRowMeta lookupMeta, Object[] lookupRow) throws HopException {
-    if (transformData.hasDBCondition) {
+    if (hasDBCondition) {
       // actually, there was no sense in executing SELECT from db in this case,
       // should be reported as improvement
       return null;
@@ -177,7 +182,7 @@ public class ReadAllCache implements DatabaseLookupData.ICache {
           // if not BETWEEN, than it is LIKE (or some new operator)
           // for now, LIKE is not supported here
           matches = false;
-          transformData.hasDBCondition = true;
+          hasDBCondition = true;
         }
       }
       if (matches) {
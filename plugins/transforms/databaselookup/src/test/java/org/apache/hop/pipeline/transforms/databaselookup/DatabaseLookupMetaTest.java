@@ -174,6 +174,9 @@ public class DatabaseLookupMetaTest {
     meta.setCached(true);
     meta.setCacheSize(123456);
     meta.setLoadingAllDataInCache(true);
+    meta.setSharingCache(true);
+    meta.setCacheTimeToLive(600);
+    meta.setBatchSize(500);
     Lookup lookup = meta.getLookup();
     lookup.getKeyFields().add(new KeyField("aa", "gg", "ee", "cc"));
     lookup.getKeyFields().add(new KeyField("bb", "hh", "ff", "dd"));
@@ -209,6 +212,9 @@ public class DatabaseLookupMetaTest {
     assertEquals(meta.isCached(), meta2.isCached());
     assertEquals(meta.getCacheSize(), meta2.getCacheSize());
     assertEquals(meta.isLoadingAllDataInCache(), meta2.isLoadingAllDataInCache());
+    assertEquals(meta.isSharingCache(), meta2.isSharingCache());
+    assertEquals(meta.getCacheTimeToLive(), meta2.getCacheTimeToLive());
+    assertEquals(meta.getBatchSize(), meta2.getBatchSize());
 
     assertEquals(lookup.getKeyFields().size(), lookup2.getKeyFields().size());
     for (int i = 0; i < lookup.getKeyFields().size(); i++) {
@@ -272,6 +278,7 @@ public class DatabaseLookupMetaTest {
     assertEquals(meta.getCacheSize(), meta2.getCacheSize());
     assertEquals(meta.isCached(), meta2.isCached());
     assertEquals(meta.isLoadingAllDataInCache(), meta2.isLoadingAllDataInCache());
+    assertEquals(250, meta2.getBatchSize());
 
     Lookup lookup2 = meta2.getLookup();
     assertEquals(lookup.getTableName(), lookup2.getTableName());
@@ -316,6 +323,9 @@ public class DatabaseLookupMetaTest {
             .addString("cache?")
             .addString("cacheSize")
             .addString("loadAll?")
+            .addString("shared?")
+            .addString("timeToLive")
+            .addString("batchSize")
             .addString("orderBy")
             .addString("failOnMultiple?")
             .addString("eatRow?")
@@ -330,6 +340,9 @@ public class DatabaseLookupMetaTest {
                 "Y",
                 "123",
                 "Y",
+                "Y",
+                "600",
+                "250",
                 "field1 DESC",
                 "Y",
                 "Y"));
@@ -344,6 +357,12 @@ public class DatabaseLookupMetaTest {
     assertEquals(123, meta.getCacheSize());
     injector.setProperty(meta, "cache_load_all", rows, "loadAll?");
     assertTrue(meta.isLoadingAllDataInCache());
+    injector.setProperty(meta, "cache_shared", rows, "shared?");
+    assertTrue(meta.isSharingCache());
+    injector.setProperty(meta, "cache_time_to_live", rows, "timeToLive");
+    assertEquals(600, meta.getCacheTimeToLive());
+    injector.setProperty(meta, "batch_size", rows, "batchSize");
+    assertEquals(250, meta.getBatchSize());
     injector.setProperty(meta, "schema", rows, "schema");
     assertEquals("schema1", meta.getLookup().getSchemaName());
     injector.setProperty(meta, "table", rows, "table");
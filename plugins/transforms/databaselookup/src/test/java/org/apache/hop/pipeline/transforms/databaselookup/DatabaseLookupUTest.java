@@ -40,6 +40,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.databaselookup.readallcache.ReadAllCache;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.*;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 
@@ -49,6 +50,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -433,6 +435,77 @@ public class DatabaseLookupUTest {
     assertNotNull(data.cache.getRowFromCache(data.lookupMeta, new Object[] {2L}));
   }
 
+  @Test
+  public void looksUpBatchOfRowsWithOneQuery() throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(ps.executeQuery()).thenReturn(rs);
+
+    NoneDatabaseMeta genericMeta = new NoneDatabaseMeta();
+    DatabaseMeta dbMeta = new DatabaseMeta();
+    dbMeta.setIDatabase(genericMeta);
+
+    RowMeta resultMeta = new RowMeta();
+    resultMeta.addValueMeta(new ValueMetaInteger("id"));
+    resultMeta.addValueMeta(new ValueMetaString("name"));
+
+    Database db = mock(Database.class);
+    when(db.getDatabaseMeta()).thenReturn(dbMeta);
+    when(db.prepareSql(anyString())).thenReturn(ps);
+    when(db.getResultSetRowMeta(rs)).thenReturn(resultMeta);
+    when(db.getRow(eq(rs), isNull(), any(IRowMeta.class)))
+        .thenReturn(new Object[] {2L, "two"}, new Object[] {1L, "one"}, null);
+
+    DatabaseLookupMeta meta = new DatabaseLookupMeta();
+    meta.setConnection("connection1");
+    meta.setBatchSize(10);
+    meta.getLookup().setTableName("names");
+    meta.getLookup().getKeyFields().add(new KeyField("id", "", "=", "id"));
+    meta.getLookup()
+        .getReturnValues()
+        .add(
+            new ReturnValue(
+                "name",
+                "name",
+                "",
+                "String",
+                ValueMetaString.getTrimTypeCode(IValueMeta.TRIM_TYPE_NONE)));
+    DatabaseLookupData data = new DatabaseLookupData();
+
+    DatabaseLookup transform = spyLookup(mockHelper, meta, data, db, dbMeta);
+    when(transform.getPipelineMeta().findDatabase(any(String.class), any(IVariables.class)))
+        .thenReturn(dbMeta);
+    doNothing().when(transform).determineFieldsTypesQueryingDb();
+    doNothing().when(transform).putRow(any(IRowMeta.class), any(Object[].class));
+    doReturn(new Object[] {1L}, new Object[] {2L}, new Object[] {1L}, new Object[] {3L}, null)
+        .when(transform)
+        .getRow();
+
+    RowMeta input = new RowMeta();
+    input.addValueMeta(new ValueMetaInteger("id"));
+    transform.setInputRowMeta(input);
+
+    assertTrue(transform.init());
+    data.keytypes = new int[] {IValueMeta.TYPE_INTEGER};
+    while (transform.processRow()) {
+      // Keep going until all rows are looked up
+    }
+
+    // The 3 distinct keys are looked up with a single query, in a statement for 4 keys
+    verify(db).prepareSql(contains("IN (?, ?, ?, ?)"));
+    verify(ps).executeQuery();
+    verify(db, never()).getLookup(anyBoolean());
+
+    // The rows come out in the order in which they came in
+    ArgumentCaptor<Object[]> rows = ArgumentCaptor.forClass(Object[].class);
+    verify(transform, times(4)).putRow(any(IRowMeta.class), rows.capture());
+    List<Object[]> output = rows.getAllValues();
+    assertArrayEquals(new Object[] {1L, "one"}, Arrays.copyOf(output.get(0), 2));
+    assertArrayEquals(new Object[] {2L, "two"}, Arrays.copyOf(output.get(1), 2));
+    assertArrayEquals(new Object[] {1L, "one"}, Arrays.copyOf(output.get(2), 2));
+    assertArrayEquals(new Object[] {3L, null}, Arrays.copyOf(output.get(3), 2));
+  }
+
   public class MockDatabaseLookup extends DatabaseLookup {
     public MockDatabaseLookup(
         TransformMeta transformMeta,
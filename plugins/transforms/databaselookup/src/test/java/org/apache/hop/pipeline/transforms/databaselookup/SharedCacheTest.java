@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.databaselookup;
+
+import org.apache.hop.core.exception.HopException;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SharedCacheTest {
+
+  private SharedCache.ILoader countingLoader(AtomicInteger loads) {
+    return () -> {
+      loads.incrementAndGet();
+      return DefaultCache.newSharedCache(new DatabaseLookupData());
+    };
+  }
+
+  @Test
+  public void testSharedWhileUsed() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    DatabaseLookupData.ICache first = SharedCache.acquire("used", 0L, countingLoader(loads));
+    DatabaseLookupData.ICache second = SharedCache.acquire("used", 0L, countingLoader(loads));
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+
+    SharedCache.release("used");
+    SharedCache.release("used");
+
+    // Without a time to live the cache is dropped by the last user
+    //
+    DatabaseLookupData.ICache third = SharedCache.acquire("used", 0L, countingLoader(loads));
+    assertNotSame(first, third);
+    assertEquals(2, loads.get());
+    SharedCache.release("used");
+  }
+
+  @Test
+  public void testTimeToLive() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    DatabaseLookupData.ICache first = SharedCache.acquire("ttl", 60000L, countingLoader(loads));
+    SharedCache.release("ttl");
+
+    // Kept for the next user
+    //
+    assertSame(first, SharedCache.acquire("ttl", 60000L, countingLoader(loads)));
+    assertEquals(1, loads.get());
+    SharedCache.release("ttl");
+
+    // Expired caches are loaded again
+    //
+    DatabaseLookupData.ICache expiring = SharedCache.acquire("expiring", 1L, countingLoader(loads));
+    Thread.sleep(10L);
+    DatabaseLookupData.ICache reloaded = SharedCache.acquire("expiring", 1L, countingLoader(loads));
+    assertNotSame(expiring, reloaded);
+    assertEquals(3, loads.get());
+    SharedCache.release("expiring");
+    SharedCache.release("expiring");
+  }
+
+  @Test
+  public void testFailedLoadIsNotKept() throws Exception {
+    int size = SharedCache.size();
+    try {
+      SharedCache.acquire(
+          "failing",
+          0L,
+          () -> {
+            throw new HopException("no connection");
+          });
+      fail("The load should fail");
+    } catch (HopException e) {
+      assertEquals(size, SharedCache.size());
+    }
+  }
+}
@@ -0,0 +1,657 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.dimensionlookup;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowCodec;
+import org.apache.hop.core.row.RowMeta;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pre-loaded dimension kept in a memory-mapped file instead of on the heap. The rows are sorted
+ * the way {@link DimensionCache} expects them, so a {@link DimensionCache} can look them up through
+ * {@link #getRows()} as if they were in memory. The operating system pages the rows in and out as
+ * needed.
+ *
+ * <p>The file holds a header (marker, version, segment size, signature and row metadata), the rows
+ * encoded with {@link RowCodec}, an index with the offset of every row and a trailer with the
+ * number of rows, the offset of the index and the refresh watermark. A single mapping is limited to
+ * 2GB so the file is mapped in segments, and rows never cross the boundary of a segment.
+ *
+ * <p>The files are kept between runs. Use {@link #refresh(Writer, List, int)} to add the rows which
+ * changed since the watermark instead of reading the whole dimension again. Within a JVM an open
+ * file is shared read-only by all transform copies and pipelines which use it, see {@link
+ * #acquire(File, IRefresher)}.
+ *
+ * <p>Java can't unmap a file: a mapping is released when the buffers of the file and of all the
+ * views on its rows are garbage collected. When a file is replaced by a new version, the old
+ * version is closed so that only views which are still in use keep it mapped. Windows doesn't
+ * allow replacing a file which is mapped. A refresh which happens there while the previous version
+ * is still mapped fails with an error explaining this, and the next run reads the file again.
+ */
+public class DimensionCacheFile {
+
+  /** The extension of dimension cache files */
+  public static final String EXTENSION = ".hdc";
+
+  /** The watermark of a file without dates in the watermark column */
+  public static final long NO_WATERMARK = Long.MIN_VALUE;
+
+  /** The segments are 1GB by default */
+  static final int DEFAULT_SEGMENT_BITS = 30;
+
+  private static final byte[] MAGIC = {'H', 'D', 'C'};
+  private static final int VERSION = 1;
+  private static final int TRAILER_SIZE = 24;
+
+  private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+  private final File file;
+  private final String signature;
+  private final IRowMeta rowMeta;
+  private final int segmentBits;
+  private volatile MappedByteBuffer[] segments;
+  private final int rowCount;
+  private final long indexOffset;
+  private final long watermark;
+
+  private DimensionCacheFile(
+      File file,
+      String signature,
+      IRowMeta rowMeta,
+      int segmentBits,
+      MappedByteBuffer[] segments,
+      int rowCount,
+      long indexOffset,
+      long watermark) {
+    this.file = file;
+    this.signature = signature;
+    this.rowMeta = rowMeta;
+    this.segmentBits = segmentBits;
+    this.segments = segments;
+    this.rowCount = rowCount;
+    this.indexOffset = indexOffset;
+    this.watermark = watermark;
+  }
+
+  /** Loads or refreshes the cache file of a dimension */
+  @FunctionalInterface
+  public interface IRefresher {
+    /**
+     * @param current the cache file opened earlier in this JVM or null if there is none
+     * @return the up to date cache file
+     * @throws HopException in case the file can't be loaded or refreshed
+     */
+    DimensionCacheFile refresh(DimensionCacheFile current) throws HopException;
+  }
+
+  private static final class Entry {
+    private DimensionCacheFile cacheFile;
+    private int references;
+  }
+
+  /**
+   * Get the cache file to look up rows in. The first user of a file in the JVM refreshes it, others
+   * use it as it is until everyone released it.
+   *
+   * @param file the cache file
+   * @param refresher loads or refreshes the file
+   * @return the shared cache file
+   * @throws HopException in case the file can't be loaded or refreshed
+   */
+  public static DimensionCacheFile acquire(File file, IRefresher refresher) throws HopException {
+    Entry entry = ENTRIES.computeIfAbsent(file.getAbsolutePath(), path -> new Entry());
+    synchronized (entry) {
+      if (entry.references == 0) {
+        DimensionCacheFile previous = entry.cacheFile;
+        entry.cacheFile = refresher.refresh(previous);
+        if (previous != null && previous != entry.cacheFile) {
+          previous.close();
+        }
+      }
+      entry.references++;
+      return entry.cacheFile;
+    }
+  }
+
+  /**
+   * Release a cache file obtained with {@link #acquire(File, IRefresher)}. The file stays mapped
+   * for the next user in the JVM.
+   *
+   * @param cacheFile the cache file to release
+   */
+  public static void release(DimensionCacheFile cacheFile) {
+    Entry entry = ENTRIES.get(cacheFile.file.getAbsolutePath());
+    if (entry != null) {
+      synchronized (entry) {
+        if (entry.references > 0) {
+          entry.references--;
+        }
+      }
+    }
+  }
+
+  /**
+   * Open and map a cache file.
+   *
+   * @param file the file to open
+   * @return the opened file
+   * @throws HopFileException in case the file can't be read or isn't a dimension cache file
+   */
+  public static DimensionCacheFile open(File file) throws HopFileException {
+    String signature;
+    IRowMeta rowMeta;
+    int segmentBits;
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      byte[] magic = new byte[MAGIC.length];
+      inputStream.readFully(magic);
+      int version = inputStream.readInt();
+      if (!Arrays.equals(MAGIC, magic) || version != VERSION) {
+        throw new HopFileException(
+            "File " + file + " isn't a dimension cache file of version " + VERSION);
+      }
+      segmentBits = inputStream.readInt();
+      signature = inputStream.readUTF();
+      rowMeta = new RowMeta(inputStream);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to read the header of dimension cache file " + file, e);
+    }
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      MappedByteBuffer[] segments = map(channel, size, segmentBits);
+
+      ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+      while (trailer.hasRemaining()) {
+        if (channel.read(trailer, size - TRAILER_SIZE + trailer.position()) < 0) {
+          throw new HopFileException("Dimension cache file " + file + " is truncated");
+        }
+      }
+      trailer.flip();
+      long rowCount = trailer.getLong();
+      long indexOffset = trailer.getLong();
+      long watermark = trailer.getLong();
+      if (rowCount < 0 || indexOffset + rowCount * 8 + TRAILER_SIZE != size) {
+        throw new HopFileException("Dimension cache file " + file + " is corrupt");
+      }
+      return new DimensionCacheFile(
+          file, signature, rowMeta, segmentBits, segments, (int) rowCount, indexOffset, watermark);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to map dimension cache file " + file, e);
+    }
+  }
+
+  private static MappedByteBuffer[] map(FileChannel channel, long size, int segmentBits)
+      throws IOException {
+    long segmentSize = 1L << segmentBits;
+    int count = (int) ((size + segmentSize - 1) >>> segmentBits);
+    MappedByteBuffer[] segments = new MappedByteBuffer[count];
+    for (int i = 0; i < segments.length; i++) {
+      long start = i * segmentSize;
+      segments[i] =
+          channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+    }
+    return segments;
+  }
+
+  private static Object[] readRow(
+      RowCodec codec, ByteBuffer[] buffers, int segmentBits, long offset) throws HopFileException {
+    ByteBuffer buffer = buffers[(int) (offset >>> segmentBits)];
+    buffer.clear();
+    buffer.position((int) (offset & ((1L << segmentBits) - 1)));
+    return codec.decode(buffer);
+  }
+
+  private long getOffset(ByteBuffer[] buffers, int index) {
+    long position = indexOffset + 8L * index;
+    return buffers[(int) (position >>> segmentBits)]
+        .getLong((int) (position & ((1L << segmentBits) - 1)));
+  }
+
+  /**
+   * The rows in the file, decoded when they are read. A view keeps its own buffers and isn't thread
+   * safe: create one for every thread.
+   *
+   * @return a read-only view of the rows
+   */
+  public List<Object[]> getRows() {
+    MappedByteBuffer[] mapped = segments;
+    if (mapped == null) {
+      throw new IllegalStateException("Dimension cache file " + file + " was closed");
+    }
+    return new Rows(mapped);
+  }
+
+  /**
+   * Drop the references to the mapped segments of this file. The file stays mapped until the views
+   * returned by {@link #getRows()} are garbage collected as well. No new views can be created.
+   */
+  public void close() {
+    segments = null;
+  }
+
+  private class Rows extends AbstractList<Object[]> implements RandomAccess {
+    private final RowCodec codec = new RowCodec(rowMeta);
+    private final ByteBuffer[] buffers;
+
+    private Rows(MappedByteBuffer[] mapped) {
+      buffers = new ByteBuffer[mapped.length];
+      for (int i = 0; i < mapped.length; i++) {
+        buffers[i] = mapped[i].duplicate();
+      }
+    }
+
+    @Override
+    public Object[] get(int index) {
+      if (index < 0 || index >= rowCount) {
+        throw new IndexOutOfBoundsException("Row " + index + " of " + rowCount);
+      }
+      try {
+        return readRow(codec, buffers, segmentBits, getOffset(buffers, index));
+      } catch (HopFileException e) {
+        throw new RuntimeException("Unable to read row " + index + " from " + file, e);
+      }
+    }
+
+    @Override
+    public int size() {
+      return rowCount;
+    }
+  }
+
+  /**
+   * Write a new version of this file with the rows which were added or changed since it was
+   * written. A changed row replaces the row with the same technical key. When a new version of a
+   * natural key starts before the end of the date range of the version before it, that range is cut
+   * off at the start of the new version, like the dimension update does in the table.
+   *
+   * @param writer the writer of the new version, for rows like the ones in this file
+   * @param changedRows the rows which were added or changed
+   * @param technicalKeyIndex the index of the technical key in the rows
+   * @return the new version of the file
+   * @throws HopException in case the new version can't be written
+   */
+  public DimensionCacheFile refresh(
+      Writer writer, List<Object[]> changedRows, int technicalKeyIndex) throws HopException {
+    DimensionCache layout = writer.layout;
+
+    Set<Object> changedKeys = new HashSet<>();
+    for (Object[] changedRow : changedRows) {
+      changedKeys.add(changedRow[technicalKeyIndex]);
+    }
+    List<Object[]> changes = new ArrayList<>(changedRows);
+    try {
+      changes.sort(layout);
+    } catch (RuntimeException e) {
+      throw new HopException(e);
+    }
+
+    List<Object[]> rows = getRows();
+    int rowIndex = 0;
+    int changeIndex = 0;
+    Object[] row = rowCount > 0 ? rows.get(0) : null;
+    Object[] previous = null;
+    while (row != null || changeIndex < changes.size()) {
+      Object[] next;
+      if (row != null
+          && (changeIndex >= changes.size()
+              || compare(layout, row, changes.get(changeIndex)) <= 0)) {
+        next = row;
+        row = ++rowIndex < rowCount ? rows.get(rowIndex) : null;
+        if (changedKeys.contains(next[technicalKeyIndex])) {
+          continue;
+        }
+      } else {
+        next = changes.get(changeIndex++);
+      }
+      if (previous != null) {
+        closeRange(layout, previous, next);
+        writer.addRow(previous);
+      }
+      previous = next;
+    }
+    if (previous != null) {
+      writer.addRow(previous);
+    }
+    return writer.finish();
+  }
+
+  private static int compare(DimensionCache layout, Object[] row1, Object[] row2)
+      throws HopException {
+    try {
+      return layout.compare(row1, row2);
+    } catch (RuntimeException e) {
+      throw new HopException(e);
+    }
+  }
+
+  private static void closeRange(DimensionCache layout, Object[] previous, Object[] next)
+      throws HopException {
+    IRowMeta rowMeta = layout.getRowMeta();
+    if (rowMeta.compare(previous, next, layout.getKeyIndexes()) != 0) {
+      return;
+    }
+    Date nextFrom = rowMeta.getDate(next, layout.getFromDateIndex());
+    Date previousTo = rowMeta.getDate(previous, layout.getToDateIndex());
+    if (nextFrom != null && (previousTo == null || previousTo.after(nextFrom))) {
+      previous[layout.getToDateIndex()] = next[layout.getFromDateIndex()];
+    }
+  }
+
+  /** @return the file */
+  public File getFile() {
+    return file;
+  }
+
+  /** @return the signature of the query the rows were read with */
+  public String getSignature() {
+    return signature;
+  }
+
+  /** @return the metadata of the rows */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /** @return the number of rows */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return the highest date in the watermark column in milliseconds, or {@link #NO_WATERMARK}
+   */
+  public long getWatermark() {
+    return watermark;
+  }
+
+  /**
+   * Writes a dimension cache file. The rows are written to a temporary file which replaces the
+   * cache file when it's finished. Rows can be added in any order, but it's cheapest to add them in
+   * the order of the cache: the natural keys followed by the start of the date range.
+   */
+  public static class Writer implements Closeable {
+    private final File file;
+    private File tempFile;
+    private final DimensionCache layout;
+    private final int watermarkIndex;
+    private final int segmentBits;
+    private final RowCodec codec;
+    private final ByteArrayOutputStream rowBytes = new ByteArrayOutputStream();
+
+    private OutputStream outputStream;
+    private long position;
+    private long[] offsets = new long[1024];
+    private int rowCount;
+    private Object[] previousRow;
+    private boolean sorted = true;
+    private long watermark = NO_WATERMARK;
+
+    /**
+     * @param file the cache file to write
+     * @param signature the signature of the query the rows are read with
+     * @param layout the rows to write and how they are sorted
+     * @param watermarkIndex the index of the date to keep the highest value of, -1 for none
+     * @throws HopFileException in case the file can't be created
+     */
+    public Writer(File file, String signature, DimensionCache layout, int watermarkIndex)
+        throws HopFileException {
+      this(file, signature, layout, watermarkIndex, DEFAULT_SEGMENT_BITS);
+    }
+
+    Writer(File file, String signature, DimensionCache layout, int watermarkIndex, int segmentBits)
+        throws HopFileException {
+      this.file = file;
+      this.layout = layout;
+      this.watermarkIndex = watermarkIndex;
+      this.segmentBits = segmentBits;
+      this.codec = new RowCodec(layout.getRowMeta());
+
+      try {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerStream = new DataOutputStream(header);
+        headerStream.write(MAGIC);
+        headerStream.writeInt(VERSION);
+        headerStream.writeInt(segmentBits);
+        headerStream.writeUTF(signature);
+        layout.getRowMeta().writeMeta(headerStream);
+        headerStream.flush();
+
+        // Every writer gets its own temporary file next to the cache file, so that the move at
+        // the end stays on the same file system.
+        //
+        File directory = file.getAbsoluteFile().getParentFile();
+        tempFile = Files.createTempFile(directory.toPath(), file.getName(), ".tmp").toFile();
+        outputStream = new BufferedOutputStream(new FileOutputStream(tempFile), 65536);
+        header.writeTo(outputStream);
+        position = header.size();
+      } catch (IOException e) {
+        throw new HopFileException("Unable to create dimension cache file " + file, e);
+      }
+    }
+
+    /**
+     * Add a row to the file.
+     *
+     * @param row the row, with the metadata of the layout
+     * @throws HopException in case the row can't be written
+     */
+    public void addRow(Object[] row) throws HopException {
+      rowBytes.reset();
+      codec.writeRow(rowBytes, row);
+      int length = rowBytes.size();
+      long segmentSize = 1L << segmentBits;
+      if (length > segmentSize) {
+        throw new HopFileException(
+            "A row of " + length + " bytes doesn't fit in a segment of the dimension cache file");
+      }
+      if (rowCount == Integer.MAX_VALUE - 8) {
+        throw new HopFileException("Too many rows for a dimension cache file");
+      }
+
+      try {
+        long remaining = segmentSize - (position & (segmentSize - 1));
+        if (length > remaining) {
+          pad(remaining);
+        }
+        if (rowCount == offsets.length) {
+          offsets = Arrays.copyOf(offsets, (int) Math.min(offsets.length * 2L, Integer.MAX_VALUE));
+        }
+        offsets[rowCount++] = position;
+        rowBytes.writeTo(outputStream);
+        position += length;
+      } catch (IOException e) {
+        throw new HopFileException("Unable to write to dimension cache file " + tempFile, e);
+      }
+
+      if (sorted && previousRow != null && compare(layout, previousRow, row) > 0) {
+        sorted = false;
+      }
+      previousRow = row;
+
+      if (watermarkIndex >= 0) {
+        Date date = layout.getRowMeta().getDate(row, watermarkIndex);
+        if (date != null && date.getTime() > watermark) {
+          watermark = date.getTime();
+        }
+      }
+    }
+
+    private void pad(long length) throws IOException {
+      for (long i = 0; i < length; i++) {
+        outputStream.write(0);
+      }
+      position += length;
+    }
+
+    /**
+     * Sort the index if needed, write it and replace the cache file with the new one.
+     *
+     * @return the opened cache file
+     * @throws HopException in case the file can't be finished
+     */
+    public DimensionCacheFile finish() throws HopException {
+      try {
+        // The index is made of longs: align it
+        //
+        pad((8 - (position & 7)) & 7);
+        long indexOffset = position;
+        outputStream.close();
+        outputStream = null;
+
+        if (!sorted) {
+          sortOffsets();
+        }
+
+        try (DataOutputStream indexStream =
+            new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tempFile, true), 65536))) {
+          for (int i = 0; i < rowCount; i++) {
+            indexStream.writeLong(offsets[i]);
+          }
+          indexStream.writeLong(rowCount);
+          indexStream.writeLong(indexOffset);
+          indexStream.writeLong(watermark);
+        }
+        replaceFile();
+      } catch (IOException e) {
+        throw new HopFileException("Unable to finish dimension cache file " + file, e);
+      }
+      return open(file);
+    }
+
+    private void replaceFile() throws IOException, HopFileException {
+      try {
+        Files.move(
+            tempFile.toPath(),
+            file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } catch (FileSystemException e) {
+        if (!file.exists()) {
+          throw e;
+        }
+        // Windows refuses to replace a file which is mapped by this or another process
+        //
+        throw new HopFileException(
+            "Unable to replace dimension cache file "
+                + file
+                + ": the previous version is probably still mapped",
+            e);
+      }
+    }
+
+    /**
+     * The rows weren't added in the order of the cache, for example because the database sorts
+     * strings differently. Sort the offsets by the rows they point to. Merge sort only compares
+     * neighbouring runs which are already in order once, so rows which are nearly sorted are cheap.
+     */
+    private void sortOffsets() throws IOException, HopException {
+      try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ)) {
+        MappedByteBuffer[] segments = map(channel, position, segmentBits);
+        ByteBuffer[] buffers = new ByteBuffer[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+          buffers[i] = segments[i].duplicate();
+        }
+        mergeSort(buffers, offsets, new long[rowCount], 0, rowCount);
+      }
+    }
+
+    private void mergeSort(ByteBuffer[] buffers, long[] values, long[] buffer, int from, int to)
+        throws HopException {
+      if (to - from < 2) {
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      mergeSort(buffers, values, buffer, from, middle);
+      mergeSort(buffers, values, buffer, middle, to);
+      if (compareRows(buffers, values[middle - 1], values[middle]) <= 0) {
+        return;
+      }
+      System.arraycopy(values, from, buffer, from, to - from);
+      int i = from;
+      int j = middle;
+      int k = from;
+      while (i < middle && j < to) {
+        if (compareRows(buffers, buffer[j], buffer[i]) < 0) {
+          values[k++] = buffer[j++];
+        } else {
+          values[k++] = buffer[i++];
+        }
+      }
+      while (i < middle) {
+        values[k++] = buffer[i++];
+      }
+      while (j < to) {
+        values[k++] = buffer[j++];
+      }
+    }
+
+    private int compareRows(ByteBuffer[] buffers, long offset1, long offset2) throws HopException {
+      Object[] row1 = readRow(codec, buffers, segmentBits, offset1);
+      Object[] row2 = readRow(codec, buffers, segmentBits, offset2);
+      return compare(layout, row1, row2);
+    }
+
+    /** Remove the temporary file if the cache file wasn't finished */
+    @Override
+    public void close() throws IOException {
+      if (outputStream != null) {
+        outputStream.close();
+        outputStream = null;
+      }
+      if (tempFile != null) {
+        Files.deleteIfExists(tempFile.toPath());
+      }
+    }
+  }
+}
@@ -25,7 +25,7 @@ import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
-import org.apache.hop.core.hash.ByteArrayHashMap;
+import org.apache.hop.core.hash.LookupCache;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -40,6 +40,10 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
@@ -176,9 +180,7 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
             data.cacheKeyRowMeta.addValueMeta(key.clone());
           }
 
-          data.cache =
-              new ByteArrayHashMap(
-                  meta.getCacheSize() > 0 ? meta.getCacheSize() : 5000, data.cacheKeyRowMeta);
+          data.cache = new LookupCache<>(data.cacheKeyRowMeta, meta.getCacheSize());
         }
       }
 
@@ -274,28 +276,33 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
       sql += ", " + databaseMeta.quoteField(meta.getDateFrom()); // extra info in cache
       sql += ", " + databaseMeta.quoteField(meta.getDateTo()); // extra info in cache
 
+      String cacheDirectory = resolve(meta.getCacheDirectory());
+      String refreshField = resolve(meta.getCacheRefreshField());
+      if (Utils.isEmpty(refreshField)) {
+        refreshField = meta.getDateFrom();
+      }
+      if (!Utils.isEmpty(cacheDirectory)
+          && !refreshField.equalsIgnoreCase(meta.getDateFrom())
+          && !refreshField.equalsIgnoreCase(meta.getDateTo())) {
+        sql += ", " + databaseMeta.quoteField(refreshField); // to refresh the cache file
+      }
+
       sql += " FROM " + data.schemaTable;
       logDetailed("Pre-loading cache by reading from database with: " + Const.CR + sql + Const.CR);
 
-      List<Object[]> rows = data.db.getRows(sql, -1);
-      IRowMeta rowMeta = data.db.getReturnRowMeta();
+      if (Utils.isEmpty(cacheDirectory)) {
+        List<Object[]> rows = data.db.getRows(sql, -1);
+        data.preloadCache = createPreloadCache(data.db.getReturnRowMeta());
+        data.preloadCache.setRowCache(rows);
 
-      data.preloadKeyIndexes = new int[meta.getKeyLookup().length];
-      for (int i = 0; i < data.preloadKeyIndexes.length; i++) {
-        data.preloadKeyIndexes[i] =
-            rowMeta.indexOfValue(meta.getKeyLookup()[i]); // the field in the table
+        logDetailed("Sorting the cache rows...");
+        data.preloadCache.sortRows();
+        logDetailed("Sorting of cached rows finished.");
+      } else {
+        data.cacheFile = acquireCacheFile(cacheDirectory, sql, refreshField);
+        data.preloadCache = createPreloadCache(data.cacheFile.getRowMeta());
+        data.preloadCache.setRowCache(data.cacheFile.getRows());
       }
-      data.preloadFromDateIndex = rowMeta.indexOfValue(meta.getDateFrom());
-      data.preloadToDateIndex = rowMeta.indexOfValue(meta.getDateTo());
-
-      data.preloadCache =
-          new DimensionCache(
-              rowMeta, data.preloadKeyIndexes, data.preloadFromDateIndex, data.preloadToDateIndex);
-      data.preloadCache.setRowCache(rows);
-
-      logDetailed("Sorting the cache rows...");
-      data.preloadCache.sortRows();
-      logDetailed("Sorting of cached rows finished.");
 
       // Also see what indexes to take to populate the lookup row...
       // We only ever compare indexes and the lookup date in the cache, the rest is not needed...
@@ -319,6 +326,148 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
   }
 
+  private DimensionCache createPreloadCache(IRowMeta rowMeta) {
+    data.preloadKeyIndexes = new int[meta.getKeyLookup().length];
+    for (int i = 0; i < data.preloadKeyIndexes.length; i++) {
+      data.preloadKeyIndexes[i] =
+          rowMeta.indexOfValue(meta.getKeyLookup()[i]); // the field in the table
+    }
+    data.preloadFromDateIndex = rowMeta.indexOfValue(meta.getDateFrom());
+    data.preloadToDateIndex = rowMeta.indexOfValue(meta.getDateTo());
+
+    return new DimensionCache(
+        rowMeta, data.preloadKeyIndexes, data.preloadFromDateIndex, data.preloadToDateIndex);
+  }
+
+  /**
+   * Get the memory-mapped cache file of the dimension. The first transform in the JVM to use the
+   * file reads the rows which changed since the last run, or the whole dimension if there is no
+   * usable file yet. The name of the file is derived from the database and the query, so the file
+   * is only shared by transforms reading the same rows.
+   */
+  private DimensionCacheFile acquireCacheFile(String directory, String sql, String refreshField)
+      throws HopException {
+    DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+    String signature = databaseMeta.getURL(this) + Const.CR + sql;
+    String name =
+        Const.NVL(data.realTableName, "dimension").replaceAll("[^A-Za-z0-9_]", "_")
+            + "-"
+            + UUID.nameUUIDFromBytes(signature.getBytes(StandardCharsets.UTF_8))
+            + DimensionCacheFile.EXTENSION;
+    File file = new File(directory, name);
+    if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+      throw new HopException("Unable to create cache directory " + file.getParent());
+    }
+
+    return DimensionCacheFile.acquire(
+        file, current -> refreshCacheFile(file, signature, sql, refreshField, current));
+  }
+
+  private DimensionCacheFile refreshCacheFile(
+      File file, String signature, String sql, String refreshField, DimensionCacheFile current)
+      throws HopException {
+    if (current == null && file.exists()) {
+      try {
+        current = DimensionCacheFile.open(file);
+        if (!signature.equals(current.getSignature())) {
+          current = null;
+        }
+      } catch (HopException e) {
+        logBasic(
+            BaseMessages.getString(
+                PKG, "DimensionLookup.Log.CacheFileUnusable", file, e.getMessage()));
+        current = null;
+      }
+    }
+
+    if (current == null || current.getWatermark() == DimensionCacheFile.NO_WATERMARK) {
+      // Read the whole dimension, sorted by the database as far as it can
+      //
+      DatabaseMeta databaseMeta = meta.getDatabaseMeta();
+      String orderBy = "";
+      for (String keyLookup : meta.getKeyLookup()) {
+        orderBy += databaseMeta.quoteField(keyLookup) + ", ";
+      }
+      orderBy += databaseMeta.quoteField(meta.getDateFrom());
+
+      ResultSet resultSet = data.db.openQuery(sql + " ORDER BY " + orderBy);
+      try {
+        DimensionCache layout = createPreloadCache(data.db.getReturnRowMeta());
+        int watermarkIndex = layout.getRowMeta().indexOfValue(refreshField);
+        try (DimensionCacheFile.Writer writer =
+            new DimensionCacheFile.Writer(file, signature, layout, watermarkIndex)) {
+          Object[] row;
+          while ((row = data.db.getRow(resultSet)) != null) {
+            if (isStopped()) {
+              throw new HopException("Loading of dimension cache file " + file + " was stopped");
+            }
+            writer.addRow(row);
+          }
+          DimensionCacheFile cacheFile = writer.finish();
+          logBasic(
+              BaseMessages.getString(
+                  PKG, "DimensionLookup.Log.CacheFileLoaded", cacheFile.getRowCount(), file));
+          return cacheFile;
+        } catch (IOException e) {
+          throw new HopException("Unable to close dimension cache file " + file, e);
+        }
+      } finally {
+        data.db.closeQuery(resultSet);
+      }
+    }
+
+    // Read the rows which changed since the last time. Rows on the watermark itself are read
+    // again in case more rows got the same date after the file was written.
+    //
+    DimensionCache layout = createPreloadCache(current.getRowMeta());
+    int watermarkIndex = layout.getRowMeta().indexOfValue(refreshField);
+    IRowMeta parameterMeta = new RowMeta();
+    parameterMeta.addValueMeta(new ValueMetaDate(refreshField));
+    List<Object[]> rows =
+        data.db.getRows(
+            sql + " WHERE " + meta.getDatabaseMeta().quoteField(refreshField) + " >= ?",
+            parameterMeta,
+            new Object[] {new Date(current.getWatermark())},
+            ResultSet.FETCH_FORWARD,
+            false,
+            -1,
+            null);
+
+    // Leave out the rows which are in the cache already
+    //
+    layout.setRowCache(current.getRows());
+    List<Object[]> changedRows = new ArrayList<>();
+    for (Object[] row : rows) {
+      int index;
+      try {
+        index = layout.lookupRow(row);
+      } catch (HopException e) {
+        index = -1;
+      }
+      if (index < 0 || !Arrays.deepEquals(row, layout.getRow(index))) {
+        changedRows.add(row);
+      }
+    }
+    if (changedRows.isEmpty()) {
+      return current;
+    }
+
+    try (DimensionCacheFile.Writer writer =
+        new DimensionCacheFile.Writer(file, signature, layout, watermarkIndex)) {
+      DimensionCacheFile cacheFile = current.refresh(writer, changedRows, 0);
+      logBasic(
+          BaseMessages.getString(
+              PKG,
+              "DimensionLookup.Log.CacheFileRefreshed",
+              changedRows.size(),
+              cacheFile.getRowCount(),
+              file));
+      return cacheFile;
+    } catch (IOException e) {
+      throw new HopException("Unable to close dimension cache file " + file, e);
+    }
+  }
+
   private synchronized Object[] lookupValues(IRowMeta rowMeta, Object[] row) throws HopException {
     Object[] outputRow = new Object[data.outputRowMeta.size()];
 
@@ -1548,81 +1697,12 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
     }
 
     // store it in the cache if needed.
-    byte[] keyPart = RowMeta.extractData(data.cacheKeyRowMeta, keyValues);
-    byte[] valuePart = RowMeta.extractData(data.cacheValueRowMeta, returnValues);
-    data.cache.put(keyPart, valuePart);
-
-    // check if the size is not too big...
-    // Allow for a buffer overrun of 20% and then remove those 20% in one go.
-    // Just to keep performance in track.
+    // The key and values are copied since the rows they come from are passed on.
+    // The least recently used keys are evicted when the cache gets too big.
     //
-    int tenPercent = meta.getCacheSize() / 10;
-    if (meta.getCacheSize() > 0 && data.cache.size() > meta.getCacheSize() + tenPercent) {
-      // Which cache entries do we delete here?
-      // We delete those with the lowest technical key...
-      // Those would arguably be the "oldest" dimension entries.
-      // Oh well... Nothing is going to be perfect here...
-      //
-      // Getting the lowest 20% requires some kind of sorting algorithm and I'm not sure we want to
-      // do that.
-      // Sorting is slow and even in the best case situation we need to do 2 passes over the cache
-      // entries...
-      //
-      // Perhaps we should get 20% random values and delete everything below the lowest but one TK.
-      //
-      List<byte[]> keys = data.cache.getKeys();
-      int sizeBefore = keys.size();
-      List<Long> samples = new ArrayList<>();
-
-      // Take 10 sample technical keys....
-      int transformsize = keys.size() / 5;
-      if (transformsize < 1) {
-        transformsize = 1; // make shure we have no endless loop
-      }
-      for (int i = 0; i < keys.size(); i += transformsize) {
-        byte[] key = keys.get(i);
-        byte[] value = data.cache.get(key);
-        if (value != null) {
-          Object[] values = RowMeta.getRow(data.cacheValueRowMeta, value);
-          Long tk = data.cacheValueRowMeta.getInteger(values, 0);
-          samples.add(tk);
-        }
-      }
-      // Sort these 5 elements...
-      Collections.sort(samples);
-
-      // What is the smallest?
-      // Take the second, not the fist in the list, otherwise we would be removing a single entry =
-      // not good.
-      if (samples.size() > 1) {
-        data.smallestCacheKey = samples.get(1);
-      } else if (!samples.isEmpty()) { // except when there is only one sample
-        data.smallestCacheKey = samples.get(0);
-      } else {
-        // If no samples found nothing to remove, we're done
-        return;
-      }
-
-      // Remove anything in the cache <= smallest.
-      // This makes it almost single pass...
-      // This algorithm is not 100% correct, but I guess it beats sorting the whole cache all the
-      // time.
-      //
-      for (int i = 0; i < keys.size(); i++) {
-        byte[] key = keys.get(i);
-        byte[] value = data.cache.get(key);
-        if (value != null) {
-          Object[] values = RowMeta.getRow(data.cacheValueRowMeta, value);
-          long tk = data.cacheValueRowMeta.getInteger(values, 0).longValue();
-          if (tk <= data.smallestCacheKey) {
-            data.cache.remove(key); // this one has to go.
-          }
-        }
-      }
-
-      int sizeAfter = data.cache.size();
-      logDetailed("Reduced the lookup cache from " + sizeBefore + " to " + sizeAfter + " rows.");
-    }
+    data.cache.put(
+        Arrays.copyOf(keyValues, data.cacheKeyRowMeta.size()),
+        Arrays.copyOf(returnValues, data.cacheValueRowMeta.size()));
 
     if (isRowLevel()) {
       logRowlevel(
@@ -1655,10 +1735,9 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
       data.cacheValueRowMeta = assembleCacheValueRowMeta();
     }
 
-    byte[] key = RowMeta.extractData(data.cacheKeyRowMeta, keyValues);
-    byte[] value = data.cache.get(key);
+    Object[] value = data.cache.get(keyValues);
     if (value != null) {
-      Object[] row = RowMeta.getRow(data.cacheValueRowMeta, value);
+      Object[] row = value.clone();
 
       // See if the dateValue is between the from and to date ranges...
       // The last 2 values are from and to
@@ -1786,6 +1865,14 @@ public class DimensionLookup extends BaseTransform<DimensionLookupMeta, Dimensio
 
   @Override
   public void dispose() {
+    if (data.cache != null) {
+      data.cache.logStatistics(log);
+      data.cache = null;
+    }
+    if (data.cacheFile != null) {
+      DimensionCacheFile.release(data.cacheFile);
+      data.cacheFile = null;
+    }
     if (data.db != null) {
       try {
         if (!data.db.isAutoCommit()) {
@@ -18,7 +18,7 @@
 package org.apache.hop.pipeline.transforms.dimensionlookup;
 
 import org.apache.hop.core.database.Database;
-import org.apache.hop.core.hash.ByteArrayHashMap;
+import org.apache.hop.core.hash.LookupCache;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -39,9 +39,7 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
   public int[] fieldnrs; // nrs in row of the fields
   public int datefieldnr; // Nr of datefield field in row
 
-  public ByteArrayHashMap cache;
-
-  public long smallestCacheKey;
+  public LookupCache<Object[]> cache;
 
   public Long notFoundTk;
 
@@ -80,6 +78,9 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
 
   public DimensionCache preloadCache;
 
+  /** The memory-mapped file with the pre-loaded rows, shared with other transform copies */
+  public DimensionCacheFile cacheFile;
+
   public List<Integer> preloadIndexes;
 
   public List<Integer> lazyList;
@@ -92,7 +93,6 @@ public class DimensionLookupData extends BaseTransformData implements ITransform
 
     db = null;
     valueDateNow = null;
-    smallestCacheKey = -1;
     realTableName = null;
     realSchemaName = null;
   }
@@ -84,6 +84,12 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
   private Label wlCacheSize;
   private Text wCacheSize;
 
+  private Label wlCacheDirectory;
+  private TextVar wCacheDirectory;
+
+  private Label wlCacheRefreshField;
+  private TextVar wCacheRefreshField;
+
   private CCombo wTk;
 
   private Label wlTkRename;
@@ -396,6 +402,49 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     fdCacheSize.right = new FormAttachment(100, 0);
     wCacheSize.setLayoutData(fdCacheSize);
 
+    // Cache directory ...
+    wlCacheDirectory = new Label(mainComposite, SWT.RIGHT);
+    wlCacheDirectory.setText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.CacheDirectory.Label"));
+    props.setLook(wlCacheDirectory);
+    FormData fdlCacheDirectory = new FormData();
+    fdlCacheDirectory.left = new FormAttachment(0, 0);
+    fdlCacheDirectory.right = new FormAttachment(middle, -margin);
+    fdlCacheDirectory.top = new FormAttachment(wCacheSize, margin);
+    wlCacheDirectory.setLayoutData(fdlCacheDirectory);
+    wCacheDirectory = new TextVar(variables, mainComposite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wCacheDirectory.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.CacheDirectory.Tooltip"));
+    props.setLook(wCacheDirectory);
+    wCacheDirectory.addModifyListener(lsMod);
+    FormData fdCacheDirectory = new FormData();
+    fdCacheDirectory.left = new FormAttachment(middle, 0);
+    fdCacheDirectory.top = new FormAttachment(wCacheSize, margin);
+    fdCacheDirectory.right = new FormAttachment(100, 0);
+    wCacheDirectory.setLayoutData(fdCacheDirectory);
+
+    // Cache refresh field ...
+    wlCacheRefreshField = new Label(mainComposite, SWT.RIGHT);
+    wlCacheRefreshField.setText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.CacheRefreshField.Label"));
+    props.setLook(wlCacheRefreshField);
+    FormData fdlCacheRefreshField = new FormData();
+    fdlCacheRefreshField.left = new FormAttachment(0, 0);
+    fdlCacheRefreshField.right = new FormAttachment(middle, -margin);
+    fdlCacheRefreshField.top = new FormAttachment(wCacheDirectory, margin);
+    wlCacheRefreshField.setLayoutData(fdlCacheRefreshField);
+    wCacheRefreshField =
+        new TextVar(variables, mainComposite, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wCacheRefreshField.setToolTipText(
+        BaseMessages.getString(PKG, "DimensionLookupDialog.CacheRefreshField.Tooltip"));
+    props.setLook(wCacheRefreshField);
+    wCacheRefreshField.addModifyListener(lsMod);
+    FormData fdCacheRefreshField = new FormData();
+    fdCacheRefreshField.left = new FormAttachment(middle, 0);
+    fdCacheRefreshField.top = new FormAttachment(wCacheDirectory, margin);
+    fdCacheRefreshField.right = new FormAttachment(100, 0);
+    wCacheRefreshField.setLayoutData(fdCacheRefreshField);
+
     // THE BOTTOM BUTTONS
     wOk = new Button(mainComposite, SWT.PUSH);
     wOk.setText(BaseMessages.getString(PKG, "System.Button.OK"));
@@ -423,7 +472,7 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     FormData fdTabFolder = new FormData();
     fdTabFolder.left = new FormAttachment(0, 0);
     fdTabFolder.right = new FormAttachment(100, 0);
-    fdTabFolder.top = new FormAttachment(wCacheSize, margin);
+    fdTabFolder.top = new FormAttachment(wCacheRefreshField, margin);
     fdTabFolder.bottom = new FormAttachment(wOk, -margin);
     wTabFolder.setLayoutData(fdTabFolder);
 
@@ -1160,6 +1209,13 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
 
     wlCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
     wCacheSize.setEnabled(wUseCache.getSelection() && !wPreloadCache.getSelection());
+
+    boolean preloading =
+        wUseCache.getSelection() && !wUpdate.getSelection() && wPreloadCache.getSelection();
+    wlCacheDirectory.setEnabled(preloading);
+    wCacheDirectory.setEnabled(preloading);
+    wlCacheRefreshField.setEnabled(preloading);
+    wCacheRefreshField.setEnabled(preloading);
   }
 
   protected void setComboBoxes() {
@@ -1326,6 +1382,8 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     if (input.getCacheSize() >= 0) {
       wCacheSize.setText("" + input.getCacheSize());
     }
+    wCacheDirectory.setText(Const.NVL(input.getCacheDirectory(), ""));
+    wCacheRefreshField.setText(Const.NVL(input.getCacheRefreshField(), ""));
 
     wMinyear.setText("" + input.getMinYear());
     wMaxyear.setText("" + input.getMaxYear());
@@ -1459,6 +1517,8 @@ public class DimensionLookupDialog extends BaseTransformDialog implements ITrans
     if (wPreloadCache.getSelection()) {
       in.setCacheSize(0);
     }
+    in.setCacheDirectory(wCacheDirectory.getText());
+    in.setCacheRefreshField(wCacheRefreshField.getText());
 
     in.setMinYear(Const.toInt(wMinyear.getText(), Const.MIN_YEAR));
     in.setMaxYear(Const.toInt(wMaxyear.getText(), Const.MAX_YEAR));
@@ -234,6 +234,14 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
   @Injection(name = "PRELOAD_CACHE")
   private boolean preloadingCache;
 
+  /** The directory to keep the pre-loaded cache in as a memory-mapped file, empty for the heap */
+  @Injection(name = "CACHE_DIRECTORY")
+  private String cacheDirectory;
+
+  /** The date column to refresh the cache file with, empty to use the start of the date range */
+  @Injection(name = "CACHE_REFRESH_FIELD")
+  private String cacheRefreshField;
+
   public DimensionLookupMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -647,6 +655,8 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
 
     cacheSize = 5000;
     preloadingCache = false;
+    cacheDirectory = null;
+    cacheRefreshField = null;
   }
 
   @Override
@@ -802,6 +812,10 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
 
     retval.append("      ").append(XmlHandler.addTagValue("cache_size", cacheSize));
     retval.append("      ").append(XmlHandler.addTagValue("preload_cache", preloadingCache));
+    retval.append("      ").append(XmlHandler.addTagValue("cache_directory", cacheDirectory));
+    retval
+        .append("      ")
+        .append(XmlHandler.addTagValue("cache_refresh_field", cacheRefreshField));
 
     retval
         .append("      ")
@@ -892,6 +906,8 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
       cacheSize = Const.toInt(XmlHandler.getTagValue(transformNode, "cache_size"), -1);
       preloadingCache =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "preload_cache"));
+      cacheDirectory = XmlHandler.getTagValue(transformNode, "cache_directory");
+      cacheRefreshField = XmlHandler.getTagValue(transformNode, "cache_refresh_field");
       useBatchUpdate = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "useBatch"));
 
       usingStartDateAlternative =
@@ -1850,6 +1866,26 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
     this.preloadingCache = preloadingCache;
   }
 
+  /** @return the directory to keep the pre-loaded cache in, empty to keep it on heap */
+  public String getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  /** @param cacheDirectory the directory to keep the pre-loaded cache in */
+  public void setCacheDirectory(String cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /** @return the date column to refresh the cache file with */
+  public String getCacheRefreshField() {
+    return cacheRefreshField;
+  }
+
+  /** @param cacheRefreshField the date column to refresh the cache file with */
+  public void setCacheRefreshField(String cacheRefreshField) {
+    this.cacheRefreshField = cacheRefreshField;
+  }
+
   /** @return the useBatchUpdate */
   public boolean useBatchUpdate() {
     return useBatchUpdate;
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.dimensionlookup;
+
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DimensionCacheFileTest {
+
+  private static final long DAY = 86400000L;
+
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setupClass() throws HopException {
+    HopEnvironment.init();
+  }
+
+  /** Decoded rows are over-allocated, compare the fields only */
+  private void assertRowEquals(Object[] expected, Object[] actual) {
+    assertArrayEquals(expected, Arrays.copyOf(actual, expected.length));
+  }
+
+  /** Only the cache files are left behind, no temporary files */
+  private void assertNoTempFiles() {
+    for (File file : folder.getRoot().listFiles()) {
+      assertTrue(file.getName(), file.getName().endsWith(DimensionCacheFile.EXTENSION));
+    }
+  }
+
+  private DimensionCache createLayout() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("customer"));
+    rowMeta.addValueMeta(new ValueMetaDate("date_from"));
+    rowMeta.addValueMeta(new ValueMetaDate("date_to"));
+    return new DimensionCache(rowMeta, new int[] {1}, 2, 3);
+  }
+
+  private Object[] createRow(long id, String customer, long from, Long to) {
+    return new Object[] {
+      id, customer, new Date(from * DAY), to == null ? null : new Date(to * DAY)
+    };
+  }
+
+  private Object[] createLookup(String customer, long day) {
+    return new Object[] {null, customer, new Date(day * DAY), null};
+  }
+
+  private DimensionCacheFile write(File file, List<Object[]> rows, int segmentBits)
+      throws Exception {
+    try (DimensionCacheFile.Writer writer =
+        new DimensionCacheFile.Writer(file, "signature", createLayout(), 2, segmentBits)) {
+      for (Object[] row : rows) {
+        writer.addRow(row);
+      }
+      return writer.finish();
+    }
+  }
+
+  @Test
+  public void testWriteUnsortedAcrossSegments() throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    long id = 1;
+    for (int customer = 0; customer < 100; customer++) {
+      rows.add(createRow(id++, "customer-" + customer, 0, 10L));
+      rows.add(createRow(id++, "customer-" + customer, 10, 100L));
+    }
+    Collections.shuffle(rows, new Random(42));
+
+    // Segments of 256 bytes make lots of rows end up near a segment boundary
+    //
+    File file = folder.newFile("customers" + DimensionCacheFile.EXTENSION);
+    DimensionCacheFile cacheFile = write(file, rows, 8);
+    assertEquals(200, cacheFile.getRowCount());
+    assertEquals(10 * DAY, cacheFile.getWatermark());
+    assertNoTempFiles();
+
+    // Open it again and look up every version like the transform does
+    //
+    cacheFile = DimensionCacheFile.open(file);
+    assertEquals("signature", cacheFile.getSignature());
+    DimensionCache cache = createLayout();
+    cache.setRowCache(cacheFile.getRows());
+    for (int customer = 0; customer < 100; customer++) {
+      int index = cache.lookupRow(createLookup("customer-" + customer, 5));
+      assertTrue(index >= 0);
+      Object[] row = cacheFile.getRows().get(index);
+      assertEquals("customer-" + customer, row[1]);
+      assertEquals(new Date(0L), row[2]);
+
+      index = cache.lookupRow(createLookup("customer-" + customer, 15));
+      assertTrue(index >= 0);
+      assertEquals(new Date(10 * DAY), cacheFile.getRows().get(index)[2]);
+    }
+  }
+
+  @Test
+  public void testRefresh() throws Exception {
+    File file = folder.newFile("refresh" + DimensionCacheFile.EXTENSION);
+    DimensionCacheFile cacheFile =
+        write(
+            file,
+            Arrays.asList(
+                createRow(1, "a", 0, null), createRow(2, "b", 0, null), createRow(3, "c", 0, null)),
+            DimensionCacheFile.DEFAULT_SEGMENT_BITS);
+
+    // A new version of a, an update of b and a new customer d
+    //
+    List<Object[]> changedRows =
+        Arrays.asList(
+            createRow(4, "a", 5, null), createRow(2, "b", 0, 20L), createRow(5, "d", 7, null));
+    try (DimensionCacheFile.Writer writer =
+        new DimensionCacheFile.Writer(file, "signature", createLayout(), 2)) {
+      cacheFile = cacheFile.refresh(writer, changedRows, 0);
+    }
+
+    List<Object[]> rows = cacheFile.getRows();
+    assertEquals(5, rows.size());
+    assertRowEquals(createRow(1, "a", 0, 5L), rows.get(0));
+    assertRowEquals(createRow(4, "a", 5, null), rows.get(1));
+    assertRowEquals(createRow(2, "b", 0, 20L), rows.get(2));
+    assertRowEquals(createRow(3, "c", 0, null), rows.get(3));
+    assertRowEquals(createRow(5, "d", 7, null), rows.get(4));
+    assertEquals(7 * DAY, cacheFile.getWatermark());
+    assertNoTempFiles();
+  }
+
+  @Test
+  public void testConcurrentWritersUseOwnTempFiles() throws Exception {
+    File file = folder.newFile("concurrent" + DimensionCacheFile.EXTENSION);
+    try (DimensionCacheFile.Writer first =
+            new DimensionCacheFile.Writer(file, "signature", createLayout(), 2);
+        DimensionCacheFile.Writer second =
+            new DimensionCacheFile.Writer(file, "signature", createLayout(), 2)) {
+      first.addRow(createRow(1, "a", 0, null));
+      second.addRow(createRow(1, "a", 0, null));
+      second.addRow(createRow(2, "b", 0, null));
+      assertEquals(1, first.finish().getRowCount());
+      assertEquals(2, second.finish().getRowCount());
+    }
+    assertEquals(2, DimensionCacheFile.open(file).getRowCount());
+    assertNoTempFiles();
+  }
+
+  @Test
+  public void testUnfinishedWriterRemovesTempFile() throws Exception {
+    File file = folder.newFile("unfinished" + DimensionCacheFile.EXTENSION);
+    try (DimensionCacheFile.Writer writer =
+        new DimensionCacheFile.Writer(file, "signature", createLayout(), 2)) {
+      writer.addRow(createRow(1, "a", 0, null));
+    }
+    assertNoTempFiles();
+  }
+
+  @Test
+  public void testAcquireShares() throws Exception {
+    File file = folder.newFile("shared" + DimensionCacheFile.EXTENSION);
+    AtomicInteger refreshes = new AtomicInteger();
+    DimensionCacheFile.IRefresher refresher =
+        current -> {
+          refreshes.incrementAndGet();
+          if (current != null) {
+            return current;
+          }
+          try {
+            return write(file, Collections.singletonList(createRow(1, "a", 0, null)), 16);
+          } catch (Exception e) {
+            throw new HopException(e);
+          }
+        };
+
+    DimensionCacheFile first = DimensionCacheFile.acquire(file, refresher);
+    DimensionCacheFile second = DimensionCacheFile.acquire(file, refresher);
+    assertSame(first, second);
+    assertEquals(1, refreshes.get());
+
+    DimensionCacheFile.release(first);
+    DimensionCacheFile.release(second);
+
+    // The next user refreshes the file it was given before
+    //
+    DimensionCacheFile third = DimensionCacheFile.acquire(file, refresher);
+    assertSame(first, third);
+    assertEquals(2, refreshes.get());
+    DimensionCacheFile.release(third);
+  }
+
+  @Test
+  public void testReplacedVersionIsClosed() throws Exception {
+    File file = folder.newFile("replaced" + DimensionCacheFile.EXTENSION);
+    DimensionCacheFile.IRefresher refresher =
+        current -> {
+          try {
+            long id = current == null ? 1 : current.getRowCount() + 1;
+            List<Object[]> rows = new ArrayList<>(current == null ? List.of() : current.getRows());
+            rows.add(createRow(id, "customer-" + id, 0, null));
+            return write(file, rows, 16);
+          } catch (Exception e) {
+            throw new HopException(e);
+          }
+        };
+
+    DimensionCacheFile first = DimensionCacheFile.acquire(file, refresher);
+    List<Object[]> view = first.getRows();
+    DimensionCacheFile.release(first);
+
+    DimensionCacheFile second = DimensionCacheFile.acquire(file, refresher);
+    assertNotSame(first, second);
+    assertEquals(2, second.getRowCount());
+    DimensionCacheFile.release(second);
+
+    // A view created before keeps working, but no new views can be made of the old version
+    //
+    assertEquals("customer-1", view.get(0)[1]);
+    try {
+      first.getRows();
+      fail("The replaced version should be closed");
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+  }
+}
@@ -60,6 +60,8 @@ public class DimensionLookupMetaInjectionTest
     check("USE_ALTERNATIVE_START_DATE", () -> meta.isUsingStartDateAlternative());
     check("ALTERNATIVE_START_COLUMN", () -> meta.getStartDateFieldName());
     check("PRELOAD_CACHE", () -> meta.isPreloadingCache());
+    check("CACHE_DIRECTORY", () -> meta.getCacheDirectory());
+    check("CACHE_REFRESH_FIELD", () -> meta.getCacheRefreshField());
     check("CONNECTION_NAME", () -> "My Connection", "My Connection");
 
     IValueMeta mftt = new ValueMetaString("f");
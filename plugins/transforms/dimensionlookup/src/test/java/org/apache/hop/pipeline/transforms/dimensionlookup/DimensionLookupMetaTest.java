@@ -85,6 +85,8 @@ public class DimensionLookupMetaTest implements IInitializer<ITransformMeta> {
             "startDateAlternative",
             "startDateFieldName",
             "preloadingCache",
+            "cacheDirectory",
+            "cacheRefreshField",
             "keyStream",
             "keyLookup",
             "fieldStream",
@@ -608,7 +608,19 @@ public class ExcelInput extends BaseTransform<ExcelInputMeta, ExcelInputData> {
       }
 
       String sheetName = data.sheetNames[data.sheetnr];
-      IKSheet sheet = data.workbook.getSheet(sheetName);
+      IKSheet sheet;
+      if (isSheetForThisCopy()) {
+        sheet = data.workbook.getSheet(sheetName);
+      } else {
+        // Another copy of the transform reads this sheet: don't even open it
+        //
+        if (log.isDebug()) {
+          logDebug(
+              BaseMessages.getString(
+                  PKG, "ExcelInput.Log.SheetForOtherCopy", data.filenr + "." + data.sheetnr));
+        }
+        sheet = null;
+      }
       if (sheet != null) {
         // at what row do we continue reading?
         if (data.rownr < 0) {
@@ -686,6 +698,7 @@ public class ExcelInput extends BaseTransform<ExcelInputMeta, ExcelInputData> {
       if (nextsheet) {
         // Go to the next sheet
         data.sheetnr++;
+        data.sheetCounter++;
 
         // Reset the start-row:
         data.rownr = -1;
@@ -727,6 +740,17 @@ public class ExcelInput extends BaseTransform<ExcelInputMeta, ExcelInputData> {
     return isEmpty;
   }
 
+  /**
+   * When running in parallel the sheets of all files are dealt out over the copies of the
+   * transform, in the order in which they are read.
+   *
+   * @return true if this copy of the transform reads the current sheet
+   */
+  private boolean isSheetForThisCopy() {
+    return !data.parallel
+        || data.sheetCounter % data.totalNumberOfTransforms == data.transformNumber;
+  }
+
   private void jumpToNextFile() throws HopException {
     data.sheetnr = 0;
 
@@ -826,6 +850,16 @@ public class ExcelInput extends BaseTransform<ExcelInputMeta, ExcelInputData> {
       initErrorHandling();
       initReplayFactory();
       data.files = meta.getFileList(this);
+
+      // Divide the sheets over the copies of the transform.
+      // Files we get from a previous transform are already spread over the copies.
+      //
+      data.transformNumber = getCopyNr();
+      data.totalNumberOfTransforms = getTransformMeta().getCopies(this);
+      data.parallel =
+          meta.isRunningInParallel()
+              && !meta.isAcceptingFilenames()
+              && data.totalNumberOfTransforms > 1;
       if (data.files.nrOfFiles() == 0
           && data.files.nrOfMissingFiles() > 0
           && !meta.isAcceptingFilenames()) {
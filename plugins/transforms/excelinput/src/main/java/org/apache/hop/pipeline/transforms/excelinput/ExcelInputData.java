@@ -63,6 +63,15 @@ public class ExcelInputData extends BaseTransformData implements ITransformData
   /** The sheet that's being processed... */
   public IKSheet sheet;
 
+  /** Are the sheets divided over the copies of the transform? */
+  public boolean parallel;
+
+  public int transformNumber;
+  public int totalNumberOfTransforms;
+
+  /** The number of sheets passed so far over all files, to divide the sheets over the copies */
+  public long sheetCounter;
+
   /** The row where we left off the previous time... */
   public int rownr;
 
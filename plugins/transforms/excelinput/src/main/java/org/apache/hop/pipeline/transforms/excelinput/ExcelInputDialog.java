@@ -122,6 +122,8 @@ public class ExcelInputDialog extends BaseTransformDialog implements ITransformD
 
   private Button wStopOnEmpty;
 
+  private Button wParallel;
+
   private Text wInclFilenameField;
 
   private Text wInclSheetnameField;
@@ -741,12 +743,30 @@ public class ExcelInputDialog extends BaseTransformDialog implements ITransformD
     wStopOnEmpty.setLayoutData(fdStopOnEmpty);
     wStopOnEmpty.addSelectionListener(new ComponentSelectionListener(input));
 
+    Label wlParallel = new Label(wContentComp, SWT.RIGHT);
+    wlParallel.setText(BaseMessages.getString(PKG, "ExcelInputDialog.Parallel.Label"));
+    props.setLook(wlParallel);
+    FormData fdlParallel = new FormData();
+    fdlParallel.left = new FormAttachment(0, 0);
+    fdlParallel.top = new FormAttachment(wStopOnEmpty, margin);
+    fdlParallel.right = new FormAttachment(middle, -margin);
+    wlParallel.setLayoutData(fdlParallel);
+    wParallel = new Button(wContentComp, SWT.CHECK);
+    props.setLook(wParallel);
+    wParallel.setToolTipText(BaseMessages.getString(PKG, "ExcelInputDialog.Parallel.Tooltip"));
+    FormData fdParallel = new FormData();
+    fdParallel.left = new FormAttachment(middle, 0);
+    fdParallel.top = new FormAttachment(wlParallel, 0, SWT.CENTER);
+    fdParallel.right = new FormAttachment(100, 0);
+    wParallel.setLayoutData(fdParallel);
+    wParallel.addSelectionListener(new ComponentSelectionListener(input));
+
     Label wlLimit = new Label(wContentComp, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "ExcelInputDialog.Limit.Label"));
     props.setLook(wlLimit);
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
-    fdlLimit.top = new FormAttachment(wStopOnEmpty, margin);
+    fdlLimit.top = new FormAttachment(wParallel, margin);
     fdlLimit.right = new FormAttachment(middle, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new Text(wContentComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
@@ -754,7 +774,7 @@ public class ExcelInputDialog extends BaseTransformDialog implements ITransformD
     wLimit.addModifyListener(lsMod);
     FormData fdLimit = new FormData();
     fdLimit.left = new FormAttachment(middle, 0);
-    fdLimit.top = new FormAttachment(wStopOnEmpty, margin);
+    fdLimit.top = new FormAttachment(wParallel, margin);
     fdLimit.right = new FormAttachment(100, 0);
     wLimit.setLayoutData(fdLimit);
 
@@ -1176,6 +1196,7 @@ public class ExcelInputDialog extends BaseTransformDialog implements ITransformD
     wHeader.setSelection(meta.startsWithHeader());
     wNoEmpty.setSelection(meta.ignoreEmptyRows());
     wStopOnEmpty.setSelection(meta.stopOnEmpty());
+    wParallel.setSelection(meta.isRunningInParallel());
     if (meta.getFileField() != null) {
       wInclFilenameField.setText(meta.getFileField());
     }
@@ -1362,6 +1383,7 @@ public class ExcelInputDialog extends BaseTransformDialog implements ITransformD
     meta.setStartsWithHeader(wHeader.getSelection());
     meta.setIgnoreEmptyRows(wNoEmpty.getSelection());
     meta.setStopOnEmpty(wStopOnEmpty.getSelection());
+    meta.setRunningInParallel(wParallel.getSelection());
 
     meta.setAcceptingFilenames(wAccFilenames.getSelection());
     meta.setAcceptingField(wAccField.getText());
@@ -219,6 +219,10 @@ public class ExcelInputMeta extends BaseTransformMeta<ExcelInput, ExcelInputData
   @Injection(name = "SPREADSHEET_TYPE")
   private SpreadSheetType spreadSheetType;
 
+  /** Do the copies of this transform each read their own part of the sheets? */
+  @Injection(name = "RUNNING_IN_PARALLEL")
+  private boolean runningInParallel;
+
   public ExcelInputMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -582,6 +586,21 @@ public class ExcelInputMeta extends BaseTransformMeta<ExcelInput, ExcelInputData
     this.stopOnEmpty = stopOnEmpty;
   }
 
+  /**
+   * @return true if the copies of this transform each read their own part of the sheets
+   */
+  public boolean isRunningInParallel() {
+    return runningInParallel;
+  }
+
+  /**
+   * @param runningInParallel true if the copies of this transform each read their own part of
+   *     the sheets
+   */
+  public void setRunningInParallel(boolean runningInParallel) {
+    this.runningInParallel = runningInParallel;
+  }
+
   @Override
   public void loadXml(Node transformNode, IHopMetadataProvider metadataProvider)
       throws HopXmlException {
@@ -623,6 +642,7 @@ public class ExcelInputMeta extends BaseTransformMeta<ExcelInput, ExcelInputData
       ignoreEmptyRows = YES.equalsIgnoreCase(nempty) || nempty == null;
       String soempty = XmlHandler.getTagValue(transformNode, "stoponempty");
       stopOnEmpty = YES.equalsIgnoreCase(soempty) || nempty == null;
+      runningInParallel = YES.equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "parallel"));
       sheetRowNumberField = XmlHandler.getTagValue(transformNode, "sheetrownumfield");
       rowNumberField = XmlHandler.getTagValue(transformNode, "rownum_field");
       rowNumberField = XmlHandler.getTagValue(transformNode, "rownumfield");
@@ -941,6 +961,7 @@ public class ExcelInputMeta extends BaseTransformMeta<ExcelInput, ExcelInputData
     retval.append("    ").append(XmlHandler.addTagValue("header", startsWithHeader));
     retval.append("    ").append(XmlHandler.addTagValue("noempty", ignoreEmptyRows));
     retval.append("    ").append(XmlHandler.addTagValue("stoponempty", stopOnEmpty));
+    retval.append("    ").append(XmlHandler.addTagValue("parallel", runningInParallel));
     retval.append("    ").append(XmlHandler.addTagValue("filefield", fileField));
     retval.append("    ").append(XmlHandler.addTagValue("sheetfield", sheetField));
     retval.append("    ").append(XmlHandler.addTagValue("sheetrownumfield", sheetRowNumberField));
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.excelinput.staxpoi;
+
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The shared strings table of an XLSX file, kept in temporary files instead of on the heap.<br>
+ * The table is read once with StAX. Strings are looked up with positioned reads through a small
+ * cache, so memory use doesn't depend on the number of strings. The files are read with {@link
+ * RandomAccessFile} rather than a file channel, which would be closed when a reading thread is
+ * interrupted.
+ */
+public class StaxPoiSharedStrings implements SharedStrings, Closeable {
+
+  private static final int CACHE_SIZE = 4096;
+
+  /** The escape Excel uses for characters which are not allowed in XML, e.g. _x000D_ */
+  private static final Pattern UTF_PATTERN = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+
+  private final File dataFile;
+  private final File indexFile;
+  private RandomAccessFile data;
+  private RandomAccessFile index;
+
+  private int count;
+  private int uniqueCount;
+
+  private byte[] stringBuffer = new byte[256];
+
+  private final int[] cachedIndexes = new int[CACHE_SIZE];
+  private final String[] cachedStrings = new String[CACHE_SIZE];
+
+  /**
+   * Read the shared strings part of an XLSX file.
+   *
+   * @param sharedStringsData the content of the shared strings part, not closed by this method
+   * @throws IOException
+   * @throws XMLStreamException
+   */
+  public StaxPoiSharedStrings(InputStream sharedStringsData)
+      throws IOException, XMLStreamException {
+    Arrays.fill(cachedIndexes, -1);
+    dataFile = File.createTempFile("hop-xlsx-strings", ".tmp");
+    indexFile = File.createTempFile("hop-xlsx-strings", ".idx");
+    dataFile.deleteOnExit();
+    indexFile.deleteOnExit();
+    try {
+      readStrings(sharedStringsData);
+      data = new RandomAccessFile(dataFile, "r");
+      index = new RandomAccessFile(indexFile, "r");
+    } catch (IOException | XMLStreamException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  private void readStrings(InputStream sharedStringsData) throws IOException, XMLStreamException {
+    XMLStreamReader reader =
+        StaxUtil.safeXMLInputFactory().createXMLStreamReader(sharedStringsData);
+    try (OutputStream dataStream = new BufferedOutputStream(new FileOutputStream(dataFile), 65536);
+        DataOutputStream indexStream =
+            new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(indexFile), 65536))) {
+      long offset = 0;
+      StringBuilder text = new StringBuilder();
+      boolean inPhonetic = false;
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          switch (reader.getLocalName()) {
+            case "sst":
+              count = parseCount(reader.getAttributeValue(null, "count"));
+              break;
+            case "si":
+              text.setLength(0);
+              break;
+            case "rPh":
+              // phonetic runs are not part of the text
+              inPhonetic = true;
+              break;
+            case "t":
+              if (!inPhonetic) {
+                text.append(reader.getElementText());
+              }
+              break;
+            default:
+              break;
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          if ("rPh".equals(reader.getLocalName())) {
+            inPhonetic = false;
+          } else if ("si".equals(reader.getLocalName())) {
+            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            indexStream.writeLong(offset);
+            dataStream.write(bytes);
+            offset += bytes.length;
+            uniqueCount++;
+          }
+        }
+      }
+      // the end of the last string
+      indexStream.writeLong(offset);
+    } finally {
+      reader.close();
+    }
+    if (count < uniqueCount) {
+      count = uniqueCount;
+    }
+  }
+
+  private static int parseCount(String value) {
+    try {
+      return value == null ? 0 : Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /** Read the string as it is stored in the file, without decoding escapes */
+  private String readRawString(int idx) throws IOException {
+    if (idx < 0 || idx >= uniqueCount) {
+      throw new ArrayIndexOutOfBoundsException(idx);
+    }
+    index.seek(idx * 8L);
+    long start = index.readLong();
+    int length = (int) (index.readLong() - start);
+
+    if (stringBuffer.length < length) {
+      stringBuffer = new byte[Math.max(length, stringBuffer.length * 2)];
+    }
+    data.seek(start);
+    data.readFully(stringBuffer, 0, length);
+    return new String(stringBuffer, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Get a shared string as plain text.
+   *
+   * @param idx the 0-based index of the string
+   * @return the text of the string
+   */
+  public synchronized String getString(int idx) {
+    int slot = idx & (CACHE_SIZE - 1);
+    if (cachedIndexes[slot] == idx) {
+      return cachedStrings[slot];
+    }
+    try {
+      String string = decode(readRawString(idx));
+      cachedIndexes[slot] = idx;
+      cachedStrings[slot] = string;
+      return string;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read shared string " + idx, e);
+    }
+  }
+
+  /** Decode the escapes of characters like XSSFRichTextString does */
+  static String decode(String value) {
+    if (value.indexOf("_x") < 0) {
+      return value;
+    }
+    Matcher matcher = UTF_PATTERN.matcher(value);
+    StringBuilder decoded = new StringBuilder(value.length());
+    int last = 0;
+    while (matcher.find()) {
+      decoded.append(value, last, matcher.start());
+      decoded.append((char) Integer.parseInt(matcher.group(1), 16));
+      last = matcher.end();
+    }
+    decoded.append(value, last, value.length());
+    return decoded.toString();
+  }
+
+  @Override
+  public synchronized RichTextString getItemAt(int idx) {
+    try {
+      return new XSSFRichTextString(readRawString(idx));
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to read shared string " + idx, e);
+    }
+  }
+
+  @Override
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public int getUniqueCount() {
+    return uniqueCount;
+  }
+
+  /** Close and delete the temporary files */
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      if (data != null) {
+        data.close();
+      }
+      if (index != null) {
+        index.close();
+      }
+    } finally {
+      data = null;
+      index = null;
+      dataFile.delete();
+      indexFile.delete();
+    }
+  }
+}
@@ -39,16 +39,25 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Streaming reader for XLSX sheets.<br>
  * Rows should only be accessed sequentially: random access will severely impact performance.<br>
+ * A background thread parses the rows ahead of the reader, a bounded number at a time.
  */
 public class StaxPoiSheet implements IKSheet {
 
   // set to UTC for coherence with PoiSheet
   private static final TimeZone DATE_TZ = TimeZone.getTimeZone("UTC");
 
+  // the number of rows parsed ahead
+  private static final int ROW_BUFFER_SIZE = 256;
+
+  private static final ParsedRow END_OF_SHEET = new ParsedRow(-1, null, null);
+
   private final String sheetName;
   private final String sheetId;
 
@@ -67,6 +76,12 @@ public class StaxPoiSheet implements IKSheet {
   private int firstRow;
   private IKCell[] currentRowCells;
 
+  // the rows parsed ahead by the row reader thread
+  private BlockingQueue<ParsedRow> parsedRows;
+  private Thread rowReader;
+  private volatile boolean stoppingRowReader;
+  private boolean sheetEnded;
+
   // full shared strings table
   private SharedStrings sst;
   // custom styles
@@ -74,10 +89,22 @@ public class StaxPoiSheet implements IKSheet {
 
   public StaxPoiSheet(XSSFReader reader, String sheetName, String sheetID)
       throws InvalidFormatException, IOException, XMLStreamException {
+    this(reader, sheetName, sheetID, reader.getSharedStringsTable());
+  }
+
+  /**
+   * @param reader the reader of the workbook
+   * @param sheetName the name of the sheet
+   * @param sheetID the relation ID of the sheet
+   * @param sharedStrings the shared strings of the workbook
+   */
+  public StaxPoiSheet(
+      XSSFReader reader, String sheetName, String sheetID, SharedStrings sharedStrings)
+      throws InvalidFormatException, IOException, XMLStreamException {
     this.sheetName = sheetName;
     xssfReader = reader;
     sheetId = sheetID;
-    sst = reader.getSharedStringsTable();
+    sst = sharedStrings;
     styles = reader.getStylesTable();
     sheetStream = reader.getSheet(sheetID);
     XMLInputFactory factory = StaxUtil.safeXMLInputFactory();
@@ -121,7 +148,7 @@ public class StaxPoiSheet implements IKSheet {
                   if (event == XMLStreamConstants.START_ELEMENT
                       && sheetReader.getLocalName().equals("v")) {
                     int idx = Integer.parseInt(sheetReader.getElementText());
-                    String content = sst.getItemAt(idx).getString();
+                    String content = getSharedString(idx);
                     headerRow.add(content);
                     break;
                   }
@@ -184,17 +211,14 @@ public class StaxPoiSheet implements IKSheet {
         // allow random access per api despite performance hit
         resetSheetReader();
       }
-      while (sheetReader.hasNext()) {
-        int event = sheetReader.next();
-        if (event == XMLStreamConstants.START_ELEMENT && sheetReader.getLocalName().equals("row")) {
-          String rowIndicator = sheetReader.getAttributeValue(null, "r");
-          currentRow = Integer.parseInt(rowIndicator);
-          if (currentRow < rownr + 1) {
-            continue;
-          }
-          currentRowCells = parseRow();
-          return currentRowCells;
+      ParsedRow row;
+      while ((row = nextRow()) != null) {
+        currentRow = row.number;
+        if (currentRow < rownr + 1) {
+          continue;
         }
+        currentRowCells = row.cells;
+        return currentRowCells;
       }
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -203,7 +227,104 @@ public class StaxPoiSheet implements IKSheet {
     return new IKCell[] {};
   }
 
-  private IKCell[] parseRow() throws XMLStreamException {
+  /** A row parsed by the row reader thread, or the error it ran into */
+  private static final class ParsedRow {
+    private final int number;
+    private final IKCell[] cells;
+    private final Exception error;
+
+    private ParsedRow(int number, IKCell[] cells, Exception error) {
+      this.number = number;
+      this.cells = cells;
+      this.error = error;
+    }
+  }
+
+  /**
+   * Get the next row of the sheet from the row reader thread, which is started when needed.
+   *
+   * @return the next row or null at the end of the sheet
+   */
+  private ParsedRow nextRow() throws Exception {
+    if (sheetEnded) {
+      return null;
+    }
+    if (rowReader == null) {
+      parsedRows = new ArrayBlockingQueue<>(ROW_BUFFER_SIZE);
+      rowReader = new Thread(this::readRows, "Reading sheet " + sheetName);
+      rowReader.setDaemon(true);
+      rowReader.start();
+    }
+    ParsedRow row = parsedRows.take();
+    if (row == END_OF_SHEET || row.error != null) {
+      // the row reader thread stopped
+      sheetEnded = true;
+      stopRowReader();
+      if (row.error != null) {
+        throw row.error;
+      }
+      return null;
+    }
+    return row;
+  }
+
+  /**
+   * Runs in the row reader thread: parses the rows of the sheet until it ends or the thread is
+   * asked to stop. The thread isn't interrupted: that would close the file channels it might be
+   * reading from.
+   */
+  private void readRows() {
+    ParsedRow last;
+    try {
+      while (!stoppingRowReader && sheetReader.hasNext()) {
+        int event = sheetReader.next();
+        if (event == XMLStreamConstants.START_ELEMENT && sheetReader.getLocalName().equals("row")) {
+          int rowNumber = Integer.parseInt(sheetReader.getAttributeValue(null, "r"));
+          if (!putRow(new ParsedRow(rowNumber, parseRow(rowNumber), null))) {
+            return;
+          }
+        }
+      }
+      last = END_OF_SHEET;
+    } catch (Exception e) {
+      last = new ParsedRow(-1, null, e);
+    }
+    putRow(last);
+  }
+
+  /** @return false if the row reader is stopped before there is room for the row */
+  private boolean putRow(ParsedRow row) {
+    try {
+      while (!stoppingRowReader) {
+        if (parsedRows.offer(row, 10, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private void stopRowReader() throws InterruptedException {
+    if (rowReader != null) {
+      stoppingRowReader = true;
+      parsedRows.clear();
+      rowReader.join();
+      stoppingRowReader = false;
+      rowReader = null;
+      parsedRows = null;
+    }
+  }
+
+  private String getSharedString(int idx) {
+    if (sst instanceof StaxPoiSharedStrings) {
+      return ((StaxPoiSharedStrings) sst).getString(idx);
+    }
+    return sst.getItemAt(idx).getString();
+  }
+
+  private IKCell[] parseRow(int rowNumber) throws XMLStreamException {
     List<StaxPoiCell> cells;
     if (isMaxColsNumberDefined()) {
       cells = new ArrayList<>(numCols);
@@ -239,7 +360,7 @@ public class StaxPoiSheet implements IKSheet {
           // read content as string
           if (cellType != null && cellType.equals("s")) {
             int idx = Integer.parseInt(sheetReader.getElementText());
-            content = sst.getItemAt(idx).getString();
+            content = getSharedString(idx);
           } else {
             content = sheetReader.getElementText();
           }
@@ -266,7 +387,7 @@ public class StaxPoiSheet implements IKSheet {
             cells,
             undefinedColIndex,
             columnIndex,
-            new StaxPoiCell(parseValue(kcType, content), kcType, currentRow));
+            new StaxPoiCell(parseValue(kcType, content), kcType, rowNumber));
       } else {
         // else let cell be null
         setCells(cells, undefinedColIndex, columnIndex, null);
@@ -378,7 +499,10 @@ public class StaxPoiSheet implements IKSheet {
     }
   }
 
-  private void resetSheetReader() throws IOException, XMLStreamException, InvalidFormatException {
+  private void resetSheetReader()
+      throws IOException, XMLStreamException, InvalidFormatException, InterruptedException {
+    stopRowReader();
+    sheetEnded = false;
     sheetReader.close();
     sheetStream.close();
     sheetStream = xssfReader.getSheet(sheetId);
@@ -388,6 +512,11 @@ public class StaxPoiSheet implements IKSheet {
   }
 
   public void close() throws IOException, XMLStreamException {
+    try {
+      stopRowReader();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
     sheetReader.close();
     sheetStream.close();
   }
@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.excelinput.staxpoi;
 
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.provider.local.LocalFile;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.HopLogStore;
 import org.apache.hop.core.logging.ILogChannel;
@@ -24,21 +26,27 @@ import org.apache.hop.core.spreadsheet.IKSheet;
 import org.apache.hop.core.spreadsheet.IKWorkbook;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Streaming reader for XLSX files.<br>
- * Does not open XLS.
+ * Does not open XLS. Local files are read in place and the shared strings are kept in temporary
+ * files, so memory use doesn't grow with the size of the workbook.
  */
 public class StaxPoiWorkbook implements IKWorkbook {
 
@@ -59,6 +67,10 @@ public class StaxPoiWorkbook implements IKWorkbook {
 
   private OPCPackage opcpkg;
 
+  // read when the first sheet is opened
+  private StaxPoiSharedStrings sharedStrings;
+  private boolean sharedStringsRead;
+
   protected StaxPoiWorkbook() {
     openSheetsMap = new HashMap<>();
     this.log = HopLogStore.getLogChannelFactory().create(this);
@@ -67,7 +79,15 @@ public class StaxPoiWorkbook implements IKWorkbook {
   public StaxPoiWorkbook(String filename, String encoding) throws HopException {
     this();
     try {
-      opcpkg = OPCPackage.open(HopVfs.getInputStream(filename));
+      FileObject fileObject = HopVfs.getFileObject(filename);
+      if (fileObject instanceof LocalFile) {
+        // Read the entries from the zip file when they are needed instead of all up front
+        //
+        File excelFile = new File(HopVfs.getFilename(fileObject));
+        opcpkg = OPCPackage.open(excelFile, PackageAccess.READ);
+      } else {
+        opcpkg = OPCPackage.open(HopVfs.getInputStream(filename));
+      }
       openFile(opcpkg, encoding);
     } catch (Exception e) {
       throw new HopException(e);
@@ -131,7 +151,7 @@ public class StaxPoiWorkbook implements IKWorkbook {
 
     if (sheet == null) {
       try {
-        sheet = new StaxPoiSheet(reader, sheetName, sheetID);
+        sheet = new StaxPoiSheet(reader, sheetName, sheetID, getSharedStrings());
         openSheetsMap.put(sheetID, sheet);
       } catch (Exception e) {
         log.logError(sheetName, e);
@@ -140,6 +160,20 @@ public class StaxPoiWorkbook implements IKWorkbook {
     return sheet;
   }
 
+  private StaxPoiSharedStrings getSharedStrings() throws IOException, XMLStreamException {
+    if (!sharedStringsRead) {
+      sharedStringsRead = true;
+      List<PackagePart> parts =
+          opcpkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+      if (!parts.isEmpty()) {
+        try (InputStream sharedStringsData = parts.get(0).getInputStream()) {
+          sharedStrings = new StaxPoiSharedStrings(sharedStringsData);
+        }
+      }
+    }
+    return sharedStrings;
+  }
+
   @Override
   public String[] getSheetNames() {
     String[] sheets = new String[sheetNameIDMap.size()];
@@ -158,6 +192,13 @@ public class StaxPoiWorkbook implements IKWorkbook {
         log.logError("Could not close xmlstream", e);
       }
     }
+    if (sharedStrings != null) {
+      try {
+        sharedStrings.close();
+      } catch (IOException e) {
+        log.logError("Could not delete the shared strings files", e);
+      }
+    }
     if (opcpkg != null) {
       // We should not save change in xlsx because it is input transform.
       opcpkg.revert();
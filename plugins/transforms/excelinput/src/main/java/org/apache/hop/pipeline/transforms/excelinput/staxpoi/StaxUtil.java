@@ -57,11 +57,12 @@ public class StaxUtil {
    * @return The 1-based column number
    */
   public static final int parseColumnNumber(String columnIndicator) {
+    // This is called for every cell, so no powers of 26 in floating point
     int col = 0;
-    for (int i = columnIndicator.length() - 1; i >= 0; i--) {
+    for (int i = 0; i < columnIndicator.length(); i++) {
       char c = columnIndicator.charAt(i);
       int offset = 1 + Character.getNumericValue(c) - Character.getNumericValue('A');
-      col += Math.pow(26, columnIndicator.length() - i - 1.0D) * offset;
+      col = col * 26 + offset;
     }
 
     return col;
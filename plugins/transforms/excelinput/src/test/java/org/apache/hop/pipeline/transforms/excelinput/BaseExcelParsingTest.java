@@ -50,6 +50,11 @@ public class BaseExcelParsingTest
 
   /** Initialize for processing specified file. */
   protected void init(String file) throws Exception {
+    init(file, 1);
+  }
+
+  /** Initialize the given copy of the transform for processing specified file. */
+  protected void init(String file, int copyNr) throws Exception {
     meta.setFileName(new String[] {getFile(file).getURL().getFile()});
     meta.setFileMask(new String[] {""});
     meta.setExcludeFileMask(new String[] {""});
@@ -57,7 +62,7 @@ public class BaseExcelParsingTest
     meta.setIncludeSubFolders(new String[] {"N"});
 
     transform =
-        new ExcelInput(transformMeta, meta, new ExcelInputData(), 1, pipelineMeta, pipeline);
+        new ExcelInput(transformMeta, meta, new ExcelInputData(), copyNr, pipelineMeta, pipeline);
     transform.init();
     transform.addRowListener(rowListener);
   }
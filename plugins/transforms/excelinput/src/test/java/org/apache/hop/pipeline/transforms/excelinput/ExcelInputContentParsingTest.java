@@ -23,6 +23,9 @@ import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.Set;
+import java.util.TreeSet;
+
 import static org.junit.Assert.assertEquals;
 
 public class ExcelInputContentParsingTest extends BaseExcelParsingTest {
@@ -338,4 +341,43 @@ public class ExcelInputContentParsingTest extends BaseExcelParsingTest {
     assertEquals(
         "Wrong last result", lastResult, rows.get(PDI_17765_ROW_LIMIT_MULTIPLE_SHEET - 1)[0]);
   }
+
+  @Test
+  public void testSheetsAreSplitOverCopies() throws Exception {
+    int allRows = readSheetsOfCopy(false, 0, new TreeSet<>());
+
+    Set<String> sheetsOfCopy0 = new TreeSet<>();
+    int rowsOfCopy0 = readSheetsOfCopy(true, 0, sheetsOfCopy0);
+    Set<String> sheetsOfCopy1 = new TreeSet<>();
+    int rowsOfCopy1 = readSheetsOfCopy(true, 1, sheetsOfCopy1);
+
+    assertEquals(new TreeSet<>(Set.of("Sheet1", "Sheet3")), sheetsOfCopy0);
+    assertEquals(Set.of("Sheet2"), sheetsOfCopy1);
+    assertEquals(allRows, rowsOfCopy0 + rowsOfCopy1);
+  }
+
+  private int readSheetsOfCopy(boolean parallel, int copyNr, Set<String> sheets)
+      throws Exception {
+    after();
+    rows.clear();
+    meta.setSpreadSheetType(SpreadSheetType.SAX_POI);
+    meta.setSheetField("sheet");
+    setFields(new ExcelInputField("COL", -1, -1));
+    meta.setStartsWithHeader(true);
+    meta.setStartRow(CNST_3_ZERO_INT_ARRAY);
+    meta.setStartColumn(CNST_3_ZERO_INT_ARRAY);
+    meta.setSheetName(CNST_3_SHEET_NAME_ARRAY);
+    meta.normilizeAllocation();
+    meta.setRunningInParallel(parallel);
+    transformMeta.setCopies(2);
+
+    init("pdi-17765.xlsx", copyNr);
+    process();
+
+    checkErrors();
+    for (Object[] row : rows) {
+      sheets.add((String) row[1]);
+    }
+    return rows.size();
+  }
 }
@@ -61,5 +61,6 @@ public class ExcelInputMetaInjectionTest extends BaseMetadataInjectionTest<Excel
     check("FILE_REQUIRED", () -> meta.getFileRequired()[0]);
     check("INCLUDE_SUBFOLDERS", () -> meta.getIncludeSubFolders()[0]);
     check("SPREADSHEET_TYPE", () -> meta.getSpreadSheetType(), SpreadSheetType.class);
+    check("RUNNING_IN_PARALLEL", () -> meta.isRunningInParallel());
   }
 }
@@ -358,6 +358,8 @@ public class ExcelInputMetaTest {
             + SystemUtils.LINE_SEPARATOR
             + "    <stoponempty>N</stoponempty>"
             + SystemUtils.LINE_SEPARATOR
+            + "    <parallel>N</parallel>"
+            + SystemUtils.LINE_SEPARATOR
             + "    <filefield/>"
             + SystemUtils.LINE_SEPARATOR
             + "    <sheetfield/>"
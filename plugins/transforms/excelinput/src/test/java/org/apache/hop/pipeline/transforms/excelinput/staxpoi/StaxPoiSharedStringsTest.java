@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.excelinput.staxpoi;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StaxPoiSharedStringsTest {
+
+  private static final String SHARED_STRINGS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+          + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+          + " count=\"10\" uniqueCount=\"5\">"
+          + "<si><t>Plain</t></si>"
+          + "<si><r><rPr><b/></rPr><t>Rich </t></r><r><t xml:space=\"preserve\">text</t></r></si>"
+          + "<si><t>東京</t><rPh sb=\"0\" eb=\"2\"><t>トウキョウ</t>"
+          + "</rPh><phoneticPr fontId=\"1\"/></si>"
+          + "<si><t>Line_x000D__x000A_break and _x005F_x0041_</t></si>"
+          + "<si><t/></si>"
+          + "</sst>";
+
+  private StaxPoiSharedStrings sharedStrings;
+
+  @Before
+  public void setUp() throws Exception {
+    try (InputStream inputStream = IOUtils.toInputStream(SHARED_STRINGS, "UTF-8")) {
+      sharedStrings = new StaxPoiSharedStrings(inputStream);
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    sharedStrings.close();
+  }
+
+  @Test
+  public void testCounts() {
+    assertEquals(10, sharedStrings.getCount());
+    assertEquals(5, sharedStrings.getUniqueCount());
+  }
+
+  @Test
+  public void testGetString() {
+    assertEquals("Plain", sharedStrings.getString(0));
+    assertEquals("Rich text", sharedStrings.getString(1));
+    assertEquals("", sharedStrings.getString(4));
+    // Cached
+    assertEquals("Plain", sharedStrings.getString(0));
+  }
+
+  @Test
+  public void testPhoneticRunsAreSkipped() {
+    assertEquals("東京", sharedStrings.getString(2));
+  }
+
+  @Test
+  public void testEscapesAreDecoded() {
+    assertEquals("Line\r\nbreak and _x0041_", sharedStrings.getString(3));
+    assertEquals("Line\r\nbreak and _x0041_", sharedStrings.getItemAt(3).getString());
+    assertEquals("no escapes", StaxPoiSharedStrings.decode("no escapes"));
+    assertEquals("_x12_ and _xZZZZ_", StaxPoiSharedStrings.decode("_x12_ and _xZZZZ_"));
+  }
+
+  @Test
+  public void testInvalidIndex() {
+    try {
+      sharedStrings.getString(5);
+      fail("Index 5 doesn't exist");
+    } catch (ArrayIndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testLookupOnInterruptedThread() {
+    // An interrupt must not close the files for later lookups
+    Thread.currentThread().interrupt();
+    try {
+      assertEquals("Rich text", sharedStrings.getString(1));
+    } finally {
+      assertTrue(Thread.interrupted());
+    }
+    assertEquals("Plain", sharedStrings.getString(0));
+  }
+
+  @Test
+  public void testEmptyTable() throws Exception {
+    String xml =
+        "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"x\"/>";
+    try (InputStream inputStream = IOUtils.toInputStream(xml, "UTF-8");
+        StaxPoiSharedStrings empty = new StaxPoiSharedStrings(inputStream)) {
+      assertEquals(0, empty.getCount());
+      assertEquals(0, empty.getUniqueCount());
+      try {
+        empty.getString(0);
+        fail("The table is empty");
+      } catch (ArrayIndexOutOfBoundsException e) {
+        // expected
+      }
+    }
+  }
+}
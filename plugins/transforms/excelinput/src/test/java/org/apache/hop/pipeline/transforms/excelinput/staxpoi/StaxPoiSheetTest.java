@@ -288,6 +288,68 @@ public class StaxPoiSheetTest {
     return new StaxPoiSheet(reader, "Sheet 1", sheetId);
   }
 
+  @Test
+  public void testReadLargeSheetWithSharedStrings() throws Exception {
+    // More rows than the row reader thread buffers, so it is blocked when the sheet is reset
+    final int rows = 1000;
+    StringBuilder strings = new StringBuilder();
+    for (int i = 0; i < 10; i++) {
+      strings.append("<si><t>String ").append(i).append("</t></si>");
+    }
+    StringBuilder sheetData = new StringBuilder();
+    for (int i = 1; i <= rows; i++) {
+      sheetData
+          .append("<row r=\"")
+          .append(i)
+          .append("\"><c r=\"A")
+          .append(i)
+          .append("\" t=\"s\"><v>")
+          .append(i % 10)
+          .append("</v></c><c r=\"B")
+          .append(i)
+          .append("\"><v>")
+          .append(i)
+          .append("</v></c></row>");
+    }
+    String sheetContent =
+        String.format(
+            BP_SHEET,
+            "<dimension ref=\"A1:B"
+                + rows
+                + "\"/><sheetData>"
+                + sheetData
+                + "</sheetData>");
+    XSSFReader reader =
+        mockXSSFReader("1", sheetContent, mock(SharedStringsTable.class), mock(StylesTable.class));
+    try (InputStream sstStream =
+            IOUtils.toInputStream(
+                "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                    + strings
+                    + "</sst>",
+                "UTF-8");
+        StaxPoiSharedStrings sharedStrings = new StaxPoiSharedStrings(sstStream)) {
+      StaxPoiSheet sheet = new StaxPoiSheet(reader, "Sheet 1", "1", sharedStrings);
+      assertEquals(rows, sheet.getRows());
+      for (int i = 0; i < 600; i++) {
+        assertRow(sheet.getRow(i), i + 1);
+      }
+      // going back restarts the row reader thread
+      assertRow(sheet.getRow(10), 11);
+      for (int i = 11; i < rows; i++) {
+        assertRow(sheet.getRow(i), i + 1);
+      }
+      assertRow(sheet.getRow(0), 1);
+      // close while the row reader thread is waiting for the buffer to drain
+      sheet.close();
+      assertEquals("String 3", sharedStrings.getString(3));
+    }
+  }
+
+  private void assertRow(IKCell[] cells, int rowNumber) {
+    assertEquals("String " + (rowNumber % 10), cells[0].getValue());
+    assertEquals((double) rowNumber, ((Number) cells[1].getValue()).doubleValue(), 0d);
+  }
+
   private XSSFReader mockXSSFReader(
       final String sheetId,
       final String sheetContent,
@@ -29,6 +29,7 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.stream.IStream;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /** Filters input rows base on conditions. */
@@ -65,10 +66,11 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
   @Override
   public boolean processRow() throws HopException {
 
-    boolean keep;
+    long previousLinesRead = getLinesRead();
 
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if (r == null) { // no more input to be expected...
+    // Get the next usable rows from input rowset(s)!
+    List<Object[]> rows = getRows(getRowsInBatch());
+    if (rows == null) { // no more input to be expected...
 
       setOutputDone();
       return false;
@@ -123,38 +125,46 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       }
     }
 
-    keep = keepRow(getInputRowMeta(), r); // Keep this row?
-    if (!data.chosesTargetTransforms) {
-      if (keep) {
-        putRow(data.outputRowMeta, r); // copy row to output rowset(s)
+    List<Object[]> trueRows = new ArrayList<>(rows.size());
+    List<Object[]> falseRows = data.chosesTargetTransforms ? new ArrayList<>() : null;
+    for (Object[] r : rows) {
+      if (keepRow(getInputRowMeta(), r)) { // Keep this row?
+        trueRows.add(r);
+      } else if (falseRows != null) {
+        falseRows.add(r);
       }
+    }
+
+    if (!data.chosesTargetTransforms) {
+      putRows(data.outputRowMeta, trueRows); // copy rows to output rowset(s)
     } else {
-      if (keep) {
-        if (data.trueRowSet != null) {
-          if (log.isRowLevel()) {
+      if (data.trueRowSet != null) {
+        if (log.isRowLevel()) {
+          for (Object[] r : trueRows) {
             logRowlevel(
                 "Sending row to true  :"
                     + data.trueTransformName
                     + " : "
                     + getInputRowMeta().getString(r));
           }
-          putRowTo(data.outputRowMeta, r, data.trueRowSet);
         }
-      } else {
-        if (data.falseRowSet != null) {
-          if (log.isRowLevel()) {
+        putRowsTo(data.outputRowMeta, trueRows, data.trueRowSet);
+      }
+      if (data.falseRowSet != null) {
+        if (log.isRowLevel()) {
+          for (Object[] r : falseRows) {
             logRowlevel(
                 "Sending row to false :"
                     + data.falseTransformName
                     + " : "
                     + getInputRowMeta().getString(r));
           }
-          putRowTo(data.outputRowMeta, r, data.falseRowSet);
         }
+        putRowsTo(data.outputRowMeta, falseRows, data.falseRowSet);
       }
     }
 
-    if (checkFeedback(getLinesRead())) {
+    if (checkFeedback(previousLinesRead, getLinesRead())) {
       if (log.isBasic()) {
         logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + getLinesRead());
       }
@@ -21,6 +21,7 @@ import org.apache.commons.lang.ArrayUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.StagingTableMerger;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -36,6 +37,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeSet;
 
 /**
  * Performs a lookup in a database table. If the key doesn't exist it inserts values into the table,
@@ -44,6 +46,9 @@ import java.util.List;
 public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateData> {
   private static final Class<?> PKG = InsertUpdateMeta.class; // For Translator
 
+  /** The number of rows to merge at once in set based mode when there is no commit size */
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+
   public InsertUpdate(
       TransformMeta transformMeta,
       InsertUpdateMeta meta,
@@ -183,6 +188,15 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
     if (r == null) {
       // no more input to be expected...
 
+      if (data.merger != null) {
+        try {
+          mergeBatch();
+        } catch (HopException e) {
+          logError(BaseMessages.getString(PKG, "InsertUpdate.Log.ErrorInTransform"), e);
+          setErrors(1);
+          stopAll();
+        }
+      }
       setOutputDone();
       return false;
     }
@@ -276,50 +290,59 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
         }
       }
 
-      setLookup(getInputRowMeta());
-
-      data.insertRowMeta = new RowMeta();
+      if (meta.isSetBased() && isSetBasedPossible(databaseMeta)) {
+        openMerger();
+      } else {
+        setLookup(getInputRowMeta());
 
-      // Insert the update fields: just names. Type doesn't matter!
-      for (int i = 0; i < meta.getInsertUpdateLookupField().getValueFields().size(); i++) {
-        InsertUpdateValue valueField = meta.getInsertUpdateLookupField().getValueFields().get(i);
-        IValueMeta insValue = data.insertRowMeta.searchValueMeta(valueField.getUpdateLookup());
-        if (insValue == null) {
-          // Don't add twice!
-
-          // we already checked that this value exists so it's probably safe to ignore lookup
-          // failure...
-          IValueMeta insertValue =
-              getInputRowMeta().searchValueMeta(valueField.getUpdateStream()).clone();
-          insertValue.setName(valueField.getUpdateLookup());
-          data.insertRowMeta.addValueMeta(insertValue);
-        } else {
-          throw new HopTransformException(
-              "The same column can't be inserted into the target row twice: "
-                  + insValue.getName()); // TODO i18n
-        }
-      }
-      data.db.prepareInsert(
-          data.insertRowMeta, resolve(meta.getSchemaName()), resolve(meta.getTableName()));
+        data.insertRowMeta = new RowMeta();
 
-      if (!meta.isUpdateBypassed()) {
-        List<String> updateColumns = new ArrayList<>();
+        // Insert the update fields: just names. Type doesn't matter!
         for (int i = 0; i < meta.getInsertUpdateLookupField().getValueFields().size(); i++) {
           InsertUpdateValue valueField = meta.getInsertUpdateLookupField().getValueFields().get(i);
-          if (valueField.isUpdate()) {
-            updateColumns.add(valueField.getUpdateLookup());
+          IValueMeta insValue = data.insertRowMeta.searchValueMeta(valueField.getUpdateLookup());
+          if (insValue == null) {
+            // Don't add twice!
+
+            // we already checked that this value exists so it's probably safe to ignore lookup
+            // failure...
+            IValueMeta insertValue =
+                getInputRowMeta().searchValueMeta(valueField.getUpdateStream()).clone();
+            insertValue.setName(valueField.getUpdateLookup());
+            data.insertRowMeta.addValueMeta(insertValue);
+          } else {
+            throw new HopTransformException(
+                "The same column can't be inserted into the target row twice: "
+                    + insValue.getName()); // TODO i18n
           }
         }
-        prepareUpdate(getInputRowMeta());
+        data.db.prepareInsert(
+            data.insertRowMeta, resolve(meta.getSchemaName()), resolve(meta.getTableName()));
+
+        if (!meta.isUpdateBypassed()) {
+          List<String> updateColumns = new ArrayList<>();
+          for (int i = 0; i < meta.getInsertUpdateLookupField().getValueFields().size(); i++) {
+            InsertUpdateValue valueField =
+                meta.getInsertUpdateLookupField().getValueFields().get(i);
+            if (valueField.isUpdate()) {
+              updateColumns.add(valueField.getUpdateLookup());
+            }
+          }
+          prepareUpdate(getInputRowMeta());
+        }
       }
     }
 
     try {
-      lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
-      putRow(
-          data.outputRowMeta,
-          r); // Nothing changed to the input, return the same row, pass a "cloned" metadata
-      // row.
+      if (data.merger != null) {
+        addToBatch(r); // the row is passed on once its batch is merged
+      } else {
+        lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
+        putRow(
+            data.outputRowMeta,
+            r); // Nothing changed to the input, return the same row, pass a "cloned" metadata
+        // row.
+      }
 
       if (checkFeedback(getLinesRead())) {
         if (log.isBasic()) {
@@ -347,6 +370,139 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
     return true;
   }
 
+  /**
+   * Set based mode merges rows with plain key equality into a database which can merge. If that's
+   * not the case we log why and fall back to looking up and changing the rows one by one.
+   */
+  private boolean isSetBasedPossible(DatabaseMeta databaseMeta) {
+    String reason = null;
+    if (!databaseMeta.getIDatabase().supportsMerge()) {
+      reason =
+          BaseMessages.getString(
+              PKG, "InsertUpdate.Log.SetBased.NotSupported", databaseMeta.getPluginName());
+    } else if (getTransformMeta().isDoingErrorHandling()) {
+      reason = BaseMessages.getString(PKG, "InsertUpdate.Log.SetBased.ErrorHandling");
+    } else if (meta.getInsertUpdateLookupField().getLookupKeys().isEmpty()
+        || meta.getInsertUpdateLookupField().getValueFields().isEmpty()) {
+      reason = BaseMessages.getString(PKG, "InsertUpdate.Log.SetBased.NoKeysOrValues");
+    } else {
+      for (InsertUpdateKeyField keyField : meta.getInsertUpdateLookupField().getLookupKeys()) {
+        if (!"=".equals(Const.trim(Const.NVL(keyField.getKeyCondition(), "")))) {
+          reason =
+              BaseMessages.getString(
+                  PKG, "InsertUpdate.Log.SetBased.KeyCondition", keyField.getKeyCondition());
+          break;
+        }
+      }
+    }
+    if (reason != null) {
+      logBasic(BaseMessages.getString(PKG, "InsertUpdate.Log.SetBasedNotPossible", reason));
+      return false;
+    }
+    return true;
+  }
+
+  private void openMerger() throws HopException {
+    IRowMeta stagingRowMeta = new RowMeta();
+    List<Integer> stagingFieldnrs = new ArrayList<>();
+    List<String> keyColumns = new ArrayList<>();
+    List<String> insertColumns = new ArrayList<>();
+    List<String> updateColumns = new ArrayList<>();
+
+    // All key conditions are "=" so there is one key field nr per key
+    //
+    List<InsertUpdateKeyField> keyFields = meta.getInsertUpdateLookupField().getLookupKeys();
+    for (int i = 0; i < keyFields.size(); i++) {
+      String column = keyFields.get(i).getKeyLookup();
+      addStagingColumn(stagingRowMeta, stagingFieldnrs, column, data.keynrs[i]);
+      keyColumns.add(column);
+    }
+    List<InsertUpdateValue> valueFields = meta.getInsertUpdateLookupField().getValueFields();
+    for (int i = 0; i < valueFields.size(); i++) {
+      InsertUpdateValue valueField = valueFields.get(i);
+      String column = valueField.getUpdateLookup();
+      addStagingColumn(stagingRowMeta, stagingFieldnrs, column, data.valuenrs[i]);
+      insertColumns.add(column);
+      if (!meta.isUpdateBypassed() && valueField.isUpdate() && !keyColumns.contains(column)) {
+        updateColumns.add(column);
+      }
+    }
+    data.stagingFieldnrs = ArrayUtils.toPrimitive(stagingFieldnrs.toArray(new Integer[0]));
+
+    data.merger =
+        new StagingTableMerger(
+            data.db,
+            data.schemaTable,
+            StagingTableMerger.getStagingName(getTransformName(), getCopyNr()),
+            stagingRowMeta,
+            keyColumns,
+            insertColumns,
+            updateColumns);
+    data.merger.open();
+
+    int commitSize = meta.getCommitSizeVar(this);
+    data.batchSize = commitSize > 0 ? commitSize : DEFAULT_BATCH_SIZE;
+    data.batchKeys = new TreeSet<>(getInputRowMeta().getRowComparator(data.keynrs));
+    data.batchRows = new ArrayList<>(data.batchSize);
+
+    if (log.isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "InsertUpdate.Log.SetBased", data.batchSize));
+    }
+  }
+
+  private void addStagingColumn(
+      IRowMeta stagingRowMeta, List<Integer> stagingFieldnrs, String column, int fieldnr) {
+    if (stagingRowMeta.indexOfValue(column) < 0) {
+      IValueMeta valueMeta = getInputRowMeta().getValueMeta(fieldnr).clone();
+      valueMeta.setName(column);
+      stagingRowMeta.addValueMeta(valueMeta);
+      stagingFieldnrs.add(fieldnr);
+    }
+  }
+
+  private void addToBatch(Object[] row) throws HopException {
+    if (!data.batchKeys.add(row)) {
+      // A row can only be changed once in a merge
+      //
+      mergeBatch();
+      data.batchKeys.add(row);
+    }
+    Object[] stagingRow = new Object[data.stagingFieldnrs.length];
+    for (int i = 0; i < data.stagingFieldnrs.length; i++) {
+      stagingRow[i] = row[data.stagingFieldnrs[i]];
+    }
+    data.merger.addRow(stagingRow);
+    data.batchRows.add(row);
+
+    if (data.batchRows.size() >= data.batchSize) {
+      mergeBatch();
+    }
+  }
+
+  private void mergeBatch() throws HopException {
+    int rows = data.batchRows.size();
+    if (rows == 0) {
+      return;
+    }
+    long matched = data.merger.merge();
+
+    long changed = data.merger.getChangedRows();
+
+    // Like row by row: existing rows without changes are skipped
+    //
+    addLinesInput(rows);
+    addLinesOutput(rows - matched);
+    addLinesUpdated(changed);
+    addLinesSkipped(matched - changed);
+    if (!data.db.isAutoCommit()) {
+      data.db.commit();
+    }
+
+    putRows(data.outputRowMeta, data.batchRows);
+    data.batchRows.clear();
+    data.batchKeys.clear();
+  }
+
   public void setLookup(IRowMeta rowMeta) throws HopDatabaseException {
     data.lookupParameterRowMeta = new RowMeta();
     data.lookupReturnRowMeta = new RowMeta();
@@ -532,11 +688,24 @@ public class InsertUpdate extends BaseTransform<InsertUpdateMeta, InsertUpdateDa
 
   @Override
   public void batchComplete() throws HopException {
+    if (data.merger != null) {
+      mergeBatch();
+    }
     commitBatch(false);
   }
 
   @Override
   public void dispose() {
+    if (data.merger != null) {
+      try {
+        data.merger.close();
+      } catch (HopDatabaseException e) {
+        logError(
+            BaseMessages.getString(PKG, "InsertUpdate.Log.UnableToDropStagingTable")
+                + e.toString());
+      }
+      data.merger = null;
+    }
     commitBatch(true);
     super.dispose();
   }
@@ -78,6 +78,8 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
 
   private Button wUpdateBypassed;
 
+  private Button wSetBased;
+
   private final InsertUpdateMeta input;
 
   private final Map<String, Integer> inputFields;
@@ -245,12 +247,31 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
     wUpdateBypassed.setLayoutData(fdUpdateBypassed);
     wUpdateBypassed.addSelectionListener(new ComponentSelectionListener(input));
 
+    // Set based line
+    Label wlSetBased = new Label(shell, SWT.RIGHT);
+    wlSetBased.setText(BaseMessages.getString(PKG, "InsertUpdateDialog.SetBased.Label"));
+    props.setLook(wlSetBased);
+    FormData fdlSetBased = new FormData();
+    fdlSetBased.left = new FormAttachment(0, 0);
+    fdlSetBased.top = new FormAttachment(wUpdateBypassed, margin);
+    fdlSetBased.right = new FormAttachment(middle, -margin);
+    wlSetBased.setLayoutData(fdlSetBased);
+    wSetBased = new Button(shell, SWT.CHECK);
+    wSetBased.setToolTipText(BaseMessages.getString(PKG, "InsertUpdateDialog.SetBased.Tooltip"));
+    props.setLook(wSetBased);
+    FormData fdSetBased = new FormData();
+    fdSetBased.left = new FormAttachment(middle, 0);
+    fdSetBased.top = new FormAttachment(wlSetBased, 0, SWT.CENTER);
+    fdSetBased.right = new FormAttachment(100, 0);
+    wSetBased.setLayoutData(fdSetBased);
+    wSetBased.addSelectionListener(new ComponentSelectionListener(input));
+
     Label wlKey = new Label(shell, SWT.NONE);
     wlKey.setText(BaseMessages.getString(PKG, "InsertUpdateDialog.Keys.Label"));
     props.setLook(wlKey);
     FormData fdlKey = new FormData();
     fdlKey.left = new FormAttachment(0, 0);
-    fdlKey.top = new FormAttachment(wUpdateBypassed, margin);
+    fdlKey.top = new FormAttachment(wSetBased, margin);
     wlKey.setLayoutData(fdlKey);
 
     int nrKeyCols = 4;
@@ -633,6 +654,7 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
 
     wCommit.setText(input.getCommitSize());
     wUpdateBypassed.setSelection(input.isUpdateBypassed());
+    wSetBased.setSelection(input.isSetBased());
 
     if (input.getInsertUpdateLookupField().getLookupKeys() != null) {
       for (int i = 0; i < input.getInsertUpdateLookupField().getLookupKeys().size(); i++) {
@@ -700,6 +722,7 @@ public class InsertUpdateDialog extends BaseTransformDialog implements ITransfor
 
     inf.setCommitSize(wCommit.getText());
     inf.setUpdateBypassed(wUpdateBypassed.getSelection());
+    inf.setSetBased(wSetBased.getSelection());
 
     if (log.isDebug()) {
       logDebug(BaseMessages.getString(PKG, "InsertUpdateDialog.Log.FoundKeys", nrkeys + ""));
@@ -79,6 +79,13 @@ public class InsertUpdateMeta extends BaseTransformMeta<InsertUpdate, InsertUpda
       injectionKey = "DO_NOT")
   private boolean updateBypassed;
 
+  /** Merge the rows in batches through a staging table instead of one by one */
+  @HopMetadataProperty(
+      key = "set_based",
+      injectionKeyDescription = "InsertUpdateMeta.Injection.SET_BASED",
+      injectionKey = "SET_BASED")
+  private boolean setBased;
+
   /** database connection */
   @HopMetadataProperty(
       key = "connection",
@@ -641,6 +648,16 @@ public class InsertUpdateMeta extends BaseTransformMeta<InsertUpdate, InsertUpda
     this.updateBypassed = updateBypassed;
   }
 
+  /** @return Returns true if the rows are merged in batches through a staging table. */
+  public boolean isSetBased() {
+    return setBased;
+  }
+
+  /** @param setBased true to merge the rows in batches through a staging table. */
+  public void setSetBased(boolean setBased) {
+    this.setBased = setBased;
+  }
+
   @Override
   public IRowMeta getRequiredFields(IVariables variables) throws HopException {
 
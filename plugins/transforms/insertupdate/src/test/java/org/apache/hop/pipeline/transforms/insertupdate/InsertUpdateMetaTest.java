@@ -152,7 +152,8 @@ public class InsertUpdateMetaTest {
   @Before
   public void setUpLoadSave() throws Exception {
 
-    List<String> attributes = Arrays.asList("connection", "lookup", "commit", "update_bypassed");
+    List<String> attributes =
+        Arrays.asList("connection", "lookup", "commit", "update_bypassed", "set_based");
 
     Map<String, String> getterMap =
         new HashMap<String, String>() {
@@ -161,6 +162,7 @@ public class InsertUpdateMetaTest {
             put("lookup", "getInsertUpdateLookupField");
             put("commit", "getCommitSize");
             put("update_bypassed", "isUpdateBypassed");
+            put("set_based", "isSetBased");
           }
         };
     Map<String, String> setterMap =
@@ -170,6 +172,7 @@ public class InsertUpdateMetaTest {
             put("lookup", "setInsertUpdateLookupField");
             put("commit", "setCommitSize");
             put("update_bypassed", "setUpdateBypassed");
+            put("set_based", "setSetBased");
           }
         };
 
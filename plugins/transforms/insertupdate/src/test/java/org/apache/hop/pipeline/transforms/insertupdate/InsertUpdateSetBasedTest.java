@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.insertupdate;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.DatabasePluginType;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.core.logging.LoggingObject;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.databases.h2.H2DatabaseMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Inserts and updates the rows of an in-memory H2 table in set based mode. */
+public class InsertUpdateSetBasedTest {
+
+  private TransformMockHelper<InsertUpdateMeta, InsertUpdateData> transformMockHelper;
+  private Database db;
+  private InsertUpdateMeta meta;
+  private IRowMeta inputRowMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+    PluginRegistry.getInstance()
+        .registerPluginClass(
+            H2DatabaseMeta.class.getName(), DatabasePluginType.class, DatabaseMetaPlugin.class);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setIDatabase(new H2DatabaseMeta());
+    databaseMeta.setName("insertupdate");
+    databaseMeta.setDBName("mem:insertupdate");
+
+    // Keep the in-memory database open while the transform connects and disconnects
+    db = new Database(new LoggingObject("InsertUpdateSetBasedTest"), new Variables(), databaseMeta);
+    db.connect();
+    db.execStatement("CREATE TABLE FOO (ID INT, NAME VARCHAR(10))");
+    db.execStatement("INSERT INTO FOO VALUES (1, 'a'), (2, 'b')");
+
+    transformMockHelper =
+        new TransformMockHelper<>("Insert update", InsertUpdateMeta.class, InsertUpdateData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipelineMeta.findDatabase(anyString(), any(IVariables.class)))
+        .thenReturn(databaseMeta);
+    when(transformMockHelper.iLogChannel.getLogLevel()).thenReturn(LogLevel.BASIC);
+    when(transformMockHelper.iLogChannel.isDetailed()).thenReturn(true);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+
+    inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+    inputRowMeta.addValueMeta(new ValueMetaString("name"));
+
+    meta = new InsertUpdateMeta();
+    meta.setDefault();
+    meta.setConnection("insertupdate");
+    meta.setSetBased(true);
+    meta.setCommitSize("100");
+    InsertUpdateLookupField lookupField = new InsertUpdateLookupField();
+    lookupField.setTableName("FOO");
+    lookupField.getLookupKeys().add(new InsertUpdateKeyField("id", "ID", "="));
+    lookupField.getValueFields().add(new InsertUpdateValue("ID", "id"));
+    lookupField.getValueFields().add(new InsertUpdateValue("NAME", "name"));
+    meta.setInsertUpdateLookupField(lookupField);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    db.execStatement("DROP TABLE FOO");
+    db.disconnect();
+    transformMockHelper.cleanUp();
+  }
+
+  private InsertUpdate runTransform(List<Object[]> output, Object[]... rows) throws Exception {
+    InsertUpdate transform =
+        new InsertUpdate(
+            transformMockHelper.transformMeta,
+            meta,
+            new InsertUpdateData(),
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+    assertTrue(transform.init());
+
+    IRowSet inputRowSet = new QueueRowSet();
+    for (Object[] row : rows) {
+      inputRowSet.putRow(inputRowMeta, row);
+    }
+    inputRowSet.setDone();
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(inputRowSet)));
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+    while (transform.processRow()) {
+      // merge all rows
+    }
+    transform.dispose();
+    verify(transformMockHelper.iLogChannel).logDetailed(contains("set based batches"));
+    return transform;
+  }
+
+  private List<Object[]> getTableRows() throws Exception {
+    return db.getRows("SELECT ID, NAME FROM FOO ORDER BY ID", 0);
+  }
+
+  @Test
+  public void testInsertedUpdatedAndSkippedRows() throws Exception {
+    List<Object[]> output = new ArrayList<>();
+    InsertUpdate transform =
+        runTransform(
+            output,
+            new Object[] {1L, "a"},
+            new Object[] {2L, "x"},
+            new Object[] {3L, "c"},
+            new Object[] {4L, "d"});
+
+    assertEquals(0, transform.getErrors());
+    assertEquals(4, output.size());
+    assertEquals(4, transform.getLinesInput());
+    assertEquals(2, transform.getLinesOutput());
+    assertEquals(1, transform.getLinesUpdated());
+    assertEquals(1, transform.getLinesSkipped());
+
+    List<Object[]> rows = getTableRows();
+    assertEquals(4, rows.size());
+    assertEquals("a", rows.get(0)[1]);
+    assertEquals("x", rows.get(1)[1]);
+    assertEquals("c", rows.get(2)[1]);
+    assertEquals("d", rows.get(3)[1]);
+  }
+
+  @Test
+  public void testSameKeyTwice() throws Exception {
+    // The second row can't be merged in the same batch as the first one
+    //
+    List<Object[]> output = new ArrayList<>();
+    InsertUpdate transform =
+        runTransform(output, new Object[] {3L, "c"}, new Object[] {3L, "e"});
+
+    assertEquals(0, transform.getErrors());
+    assertEquals(2, output.size());
+    assertEquals(1, transform.getLinesOutput());
+    assertEquals(1, transform.getLinesUpdated());
+    assertEquals(0, transform.getLinesSkipped());
+
+    List<Object[]> rows = getTableRows();
+    assertEquals(3, rows.size());
+    assertEquals("e", rows.get(2)[1]);
+  }
+}
@@ -40,9 +40,9 @@ import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.StreamingJsonReader;
 
 import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.BitSet;
 
@@ -72,6 +72,7 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     data.rownr = 1L;
     data.nrInputFields = meta.getInputFields().length;
     data.repeatedFields = new BitSet(data.nrInputFields);
+    data.nrCopies = getTransformMeta().getCopies(this);
     // Take care of variable substitution
     for (int i = 0; i < data.nrInputFields; i++) {
       JsonInputField field = meta.getInputFields()[i];
@@ -255,16 +256,33 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
   }
 
   private void parseNextInputToRowSet(InputStream input) throws HopException {
+    // The streaming reader closes the input once it read all the rows
+    //
+    boolean streaming = meta.isStreaming();
     try {
       data.readerRowSet = data.reader.parse(input);
     } catch (HopException ke) {
+      streaming = false;
       logInputError(ke);
       throw new JsonInputException(ke);
     } catch (Exception e) {
+      streaming = false;
       logInputError(e);
       throw new JsonInputException(e);
     } finally {
-      closeQuietly(input);
+      if (!streaming) {
+        closeQuietly(input);
+      }
+    }
+  }
+
+  /** Gets the next row of the reader, the streaming reader finds errors here */
+  private Object[] getReaderRow() throws JsonInputException {
+    try {
+      return data.readerRowSet.getRow();
+    } catch (StreamingJsonReader.StreamingException e) {
+      logInputError(e.getCause());
+      throw e.getCause();
     }
   }
 
@@ -328,19 +346,13 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       return null;
     }
     Object[] rawReaderRow = null;
-    while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
+    while ((rawReaderRow = getReaderRow()) == null) {
       if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
-        try (InputStream nextIn = data.inputs.next()) {
-
-          if (nextIn != null) {
-            parseNextInputToRowSet(nextIn);
-          } else {
-            parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
-          }
-
-        } catch (IOException e) {
-          logError(BaseMessages.getString(PKG, "JsonInput.Log.UnexpectedError", e.toString()), e);
-          incrementErrors();
+        InputStream nextIn = data.inputs.next();
+        if (nextIn != null) {
+          parseNextInputToRowSet(nextIn);
+        } else {
+          parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
         }
       } else {
         if (isDetailed()) {
@@ -454,7 +466,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       inputFields[i] = field;
     }
     // Instead of putting in the meta.inputFields, we put in our json path resolved input fields
-    data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    if (meta.isStreaming()) {
+      data.reader = new StreamingJsonReader(inputFields, log);
+    } else {
+      data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    }
     data.reader.setIgnoreMissingPath(meta.isIgnoreMissingPath());
   }
 
@@ -465,6 +481,10 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     }
     data.inputs = null;
     data.reader = null;
+    if (data.readerRowSet != null) {
+      // closes the input of the streaming reader
+      data.readerRowSet.clear();
+    }
     data.readerRowSet = null;
     data.repeatedFields = null;
     super.dispose();
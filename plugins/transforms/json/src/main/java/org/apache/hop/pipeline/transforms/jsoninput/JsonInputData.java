@@ -52,6 +52,9 @@ public class JsonInputData extends BaseFileInputTransformData implements ITransf
   public IRowSet readerRowSet;
   public BitSet repeatedFields;
 
+  /** The number of copies of the transform, to split files over */
+  public int nrCopies;
+
   public JsonInputData() {
     super();
     nr_repeats = 0;
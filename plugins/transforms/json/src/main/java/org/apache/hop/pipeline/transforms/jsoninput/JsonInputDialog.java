@@ -118,6 +118,11 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
 
   private Button wDefaultPathLeafToNull;
 
+  private Button wStreaming;
+
+  private Label wlSplitJsonLines;
+  private Button wSplitJsonLines;
+
   private Button wDoNotFailIfNoFile;
 
   private TextVar wShortFileFieldName;
@@ -342,6 +347,7 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
     activeStreamField();
     setIncludeFilename();
     setIncludeRownum();
+    setStreaming();
     input.setChanged(changed);
     wFields.optWidth(true);
 
@@ -605,12 +611,64 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
     wDefaultPathLeafToNull.setLayoutData(fdDefaultPathLeafToNull);
     // default path leaf to null - end
 
+    // Streaming
+    //
+    Label wlStreaming = new Label(wConf, SWT.RIGHT);
+    wlStreaming.setText(BaseMessages.getString(PKG, "JsonInputDialog.Streaming.Label"));
+    props.setLook(wlStreaming);
+    FormData fdlStreaming = new FormData();
+    fdlStreaming.left = new FormAttachment(0, 0);
+    fdlStreaming.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdlStreaming.right = new FormAttachment(middle, -margin);
+    wlStreaming.setLayoutData(fdlStreaming);
+    wStreaming = new Button(wConf, SWT.CHECK);
+    props.setLook(wStreaming);
+    wStreaming.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            setStreaming();
+          }
+        });
+    wStreaming.setToolTipText(BaseMessages.getString(PKG, "JsonInputDialog.Streaming.Tooltip"));
+    FormData fdStreaming = new FormData();
+    fdStreaming.left = new FormAttachment(middle, 0);
+    fdStreaming.top = new FormAttachment(wlStreaming, 0, SWT.CENTER);
+    wStreaming.setLayoutData(fdStreaming);
+
+    // Split JSON Lines files over the copies
+    //
+    wlSplitJsonLines = new Label(wConf, SWT.RIGHT);
+    wlSplitJsonLines.setText(BaseMessages.getString(PKG, "JsonInputDialog.SplitJsonLines.Label"));
+    props.setLook(wlSplitJsonLines);
+    FormData fdlSplitJsonLines = new FormData();
+    fdlSplitJsonLines.left = new FormAttachment(0, 0);
+    fdlSplitJsonLines.top = new FormAttachment(wlStreaming, margin);
+    fdlSplitJsonLines.right = new FormAttachment(middle, -margin);
+    wlSplitJsonLines.setLayoutData(fdlSplitJsonLines);
+    wSplitJsonLines = new Button(wConf, SWT.CHECK);
+    props.setLook(wSplitJsonLines);
+    wSplitJsonLines.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+    wSplitJsonLines.setToolTipText(
+        BaseMessages.getString(PKG, "JsonInputDialog.SplitJsonLines.Tooltip"));
+    FormData fdSplitJsonLines = new FormData();
+    fdSplitJsonLines.left = new FormAttachment(middle, 0);
+    fdSplitJsonLines.top = new FormAttachment(wlSplitJsonLines, 0, SWT.CENTER);
+    wSplitJsonLines.setLayoutData(fdSplitJsonLines);
+
     wlLimit = new Label(wConf, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "JsonInputDialog.Limit.Label"));
     props.setLook(wlLimit);
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
-    fdlLimit.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdlLimit.top = new FormAttachment(wlSplitJsonLines, margin);
     fdlLimit.right = new FormAttachment(middle, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new Text(wConf, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
@@ -618,7 +676,7 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
     wLimit.addModifyListener(lsMod);
     FormData fdLimit = new FormData();
     fdLimit.left = new FormAttachment(middle, 0);
-    fdLimit.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdLimit.top = new FormAttachment(wlSplitJsonLines, margin);
     fdLimit.right = new FormAttachment(100, 0);
     wLimit.setLayoutData(fdLimit);
 
@@ -1205,6 +1263,11 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
     wInclFilenameField.setEnabled(wInclFilename.getSelection());
   }
 
+  private void setStreaming() {
+    wlSplitJsonLines.setEnabled(wStreaming.getSelection());
+    wSplitJsonLines.setEnabled(wStreaming.getSelection());
+  }
+
   public void setIncludeRownum() {
     wlInclRownumField.setEnabled(wInclRownum.getSelection());
     wInclRownumField.setEnabled(wInclRownum.getSelection());
@@ -1242,6 +1305,8 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
     wDoNotFailIfNoFile.setSelection(in.isDoNotFailIfNoFile());
     wIgnoreMissingPath.setSelection(in.isIgnoreMissingPath());
     wDefaultPathLeafToNull.setSelection(in.isDefaultPathLeafToNull());
+    wStreaming.setSelection(in.isStreaming());
+    wSplitJsonLines.setSelection(in.isSplitJsonLines());
     wRemoveSourceField.setSelection(in.isRemoveSourceField());
     wSourceStreamField.setSelection(in.isInFields());
     wSourceIsAFile.setSelection(in.getIsAFile());
@@ -1385,6 +1450,8 @@ public class JsonInputDialog extends BaseTransformDialog implements ITransformDi
     in.setDoNotFailIfNoFile(wDoNotFailIfNoFile.getSelection());
     in.setIgnoreMissingPath(wIgnoreMissingPath.getSelection());
     in.setDefaultPathLeafToNull(wDefaultPathLeafToNull.getSelection());
+    in.setStreaming(wStreaming.getSelection());
+    in.setSplitJsonLines(wSplitJsonLines.getSelection());
     in.setRemoveSourceField(wRemoveSourceField.getSelection());
     in.setInFields(wSourceStreamField.getSelection());
     in.setIsAFile(wSourceIsAFile.getSelection());
@@ -252,6 +252,14 @@ public class JsonInputMeta
 
   private boolean defaultPathLeafToNull;
 
+  /** Flag : read the input with a pull parser, one record at a time */
+  @Injection(name = "STREAMING")
+  private boolean streaming;
+
+  /** Flag : split files with one record per line over the transform copies */
+  @Injection(name = "SPLIT_JSON_LINES")
+  private boolean splitJsonLines;
+
   public JsonInputMeta() {
     additionalOutputFields = new AdditionalFileOutputFields();
     inputFiles = new InputFiles();
@@ -276,6 +284,42 @@ public class JsonInputMeta
     this.defaultPathLeafToNull = defaultPathLeafToNull;
   }
 
+  /**
+   * Returns the streaming flag.
+   *
+   * @return streaming
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * Set the streaming flag
+   *
+   * @param streaming the streaming to set.
+   */
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  /**
+   * Returns the splitJsonLines flag.
+   *
+   * @return splitJsonLines
+   */
+  public boolean isSplitJsonLines() {
+    return splitJsonLines;
+  }
+
+  /**
+   * Set the splitJsonLines flag
+   *
+   * @param splitJsonLines the splitJsonLines to set.
+   */
+  public void setSplitJsonLines(boolean splitJsonLines) {
+    this.splitJsonLines = splitJsonLines;
+  }
+
   /**
    * @return Returns the shortFileFieldName.
    */
@@ -615,6 +659,8 @@ public class JsonInputMeta
     retval.append("    " + XmlHandler.addTagValue("doNotFailIfNoFile", doNotFailIfNoFile));
     retval.append("    " + XmlHandler.addTagValue("ignoreMissingPath", ignoreMissingPath));
     retval.append("    " + XmlHandler.addTagValue("defaultPathLeafToNull", defaultPathLeafToNull));
+    retval.append("    " + XmlHandler.addTagValue("streaming", streaming));
+    retval.append("    " + XmlHandler.addTagValue("splitJsonLines", splitJsonLines));
     retval.append("    ").append(XmlHandler.addTagValue("rownum_field", rowNumberField));
 
     retval.append("    <file>").append(Const.CR);
@@ -686,6 +732,9 @@ public class JsonInputMeta
       ignoreMissingPath =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "ignoreMissingPath"));
       defaultPathLeafToNull = getDefaultPathLeafToNull(transformNode);
+      streaming = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "streaming"));
+      splitJsonLines =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "splitJsonLines"));
       doNotFailIfNoFile =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "doNotFailIfNoFile"));
       includeRowNumber = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "rownum"));
@@ -773,6 +822,8 @@ public class JsonInputMeta
     isIgnoreEmptyFile = false;
     ignoreMissingPath = true;
     defaultPathLeafToNull = true;
+    streaming = false;
+    splitJsonLines = false;
     doNotFailIfNoFile = true;
     includeFilename = false;
     filenameField = "";
@@ -80,6 +80,10 @@ public class InputsReader implements Iterable<InputStream> {
     }
   }
 
+  private int getNrCopies() {
+    return InputsReader.this.data.nrCopies;
+  }
+
   protected StringFieldIterator getFieldIterator() {
     return new StringFieldIterator(
         new RowIterator(transform, data, errorHandler), data.indexSourceField);
@@ -152,7 +156,16 @@ public class InputsReader implements Iterable<InputStream> {
           data.file = inner.next();
           data.currentFileIndex++;
           if (transform.onNewFile(data.file)) {
-            return HopVfs.getInputStream(data.file);
+            InputStream inputStream = HopVfs.getInputStream(data.file);
+            if (meta.isStreaming() && meta.isSplitJsonLines() && getNrCopies() > 1) {
+              // Every copy reads the lines which start in its part of the file
+              //
+              long size = data.file.getContent().getSize();
+              int copyNr = transform.getCopyNr();
+              return new LineRangeInputStream(
+                  inputStream, size * copyNr / getNrCopies(), size * (copyNr + 1) / getNrCopies());
+            }
+            return inputStream;
           }
         } catch (FileSystemException e) {
           handler.fileOpenError(data.file, e);
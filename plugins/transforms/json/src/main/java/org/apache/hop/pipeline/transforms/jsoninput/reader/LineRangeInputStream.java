@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the lines of a stream which start in a range of bytes. This way a file with one record on
+ * every line can be split over transform copies: every line is read by exactly one copy, the one
+ * with the range the first byte of the line is in.
+ */
+public class LineRangeInputStream extends FilterInputStream {
+  private final long start;
+  private final long end;
+  private long position;
+  private int lastByte = '\n';
+  private boolean started;
+
+  /**
+   * @param in The stream to read, positioned at the start
+   * @param start The offset of the first byte of the range
+   * @param end The offset after the last byte of the range
+   */
+  public LineRangeInputStream(InputStream in, long start, long end) {
+    super(new BufferedInputStream(in));
+    this.start = start;
+    this.end = end;
+  }
+
+  /** Skips to the start of the first line in the range */
+  private void skipToStart() throws IOException {
+    started = true;
+    if (start == 0) {
+      return;
+    }
+    // The line starting at the start is ours if the byte before it ends the previous line
+    //
+    long toSkip = start - 1;
+    while (toSkip > 0) {
+      long skipped = in.skip(toSkip);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          lastByte = -1;
+          return;
+        }
+        skipped = 1;
+      }
+      toSkip -= skipped;
+    }
+    position = start - 1;
+    int b;
+    do {
+      b = in.read();
+      position++;
+    } while (b >= 0 && b != '\n');
+    lastByte = b < 0 ? -1 : '\n';
+  }
+
+  /** The range ends with the line which the last byte of the range is part of */
+  private boolean atEnd() {
+    return lastByte < 0 || position >= end && lastByte == '\n';
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!started) {
+      skipToStart();
+    }
+    if (atEnd()) {
+      return -1;
+    }
+    lastByte = in.read();
+    if (lastByte >= 0) {
+      position++;
+    }
+    return lastByte;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (!started) {
+      skipToStart();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    if (atEnd()) {
+      return -1;
+    }
+    if (position >= end) {
+      // Finish the last line one byte at a time
+      //
+      int count = 0;
+      while (count < len && !atEnd()) {
+        int c = read();
+        if (c < 0) {
+          break;
+        }
+        b[off + count++] = (byte) c;
+      }
+      return count == 0 ? -1 : count;
+    }
+    int count = in.read(b, off, (int) Math.min(len, end - position));
+    if (count < 0) {
+      lastByte = -1;
+      return -1;
+    }
+    position += count;
+    lastByte = b[off + count - 1] & 0xFF;
+    return count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && read() >= 0) {
+      skipped++;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return 0;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+}
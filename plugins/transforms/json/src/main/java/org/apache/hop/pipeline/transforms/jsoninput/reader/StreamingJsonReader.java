@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.SingleRowRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads JSON with a pull parser and evaluates the paths of the fields while it goes, one record
+ * at a time. Only the current record is kept in memory so documents of any size can be read.
+ *
+ * <p>The paths need to have the shape <code>$.records[*].field</code>: the same prefix of names
+ * and indexes for all fields, at most one <code>[*]</code> and names and indexes after it. Every
+ * element of the array the prefix points to is a record which gives one row. Without a <code>[*]
+ * </code> every top level value is a record, which reads JSON Lines files as well as a single
+ * document.
+ */
+public class StreamingJsonReader implements IJsonReader {
+  private static final Class<?> PKG = JsonInputMeta.class; // For Translator
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private boolean ignoreMissingPath;
+
+  private JsonInputField[] fields;
+
+  /** The steps to the array with the records, null if every top level value is a record */
+  private Object[] recordsPath;
+
+  /** The steps to the value of every field, relative to a record */
+  private Object[][] fieldPaths;
+
+  private ILogChannel log;
+
+  public StreamingJsonReader(JsonInputField[] fields, ILogChannel log) throws HopException {
+    this.ignoreMissingPath = false;
+    this.log = log;
+    setFields(fields);
+  }
+
+  @Override
+  public boolean isIgnoreMissingPath() {
+    return ignoreMissingPath;
+  }
+
+  @Override
+  public void setIgnoreMissingPath(boolean value) {
+    this.ignoreMissingPath = value;
+  }
+
+  @Override
+  public void setFields(JsonInputField[] fields) throws HopException {
+    this.fields = fields;
+    this.recordsPath = null;
+    this.fieldPaths = new Object[fields.length][];
+
+    String recordsPathString = null;
+    for (int i = 0; i < fields.length; i++) {
+      String path = fields[i].getPath();
+      List<Object> steps = parsePath(path);
+      int wildcard = steps.indexOf(WILDCARD);
+      if (wildcard != steps.lastIndexOf(WILDCARD)) {
+        throw new HopException(
+            BaseMessages.getString(PKG, "JsonReader.Error.StreamingPathNotSupported", path));
+      }
+      Object[] prefix = wildcard < 0 ? null : steps.subList(0, wildcard).toArray();
+      if (i > 0 && !Arrays.equals(prefix, recordsPath)) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG, "JsonReader.Error.StreamingDifferentRecords", path, recordsPathString));
+      }
+      recordsPath = prefix;
+      recordsPathString = path;
+      fieldPaths[i] = steps.subList(wildcard + 1, steps.size()).toArray();
+    }
+  }
+
+  @Override
+  public IRowSet parse(InputStream in) throws HopException {
+    try {
+      return new StreamingRowSet(MAPPER.getFactory().createParser(in));
+    } catch (IOException e) {
+      throw new JsonInputException(e);
+    }
+  }
+
+  /** Marks the <code>[*]</code> in a parsed path */
+  private static final Object WILDCARD = new Object();
+
+  /**
+   * Splits a path in names (Strings), indexes (Integers) and wildcards. Deep scans, filters,
+   * slices and unions can't be evaluated while streaming.
+   *
+   * @param path The JSON path
+   * @return the steps of the path
+   * @throws HopException if the path isn't supported
+   */
+  static List<Object> parsePath(String path) throws HopException {
+    List<Object> steps = new ArrayList<>();
+    String unsupported =
+        BaseMessages.getString(PKG, "JsonReader.Error.StreamingPathNotSupported", path);
+    if (path == null || !path.startsWith("$")) {
+      throw new HopException(unsupported);
+    }
+    int position = 1;
+    while (position < path.length()) {
+      char c = path.charAt(position);
+      if (c == '.') {
+        int end = position + 1;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        String name = path.substring(position + 1, end);
+        if (name.isEmpty() || name.equals("*")) {
+          throw new HopException(unsupported);
+        }
+        steps.add(name);
+        position = end;
+      } else if (c == '[') {
+        int end = path.indexOf(']', position);
+        if (end < 0) {
+          throw new HopException(unsupported);
+        }
+        String step = path.substring(position + 1, end).trim();
+        if (step.equals("*")) {
+          steps.add(WILDCARD);
+        } else if (step.length() > 1
+            && (step.startsWith("'") && step.endsWith("'")
+                || step.startsWith("\"") && step.endsWith("\""))) {
+          steps.add(step.substring(1, step.length() - 1));
+        } else {
+          try {
+            steps.add(Integer.valueOf(step));
+          } catch (NumberFormatException e) {
+            throw new HopException(unsupported);
+          }
+        }
+        position = end + 1;
+      } else {
+        throw new HopException(unsupported);
+      }
+    }
+    return steps;
+  }
+
+  /** Gets the value at the end of the path in a record, null if it isn't there */
+  private static Object getValue(JsonNode record, Object[] steps) {
+    JsonNode node = record;
+    for (Object step : steps) {
+      if (node == null) {
+        return null;
+      }
+      node = step instanceof String ? node.get((String) step) : node.get((Integer) step);
+    }
+    if (node == null || node.isNull()) {
+      return null;
+    }
+    if (node.isTextual()) {
+      return node.textValue();
+    }
+    if (node.isNumber()) {
+      return node.numberValue();
+    }
+    if (node.isBoolean()) {
+      return node.booleanValue();
+    }
+    // Objects and arrays are passed on as JSON
+    //
+    return node.toString();
+  }
+
+  /** Reads the next record from the parser every time a row is asked for */
+  private class StreamingRowSet extends SingleRowRowSet {
+    private final JsonParser parser;
+    private boolean inRecords;
+    private boolean finished;
+    private long rowCount;
+    private final boolean[] found;
+
+    /** @see FastJsonReader */
+    private final boolean includeNulls =
+        "Y"
+            .equalsIgnoreCase(
+                System.getProperty(
+                    Const.HOP_JSON_INPUT_INCLUDE_NULLS, Const.JSON_INPUT_INCLUDE_NULLS));
+
+    StreamingRowSet(JsonParser parser) {
+      super();
+      this.parser = parser;
+      this.found = new boolean[fields.length];
+    }
+
+    @Override
+    public Object[] getRow() {
+      if (finished) {
+        return null;
+      }
+      try {
+        while (nextRecord()) {
+          JsonNode record = parser.readValueAsTree();
+          Object[] row = new Object[fields.length];
+          boolean allNulls = true;
+          for (int i = 0; i < fields.length; i++) {
+            row[i] = getValue(record, fieldPaths[i]);
+            if (row[i] != null) {
+              found[i] = true;
+              allNulls = false;
+            }
+          }
+          if (!allNulls || includeNulls) {
+            rowCount++;
+            return row;
+          }
+        }
+        clear();
+        if (log.isDetailed()) {
+          log.logDetailed(BaseMessages.getString(PKG, "JsonInput.Log.NrRecords", rowCount));
+        }
+        if (!isIgnoreMissingPath()) {
+          for (int i = 0; i < fields.length; i++) {
+            if (!found[i]) {
+              throw new StreamingException(
+                  new JsonInputException(
+                      BaseMessages.getString(
+                          PKG, "JsonReader.Error.CanNotFindPath", fields[i].getPath())));
+            }
+          }
+        }
+        // Like the other reader we give one empty row if there are no records
+        //
+        return rowCount == 0 ? new Object[fields.length] : null;
+      } catch (IOException e) {
+        clear();
+        throw new StreamingException(new JsonInputException(e));
+      }
+    }
+
+    /**
+     * Moves the parser to the start of the next record.
+     *
+     * @return false if there are no more records
+     */
+    private boolean nextRecord() throws IOException {
+      while (true) {
+        if (inRecords) {
+          if (parser.nextToken() != JsonToken.END_ARRAY) {
+            return true;
+          }
+          inRecords = false;
+          skipToRoot();
+        }
+        if (parser.nextToken() == null) {
+          return false;
+        }
+        if (recordsPath == null) {
+          return true;
+        }
+        if (moveTo(recordsPath)) {
+          inRecords = true;
+        } else {
+          skipToRoot();
+        }
+      }
+    }
+
+    /** Follows the steps from the current value to an array */
+    private boolean moveTo(Object[] steps) throws IOException {
+      for (Object step : steps) {
+        boolean stepFound = false;
+        if (step instanceof String && parser.currentToken() == JsonToken.START_OBJECT) {
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(step)) {
+              stepFound = true;
+              break;
+            }
+            parser.skipChildren();
+          }
+        } else if (step instanceof Integer && parser.currentToken() == JsonToken.START_ARRAY) {
+          int index = 0;
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (index++ == (Integer) step) {
+              stepFound = true;
+              break;
+            }
+            parser.skipChildren();
+          }
+        }
+        if (!stepFound) {
+          return false;
+        }
+      }
+      return parser.currentToken() == JsonToken.START_ARRAY;
+    }
+
+    /** Skips what is left of the current top level value */
+    private void skipToRoot() throws IOException {
+      while (!parser.getParsingContext().inRoot()) {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+          return;
+        }
+        if (token.isStructStart()) {
+          parser.skipChildren();
+        }
+      }
+    }
+
+    @Override
+    public int size() {
+      return finished ? 0 : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      // rows are read when asked for
+      return true;
+    }
+
+    /** Closes the parser and with it the input stream */
+    @Override
+    public void clear() {
+      if (!finished) {
+        finished = true;
+        try {
+          parser.close();
+        } catch (IOException e) {
+          log.logError(e.getMessage(), e);
+        }
+      }
+    }
+  }
+
+  /** Passes errors found while reading rows through {@link IRowSet#getRow()} */
+  public static class StreamingException extends RuntimeException {
+    public StreamingException(JsonInputException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized JsonInputException getCause() {
+      return (JsonInputException) super.getCause();
+    }
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.hop.pipeline.transforms.jsonoutput;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.compress.NoneCompressionProvider;
+import org.apache.hop.core.compress.ParallelCompressionOutputStream;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IValueMeta;
@@ -370,13 +372,19 @@ public class JsonOutput extends BaseTransform<JsonOutputMeta, JsonOutputData> {
       OutputStream outputStream;
       OutputStream fos = HopVfs.getOutputStream(filename, meta.isFileAppended());
       outputStream = fos;
+      if (variables.getVariableBoolean(Const.HOP_FILE_OUTPUT_PARALLEL_COMPRESSION, false)) {
+        // Write the file in the background
+        outputStream = new ParallelCompressionOutputStream(fos, new NoneCompressionProvider());
+      }
+      int bufferSize =
+          Math.max(1, Const.toInt(variables.getVariable(Const.HOP_FILE_OUTPUT_BUFFER_SIZE), 5000));
 
       if (!Utils.isEmpty(meta.getEncoding())) {
         data.writer =
             new OutputStreamWriter(
-                new BufferedOutputStream(outputStream, 5000), resolve(meta.getEncoding()));
+                new BufferedOutputStream(outputStream, bufferSize), resolve(meta.getEncoding()));
       } else {
-        data.writer = new OutputStreamWriter(new BufferedOutputStream(outputStream, 5000));
+        data.writer = new OutputStreamWriter(new BufferedOutputStream(outputStream, bufferSize));
       }
 
       if (log.isDetailed()) {
@@ -38,6 +38,8 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -136,6 +138,31 @@ public class JsonInputMetaTest {
         "Option.DEFAULT_PATH_LEAF_TO_NULL ", true, jsonInputMeta.isDefaultPathLeafToNull());
   }
 
+  @Test
+  public void testStreamingOptionsRoundTrip() throws Exception {
+    jsonInputMeta = new JsonInputMeta();
+    jsonInputMeta.setDefault();
+    assertFalse(jsonInputMeta.isStreaming());
+    assertFalse(jsonInputMeta.isSplitJsonLines());
+    jsonInputMeta.setStreaming(true);
+    jsonInputMeta.setSplitJsonLines(true);
+
+    JsonInputMeta loaded = new JsonInputMeta();
+    loaded.loadXml(
+        XmlHandler.loadXmlString("<transform>" + jsonInputMeta.getXml() + "</transform>")
+            .getDocumentElement(),
+        metadataProvider);
+    assertTrue(loaded.isStreaming());
+    assertTrue(loaded.isSplitJsonLines());
+
+    // Transforms saved before the options existed don't stream
+    //
+    loaded.loadXml(
+        loadTransformFile("/transform_no_defaultPathLeafToNull_node.xml"), metadataProvider);
+    assertFalse(loaded.isStreaming());
+    assertFalse(loaded.isSplitJsonLines());
+  }
+
   private Node loadTransformFile(String transformFilename) throws HopXmlException {
     Document document =
         XmlHandler.loadXmlFile(this.getClass().getResourceAsStream(transformFilename));
@@ -302,6 +302,31 @@ public class JsonInputTest {
     Assert.assertEquals("lines written", 2, jsonInput.getLinesWritten());
   }
 
+  @Test
+  public void testStreaming() throws Exception {
+    JsonInputField author = new JsonInputField("author");
+    author.setPath("$.store.book[*].author");
+    author.setType(IValueMeta.TYPE_STRING);
+    JsonInputField isbn = new JsonInputField("isbn");
+    isbn.setPath("$.store.book[*]['isbn']");
+    isbn.setType(IValueMeta.TYPE_STRING);
+
+    JsonInputMeta meta = createSimpleMeta("json", author, isbn);
+    meta.setStreaming(true);
+    JsonInput jsonInput = createJsonInput("json", meta, new Object[] {getBasicTestJson()});
+    RowComparatorListener rowComparator =
+        new RowComparatorListener(
+            new Object[] {null, "Nigel Rees", null},
+            new Object[] {null, "Evelyn Waugh", null},
+            new Object[] {null, "Herman Melville", "0-553-21311-3"},
+            new Object[] {null, "J. R. R. Tolkien", "0-395-19395-8"});
+    rowComparator.setComparator(0, null);
+    jsonInput.addRowListener(rowComparator);
+    processRows(jsonInput, 5);
+    Assert.assertEquals("error", 0, jsonInput.getErrors());
+    Assert.assertEquals("lines written", 4, jsonInput.getLinesWritten());
+  }
+
   @Test
   public void testDualExpMismatchError() throws Exception {
     ByteArrayOutputStream out = new ByteArrayOutputStream();
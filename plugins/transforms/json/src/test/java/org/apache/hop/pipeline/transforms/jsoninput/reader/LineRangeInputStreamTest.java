@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineRangeInputStreamTest {
+
+  private static final String LINES =
+      "{\"id\": 1}\n{\"id\": 22}\n\n{\"id\": 333}\n{\"id\": 4444}\n{\"id\": 5}";
+
+  private static String readRange(String text, long start, long end) throws Exception {
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    LineRangeInputStream in = new LineRangeInputStream(new ByteArrayInputStream(bytes), start, end);
+    return IOUtils.toString(in, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testEveryLineReadOnce() throws Exception {
+    int size = LINES.length();
+    for (int parts = 1; parts <= size + 1; parts++) {
+      StringBuilder all = new StringBuilder();
+      for (int part = 0; part < parts; part++) {
+        long start = (long) size * part / parts;
+        long end = (long) size * (part + 1) / parts;
+        all.append(readRange(LINES, start, end));
+      }
+      assertEquals("split in " + parts, LINES, all.toString());
+    }
+  }
+
+  @Test
+  public void testRangeStartsWithLine() throws Exception {
+    // The range starts at the first byte of the second line
+    //
+    assertEquals("{\"id\": 22}\n", readRange(LINES, 10, 12));
+    // The range starts in the second line: only the empty line starts in it
+    //
+    assertEquals("\n", readRange(LINES, 12, 22));
+    assertEquals("{\"id\": 1}\n", readRange(LINES, 0, 10));
+    assertEquals("{\"id\": 1}\n{\"id\": 22}\n", readRange(LINES, 0, 11));
+  }
+}
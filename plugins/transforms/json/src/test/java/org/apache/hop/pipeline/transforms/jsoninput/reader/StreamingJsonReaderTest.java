@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class StreamingJsonReaderTest {
+  private ILogChannel logMock = mock(ILogChannel.class);
+
+  private static JsonInputField[] createFields(String... paths) {
+    JsonInputField[] fields = new JsonInputField[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      fields[i] = new JsonInputField("field" + i);
+      fields[i].setPath(paths[i]);
+    }
+    return fields;
+  }
+
+  private List<Object[]> readRows(StreamingJsonReader reader, String json) throws HopException {
+    IRowSet rowSet =
+        reader.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = rowSet.getRow()) != null) {
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  @Test
+  public void testParsePath() throws HopException {
+    assertEquals(
+        Arrays.asList("a", "b c", 2, "d"), StreamingJsonReader.parsePath("$.a['b c'][2].d"));
+    assertEquals(2, StreamingJsonReader.parsePath("$[*].x").size());
+    for (String path : new String[] {"$..a", "$.a[?(@.b)]", "$.a[0:2]", "a.b", "$.*"}) {
+      try {
+        StreamingJsonReader.parsePath(path);
+        fail("path " + path + " should not be supported");
+      } catch (HopException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test(expected = HopException.class)
+  public void testDifferentRecords() throws HopException {
+    new StreamingJsonReader(createFields("$.a[*].x", "$.b[*].y"), logMock);
+  }
+
+  @Test
+  public void testArrayRecords() throws HopException {
+    StreamingJsonReader reader =
+        new StreamingJsonReader(
+            createFields("$.data.records[*].id", "$.data.records[*].tags[1]"), logMock);
+    List<Object[]> rows =
+        readRows(
+            reader,
+            "{\"skip\": {\"records\": [1, 2]}, \"data\": {\"count\": 3, \"records\": ["
+                + "{\"id\": 1, \"tags\": [\"a\", \"b\"]},"
+                + "{\"tags\": [\"c\"], \"other\": {\"id\": 7}, \"id\": \"two\"},"
+                + "{\"id\": 3.5, \"tags\": [\"d\", {\"e\": true}]}"
+                + "]}, \"after\": [1, 2, 3]}");
+    assertEquals(3, rows.size());
+    assertArrayEquals(new Object[] {1, "b"}, rows.get(0));
+    assertArrayEquals(new Object[] {"two", null}, rows.get(1));
+    assertArrayEquals(new Object[] {3.5, "{\"e\":true}"}, rows.get(2));
+  }
+
+  @Test
+  public void testJsonLines() throws HopException {
+    StreamingJsonReader reader =
+        new StreamingJsonReader(createFields("$.name", "$.address.city"), logMock);
+    List<Object[]> rows =
+        readRows(
+            reader,
+            "{\"name\": \"one\", \"address\": {\"city\": \"Brussels\"}}\n"
+                + "{\"name\": \"two\"}\n"
+                + "{\"name\": \"three\", \"address\": {\"city\": \"Ghent\"}}\n");
+    assertEquals(3, rows.size());
+    assertArrayEquals(new Object[] {"one", "Brussels"}, rows.get(0));
+    assertArrayEquals(new Object[] {"two", null}, rows.get(1));
+    assertArrayEquals(new Object[] {"three", "Ghent"}, rows.get(2));
+  }
+
+  @Test
+  public void testNoRecords() throws HopException {
+    StreamingJsonReader reader = new StreamingJsonReader(createFields("$[*].id"), logMock);
+    reader.setIgnoreMissingPath(true);
+    List<Object[]> rows = readRows(reader, "[]");
+    assertEquals(1, rows.size());
+    assertArrayEquals(new Object[1], rows.get(0));
+  }
+
+  @Test
+  public void testMissingPath() throws HopException {
+    StreamingJsonReader reader = new StreamingJsonReader(createFields("$[*].id"), logMock);
+    try {
+      readRows(reader, "[{\"name\": \"a\"}]");
+      fail("missing path should give an error");
+    } catch (StreamingJsonReader.StreamingException e) {
+      assertTrue(e.getCause().getMessage().contains("$[*].id"));
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An open addressing hash table from group keys to their aggregates. The slots of the table are a
+ * primitive array of entry numbers and the hash codes of the entries are kept in a primitive array
+ * as well, so a lookup doesn't create any objects and only compares group keys when the hash codes
+ * are the same. The entries are kept in the order in which the groups were added.
+ */
+public class GroupTable {
+  private static final int MIN_SLOTS = 16;
+  private static final int MIN_ENTRIES = 8;
+
+  /**
+   * The bytes of heap the table uses per group, besides the key and the aggregate: the hash code,
+   * two references and about two slots.
+   */
+  public static final int ENTRY_SIZE = 24;
+
+  /** The entry number + 1 of every slot, 0 for an empty slot */
+  private int[] slots;
+
+  private int mask;
+
+  private int[] hashes;
+  private Object[][] keys;
+  private Aggregate[] aggregates;
+  private int size;
+
+  public GroupTable() {
+    this(MIN_ENTRIES);
+  }
+
+  /** @param expectedSize the number of groups to make room for */
+  public GroupTable(int expectedSize) {
+    allocate(Math.max(expectedSize, MIN_ENTRIES));
+  }
+
+  private void allocate(int entries) {
+    int capacity = MIN_SLOTS;
+    while (capacity < entries * 2) {
+      capacity <<= 1;
+    }
+    slots = new int[capacity];
+    mask = capacity - 1;
+    hashes = new int[entries];
+    keys = new Object[entries][];
+    aggregates = new Aggregate[entries];
+    size = 0;
+  }
+
+  /**
+   * Find the aggregate of the group a row belongs to.
+   *
+   * @param row the row, this doesn't need to be a group key
+   * @param hash the hash code of the group of the row
+   * @param comparator compares the row with a group key, 0 meaning the row is in the group
+   * @return the aggregate of the group or null if the group isn't in the table
+   */
+  public Aggregate get(Object[] row, int hash, Comparator<Object[]> comparator) {
+    int slot = spread(hash) & mask;
+    int entry;
+    while ((entry = slots[slot]) != 0) {
+      entry--;
+      if (hashes[entry] == hash && comparator.compare(row, keys[entry]) == 0) {
+        return aggregates[entry];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Add a group which isn't in the table yet.
+   *
+   * @param key the group key
+   * @param hash the hash code of the group key
+   * @param aggregate the aggregate of the group
+   */
+  public void add(Object[] key, int hash, Aggregate aggregate) {
+    if (size == hashes.length) {
+      int entries = size * 2;
+      hashes = Arrays.copyOf(hashes, entries);
+      keys = Arrays.copyOf(keys, entries);
+      aggregates = Arrays.copyOf(aggregates, entries);
+    }
+    if ((size + 1) * 2 > slots.length) {
+      slots = new int[slots.length * 2];
+      mask = slots.length - 1;
+      for (int i = 0; i < size; i++) {
+        insert(hashes[i], i + 1);
+      }
+    }
+    hashes[size] = hash;
+    keys[size] = key;
+    aggregates[size] = aggregate;
+    size++;
+    insert(hash, size);
+  }
+
+  private void insert(int hash, int entryNr) {
+    int slot = spread(hash) & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = entryNr;
+  }
+
+  /** Hash codes of rows are often close together: spread them over the slots */
+  private static int spread(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /** @return the number of groups in the table */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param index the entry number, from 0 to size()-1, in the order the groups were added
+   * @return the key of the group
+   */
+  public Object[] getKey(int index) {
+    return keys[index];
+  }
+
+  /**
+   * @param index the entry number, from 0 to size()-1, in the order the groups were added
+   * @return the aggregate of the group
+   */
+  public Aggregate getAggregate(int index) {
+    return aggregates[index];
+  }
+
+  /** Remove all groups and give back the memory they used. */
+  public void clear() {
+    allocate(MIN_ENTRIES);
+  }
+}
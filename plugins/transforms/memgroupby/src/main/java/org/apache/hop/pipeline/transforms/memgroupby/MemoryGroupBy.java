@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.memgroupby;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.*;
 import org.apache.hop.core.row.value.ValueMetaBase;
@@ -32,14 +33,27 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
-import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 /** Groups information based on aggregation rules. (sum, count, ...) */
 public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupByData> {
   private static final Class<?> PKG = MemoryGroupByMeta.class; // For Translator
 
+  /** The rows of groups which don't fit in memory are spread over 2^SPILL_PARTITION_BITS files */
+  private static final int SPILL_PARTITION_BITS = 4;
+
+  /** The heap an aggregate takes without its arrays */
+  private static final int AGGREGATE_SIZE = 32;
+
+  /** The heap a value added to a list of values takes, a Double and a reference */
+  private static final int LIST_VALUE_SIZE = 24;
+
+  /** The heap a value added to a set of values takes, without the value */
+  private static final int SET_VALUE_SIZE = 40;
+
   private boolean allNullsAreZero = false;
   private boolean minNullIsValued = false;
 
@@ -173,29 +187,33 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   }
 
   private void handleLastOfGroup() throws HopException {
+    boolean noGroups = data.map.isEmpty();
+
     // Dump the content of the map...
     //
-    for (HashEntry entry : data.map.keySet()) {
-      Aggregate aggregate = data.map.get(entry);
-      Object[] aggregateResult = getAggregateResult(aggregate);
+    outputGroups();
 
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] =
-            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
-      }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        outputRowData[index++] =
-            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
-      }
-      putRow(data.outputRowMeta, outputRowData);
+    // Then aggregate the rows of the groups which didn't fit in memory, one partition at a time.
+    // A partition which doesn't fit either is spilled again over new partitions.
+    //
+    finishSpillPartitions();
+    while (!data.spilledPartitions.isEmpty()) {
+      SpillPartition partition = data.spilledPartitions.peek();
+      data.clearGroups();
+      data.spillLevel = partition.getLevel();
+      aggregatePartition(partition);
+      data.spilledPartitions.pop();
+      partition.delete();
+
+      outputGroups();
+      finishSpillPartitions();
     }
+    data.spillLevel = 0;
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+    if (noGroups && meta.isAlwaysGivingBackOneRow()) {
       Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
       int index = 0;
       for (int i = 0; i < data.groupMeta.size(); i++) {
@@ -214,6 +232,94 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  private void outputGroups() throws HopException {
+    for (int g = 0; g < data.map.size(); g++) {
+      Object[] groupData = data.map.getKey(g);
+      Object[] aggregateResult = getAggregateResult(data.map.getAggregate(g));
+
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] =
+            data.groupMeta.getValueMeta(i).convertToNormalStorageType(groupData[i]);
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        outputRowData[index++] =
+            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+      }
+      putRow(data.outputRowMeta, outputRowData);
+    }
+  }
+
+  /**
+   * Write a row of a group which doesn't fit in memory to the spill partition of its group. The
+   * partition is picked with other bits of the hash code at every level of spilling.
+   */
+  private void spillRow(Object[] r, int hash) throws HopException {
+    if (data.spillPartitions == null) {
+      data.spillPartitions = new SpillPartition[1 << SPILL_PARTITION_BITS];
+      if (data.spillCodec == null) {
+        data.spillCodec = new RowCodec(data.inputRowMeta);
+      }
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG, "MemoryGroupBy.Log.SpillingRows", data.map.size(), data.spillLevel));
+      }
+    }
+    int partitionNr =
+        Integer.rotateLeft(hash * 0x85EBCA6B, data.spillLevel * SPILL_PARTITION_BITS)
+            >>> (Integer.SIZE - SPILL_PARTITION_BITS);
+    SpillPartition partition = data.spillPartitions[partitionNr];
+    if (partition == null) {
+      partition = new SpillPartition(data.spillDirectory, data.spillLevel + 1);
+      data.spillPartitions[partitionNr] = partition;
+    }
+    partition.write(data.spillCodec, r);
+  }
+
+  /** Close the partitions rows were spilled to and queue them to be aggregated. */
+  private void finishSpillPartitions() throws HopException {
+    if (data.spillPartitions == null) {
+      return;
+    }
+    SpillPartition[] partitions = data.spillPartitions;
+    data.spillPartitions = null;
+    for (int i = partitions.length - 1; i >= 0; i--) {
+      if (partitions[i] != null) {
+        data.spilledPartitions.push(partitions[i]);
+        partitions[i].finish();
+      }
+    }
+  }
+
+  private void aggregatePartition(SpillPartition partition) throws HopException {
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG,
+              "MemoryGroupBy.Log.AggregatingSpilledRows",
+              partition.getRowCount(),
+              partition.getFile().getName().getBaseName()));
+    }
+    try (InputStream inputStream = partition.open()) {
+      Object[] r;
+      while ((r = data.spillCodec.readRow(inputStream)) != null) {
+        addToAggregate(r);
+      }
+    } catch (IOException e) {
+      throw new HopFileException("Unable to read temporary file " + partition.getFile(), e);
+    }
+  }
+
+  /** Estimate the heap a new aggregate takes. */
+  private static long estimateSize(Aggregate aggregate) {
+    // The counts and the means are arrays of 8 byte values
+    //
+    long arraySize = 16L + 8L * aggregate.counts.length;
+    return AGGREGATE_SIZE + RowSizeEstimator.estimateSize(aggregate.agg) + 2 * arraySize;
+  }
+
   /**
    * Used for junits in MemoryGroupByAggregationNullsTest
    *
@@ -223,14 +329,22 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   @SuppressWarnings("unchecked")
   void addToAggregate(Object[] r) throws HopException {
 
-    Object[] groupData = new Object[data.groupMeta.size()];
-    for (int i = 0; i < data.groupnrs.length; i++) {
-      groupData[i] = r[data.groupnrs[i]];
-    }
-    HashEntry entry = data.getHashEntry(groupData);
-
-    Aggregate aggregate = data.map.get(entry);
+    int hash = data.getGroupHash(r);
+    Aggregate aggregate = data.getAggregate(r, hash);
     if (aggregate == null) {
+      if (data.memoryLimit > 0 && data.memoryUsed >= data.memoryLimit) {
+        // The groups in memory take all the room we have. The memory used only grows, so all the
+        // rows of this group end up on disk, in order, and are aggregated later on.
+        //
+        spillRow(r, hash);
+        return;
+      }
+
+      Object[] groupData = new Object[data.groupMeta.size()];
+      for (int i = 0; i < data.groupnrs.length; i++) {
+        groupData[i] = r[data.groupnrs[i]];
+      }
+
       // Create a new value...
       //
       aggregate = new Aggregate();
@@ -238,7 +352,9 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
       // Store it in the map!
       //
-      data.map.put(entry, aggregate);
+      data.map.add(groupData, hash, aggregate);
+      data.memoryUsed += GroupTable.ENTRY_SIZE;
+      data.memoryUsed += RowSizeEstimator.estimateSize(groupData) + estimateSize(aggregate);
     }
 
     for (int i = 0; i < data.subjectnrs.length; i++) {
@@ -261,6 +377,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
         case MemoryGroupByMeta.TYPE_GROUP_PERCENTILE:
           if (!subjMeta.isNull(subj)) {
             ((List<Double>) aggregate.agg[i]).add(subjMeta.getNumber(subj));
+            data.memoryUsed += LIST_VALUE_SIZE;
           }
           break;
         case MemoryGroupByMeta.TYPE_GROUP_STANDARD_DEVIATION:
@@ -296,8 +413,8 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
             if (obj instanceof byte[]) {
               obj = new String((byte[]) obj);
             }
-            if (!aggregate.distinctObjs[i].contains(obj)) {
-              aggregate.distinctObjs[i].add(obj);
+            if (aggregate.distinctObjs[i].add(obj)) {
+              data.memoryUsed += SET_VALUE_SIZE + RowSizeEstimator.estimateSize(obj);
             }
           }
           aggregate.counts[i] = aggregate.distinctObjs[i].size();
@@ -348,10 +465,12 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
         case MemoryGroupByMeta.TYPE_GROUP_CONCAT_COMMA:
           if (subj != null) {
             StringBuilder sb = (StringBuilder) value;
-            if (sb.length() > 0) {
+            int length = sb.length();
+            if (length > 0) {
               sb.append(", ");
             }
             sb.append(subjMeta.getString(subj));
+            data.memoryUsed += sb.length() - length;
           }
           break;
         case MemoryGroupByMeta.TYPE_GROUP_CONCAT_STRING:
@@ -361,16 +480,20 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
               separator = resolve(meta.getValueField()[i]);
             }
             StringBuilder sb = (StringBuilder) value;
-            if (sb.length() > 0) {
+            int length = sb.length();
+            if (length > 0) {
               sb.append(separator);
             }
             sb.append(subjMeta.getString(subj));
+            data.memoryUsed += sb.length() - length;
           }
           break;
         case MemoryGroupByMeta.TYPE_GROUP_CONCAT_DISTINCT:
           if (subj != null) {
             SortedSet<Object> set = (SortedSet<Object>) value;
-            set.add(subj);
+            if (set.add(subj)) {
+              data.memoryUsed += SET_VALUE_SIZE + RowSizeEstimator.estimateSize(subj);
+            }
           }
         default:
           break;
@@ -564,7 +687,11 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   public boolean init() {
 
     if (super.init()) {
-      data.map = new HashMap<>(5000);
+      data.map = new GroupTable(5000);
+
+      long memoryLimit = Const.toLong(resolve(meta.getMemoryLimit()), -1L);
+      data.memoryLimit = memoryLimit > 0 ? memoryLimit * 1024 * 1024 : -1L;
+      data.spillDirectory = resolve(meta.getSpillDirectory());
       return true;
     }
     return false;
@@ -572,6 +699,27 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
   @Override
   public void dispose() {
+    // Remove the temporary files left behind after an error
+    //
+    List<SpillPartition> partitions = new ArrayList<>(data.spilledPartitions);
+    if (data.spillPartitions != null) {
+      partitions.addAll(Arrays.asList(data.spillPartitions));
+    }
+    for (SpillPartition partition : partitions) {
+      if (partition != null) {
+        try {
+          partition.delete();
+        } catch (HopFileException e) {
+          logError(
+              BaseMessages.getString(
+                  PKG, "MemoryGroupBy.Error.UnableToDeleteFile", partition.getFile()),
+              e);
+        }
+      }
+    }
+    data.spilledPartitions.clear();
+    data.spillPartitions = null;
+
     super.dispose();
     ((MemoryGroupByData) data).clear();
   }
@@ -584,7 +732,7 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     // Clear the complete cache...
     //
-    data.map.clear();
+    data.clearGroups();
 
     data.newBatch = true;
   }
@@ -17,55 +17,39 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby;
 
-import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowCodec;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
 
 public class MemoryGroupByData extends BaseTransformData implements ITransformData {
-  public class HashEntry {
-    private Object[] groupData;
+  public GroupTable map;
 
-    public HashEntry(Object[] groupData) {
-      this.groupData = groupData;
-    }
+  /** The estimated number of bytes the groups in the map take */
+  public long memoryUsed;
 
-    public Object[] getGroupData() {
-      return groupData;
-    }
+  /** The number of bytes the groups can take before rows of new groups are spilled, or -1 */
+  public long memoryLimit;
 
-    public boolean equals(Object obj) {
-      HashEntry entry = (HashEntry) obj;
+  public String spillDirectory;
 
-      try {
-        return groupMeta.compare(groupData, entry.groupData) == 0;
-      } catch (HopValueException e) {
-        throw new RuntimeException(e);
-      }
-    }
+  /** The partitions the rows of groups which don't fit in memory are written to, or null */
+  public SpillPartition[] spillPartitions;
 
-    public int hashCode() {
-      try {
-        return groupMeta.hashCode(getHashValue());
-      } catch (HopValueException e) {
-        throw new RuntimeException(e);
-      }
-    }
+  /** The partitions which still need to be aggregated */
+  public Deque<SpillPartition> spilledPartitions = new ArrayDeque<>();
 
-    private Object[] getHashValue() throws HopValueException {
-      Object[] groupDataHash = new Object[groupMeta.size()];
-      for (int i = 0; i < groupMeta.size(); i++) {
-        IValueMeta valueMeta = groupMeta.getValueMeta(i);
-        groupDataHash[i] = valueMeta.convertToNormalStorageType(groupData[i]);
-      }
-      return groupDataHash;
-    }
-  }
+  /** The number of times the rows being aggregated were spilled before */
+  public int spillLevel;
 
-  public HashMap<HashEntry, Aggregate> map;
+  public RowCodec spillCodec;
 
   public IRowMeta aggMeta;
   public IRowMeta groupMeta;
@@ -89,16 +73,56 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
 
   public boolean newBatch;
 
+  /** The metadata for which the comparator and hash function of the groups were made */
+  private IRowMeta comparedInputRowMeta;
+
+  private IRowMeta comparedGroupMeta;
+
+  private Comparator<Object[]> groupComparator;
+  private ToIntFunction<Object[]> groupHasher;
+
   public MemoryGroupByData() {
     super();
   }
 
-  public HashEntry getHashEntry(Object[] groupData) {
-    return new HashEntry(groupData);
+  private void prepareGroupFunctions() {
+    if (comparedInputRowMeta != inputRowMeta || comparedGroupMeta != groupMeta) {
+      int[] keyFieldnrs = IntStream.range(0, groupMeta.size()).toArray();
+      groupComparator = inputRowMeta.getRowComparator(groupnrs, groupMeta, keyFieldnrs);
+      groupHasher = inputRowMeta.getRowHasher(groupnrs);
+      comparedInputRowMeta = inputRowMeta;
+      comparedGroupMeta = groupMeta;
+    }
+  }
+
+  /**
+   * @param row an input row
+   * @return the hash code of the group of the row, the same as the one of its group key
+   */
+  public int getGroupHash(Object[] row) {
+    prepareGroupFunctions();
+    return groupHasher.applyAsInt(row);
+  }
+
+  /**
+   * @param row an input row
+   * @param hash the hash code of the group of the row
+   * @return the aggregate of the group of the row or null if the group isn't in memory
+   */
+  public Aggregate getAggregate(Object[] row, int hash) {
+    prepareGroupFunctions();
+    return map.get(row, hash, groupComparator);
+  }
+
+  /** Remove the groups from memory */
+  public void clearGroups() {
+    map.clear();
+    memoryUsed = 0L;
   }
 
   /** Method responsible for clearing out memory hogs */
   public void clear() {
-    map = new HashMap<>();
+    map = new GroupTable();
+    memoryUsed = 0L;
   }
 }
@@ -161,6 +161,14 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
   /** Flag to indicate that we always give back one row. Defaults to true for existing pipelines. */
   private boolean alwaysGivingBackOneRow;
 
+  /** The memory in MB the groups can take before rows are spilled to temporary files */
+  @Injection(name = "MEMORY_LIMIT_MB")
+  private String memoryLimit;
+
+  /** The directory to write the temporary files to */
+  @Injection(name = "SPILL_DIRECTORY")
+  private String spillDirectory;
+
   public MemoryGroupByMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -301,6 +309,9 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       } else {
         alwaysGivingBackOneRow = "Y".equalsIgnoreCase(giveBackRow);
       }
+
+      memoryLimit = XmlHandler.getTagValue(transformNode, "memory_limit");
+      spillDirectory = XmlHandler.getTagValue(transformNode, "spill_directory");
     } catch (Exception e) {
       throw new HopXmlException(
           BaseMessages.getString(
@@ -343,6 +354,9 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     int nrFields = 0;
 
     allocate(sizegroup, nrFields);
+
+    memoryLimit = null;
+    spillDirectory = "${java.io.tmpdir}";
   }
 
   @Override
@@ -460,6 +474,8 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     StringBuilder retval = new StringBuilder(500);
 
     retval.append("      ").append(XmlHandler.addTagValue("give_back_row", alwaysGivingBackOneRow));
+    retval.append("      ").append(XmlHandler.addTagValue("memory_limit", memoryLimit));
+    retval.append("      ").append(XmlHandler.addTagValue("spill_directory", spillDirectory));
 
     retval.append("      <group>").append(Const.CR);
     for (int i = 0; i < groupField.length; i++) {
@@ -529,6 +545,29 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /** @return the memory in MB the groups can take before rows are spilled to temporary files */
+  public String getMemoryLimit() {
+    return memoryLimit;
+  }
+
+  /**
+   * @param memoryLimit the memory in MB the groups can take before rows are spilled to temporary
+   *     files
+   */
+  public void setMemoryLimit(String memoryLimit) {
+    this.memoryLimit = memoryLimit;
+  }
+
+  /** @return the directory to write the temporary files to */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /** @param spillDirectory the directory to write the temporary files to */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
   /**
    * If we use injection we can have different arrays lengths. We need synchronize them for
    * consistency behavior with UI
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.RowCodec;
+import org.apache.hop.core.vfs.HopVfs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A temporary file with the input rows of the groups of one hash partition which didn't fit in
+ * memory. The rows are read back in the order they were written, so aggregates which depend on the
+ * order of the rows, like first, last and the concatenations, give the same results.
+ */
+public class SpillPartition {
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  private final FileObject file;
+  private final int level;
+  private OutputStream outputStream;
+  private long rowCount;
+
+  /**
+   * @param directory the directory to create the temporary file in
+   * @param level the number of times the rows of the partition were spilled
+   */
+  public SpillPartition(String directory, int level) throws HopException {
+    this.level = level;
+    file = HopVfs.createTempFile("memgroupby", ".tmp", directory);
+    try {
+      outputStream =
+          new BufferedOutputStream(HopVfs.getOutputStream(file, false), BUFFER_SIZE);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to create temporary file " + file, e);
+    }
+    RowCodec.writeHeader(outputStream);
+  }
+
+  public void write(RowCodec codec, Object[] row) throws HopFileException {
+    codec.writeRow(outputStream, row);
+    rowCount++;
+  }
+
+  /** Close the file after the last row was written. */
+  public void finish() throws HopFileException {
+    try {
+      outputStream.close();
+    } catch (IOException e) {
+      throw new HopFileException("Unable to close temporary file " + file, e);
+    }
+    outputStream = null;
+  }
+
+  /** @return a stream to read the rows from, positioned after the header */
+  public InputStream open() throws HopFileException {
+    InputStream inputStream;
+    try {
+      inputStream = new BufferedInputStream(HopVfs.getInputStream(file), BUFFER_SIZE);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to open temporary file " + file, e);
+    }
+    try {
+      RowCodec.readHeader(inputStream);
+    } catch (HopFileException e) {
+      try {
+        inputStream.close();
+      } catch (IOException ignored) {
+        // We're failing anyway
+      }
+      throw e;
+    }
+    return inputStream;
+  }
+
+  /** Remove the file, closing it first if rows were still being written. */
+  public void delete() throws HopFileException {
+    if (outputStream != null) {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        // Ignore, we're removing the file anyway
+      }
+      outputStream = null;
+    }
+    try {
+      file.delete();
+    } catch (IOException e) {
+      throw new HopFileException("Unable to delete temporary file " + file, e);
+    }
+  }
+
+  public FileObject getFile() {
+    return file;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GroupTableTest {
+
+  /** Rows have the group in the second field, group keys only have the group */
+  private final Comparator<Object[]> comparator =
+      (row, key) -> ((Long) row[1]).compareTo((Long) key[0]);
+
+  private Object[] row(long group) {
+    return new Object[] {"row", group};
+  }
+
+  /** A poor hash function, to have lots of collisions */
+  private int hash(long group) {
+    return (int) (group % 7);
+  }
+
+  @Test
+  public void testAddAndGet() {
+    GroupTable table = new GroupTable();
+    Aggregate[] aggregates = new Aggregate[1000];
+    for (int i = 0; i < aggregates.length; i++) {
+      aggregates[i] = new Aggregate();
+      table.add(new Object[] {(long) i}, hash(i), aggregates[i]);
+    }
+    assertEquals(1000, table.size());
+
+    for (int i = 0; i < aggregates.length; i++) {
+      assertSame(aggregates[i], table.get(row(i), hash(i), comparator));
+    }
+    assertNull(table.get(row(1000), hash(1000), comparator));
+    assertNull(table.get(row(-1), hash(-1), comparator));
+  }
+
+  @Test
+  public void testInsertionOrder() {
+    GroupTable table = new GroupTable(2);
+    long[] groups = {42, 7, 1000, -3, 0, 19};
+    for (long group : groups) {
+      table.add(new Object[] {group}, Long.hashCode(group), new Aggregate());
+    }
+    for (int i = 0; i < groups.length; i++) {
+      assertEquals(groups[i], table.getKey(i)[0]);
+      assertSame(
+          table.getAggregate(i),
+          table.get(row(groups[i]), Long.hashCode(groups[i]), comparator));
+    }
+  }
+
+  @Test
+  public void testClear() {
+    GroupTable table = new GroupTable();
+    table.add(new Object[] {1L}, hash(1), new Aggregate());
+    table.clear();
+    assertTrue(table.isEmpty());
+    assertNull(table.get(row(1), hash(1), comparator));
+
+    Aggregate aggregate = new Aggregate();
+    table.add(new Object[] {1L}, hash(1), aggregate);
+    assertSame(aggregate, table.get(row(1), hash(1), comparator));
+  }
+}
@@ -25,7 +25,6 @@ import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaString;
-import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.*;
 import org.junit.runner.RunWith;
@@ -33,8 +32,6 @@ import org.mockito.Mockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
-import java.util.HashMap;
-
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -85,7 +82,7 @@ public class MemoryGroupByAggregationNullsTest {
     data.outputRowMeta = rmi;
     data.groupMeta = rmi;
     data.groupnrs = new int[] {};
-    data.map = new HashMap<>();
+    data.map = new GroupTable();
     when(rmi.getValueMeta(Mockito.anyInt())).thenReturn(vmi);
     data.aggMeta = rmi;
     transform =
@@ -95,12 +92,14 @@ public class MemoryGroupByAggregationNullsTest {
     // put aggregate into map with default predefined value
     aggregate = new Aggregate();
     aggregate.agg = new Object[] {def};
-    data.map.put(getHashEntry(), aggregate);
+    Object[] groupData = new Object[data.groupMeta.size()];
+    data.map.add(groupData, data.getGroupHash(groupData), aggregate);
   }
 
-  // test hash entry
-  HashEntry getHashEntry() {
-    return data.getHashEntry(new Object[data.groupMeta.size()]);
+  // test the aggregate of the group
+  Aggregate getAggregate() {
+    Object[] groupData = new Object[data.groupMeta.size()];
+    return data.getAggregate(groupData, data.getGroupHash(groupData));
   }
 
   /**
@@ -120,7 +119,7 @@ public class MemoryGroupByAggregationNullsTest {
     transform.setMinNullIsValued(true);
     transform.addToAggregate(new Object[] {null});
 
-    Aggregate agg = data.map.get(getHashEntry());
+    Aggregate agg = getAggregate();
     Assert.assertNotNull("Hash code strategy changed?", agg);
 
     Assert.assertNull("Value is set", agg.agg[0]);
@@ -132,7 +131,7 @@ public class MemoryGroupByAggregationNullsTest {
     transform.setMinNullIsValued(false);
     transform.addToAggregate(new Object[] {null});
 
-    Aggregate agg = data.map.get(getHashEntry());
+    Aggregate agg = getAggregate();
     Assert.assertNotNull("Hash code strategy changed?", agg);
 
     Assert.assertEquals("Value is NOT set", def, agg.agg[0]);
@@ -179,7 +178,7 @@ public class MemoryGroupByAggregationNullsTest {
     aggregate.agg = new Object[] {new byte[0]};
     byte[] bytes = {51};
     transform.addToAggregate(new Object[] {bytes});
-    Aggregate result = data.map.get(getHashEntry());
+    Aggregate result = getAggregate();
     Assert.assertEquals("Returns non-null value", bytes, result.agg[0]);
   }
 
@@ -208,7 +207,7 @@ public class MemoryGroupByAggregationNullsTest {
     transform.addToAggregate(new Object[] {binaryData0.getBytes()});
     transform.addToAggregate(new Object[] {binaryData1.getBytes()});
 
-    Object[] distinctObjs = data.map.get(getHashEntry()).distinctObjs[0].toArray();
+    Object[] distinctObjs = getAggregate().distinctObjs[0].toArray();
 
     Assert.assertEquals(binaryData0, distinctObjs[1]);
     Assert.assertEquals(binaryData1, distinctObjs[0]);
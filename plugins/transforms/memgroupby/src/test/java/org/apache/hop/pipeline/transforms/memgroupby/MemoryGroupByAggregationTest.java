@@ -265,7 +265,7 @@ public class MemoryGroupByAggregationTest {
     }
 
     MemoryGroupByData data = new MemoryGroupByData();
-    data.map = Maps.newHashMap();
+    data.map = new GroupTable();
 
     // Add to pipeline
     PipelineMeta pipelineMeta = mock(PipelineMeta.class);
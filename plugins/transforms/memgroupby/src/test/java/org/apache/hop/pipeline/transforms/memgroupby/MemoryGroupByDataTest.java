@@ -25,9 +25,9 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.util.HashMap;
-
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.when;
@@ -37,41 +37,51 @@ public class MemoryGroupByDataTest {
 
   private MemoryGroupByData data = new MemoryGroupByData();
 
+  @Mock private IRowMeta inputRowMeta;
   @Mock private IRowMeta groupMeta;
   @Mock private IValueMeta valueMeta;
 
   @Before
   public void setUp() throws Exception {
+    data.inputRowMeta = inputRowMeta;
     data.groupMeta = groupMeta;
+    data.groupnrs = new int[] {1};
+    data.map = new GroupTable();
     when(groupMeta.size()).thenReturn(1);
     when(groupMeta.getValueMeta(anyInt())).thenReturn(valueMeta);
+    when(inputRowMeta.getValueMeta(anyInt())).thenReturn(valueMeta);
+    when(inputRowMeta.getRowComparator(any(int[].class), any(IRowMeta.class), any(int[].class)))
+        .thenCallRealMethod();
+    when(inputRowMeta.getRowHasher(any(int[].class))).thenCallRealMethod();
+    when(valueMeta.getStorageType()).thenReturn(IValueMeta.STORAGE_TYPE_BINARY_STRING);
     when(valueMeta.convertToNormalStorageType(anyObject()))
         .then(
             invocation -> {
               Object argument = invocation.getArguments()[0];
               return new String((byte[]) argument);
             });
+    when(valueMeta.compare(anyObject(), any(IValueMeta.class), anyObject()))
+        .then(
+            invocation -> {
+              Object[] arguments = invocation.getArguments();
+              return new String((byte[]) arguments[0]).compareTo(new String((byte[]) arguments[2]));
+            });
   }
 
   @Test
-  public void hashEntryTest() {
-    HashMap<MemoryGroupByData.HashEntry, String> map = new HashMap<>();
-
-    byte[] byteValue1 = "key".getBytes();
-    Object[] groupData1 = new Object[1];
-    groupData1[0] = byteValue1;
-
-    MemoryGroupByData.HashEntry hashEntry1 = data.getHashEntry(groupData1);
-    map.put(hashEntry1, "value");
-
-    byte[] byteValue2 = "key".getBytes();
-    Object[] groupData2 = new Object[1];
-    groupData2[0] = byteValue2;
+  public void groupTest() {
+    Aggregate aggregate = new Aggregate();
 
-    MemoryGroupByData.HashEntry hashEntry2 = data.getHashEntry(groupData2);
+    Object[] row1 = new Object[] {"other", "key".getBytes()};
+    Object[] groupData1 = new Object[] {row1[1]};
+    data.map.add(groupData1, data.getGroupHash(row1), aggregate);
 
-    String value = map.get(hashEntry2);
+    // Another instance of the same binary string finds the group
+    //
+    Object[] row2 = new Object[] {"other", "key".getBytes()};
+    assertSame(aggregate, data.getAggregate(row2, data.getGroupHash(row2)));
 
-    assertEquals("value", value);
+    Object[] row3 = new Object[] {"other", "another key".getBytes()};
+    assertNull(data.getAggregate(row3, data.getGroupHash(row3)));
   }
 }
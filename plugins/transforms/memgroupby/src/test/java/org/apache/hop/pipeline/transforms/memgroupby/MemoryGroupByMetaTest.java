@@ -52,6 +52,8 @@ public class MemoryGroupByMetaTest implements IInitializer<MemoryGroupByMeta> {
     List<String> attributes =
         Arrays.asList(
             "alwaysGivingBackOneRow",
+            "memoryLimit",
+            "spillDirectory",
             "groupField",
             "aggregateField",
             "subjectField",
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Aggregates with a memory limit so small that rows are spilled to disk, and spilled again. */
+public class MemoryGroupBySpillTest {
+
+  private static final int GROUPS = 500;
+  private static final int ROWS_PER_GROUP = 4;
+
+  @Rule public TemporaryFolder spillFolder = new TemporaryFolder();
+
+  private TransformMockHelper<MemoryGroupByMeta, MemoryGroupByData> mockHelper;
+  private MemoryGroupByMeta meta;
+  private IRowMeta inputRowMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Memory Group By", MemoryGroupByMeta.class, MemoryGroupByData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.iLogChannel.isDetailed()).thenReturn(true);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+
+    inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaString("group"));
+    inputRowMeta.addValueMeta(new ValueMetaInteger("value"));
+
+    meta = new MemoryGroupByMeta();
+    meta.allocate(1, 4);
+    meta.getGroupField()[0] = "group";
+    String[] names = {"sum", "count", "min", "max"};
+    int[] types = {
+      MemoryGroupByMeta.TYPE_GROUP_SUM,
+      MemoryGroupByMeta.TYPE_GROUP_COUNT_ALL,
+      MemoryGroupByMeta.TYPE_GROUP_MIN,
+      MemoryGroupByMeta.TYPE_GROUP_MAX
+    };
+    for (int i = 0; i < names.length; i++) {
+      meta.getAggregateField()[i] = names[i];
+      meta.getSubjectField()[i] = "value";
+      meta.getAggregateType()[i] = types[i];
+    }
+    meta.setSpillDirectory(spillFolder.getRoot().getAbsolutePath());
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  /** Every group gets the values k, k+1, k+2 and k+3, spread over the input. */
+  private List<Object[]> getInputRows() {
+    List<Object[]> rows = new ArrayList<>();
+    for (int j = 0; j < ROWS_PER_GROUP; j++) {
+      for (int k = 0; k < GROUPS; k++) {
+        rows.add(new Object[] {"group " + k, (long) (k + j)});
+      }
+    }
+    return rows;
+  }
+
+  private Map<String, Object[]> runTransform(long memoryLimit) throws Exception {
+    MemoryGroupByData data = new MemoryGroupByData();
+    MemoryGroupBy transform =
+        new MemoryGroupBy(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+    assertTrue(transform.init());
+    data.memoryLimit = memoryLimit;
+
+    IRowSet inputRowSet = new QueueRowSet();
+    for (Object[] row : getInputRows()) {
+      inputRowSet.putRow(inputRowMeta, row);
+    }
+    inputRowSet.setDone();
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(inputRowSet)));
+
+    Map<String, Object[]> groups = new HashMap<>();
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            assertNull("Group written twice: " + row[0], groups.put((String) row[0], row));
+          }
+        });
+    while (transform.processRow()) {
+      // aggregate all rows
+    }
+    transform.dispose();
+    return groups;
+  }
+
+  private static void assertAggregates(Map<String, Object[]> groups) {
+    assertEquals(GROUPS, groups.size());
+    for (int k = 0; k < GROUPS; k++) {
+      Object[] row = groups.get("group " + k);
+      assertArrayEquals(
+          new Object[] {"group " + k, 4L * k + 6L, (long) ROWS_PER_GROUP, (long) k, k + 3L},
+          new Object[] {row[0], row[1], row[2], row[3], row[4]});
+    }
+  }
+
+  @Test
+  public void testWithoutLimit() throws Exception {
+    assertAggregates(runTransform(-1L));
+  }
+
+  @Test
+  public void testSpillAndResplit() throws Exception {
+    // Only a few groups fit: the partitions of the first spill don't fit either and are split again
+    assertAggregates(runTransform(2000L));
+
+    verify(mockHelper.iLogChannel, atLeastOnce()).logDetailed(contains("at spill level 0"));
+    verify(mockHelper.iLogChannel, atLeastOnce()).logDetailed(contains("at spill level 1"));
+    assertEquals(0, spillFolder.getRoot().list().length);
+  }
+
+  @Test
+  public void testSpillOnce() throws Exception {
+    // Half of the groups fit, every partition of the spilled groups fits as well
+    assertAggregates(runTransform(GROUPS * 200L));
+
+    verify(mockHelper.iLogChannel, atLeastOnce()).logDetailed(contains("at spill level 0"));
+    verify(mockHelper.iLogChannel, never()).logDetailed(contains("at spill level 1"));
+    assertEquals(0, spillFolder.getRoot().list().length);
+  }
+}
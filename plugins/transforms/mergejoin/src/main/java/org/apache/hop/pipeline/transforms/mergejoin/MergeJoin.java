@@ -128,6 +128,7 @@ public class MergeJoin extends BaseTransform<MergeJoinMeta, MergeJoinData> {
             throw new HopTransformException(message);
           }
         }
+        data.oneComparator = data.oneMeta.getRowComparator(data.keyNrs1);
       }
 
       if (data.two != null) {
@@ -145,6 +146,12 @@ public class MergeJoin extends BaseTransform<MergeJoinMeta, MergeJoinData> {
             throw new HopTransformException(message);
           }
         }
+        data.twoComparator = data.twoMeta.getRowComparator(data.keyNrs2);
+      }
+
+      if (data.one != null && data.two != null) {
+        data.joinComparator =
+            data.oneMeta.getRowComparator(data.keyNrs1, data.twoMeta, data.keyNrs2);
       }
 
       // Calculate one_dummy... defaults to null
@@ -190,8 +197,7 @@ public class MergeJoin extends BaseTransform<MergeJoinMeta, MergeJoinData> {
       if (data.two == null) {
         compare = 1;
       } else {
-        int cmp =
-            data.oneMeta.compare(data.one, data.twoMeta, data.two, data.keyNrs1, data.keyNrs2);
+        int cmp = data.joinComparator.compare(data.one, data.two);
         compare = cmp > 0 ? 1 : cmp < 0 ? -1 : 0;
       }
     }
@@ -208,13 +214,9 @@ public class MergeJoin extends BaseTransform<MergeJoinMeta, MergeJoinData> {
         data.two_next = getRowFrom(data.twoRowSet);
 
         int compare1 =
-            (data.one_next == null)
-                ? -1
-                : data.oneMeta.compare(data.one, data.one_next, data.keyNrs1, data.keyNrs1);
+            (data.one_next == null) ? -1 : data.oneComparator.compare(data.one, data.one_next);
         int compare2 =
-            (data.two_next == null)
-                ? -1
-                : data.twoMeta.compare(data.two, data.two_next, data.keyNrs2, data.keyNrs2);
+            (data.two_next == null) ? -1 : data.twoComparator.compare(data.two, data.two_next);
         if (compare1 == 0 || compare2 == 0) { // Duplicate keys
 
           if (data.ones == null) {
@@ -237,8 +239,7 @@ public class MergeJoin extends BaseTransform<MergeJoinMeta, MergeJoinData> {
               if (0
                   != ((data.one_next == null)
                       ? -1
-                      : data.oneMeta.compare(
-                          data.one, data.one_next, data.keyNrs1, data.keyNrs1))) {
+                      : data.oneComparator.compare(data.one, data.one_next))) {
                 break;
               }
               data.ones.add(data.one_next);
@@ -256,8 +257,7 @@ public class MergeJoin extends BaseTransform<MergeJoinMeta, MergeJoinData> {
               if (0
                   != ((data.two_next == null)
                       ? -1
-                      : data.twoMeta.compare(
-                          data.two, data.two_next, data.keyNrs2, data.keyNrs2))) {
+                      : data.twoComparator.compare(data.two, data.two_next))) {
                 break;
               }
               data.twos.add(data.two_next);
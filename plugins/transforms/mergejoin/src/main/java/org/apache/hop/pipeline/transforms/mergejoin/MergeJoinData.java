@@ -22,6 +22,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.util.Comparator;
 import java.util.List;
 
 public class MergeJoinData extends BaseTransformData implements ITransformData {
@@ -41,6 +42,15 @@ public class MergeJoinData extends BaseTransformData implements ITransformData {
   public int[] keyNrs1;
   public int[] keyNrs2;
 
+  /** Compares the keys of two rows of the first stream */
+  public Comparator<Object[]> oneComparator;
+
+  /** Compares the keys of two rows of the second stream */
+  public Comparator<Object[]> twoComparator;
+
+  /** Compares the keys of a row of the first stream with those of a row of the second stream */
+  public Comparator<Object[]> joinComparator;
+
   public IRowSet oneRowSet;
   public IRowSet twoRowSet;
 
@@ -24,6 +24,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowBatch;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.core.util.Utils;
@@ -70,77 +71,8 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       throws HopValueException {
     if (data.firstselect) {
       data.firstselect = false;
-
-      // We need to create a new meta-data row to drive the output
-      // We also want to know the indexes of the selected fields in the source row.
-      //
-      data.fieldnrs = new int[meta.getSelectFields().length];
-      for (int i = 0; i < data.fieldnrs.length; i++) {
-        data.fieldnrs[i] = rowMeta.indexOfValue(meta.getSelectFields()[i].getName());
-        if (data.fieldnrs[i] < 0) {
-          logError(
-              BaseMessages.getString(
-                  PKG, "SelectValues.Log.CouldNotFindField", meta.getSelectFields()[i].getName()));
-          setErrors(1);
-          stopAll();
-          return null;
-        }
-      }
-
-      // Check for doubles in the selected fields... AFTER renaming!!
-      //
-      int[] cnt = new int[meta.getSelectFields().length];
-      for (int i = 0; i < meta.getSelectFields().length; i++) {
-        cnt[i] = 0;
-        for (int j = 0; j < meta.getSelectFields().length; j++) {
-          String one =
-              Const.NVL(meta.getSelectFields()[i].getRename(), meta.getSelectFields()[i].getName());
-          String two =
-              Const.NVL(meta.getSelectFields()[j].getRename(), meta.getSelectFields()[j].getName());
-          if (one.equals(two)) {
-            cnt[i]++;
-          }
-
-          if (cnt[i] > 1) {
-            logError(
-                BaseMessages.getString(
-                    PKG, "SelectValues.Log.FieldCouldNotSpecifiedMoreThanTwice", one));
-            setErrors(1);
-            stopAll();
-            return null;
-          }
-        }
-      }
-
-      // See if we need to include (and sort) the non-specified fields as well...
-      //
-      if (meta.isSelectingAndSortingUnspecifiedFields()) {
-        // Select the unspecified fields.
-        // Sort the fields
-        // Add them after the specified fields...
-        //
-        List<String> extra = new ArrayList<>();
-        ArrayList<Integer> unspecifiedKeyNrs = new ArrayList<>();
-        for (int i = 0; i < rowMeta.size(); i++) {
-          String fieldName = rowMeta.getValueMeta(i).getName();
-          if (Const.indexOfString(fieldName, meta.getSelectName()) < 0) {
-            extra.add(fieldName);
-          }
-        }
-        Collections.sort(extra);
-        for (String fieldName : extra) {
-          int index = rowMeta.indexOfValue(fieldName);
-          unspecifiedKeyNrs.add(index);
-        }
-
-        // Create the extra field list...
-        //
-        data.extraFieldnrs = new int[unspecifiedKeyNrs.size()];
-        for (int i = 0; i < data.extraFieldnrs.length; i++) {
-          data.extraFieldnrs[i] = unspecifiedKeyNrs.get(i);
-        }
-      } else {
-        data.extraFieldnrs = new int[] {};
+      if (!initSelectFields(rowMeta)) {
+        return null;
       }
     }
 
@@ -195,51 +127,144 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
   private synchronized Object[] removeValues(IRowMeta rowMeta, Object[] rowData) {
     if (data.firstdeselect) {
       data.firstdeselect = false;
+      if (!initRemoveFields(rowMeta)) {
+        return null;
+      }
+    }
+
+    /*
+     * Remove the field values Take into account that field indexes change once you remove them!!! Therefore removenrs
+     * is sorted in reverse on index...
+     */
+    return RowDataUtil.removeItems(rowData, data.removenrs);
+  }
+
+  /**
+   * Look up the indexes of the selected fields and the unspecified fields which need to be added.
+   *
+   * @param rowMeta the input row metadata
+   * @return false if a field couldn't be found or was selected twice
+   */
+  private boolean initSelectFields(IRowMeta rowMeta) {
+    // We need to create a new meta-data row to drive the output
+    // We also want to know the indexes of the selected fields in the source row.
+    //
+    data.fieldnrs = new int[meta.getSelectFields().length];
+    for (int i = 0; i < data.fieldnrs.length; i++) {
+      data.fieldnrs[i] = rowMeta.indexOfValue(meta.getSelectFields()[i].getName());
+      if (data.fieldnrs[i] < 0) {
+        logError(
+            BaseMessages.getString(
+                PKG, "SelectValues.Log.CouldNotFindField", meta.getSelectFields()[i].getName()));
+        setErrors(1);
+        stopAll();
+        return false;
+      }
+    }
+
+    // Check for doubles in the selected fields... AFTER renaming!!
+    //
+    int[] cnt = new int[meta.getSelectFields().length];
+    for (int i = 0; i < meta.getSelectFields().length; i++) {
+      cnt[i] = 0;
+      for (int j = 0; j < meta.getSelectFields().length; j++) {
+        String one =
+            Const.NVL(meta.getSelectFields()[i].getRename(), meta.getSelectFields()[i].getName());
+        String two =
+            Const.NVL(meta.getSelectFields()[j].getRename(), meta.getSelectFields()[j].getName());
+        if (one.equals(two)) {
+          cnt[i]++;
+        }
 
-      data.removenrs = new int[meta.getDeleteName().length];
-      for (int i = 0; i < data.removenrs.length; i++) {
-        data.removenrs[i] = rowMeta.indexOfValue(meta.getDeleteName()[i]);
-        if (data.removenrs[i] < 0) {
+        if (cnt[i] > 1) {
           logError(
               BaseMessages.getString(
-                  PKG, "SelectValues.Log.CouldNotFindField", meta.getDeleteName()[i]));
+                  PKG, "SelectValues.Log.FieldCouldNotSpecifiedMoreThanTwice", one));
           setErrors(1);
           stopAll();
-          return null;
+          return false;
         }
       }
+    }
 
-      // Check for doubles in the selected fields...
-      int[] cnt = new int[meta.getDeleteName().length];
-      for (int i = 0; i < meta.getDeleteName().length; i++) {
-        cnt[i] = 0;
-        for (int j = 0; j < meta.getDeleteName().length; j++) {
-          if (meta.getDeleteName()[i].equals(meta.getDeleteName()[j])) {
-            cnt[i]++;
-          }
-
-          if (cnt[i] > 1) {
-            logError(
-                BaseMessages.getString(
-                    PKG,
-                    "SelectValues.Log.FieldCouldNotSpecifiedMoreThanTwice2",
-                    meta.getDeleteName()[i]));
-            setErrors(1);
-            stopAll();
-            return null;
-          }
+    // See if we need to include (and sort) the non-specified fields as well...
+    //
+    if (meta.isSelectingAndSortingUnspecifiedFields()) {
+      // Select the unspecified fields.
+      // Sort the fields
+      // Add them after the specified fields...
+      //
+      List<String> extra = new ArrayList<>();
+      ArrayList<Integer> unspecifiedKeyNrs = new ArrayList<>();
+      for (int i = 0; i < rowMeta.size(); i++) {
+        String fieldName = rowMeta.getValueMeta(i).getName();
+        if (Const.indexOfString(fieldName, meta.getSelectName()) < 0) {
+          extra.add(fieldName);
         }
       }
+      Collections.sort(extra);
+      for (String fieldName : extra) {
+        int index = rowMeta.indexOfValue(fieldName);
+        unspecifiedKeyNrs.add(index);
+      }
 
-      // Sort removenrs descending. So that we can delete in ascending order...
-      Arrays.sort(data.removenrs);
+      // Create the extra field list...
+      //
+      data.extraFieldnrs = new int[unspecifiedKeyNrs.size()];
+      for (int i = 0; i < data.extraFieldnrs.length; i++) {
+        data.extraFieldnrs[i] = unspecifiedKeyNrs.get(i);
+      }
+    } else {
+      data.extraFieldnrs = new int[] {};
     }
+    return true;
+  }
 
-    /*
-     * Remove the field values Take into account that field indexes change once you remove them!!! Therefore removenrs
-     * is sorted in reverse on index...
-     */
-    return RowDataUtil.removeItems(rowData, data.removenrs);
+  /**
+   * Look up the indexes of the fields to remove.
+   *
+   * @param rowMeta the row metadata after selection
+   * @return false if a field couldn't be found or was specified twice
+   */
+  private boolean initRemoveFields(IRowMeta rowMeta) {
+    data.removenrs = new int[meta.getDeleteName().length];
+    for (int i = 0; i < data.removenrs.length; i++) {
+      data.removenrs[i] = rowMeta.indexOfValue(meta.getDeleteName()[i]);
+      if (data.removenrs[i] < 0) {
+        logError(
+            BaseMessages.getString(
+                PKG, "SelectValues.Log.CouldNotFindField", meta.getDeleteName()[i]));
+        setErrors(1);
+        stopAll();
+        return false;
+      }
+    }
+
+    // Check for doubles in the selected fields...
+    int[] cnt = new int[meta.getDeleteName().length];
+    for (int i = 0; i < meta.getDeleteName().length; i++) {
+      cnt[i] = 0;
+      for (int j = 0; j < meta.getDeleteName().length; j++) {
+        if (meta.getDeleteName()[i].equals(meta.getDeleteName()[j])) {
+          cnt[i]++;
+        }
+
+        if (cnt[i] > 1) {
+          logError(
+              BaseMessages.getString(
+                  PKG,
+                  "SelectValues.Log.FieldCouldNotSpecifiedMoreThanTwice2",
+                  meta.getDeleteName()[i]));
+          setErrors(1);
+          stopAll();
+          return false;
+        }
+      }
+    }
+
+    // Sort removenrs descending. So that we can delete in ascending order...
+    Arrays.sort(data.removenrs);
+    return true;
   }
 
   /**
@@ -357,13 +382,136 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] rowData = getRow(); // get row from rowset, wait for our turn, indicate busy!
-    if (rowData == null) { // no more input to be expected...
+    if (data.rowBatches) {
+      return processRowBatch();
+    }
+    long previousLinesRead = getLinesRead();
+
+    // get a batch of rows from the rowset, wait for our turn, indicate busy!
+    List<Object[]> rows = getRows(getRowsInBatch());
+    if (rows == null) { // no more input to be expected...
 
       setOutputDone();
       return false;
     }
 
+    if (first) {
+      first = false;
+      initOutputRowMeta();
+    }
+
+    List<Object[]> outputRows = new ArrayList<>(rows.size());
+    for (Object[] rowData : rows) {
+      if (!processSingleRow(rowData, outputRows)) {
+        // Send the rows we have so far on their way
+        //
+        putRows(data.metadataRowMeta, outputRows);
+        setOutputDone(); // signal end to receiver(s)
+        return false;
+      }
+    }
+
+    // Send the rows on their way
+    //
+    putRows(data.metadataRowMeta, outputRows);
+
+    if (checkFeedback(previousLinesRead, getLinesRead())) {
+      logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + getLinesRead());
+    }
+
+    return true;
+  }
+
+  private void initOutputRowMeta() throws HopException {
+    data.selectRowMeta = getInputRowMeta().clone();
+    meta.getSelectFields(data.selectRowMeta, getTransformName());
+    data.deselectRowMeta = data.selectRowMeta.clone();
+    meta.getDeleteFields(data.deselectRowMeta);
+    data.metadataRowMeta = data.deselectRowMeta.clone();
+    meta.getMetadataFields(data.metadataRowMeta, getTransformName(), this);
+  }
+
+  /**
+   * Selecting and removing fields only moves values around. On columnar batches this is done by
+   * picking the column vectors of the output fields, without touching the values.
+   */
+  private boolean processRowBatch() throws HopException {
+    long previousLinesRead = getLinesRead();
+
+    RowBatch batch = getRowBatch(getRowsInBatch());
+    if (batch == null) { // no more input to be expected...
+      setOutputDone();
+      return false;
+    }
+
+    if (first) {
+      first = false;
+      initOutputRowMeta();
+
+      data.batchFieldnrs = getBatchFieldnrs(getInputRowMeta());
+      if (data.batchFieldnrs == null) {
+        setOutputDone();
+        return false;
+      }
+    }
+
+    putRowBatch(batch.selectFields(data.metadataRowMeta, data.batchFieldnrs));
+
+    if (checkFeedback(previousLinesRead, getLinesRead())) {
+      logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + getLinesRead());
+    }
+
+    return true;
+  }
+
+  /**
+   * Work out for every output field which input field it comes from.
+   *
+   * @param rowMeta the input row metadata
+   * @return the input field index of every output field or null if the fields couldn't be found
+   */
+  private int[] getBatchFieldnrs(IRowMeta rowMeta) {
+    int[] fieldnrs = new int[rowMeta.size()];
+    for (int i = 0; i < fieldnrs.length; i++) {
+      fieldnrs[i] = i;
+    }
+
+    if (data.select) {
+      data.firstselect = false;
+      if (!initSelectFields(rowMeta)) {
+        return null;
+      }
+      fieldnrs = new int[data.fieldnrs.length + data.extraFieldnrs.length];
+      System.arraycopy(data.fieldnrs, 0, fieldnrs, 0, data.fieldnrs.length);
+      System.arraycopy(
+          data.extraFieldnrs, 0, fieldnrs, data.fieldnrs.length, data.extraFieldnrs.length);
+    }
+
+    if (data.deselect) {
+      data.firstdeselect = false;
+      if (!initRemoveFields(data.selectRowMeta)) {
+        return null;
+      }
+      int[] remaining = new int[fieldnrs.length - data.removenrs.length];
+      int index = 0;
+      for (int i = 0; i < fieldnrs.length; i++) {
+        if (Arrays.binarySearch(data.removenrs, i) < 0) {
+          remaining[index++] = fieldnrs[i];
+        }
+      }
+      fieldnrs = remaining;
+    }
+
+    return fieldnrs;
+  }
+
+  /**
+   * Process a single input row and add the result to the output rows.
+   *
+   * @return false if no more rows should be processed
+   */
+  private boolean processSingleRow(Object[] rowData, List<Object[]> outputRows)
+      throws HopException {
     Object[] rowCopy = null;
     if (getTransformMeta().isDoingErrorHandling()) {
       rowCopy = getInputRowMeta().cloneRow(rowData);
@@ -375,17 +523,6 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
               + getInputRowMeta().getString(rowData));
     }
 
-    if (first) {
-      first = false;
-
-      data.selectRowMeta = getInputRowMeta().clone();
-      meta.getSelectFields(data.selectRowMeta, getTransformName());
-      data.deselectRowMeta = data.selectRowMeta.clone();
-      meta.getDeleteFields(data.deselectRowMeta);
-      data.metadataRowMeta = data.deselectRowMeta.clone();
-      meta.getMetadataFields(data.metadataRowMeta, getTransformName(), this);
-    }
-
     try {
       Object[] outputData = rowData;
 
@@ -400,13 +537,10 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       }
 
       if (outputData == null) {
-        setOutputDone(); // signal end to receiver(s)
         return false;
       }
 
-      // Send the row on its way
-      //
-      putRow(data.metadataRowMeta, outputData);
+      outputRows.add(outputData);
       if (log.isRowLevel()) {
         logRowlevel(
             BaseMessages.getString(PKG, "SelectValues.Log.WroteRowToNextTransform")
@@ -422,16 +556,18 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
         } else {
           field = null;
         }
+        // Send the good rows before this one on their way first, so the rows stay in order
+        //
+        if (!outputRows.isEmpty()) {
+          putRows(data.metadataRowMeta, outputRows);
+          outputRows.clear();
+        }
         putError(getInputRowMeta(), rowCopy, 1, e.getMessage(), field, "SELECT001");
       } else {
         throw e;
       }
     }
 
-    if (checkFeedback(getLinesRead())) {
-      logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + getLinesRead());
-    }
-
     return true;
   }
 
@@ -457,6 +593,10 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
         data.metadata = true;
       }
 
+      // Selecting and removing fields can be done on whole columnar batches
+      //
+      data.rowBatches = !data.metadata && !log.isRowLevel() && isRowBatchInput();
+
       boolean atLeastOne = data.select || data.deselect || data.metadata;
       if (!atLeastOne) {
         setErrors(1);
@@ -42,6 +42,12 @@ public class SelectValuesData extends BaseTransformData implements ITransformDat
   public boolean select; // "normal" selection of fields.
   public boolean deselect; // de-select mode
   public boolean metadata; // change meta-data (rename & change length/precision)
+
+  // Process columnar row batches instead of rows
+  public boolean rowBatches;
+
+  // For every output field: the index of the input field, used on row batches
+  public int[] batchFieldnrs;
   
   public SelectValuesData() {
     super();
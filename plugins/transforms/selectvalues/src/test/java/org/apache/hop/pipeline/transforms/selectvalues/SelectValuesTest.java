@@ -37,10 +37,14 @@ import org.apache.hop.pipeline.transforms.selectvalues.SelectValuesMeta.SelectFi
 import org.junit.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.eq;
@@ -333,6 +337,72 @@ public class SelectValuesTest {
     assertTrue(properException);
   }
 
+  @Test
+  public void errorRowsDontOvertakeTheRowsBeforeThem() throws Exception {
+    SelectValuesMeta transformMeta = new SelectValuesMeta();
+    transformMeta.allocate(1, 0, 1);
+    transformMeta.getSelectFields()[0] = new SelectField();
+    transformMeta.getSelectFields()[0].setName(SELECTED_FIELD);
+    transformMeta.getMeta()[0] =
+        new SelectMetadataChange(
+            SELECTED_FIELD,
+            null,
+            IValueMeta.TYPE_INTEGER,
+            -2,
+            -2,
+            IValueMeta.STORAGE_TYPE_NORMAL,
+            null,
+            false,
+            null,
+            null,
+            false,
+            null,
+            null,
+            null);
+
+    SelectValuesData transformData = new SelectValuesData();
+    transformData.select = true;
+    transformData.metadata = true;
+    transformData.firstselect = true;
+    transformData.firstmetadata = true;
+
+    configureTransform(transformMeta, transformData);
+    transform.setRowsInBatch(3);
+    doReturn(Arrays.asList(new Object[] {"1"}, new Object[] {"a string"}, new Object[] {"2"}))
+        .when(transform)
+        .getRows(3);
+
+    // Record the order in which the rows are passed on
+    //
+    List<String> passed = new ArrayList<>();
+    doAnswer(
+            invocation -> {
+              for (Object[] row : (List<Object[]>) invocation.getArgument(1)) {
+                passed.add("row " + row[0]);
+              }
+              return null;
+            })
+        .when(transform)
+        .putRows(any(IRowMeta.class), anyList());
+    doAnswer(
+            invocation -> {
+              passed.add("error " + ((Object[]) invocation.getArgument(1))[0]);
+              return null;
+            })
+        .when(transform)
+        .putError(
+            any(IRowMeta.class),
+            any(Object[].class),
+            anyLong(),
+            anyString(),
+            anyString(),
+            anyString());
+
+    assertTrue(transform.processRow());
+
+    assertEquals(Arrays.asList("row 1", "error a string", "row 2"), passed);
+  }
+
   public class SelectValuesHandler extends SelectValues {
     private Object[] resultRow;
     private IRowMeta rowMeta;
@@ -354,6 +424,13 @@ public class SelectValuesTest {
       rowMeta = rm;
     }
 
+    @Override
+    public void putRows(IRowMeta rm, List<Object[]> rows) throws HopTransformException {
+      for (Object[] row : rows) {
+        putRow(rm, row);
+      }
+    }
+
     /**
      * Find input row set.
      *
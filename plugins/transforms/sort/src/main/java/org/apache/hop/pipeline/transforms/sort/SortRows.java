@@ -18,35 +18,40 @@
 package org.apache.hop.pipeline.transforms.sort;
 
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopFileException;
-import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
-import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.core.row.RowSizeEstimator;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
-import java.io.*;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** Sort the rows in the input-streams based on certain criteria */
 public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
   private static final Class<?> PKG = SortRows.class; // For Translator
 
+  /** The memory an ArrayList uses to keep a row in the buffer */
+  private static final int BUFFER_SLOT_SIZE = 4;
+
+  /** Below this number of rows sorting in memory on multiple threads doesn't pay off */
+  private static final int PARALLEL_SORT_THRESHOLD = 10000;
+
   public SortRows(
       TransformMeta transformMeta,
       SortRowsMeta meta,
@@ -68,11 +73,14 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Save row
     data.buffer.add(r);
+    if (data.runMemoryLimit > 0) {
+      data.bufferBytes += RowSizeEstimator.estimateSize(r) + BUFFER_SLOT_SIZE;
+    }
 
     // Check the free memory every 1000 rows...
     //
     data.freeCounter++;
-    if (data.sortSize <= 0 && data.freeCounter >= 1000) {
+    if (data.sortSize <= 0 && data.runMemoryLimit <= 0 && data.freeCounter >= 1000) {
       data.freeMemoryPct = Const.getPercentageFreeMemory();
       data.freeCounter = 0;
 
@@ -91,6 +99,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Buffer is full: sort & dump to disk
     boolean doSort = data.buffer.size() == data.sortSize;
+    doSort |= data.runMemoryLimit > 0 && data.bufferBytes >= data.runMemoryLimit;
     doSort |=
         data.freeMemoryPctLimit > 0
             && data.freeMemoryPct < data.freeMemoryPctLimit
@@ -106,257 +115,235 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
-  // dump sorted rows from in-memory buffer to fs file
-  // clean current buffer
+  // hand the current buffer over to a worker which sorts it and writes it to a temp file
+  // start a new buffer
   void sortExternalRows() throws HopException {
     // we just recently dump buffer - but there is no new rows came.
     if (data.buffer.isEmpty()) {
       return;
     }
 
-    // First sort the rows in buffer[]
-    quickSort(data.buffer);
-
-    // Then write them to disk...
-    DataOutputStream dos;
-    GZIPOutputStream gzos;
-    int p;
+    // Every worker holds on to a buffer until it's written.
+    // Wait for the oldest one when they are all busy to stay within the memory budget.
+    //
+    while (data.pendingRuns.size() >= data.sortThreads) {
+      data.runs.add(waitForRun(data.pendingRuns.removeFirst()));
+    }
 
-    try {
-      FileObject fileObject =
-          HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()));
-
-      data.files.add(fileObject); // Remember the files!
-      OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
-      if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(outputStream));
-        dos = new DataOutputStream(gzos);
-      } else {
-        dos = new DataOutputStream(new BufferedOutputStream(outputStream, 500000));
-        gzos = null;
-      }
+    List<Object[]> rows = data.buffer;
+    Comparator<Object[]> comparator = newRowComparator();
+    data.pendingRuns.addLast(getSortExecutor().submit(() -> writeRun(rows, comparator)));
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "SortRows.Detailed.SortingRun", rows.size(), data.bufferBytes / 1024));
+    }
 
-      // Just write the data, nothing else
-      List<Integer> duplicates = new ArrayList<>();
-      Object[] previousRow = null;
-      if (meta.isOnlyPassingUniqueRows()) {
-        int index = 0;
-        while (index < data.buffer.size()) {
-          Object[] row = data.buffer.get(index);
-          if (previousRow != null) {
-            int result = data.outputRowMeta.compare(row, previousRow, data.fieldnrs);
-            if (result == 0) {
-              duplicates.add(index);
-              if (log.isRowLevel()) {
-                logRowlevel(
-                    BaseMessages.getString(
-                        PKG,
-                        "SortRows.RowLevel.DuplicateRowRemoved",
-                        data.outputRowMeta.getString(row)));
-              }
-            }
-          }
-          index++;
-          previousRow = row;
-        }
-      }
+    if (data.sortSize < 0 && rows.size() > data.minSortSize) {
+      data.minSortSize = rows.size(); // if we did it once, we can do
+      // it again.
 
-      // How many records do we have left?
-      data.bufferSizes.add(data.buffer.size() - duplicates.size());
+      // Memory usage goes up over time, even with garbage collection
+      // We need pointers, file handles, etc.
+      // As such, we're going to lower the min sort size a bit
+      //
+      data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
+    }
 
-      int duplicatesIndex = 0;
-      for (p = 0; p < data.buffer.size(); p++) {
-        boolean skip = false;
-        if (duplicatesIndex < duplicates.size() && p == duplicates.get(duplicatesIndex)) {
-          skip = true;
-          duplicatesIndex++;
-        }
-        if (!skip) {
-          data.outputRowMeta.writeData(dos, data.buffer.get(p));
-        }
-      }
+    // Start a new buffer, the worker owns the old one now
+    data.buffer = new ArrayList<>(rows.size());
+    data.bufferBytes = 0L;
 
-      if (data.sortSize < 0 && data.buffer.size() > data.minSortSize) {
-        data.minSortSize = data.buffer.size(); // if we did it once, we can do
-        // it again.
+    // How much memory do we have left?
+    //
+    data.freeMemoryPct = Const.getPercentageFreeMemory();
+    data.freeCounter = 0;
+    if (data.sortSize <= 0 && log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
+    }
 
-        // Memory usage goes up over time, even with garbage collection
-        // We need pointers, file handles, etc.
-        // As such, we're going to lower the min sort size a bit
-        //
-        data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
-      }
+    data.getBufferIndex = 0;
+  }
 
-      // Clear the list
-      data.buffer.clear();
+  /**
+   * Create a comparator for a worker thread. The comparator compiled for the common types doesn't
+   * keep any state, but for other values it calls the value metadata, which isn't thread safe. So
+   * every thread compares with its own copy of the metadata.
+   */
+  private Comparator<Object[]> newRowComparator() {
+    return data.outputRowMeta.clone().getRowComparator(data.fieldnrs);
+  }
 
-      // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
-      outputStream.close(); // close file stream
+  /** Sort the rows and write them to a temp file. This runs on a worker thread. */
+  private SortRun writeRun(List<Object[]> rows, Comparator<Object[]> comparator)
+      throws HopException {
+    rows.sort(comparator);
 
-      // How much memory do we have left?
-      //
-      data.freeMemoryPct = Const.getPercentageFreeMemory();
-      data.freeCounter = 0;
-      if (data.sortSize <= 0 && log.isDetailed()) {
-        logDetailed(
-            BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
+    SortRunWriter writer = createRunWriter();
+    try {
+      Object[] previousRow = null;
+      for (Object[] row : rows) {
+        // Duplicates are removed again when the runs are merged, this just saves I/O
+        //
+        if (meta.isOnlyPassingUniqueRows()
+            && previousRow != null
+            && comparator.compare(row, previousRow) == 0) {
+          if (log.isRowLevel()) {
+            logRowlevel(
+                BaseMessages.getString(
+                    PKG,
+                    "SortRows.RowLevel.DuplicateRowRemoved",
+                    data.outputRowMeta.getString(row)));
+          }
+          continue;
+        }
+        writer.write(row);
+        previousRow = row;
       }
-
+      return writer.finish();
     } catch (Exception e) {
+      writer.abort();
       throw new HopException("Error processing temp-file!", e);
     }
-
-    data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
-    return result;
+  /** Merge a number of runs into a single one. This runs on a worker thread. */
+  private SortRun mergeRuns(List<SortRun> runs, Comparator<Object[]> comparator)
+      throws HopException {
+    SortRunWriter writer = createRunWriter();
+    try (SortRunMerger merger =
+        new SortRunMerger(runs, data.outputRowMeta, comparator, data.compressFiles)) {
+      for (Object[] row = merger.next(); row != null; row = merger.next()) {
+        writer.write(row);
+      }
+      SortRun run = writer.finish();
+      for (SortRun merged : runs) {
+        deleteRun(merged);
+      }
+      return run;
+    } catch (Exception e) {
+      writer.abort();
+      throw new HopException("Error merging temp-files!", e);
+    }
   }
 
-  // get sorted rows from available files in iterative manner.
-  // that means call to this method will continue to return rows
-  // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
-    Object[] retval;
+  private SortRunWriter createRunWriter() throws HopException {
+    return new SortRunWriter(
+        data.outputRowMeta, meta.getPrefix(), resolve(meta.getDirectory()), data.compressFiles);
+  }
 
-    // Open all files at once and read one row from each file...
-    if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
-      if (log.isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
-      }
+  private ExecutorService getSortExecutor() {
+    if (data.sortExecutor == null) {
+      AtomicInteger threadNr = new AtomicInteger();
+      data.sortExecutor =
+          Executors.newFixedThreadPool(
+              data.sortThreads,
+              runnable -> {
+                String name = getTransformName() + " sort worker " + threadNr.incrementAndGet();
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return data.sortExecutor;
+  }
 
-      try {
-        for (int f = 0; f < data.files.size() && !isStopped(); f++) {
-          FileObject fileObject = data.files.get(f);
-          String filename = HopVfs.getFilename(fileObject);
-          if (log.isDetailed()) {
-            logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
-          }
-          InputStream fi = HopVfs.getInputStream(fileObject);
-          DataInputStream di;
-          data.fis.add(fi);
-          if (data.compressFiles) {
-            di = getDataInputStream(new GZIPInputStream(new BufferedInputStream(fi)));
-          } else {
-            di = new DataInputStream(new BufferedInputStream(fi, 50000));
-          }
-          data.dis.add(di);
+  private SortRun waitForRun(Future<SortRun> future) throws HopException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for the temp-files to be written", e);
+    } catch (ExecutionException e) {
+      throw new HopException(e.getCause().getMessage(), e.getCause());
+    }
+  }
 
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get(f);
+  /** Wait for all the workers and keep merging runs until they can be merged in one pass. */
+  private void finishRuns() throws HopException {
+    while (!data.pendingRuns.isEmpty()) {
+      data.runs.add(waitForRun(data.pendingRuns.removeFirst()));
+    }
 
-          if (log.isDetailed()) {
-            logDetailed(
-                BaseMessages.getString(
-                    PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
-          }
+    while (data.runs.size() > SortRunMerger.MAX_MERGE_WIDTH) {
+      int width = SortRunMerger.MAX_MERGE_WIDTH;
+      int groups = (data.runs.size() + width - 1) / width;
+      int groupSize = (data.runs.size() + groups - 1) / groups;
+      if (log.isDetailed()) {
+        logDetailed(
+            BaseMessages.getString(
+                PKG, "SortRows.Detailed.MergingRuns", data.runs.size(), groups));
+      }
 
-          if (buffersize > 0) {
-            Object[] row = data.outputRowMeta.readData(di);
-            data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
-          }
+      List<Future<SortRun>> merges = new ArrayList<>();
+      for (int from = 0; from < data.runs.size(); from += groupSize) {
+        List<SortRun> group =
+            new ArrayList<>(data.runs.subList(from, Math.min(from + groupSize, data.runs.size())));
+        if (group.size() == 1) {
+          merges.add(CompletableFuture.completedFuture(group.get(0)));
+        } else {
+          Comparator<Object[]> comparator = newRowComparator();
+          merges.add(getSortExecutor().submit(() -> mergeRuns(group, comparator)));
         }
+      }
 
-        // Sort the data row buffer
-        Collections.sort(data.tempRows, data.comparator);
-      } catch (Exception e) {
-        logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
+      // Wait for all merges, even after an error, so no temp-file is left behind
+      //
+      List<SortRun> merged = new ArrayList<>();
+      HopException error = null;
+      for (Future<SortRun> merge : merges) {
+        try {
+          merged.add(waitForRun(merge));
+        } catch (HopException e) {
+          error = e;
+        }
+      }
+      if (error != null) {
+        data.runs.addAll(merged);
+        throw error;
       }
+      data.runs = merged;
+    }
+  }
+
+  private void deleteRun(SortRun run) {
+    try {
+      run.getFile().delete();
+    } catch (FileSystemException e) {
+      logError(BaseMessages.getString(PKG, "SortRows.Error.UnableToDeleteFile", run.getFile()), e);
     }
+  }
 
-    if (data.files.isEmpty()) {
+  private boolean hasRuns() {
+    return !data.runs.isEmpty() || !data.pendingRuns.isEmpty();
+  }
+
+  // get sorted rows from the buffer or from the temp files in iterative manner.
+  // that means call to this method will continue to return rows
+  // till all temp files will not be read to the end.
+  Object[] getBuffer() throws HopException {
+    if (!hasRuns()) {
       // read from in-memory processing
 
       if (data.getBufferIndex < data.buffer.size()) {
-        retval = data.buffer.get(data.getBufferIndex);
-        data.getBufferIndex++;
-      } else {
-        retval = null;
+        return data.buffer.get(data.getBufferIndex++);
       }
-    } else {
-      // read from disk processing
-
-      if (data.rowbuffer.isEmpty()) {
-        retval = null;
-      } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
-        //
-        if (log.isRowLevel()) {
-          for (int i = 0; i < data.rowbuffer.size() && !isStopped(); i++) {
-            Object[] b = data.rowbuffer.get(i);
-            logRowlevel(
-                BaseMessages.getString(
-                    PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString(b)));
-          }
-        }
-
-        RowTempFile rowTempFile = data.tempRows.remove(0);
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
-
-        // now get another Row for position smallest
-
-        FileObject file = data.files.get(smallest);
-        DataInputStream di = data.dis.get(smallest);
-        InputStream fi = data.fis.get(smallest);
-
-        try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
-
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
-          }
-        } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
-          try {
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
-            }
-            file.delete();
-          } catch (IOException e) {
-            logError(
-                BaseMessages.getString(
-                    PKG, "SortRows.Error.UnableToCloseFile", smallest, file.toString()));
-            setErrors(1);
-            stopAll();
-            return null;
-          }
-
-          data.files.remove(smallest);
-          data.dis.remove(smallest);
-          data.fis.remove(smallest);
-
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
-          }
+      return null;
+    }
 
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for (RowTempFile rtf : data.tempRows) {
-            if (rtf.fileNumber > smallest) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch (SocketTimeoutException e) {
-          throw new HopValueException(e); // should never happen on local files
-        }
+    // read from disk processing
+    //
+    if (data.merger == null) {
+      if (log.isBasic()) {
+        logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.runs.size()));
       }
+      data.merger =
+          new SortRunMerger(
+              data.runs, data.outputRowMeta, data.rowComparator, data.compressFiles);
     }
-    return retval;
+
+    return data.merger.next();
   }
 
   @Override
@@ -398,6 +385,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
             return false;
           }
         }
+        data.groupComparator = inputRowMeta.getRowComparator(data.groupnrs);
       }
 
       String[] fieldNames = meta.getFieldName();
@@ -407,7 +395,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       // Metadata
       data.outputRowMeta = inputRowMeta.clone();
       meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
-      data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
 
       for (int i = 0; i < fieldNames.length; i++) {
         data.fieldnrs[i] = inputRowMeta.indexOfValue(fieldNames[i]);
@@ -430,7 +417,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         data.convertKeysToNative[i] = in;
         i++;
       }
-      data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+      data.rowComparator = data.outputRowMeta.getRowComparator(data.fieldnrs);
     } // end if first
 
     // it is not first row and it is null
@@ -493,7 +480,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     Object[] previousRow = null;
 
     // log time spent for external merge (expected time consuming operation)
-    if (log.isDebug() && !data.files.isEmpty()) {
+    if (log.isDebug() && hasRuns()) {
       this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeStarted"));
     }
 
@@ -511,7 +498,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
           // See if this row is the same as the previous one as far as the keys
           // are concerned.
           // If so, we don't put forward this row.
-          int result = data.outputRowMeta.compare(r, previousRow, data.fieldnrs);
+          int result = data.rowComparator.compare(r, previousRow);
           if (result != 0) {
             putRow(data.outputRowMeta, r); // copy row to possible alternate
             // rowset(s).
@@ -528,7 +515,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       r = getBuffer();
     }
 
-    if (log.isDebug() && !data.files.isEmpty()) {
+    if (log.isDebug() && hasRuns()) {
       this.logDebug(BaseMessages.getString(PKG, "SortRows.Debug.ExternalMergeFinished"));
     }
 
@@ -546,7 +533,14 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     data.sortSize = Const.toInt(resolve(meta.getSortSize()), -1);
     data.freeMemoryPctLimit = Const.toInt(meta.getFreeMemoryLimit(), -1);
-    if (data.sortSize <= 0 && data.freeMemoryPctLimit <= 0) {
+    data.sortThreads = Math.max(1, Const.toInt(resolve(meta.getSortThreads()), 1));
+
+    // Every worker can hold a buffer while it sorts and writes it, next to the one being filled
+    //
+    long sortMemory = Const.toLong(resolve(meta.getSortMemory()), -1L);
+    data.runMemoryLimit = sortMemory > 0 ? sortMemory * 1024 * 1024 / (data.sortThreads + 1) : -1L;
+
+    if (data.sortSize <= 0 && data.freeMemoryPctLimit <= 0 && data.runMemoryLimit <= 0) {
       // Prefer the memory limit as it should never fail
       //
       data.freeMemoryPctLimit = 25;
@@ -556,15 +550,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     //
     data.buffer = new ArrayList<>(5000);
 
-    // Buffer for reading from disk
-    //
-    data.rowbuffer = new ArrayList<>(5000);
-
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.getCompressFiles());
 
-    data.tempRows = new ArrayList<>();
-
     data.minSortSize = 5000;
 
     return true;
@@ -572,6 +560,26 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
   @Override
   public void dispose() {
+    // Let the workers finish, then remove whatever they wrote
+    //
+    if (data.sortExecutor != null) {
+      List<Runnable> notStarted = data.sortExecutor.shutdownNow();
+      for (Future<SortRun> pendingRun : data.pendingRuns) {
+        if (notStarted.contains(pendingRun)) {
+          continue;
+        }
+        try {
+          data.runs.add(pendingRun.get());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        } catch (ExecutionException e) {
+          // The worker removed its own file
+        }
+      }
+      data.pendingRuns.clear();
+      data.sortExecutor = null;
+    }
     clearBuffers();
     super.dispose();
   }
@@ -580,38 +588,34 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
 
     // Clean out the sort buffer
     data.buffer.clear();
+    data.bufferBytes = 0L;
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
 
-    // close any open DataInputStream objects
-    if (CollectionUtils.isNotEmpty(data.dis)) {
-      for (DataInputStream dis : data.dis) {
-        BaseTransform.closeQuietly(dis);
-      }
-    }
-    // close any open InputStream objects
-    if (CollectionUtils.isNotEmpty(data.fis)) {
-      for (InputStream is : data.fis) {
-        BaseTransform.closeQuietly(is);
-      }
+    // close the temp files we're merging
+    if (data.merger != null) {
+      data.merger.close();
+      data.merger = null;
     }
     // remove temp files
-    for (int f = 0; f < data.files.size(); f++) {
-      FileObject fileToDelete = data.files.get(f);
-      try {
-        if (fileToDelete != null && fileToDelete.exists()) {
-          fileToDelete.delete();
-        }
-      } catch (FileSystemException e) {
-        logError(e.getLocalizedMessage(), e);
-      }
+    for (SortRun run : data.runs) {
+      deleteRun(run);
     }
+    data.runs.clear();
   }
 
   /** Sort the entire vector, if it is not empty. */
   void quickSort(List<Object[]> elements) {
     if (CollectionUtils.isNotEmpty(elements)) {
-      Collections.sort(elements, data.rowComparator);
+      if (data.sortThreads > 1 && elements.size() >= PARALLEL_SORT_THRESHOLD) {
+        Object[][] rows = elements.toArray(new Object[0][]);
+        ThreadLocal<Comparator<Object[]>> comparators =
+            ThreadLocal.withInitial(this::newRowComparator);
+        Arrays.parallelSort(rows, (row1, row2) -> comparators.get().compare(row1, row2));
+        elements.clear();
+        elements.addAll(Arrays.asList(rows));
+      } else {
+        elements.sort(data.rowComparator);
+      }
 
       long nrConversions = 0L;
       for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
@@ -639,9 +643,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
   }
 
   private void preSortBeforeFlush() throws HopException {
-    if (data.files.size() > 0) {
-      // dump to dist and then read from disk
+    if (hasRuns()) {
+      // dump to disk and then read from disk
       sortExternalRows();
+      finishRuns();
     } else {
       // sort in memory
       quickSort(data.buffer);
@@ -652,11 +657,11 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
    * Group Fields Implementation heroic
    */
   // Is the row r of the same group as previous?
-  private boolean sameGroup(Object[] previous, Object[] r) throws HopValueException {
+  private boolean sameGroup(Object[] previous, Object[] r) {
     if (r == null) {
       return false;
     }
-    return getInputRowMeta().compare(previous, r, data.groupnrs) == 0;
+    return data.groupComparator.compare(previous, r) == 0;
   }
 
   private void setPrevious(Object[] r) throws HopException {
@@ -664,48 +669,4 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       this.data.previous = getInputRowMeta().cloneRow(r);
     }
   }
-
-  private class SortRowsComparator {
-    protected IRowMeta rowMeta;
-    protected int[] fieldNrs;
-
-    SortRowsComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      this.rowMeta = rowMeta;
-      this.fieldNrs = fieldNrs;
-    }
-  }
-
-  private class RowTemapFileComparator extends SortRowsComparator
-      implements Comparator<RowTempFile> {
-    RowTemapFileComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      super(rowMeta, fieldNrs);
-    }
-
-    @Override
-    public int compare(RowTempFile o1, RowTempFile o2) {
-      try {
-        return rowMeta.compare(o1.row, o2.row, fieldNrs);
-      } catch (HopValueException e) {
-        logError("Error comparing rows: " + e.toString());
-        return 0;
-      }
-    }
-  }
-
-  private class RowObjectArrayComparator extends SortRowsComparator
-      implements Comparator<Object[]> {
-    RowObjectArrayComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      super(rowMeta, fieldNrs);
-    }
-
-    @Override
-    public int compare(Object[] o1, Object[] o2) {
-      try {
-        return rowMeta.compare(o1, o2, fieldNrs);
-      } catch (HopValueException e) {
-        logError("Error comparing rows: " + e.toString());
-        return 0;
-      }
-    }
-  }
 }
@@ -17,41 +17,47 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class SortRowsData extends BaseTransformData implements ITransformData {
-  public List<FileObject> files;
   public List<Object[]> buffer;
   public int getBufferIndex;
 
-  public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
-  public List<Integer> bufferSizes;
+  /** The estimated heap size of the rows in the buffer, when there is a memory budget */
+  public long bufferBytes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  /** The sorted runs on disk, in the order of the input */
+  public List<SortRun> runs;
+
+  /** The runs being sorted and written by the workers, in the order of the input */
+  public Deque<Future<SortRun>> pendingRuns;
+
+  /** Merges the runs when the rows are passed on */
+  public SortRunMerger merger;
+
+  public ExecutorService sortExecutor;
+  public int sortThreads;
+
+  /** The estimated heap size at which the buffer is sorted and written to disk, or -1 */
+  public long runMemoryLimit;
 
   public int[] fieldnrs; // the corresponding field numbers
-  public FileObject fil;
   public IRowMeta outputRowMeta;
   public int sortSize;
   public boolean compressFiles;
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-  Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
 
   public int freeCounter;
@@ -65,16 +71,14 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
    */
   public Object[] previous;
   public int[] groupnrs;
+  Comparator<Object[]> groupComparator;
   public boolean newBatch;
 
   public SortRowsData() {
     super();
 
-    files = new ArrayList<>();
-    fis = new ArrayList<>();
-    gzis = new ArrayList<>();
-    dis = new ArrayList<>();
-    bufferSizes = new ArrayList<>();
+    runs = new ArrayList<>();
+    pendingRuns = new ArrayDeque<>();
 
     previous = null; // Heroic
   }
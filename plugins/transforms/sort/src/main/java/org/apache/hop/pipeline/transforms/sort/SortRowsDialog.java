@@ -60,6 +60,10 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
 
   private TextVar wFreeMemory;
 
+  private TextVar wSortMemory;
+
+  private TextVar wSortThreads;
+
   private CheckBoxVar wCompress;
 
   private Button wUniqueRows;
@@ -207,6 +211,48 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     fdFreeMemory.right = new FormAttachment(100, 0);
     wFreeMemory.setLayoutData(fdFreeMemory);
 
+    // Memory to use for sorting
+    Label wlSortMemory = new Label(shell, SWT.RIGHT);
+    wlSortMemory.setText(BaseMessages.getString(PKG, "SortRowsDialog.SortMemory.Label"));
+    wlSortMemory.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.SortMemory.ToolTip"));
+    props.setLook(wlSortMemory);
+    FormData fdlSortMemory = new FormData();
+    fdlSortMemory.left = new FormAttachment(0, 0);
+    fdlSortMemory.right = new FormAttachment(middle, -margin);
+    fdlSortMemory.top = new FormAttachment(wFreeMemory, margin * 2);
+    wlSortMemory.setLayoutData(fdlSortMemory);
+    wSortMemory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSortMemory.setToolTipText(BaseMessages.getString(PKG, "SortRowsDialog.SortMemory.ToolTip"));
+    props.setLook(wSortMemory);
+    wSortMemory.addModifyListener(lsMod);
+    FormData fdSortMemory = new FormData();
+    fdSortMemory.left = new FormAttachment(middle, 0);
+    fdSortMemory.top = new FormAttachment(wFreeMemory, margin * 2);
+    fdSortMemory.right = new FormAttachment(100, 0);
+    wSortMemory.setLayoutData(fdSortMemory);
+
+    // Number of threads sorting and writing temporary files
+    Label wlSortThreads = new Label(shell, SWT.RIGHT);
+    wlSortThreads.setText(BaseMessages.getString(PKG, "SortRowsDialog.SortThreads.Label"));
+    wlSortThreads.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.SortThreads.ToolTip"));
+    props.setLook(wlSortThreads);
+    FormData fdlSortThreads = new FormData();
+    fdlSortThreads.left = new FormAttachment(0, 0);
+    fdlSortThreads.right = new FormAttachment(middle, -margin);
+    fdlSortThreads.top = new FormAttachment(wSortMemory, margin * 2);
+    wlSortThreads.setLayoutData(fdlSortThreads);
+    wSortThreads = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wSortThreads.setToolTipText(
+        BaseMessages.getString(PKG, "SortRowsDialog.SortThreads.ToolTip"));
+    props.setLook(wSortThreads);
+    wSortThreads.addModifyListener(lsMod);
+    FormData fdSortThreads = new FormData();
+    fdSortThreads.left = new FormAttachment(middle, 0);
+    fdSortThreads.top = new FormAttachment(wSortMemory, margin * 2);
+    fdSortThreads.right = new FormAttachment(100, 0);
+    wSortThreads.setLayoutData(fdSortThreads);
+
     // Using compression for temporary files?
     Label wlCompress = new Label(shell, SWT.RIGHT);
     wlCompress.setText(BaseMessages.getString(PKG, "SortRowsDialog.Compress.Label"));
@@ -214,7 +260,7 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     FormData fdlCompress = new FormData();
     fdlCompress.left = new FormAttachment(0, 0);
     fdlCompress.right = new FormAttachment(middle, -margin);
-    fdlCompress.top = new FormAttachment(wFreeMemory, margin * 2);
+    fdlCompress.top = new FormAttachment(wSortThreads, margin * 2);
     wlCompress.setLayoutData(fdlCompress);
     wCompress = new CheckBoxVar(variables, shell, SWT.CHECK, "");
     props.setLook(wCompress);
@@ -404,6 +450,8 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     }
     wSortSize.setText(Const.NVL(input.getSortSize(), ""));
     wFreeMemory.setText(Const.NVL(input.getFreeMemoryLimit(), ""));
+    wSortMemory.setText(Const.NVL(input.getSortMemory(), ""));
+    wSortThreads.setText(Const.NVL(input.getSortThreads(), ""));
     wCompress.setSelection(input.getCompressFiles());
     wCompress.setVariableName(input.getCompressFilesVariable());
     wUniqueRows.setSelection(input.isOnlyPassingUniqueRows());
@@ -468,6 +516,8 @@ public class SortRowsDialog extends BaseTransformDialog implements ITransformDia
     input.setDirectory(wSortDir.getText());
     input.setSortSize(wSortSize.getText());
     input.setFreeMemoryLimit(wFreeMemory.getText());
+    input.setSortMemory(wSortMemory.getText());
+    input.setSortThreads(wSortThreads.getText());
     log.logDetailed("Sort rows", "Compression is set to " + wCompress.getSelection());
     input.setCompressFiles(wCompress.getSelection());
     input.setCompressFilesVariable(wCompress.getVariableName());
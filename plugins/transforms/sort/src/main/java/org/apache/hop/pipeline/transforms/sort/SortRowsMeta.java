@@ -102,6 +102,14 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
   @Injection(name = "FREE_MEMORY_TRESHOLD")
   private String freeMemoryLimit;
 
+  /** The memory in MB to use for sorting before using temp files, instead of a number of rows */
+  @Injection(name = "SORT_MEMORY_MB")
+  private String sortMemory;
+
+  /** The number of threads sorting rows and writing temp files */
+  @Injection(name = "SORT_THREADS")
+  private String sortThreads;
+
   /** only pass unique rows to the output stream(s) */
   @Injection(name = "ONLY_PASS_UNIQUE_ROWS")
   private boolean onlyPassingUniqueRows;
@@ -199,6 +207,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
       prefix = XmlHandler.getTagValue(transformNode, "prefix");
       sortSize = XmlHandler.getTagValue(transformNode, "sort_size");
       freeMemoryLimit = XmlHandler.getTagValue(transformNode, "free_memory");
+      sortMemory = XmlHandler.getTagValue(transformNode, "sort_memory");
+      sortThreads = XmlHandler.getTagValue(transformNode, "sort_threads");
       compressFiles = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "compress"));
       compressFilesVariable = XmlHandler.getTagValue(transformNode, "compress_variable");
       onlyPassingUniqueRows =
@@ -237,6 +247,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     prefix = "out";
     sortSize = "1000000";
     freeMemoryLimit = null;
+    sortMemory = null;
+    sortThreads = "1";
     compressFiles = false;
     compressFilesVariable = null;
     onlyPassingUniqueRows = false;
@@ -261,6 +273,8 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     retval.append("      ").append(XmlHandler.addTagValue("prefix", prefix));
     retval.append("      ").append(XmlHandler.addTagValue("sort_size", sortSize));
     retval.append("      ").append(XmlHandler.addTagValue("free_memory", freeMemoryLimit));
+    retval.append("      ").append(XmlHandler.addTagValue("sort_memory", sortMemory));
+    retval.append("      ").append(XmlHandler.addTagValue("sort_threads", sortThreads));
     retval.append("      ").append(XmlHandler.addTagValue("compress", compressFiles));
     retval
         .append("      ")
@@ -544,6 +558,26 @@ public class SortRowsMeta extends BaseTransformMeta<SortRows, SortRowsData> impl
     this.freeMemoryLimit = freeMemoryLimit;
   }
 
+  /** @return the memory in MB to use for sorting before using temp files */
+  public String getSortMemory() {
+    return sortMemory;
+  }
+
+  /** @param sortMemory the memory in MB to use for sorting before using temp files */
+  public void setSortMemory(String sortMemory) {
+    this.sortMemory = sortMemory;
+  }
+
+  /** @return the number of threads sorting rows and writing temp files */
+  public String getSortThreads() {
+    return sortThreads;
+  }
+
+  /** @param sortThreads the number of threads sorting rows and writing temp files */
+  public void setSortThreads(String sortThreads) {
+    this.sortThreads = sortThreads;
+  }
+
   /** @return the preSortedField */
   public boolean[] getPreSortedField() {
     return preSortedField;
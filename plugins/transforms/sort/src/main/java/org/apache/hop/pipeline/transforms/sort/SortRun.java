@@ -17,13 +17,25 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-/** Keeps track of which temporary file a row is coming from */
-public class RowTempFile {
-  public Object[] row;
-  public int fileNumber;
+import org.apache.commons.vfs2.FileObject;
 
-  public RowTempFile(Object[] row, int fileNumber) {
-    this.row = row;
-    this.fileNumber = fileNumber;
+/** A temporary file holding rows in sorted order */
+public class SortRun {
+  private final FileObject file;
+  private final long rowCount;
+
+  public SortRun(FileObject file, long rowCount) {
+    this.file = file;
+    this.rowCount = rowCount;
+  }
+
+  /** @return the temporary file with the rows */
+  public FileObject getFile() {
+    return file;
+  }
+
+  /** @return the number of rows in the file */
+  public long getRowCount() {
+    return rowCount;
   }
 }
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowCodec;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merges sorted runs into a single sorted stream of rows with a loser tree. Every internal node of
+ * the tree remembers the run which lost the comparison at that node, so replacing the row of the
+ * winning run only takes the comparisons on the path from its leaf to the root: about log2(k)
+ * comparisons per row for k runs. Rows with equal keys come out in the order of their runs.
+ */
+public class SortRunMerger implements AutoCloseable {
+
+  /** The maximum number of runs to merge at once, with a read-ahead buffer for every run */
+  public static final int MAX_MERGE_WIDTH = 64;
+
+  private final Comparator<Object[]> comparator;
+  private final SortRunReader[] readers;
+
+  /** The current row of every run, null when the run is exhausted */
+  private final Object[][] heads;
+
+  /** The winner in the first element, the loser of every internal node in the others */
+  private final int[] tree;
+
+  public SortRunMerger(
+      List<SortRun> runs, IRowMeta rowMeta, Comparator<Object[]> comparator, boolean compressed)
+      throws HopFileException {
+    this.comparator = comparator;
+    int k = runs.size();
+    readers = new SortRunReader[k];
+    heads = new Object[k][];
+
+    RowCodec codec = new RowCodec(rowMeta);
+    try {
+      for (int i = 0; i < k; i++) {
+        readers[i] = new SortRunReader(runs.get(i), codec, compressed);
+        heads[i] = readers[i].next();
+      }
+    } catch (HopFileException e) {
+      close();
+      throw e;
+    }
+
+    // Start with a virtual run k which beats all others on every node, then let all runs play
+    //
+    tree = new int[Math.max(k, 1)];
+    Arrays.fill(tree, k);
+    for (int i = k - 1; i >= 0; i--) {
+      replay(i);
+    }
+  }
+
+  /** @return the next row in sorted order or null if all runs are exhausted */
+  public Object[] next() throws HopFileException {
+    if (readers.length == 0) {
+      return null;
+    }
+    int winner = tree[0];
+    Object[] row = heads[winner];
+    if (row != null) {
+      heads[winner] = readers[winner].next();
+      replay(winner);
+    }
+    return row;
+  }
+
+  /** Play the matches from the leaf of a run up to the root */
+  private void replay(int run) {
+    int winner = run;
+    for (int node = (run + readers.length) / 2; node > 0; node /= 2) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean beats(int run1, int run2) {
+    int k = readers.length;
+    if (run1 == k) {
+      return true;
+    }
+    if (run2 == k) {
+      return false;
+    }
+    Object[] row1 = heads[run1];
+    Object[] row2 = heads[run2];
+    if (row1 == null) {
+      return false;
+    }
+    if (row2 == null) {
+      return true;
+    }
+    int cmp = comparator.compare(row1, row2);
+    return cmp < 0 || (cmp == 0 && run1 < run2);
+  }
+
+  /** Close all runs. The files are left alone. */
+  @Override
+  public void close() {
+    for (SortRunReader reader : readers) {
+      if (reader != null) {
+        reader.closeQuietly();
+      }
+    }
+  }
+}
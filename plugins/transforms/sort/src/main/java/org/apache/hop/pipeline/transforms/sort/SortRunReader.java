@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.RowCodec;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.SnappyInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Reads back the rows of a {@link SortRun} with a large read-ahead buffer. */
+public class SortRunReader implements AutoCloseable {
+  static final int READ_AHEAD_SIZE = 256 * 1024;
+
+  private final SortRun run;
+  private final RowCodec codec;
+  private final InputStream inputStream;
+  private final int version;
+
+  /**
+   * @param run the run to read
+   * @param codec the codec to decode rows with, can be shared by the readers of a single thread
+   * @param compressed true if the run was written compressed
+   */
+  public SortRunReader(SortRun run, RowCodec codec, boolean compressed) throws HopFileException {
+    this.run = run;
+    this.codec = codec;
+    try {
+      InputStream fileStream = HopVfs.getInputStream(run.getFile());
+      inputStream =
+          compressed
+              ? new BufferedInputStream(new SnappyInputStream(fileStream), READ_AHEAD_SIZE)
+              : new BufferedInputStream(fileStream, READ_AHEAD_SIZE);
+    } catch (IOException e) {
+      throw new HopFileException("Unable to open temporary file " + run.getFile(), e);
+    }
+    try {
+      version = RowCodec.readHeader(inputStream);
+    } catch (HopFileException e) {
+      closeQuietly();
+      throw e;
+    }
+  }
+
+  /** @return the next row of the run or null if all rows were read */
+  public Object[] next() throws HopFileException {
+    return codec.readRow(inputStream, version);
+  }
+
+  public SortRun getRun() {
+    return run;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  void closeQuietly() {
+    try {
+      inputStream.close();
+    } catch (IOException e) {
+      // Ignore
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowCodec;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.SnappyOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes rows to a new temporary file with a {@link RowCodec}, compressed with Snappy if asked.
+ * The rows have to be written in sorted order. A writer is used by a single thread.
+ */
+public class SortRunWriter {
+  private static final int WRITE_BUFFER_SIZE = 512 * 1024;
+
+  private final FileObject file;
+  private final OutputStream outputStream;
+  private final RowCodec codec;
+  private long rowCount;
+
+  public SortRunWriter(IRowMeta rowMeta, String prefix, String directory, boolean compress)
+      throws HopException {
+    file = HopVfs.createTempFile(prefix, ".tmp", directory);
+    try {
+      OutputStream fileStream =
+          new BufferedOutputStream(HopVfs.getOutputStream(file, false), WRITE_BUFFER_SIZE);
+      outputStream = compress ? new SnappyOutputStream(fileStream) : fileStream;
+    } catch (IOException e) {
+      throw new HopFileException("Unable to create temporary file " + file, e);
+    }
+    RowCodec.writeHeader(outputStream);
+    codec = new RowCodec(rowMeta);
+  }
+
+  public void write(Object[] row) throws HopFileException {
+    codec.writeRow(outputStream, row);
+    rowCount++;
+  }
+
+  /**
+   * Close the file.
+   *
+   * @return the run of rows written
+   */
+  public SortRun finish() throws HopFileException {
+    try {
+      outputStream.close();
+    } catch (IOException e) {
+      throw new HopFileException("Unable to close temporary file " + file, e);
+    }
+    return new SortRun(file, rowCount);
+  }
+
+  /** Close and remove the file after an error. */
+  public void abort() {
+    try {
+      outputStream.close();
+    } catch (IOException e) {
+      // Ignore, we're removing the file anyway
+    }
+    try {
+      file.delete();
+    } catch (IOException e) {
+      // Nothing more we can do
+    }
+  }
+}
@@ -37,6 +37,8 @@ public class SortRowsMetaInjectionTest extends BaseMetadataInjectionTest<SortRow
     check("SORT_FILE_PREFIX", () -> meta.getPrefix());
     check("SORT_SIZE_ROWS", () -> meta.getSortSize());
     check("FREE_MEMORY_TRESHOLD", () -> meta.getFreeMemoryLimit());
+    check("SORT_MEMORY_MB", () -> meta.getSortMemory());
+    check("SORT_THREADS", () -> meta.getSortThreads());
     check("ONLY_PASS_UNIQUE_ROWS", () -> meta.isOnlyPassingUniqueRows());
     check("COMPRESS_TEMP_FILES", () -> meta.getCompressFiles());
     check("NAME", () -> meta.getFieldName()[0]);
@@ -43,6 +43,8 @@ public class SortRowsMetaTest {
             "Prefix",
             "SortSize",
             "FreeMemoryLimit",
+            "SortMemory",
+            "SortThreads",
             "CompressFiles",
             "CompressFilesVariable",
             "OnlyPassingUniqueRows",
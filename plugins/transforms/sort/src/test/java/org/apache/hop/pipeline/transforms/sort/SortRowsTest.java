@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Sorts with small buffers so runs are written to disk by several workers and merged again. */
+public class SortRowsTest {
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> mockHelper;
+  private SortRowsMeta meta;
+  private IRowMeta inputRowMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    mockHelper = new TransformMockHelper<>("Sort rows", SortRowsMeta.class, SortRowsData.class);
+    when(mockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(mockHelper.iLogChannel);
+    when(mockHelper.iLogChannel.isDetailed()).thenReturn(true);
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+
+    inputRowMeta = new RowMeta();
+    inputRowMeta.addValueMeta(new ValueMetaInteger("key"));
+    inputRowMeta.addValueMeta(new ValueMetaString("name"));
+    inputRowMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.allocate(2);
+    meta.getFieldName()[0] = "key";
+    meta.getFieldName()[1] = "name";
+    for (int i = 0; i < 2; i++) {
+      meta.getAscending()[i] = true;
+      meta.getCaseSensitive()[i] = true;
+    }
+    meta.setDirectory(tempFolder.getRoot().getAbsolutePath());
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  /** Rows with keys which occur more than once, in a random order */
+  private List<Object[]> getInputRows(int nrRows) {
+    Random random = new Random(nrRows);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < nrRows; i++) {
+      long key = random.nextInt(nrRows / 4);
+      rows.add(new Object[] {key, "name " + random.nextInt(10) + " of row " + i, (long) i});
+    }
+    return rows;
+  }
+
+  private List<Object[]> runTransform(int nrRows) throws Exception {
+    SortRowsData data = new SortRowsData();
+    SortRows transform =
+        new SortRows(
+            mockHelper.transformMeta, meta, data, 0, mockHelper.pipelineMeta, mockHelper.pipeline);
+    assertTrue(transform.init());
+
+    IRowSet inputRowSet = new QueueRowSet();
+    for (Object[] row : getInputRows(nrRows)) {
+      inputRowSet.putRow(inputRowMeta, row);
+    }
+    inputRowSet.setDone();
+    transform.setInputRowSets(new ArrayList<>(Collections.singletonList(inputRowSet)));
+
+    List<Object[]> output = new ArrayList<>();
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+    while (transform.processRow()) {
+      // sort all rows
+    }
+    transform.dispose();
+    return output;
+  }
+
+  private static void assertSorted(List<Object[]> output, int nrRows) {
+    assertEquals(nrRows, output.size());
+    boolean[] seen = new boolean[nrRows];
+    Object[] previous = null;
+    for (Object[] row : output) {
+      int id = ((Long) row[2]).intValue();
+      assertFalse("Row " + id + " passed twice", seen[id]);
+      seen[id] = true;
+      if (previous != null) {
+        int cmp = ((Long) previous[0]).compareTo((Long) row[0]);
+        if (cmp == 0) {
+          cmp = ((String) previous[1]).compareTo((String) row[1]);
+        }
+        assertTrue("Row " + id + " is out of order", cmp <= 0);
+      }
+      previous = row;
+    }
+  }
+
+  @Test
+  public void testParallelSortInMemory() throws Exception {
+    meta.setSortThreads("4");
+    assertSorted(runTransform(20000), 20000);
+
+    verify(mockHelper.iLogChannel, never()).logDetailed(contains("to a tmp-file"));
+  }
+
+  @Test
+  public void testParallelRuns() throws Exception {
+    meta.setSortSize("1000");
+    meta.setSortThreads("4");
+    assertSorted(runTransform(20000), 20000);
+
+    // The last run is written when the input is done
+    //
+    verify(mockHelper.iLogChannel, times(20)).logDetailed(contains("Sorting 1000 rows"));
+    verify(mockHelper.iLogChannel, never()).logDetailed(contains("larger ones"));
+    assertEquals(0, tempFolder.getRoot().list().length);
+  }
+
+  @Test
+  public void testRunsWhenTheMemoryBudgetIsUsed() throws Exception {
+    meta.setSortSize(null);
+    meta.setSortMemory("1");
+    meta.setSortThreads("2");
+    assertSorted(runTransform(20000), 20000);
+
+    // Every buffer gets a third of a MB, the rows need a few MB
+    //
+    verify(mockHelper.iLogChannel, atLeast(3)).logDetailed(contains("to a tmp-file"));
+    assertEquals(0, tempFolder.getRoot().list().length);
+  }
+
+  @Test
+  public void testMultiPassMerge() throws Exception {
+    meta.setSortSize("100");
+    meta.setSortThreads("2");
+    assertSorted(runTransform(10000), 10000);
+
+    // 100 runs are too many to merge at once: they're merged into 2 runs first
+    //
+    assertTrue(SortRunMerger.MAX_MERGE_WIDTH < 100);
+    verify(mockHelper.iLogChannel).logDetailed(contains("Merging 100 tmp-files into 2"));
+    assertEquals(0, tempFolder.getRoot().list().length);
+  }
+}
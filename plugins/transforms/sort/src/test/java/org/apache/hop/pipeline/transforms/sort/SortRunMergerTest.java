@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SortRunMergerTest {
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private IRowMeta rowMeta;
+  private Comparator<Object[]> comparator;
+  private List<SortRun> runs;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("key"));
+    rowMeta.addValueMeta(new ValueMetaString("origin"));
+    comparator = rowMeta.getRowComparator(new int[] {0});
+    runs = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (SortRun run : runs) {
+      run.getFile().delete();
+    }
+  }
+
+  /** Write a run with random keys, the origin field remembers the run and position */
+  private void writeRun(Random random, int rowCount, boolean compress) throws Exception {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      rows.add(new Object[] {(long) random.nextInt(50), runs.size() + ":" + i});
+    }
+    rows.sort(comparator);
+
+    SortRunWriter writer =
+        new SortRunWriter(rowMeta, "test", folder.getRoot().getAbsolutePath(), compress);
+    for (Object[] row : rows) {
+      writer.write(row);
+    }
+    SortRun run = writer.finish();
+    assertEquals(rowCount, run.getRowCount());
+    runs.add(run);
+  }
+
+  private void assertMergedInOrder(boolean compressed, int expectedRows) throws Exception {
+    try (SortRunMerger merger = new SortRunMerger(runs, rowMeta, comparator, compressed)) {
+      Object[] previous = null;
+      int count = 0;
+      for (Object[] row = merger.next(); row != null; row = merger.next()) {
+        if (previous != null) {
+          int cmp = comparator.compare(previous, row);
+          assertTrue(cmp <= 0);
+          if (cmp == 0) {
+            // Equal keys come out in the order of the runs
+            //
+            int previousRun = Integer.parseInt(((String) previous[1]).split(":")[0]);
+            int run = Integer.parseInt(((String) row[1]).split(":")[0]);
+            assertTrue(previousRun <= run);
+          }
+        }
+        previous = row;
+        count++;
+      }
+      assertEquals(expectedRows, count);
+      assertNull(merger.next());
+    }
+  }
+
+  @Test
+  public void testMergeRuns() throws Exception {
+    Random random = new Random(42);
+    int total = 0;
+    for (int i = 0; i < 7; i++) {
+      int rowCount = i == 3 ? 0 : 100 + random.nextInt(100);
+      writeRun(random, rowCount, false);
+      total += rowCount;
+    }
+    assertMergedInOrder(false, total);
+  }
+
+  @Test
+  public void testMergeCompressedRuns() throws Exception {
+    Random random = new Random(7);
+    for (int i = 0; i < 3; i++) {
+      writeRun(random, 1000, true);
+    }
+    assertMergedInOrder(true, 3000);
+  }
+
+  @Test
+  public void testMergeSingleRun() throws Exception {
+    writeRun(new Random(1), 10, false);
+    assertMergedInOrder(false, 10);
+  }
+
+  @Test
+  public void testMergeNoRuns() throws Exception {
+    assertMergedInOrder(false, 0);
+  }
+}
@@ -20,7 +20,6 @@ package org.apache.hop.pipeline.transforms.sortedmerge;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
-import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -29,6 +28,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 
@@ -110,15 +110,10 @@ public class SortedMerge extends BaseTransform<SortedMergeMeta, SortedMergeData>
           }
         }
 
-        data.comparator =
-            (o1, o2) -> {
-              try {
-                return o1.getRowMeta().compare(o1.getRowData(), o2.getRowData(), data.fieldIndices);
-              } catch (HopValueException e) {
-                return 0; // TODO see if we should fire off alarms over here... Perhaps throw a
-                // RuntimeException.
-              }
-            };
+        if (data.rowMeta != null) {
+          Comparator<Object[]> rowComparator = data.rowMeta.getRowComparator(data.fieldIndices);
+          data.comparator = (o1, o2) -> rowComparator.compare(o1.getRowData(), o2.getRowData());
+        }
 
         // Now sort the sortedBuffer for the first time.
         //
@@ -18,7 +18,6 @@
 package org.apache.hop.pipeline.transforms.streamlookup;
 
 import org.apache.hop.core.IRowSet;
-import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
@@ -38,6 +37,7 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 import java.math.BigDecimal;
 import java.text.DateFormat;
 import java.util.Collections;
+import java.util.stream.IntStream;
 
 /**
  * Looks up information by first reading data into a hash table (in memory)
@@ -195,6 +195,10 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
         data.cacheKeyMeta = cacheKeyMeta;
         data.cacheValueMeta = cacheValueMeta;
+
+        int[] cacheKeyFieldnrs = IntStream.range(0, cacheKeyMeta.size()).toArray();
+        data.keyComparator = cacheKeyMeta.getRowComparator(cacheKeyFieldnrs);
+        data.keyHasher = cacheKeyMeta.getRowHasher(cacheKeyFieldnrs);
       }
 
       Object[] keyData = new Object[keyNrs.length];
@@ -335,8 +339,8 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       }
     } else {
       // We can't just put Object[] in the map The compare function is not in it.
-      // We need to wrap in and use that. Let's use RowMetaAndData for this one.
-      data.look.put(new RowMetaAndData(keyMeta, keyData), valueData);
+      // We need to wrap in and use that. The cache key compares on the key metadata.
+      data.look.put(data.new CacheKey(keyData), valueData);
     }
   }
 
@@ -374,7 +378,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
         }
       }
     } else {
-      return data.look.get(new RowMetaAndData(keyMeta, keyData));
+      return data.look.get(data.new CacheKey(keyData));
     }
   }
 
@@ -17,8 +17,6 @@
 
 package org.apache.hop.pipeline.transforms.streamlookup;
 
-import org.apache.hop.core.RowMetaAndData;
-import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
 import org.apache.hop.core.hash.LongHashIndex;
 import org.apache.hop.core.row.IRowMeta;
@@ -27,10 +25,33 @@ import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.stream.IStream;
 
 import java.util.*;
+import java.util.function.ToIntFunction;
 
 public class StreamLookupData extends BaseTransformData implements ITransformData {
+  /** A key in the lookup map, compared and hashed on all the fields of the cache key metadata */
+  public class CacheKey {
+    private final Object[] keyData;
+    private final int hashCode;
+
+    public CacheKey(Object[] keyData) {
+      this.keyData = keyData;
+      this.hashCode = keyHasher.applyAsInt(keyData);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CacheKey
+          && keyComparator.compare(keyData, ((CacheKey) obj).keyData) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   /** used to store values in used to look up things */
-  public Map<RowMetaAndData, Object[]> look;
+  public Map<CacheKey, Object[]> look;
 
   public List<KeyValue> list;
 
@@ -54,6 +75,12 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
 
   public IRowMeta cacheKeyMeta;
 
+  /** Compares the keys in the cache on all fields of the cache key metadata */
+  public Comparator<Object[]> keyComparator;
+
+  /** Calculates the hash code of the keys in the cache */
+  public ToIntFunction<Object[]> keyHasher;
+
   public IRowMeta cacheValueMeta;
 
   public Comparator<KeyValue> comparator;
@@ -86,13 +113,6 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
     metadataVerifiedIntegerPair = false;
     hasLookupRows = false;
 
-    comparator =
-        (k1, k2) -> {
-          try {
-            return cacheKeyMeta.compare(k1.getKey(), k2.getKey());
-          } catch (HopValueException e) {
-            throw new RuntimeException("Stream Lookup comparator error", e);
-          }
-        };
+    comparator = (k1, k2) -> keyComparator.compare(k1.getKey(), k2.getKey());
   }
 }
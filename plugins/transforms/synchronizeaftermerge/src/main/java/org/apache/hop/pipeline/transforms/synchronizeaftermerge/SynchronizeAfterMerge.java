@@ -389,15 +389,15 @@ public class SynchronizeAfterMerge
           if (data.batchMode) {
             try {
               if (performInsert) {
-                data.insertStatement.executeBatch();
+                data.db.executeBatch(data.insertStatement);
                 data.db.commit();
                 data.insertStatement.clearBatch();
               } else if (performUpdate) {
-                data.updateStatement.executeBatch();
+                data.db.executeBatch(data.updateStatement);
                 data.db.commit();
                 data.updateStatement.clearBatch();
               } else if (performDelete) {
-                data.deleteStatement.executeBatch();
+                data.db.executeBatch(data.deleteStatement);
                 data.db.commit();
                 data.deleteStatement.clearBatch();
               }
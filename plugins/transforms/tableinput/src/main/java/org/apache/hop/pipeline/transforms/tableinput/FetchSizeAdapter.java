@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.RowSizeEstimator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Sets the fetch size of a result set based on the size of the first rows read from it. Narrow rows
+ * are fetched in large numbers per round trip to the database, wide rows in smaller numbers so they
+ * don't fill up the memory.
+ */
+public class FetchSizeAdapter {
+  /** The number of rows to base the fetch size on */
+  static final int SAMPLE_ROWS = 100;
+
+  /** About how many bytes of rows to fetch per round trip */
+  static final long TARGET_FETCH_BYTES = 8L * 1024L * 1024L;
+
+  static final int MIN_FETCH_SIZE = 100;
+  static final int MAX_FETCH_SIZE = 100000;
+
+  private final ResultSet resultSet;
+  private final ILogChannel log;
+
+  private int sampledRows;
+  private long sampledBytes;
+
+  public FetchSizeAdapter(ResultSet resultSet, ILogChannel log) {
+    this.resultSet = resultSet;
+    this.log = log;
+  }
+
+  /**
+   * Take a row read from the result set into account. Once enough rows are seen the fetch size is
+   * set, after that this does nothing.
+   *
+   * @param row the row read from the result set
+   */
+  public void sample(Object[] row) {
+    if (sampledRows >= SAMPLE_ROWS) {
+      return;
+    }
+    sampledBytes += RowSizeEstimator.estimateSize(row);
+    if (++sampledRows == SAMPLE_ROWS) {
+      adaptFetchSize();
+    }
+  }
+
+  /**
+   * @param averageRowSize the average size of a row in bytes
+   * @return the fetch size which gets about {@link #TARGET_FETCH_BYTES} per round trip
+   */
+  static int calculateFetchSize(long averageRowSize) {
+    long fetchSize = TARGET_FETCH_BYTES / Math.max(1L, averageRowSize);
+    return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, fetchSize));
+  }
+
+  private void adaptFetchSize() {
+    try {
+      // A fetch size of 0 reads all rows at once and a negative one (MySQL) streams them.
+      // Leave those alone.
+      //
+      int currentFetchSize = resultSet.getFetchSize();
+      if (currentFetchSize <= 0) {
+        return;
+      }
+      int fetchSize = calculateFetchSize(sampledBytes / sampledRows);
+      if (fetchSize != currentFetchSize) {
+        resultSet.setFetchSize(fetchSize);
+        if (log.isDetailed()) {
+          log.logDetailed(
+              "Changed the fetch size from "
+                  + currentFetchSize
+                  + " to "
+                  + fetchSize
+                  + " rows for an average row size of "
+                  + (sampledBytes / sampledRows)
+                  + " bytes");
+        }
+      }
+    } catch (SQLException e) {
+      // Not every driver can change the fetch size of an open result set
+      //
+      log.logDebug("Unable to change the fetch size: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Splits the values of a numeric or date column between a minimum and a maximum into a number of
+ * ranges of the same width, one for every copy of the Table Input transform. Together the ranges
+ * cover all values, including null.
+ */
+public class PartitionRanges {
+  private final IValueMeta valueMeta;
+  private final int partitions;
+
+  /** The boundaries between the ranges or null if there are no values or only one range */
+  private final Object[] bounds;
+
+  /**
+   * @param valueMeta the metadata of the column, the minimum and the maximum
+   * @param min the smallest value of the column, null if there are no values
+   * @param max the largest value of the column, null if there are no values
+   * @param partitions the number of ranges, a single range contains all rows
+   * @throws HopException in case the column isn't numeric or a date
+   */
+  public PartitionRanges(IValueMeta valueMeta, Object min, Object max, int partitions)
+      throws HopException {
+    this.valueMeta = valueMeta;
+    this.partitions = partitions;
+
+    if (min == null || max == null || partitions < 2) {
+      bounds = null;
+      return;
+    }
+
+    BigDecimal from = toBigDecimal(min);
+    BigDecimal width = toBigDecimal(max).subtract(from);
+    bounds = new Object[partitions - 1];
+    for (int i = 1; i < partitions; i++) {
+      BigDecimal offset =
+          width
+              .multiply(BigDecimal.valueOf(i))
+              .divide(BigDecimal.valueOf(partitions), MathContext.DECIMAL128);
+      bounds[i - 1] = fromBigDecimal(from.add(offset));
+    }
+  }
+
+  private BigDecimal toBigDecimal(Object value) throws HopException {
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return BigDecimal.valueOf(valueMeta.getInteger(value));
+      case IValueMeta.TYPE_NUMBER:
+        return BigDecimal.valueOf(valueMeta.getNumber(value));
+      case IValueMeta.TYPE_BIGNUMBER:
+        return valueMeta.getBigNumber(value);
+      case IValueMeta.TYPE_DATE:
+      case IValueMeta.TYPE_TIMESTAMP:
+        return BigDecimal.valueOf(valueMeta.getDate(value).getTime());
+      default:
+        throw new HopException(
+            "Unable to split the values of column '"
+                + valueMeta.getName()
+                + "' of type "
+                + valueMeta.getTypeDesc()
+                + " into ranges: only numeric and date columns are supported");
+    }
+  }
+
+  private Object fromBigDecimal(BigDecimal value) {
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return value.setScale(0, RoundingMode.FLOOR).longValue();
+      case IValueMeta.TYPE_NUMBER:
+        return value.doubleValue();
+      case IValueMeta.TYPE_DATE:
+        return new Date(value.setScale(0, RoundingMode.FLOOR).longValue());
+      case IValueMeta.TYPE_TIMESTAMP:
+        return new Timestamp(value.setScale(0, RoundingMode.FLOOR).longValue());
+      default:
+        return value;
+    }
+  }
+
+  /**
+   * Get the condition which selects the rows of a range. The first range also gets the null values.
+   * The condition has a ? parameter for every bound returned by {@link #getBounds(int)}.
+   *
+   * @param column the quoted name of the column
+   * @param partition the number of the range, starting at 0
+   * @return the condition or null if the range contains all rows
+   */
+  public String getCondition(String column, int partition) {
+    if (bounds == null) {
+      // No values or nothing to split: the first range reads everything
+      //
+      return partition == 0 ? null : "1=0";
+    }
+    if (partition == 0) {
+      return column + " < ? OR " + column + " IS NULL";
+    }
+    if (partition == partitions - 1) {
+      return column + " >= ?";
+    }
+    return column + " >= ? AND " + column + " < ?";
+  }
+
+  /**
+   * @param partition the number of the range, starting at 0
+   * @return the values of the parameters of the condition of the range
+   */
+  public Object[] getBounds(int partition) {
+    if (bounds == null) {
+      return new Object[0];
+    }
+    if (partition == 0) {
+      return new Object[] {bounds[0]};
+    }
+    if (partition == partitions - 1) {
+      return new Object[] {bounds[partitions - 2]};
+    }
+    return new Object[] {bounds[partition - 1], bounds[partition]};
+  }
+
+  /**
+   * @param partition the number of the range, starting at 0
+   * @return the metadata of the parameters of the condition of the range
+   */
+  public IRowMeta getBoundsMeta(int partition) {
+    IRowMeta boundsMeta = new RowMeta();
+    Object[] partitionBounds = getBounds(partition);
+    for (int i = 0; i < partitionBounds.length; i++) {
+      IValueMeta boundMeta = valueMeta.clone();
+      boundMeta.setName("partition_bound_" + (i + 1));
+      boundsMeta.addValueMeta(boundMeta);
+    }
+    return boundsMeta;
+  }
+}
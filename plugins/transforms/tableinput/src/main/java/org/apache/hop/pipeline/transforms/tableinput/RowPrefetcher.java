@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the rows of a result set in a background thread. The rows are handed over in batches of
+ * {@link Const#ROWS_IN_BATCH} rows so the driver can convert the next rows while the previous batch
+ * is passed to the next transforms. At most two batches are waiting at any time.
+ */
+public class RowPrefetcher {
+  /** Marks the end of the rows in the queue */
+  private static final List<Object[]> END = new ArrayList<>();
+
+  private static final int QUEUE_SIZE = 2;
+
+  /** How long to wait for the background thread before and after cancelling the statement */
+  private static final long STOP_WAIT_MILLIS = 1000;
+
+  private final Database db;
+  private final ResultSet resultSet;
+  private final FetchSizeAdapter fetchSizeAdapter;
+  private final BlockingQueue<List<Object[]>> queue;
+  private final Thread thread;
+
+  private volatile boolean stopped;
+  private volatile HopDatabaseException error;
+
+  /**
+   * @param db the database the result set was opened with
+   * @param resultSet the result set to read
+   * @param fetchSizeAdapter the adapter to pass the rows read to or null
+   * @param threadName the name of the background thread
+   */
+  public RowPrefetcher(
+      Database db, ResultSet resultSet, FetchSizeAdapter fetchSizeAdapter, String threadName) {
+    this.db = db;
+    this.resultSet = resultSet;
+    this.fetchSizeAdapter = fetchSizeAdapter;
+    this.queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    this.thread = new Thread(this::readRows, threadName);
+    this.thread.setDaemon(true);
+  }
+
+  public void start() {
+    thread.start();
+  }
+
+  private void readRows() {
+    try {
+      List<Object[]> batch = new ArrayList<>(Const.ROWS_IN_BATCH);
+      Object[] row;
+      while (!stopped && (row = db.getRow(resultSet)) != null) {
+        if (fetchSizeAdapter != null) {
+          fetchSizeAdapter.sample(row);
+        }
+        batch.add(row);
+        if (batch.size() >= Const.ROWS_IN_BATCH) {
+          offer(batch);
+          batch = new ArrayList<>(Const.ROWS_IN_BATCH);
+        }
+      }
+      if (!batch.isEmpty()) {
+        offer(batch);
+      }
+    } catch (HopDatabaseException e) {
+      error = e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    try {
+      offer(END);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Wait for room in the queue unless we're stopped: nobody will take the rows then. */
+  private void offer(List<Object[]> batch) throws InterruptedException {
+    while (!stopped) {
+      if (queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Wait for the next batch of rows.
+   *
+   * @return the next batch of rows or null if all rows are read
+   * @throws HopDatabaseException in case the rows couldn't be read
+   */
+  public List<Object[]> nextBatch() throws HopDatabaseException {
+    List<Object[]> batch;
+    try {
+      batch = queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopDatabaseException("Interrupted while waiting for rows", e);
+    }
+    if (batch == END) {
+      // Leave the marker for the next call
+      //
+      queue.offer(END);
+      if (error != null) {
+        throw error;
+      }
+      return null;
+    }
+    return batch;
+  }
+
+  /**
+   * Stop reading rows and wait for the background thread to finish. If the thread is still waiting
+   * for the database the statement is cancelled. After this the result set can be closed.
+   */
+  public void stop() {
+    stopped = true;
+    queue.clear();
+    try {
+      thread.join(STOP_WAIT_MILLIS);
+      if (thread.isAlive()) {
+        cancelStatement();
+        thread.join(STOP_WAIT_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void cancelStatement() {
+    try {
+      Statement statement = resultSet.getStatement();
+      if (statement != null) {
+        statement.cancel();
+      }
+    } catch (SQLException e) {
+      // The statement is closed with the result set anyway
+    }
+  }
+}
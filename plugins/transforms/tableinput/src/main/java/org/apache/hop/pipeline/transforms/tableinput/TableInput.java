@@ -24,6 +24,7 @@ import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -37,12 +38,22 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /** Reads information from a database table by using freehand SQL */
 public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
 
   private static final Class<?> PKG = TableInputMeta.class; // For Translator
 
+  /** The prefix of the key of the partition ranges shared by the copies of a transform */
+  private static final String PARTITION_RANGES_KEY = "TableInput.PartitionRanges.";
+
+  /** The longest time a row is buffered before it is handed over to the next transform(s) */
+  private static final long MAX_BATCH_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
   public TableInput(
       TransformMeta transformMeta,
       TableInputMeta meta,
@@ -139,6 +150,11 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         return false; // stop immediately, nothing to do here.
       }
 
+      if (data.skipQuery) {
+        setOutputDone(); // the first copy reads the rows
+        return false;
+      }
+
       boolean success = doQuery(parametersMeta, parameters);
       if (!success) {
         return false;
@@ -154,6 +170,7 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
             // was cancelled
             // this is expected and ok so do not pass the exception up
             logDebug(e.getMessage());
+            flushOutputRows();
             return false;
           } else {
             throw e;
@@ -161,10 +178,15 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         }
         if (data.nextrow != null) {
           incrementLinesInput();
+          sampleRowSize(data.nextrow);
         }
       }
     }
 
+    if (data.prefetcher != null) {
+      return putPrefetchedRows();
+    }
+
     if (data.thisrow == null) { // Finished reading?
 
       boolean done = false;
@@ -174,16 +196,20 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
 
           done = true;
         } else {
+          // Send the rows of the previous query before the row layout can change
+          flushOutputRows();
+
           // First close the previous query, otherwise we run out of cursors!
           closePreviousQuery();
 
           boolean success = doQuery(data.rowSet.getRowMeta(), nextRow); // OK, perform a new query
           if (!success) {
+            flushOutputRows();
             return false;
           }
 
           if (data.thisrow != null) {
-            putRow(data.rowMeta, data.thisrow); // fill the rowset(s). (wait for empty)
+            addOutputRow(data.thisrow); // fill the rowset(s) per batch.
             data.thisrow = data.nextrow;
 
             if (checkFeedback(getLinesInput())) {
@@ -198,11 +224,12 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       }
 
       if (done) {
+        flushOutputRows();
         setOutputDone(); // signal end to receiver(s)
         return false; // end of data or error.
       }
     } else {
-      putRow(data.rowMeta, data.thisrow); // fill the rowset(s). (wait for empty)
+      addOutputRow(data.thisrow); // fill the rowset(s) per batch.
       data.thisrow = data.nextrow;
 
       if (checkFeedback(getLinesInput())) {
@@ -215,14 +242,88 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     return true;
   }
 
+  /**
+   * Buffer a row for the next transform(s). The rows are handed over in batches of at most {@link
+   * #getRowsInBatch()} rows. A slow query doesn't hold back the rows already read: the batch is
+   * also handed over once its first row waited for {@link #MAX_BATCH_WAIT_NANOS}.
+   */
+  private void addOutputRow(Object[] row) throws HopTransformException {
+    long now = System.nanoTime();
+    if (data.outputRows.isEmpty()) {
+      data.outputRowsStart = now;
+    }
+    data.outputRows.add(row);
+    if (data.outputRows.size() >= getRowsInBatch()
+        || now - data.outputRowsStart >= MAX_BATCH_WAIT_NANOS) {
+      flushOutputRows();
+    }
+  }
+
+  /** Pass the buffered rows to the next transform(s). */
+  private void flushOutputRows() throws HopTransformException {
+    if (!data.outputRows.isEmpty()) {
+      putRows(data.rowMeta, data.outputRows);
+      data.outputRows.clear();
+    }
+  }
+
+  /** Pass the next batch of rows read by the prefetch thread to the next transform(s). */
+  private boolean putPrefetchedRows() throws HopException {
+    List<Object[]> rows;
+    try {
+      rows = data.prefetcher.nextBatch();
+    } catch (HopDatabaseException e) {
+      if (e.getCause() instanceof SQLException && isStopped()) {
+        // The query of this transform was cancelled, this is expected
+        logDebug(e.getMessage());
+        return false;
+      }
+      throw e;
+    }
+
+    if (rows == null) { // Finished reading?
+      if (meta.isExecuteEachInputRow()) { // Try to get another row from the input stream
+        Object[] nextRow = getRowFrom(data.rowSet);
+        if (nextRow != null) {
+          // First close the previous query, otherwise we run out of cursors!
+          closePreviousQuery();
+          return doQuery(data.rowSet.getRowMeta(), nextRow);
+        }
+      }
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+
+    long previousLines = getLinesInput();
+    long lines = addLinesInput(rows.size());
+    putRows(data.rowMeta, rows);
+
+    if (checkFeedback(previousLines, lines)) {
+      if (log.isBasic()) {
+        logBasic("linenr " + getLinesInput());
+      }
+    }
+    return true;
+  }
+
+  private void sampleRowSize(Object[] row) {
+    if (data.fetchSizeAdapter != null) {
+      data.fetchSizeAdapter.sample(row);
+    }
+  }
+
   private void closePreviousQuery() throws HopDatabaseException {
+    if (data.prefetcher != null) {
+      data.prefetcher.stop();
+      data.prefetcher = null;
+    }
+    data.fetchSizeAdapter = null;
     if (data.db != null) {
       data.db.closeQuery(data.rs);
     }
   }
 
-  private boolean doQuery(IRowMeta parametersMeta, Object[] parameters)
-      throws HopDatabaseException {
+  private boolean doQuery(IRowMeta parametersMeta, Object[] parameters) throws HopException {
     boolean success = true;
 
     // Open the query with the optional parameters received from the source transforms.
@@ -233,6 +334,24 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       sql = meta.getSql();
     }
 
+    if (data.partitionCount > 1) {
+      // Only read the rows of the range of this copy
+      //
+      sql = stripTrailingSemicolons(sql);
+      PartitionRanges ranges = getPartitionRanges(sql, parametersMeta, parameters);
+      String column = data.db.getDatabaseMeta().quoteField(resolve(meta.getPartitionColumn()));
+      String condition = ranges.getCondition(column, getCopyNr());
+      sql = "SELECT * FROM (" + sql + ") hop_partition";
+      if (condition != null) {
+        sql += " WHERE " + condition;
+      }
+      IRowMeta boundsMeta = ranges.getBoundsMeta(getCopyNr());
+      parameters =
+          RowDataUtil.addRowData(parameters, parametersMeta.size(), ranges.getBounds(getCopyNr()));
+      parametersMeta = parametersMeta.clone();
+      parametersMeta.addRowMeta(boundsMeta);
+    }
+
     if (log.isDetailed()) {
       logDetailed("SQL query : " + sql);
     }
@@ -257,19 +376,93 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         }
       }
 
-      // Get the first row...
-      data.thisrow = data.db.getRow(data.rs);
-      if (data.thisrow != null) {
-        incrementLinesInput();
-        data.nextrow = data.db.getRow(data.rs);
-        if (data.nextrow != null) {
+      if (meta.isAdaptiveFetchSize()) {
+        data.fetchSizeAdapter = new FetchSizeAdapter(data.rs, log);
+      }
+
+      if (meta.isPrefetchRows()) {
+        // Read the rows in a separate thread
+        data.prefetcher =
+            new RowPrefetcher(
+                data.db,
+                data.rs,
+                data.fetchSizeAdapter,
+                getTransformName() + " prefetch " + getCopyNr());
+        data.prefetcher.start();
+      } else {
+        // Get the first row...
+        data.thisrow = data.db.getRow(data.rs);
+        if (data.thisrow != null) {
           incrementLinesInput();
+          sampleRowSize(data.thisrow);
+          data.nextrow = data.db.getRow(data.rs);
+          if (data.nextrow != null) {
+            incrementLinesInput();
+            sampleRowSize(data.nextrow);
+          }
         }
       }
     }
     return success;
   }
 
+  /** A trailing semicolon would end the query before the range condition is added. */
+  private static String stripTrailingSemicolons(String sql) {
+    String stripped = sql.trim();
+    while (stripped.endsWith(";")) {
+      stripped = stripped.substring(0, stripped.length() - 1).trim();
+    }
+    return stripped;
+  }
+
+  /**
+   * Get the ranges of the partition column. The first copy to get here queries the minimum and
+   * maximum of the column, the other copies wait for it and use the same ranges.
+   */
+  @SuppressWarnings("unchecked")
+  private PartitionRanges getPartitionRanges(
+      String sql, IRowMeta parametersMeta, Object[] parameters) throws HopException {
+    Map<String, Object> extensionData = getPipeline().getExtensionDataMap();
+    AtomicReference<PartitionRanges> shared;
+    synchronized (extensionData) {
+      shared =
+          (AtomicReference<PartitionRanges>)
+              extensionData.computeIfAbsent(
+                  PARTITION_RANGES_KEY + getTransformName(), key -> new AtomicReference<>());
+    }
+    synchronized (shared) {
+      if (shared.get() == null) {
+        shared.set(calculatePartitionRanges(sql, parametersMeta, parameters));
+      }
+      return shared.get();
+    }
+  }
+
+  private PartitionRanges calculatePartitionRanges(
+      String sql, IRowMeta parametersMeta, Object[] parameters) throws HopException {
+    String column = data.db.getDatabaseMeta().quoteField(resolve(meta.getPartitionColumn()));
+    String boundsSql =
+        "SELECT MIN(" + column + "), MAX(" + column + ") FROM (" + sql + ") hop_bounds";
+    if (log.isDetailed()) {
+      logDetailed("Partition bounds query : " + boundsSql);
+    }
+    RowMetaAndData bounds;
+    if (parametersMeta.isEmpty()) {
+      bounds = data.db.getOneRow(boundsSql);
+    } else {
+      bounds = data.db.getOneRow(boundsSql, parametersMeta, parameters);
+    }
+    if (bounds == null || bounds.getRowMeta().size() < 2) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "TableInput.Exception.NoPartitionBounds", column));
+    }
+    return new PartitionRanges(
+        bounds.getRowMeta().getValueMeta(0),
+        bounds.getData()[0],
+        bounds.getData()[1],
+        data.partitionCount);
+  }
+
   @Override
   public void dispose() {
     if (log.isBasic()) {
@@ -334,8 +527,27 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
 
       DatabaseMeta databaseMeta = getPipelineMeta().findDatabase(meta.getConnection(), variables);
 
+      int rowLimit = Const.toInt(resolve(meta.getRowLimit()), 0);
       data.db = new Database(this, this, databaseMeta);
-      data.db.setQueryLimit(Const.toInt(resolve(meta.getRowLimit()), 0));
+      data.db.setQueryLimit(rowLimit);
+
+      // Split the rows over the copies of this transform?
+      //
+      if (!Utils.isEmpty(resolve(meta.getPartitionColumn()))) {
+        int copies = getTransformMeta().getCopies(this);
+        if (meta.isExecuteEachInputRow()) {
+          logBasic(BaseMessages.getString(PKG, "TableInput.Log.PartitioningPerRowIgnored"));
+        } else if (copies > 1 && rowLimit > 0) {
+          // Every copy would read up to the limit: only the first copy reads the rows
+          //
+          if (getCopyNr() == 0) {
+            logBasic(BaseMessages.getString(PKG, "TableInput.Log.PartitioningWithLimitIgnored"));
+          }
+          data.skipQuery = getCopyNr() > 0;
+        } else if (copies > 1) {
+          data.partitionCount = copies;
+        }
+      }
 
       try {
         data.db.connect();
@@ -25,6 +25,8 @@ import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.stream.IStream;
 
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TableInputData extends BaseTransformData implements ITransformData {
   public Object[] nextrow;
@@ -36,6 +38,22 @@ public class TableInputData extends BaseTransformData implements ITransformData
   public IRowSet rowSet;
   public boolean isCanceled;
   public IStream infoStream;
+  public List<Object[]> outputRows;
+
+  /** The time the first row of outputRows was buffered, in nanoseconds */
+  public long outputRowsStart;
+
+  /** The number of copies the rows are split over, 1 if the rows aren't split */
+  public int partitionCount;
+
+  /** True if another copy of the transform reads all rows */
+  public boolean skipQuery;
+
+  /** Sets the fetch size based on the first rows read, null if the fetch size is fixed */
+  public FetchSizeAdapter fetchSizeAdapter;
+
+  /** Reads the rows in a separate thread, null if the rows are read by the transform itself */
+  public RowPrefetcher prefetcher;
 
   public TableInputData() {
     super();
@@ -45,5 +63,7 @@ public class TableInputData extends BaseTransformData implements ITransformData
     nextrow = null;
     rs = null;
     lookupTransform = null;
+    outputRows = new ArrayList<>();
+    partitionCount = 1;
   }
 }
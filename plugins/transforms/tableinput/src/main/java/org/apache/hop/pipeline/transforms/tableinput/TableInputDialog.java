@@ -69,6 +69,12 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
   private Button wVariables;
 
+  private TextVar wPartitionColumn;
+
+  private Button wPrefetchRows;
+
+  private Button wAdaptiveFetchSize;
+
   private final TableInputMeta input;
 
   private Label wlPosition;
@@ -136,6 +142,74 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
     setButtonPositions(new Button[] {wOk, wPreview, wCancel}, margin, null);
 
+    SelectionAdapter lsSelMod =
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent arg0) {
+            input.setChanged();
+          }
+        };
+
+    // Adapt the fetch size to the size of the rows?
+    Label wlAdaptiveFetchSize = new Label(shell, SWT.RIGHT);
+    wlAdaptiveFetchSize.setText(BaseMessages.getString(PKG, "TableInputDialog.AdaptiveFetchSize"));
+    wlAdaptiveFetchSize.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.AdaptiveFetchSize.Tooltip"));
+    props.setLook(wlAdaptiveFetchSize);
+    FormData fdlAdaptiveFetchSize = new FormData();
+    fdlAdaptiveFetchSize.left = new FormAttachment(0, 0);
+    fdlAdaptiveFetchSize.right = new FormAttachment(middle, -margin);
+    fdlAdaptiveFetchSize.bottom = new FormAttachment(wOk, -2 * margin);
+    wlAdaptiveFetchSize.setLayoutData(fdlAdaptiveFetchSize);
+    wAdaptiveFetchSize = new Button(shell, SWT.CHECK);
+    props.setLook(wAdaptiveFetchSize);
+    FormData fdAdaptiveFetchSize = new FormData();
+    fdAdaptiveFetchSize.left = new FormAttachment(middle, 0);
+    fdAdaptiveFetchSize.right = new FormAttachment(100, 0);
+    fdAdaptiveFetchSize.bottom = new FormAttachment(wlAdaptiveFetchSize, 0, SWT.CENTER);
+    wAdaptiveFetchSize.setLayoutData(fdAdaptiveFetchSize);
+    wAdaptiveFetchSize.addSelectionListener(lsSelMod);
+
+    // Read the rows in a separate thread?
+    Label wlPrefetchRows = new Label(shell, SWT.RIGHT);
+    wlPrefetchRows.setText(BaseMessages.getString(PKG, "TableInputDialog.PrefetchRows"));
+    wlPrefetchRows.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PrefetchRows.Tooltip"));
+    props.setLook(wlPrefetchRows);
+    FormData fdlPrefetchRows = new FormData();
+    fdlPrefetchRows.left = new FormAttachment(0, 0);
+    fdlPrefetchRows.right = new FormAttachment(middle, -margin);
+    fdlPrefetchRows.bottom = new FormAttachment(wlAdaptiveFetchSize, -margin);
+    wlPrefetchRows.setLayoutData(fdlPrefetchRows);
+    wPrefetchRows = new Button(shell, SWT.CHECK);
+    props.setLook(wPrefetchRows);
+    FormData fdPrefetchRows = new FormData();
+    fdPrefetchRows.left = new FormAttachment(middle, 0);
+    fdPrefetchRows.right = new FormAttachment(100, 0);
+    fdPrefetchRows.bottom = new FormAttachment(wlPrefetchRows, 0, SWT.CENTER);
+    wPrefetchRows.setLayoutData(fdPrefetchRows);
+    wPrefetchRows.addSelectionListener(lsSelMod);
+
+    // Split the rows over the copies of the transform
+    Label wlPartitionColumn = new Label(shell, SWT.RIGHT);
+    wlPartitionColumn.setText(BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn"));
+    wlPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    props.setLook(wlPartitionColumn);
+    FormData fdlPartitionColumn = new FormData();
+    fdlPartitionColumn.left = new FormAttachment(0, 0);
+    fdlPartitionColumn.right = new FormAttachment(middle, -margin);
+    fdlPartitionColumn.bottom = new FormAttachment(wlPrefetchRows, -margin);
+    wlPartitionColumn.setLayoutData(fdlPartitionColumn);
+    wPartitionColumn = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    props.setLook(wPartitionColumn);
+    wPartitionColumn.addModifyListener(lsMod);
+    FormData fdPartitionColumn = new FormData();
+    fdPartitionColumn.left = new FormAttachment(middle, 0);
+    fdPartitionColumn.right = new FormAttachment(100, 0);
+    fdPartitionColumn.bottom = new FormAttachment(wlPartitionColumn, 0, SWT.CENTER);
+    wPartitionColumn.setLayoutData(fdPartitionColumn);
+
     // Limit input ...
     Label wlLimit = new Label(shell, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "TableInputDialog.LimitSize"));
@@ -143,7 +217,7 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
     fdlLimit.right = new FormAttachment(middle, -margin);
-    fdlLimit.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlLimit.bottom = new FormAttachment(wlPartitionColumn, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
     props.setLook(wLimit);
@@ -170,13 +244,6 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     fdEachRow.right = new FormAttachment(100, 0);
     fdEachRow.bottom = new FormAttachment(wlEachRow, 0, SWT.CENTER);
     wEachRow.setLayoutData(fdEachRow);
-    SelectionAdapter lsSelMod =
-        new SelectionAdapter() {
-          @Override
-          public void widgetSelected(SelectionEvent arg0) {
-            input.setChanged();
-          }
-        };
     wEachRow.addSelectionListener(lsSelMod);
 
     // Read date from...
@@ -358,6 +425,9 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     wDataFrom.setText(Const.NVL(input.getLookup(), ""));
     wEachRow.setSelection(input.isExecuteEachInputRow());
     wVariables.setSelection(input.isVariableReplacementActive());
+    wPartitionColumn.setText(Const.NVL(input.getPartitionColumn(), ""));
+    wPrefetchRows.setSelection(input.isPrefetchRows());
+    wAdaptiveFetchSize.setSelection(input.isAdaptiveFetchSize());
 
     setSqlToolTip();
     setFlags();
@@ -384,6 +454,9 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     meta.setRowLimit(wLimit.getText());  
     meta.setExecuteEachInputRow(wEachRow.getSelection());
     meta.setVariableReplacementActive(wVariables.getSelection());
+    meta.setPartitionColumn(wPartitionColumn.getText());
+    meta.setPrefetchRows(wPrefetchRows.getSelection());
+    meta.setAdaptiveFetchSize(wAdaptiveFetchSize.getSelection());
     meta.setLookup(wDataFrom.getText());
     
     // Force recreate TransformIOMeta and update info stream
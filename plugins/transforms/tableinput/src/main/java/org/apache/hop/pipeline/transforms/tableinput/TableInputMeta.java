@@ -81,6 +81,18 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
 
   @HopMetadataProperty private String lookup;
 
+  /** The numeric or date column to split the rows over the copies of the transform */
+  @HopMetadataProperty(key = "partition_column", injectionKey = "PARTITION_COLUMN")
+  private String partitionColumn;
+
+  /** Read the rows from the result set in a separate thread? */
+  @HopMetadataProperty(key = "prefetch_rows", injectionKey = "PREFETCH_ROWS")
+  private boolean prefetchRows;
+
+  /** Adapt the JDBC fetch size to the size of the rows? */
+  @HopMetadataProperty(key = "adaptive_fetch_size", injectionKey = "ADAPTIVE_FETCH_SIZE")
+  private boolean adaptiveFetchSize;
+
   public TableInputMeta() {
     super();
   }
@@ -131,6 +143,36 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
     this.lookup = lookup;
   }
 
+  /** @return Returns the column to split the rows over the copies of the transform. */
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /** @param partitionColumn The column to split the rows over the copies of the transform. */
+  public void setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+  }
+
+  /** @return Returns true if the rows are read from the result set in a separate thread. */
+  public boolean isPrefetchRows() {
+    return prefetchRows;
+  }
+
+  /** @param prefetchRows true to read the rows from the result set in a separate thread. */
+  public void setPrefetchRows(boolean prefetchRows) {
+    this.prefetchRows = prefetchRows;
+  }
+
+  /** @return Returns true if the fetch size is adapted to the size of the rows. */
+  public boolean isAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
+  /** @param adaptiveFetchSize true to adapt the fetch size to the size of the rows. */
+  public void setAdaptiveFetchSize(boolean adaptiveFetchSize) {
+    this.adaptiveFetchSize = adaptiveFetchSize;
+  }
+
   @Override
   public Object clone() {
     TableInputMeta retval = (TableInputMeta) super.clone();
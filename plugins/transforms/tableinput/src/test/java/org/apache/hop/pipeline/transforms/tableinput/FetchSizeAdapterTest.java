@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.row.RowSizeEstimator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FetchSizeAdapterTest {
+
+  private ResultSet resultSet;
+  private ILogChannel log;
+
+  @Before
+  public void setUp() {
+    resultSet = mock(ResultSet.class);
+    log = mock(ILogChannel.class);
+  }
+
+  @Test
+  public void testCalculateFetchSize() {
+    assertEquals(FetchSizeAdapter.MAX_FETCH_SIZE, FetchSizeAdapter.calculateFetchSize(0L));
+    assertEquals(FetchSizeAdapter.MAX_FETCH_SIZE, FetchSizeAdapter.calculateFetchSize(10L));
+    assertEquals(
+        (int) (FetchSizeAdapter.TARGET_FETCH_BYTES / 1000L),
+        FetchSizeAdapter.calculateFetchSize(1000L));
+    assertEquals(
+        FetchSizeAdapter.MIN_FETCH_SIZE, FetchSizeAdapter.calculateFetchSize(10L * 1024L * 1024L));
+  }
+
+  @Test
+  public void testFetchSizeIsSetAfterTheSample() throws Exception {
+    when(resultSet.getFetchSize()).thenReturn(10);
+    FetchSizeAdapter adapter = new FetchSizeAdapter(resultSet, log);
+
+    Object[] row = new Object[] {1L, "a narrow row"};
+    for (int i = 0; i < FetchSizeAdapter.SAMPLE_ROWS - 1; i++) {
+      adapter.sample(row);
+    }
+    verify(resultSet, never()).setFetchSize(anyInt());
+
+    adapter.sample(row);
+    verify(resultSet)
+        .setFetchSize(FetchSizeAdapter.calculateFetchSize(RowSizeEstimator.estimateSize(row)));
+
+    // Later rows are ignored
+    adapter.sample(row);
+    verify(resultSet, times(1)).setFetchSize(anyInt());
+  }
+
+  @Test
+  public void testUnlimitedFetchSizeIsKept() throws Exception {
+    when(resultSet.getFetchSize()).thenReturn(Integer.MIN_VALUE);
+    FetchSizeAdapter adapter = new FetchSizeAdapter(resultSet, log);
+
+    for (int i = 0; i < FetchSizeAdapter.SAMPLE_ROWS; i++) {
+      adapter.sample(new Object[] {1L});
+    }
+    verify(resultSet, never()).setFetchSize(anyInt());
+  }
+
+  @Test
+  public void testDriverRefusingTheFetchSize() throws Exception {
+    when(resultSet.getFetchSize()).thenReturn(10);
+    doThrow(new SQLException("Not supported")).when(resultSet).setFetchSize(anyInt());
+    FetchSizeAdapter adapter = new FetchSizeAdapter(resultSet, log);
+
+    for (int i = 0; i < FetchSizeAdapter.SAMPLE_ROWS; i++) {
+      adapter.sample(new Object[] {1L});
+    }
+    verify(log).logDebug("Unable to change the fetch size: Not supported");
+  }
+}
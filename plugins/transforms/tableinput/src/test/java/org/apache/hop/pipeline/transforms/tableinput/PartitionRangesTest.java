@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PartitionRangesTest {
+
+  @Test
+  public void testIntegerRanges() throws Exception {
+    PartitionRanges ranges = new PartitionRanges(new ValueMetaInteger("id"), 0L, 100L, 4);
+
+    assertEquals("id < ? OR id IS NULL", ranges.getCondition("id", 0));
+    assertArrayEquals(new Object[] {25L}, ranges.getBounds(0));
+    assertEquals("id >= ? AND id < ?", ranges.getCondition("id", 1));
+    assertArrayEquals(new Object[] {25L, 50L}, ranges.getBounds(1));
+    assertEquals("id >= ? AND id < ?", ranges.getCondition("id", 2));
+    assertArrayEquals(new Object[] {50L, 75L}, ranges.getBounds(2));
+    assertEquals("id >= ?", ranges.getCondition("id", 3));
+    assertArrayEquals(new Object[] {75L}, ranges.getBounds(3));
+
+    IRowMeta boundsMeta = ranges.getBoundsMeta(1);
+    assertEquals(2, boundsMeta.size());
+    assertEquals("partition_bound_1", boundsMeta.getValueMeta(0).getName());
+    assertEquals(IValueMeta.TYPE_INTEGER, boundsMeta.getValueMeta(1).getType());
+  }
+
+  @Test
+  public void testTwoRanges() throws Exception {
+    PartitionRanges ranges = new PartitionRanges(new ValueMetaNumber("x"), -1.0, 1.0, 2);
+
+    assertEquals("x < ? OR x IS NULL", ranges.getCondition("x", 0));
+    assertArrayEquals(new Object[] {0.0}, ranges.getBounds(0));
+    assertEquals("x >= ?", ranges.getCondition("x", 1));
+    assertArrayEquals(new Object[] {0.0}, ranges.getBounds(1));
+  }
+
+  @Test
+  public void testSingleRange() throws Exception {
+    PartitionRanges ranges = new PartitionRanges(new ValueMetaInteger("id"), 1L, 10L, 1);
+
+    assertNull(ranges.getCondition("id", 0));
+    assertEquals(0, ranges.getBounds(0).length);
+    assertEquals(0, ranges.getBoundsMeta(0).size());
+  }
+
+  @Test
+  public void testNoValues() throws Exception {
+    PartitionRanges ranges = new PartitionRanges(new ValueMetaInteger("id"), null, null, 3);
+
+    assertNull(ranges.getCondition("id", 0));
+    assertEquals("1=0", ranges.getCondition("id", 1));
+    assertEquals("1=0", ranges.getCondition("id", 2));
+    assertEquals(0, ranges.getBounds(2).length);
+  }
+
+  @Test
+  public void testDateRanges() throws Exception {
+    PartitionRanges ranges =
+        new PartitionRanges(new ValueMetaDate("d"), new Date(1000L), new Date(4000L), 3);
+
+    assertArrayEquals(new Object[] {new Date(2000L)}, ranges.getBounds(0));
+    assertArrayEquals(new Object[] {new Date(2000L), new Date(3000L)}, ranges.getBounds(1));
+    assertArrayEquals(new Object[] {new Date(3000L)}, ranges.getBounds(2));
+  }
+
+  @Test(expected = HopException.class)
+  public void testStringColumnIsNotSupported() throws Exception {
+    new PartitionRanges(new ValueMetaString("name"), "a", "z", 2);
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.Const;
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RowPrefetcherTest {
+
+  private Database db;
+  private ResultSet resultSet;
+  private AtomicLong rowsRead;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    // Database keeps the value metadata plugins found when the class is loaded
+    HopClientEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    db = mock(Database.class);
+    resultSet = mock(ResultSet.class);
+    rowsRead = new AtomicLong();
+  }
+
+  /** Let the database return the given number of rows, numbered from 0 */
+  private void returnRows(long rows) throws Exception {
+    when(db.getRow(any(ResultSet.class)))
+        .thenAnswer(
+            (Answer<Object[]>)
+                invocation -> {
+                  long nr = rowsRead.getAndIncrement();
+                  return nr < rows ? new Object[] {nr} : null;
+                });
+  }
+
+  @Test
+  public void testRowsAreReadInBatches() throws Exception {
+    int rows = Const.ROWS_IN_BATCH * 2 + 10;
+    returnRows(rows);
+    FetchSizeAdapter fetchSizeAdapter = mock(FetchSizeAdapter.class);
+    RowPrefetcher prefetcher = new RowPrefetcher(db, resultSet, fetchSizeAdapter, "test");
+    prefetcher.start();
+
+    long expected = 0;
+    List<Object[]> batch;
+    int batches = 0;
+    while ((batch = prefetcher.nextBatch()) != null) {
+      for (Object[] row : batch) {
+        assertEquals(expected++, row[0]);
+      }
+      batches++;
+    }
+    assertEquals(rows, expected);
+    assertEquals(3, batches);
+
+    // The end stays the end
+    assertNull(prefetcher.nextBatch());
+    prefetcher.stop();
+  }
+
+  @Test
+  public void testNoRows() throws Exception {
+    returnRows(0);
+    RowPrefetcher prefetcher = new RowPrefetcher(db, resultSet, null, "test");
+    prefetcher.start();
+
+    assertNull(prefetcher.nextBatch());
+    prefetcher.stop();
+  }
+
+  @Test
+  public void testErrorIsPassedOn() throws Exception {
+    HopDatabaseException error = new HopDatabaseException("Connection lost");
+    when(db.getRow(any(ResultSet.class))).thenReturn(new Object[] {1L}).thenThrow(error);
+    RowPrefetcher prefetcher = new RowPrefetcher(db, resultSet, null, "test");
+    prefetcher.start();
+
+    try {
+      List<Object[]> batch = prefetcher.nextBatch();
+      fail("Expected the error of the background thread, got " + batch);
+    } catch (HopDatabaseException e) {
+      assertSame(error, e);
+    }
+    prefetcher.stop();
+  }
+
+  @Test(timeout = 10000)
+  public void testStopWhileTheQueueIsFull() throws Exception {
+    returnRows(Long.MAX_VALUE);
+    RowPrefetcher prefetcher = new RowPrefetcher(db, resultSet, null, "test");
+    prefetcher.start();
+
+    assertEquals(Const.ROWS_IN_BATCH, prefetcher.nextBatch().size());
+    // The background thread keeps filling the queue until we stop it
+    prefetcher.stop();
+  }
+
+  @Test(timeout = 10000)
+  public void testStopCancelsTheStatement() throws Exception {
+    CountDownLatch cancelled = new CountDownLatch(1);
+    Statement statement = mock(Statement.class);
+    doAnswer(
+            invocation -> {
+              cancelled.countDown();
+              return null;
+            })
+        .when(statement)
+        .cancel();
+    when(resultSet.getStatement()).thenReturn(statement);
+
+    // The database doesn't return a row until the statement is cancelled
+    CountDownLatch reading = new CountDownLatch(1);
+    when(db.getRow(any(ResultSet.class)))
+        .thenAnswer(
+            (Answer<Object[]>)
+                invocation -> {
+                  reading.countDown();
+                  cancelled.await();
+                  throw new HopDatabaseException("Statement cancelled");
+                });
+    RowPrefetcher prefetcher = new RowPrefetcher(db, resultSet, null, "test");
+    prefetcher.start();
+    reading.await();
+
+    prefetcher.stop();
+    verify(statement).cancel();
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.DatabaseMetaPlugin;
+import org.apache.hop.core.database.DatabasePluginType;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.core.logging.LoggingObject;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.databases.h2.H2DatabaseMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/** Reads an in-memory H2 table with one or more copies of the transform. */
+public class TableInputTest {
+
+  private static final int ROWS = 2500;
+
+  private TransformMockHelper<TableInputMeta, TableInputData> transformMockHelper;
+  private Database db;
+  private TableInputMeta meta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+    PluginRegistry.getInstance()
+        .registerPluginClass(
+            H2DatabaseMeta.class.getName(), DatabasePluginType.class, DatabaseMetaPlugin.class);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    DatabaseMeta databaseMeta = new DatabaseMeta();
+    databaseMeta.setIDatabase(new H2DatabaseMeta());
+    databaseMeta.setName("tableinput");
+    databaseMeta.setDBName("mem:tableinput");
+
+    // Keep the in-memory database open while the transforms connect and disconnect
+    db = new Database(new LoggingObject("TableInputTest"), new Variables(), databaseMeta);
+    db.connect();
+    db.execStatement("CREATE TABLE FOO (ID INT, NAME VARCHAR(10))");
+    db.execStatement("INSERT INTO FOO SELECT X, 'name' || X FROM SYSTEM_RANGE(1, " + ROWS + ")");
+    db.execStatement("INSERT INTO FOO VALUES (NULL, 'no id')");
+
+    transformMockHelper =
+        new TransformMockHelper<>("Table input", TableInputMeta.class, TableInputData.class);
+    when(transformMockHelper.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(transformMockHelper.iLogChannel);
+    when(transformMockHelper.pipelineMeta.findDatabase(anyString(), any(IVariables.class)))
+        .thenReturn(databaseMeta);
+    when(transformMockHelper.iLogChannel.getLogLevel()).thenReturn(LogLevel.BASIC);
+    when(transformMockHelper.pipeline.isRunning()).thenReturn(true);
+
+    meta = new TableInputMeta();
+    meta.setDefault();
+    meta.setConnection("tableinput");
+    meta.setSql("SELECT ID, NAME FROM FOO;");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    db.execStatement("DROP TABLE FOO");
+    db.disconnect();
+    transformMockHelper.cleanUp();
+  }
+
+  /** Run the given copies of the transform one after the other and collect their rows. */
+  private List<Object[]> readRows(int copies, int... copyNrs) throws Exception {
+    when(transformMockHelper.transformMeta.getCopies(any(IVariables.class))).thenReturn(copies);
+    List<Object[]> rows = Collections.synchronizedList(new ArrayList<>());
+    for (int copyNr : copyNrs) {
+      TableInput transform =
+          new TableInput(
+              transformMockHelper.transformMeta,
+              meta,
+              new TableInputData(),
+              copyNr,
+              transformMockHelper.pipelineMeta,
+              transformMockHelper.pipeline);
+      assertTrue(transform.init());
+      transform.addRowListener(
+          new RowAdapter() {
+            @Override
+            public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+              rows.add(row);
+            }
+          });
+      while (transform.processRow()) {
+        // read all rows
+      }
+      transform.dispose();
+    }
+    return rows;
+  }
+
+  private static void assertAllRowsOnce(List<Object[]> rows) {
+    assertEquals(ROWS + 1, rows.size());
+    boolean[] seen = new boolean[ROWS + 1];
+    for (Object[] row : rows) {
+      int id = row[0] == null ? 0 : ((Long) row[0]).intValue();
+      assertTrue("Row " + id + " was read twice", !seen[id]);
+      seen[id] = true;
+    }
+  }
+
+  @Test
+  public void testReadSingleCopy() throws Exception {
+    assertAllRowsOnce(readRows(1, 0));
+  }
+
+  @Test
+  public void testRowsAreSplitOverCopies() throws Exception {
+    meta.setPartitionColumn("ID");
+
+    assertAllRowsOnce(readRows(3, 0, 1, 2));
+  }
+
+  @Test
+  public void testRowsAreSplitOverCopiesWithPrefetch() throws Exception {
+    meta.setPartitionColumn("ID");
+    meta.setPrefetchRows(true);
+    meta.setAdaptiveFetchSize(true);
+
+    assertAllRowsOnce(readRows(2, 0, 1));
+  }
+
+  @Test
+  public void testSingleCopyIgnoresThePartitionColumn() throws Exception {
+    meta.setPartitionColumn("ID");
+
+    assertAllRowsOnce(readRows(1, 0));
+  }
+
+  @Test
+  public void testLimitIsReadByTheFirstCopy() throws Exception {
+    meta.setPartitionColumn("ID");
+    meta.setRowLimit("100");
+
+    assertEquals(100, readRows(3, 0).size());
+    assertEquals(0, readRows(3, 1, 2).size());
+  }
+}
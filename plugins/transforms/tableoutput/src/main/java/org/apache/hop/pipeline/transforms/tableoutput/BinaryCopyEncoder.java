@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Encodes rows in the PostgreSQL binary COPY format. Every value is converted to the binary
+ * representation of the type of the column it is copied into, so the column types have to be
+ * known up front. An encoder is used by a single thread.
+ */
+public class BinaryCopyEncoder {
+
+  /** The column types which we can encode */
+  public enum ColumnType {
+    INT2("int2", "smallint", "smallserial"),
+    INT4("int4", "integer", "serial"),
+    INT8("int8", "bigint", "bigserial"),
+    FLOAT4("float4", "real"),
+    FLOAT8("float8", "double precision"),
+    NUMERIC("numeric", "decimal"),
+    TEXT("text", "varchar", "bpchar", "char", "character varying", "character", "name"),
+    BOOL("bool", "boolean"),
+    BYTEA("bytea"),
+    DATE("date"),
+    TIMESTAMP("timestamp", "timestamp without time zone"),
+    TIMESTAMPTZ("timestamptz", "timestamp with time zone");
+
+    private final String[] typeNames;
+
+    ColumnType(String... typeNames) {
+      this.typeNames = typeNames;
+    }
+
+    /**
+     * Find the column type for the name of a database type.
+     *
+     * @param typeName the name of the type, as reported by the driver
+     * @return the column type or null if we can't encode values of this type
+     */
+    public static ColumnType forTypeName(String typeName) {
+      if (typeName == null) {
+        return null;
+      }
+      String name = typeName.toLowerCase(Locale.ROOT);
+      for (ColumnType columnType : values()) {
+        if (Arrays.asList(columnType.typeNames).contains(name)) {
+          return columnType;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static final byte[] SIGNATURE = {
+    'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0
+  };
+
+  /** Microseconds between 1970-01-01 and 2000-01-01, the epoch of PostgreSQL */
+  private static final long POSTGRES_EPOCH_MICROS = 946_684_800_000_000L;
+
+  /** Days between 1970-01-01 and 2000-01-01 */
+  private static final long POSTGRES_EPOCH_DAYS = 10_957L;
+
+  private static final short NUMERIC_POSITIVE = 0x0000;
+  private static final short NUMERIC_NEGATIVE = 0x4000;
+
+  private final IRowMeta rowMeta;
+  private final ColumnType[] columnTypes;
+  private final ZoneId zoneId;
+  private ByteBuffer buffer;
+
+  /**
+   * @param rowMeta the metadata of the rows to encode
+   * @param columnTypes the types of the columns the values of the rows are copied into
+   */
+  public BinaryCopyEncoder(IRowMeta rowMeta, ColumnType[] columnTypes) {
+    this.rowMeta = rowMeta;
+    this.columnTypes = columnTypes;
+    this.zoneId = ZoneId.systemDefault();
+    this.buffer = ByteBuffer.allocate(64 * 1024);
+  }
+
+  /** Write the header which starts the data of a COPY statement. */
+  public void writeHeader() {
+    ensureCapacity(SIGNATURE.length + 8);
+    buffer.put(SIGNATURE);
+    buffer.putInt(0); // flags
+    buffer.putInt(0); // header extension length
+  }
+
+  /** Write the trailer which ends the data of a COPY statement. */
+  public void writeTrailer() {
+    ensureCapacity(2);
+    buffer.putShort((short) -1);
+  }
+
+  /**
+   * Encode a row.
+   *
+   * @param row the row to encode
+   * @throws HopValueException in case a value can't be converted to the type of its column
+   */
+  public void writeRow(Object[] row) throws HopValueException {
+    ensureCapacity(2);
+    buffer.putShort((short) columnTypes.length);
+    for (int i = 0; i < columnTypes.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      if (valueMeta.isNull(row[i])) {
+        ensureCapacity(4);
+        buffer.putInt(-1);
+      } else {
+        writeValue(columnTypes[i], valueMeta, row[i]);
+      }
+    }
+  }
+
+  private void writeValue(ColumnType columnType, IValueMeta valueMeta, Object value)
+      throws HopValueException {
+    switch (columnType) {
+      case INT2:
+        ensureCapacity(6);
+        buffer.putInt(2);
+        buffer.putShort((short) getInteger(valueMeta, value, Short.MIN_VALUE, Short.MAX_VALUE));
+        break;
+      case INT4:
+        ensureCapacity(8);
+        buffer.putInt(4);
+        buffer.putInt((int) getInteger(valueMeta, value, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        break;
+      case INT8:
+        ensureCapacity(12);
+        buffer.putInt(8);
+        buffer.putLong(valueMeta.getInteger(value));
+        break;
+      case FLOAT4:
+        ensureCapacity(8);
+        buffer.putInt(4);
+        buffer.putFloat(valueMeta.getNumber(value).floatValue());
+        break;
+      case FLOAT8:
+        ensureCapacity(12);
+        buffer.putInt(8);
+        buffer.putDouble(valueMeta.getNumber(value));
+        break;
+      case NUMERIC:
+        writeNumeric(valueMeta.getBigNumber(value));
+        break;
+      case TEXT:
+        writeBytes(valueMeta.getString(value).getBytes(StandardCharsets.UTF_8));
+        break;
+      case BOOL:
+        ensureCapacity(5);
+        buffer.putInt(1);
+        buffer.put(Boolean.TRUE.equals(valueMeta.getBoolean(value)) ? (byte) 1 : (byte) 0);
+        break;
+      case BYTEA:
+        writeBytes(valueMeta.getBinary(value));
+        break;
+      case DATE:
+        {
+          Instant instant = Instant.ofEpochMilli(valueMeta.getDate(value).getTime());
+          long days = instant.atZone(zoneId).toLocalDate().toEpochDay();
+          ensureCapacity(8);
+          buffer.putInt(4);
+          buffer.putInt((int) (days - POSTGRES_EPOCH_DAYS));
+        }
+        break;
+      case TIMESTAMP:
+        {
+          // Without a time zone: the local date and time, like the driver sends a Timestamp
+          //
+          Date date = valueMeta.getDate(value);
+          LocalDateTime dateTime =
+              date instanceof Timestamp
+                  ? ((Timestamp) date).toLocalDateTime()
+                  : LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), zoneId);
+          long micros =
+              dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1000;
+          ensureCapacity(12);
+          buffer.putInt(8);
+          buffer.putLong(micros - POSTGRES_EPOCH_MICROS);
+        }
+        break;
+      case TIMESTAMPTZ:
+        {
+          Date date = valueMeta.getDate(value);
+          long micros;
+          if (date instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) date;
+            micros =
+                Math.floorDiv(timestamp.getTime(), 1000L) * 1_000_000L
+                    + timestamp.getNanos() / 1000;
+          } else {
+            micros = date.getTime() * 1000L;
+          }
+          ensureCapacity(12);
+          buffer.putInt(8);
+          buffer.putLong(micros - POSTGRES_EPOCH_MICROS);
+        }
+        break;
+      default:
+        throw new HopValueException("Unable to encode values of column type " + columnType);
+    }
+  }
+
+  private long getInteger(IValueMeta valueMeta, Object value, long min, long max)
+      throws HopValueException {
+    long integer = valueMeta.getInteger(value);
+    if (integer < min || integer > max) {
+      throw new HopValueException(
+          "Value " + integer + " of field " + valueMeta.getName() + " is out of range");
+    }
+    return integer;
+  }
+
+  private void writeBytes(byte[] bytes) {
+    ensureCapacity(4 + bytes.length);
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  /**
+   * A numeric is sent as a number of base 10000 digits, the weight of the first digit, the sign,
+   * the display scale and the digits themselves.
+   */
+  private void writeNumeric(BigDecimal number) {
+    BigInteger unscaled = number.unscaledValue().abs();
+    int scale = number.scale();
+    if (scale < 0) {
+      unscaled = unscaled.multiply(BigInteger.TEN.pow(-scale));
+      scale = 0;
+    }
+
+    // Split in an integer part and a fraction part, padded to groups of 4 decimal digits
+    //
+    String digits = unscaled.toString();
+    String integerPart;
+    String fractionPart;
+    if (digits.length() > scale) {
+      integerPart = digits.substring(0, digits.length() - scale);
+      fractionPart = digits.substring(digits.length() - scale);
+    } else {
+      integerPart = "";
+      fractionPart = zeros(scale - digits.length()) + digits;
+    }
+    integerPart = zeros((4 - integerPart.length() % 4) % 4) + integerPart;
+    fractionPart = fractionPart + zeros((4 - fractionPart.length() % 4) % 4);
+    String groups = integerPart + fractionPart;
+
+    int first = 0;
+    int last = groups.length() / 4;
+    int weight = integerPart.length() / 4 - 1;
+    while (first < last && isZeroGroup(groups, first)) {
+      first++;
+      weight--;
+    }
+    while (last > first && isZeroGroup(groups, last - 1)) {
+      last--;
+    }
+    int ndigits = last - first;
+    if (ndigits == 0) {
+      weight = 0;
+    }
+
+    ensureCapacity(12 + ndigits * 2);
+    buffer.putInt(8 + ndigits * 2);
+    buffer.putShort((short) ndigits);
+    buffer.putShort((short) weight);
+    buffer.putShort(number.signum() < 0 && ndigits > 0 ? NUMERIC_NEGATIVE : NUMERIC_POSITIVE);
+    buffer.putShort((short) scale);
+    for (int i = first; i < last; i++) {
+      buffer.putShort(Short.parseShort(groups.substring(i * 4, i * 4 + 4)));
+    }
+  }
+
+  private static boolean isZeroGroup(String groups, int index) {
+    return groups.startsWith("0000", index * 4);
+  }
+
+  private static String zeros(int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, '0');
+    return new String(chars);
+  }
+
+  private void ensureCapacity(int bytes) {
+    if (buffer.remaining() < bytes) {
+      ByteBuffer larger =
+          ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+  }
+
+  /** @return the array with the encoded data, starting at offset 0 */
+  public byte[] getData() {
+    return buffer.array();
+  }
+
+  /** @return the number of bytes of encoded data */
+  public int getLength() {
+    return buffer.position();
+  }
+
+  /** Forget the encoded data, to encode the next rows. */
+  public void clear() {
+    buffer.clear();
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.database.ICopyIn;
+import org.apache.hop.core.database.IDatabase;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+
+import java.sql.Connection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Copies rows into a table with COPY ... FROM STDIN statements in the binary format. Rows are
+ * collected in batches. A background thread encodes a batch and sends it to the database while the
+ * next batch is being filled, so at most two batches are in use at any time. The writer itself is
+ * used by a single thread.
+ */
+public class BinaryCopyWriter {
+  private static final int BATCH_SIZE = 1000;
+
+  private final IDatabase database;
+  private final Connection connection;
+  private final String sql;
+  private final BinaryCopyEncoder encoder;
+  private final ExecutorService executor;
+
+  private ICopyIn copyIn;
+  private Object[][] batch;
+  private Object[][] spareBatch;
+  private int batchRows;
+  private Future<Void> pending;
+
+  /**
+   * @param database the database to copy into
+   * @param connection the connection to copy over
+   * @param sql the COPY ... FROM STDIN BINARY statement
+   * @param rowMeta the metadata of the rows to copy, in the order of the columns of the statement
+   * @param columnTypes the types of the columns
+   * @param threadName the name of the background thread
+   */
+  public BinaryCopyWriter(
+      IDatabase database,
+      Connection connection,
+      String sql,
+      IRowMeta rowMeta,
+      BinaryCopyEncoder.ColumnType[] columnTypes,
+      String threadName) {
+    this.database = database;
+    this.connection = connection;
+    this.sql = sql;
+    this.encoder = new BinaryCopyEncoder(rowMeta, columnTypes);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, threadName);
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.batch = new Object[BATCH_SIZE][];
+    this.spareBatch = new Object[BATCH_SIZE][];
+  }
+
+  /**
+   * Copy a row. A COPY statement is started if none is running.
+   *
+   * @param row the row to copy. It shouldn't be changed afterwards.
+   * @throws HopException in case the rows can't be copied
+   */
+  public void write(Object[] row) throws HopException {
+    if (copyIn == null) {
+      copyIn = database.startBinaryCopy(connection, sql);
+      encoder.clear();
+      encoder.writeHeader();
+    }
+    batch[batchRows++] = row;
+    if (batchRows == BATCH_SIZE) {
+      sendBatch();
+    }
+  }
+
+  /** Hand the current batch to the background thread and continue with the spare one. */
+  private void sendBatch() throws HopException {
+    waitForPending();
+
+    Object[][] rows = batch;
+    int nrRows = batchRows;
+    ICopyIn target = copyIn;
+    pending =
+        executor.submit(
+            () -> {
+              for (int i = 0; i < nrRows; i++) {
+                encoder.writeRow(rows[i]);
+                rows[i] = null;
+              }
+              target.writeToCopy(encoder.getData(), 0, encoder.getLength());
+              encoder.clear();
+              return null;
+            });
+
+    batch = spareBatch;
+    spareBatch = rows;
+    batchRows = 0;
+  }
+
+  private void waitForPending() throws HopException {
+    if (pending == null) {
+      return;
+    }
+    try {
+      pending.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new HopException("Interrupted while copying rows", e);
+    } catch (ExecutionException e) {
+      cancel();
+      throw new HopException(e.getCause().getMessage(), e.getCause());
+    } finally {
+      pending = null;
+    }
+  }
+
+  /**
+   * Send the remaining rows and end the running COPY statement, if any. The rows are committed
+   * with the transaction of the connection.
+   *
+   * @return the number of rows copied by the statement
+   * @throws HopException in case the rows can't be copied
+   */
+  public long endCopy() throws HopException {
+    if (copyIn == null) {
+      return 0L;
+    }
+    if (batchRows > 0) {
+      sendBatch();
+    }
+    waitForPending();
+    try {
+      encoder.writeTrailer();
+      copyIn.writeToCopy(encoder.getData(), 0, encoder.getLength());
+      encoder.clear();
+      return copyIn.endCopy();
+    } catch (HopDatabaseException e) {
+      cancel();
+      throw e;
+    } finally {
+      copyIn = null;
+    }
+  }
+
+  /** Abort the running COPY statement, if any, after an error. */
+  public void cancel() {
+    if (pending != null) {
+      // Let the background thread finish with the statement first
+      //
+      try {
+        pending.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        // The statement is aborted anyway
+      }
+      pending = null;
+    }
+    if (copyIn != null) {
+      copyIn.cancelCopy();
+      copyIn = null;
+    }
+    batchRows = 0;
+  }
+
+  /** Abort the running COPY statement, if any, and stop the background thread. */
+  public void close() {
+    cancel();
+    executor.shutdownNow();
+  }
+}
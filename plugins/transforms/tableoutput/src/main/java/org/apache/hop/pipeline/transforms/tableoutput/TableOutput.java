@@ -112,6 +112,11 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
           }
         }
       }
+
+      if (data.bulkLoad) {
+        data.copyWriter = createCopyWriter();
+        data.bulkLoad = data.copyWriter != null;
+      }
     }
 
     try {
@@ -230,6 +235,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       throw new HopTransformException("The tablename is not defined (empty)");
     }
 
+    if (data.copyWriter != null) {
+      return copyToTable(insertRowData, r);
+    }
+
     insertStatement = data.preparedStatements.get(tableName);
     if (insertStatement == null) {
       String sql =
@@ -279,7 +288,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       if ((data.commitSize > 0) && ((commitCounter % data.commitSize) == 0)) {
         if (data.db.getUseBatchInsert(data.batchMode)) {
           try {
-            insertStatement.executeBatch();
+            data.db.executeBatch(insertStatement);
             data.db.commit();
             insertStatement.clearBatch();
           } catch (SQLException ex) {
@@ -428,6 +437,91 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return outputRowData;
   }
 
+  /**
+   * Hand a row to the COPY statement. The statement is ended and committed every commit size
+   * rows.
+   */
+  private Object[] copyToTable(Object[] insertRowData, Object[] r) throws HopException {
+    // The row is encoded in the background so it can't be the one we pass on
+    //
+    data.copyWriter.write(insertRowData == r ? r.clone() : insertRowData);
+    if (isRowLevel()) {
+      logRowlevel("Copied row: " + data.insertRowMeta.getString(insertRowData));
+    }
+
+    data.copyCounter++;
+    if (data.copyCounter >= data.commitSize) {
+      data.copyWriter.endCopy();
+      data.db.commit();
+      data.copyCounter = 0;
+    }
+    return r;
+  }
+
+  /**
+   * Bulk loading copies all rows into a single table. Every row has to get in, so it can't be
+   * combined with error handling or ignoring errors. COPY doesn't return generated keys either.
+   */
+  private boolean isBulkLoadPossible(IDatabase dbInterface) {
+    if (!dbInterface.supportsBinaryCopy()) {
+      logBasic(BaseMessages.getString(PKG, "TableOutput.Log.BulkLoadNotSupported"));
+      return false;
+    }
+    if (getTransformMeta().isDoingErrorHandling()
+        || meta.isIgnoreErrors()
+        || meta.isReturningGeneratedKeys()
+        || meta.isPartitioningEnabled()
+        || meta.isTableNameInField()) {
+      logBasic(BaseMessages.getString(PKG, "TableOutput.Log.BulkLoadNotPossible"));
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Look up the types of the columns to copy into, we need them to encode the values.
+   *
+   * @return the writer or null if a column can't be copied into
+   */
+  private BinaryCopyWriter createCopyWriter() throws HopException {
+    String schemaName = resolve(meta.getSchemaName());
+    IRowMeta tableRowMeta = data.db.getTableFieldsMeta(schemaName, data.tableName);
+
+    StringBuilder sql = new StringBuilder("COPY ");
+    sql.append(data.databaseMeta.getQuotedSchemaTableCombination(this, schemaName, data.tableName));
+    sql.append(" (");
+    BinaryCopyEncoder.ColumnType[] columnTypes =
+        new BinaryCopyEncoder.ColumnType[data.insertRowMeta.size()];
+    for (int i = 0; i < columnTypes.length; i++) {
+      String name = data.insertRowMeta.getValueMeta(i).getName();
+      IValueMeta column = tableRowMeta == null ? null : tableRowMeta.searchValueMeta(name);
+      String typeName = column == null ? null : column.getOriginalColumnTypeName();
+      columnTypes[i] = BinaryCopyEncoder.ColumnType.forTypeName(typeName);
+      if (columnTypes[i] == null) {
+        logBasic(
+            BaseMessages.getString(
+                PKG, "TableOutput.Log.BulkLoadUnsupportedColumn", name, typeName));
+        return null;
+      }
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(data.databaseMeta.quoteField(name));
+    }
+    sql.append(") FROM STDIN BINARY");
+
+    if (log.isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "TableOutput.Log.BulkLoad", sql));
+    }
+    return new BinaryCopyWriter(
+        data.databaseMeta.getIDatabase(),
+        data.db.getConnection(),
+        sql.toString(),
+        data.insertRowMeta.clone(),
+        columnTypes,
+        getTransformName() + " COPY encoder");
+  }
+
   @Override
   public boolean isRowLevel() {
     return log.isRowLevel();
@@ -546,6 +640,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
           data.tableName = resolve(meta.getTableName());
         }
 
+        if (meta.isUseBulkLoad()) {
+          data.bulkLoad = isBulkLoadPossible(dbInterface);
+        }
+
         return true;
       } catch (HopException e) {
         logError("An error occurred initializing this transform: " + e.getMessage());
@@ -573,6 +671,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       try {
         emptyAndCommitBatchBuffers(true);
       } finally {
+        if (data.copyWriter != null) {
+          data.copyWriter.close();
+          data.copyWriter = null;
+        }
         data.db.disconnect();
         // Free data structures to enable GC
         data.db = null;
@@ -596,6 +698,11 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
   private void emptyAndCommitBatchBuffers(boolean dispose) {
     try {
+      if (data.copyWriter != null && getErrors() == 0) {
+        data.copyWriter.endCopy();
+        data.db.commit();
+        data.copyCounter = 0;
+      }
       for (String schemaTable : data.preparedStatements.keySet()) {
         // Get a commit counter per prepared statement to keep track of separate tables, etc.
         //
@@ -641,6 +748,9 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
       if (getErrors() > 0) {
         try {
+          if (data.copyWriter != null) {
+            data.copyWriter.cancel();
+          }
           data.db.rollback();
         } catch (HopDatabaseException e) {
           logError("Unexpected error rolling back the database connection.", e);
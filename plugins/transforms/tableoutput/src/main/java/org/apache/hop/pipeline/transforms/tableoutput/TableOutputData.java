@@ -65,6 +65,14 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
   public int commitSize;
 
+  /** Copy the rows with a binary COPY statement instead of inserting them? */
+  public boolean bulkLoad;
+
+  public BinaryCopyWriter copyWriter;
+
+  /** The number of rows copied since the last commit */
+  public int copyCounter;
+
   public TableOutputData() {
     super();
 
@@ -79,6 +79,9 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
   private Label wlBatch;
   private Button wBatch;
 
+  private Label wlBulkLoad;
+  private Button wBulkLoad;
+
   private Button wUsePart;
 
   private Label wlPartField;
@@ -496,13 +499,32 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
           }
         });
 
+    // Bulk load
+    wlBulkLoad = new Label(wMainComp, SWT.RIGHT);
+    wlBulkLoad.setText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Label"));
+    wlBulkLoad.setToolTipText(BaseMessages.getString(PKG, "TableOutputDialog.BulkLoad.Tooltip"));
+    props.setLook(wlBulkLoad);
+    FormData fdlBulkLoad = new FormData();
+    fdlBulkLoad.left = new FormAttachment(0, 0);
+    fdlBulkLoad.top = new FormAttachment(wBatch, margin);
+    fdlBulkLoad.right = new FormAttachment(middle, -margin);
+    wlBulkLoad.setLayoutData(fdlBulkLoad);
+    wBulkLoad = new Button(wMainComp, SWT.CHECK);
+    props.setLook(wBulkLoad);
+    FormData fdBulkLoad = new FormData();
+    fdBulkLoad.left = new FormAttachment(middle, 0);
+    fdBulkLoad.top = new FormAttachment(wlBulkLoad, 0, SWT.CENTER);
+    fdBulkLoad.right = new FormAttachment(100, 0);
+    wBulkLoad.setLayoutData(fdBulkLoad);
+    wBulkLoad.addSelectionListener(lsSelMod);
+
     // NameInField
     Label wlNameInField = new Label(wMainComp, SWT.RIGHT);
     wlNameInField.setText(BaseMessages.getString(PKG, "TableOutputDialog.NameInField.Label"));
     props.setLook(wlNameInField);
     FormData fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment(0, 0);
-    fdlNameInField.top = new FormAttachment(wBatch, margin * 5);
+    fdlNameInField.top = new FormAttachment(wBulkLoad, margin * 5);
     fdlNameInField.right = new FormAttachment(middle, -margin);
     wlNameInField.setLayoutData(fdlNameInField);
     wNameInField = new Button(wMainComp, SWT.CHECK);
@@ -1170,6 +1192,11 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     wlBatch.setEnabled(enableBatch);
     wBatch.setEnabled(enableBatch);
 
+    // Bulk loading copies all rows into one table, without returning keys
+    boolean enableBulkLoad = !returnKeys && !usePartitioning && !isTableNameInField;
+    wlBulkLoad.setEnabled(enableBulkLoad);
+    wBulkLoad.setEnabled(enableBulkLoad);
+
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled(specifyFields);
     wGetFields.setEnabled(specifyFields);
@@ -1213,6 +1240,7 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     wTruncate.setSelection(input.isTruncateTable());
     wIgnore.setSelection(input.isIgnoreErrors());
     wBatch.setSelection(input.isUseBatchUpdate());
+    wBulkLoad.setSelection(input.isUseBulkLoad());
 
     wCommit.setText(input.getCommitSize());
 
@@ -1268,6 +1296,7 @@ public class TableOutputDialog extends BaseTransformDialog implements ITransform
     info.setTruncateTable(wTruncate.getSelection());
     info.setIgnoreErrors(wIgnore.getSelection());
     info.setUseBatchUpdate(wBatch.getSelection());
+    info.setUseBulkLoad(wBulkLoad.getSelection());
     info.setPartitioningEnabled(wUsePart.getSelection());
     info.setPartitioningField(wPartField.getText());
     info.setPartitioningDaily(wPartDaily.getSelection());
@@ -99,6 +99,12 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
       injectionKeyDescription = "TableOutputMeta.Injection.UseBatch.Field")
   private boolean useBatchUpdate;
 
+  @HopMetadataProperty(
+      key = "use_bulk_load",
+      injectionKey = "USE_BULK_LOAD",
+      injectionKeyDescription = "TableOutputMeta.Injection.UseBulkLoad.Field")
+  private boolean useBulkLoad;
+
   @HopMetadataProperty(
       key = "partitioning_enabled",
       injectionKey = "PARTITION_OVER_TABLES",
@@ -370,6 +376,19 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     return useBatchUpdate;
   }
 
+  /**
+   * @return true if the rows should be loaded with a binary COPY statement on databases which
+   *     support it
+   */
+  public boolean isUseBulkLoad() {
+    return useBulkLoad;
+  }
+
+  /** @param useBulkLoad The useBulkLoad flag to set. */
+  public void setUseBulkLoad(boolean useBulkLoad) {
+    this.useBulkLoad = useBulkLoad;
+  }
+
   @Override
   public void setDefault() {
     tableName = "";
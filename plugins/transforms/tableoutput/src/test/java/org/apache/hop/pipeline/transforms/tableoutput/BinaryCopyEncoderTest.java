@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.apache.hop.pipeline.transforms.tableoutput.BinaryCopyEncoder.ColumnType;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class BinaryCopyEncoderTest {
+
+  private static ByteBuffer encode(IRowMeta rowMeta, ColumnType[] columnTypes, Object[] row)
+      throws Exception {
+    BinaryCopyEncoder encoder = new BinaryCopyEncoder(rowMeta, columnTypes);
+    encoder.writeRow(row);
+    return ByteBuffer.wrap(encoder.getData(), 0, encoder.getLength());
+  }
+
+  private static short[] encodeNumeric(String number) throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaBigNumber("number"));
+    ColumnType[] columnTypes = {ColumnType.NUMERIC};
+    ByteBuffer buffer = encode(rowMeta, columnTypes, new Object[] {new BigDecimal(number)});
+    assertEquals(1, buffer.getShort());
+    int length = buffer.getInt();
+    short[] numeric = new short[length / 2];
+    for (int i = 0; i < numeric.length; i++) {
+      numeric[i] = buffer.getShort();
+    }
+    assertEquals(0, buffer.remaining());
+    return numeric;
+  }
+
+  @Test
+  public void testHeaderAndTrailer() {
+    BinaryCopyEncoder encoder = new BinaryCopyEncoder(new RowMeta(), new ColumnType[0]);
+    encoder.writeHeader();
+    encoder.writeTrailer();
+    ByteBuffer buffer = ByteBuffer.wrap(encoder.getData(), 0, encoder.getLength());
+    byte[] signature = new byte[11];
+    buffer.get(signature);
+    assertEquals("PGCOPY\n\u00ff\r\n\0", new String(signature, StandardCharsets.ISO_8859_1));
+    assertEquals(0, buffer.getInt());
+    assertEquals(0, buffer.getInt());
+    assertEquals(-1, buffer.getShort());
+    assertEquals(0, buffer.remaining());
+
+    encoder.clear();
+    assertEquals(0, encoder.getLength());
+  }
+
+  @Test
+  public void testEncodeRow() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaInteger("small"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaString("empty"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("created"));
+    ColumnType[] columnTypes = {
+      ColumnType.INT8, ColumnType.INT4, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TIMESTAMPTZ
+    };
+
+    // 2000-01-01 00:00:01.000002 UTC
+    Timestamp timestamp = new Timestamp(946684801000L);
+    timestamp.setNanos(2000);
+
+    ByteBuffer buffer =
+        encode(rowMeta, columnTypes, new Object[] {42L, 7L, "caf\u00e9", null, timestamp});
+    assertEquals(5, buffer.getShort());
+    assertEquals(8, buffer.getInt());
+    assertEquals(42L, buffer.getLong());
+    assertEquals(4, buffer.getInt());
+    assertEquals(7, buffer.getInt());
+    assertEquals(5, buffer.getInt());
+    byte[] name = new byte[5];
+    buffer.get(name);
+    assertEquals("caf\u00e9", new String(name, StandardCharsets.UTF_8));
+    assertEquals(-1, buffer.getInt());
+    assertEquals(8, buffer.getInt());
+    assertEquals(1_000_002L, buffer.getLong());
+    assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  public void testEncodeDate() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    // Dates are encoded in the local time zone, like the driver does
+    //
+    Date date = new GregorianCalendar(2000, Calendar.JANUARY, 3).getTime();
+    ByteBuffer buffer = encode(rowMeta, new ColumnType[] {ColumnType.DATE}, new Object[] {date});
+    assertEquals(1, buffer.getShort());
+    assertEquals(4, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+  }
+
+  @Test(expected = Exception.class)
+  public void testIntegerOutOfRange() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("small"));
+    encode(rowMeta, new ColumnType[] {ColumnType.INT2}, new Object[] {100000L});
+  }
+
+  @Test
+  public void testEncodeNumeric() throws Exception {
+    // ndigits, weight, sign, dscale, digits in base 10000
+    //
+    assertArrayEquals(new short[] {3, 1, 0, 3, 1, 2345, 6780}, encodeNumeric("12345.678"));
+    assertArrayEquals(new short[] {1, -1, 0x4000, 4, 12}, encodeNumeric("-0.0012"));
+    assertArrayEquals(new short[] {1, -2, 0, 8, 12}, encodeNumeric("0.00000012"));
+    assertArrayEquals(new short[] {1, 1, 0, 0, 100}, encodeNumeric("1000000"));
+    assertArrayEquals(new short[] {1, 1, 0, 0, 100}, encodeNumeric("1E+6"));
+    assertArrayEquals(new short[] {0, 0, 0, 2}, encodeNumeric("0.00"));
+  }
+
+  @Test
+  public void testColumnTypeForTypeName() {
+    assertEquals(ColumnType.INT4, ColumnType.forTypeName("serial"));
+    assertEquals(ColumnType.TEXT, ColumnType.forTypeName("VARCHAR"));
+    assertEquals(ColumnType.TIMESTAMPTZ, ColumnType.forTypeName("timestamptz"));
+    assertNull(ColumnType.forTypeName("jsonb"));
+    assertNull(ColumnType.forTypeName(null));
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.exception.HopConversionException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.file.EncodingType;
 import org.apache.hop.core.file.TextFileInputField;
@@ -132,17 +133,28 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
     }
 
     try {
-      Object[] outputRowData = readOneRow(false, false); // get row, set busy!
-      // no more input to be expected...
-      if (outputRowData == null) {
-        if (openNextFile()) {
-          return true; // try again on the next loop...
-        } else {
-          setOutputDone(); // last file, end here
-          return false;
+      // Read a batch of rows and pass them on in one go
+      //
+      for (int i = 0; i < getRowsInBatch(); i++) {
+        // Don't read past the block of this transform copy...
+        //
+        if (i > 0 && data.parallel && data.totalBytesRead >= data.blockToRead) {
+          break;
         }
-      } else {
-        putRow(data.outputRowMeta, outputRowData); // copy row to possible alternate rowset(s).
+
+        Object[] outputRowData = readOneRow(false, false); // get row, set busy!
+        // no more input to be expected...
+        if (outputRowData == null) {
+          flushOutputRows();
+          if (openNextFile()) {
+            return true; // try again on the next loop...
+          } else {
+            setOutputDone(); // last file, end here
+            return false;
+          }
+        }
+
+        data.outputRows.add(outputRowData);
         if (checkFeedback(getLinesInput())) {
           if (log.isBasic()) {
             logBasic(
@@ -151,7 +163,12 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
           }
         }
       }
+      flushOutputRows(); // copy rows to possible alternate rowset(s).
     } catch (HopConversionException e) {
+      // Keep the rows read before the error in order
+      //
+      flushOutputRows();
+
       if (getTransformMeta().isDoingErrorHandling()) {
         StringBuilder errorDescriptions = new StringBuilder(100);
         StringBuilder errorFields = new StringBuilder(50);
@@ -181,6 +198,14 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
     return true;
   }
 
+  /** Pass the rows read so far to the next transform(s). */
+  private void flushOutputRows() throws HopTransformException {
+    if (!data.outputRows.isEmpty()) {
+      putRows(data.outputRowMeta, data.outputRows);
+      data.outputRows.clear();
+    }
+  }
+
   public void prepareToRunInParallel() throws HopException {
     try {
       // At this point it doesn't matter if we have 1 or more files.
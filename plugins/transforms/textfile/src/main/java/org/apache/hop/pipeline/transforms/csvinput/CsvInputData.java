@@ -27,6 +27,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.List;
 
 public class CsvInputData extends BaseTransformData implements ITransformData {
@@ -74,6 +75,9 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
 
   public IFieldsMapping fieldsMapping;
 
+  /** The rows read in the current batch */
+  public List<Object[]> outputRows = new ArrayList<>();
+
   /**
    * Data class for CsvInput transform
    *
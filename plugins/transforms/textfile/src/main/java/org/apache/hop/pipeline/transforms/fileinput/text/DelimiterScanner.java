@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Finds the next occurrence of any of a few bytes (delimiters, enclosures, line feeds) in a byte
+ * buffer. Eight bytes are compared at a time: a long is read from the buffer and every byte in it
+ * is compared with all the bytes we look for using a few arithmetic operations (SWAR, SIMD within
+ * a register). Direct buffers are read without copying the bytes to the heap.
+ *
+ * <p>Only {@link TextFileSplitter} uses it, to find the start of the first record of a byte range.
+ * The fields of the lines are split after the characters are decoded, in {@link
+ * TextFileInputUtils}.
+ */
+public final class DelimiterScanner {
+
+  private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+  private final byte[] bytes;
+
+  /** The bytes we look for, each repeated in all the bytes of a long */
+  private final long[] patterns;
+
+  /** @param bytes the bytes to look for */
+  public DelimiterScanner(byte... bytes) {
+    this.bytes = bytes.clone();
+    this.patterns = new long[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      patterns[i] = (bytes[i] & 0xFFL) * 0x0101010101010101L;
+    }
+  }
+
+  /**
+   * Find the first byte we look for in the buffer. The position and limit of the buffer are not
+   * used or changed.
+   *
+   * @param buffer the buffer to search
+   * @param from the index to start searching at
+   * @param to the index to stop searching at (exclusive)
+   * @return the index of the first matching byte or -1 if there is none
+   */
+  public int indexOf(ByteBuffer buffer, int from, int to) {
+    boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    int index = from;
+    for (; index + Long.BYTES <= to; index += Long.BYTES) {
+      long word = buffer.getLong(index);
+      long found = 0L;
+      for (long pattern : patterns) {
+        found |= zeroBytes(word ^ pattern);
+      }
+      if (found != 0L) {
+        int zeros =
+            bigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found);
+        return index + (zeros >>> 3);
+      }
+    }
+    for (; index < to; index++) {
+      byte b = buffer.get(index);
+      for (byte search : bytes) {
+        if (b == search) {
+          return index;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Sets the high bit of every byte of the value which is zero and clears all other bits. Unlike
+   * the shorter (v - 0x01..01) & ~v & 0x80..80 this has no false positives so we can use the first
+   * set bit in both byte orders.
+   */
+  static long zeroBytes(long value) {
+    long low = (value & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+    return ~(low | value | LOW_SEVEN_BITS);
+  }
+}
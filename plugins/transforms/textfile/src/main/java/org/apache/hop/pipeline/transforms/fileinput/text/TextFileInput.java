@@ -76,6 +76,16 @@ public class TextFileInput extends BaseFileInputTransform<TextFileInputMeta, Tex
       return false;
     }
 
+    // Split the files over the copies of the transform.
+    // Files we get from a previous transform are already spread over the copies.
+    //
+    data.transformNumber = getCopyNr();
+    data.totalNumberOfTransforms = getTransformMeta().getCopies(this);
+    data.parallel =
+        meta.content.runningInParallel
+            && !meta.inputFiles.acceptingFilenames
+            && data.totalNumberOfTransforms > 1;
+
     return true;
   }
 }
@@ -61,6 +61,13 @@ public class TextFileInputData extends BaseFileInputTransformData {
 
   public EncodingType encodingType;
 
+  /** Each copy of the transform reads its own byte range of every file */
+  public boolean parallel;
+
+  public int transformNumber;
+
+  public int totalNumberOfTransforms;
+
   public TextFileInputData() {
     // linked list is better, as usually .remove(0) is applied to this list
     lineBuffer = new LinkedList<>();
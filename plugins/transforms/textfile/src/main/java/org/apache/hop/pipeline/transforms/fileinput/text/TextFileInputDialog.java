@@ -133,6 +133,8 @@ public class TextFileInputDialog extends BaseTransformDialog
 
   private Text wEscape;
 
+  private Button wEnclBreaks;
+
   private Button wHeader;
 
   private Label wlNrHeader;
@@ -160,6 +162,8 @@ public class TextFileInputDialog extends BaseTransformDialog
 
   private Button wNoempty;
 
+  private Button wParallel;
+
   private Button wInclFilename;
 
   private Label wlInclFilenameField;
@@ -944,17 +948,13 @@ public class TextFileInputDialog extends BaseTransformDialog
     fdlEnclBreaks.top = new FormAttachment(wEnclosure, margin);
     fdlEnclBreaks.right = new FormAttachment(middle, -margin);
     wlEnclBreaks.setLayoutData(fdlEnclBreaks);
-    Button wEnclBreaks = new Button(wContentComp, SWT.CHECK);
+    wEnclBreaks = new Button(wContentComp, SWT.CHECK);
     props.setLook(wEnclBreaks);
     FormData fdEnclBreaks = new FormData();
     fdEnclBreaks.left = new FormAttachment(middle, 0);
     fdEnclBreaks.top = new FormAttachment(wlEnclBreaks, 0, SWT.CENTER);
     wEnclBreaks.setLayoutData(fdEnclBreaks);
 
-    // Disable until the logic works...
-    wlEnclBreaks.setEnabled(false);
-    wEnclBreaks.setEnabled(false);
-
     // Escape
     Label wlEscape = new Label(wContentComp, SWT.RIGHT);
     wlEscape.setText(BaseMessages.getString(PKG, "TextFileInputDialog.Escape.Label"));
@@ -1169,12 +1169,29 @@ public class TextFileInputDialog extends BaseTransformDialog
     fdNoempty.right = new FormAttachment(100, 0);
     wNoempty.setLayoutData(fdNoempty);
 
+    Label wlParallel = new Label(wContentComp, SWT.RIGHT);
+    wlParallel.setText(BaseMessages.getString(PKG, "TextFileInputDialog.Parallel.Label"));
+    props.setLook(wlParallel);
+    FormData fdlParallel = new FormData();
+    fdlParallel.left = new FormAttachment(0, 0);
+    fdlParallel.top = new FormAttachment(wNoempty, margin);
+    fdlParallel.right = new FormAttachment(middle, -margin);
+    wlParallel.setLayoutData(fdlParallel);
+    wParallel = new Button(wContentComp, SWT.CHECK);
+    props.setLook(wParallel);
+    wParallel.setToolTipText(BaseMessages.getString(PKG, "TextFileInputDialog.Parallel.Tooltip"));
+    FormData fdParallel = new FormData();
+    fdParallel.left = new FormAttachment(middle, 0);
+    fdParallel.top = new FormAttachment(wlParallel, 0, SWT.CENTER);
+    fdParallel.right = new FormAttachment(100, 0);
+    wParallel.setLayoutData(fdParallel);
+
     Label wlInclFilename = new Label(wContentComp, SWT.RIGHT);
     wlInclFilename.setText(BaseMessages.getString(PKG, "TextFileInputDialog.InclFilename.Label"));
     props.setLook(wlInclFilename);
     FormData fdlInclFilename = new FormData();
     fdlInclFilename.left = new FormAttachment(0, 0);
-    fdlInclFilename.top = new FormAttachment(wNoempty, margin);
+    fdlInclFilename.top = new FormAttachment(wParallel, margin);
     fdlInclFilename.right = new FormAttachment(middle, -margin);
     wlInclFilename.setLayoutData(fdlInclFilename);
     wInclFilename = new Button(wContentComp, SWT.CHECK);
@@ -2155,6 +2172,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     if (meta.content.escapeCharacter != null) {
       wEscape.setText(meta.content.escapeCharacter);
     }
+    wEnclBreaks.setSelection(meta.content.breakInEnclosureAllowed);
     wHeader.setSelection(meta.content.header);
     wNrHeader.setText("" + meta.content.nrHeaderLines);
     wFooter.setSelection(meta.content.footer);
@@ -2168,6 +2186,7 @@ public class TextFileInputDialog extends BaseTransformDialog
       wCompression.setText(meta.content.fileCompression);
     }
     wNoempty.setSelection(meta.content.noEmptyLines);
+    wParallel.setSelection(meta.content.runningInParallel);
     wInclFilename.setSelection(meta.content.includeFilename);
     wInclRownum.setSelection(meta.content.includeRowNumber);
     wRownumByFile.setSelection(meta.content.rowNumberByFile);
@@ -2453,6 +2472,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     meta.content.includeFilename = wInclFilename.getSelection();
     meta.content.includeRowNumber = wInclRownum.getSelection();
     meta.content.rowNumberByFile = wRownumByFile.getSelection();
+    meta.content.breakInEnclosureAllowed = wEnclBreaks.getSelection();
     meta.content.header = wHeader.getSelection();
     meta.content.nrHeaderLines = Const.toInt(wNrHeader.getText(), 1);
     meta.content.footer = wFooter.getSelection();
@@ -2465,6 +2485,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     meta.content.fileCompression = wCompression.getText();
     meta.content.dateFormatLenient = wDateLenient.getSelection();
     meta.content.noEmptyLines = wNoempty.getSelection();
+    meta.content.runningInParallel = wParallel.getSelection();
     meta.content.encoding = wEncoding.getText();
     meta.content.length = wLength.getText();
 
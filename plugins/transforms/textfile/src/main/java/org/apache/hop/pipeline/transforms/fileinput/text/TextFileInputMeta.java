@@ -147,6 +147,13 @@ public class TextFileInputMeta
     @Injection(name = "COMPRESSION_TYPE")
     public String fileCompression;
 
+    /**
+     * Flag indicating that the copies of the transform each read their own part of the files
+     * instead of all of them
+     */
+    @Injection(name = "RUNNING_IN_PARALLEL")
+    public boolean runningInParallel;
+
     /** Flag indicating that we should skip all empty lines */
     @Injection(name = "NO_EMPTY_LINES")
     public boolean noEmptyLines;
@@ -302,6 +309,8 @@ public class TextFileInputMeta
       content.rowNumberByFile =
           YES.equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "rownumByFile"));
       content.rowNumberField = XmlHandler.getTagValue(transformNode, "rownum_field");
+      content.runningInParallel =
+          YES.equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "parallel"));
       content.fileFormat = XmlHandler.getTagValue(transformNode, "format");
       content.encoding = XmlHandler.getTagValue(transformNode, "encoding");
       content.length = XmlHandler.getTagValue(transformNode, "length");
@@ -517,6 +526,7 @@ public class TextFileInputMeta
     content.rowNumberField = "";
     content.dateFormatLenient = true;
     content.rowNumberByFile = false;
+    content.runningInParallel = false;
 
     errorHandling.errorIgnored = false;
     errorHandling.skipBadFiles = false;
@@ -729,6 +739,7 @@ public class TextFileInputMeta
     retval.append("    ").append(XmlHandler.addTagValue("rownum", content.includeRowNumber));
     retval.append("    ").append(XmlHandler.addTagValue("rownumByFile", content.rowNumberByFile));
     retval.append("    ").append(XmlHandler.addTagValue("rownum_field", content.rowNumberField));
+    retval.append("    ").append(XmlHandler.addTagValue("parallel", content.runningInParallel));
     retval.append("    ").append(XmlHandler.addTagValue("format", content.fileFormat));
     retval.append("    ").append(XmlHandler.addTagValue("encoding", content.encoding));
     retval.append("    ").append(XmlHandler.addTagValue("length", content.length));
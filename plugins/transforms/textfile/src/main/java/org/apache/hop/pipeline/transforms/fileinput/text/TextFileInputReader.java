@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.fileinput.text;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.compress.CompressionInputStream;
 import org.apache.hop.core.compress.CompressionProviderFactory;
@@ -25,7 +27,9 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.file.EncodingType;
 import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.errorhandling.AbstractFileErrorHandler;
 import org.apache.hop.pipeline.transforms.file.IBaseFileInputReader;
@@ -33,10 +37,15 @@ import org.apache.hop.pipeline.transforms.file.IBaseFileInputTransformControl;
 import org.apache.hop.ui.pipeline.transform.common.TextFileLineUtil;
 
 import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /** Reader for one text file. */
 public class TextFileInputReader implements IBaseFileInputReader {
+  private static final Class<?> PKG = TextFileInputMeta.class; // For Translator
+
   private static final int BUFFER_SIZE_INPUT_STREAM = 8192;
 
   private final IBaseFileInputTransformControl transform;
@@ -48,6 +57,15 @@ public class TextFileInputReader implements IBaseFileInputReader {
 
   private final InputStreamReader isr;
 
+  /** The part of the file we read has the header lines */
+  private final boolean header;
+
+  /** The part of the file we read has the footer lines */
+  private final boolean footer;
+
+  /** Lines are joined as long as an enclosed field isn't closed */
+  private final boolean breakInEnclosure;
+
   protected long lineInFile;
 
   private boolean first;
@@ -82,13 +100,66 @@ public class TextFileInputReader implements IBaseFileInputReader {
     BufferedInputStream inStream = new BufferedInputStream(in, BUFFER_SIZE_INPUT_STREAM);
     BOMDetector bom = new BOMDetector(inStream);
 
+    String charsetName = null;
     if (bom.bomExist()) {
       // if BOM exist, use it instead defined charset
-      isr = new InputStreamReader(inStream, bom.getCharset());
+      charsetName = bom.getCharset();
     } else if (meta.getEncoding() != null && meta.getEncoding().length() > 0) {
-      isr = new InputStreamReader(inStream, meta.getEncoding());
+      charsetName = meta.getEncoding();
+    }
+
+    breakInEnclosure =
+        meta.content.breakInEnclosureAllowed
+            && data.fileType == TextFileLineUtil.FILE_TYPE_CSV
+            && !Utils.isEmpty(data.enclosure);
+
+    InputStream rangeStream = inStream;
+    if (data.parallel) {
+      // Only read our own part of the file, the BOM was skipped already
+      //
+      long size = file.getContent().getSize();
+      long[] range = getByteRange(file, size, charsetName);
+      if (range == null) {
+        // This file can't be split: the first copy reads all of it
+        //
+        if (data.transformNumber == 0) {
+          if (log.isDetailed()) {
+            log.logDetailed(
+                BaseMessages.getString(
+                    PKG, "TextFileInput.Log.FileNotSplit", file.getName().getFriendlyURI()));
+          }
+        } else {
+          rangeStream = new BoundedInputStream(inStream, 0L);
+        }
+        header = meta.content.header;
+        footer = meta.content.footer;
+      } else {
+        long start = Math.max(range[0], bom.getBomSize());
+        IOUtils.skipFully(inStream, start - bom.getBomSize());
+        rangeStream = new BoundedInputStream(inStream, Math.max(0L, range[1] - start));
+
+        header = meta.content.header && range[0] == 0L;
+        footer = meta.content.footer && range[1] >= size;
+
+        if (log.isDetailed()) {
+          log.logDetailed(
+              BaseMessages.getString(
+                  PKG,
+                  "TextFileInput.Log.ReadingByteRange",
+                  file.getName().getFriendlyURI(),
+                  Long.toString(range[0]),
+                  Long.toString(range[1])));
+        }
+      }
     } else {
-      isr = new InputStreamReader(inStream);
+      header = meta.content.header;
+      footer = meta.content.footer;
+    }
+
+    if (charsetName != null) {
+      isr = new InputStreamReader(rangeStream, charsetName);
+    } else {
+      isr = new InputStreamReader(rangeStream);
     }
 
     String encoding = isr.getEncoding();
@@ -97,8 +168,77 @@ public class TextFileInputReader implements IBaseFileInputReader {
     readInitial();
   }
 
+  /**
+   * Calculate the byte range of the file this copy of the transform reads.
+   *
+   * @return the start and end (exclusive) of the range or null if the file can't be split
+   */
+  private long[] getByteRange(FileObject file, long size, String charsetName) throws Exception {
+    TextFileSplitter splitter = createSplitter(charsetName);
+    if (splitter == null) {
+      return null;
+    }
+
+    long start = size * data.transformNumber / data.totalNumberOfTransforms;
+    long end = size * (data.transformNumber + 1) / data.totalNumberOfTransforms;
+    try (InputStream stream = HopVfs.getInputStream(file)) {
+      return splitter.alignOffsets(stream, start, end);
+    }
+  }
+
+  /**
+   * A file can be split on line feeds if it isn't compressed, if every line is a record and if a
+   * line feed byte is always a line feed character. With breaks in enclosed fields the delimiter,
+   * enclosure and escape character need to be single bytes too.
+   *
+   * @return the splitter or null if the file can't be split
+   */
+  private TextFileSplitter createSplitter(String charsetName) {
+    if (!"None".equalsIgnoreCase(meta.content.fileCompression)
+        || meta.content.layoutPaged
+        || meta.content.lineWrapped) {
+      return null;
+    }
+    Charset charset =
+        Utils.isEmpty(charsetName) ? Charset.defaultCharset() : Charset.forName(charsetName);
+    if (!StandardCharsets.UTF_8.equals(charset) && charset.newEncoder().maxBytesPerChar() > 1) {
+      return null;
+    }
+    byte[] lineFeed = "\n".getBytes(charset);
+    if (lineFeed.length != 1 || lineFeed[0] != '\n') {
+      return null;
+    }
+    if (!breakInEnclosure) {
+      return new TextFileSplitter();
+    }
+
+    byte[] delimiter = getSingleByte(data.separator, charset);
+    byte[] enclosure = getSingleByte(data.enclosure, charset);
+    if (delimiter == null || enclosure == null) {
+      return null;
+    }
+    Byte escape = null;
+    if (!Utils.isEmpty(data.escapeCharacter)) {
+      byte[] escapeBytes = getSingleByte(data.escapeCharacter, charset);
+      if (escapeBytes == null) {
+        return null;
+      }
+      escape = escapeBytes[0];
+    }
+    return new TextFileSplitter(data.fileFormatType, delimiter[0], enclosure[0], escape);
+  }
+
+  /** @return the encoded string or null if it is not a single byte */
+  private static byte[] getSingleByte(String string, Charset charset) {
+    if (string == null || string.length() != 1 || string.charAt(0) >= 0x80) {
+      return null;
+    }
+    byte[] bytes = string.getBytes(charset);
+    return bytes.length == 1 ? bytes : null;
+  }
+
   protected void readInitial() throws Exception {
-    data.doneWithHeader = !meta.content.header;
+    data.doneWithHeader = !header;
     // /////////////////////////////////////////////////////////////////////////////
     // Read the first lines...
 
@@ -111,13 +251,13 @@ public class TextFileInputReader implements IBaseFileInputReader {
      * OK, read a number of lines in the buffer: The header rows The nr rows in the page : optional The footer rows
      */
     int bufferSize = 1;
-    bufferSize += meta.content.header ? meta.content.nrHeaderLines : 0;
+    bufferSize += header ? meta.content.nrHeaderLines : 0;
     bufferSize +=
         meta.content.layoutPaged
             ? meta.content.nrLinesPerPage * (Math.max(0, meta.content.nrWraps) + 1)
             : Math.max(0, meta.content.nrWraps); // it helps when we have wrapped input w/o header
 
-    bufferSize += meta.content.footer ? meta.content.nrFooterLines : 0;
+    bufferSize += footer ? meta.content.nrFooterLines : 0;
 
     // See if we need to skip the document header lines...
     if (meta.content.layoutPaged) {
@@ -134,7 +274,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
 
     for (int i = 0; i < bufferSize && !data.doneReading; i++) {
       boolean wasNotFiltered =
-          tryToReadLine(!meta.content.header || i >= meta.content.nrHeaderLines);
+          tryToReadLine(!header || i >= meta.content.nrHeaderLines);
       if (!wasNotFiltered) {
         // grab another line, this one got filtered
         bufferSize++;
@@ -252,7 +392,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
           // We need to reset these BEFORE the next header line is read, so that it
           // is treated as a header ... obviously, only if there is no footer, and we are
           // done reading data.
-          if (!meta.content.footer && (data.pageLinesRead == meta.content.nrLinesPerPage)) {
+          if (!footer && (data.pageLinesRead == meta.content.nrLinesPerPage)) {
             /*
              * OK, we are done reading the footer lines, start again on 'next page' with the header
              */
@@ -267,14 +407,14 @@ public class TextFileInputReader implements IBaseFileInputReader {
         } else {
           // done reading the data lines, skip the footer lines
 
-          if (meta.content.footer && data.footerLinesRead < meta.content.nrFooterLines) {
+          if (footer && data.footerLinesRead < meta.content.nrFooterLines) {
             if (log.isRowLevel()) {
               log.logRowlevel("P-FOOTER: " + textLine.line);
             }
             data.footerLinesRead++;
           }
 
-          if (!meta.content.footer || data.footerLinesRead >= meta.content.nrFooterLines) {
+          if (!footer || data.footerLinesRead >= meta.content.nrFooterLines) {
             /*
              * OK, we are done reading the footer lines, start again on 'next page' with the header
              */
@@ -303,7 +443,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
          * of footer lines THEN we can remove the remaining rows from the buffer: they are all footer rows.
          */
         if (data.doneReading
-            && meta.content.footer
+            && footer
             && data.lineBuffer.size() < meta.content.nrFooterLines) {
           data.lineBuffer.clear();
         } else {
@@ -453,6 +593,22 @@ public class TextFileInputReader implements IBaseFileInputReader {
     line =
         TextFileLineUtil.getLine(
             log, isr, data.encodingType, data.fileFormatType, data.lineStringBuilder);
+    if (breakInEnclosure) {
+      // A line break in an enclosed field is part of the field: add the next line
+      //
+      String lineBreak = data.fileFormatType == TextFileLineUtil.FILE_FORMAT_DOS ? "\r\n" : "\n";
+      while (line != null
+          && TextFileInputUtils.isEnclosureOpen(
+              line, data.separator, data.enclosure, data.escapeCharacter)) {
+        String nextLine =
+            TextFileLineUtil.getLine(
+                log, isr, data.encodingType, data.fileFormatType, data.lineStringBuilder);
+        if (nextLine == null) {
+          break;
+        }
+        line = line + lineBreak + nextLine;
+      }
+    }
     if (line != null) {
       // when there is no header, check the filter for the first line
       if (applyFilter) {
@@ -588,6 +588,76 @@ public class TextFileInputUtils {
     return r;
   }
 
+  /**
+   * Same as line.substring(offset, offset + length).equals(string) without creating a substring
+   * for every character of an enclosed field.
+   */
+  private static boolean regionEquals(String line, int offset, int length, String string) {
+    return string != null
+        && string.length() == length
+        && line.regionMatches(offset, string, 0, length);
+  }
+
+  /**
+   * See if a line ends in an enclosed field. In that case the line break is part of the field and
+   * the record continues on the next line. Only an enclosure at the start of a field opens an
+   * enclosed field, two enclosures in a row are an enclosure in the field and the escape character
+   * escapes the next character. {@link TextFileSplitter} uses the same rules to find the start of
+   * records in a file.
+   *
+   * @param line the line or the lines read so far
+   * @param delimiter the field delimiter
+   * @param enclosure the enclosure
+   * @param escapeCharacter the escape character or null if there is none
+   * @return true if the record continues on the next line
+   */
+  public static boolean isEnclosureOpen(
+      String line, String delimiter, String enclosure, String escapeCharacter) {
+    if (Utils.isEmpty(enclosure)) {
+      return false;
+    }
+    int lenDelim = Utils.isEmpty(delimiter) ? 0 : delimiter.length();
+    int lenEncl = enclosure.length();
+    int lenEsc = Utils.isEmpty(escapeCharacter) ? 0 : escapeCharacter.length();
+
+    boolean fieldStart = true;
+    boolean inEnclosure = false;
+    int pos = 0;
+    int length = line.length();
+    while (pos < length) {
+      if (inEnclosure) {
+        if (line.startsWith(enclosure, pos)) {
+          pos += lenEncl;
+          if (line.startsWith(enclosure, pos)) {
+            // Two enclosures: an enclosure in the field
+            pos += lenEncl;
+          } else {
+            inEnclosure = false;
+            fieldStart = false;
+          }
+        } else if (lenEsc > 0 && line.startsWith(escapeCharacter, pos)) {
+          pos += lenEsc + 1;
+        } else {
+          pos++;
+        }
+      } else if (fieldStart && line.startsWith(enclosure, pos)) {
+        inEnclosure = true;
+        pos += lenEncl;
+      } else if (lenDelim > 0 && line.startsWith(delimiter, pos)) {
+        fieldStart = true;
+        pos += lenDelim;
+      } else {
+        fieldStart = false;
+        if (lenEsc > 0 && line.startsWith(escapeCharacter, pos)) {
+          pos += lenEsc + 1;
+        } else {
+          pos++;
+        }
+      }
+    }
+    return inEnclosure;
+  }
+
   public static final String[] convertLineToStrings(
       ILogChannel log,
       String line,
@@ -677,11 +747,11 @@ public class TextFileInputUtils {
               isEnclosure =
                   lenEncl > 0
                       && p + lenEncl < length
-                      && line.substring(p, p + lenEncl).equals(enclosure);
+                      && regionEquals(line, p, lenEncl, enclosure);
               isEscape =
                   lenEsc > 0
                       && p + lenEsc < length
-                      && line.substring(p, p + lenEsc).equals(inf.content.escapeCharacter);
+                      && regionEquals(line, p, lenEsc, inf.content.escapeCharacter);
 
               // Is it really an enclosure? See if it's not repeated twice or escaped!
               if ((isEnclosure || isEscape) && p < length - 1) {
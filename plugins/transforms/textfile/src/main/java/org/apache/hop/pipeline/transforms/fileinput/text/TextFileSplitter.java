@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hop.ui.pipeline.transform.common.TextFileLineUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits a text file in byte ranges so that every copy of a transform can read its own part of the
+ * file. A range always starts right after the line feed which ends a record, so no record is read
+ * twice or cut in half.
+ *
+ * <p>When line breaks are allowed in enclosed fields a line feed in an enclosed field doesn't end
+ * the record. Whether or not we're in an enclosed field can only be known by reading the file from
+ * the start so in that case the file is scanned from the first byte up to the end of the range. The
+ * rules are the same as the ones of {@link TextFileInputUtils#isEnclosureOpen(String, String,
+ * String, String)} which joins the lines of these records when reading.
+ */
+public class TextFileSplitter {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final byte LINE_FEED = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
+  private static final int FIELD_START = 0;
+  private static final int IN_FIELD = 1;
+  private static final int IN_ENCLOSURE = 2;
+  private static final int ENCLOSURE_END = 3;
+
+  private final boolean enclosureAware;
+  private final boolean mixed;
+  private final byte delimiter;
+  private final byte enclosure;
+  private final byte escape;
+  private final boolean hasEscape;
+
+  private final DelimiterScanner lineScanner;
+  private final DelimiterScanner fieldScanner;
+  private final DelimiterScanner enclosureScanner;
+
+  /** Split after any line feed. */
+  public TextFileSplitter() {
+    this.enclosureAware = false;
+    this.mixed = false;
+    this.delimiter = 0;
+    this.enclosure = 0;
+    this.escape = 0;
+    this.hasEscape = false;
+    this.lineScanner = new DelimiterScanner(LINE_FEED);
+    this.fieldScanner = null;
+    this.enclosureScanner = null;
+  }
+
+  /**
+   * Split after line feeds which are not in an enclosed field.
+   *
+   * @param fileFormatType the file format type, see {@link TextFileLineUtil}
+   * @param delimiter the encoded field delimiter
+   * @param enclosure the encoded enclosure
+   * @param escape the encoded escape character or null if there is none
+   */
+  public TextFileSplitter(int fileFormatType, byte delimiter, byte enclosure, Byte escape) {
+    this.enclosureAware = true;
+    this.mixed = fileFormatType == TextFileLineUtil.FILE_FORMAT_MIXED;
+    this.delimiter = delimiter;
+    this.enclosure = enclosure;
+    this.hasEscape = escape != null;
+    this.escape = hasEscape ? escape : 0;
+    this.lineScanner = new DelimiterScanner(LINE_FEED);
+
+    // In mixed mode carriage returns are dropped: they don't end a line
+    //
+    byte[] fieldBytes = mixed ? new byte[] {LINE_FEED} : new byte[] {LINE_FEED, CARRIAGE_RETURN};
+    fieldBytes = append(fieldBytes, delimiter);
+    if (hasEscape) {
+      fieldBytes = append(fieldBytes, this.escape);
+      this.enclosureScanner = new DelimiterScanner(enclosure, this.escape);
+    } else {
+      this.enclosureScanner = new DelimiterScanner(enclosure);
+    }
+    this.fieldScanner = new DelimiterScanner(fieldBytes);
+  }
+
+  private static byte[] append(byte[] bytes, byte b) {
+    byte[] result = new byte[bytes.length + 1];
+    System.arraycopy(bytes, 0, result, 0, bytes.length);
+    result[bytes.length] = b;
+    return result;
+  }
+
+  /**
+   * Move byte offsets in a file to the start of the next record. An offset which is the start of a
+   * record stays where it is. Offsets beyond the last record end up at the end of the file.
+   *
+   * @param in the file, positioned at the first byte
+   * @param offsets the offsets in ascending order
+   * @return the start of the records
+   * @throws IOException in case the file can't be read
+   */
+  public long[] alignOffsets(InputStream in, long... offsets) throws IOException {
+    if (enclosureAware) {
+      return alignAtRecords(in, offsets);
+    } else {
+      return alignAtLineFeeds(in, offsets);
+    }
+  }
+
+  /** Skip to the byte before each offset and look for the next line feed from there. */
+  private long[] alignAtLineFeeds(InputStream in, long[] offsets) throws IOException {
+    long[] aligned = new long[offsets.length];
+    ReadableByteChannel channel = Channels.newChannel(in);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    buffer.limit(0);
+    long bufferStart = 0L;
+    long boundary = 0L;
+
+    for (int i = 0; i < offsets.length; i++) {
+      long from = offsets[i] - 1;
+      if (from < 0) {
+        aligned[i] = 0L;
+        continue;
+      }
+      if (boundary > from) {
+        // The line feed we found for the previous offset is the first one for this offset too
+        //
+        aligned[i] = boundary;
+        continue;
+      }
+      long streamPosition = bufferStart + buffer.limit();
+      if (from >= streamPosition) {
+        IOUtils.skipFully(in, from - streamPosition);
+        bufferStart = from;
+        buffer.limit(0);
+      }
+      int index = (int) (from - bufferStart);
+      while (true) {
+        int found = lineScanner.indexOf(buffer, index, buffer.limit());
+        if (found >= 0) {
+          boundary = bufferStart + found + 1;
+          break;
+        }
+        bufferStart += buffer.limit();
+        if (!fill(channel, buffer)) {
+          boundary = bufferStart;
+          break;
+        }
+        index = 0;
+      }
+      aligned[i] = boundary;
+    }
+    return aligned;
+  }
+
+  /** Read the file from the start and keep track of enclosed fields. */
+  private long[] alignAtRecords(InputStream in, long[] offsets) throws IOException {
+    long[] aligned = new long[offsets.length];
+    int next = 0;
+    while (next < offsets.length && offsets[next] <= 0) {
+      aligned[next++] = 0L;
+    }
+
+    ReadableByteChannel channel = Channels.newChannel(in);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    long bufferStart = 0L;
+    int state = FIELD_START;
+    boolean skip = false;
+
+    while (next < offsets.length && fill(channel, buffer)) {
+      int limit = buffer.limit();
+      int index = 0;
+      while (index < limit && next < offsets.length) {
+        // Skip over the bytes which don't change the state
+        //
+        if (!skip && state == IN_FIELD) {
+          index = fieldScanner.indexOf(buffer, index, limit);
+        } else if (!skip && state == IN_ENCLOSURE) {
+          index = enclosureScanner.indexOf(buffer, index, limit);
+        }
+        if (index < 0) {
+          break;
+        }
+        byte b = buffer.get(index++);
+
+        if (mixed && b == CARRIAGE_RETURN) {
+          continue;
+        }
+        if (state == ENCLOSURE_END) {
+          if (b == enclosure) {
+            // Two enclosures: an enclosure in the field
+            //
+            state = IN_ENCLOSURE;
+            continue;
+          }
+          state = IN_FIELD;
+        }
+        if (state == IN_ENCLOSURE) {
+          if (skip) {
+            skip = false;
+          } else if (b == enclosure) {
+            state = ENCLOSURE_END;
+          } else if (hasEscape && b == escape) {
+            skip = true;
+          }
+          continue;
+        }
+
+        if (b == LINE_FEED || b == CARRIAGE_RETURN) {
+          state = FIELD_START;
+          skip = false;
+          if (b == LINE_FEED) {
+            long boundary = bufferStart + index;
+            while (next < offsets.length && boundary >= offsets[next]) {
+              aligned[next++] = boundary;
+            }
+          }
+        } else if (skip) {
+          skip = false;
+          state = IN_FIELD;
+        } else if (state == FIELD_START && b == enclosure) {
+          state = IN_ENCLOSURE;
+        } else if (b == delimiter) {
+          state = FIELD_START;
+        } else {
+          skip = hasEscape && b == escape;
+          state = IN_FIELD;
+        }
+      }
+      bufferStart += limit;
+    }
+
+    while (next < offsets.length) {
+      aligned[next++] = bufferStart;
+    }
+    return aligned;
+  }
+
+  /**
+   * Fill the buffer with the next bytes of the file.
+   *
+   * @return false if the end of the file was reached
+   */
+  private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.clear();
+    int read = 0;
+    while (read >= 0 && buffer.hasRemaining()) {
+      read = channel.read(buffer);
+    }
+    buffer.flip();
+    return buffer.hasRemaining();
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.compress.CompressionOutputStream;
 import org.apache.hop.core.compress.CompressionProviderFactory;
 import org.apache.hop.core.compress.ICompressionProvider;
+import org.apache.hop.core.compress.ParallelCompressionOutputStream;
 import org.apache.hop.core.compress.zip.ZipCompressionProvider;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
@@ -170,7 +171,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           OutputStream fileOutputStream =
               getOutputStream(filename, this, !isZipFile && appendToExistingFile);
           CompressionOutputStream compressionOutputStream =
-              compressionProvider.createOutputStream(fileOutputStream);
+              createCompressionOutputStream(compressionProvider, fileOutputStream);
 
           // The compression output stream may also archive entries. For this we create the filename
           // (with appropriate extension) and add it as an entry to the output stream. For providers
@@ -186,7 +187,7 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           }
 
           BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+              new BufferedOutputStream(compressionOutputStream, getBufferSize());
 
           fileStreams =
               data.new FileStream(fileOutputStream, compressionOutputStream, bufferedOutputStream);
@@ -207,10 +208,10 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
           OutputStream fileOutputStream = getOutputStream(filename, this, true);
           ICompressionProvider compressionProvider = getCompressionProvider();
           CompressionOutputStream compressionOutputStream =
-              compressionProvider.createOutputStream(fileOutputStream);
+              createCompressionOutputStream(compressionProvider, fileOutputStream);
           compressionOutputStream.addEntry(filename, resolve(meta.getExtension()));
           BufferedOutputStream bufferedOutputStream =
-              new BufferedOutputStream(compressionOutputStream, 5000);
+              new BufferedOutputStream(compressionOutputStream, getBufferSize());
 
           fileStreams.setFileOutputStream(fileOutputStream);
           fileStreams.setCompressedOutputStream(compressionOutputStream);
@@ -236,6 +237,14 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     }
   }
 
+  private CompressionOutputStream createCompressionOutputStream(
+      ICompressionProvider compressionProvider, OutputStream fileOutputStream) throws IOException {
+    if (isParallelCompression()) {
+      return new ParallelCompressionOutputStream(fileOutputStream, compressionProvider);
+    }
+    return compressionProvider.createOutputStream(fileOutputStream);
+  }
+
   public String getOutputFileName(Object[] row) throws HopException {
     String filename = null;
     if (row == null) {
@@ -282,6 +291,15 @@ public class TextFileOutput<Meta extends TextFileOutputMeta, Data extends TextFi
     return flushInterval;
   }
 
+  public int getBufferSize() {
+    return Math.max(
+        1, Const.toInt(variables.getVariable(Const.HOP_FILE_OUTPUT_BUFFER_SIZE), 5000));
+  }
+
+  public boolean isParallelCompression() {
+    return variables.getVariableBoolean(Const.HOP_FILE_OUTPUT_PARALLEL_COMPRESSION, false);
+  }
+
   public int getMaxOpenFiles() {
     String var = variables.getVariable("HOP_FILE_OUTPUT_MAX_STREAM_COUNT");
     int maxStreamCount = 0;
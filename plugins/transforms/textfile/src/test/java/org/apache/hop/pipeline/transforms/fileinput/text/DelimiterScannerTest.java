@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class DelimiterScannerTest {
+
+  private ByteBuffer createBuffer(String string, boolean direct, ByteOrder order) {
+    byte[] bytes = string.getBytes(StandardCharsets.ISO_8859_1);
+    ByteBuffer buffer =
+        direct ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+    buffer.put(bytes);
+    buffer.order(order);
+    return buffer;
+  }
+
+  @Test
+  public void testIndexOf() {
+    String string = "abcdefghij;klmnopqrstuvwxyz\"0123456789\n\u00ff";
+    DelimiterScanner scanner = new DelimiterScanner((byte) ';', (byte) '"', (byte) 0xff);
+
+    for (boolean direct : new boolean[] {true, false}) {
+      for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+        ByteBuffer buffer = createBuffer(string, direct, order);
+        for (int from = 0; from < string.length(); from++) {
+          int expected = -1;
+          for (int i = from; i < string.length() && expected < 0; i++) {
+            char c = string.charAt(i);
+            if (c == ';' || c == '"' || c == '\u00ff') {
+              expected = i;
+            }
+          }
+          assertEquals(expected, scanner.indexOf(buffer, from, string.length()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIndexOfStopsAtTo() {
+    ByteBuffer buffer = createBuffer("aaaaaaaaaaaaaaaa;", true, ByteOrder.BIG_ENDIAN);
+    DelimiterScanner scanner = new DelimiterScanner((byte) ';');
+    assertEquals(-1, scanner.indexOf(buffer, 0, 16));
+    assertEquals(16, scanner.indexOf(buffer, 0, 17));
+  }
+
+  @Test
+  public void testZeroBytes() {
+    // Bytes with the value 1 next to a zero byte are not zero
+    assertEquals(0x0000800000000000L, DelimiterScanner.zeroBytes(0x0101000101010101L));
+    assertEquals(0L, DelimiterScanner.zeroBytes(0x8080808080808080L));
+    assertEquals(0x8080808080808080L, DelimiterScanner.zeroBytes(0L));
+  }
+}
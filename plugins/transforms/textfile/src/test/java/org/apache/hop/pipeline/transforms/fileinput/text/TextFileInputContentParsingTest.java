@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.fileinput.text;
 
+import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.variables.Variables;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
 import org.apache.hop.pipeline.transforms.file.BaseFileField;
@@ -270,6 +271,76 @@ public class TextFileInputContentParsingTest extends BaseTextParsingTest {
     check(new Object[][] {{"first", "1", "1.1"}, {"third", "3", "3.3"}});
   }
 
+  @Test
+  public void testBreakInEnclosure() throws Exception {
+
+    meta.content.fileFormat = "unix";
+    meta.content.breakInEnclosureAllowed = true;
+
+    initByFile("enclosure-breaks.csv");
+
+    setFields(
+        new BaseFileField("f1", -1, -1),
+        new BaseFileField("f2", -1, -1),
+        new BaseFileField("f2", -1, -1));
+
+    process();
+
+    check(
+        new Object[][] {
+          {"first\nline", "1", "1.1"},
+          {"second;\"quoted\"", "2", "2.2"},
+          {"third\nthird\nthird", "3", "3.3"},
+          {"fourth", "4", "4.4"},
+          {"fifth", "5", "5.5"},
+          {"sixth", "6", "6.6"},
+          {"seventh", "7", "7.7"}
+        });
+  }
+
+  @Test
+  public void testParallel() throws Exception {
+
+    meta.content.fileFormat = "unix";
+    meta.content.breakInEnclosureAllowed = true;
+    meta.content.runningInParallel = true;
+    transformMeta.setCopies(2);
+
+    // The middle of the file is in the enclosed field of the third record.
+    // The second copy starts reading at the fourth record.
+    //
+    initByFile("enclosure-breaks.csv");
+    setFields(
+        new BaseFileField("f1", -1, -1),
+        new BaseFileField("f2", -1, -1),
+        new BaseFileField("f2", -1, -1));
+    process();
+
+    // The first copy reads the header and the first three records
+    //
+    data = new TextFileInputData();
+    data.outputRowMeta = new RowMeta();
+    transform = new TextFileInput(transformMeta, meta, data, 0, pipelineMeta, pipeline);
+    transform.init();
+    transform.addRowListener(rowListener);
+    setFields(
+        new BaseFileField("f1", -1, -1),
+        new BaseFileField("f2", -1, -1),
+        new BaseFileField("f2", -1, -1));
+    process();
+
+    check(
+        new Object[][] {
+          {"fourth", "4", "4.4"},
+          {"fifth", "5", "5.5"},
+          {"sixth", "6", "6.6"},
+          {"seventh", "7", "7.7"},
+          {"first\nline", "1", "1.1"},
+          {"second;\"quoted\"", "2", "2.2"},
+          {"third\nthird\nthird", "3", "3.3"}
+        });
+  }
+
   @Test
   public void testBOM_UTF8() throws Exception {
 
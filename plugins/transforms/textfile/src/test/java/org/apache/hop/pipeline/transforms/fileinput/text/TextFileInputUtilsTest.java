@@ -168,4 +168,25 @@ public class TextFileInputUtilsTest {
     Assert.assertEquals("A\\B", strings[0]);
     Assert.assertEquals("C", strings[1]);
   }
+
+  @Test
+  public void isEnclosureOpen() {
+    Assert.assertFalse(TextFileInputUtils.isEnclosureOpen("a;\"b\";c", ";", "\"", null));
+    Assert.assertTrue(TextFileInputUtils.isEnclosureOpen("a;\"b;c", ";", "\"", null));
+    Assert.assertFalse(TextFileInputUtils.isEnclosureOpen("a;\"b\"", ";", "\"", null));
+
+    // Only an enclosure at the start of a field opens an enclosed field
+    Assert.assertFalse(TextFileInputUtils.isEnclosureOpen("a;b\"c", ";", "\"", null));
+
+    // Two enclosures are an enclosure in the field
+    Assert.assertTrue(TextFileInputUtils.isEnclosureOpen("\"a\"\"b", ";", "\"", null));
+    Assert.assertFalse(TextFileInputUtils.isEnclosureOpen("\"a\"\"b\"", ";", "\"", null));
+
+    // The escape character escapes the enclosure, the delimiter or the line break
+    Assert.assertTrue(TextFileInputUtils.isEnclosureOpen("\"a\\\"", ";", "\"", "\\"));
+    Assert.assertTrue(TextFileInputUtils.isEnclosureOpen("\"a\\", ";", "\"", "\\"));
+    Assert.assertFalse(TextFileInputUtils.isEnclosureOpen("a\\;\"b", ";", "\"", "\\"));
+
+    Assert.assertFalse(TextFileInputUtils.isEnclosureOpen("\"a", ";", null, null));
+  }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import org.apache.hop.ui.pipeline.transform.common.TextFileLineUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TextFileSplitterTest {
+
+  private long[] align(TextFileSplitter splitter, String file, long... offsets) throws Exception {
+    byte[] bytes = file.getBytes(StandardCharsets.UTF_8);
+    return splitter.alignOffsets(new ByteArrayInputStream(bytes), offsets);
+  }
+
+  @Test
+  public void testAlignAtLineFeeds() throws Exception {
+    TextFileSplitter splitter = new TextFileSplitter();
+    String file = "a;1\n\"b\nc\";2\nd;3\n";
+
+    assertArrayEquals(
+        new long[] {0, 4, 4, 4, 7, 7, 12, 12, 16, 16},
+        align(splitter, file, 0, 1, 3, 4, 5, 7, 8, 12, 13, 16));
+  }
+
+  @Test
+  public void testAlignAtRecords() throws Exception {
+    TextFileSplitter splitter =
+        new TextFileSplitter(TextFileLineUtil.FILE_FORMAT_UNIX, (byte) ';', (byte) '"', null);
+    String file = "a;1\n\"b\nc\";2\nd;3\n";
+
+    // The line feed in the enclosed field doesn't end the record
+    //
+    assertArrayEquals(
+        new long[] {0, 4, 4, 12, 12, 12, 16, 16},
+        align(splitter, file, 0, 1, 4, 5, 8, 12, 13, 16));
+  }
+
+  @Test
+  public void testEscapedEnclosures() throws Exception {
+    String file = "\"a\"\"\n\";1\n\"b\\\"\n\";2\nc;3\n";
+
+    // Two enclosures are an enclosure in the field
+    //
+    TextFileSplitter splitter =
+        new TextFileSplitter(TextFileLineUtil.FILE_FORMAT_UNIX, (byte) ';', (byte) '"', null);
+    assertArrayEquals(new long[] {9, 14}, align(splitter, file, 2, 10));
+
+    // The escape character escapes the enclosure too
+    //
+    splitter =
+        new TextFileSplitter(
+            TextFileLineUtil.FILE_FORMAT_UNIX, (byte) ';', (byte) '"', (byte) '\\');
+    assertArrayEquals(new long[] {9, 18}, align(splitter, file, 2, 10));
+  }
+
+  @Test
+  public void testLargeFile() throws Exception {
+    // Records spanning the buffers used to read the file
+    //
+    StringBuilder file = new StringBuilder();
+    List<Long> recordStarts = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      recordStarts.add((long) file.length());
+      if (i % 3 == 0) {
+        file.append("\"enclosed\nfield ").append(i).append("\";").append(i).append('\n');
+      } else {
+        file.append("field ").append(i).append(';').append(i).append('\n');
+      }
+    }
+    long size = file.length();
+
+    TextFileSplitter splitter =
+        new TextFileSplitter(TextFileLineUtil.FILE_FORMAT_MIXED, (byte) ';', (byte) '"', null);
+    int copies = 7;
+    long[] offsets = new long[copies + 1];
+    for (int i = 0; i <= copies; i++) {
+      offsets[i] = size * i / copies;
+    }
+    long[] aligned = align(splitter, file.toString(), offsets);
+
+    assertEquals(0L, aligned[0]);
+    assertEquals(size, aligned[copies]);
+    for (int i = 1; i < copies; i++) {
+      long expected = size;
+      for (long start : recordStarts) {
+        if (start >= offsets[i]) {
+          expected = start;
+          break;
+        }
+      }
+      assertEquals(expected, aligned[i]);
+    }
+  }
+}
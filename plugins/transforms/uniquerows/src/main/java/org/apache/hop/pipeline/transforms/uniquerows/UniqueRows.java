@@ -28,6 +28,7 @@ import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 /** Removes the same consequetive rows from the input stream(s). */
 public class UniqueRows extends BaseTransform<UniqueRowsMeta, UniqueRowsData> {
@@ -101,6 +102,14 @@ public class UniqueRows extends BaseTransform<UniqueRowsMeta, UniqueRowsData> {
       if (data.sendDuplicateRows && !Utils.isEmpty(meta.getErrorDescription())) {
         data.realErrorDescription = resolve(meta.getErrorDescription());
       }
+
+      if (fields.isEmpty()) {
+        // Compare the complete row...
+        int[] allFieldnrs = IntStream.range(0, data.outputRowMeta.size()).toArray();
+        data.rowComparator = data.outputRowMeta.getRowComparator(allFieldnrs);
+      } else {
+        data.rowComparator = data.outputRowMeta.getRowComparator(data.fieldnrs);
+      }
     }
 
     // Emptied in a previous batch in single threading mode.
@@ -109,14 +118,7 @@ public class UniqueRows extends BaseTransform<UniqueRowsMeta, UniqueRowsData> {
       data.previous = data.inputRowMeta.cloneRow(r);
     }
 
-    boolean isEqual = false;
-
-    if (meta.getCompareFields() == null || meta.getCompareFields().isEmpty()) {
-      // Compare the complete row...
-      isEqual = data.outputRowMeta.compare(r, data.previous) == 0;
-    } else {
-      isEqual = data.outputRowMeta.compare(r, data.previous, data.fieldnrs) == 0;
-    }
+    boolean isEqual = data.rowComparator.compare(r, data.previous) == 0;
     if (!isEqual) {
       Object[] outputRow = addCounter(data.outputRowMeta, data.previous, data.counter);
       putRow(data.outputRowMeta, outputRow); // copy row to possible alternate
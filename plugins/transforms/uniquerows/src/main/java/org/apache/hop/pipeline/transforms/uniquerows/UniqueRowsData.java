@@ -21,6 +21,8 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
+import java.util.Comparator;
+
 public class UniqueRowsData extends BaseTransformData implements ITransformData {
   protected IRowMeta outputRowMeta;
   protected IRowMeta compareRowMeta;
@@ -28,6 +30,7 @@ public class UniqueRowsData extends BaseTransformData implements ITransformData
   protected long counter;
   protected Object[] previous;
   protected int[] fieldnrs;
+  protected Comparator<Object[]> rowComparator;
   protected String compareFields;
   protected String realErrorDescription;
   protected boolean sendDuplicateRows;
@@ -21,6 +21,7 @@ import org.apache.commons.lang.ArrayUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.database.StagingTableMerger;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -36,11 +37,17 @@ import org.apache.hop.pipeline.transform.TransformMeta;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
 
 /** Update data in a database table, does NOT ever perform an insert. */
 public class Update extends BaseTransform<UpdateMeta, UpdateData> {
   private static final Class<?> PKG = UpdateMeta.class; // For Translator
 
+  /** The number of rows to merge at once in set based mode when there is no commit size */
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+
   public Update(
       TransformMeta transformMeta,
       UpdateMeta meta,
@@ -207,6 +214,15 @@ public class Update extends BaseTransform<UpdateMeta, UpdateData> {
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
 
+      if (data.merger != null) {
+        try {
+          mergeBatch();
+        } catch (HopException e) {
+          logError(BaseMessages.getString(PKG, "Update.Log.ErrorInTransform"), e);
+          setErrors(1);
+          stopAll();
+        }
+      }
       setOutputDone();
       return false;
     }
@@ -295,41 +311,49 @@ public class Update extends BaseTransform<UpdateMeta, UpdateData> {
                   + data.valuenrs[i]);
         }
       }
-      if (meta.isSkipLookup()) {
-        // We skip lookup
-        // but we need fields for update
-        data.lookupParameterRowMeta = new RowMeta();
-        for (int i = 0; i < meta.getLookupField().getLookupKeys().size(); i++) {
-          UpdateKeyField keyItem = meta.getLookupField().getLookupKeys().get(i);
-          if ("BETWEEN".equalsIgnoreCase(keyItem.getKeyCondition())) {
-            data.lookupParameterRowMeta.addValueMeta(
-                getInputRowMeta().searchValueMeta(keyItem.getKeyStream()));
-            data.lookupParameterRowMeta.addValueMeta(
-                getInputRowMeta().searchValueMeta(keyItem.getKeyStream2()));
-          } else {
-            if ("= ~NULL".equalsIgnoreCase(keyItem.getKeyCondition())) {
+      if (meta.isSetBased() && isSetBasedPossible(databaseMeta)) {
+        openMerger();
+      } else {
+        if (meta.isSkipLookup()) {
+          // We skip lookup
+          // but we need fields for update
+          data.lookupParameterRowMeta = new RowMeta();
+          for (int i = 0; i < meta.getLookupField().getLookupKeys().size(); i++) {
+            UpdateKeyField keyItem = meta.getLookupField().getLookupKeys().get(i);
+            if ("BETWEEN".equalsIgnoreCase(keyItem.getKeyCondition())) {
               data.lookupParameterRowMeta.addValueMeta(
                   getInputRowMeta().searchValueMeta(keyItem.getKeyStream()));
               data.lookupParameterRowMeta.addValueMeta(
-                  getInputRowMeta().searchValueMeta(keyItem.getKeyStream()).clone());
-            } else if (!"IS NULL".equalsIgnoreCase(keyItem.getKeyCondition())
-                && !"IS NOT NULL".equalsIgnoreCase(keyItem.getKeyCondition())) {
-              data.lookupParameterRowMeta.addValueMeta(
-                  getInputRowMeta().searchValueMeta(keyItem.getKeyStream()));
+                  getInputRowMeta().searchValueMeta(keyItem.getKeyStream2()));
+            } else {
+              if ("= ~NULL".equalsIgnoreCase(keyItem.getKeyCondition())) {
+                data.lookupParameterRowMeta.addValueMeta(
+                    getInputRowMeta().searchValueMeta(keyItem.getKeyStream()));
+                data.lookupParameterRowMeta.addValueMeta(
+                    getInputRowMeta().searchValueMeta(keyItem.getKeyStream()).clone());
+              } else if (!"IS NULL".equalsIgnoreCase(keyItem.getKeyCondition())
+                  && !"IS NOT NULL".equalsIgnoreCase(keyItem.getKeyCondition())) {
+                data.lookupParameterRowMeta.addValueMeta(
+                    getInputRowMeta().searchValueMeta(keyItem.getKeyStream()));
+              }
             }
           }
+        } else {
+          setLookup(getInputRowMeta());
         }
-      } else {
-        setLookup(getInputRowMeta());
+        prepareUpdate(getInputRowMeta());
       }
-      prepareUpdate(getInputRowMeta());
     }
 
     try {
-      Object[] outputRow =
-          lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
-      if (outputRow != null) {
-        putRow(data.outputRowMeta, outputRow); // copy non-ignored rows to output rowset(s)
+      if (data.merger != null) {
+        addToBatch(r); // the row is passed on once its batch is merged
+      } else {
+        Object[] outputRow =
+            lookupValues(getInputRowMeta(), r); // add new values to the row in rowset[0].
+        if (outputRow != null) {
+          putRow(data.outputRowMeta, outputRow); // copy non-ignored rows to output rowset(s)
+        }
       }
       if (checkFeedback(getLinesRead())) {
         if (log.isBasic()) {
@@ -357,6 +381,144 @@ public class Update extends BaseTransform<UpdateMeta, UpdateData> {
     return true;
   }
 
+  /**
+   * Set based mode merges rows with plain key equality into a database which can merge. If that's
+   * not the case we log why and fall back to looking up and updating the rows one by one.
+   */
+  private boolean isSetBasedPossible(DatabaseMeta databaseMeta) {
+    String reason = null;
+    if (!databaseMeta.getIDatabase().supportsMerge()) {
+      reason =
+          BaseMessages.getString(
+              PKG, "Update.Log.SetBased.NotSupported", databaseMeta.getPluginName());
+    } else if (getTransformMeta().isDoingErrorHandling()) {
+      reason = BaseMessages.getString(PKG, "Update.Log.SetBased.ErrorHandling");
+    } else if (!Utils.isEmpty(meta.getIgnoreFlagField())) {
+      reason = BaseMessages.getString(PKG, "Update.Log.SetBased.IgnoreFlagField");
+    } else if (meta.getLookupField().getLookupKeys().isEmpty()
+        || meta.getLookupField().getUpdateFields().isEmpty()) {
+      reason = BaseMessages.getString(PKG, "Update.Log.SetBased.NoKeysOrValues");
+    } else {
+      for (UpdateKeyField keyItem : meta.getLookupField().getLookupKeys()) {
+        if (!"=".equals(Const.trim(Const.NVL(keyItem.getKeyCondition(), "")))) {
+          reason =
+              BaseMessages.getString(
+                  PKG, "Update.Log.SetBased.KeyCondition", keyItem.getKeyCondition());
+          break;
+        }
+      }
+    }
+    if (reason != null) {
+      logBasic(BaseMessages.getString(PKG, "Update.Log.SetBasedNotPossible", reason));
+      return false;
+    }
+    return true;
+  }
+
+  private void openMerger() throws HopException {
+    IRowMeta stagingRowMeta = new RowMeta();
+    List<Integer> stagingFieldnrs = new ArrayList<>();
+    List<String> keyColumns = new ArrayList<>();
+    List<String> updateColumns = new ArrayList<>();
+
+    // All key conditions are "=" so there is one key field nr per key
+    //
+    List<UpdateKeyField> keyItems = meta.getLookupField().getLookupKeys();
+    for (int i = 0; i < keyItems.size(); i++) {
+      String column = keyItems.get(i).getKeyLookup();
+      addStagingColumn(stagingRowMeta, stagingFieldnrs, column, data.keynrs[i]);
+      keyColumns.add(column);
+    }
+    List<UpdateField> fieldItems = meta.getLookupField().getUpdateFields();
+    for (int i = 0; i < fieldItems.size(); i++) {
+      String column = fieldItems.get(i).getUpdateLookup();
+      addStagingColumn(stagingRowMeta, stagingFieldnrs, column, data.valuenrs[i]);
+      if (!keyColumns.contains(column)) {
+        updateColumns.add(column);
+      }
+    }
+    data.stagingFieldnrs = ArrayUtils.toPrimitive(stagingFieldnrs.toArray(new Integer[0]));
+
+    data.merger =
+        new StagingTableMerger(
+            data.db,
+            data.schemaTable,
+            StagingTableMerger.getStagingName(getTransformName(), getCopyNr()),
+            stagingRowMeta,
+            keyColumns,
+            Collections.emptyList(),
+            updateColumns);
+    data.merger.open();
+
+    int commitSize = meta.getCommitSize(this);
+    data.batchSize = commitSize > 0 ? commitSize : DEFAULT_BATCH_SIZE;
+    data.batchKeys = new TreeSet<>(getInputRowMeta().getRowComparator(data.keynrs));
+    data.batchRows = new ArrayList<>(data.batchSize);
+
+    if (log.isDetailed()) {
+      logDetailed(BaseMessages.getString(PKG, "Update.Log.SetBased", data.batchSize));
+    }
+  }
+
+  private void addStagingColumn(
+      IRowMeta stagingRowMeta, List<Integer> stagingFieldnrs, String column, int fieldnr) {
+    if (stagingRowMeta.indexOfValue(column) < 0) {
+      IValueMeta valueMeta = getInputRowMeta().getValueMeta(fieldnr).clone();
+      valueMeta.setName(column);
+      stagingRowMeta.addValueMeta(valueMeta);
+      stagingFieldnrs.add(fieldnr);
+    }
+  }
+
+  private void addToBatch(Object[] row) throws HopException {
+    if (!data.batchKeys.add(row)) {
+      // A row can only be changed once in a merge
+      //
+      mergeBatch();
+      data.batchKeys.add(row);
+    }
+    Object[] stagingRow = new Object[data.stagingFieldnrs.length];
+    for (int i = 0; i < data.stagingFieldnrs.length; i++) {
+      stagingRow[i] = row[data.stagingFieldnrs[i]];
+    }
+    data.merger.addRow(stagingRow);
+    data.batchRows.add(row);
+
+    if (data.batchRows.size() >= data.batchSize) {
+      mergeBatch();
+    }
+  }
+
+  private void mergeBatch() throws HopException {
+    int rows = data.batchRows.size();
+    if (rows == 0) {
+      return;
+    }
+    // Fail before changing anything when keys are missing
+    //
+    long matched = data.merger.stage();
+    if (matched < rows && !meta.isErrorIgnored()) {
+      throw new HopDatabaseException(
+          BaseMessages.getString(PKG, "Update.Exception.KeysCouldNotFound", rows - matched));
+    }
+    data.merger.apply();
+
+    long changed = meta.isSkipLookup() ? matched : data.merger.getChangedRows();
+
+    // Like row by row: existing rows without changes are skipped
+    //
+    addLinesInput(rows);
+    addLinesUpdated(changed);
+    addLinesSkipped(matched - changed);
+    if (!data.db.isAutoCommit()) {
+      data.db.commit();
+    }
+
+    putRows(data.outputRowMeta, data.batchRows);
+    data.batchRows.clear();
+    data.batchKeys.clear();
+  }
+
   public void setLookup(IRowMeta rowMeta) throws HopDatabaseException {
     data.lookupParameterRowMeta = new RowMeta();
     data.lookupReturnRowMeta = new RowMeta();
@@ -540,11 +702,23 @@ public class Update extends BaseTransform<UpdateMeta, UpdateData> {
   @Override
   public void batchComplete() throws HopException {
     // This is needed to properly handle transactions when we are using SingleThreadedExecutor
+    if (data.merger != null) {
+      mergeBatch();
+    }
     commitBatch(false);
   }
 
   @Override
   public void dispose() {
+    if (data.merger != null) {
+      try {
+        data.merger.close();
+      } catch (HopDatabaseException e) {
+        logError(
+            BaseMessages.getString(PKG, "Update.Log.UnableToDropStagingTable") + e.toString());
+      }
+      data.merger = null;
+    }
     // This is needed to properly handle transactions when we are using SingleThreadedExecutor
     commitBatch(true);
     super.dispose();
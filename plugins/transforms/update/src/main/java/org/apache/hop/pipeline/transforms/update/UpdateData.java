@@ -18,11 +18,14 @@
 package org.apache.hop.pipeline.transforms.update;
 
 import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.StagingTableMerger;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Set;
 
 public class UpdateData extends BaseTransformData implements ITransformData {
   public Database db;
@@ -46,6 +49,14 @@ public class UpdateData extends BaseTransformData implements ITransformData {
   public IRowMeta lookupReturnRowMeta;
   public IRowMeta updateParameterRowMeta;
 
+  /** Merges the rows in batches in set based mode, null when processing rows one by one */
+  public StagingTableMerger merger;
+
+  public int[] stagingFieldnrs; // Stream value nrs of the staging table columns
+  public int batchSize;
+  public Set<Object[]> batchKeys; // The keys in the current batch
+  public List<Object[]> batchRows; // The rows in the current batch, passed on after the merge
+
   public UpdateData() {
     super();
 
@@ -42,6 +42,7 @@ import org.apache.hop.ui.core.widget.MetaSelectionLine;
 import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
+import org.apache.hop.ui.pipeline.transform.ComponentSelectionListener;
 import org.apache.hop.ui.pipeline.transform.ITableItemInsertListener;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -89,6 +90,8 @@ public class UpdateDialog extends BaseTransformDialog implements ITransformDialo
 
   private Button wSkipLookup;
 
+  private Button wSetBased;
+
   /** List of ColumnInfo that should have the field names of the selected database table */
   private final List<ColumnInfo> tableFieldColumns = new ArrayList<>();
 
@@ -253,13 +256,32 @@ public class UpdateDialog extends BaseTransformDialog implements ITransformDialo
           }
         });
 
+    // Set based update
+    Label wlSetBased = new Label(shell, SWT.RIGHT);
+    wlSetBased.setText(BaseMessages.getString(PKG, "UpdateDialog.SetBased.Label"));
+    props.setLook(wlSetBased);
+    FormData fdlSetBased = new FormData();
+    fdlSetBased.left = new FormAttachment(0, 0);
+    fdlSetBased.top = new FormAttachment(wBatch, margin);
+    fdlSetBased.right = new FormAttachment(middle, -margin);
+    wlSetBased.setLayoutData(fdlSetBased);
+    wSetBased = new Button(shell, SWT.CHECK);
+    wSetBased.setToolTipText(BaseMessages.getString(PKG, "UpdateDialog.SetBased.Tooltip"));
+    props.setLook(wSetBased);
+    FormData fdSetBased = new FormData();
+    fdSetBased.left = new FormAttachment(middle, 0);
+    fdSetBased.top = new FormAttachment(wlSetBased, 0, SWT.CENTER);
+    fdSetBased.right = new FormAttachment(100, 0);
+    wSetBased.setLayoutData(fdSetBased);
+    wSetBased.addSelectionListener(new ComponentSelectionListener(input));
+
     // UsePart update
     Label wlSkipLookup = new Label(shell, SWT.RIGHT);
     wlSkipLookup.setText(BaseMessages.getString(PKG, "UpdateDialog.SkipLookup.Label"));
     props.setLook(wlSkipLookup);
     FormData fdlSkipLookup = new FormData();
     fdlSkipLookup.left = new FormAttachment(0, 0);
-    fdlSkipLookup.top = new FormAttachment(wBatch, margin);
+    fdlSkipLookup.top = new FormAttachment(wSetBased, margin);
     fdlSkipLookup.right = new FormAttachment(middle, -margin);
     wlSkipLookup.setLayoutData(fdlSkipLookup);
     wSkipLookup = new Button(shell, SWT.CHECK);
@@ -624,6 +646,7 @@ public class UpdateDialog extends BaseTransformDialog implements ITransformDialo
 
     wCommit.setText(input.getCommitSizeVar());
     wBatch.setSelection(input.isUseBatchUpdate());
+    wSetBased.setSelection(input.isSetBased());
     wSkipLookup.setSelection(input.isSkipLookup());
     wErrorIgnored.setSelection(input.isErrorIgnored());
     if (input.getIgnoreFlagField() != null) {
@@ -701,6 +724,7 @@ public class UpdateDialog extends BaseTransformDialog implements ITransformDialo
     inf.setConnection(wConnection.getText());
     inf.setCommitSize(wCommit.getText());
     inf.setUseBatchUpdate(wBatch.getSelection());
+    inf.setSetBased(wSetBased.getSelection());
     inf.setSkipLookup(wSkipLookup.getSelection());
 
     if (log.isDebug()) {
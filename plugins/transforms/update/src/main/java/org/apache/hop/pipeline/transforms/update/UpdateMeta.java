@@ -98,6 +98,13 @@ public class UpdateMeta extends BaseTransformMeta<Update, UpdateData> {
       injectionKey = "BATCH_UPDATE")
   private boolean useBatchUpdate;
 
+  /** Update the rows in batches through a staging table instead of one by one */
+  @HopMetadataProperty(
+      key = "set_based",
+      injectionKeyDescription = "UpdateMeta.Injection.SetBased",
+      injectionKey = "SET_BASED")
+  private boolean setBased;
+
   /** database connection */
   @HopMetadataProperty(
       key = "connection",
@@ -678,4 +685,14 @@ public class UpdateMeta extends BaseTransformMeta<Update, UpdateData> {
   public void setUseBatchUpdate(boolean useBatchUpdate) {
     this.useBatchUpdate = useBatchUpdate;
   }
+
+  /** @return true if the rows are updated in batches through a staging table */
+  public boolean isSetBased() {
+    return setBased;
+  }
+
+  /** @param setBased true to update the rows in batches through a staging table */
+  public void setSetBased(boolean setBased) {
+    this.setBased = setBased;
+  }
 }
@@ -93,7 +93,8 @@ public class UpdateMetaTest implements IInitializer<ITransformMeta> {
             "error_ignored",
             "ignore_flag_field",
             "skip_lookup",
-            "use_batch");
+            "use_batch",
+            "set_based");
 
     Map<String, String> getterMap =
         new HashMap<String, String>() {
@@ -105,6 +106,7 @@ public class UpdateMetaTest implements IInitializer<ITransformMeta> {
             put("ignore_flag_field", "getIgnoreFlagField");
             put("skip_lookup", "isSkipLookup");
             put("use_batch", "isUseBatchUpdate");
+            put("set_based", "isSetBased");
           }
         };
     Map<String, String> setterMap =
@@ -117,6 +119,7 @@ public class UpdateMetaTest implements IInitializer<ITransformMeta> {
             put("ignore_flag_field", "setIgnoreFlagField");
             put("skip_lookup", "setSkipLookup");
             put("use_batch", "setUseBatchUpdate");
+            put("set_based", "setSetBased");
           }
         };
 
@@ -20,6 +20,8 @@ package org.apache.hop.pipeline.transforms.xml.xmloutput;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.compress.NoneCompressionProvider;
+import org.apache.hop.core.compress.ParallelCompressionOutputStream;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
@@ -35,6 +37,7 @@ import org.apache.hop.pipeline.transforms.xml.xmloutput.XmlField.ContentType;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.OutputStream;
 import java.util.zip.ZipEntry;
@@ -292,6 +295,16 @@ public class XmlOutput extends BaseTransform<XmlOutputMeta, XmlOutputData> {
       } else {
         outputStream = HopVfs.getOutputStream(file, false);
       }
+      if (variables.getVariableBoolean(Const.HOP_FILE_OUTPUT_PARALLEL_COMPRESSION, false)) {
+        // Compress and write the file in the background
+        outputStream =
+            new ParallelCompressionOutputStream(outputStream, new NoneCompressionProvider());
+      }
+      outputStream =
+          new BufferedOutputStream(
+              outputStream,
+              Math.max(
+                  1, Const.toInt(variables.getVariable(Const.HOP_FILE_OUTPUT_BUFFER_SIZE), 5000)));
       if (meta.getEncoding() != null && meta.getEncoding().length() > 0) {
         logBasic("Opening output stream in encoding: " + meta.getEncoding());
         data.writer = XML_OUT_FACTORY.createXMLStreamWriter(outputStream, meta.getEncoding());
@@ -342,12 +355,7 @@ public class XmlOutput extends BaseTransform<XmlOutputMeta, XmlOutputData> {
         data.writer.writeEndDocument();
         data.writer.close();
 
-        if (meta.isZipped()) {
-          data.zip.closeEntry();
-          data.zip.finish();
-          data.zip.close();
-        }
-
+        // This also finishes the zip file as the buffers in front of it are flushed first
         closeOutputStream(outputStream);
 
         retval = true;
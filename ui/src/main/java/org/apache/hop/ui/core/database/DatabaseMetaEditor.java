@@ -85,6 +85,10 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
   private TextVar wPreferredSchema;
   private TextVar wSqlStatements;
 
+  private Button wUsePool;
+  private TextVar wMaxPoolSize;
+  private TableView wPoolParameters;
+
   private TableView wOptions;
 
   private PropsUi props;
@@ -174,6 +178,7 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
 
     addGeneralTab();
     addAdvancedTab();
+    addPoolingTab();
     addOptionsTab();
 
     // Select the general tab
@@ -211,6 +216,10 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wPreserveCase.addListener(SWT.Selection, modifyListener);
     wPreferredSchema.addListener(SWT.Modify, modifyListener);
     wSqlStatements.addListener(SWT.Modify, modifyListener);
+    wUsePool.addListener(SWT.Selection, modifyListener);
+    wUsePool.addListener(SWT.Selection, event -> enableFields());
+    wMaxPoolSize.addListener(SWT.Modify, modifyListener);
+    wPoolParameters.addListener(SWT.Modify, modifyListener);
     wOptions.addListener(SWT.Modify, modifyListener);
   }
 
@@ -624,6 +633,114 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wAdvancedTab.setControl(wAdvancedComp);
   }
 
+  private void addPoolingTab() {
+
+    CTabItem wPoolingTab = new CTabItem(wTabFolder, SWT.NONE);
+    wPoolingTab.setText(
+        "   " + BaseMessages.getString(PKG, "DatabaseDialog.PoolingTab.title") + "   ");
+
+    Composite wPoolingComp = new Composite(wTabFolder, SWT.NONE);
+    props.setLook(wPoolingComp);
+
+    FormLayout poolingLayout = new FormLayout();
+    poolingLayout.marginWidth = Const.FORM_MARGIN * 2;
+    poolingLayout.marginHeight = Const.FORM_MARGIN * 2;
+    wPoolingComp.setLayout(poolingLayout);
+
+    // Use a connection pool?
+    //
+    Label wlUsePool = new Label(wPoolingComp, SWT.RIGHT);
+    props.setLook(wlUsePool);
+    wlUsePool.setText(BaseMessages.getString(PKG, "DatabaseDialog.label.UseConnectionPool"));
+    wlUsePool.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseDialog.tooltip.UseConnectionPool"));
+    FormData fdlUsePool = new FormData();
+    fdlUsePool.top = new FormAttachment(0, 0);
+    fdlUsePool.left = new FormAttachment(0, 0); // First one in the left top corner
+    fdlUsePool.right = new FormAttachment(middle, 0);
+    wlUsePool.setLayoutData(fdlUsePool);
+    wUsePool = new Button(wPoolingComp, SWT.CHECK | SWT.LEFT);
+    props.setLook(wUsePool);
+    FormData fdUsePool = new FormData();
+    fdUsePool.top = new FormAttachment(wlUsePool, 0, SWT.CENTER);
+    fdUsePool.left = new FormAttachment(middle, margin); // To the right of the label
+    fdUsePool.right = new FormAttachment(100, 0);
+    wUsePool.setLayoutData(fdUsePool);
+    Control lastControl = wUsePool;
+
+    // The maximum number of connections in the pool
+    //
+    Label wlMaxPoolSize = new Label(wPoolingComp, SWT.RIGHT);
+    props.setLook(wlMaxPoolSize);
+    wlMaxPoolSize.setText(BaseMessages.getString(PKG, "DatabaseDialog.label.MaximumPoolSize"));
+    FormData fdlMaxPoolSize = new FormData();
+    fdlMaxPoolSize.top = new FormAttachment(lastControl, margin);
+    fdlMaxPoolSize.left = new FormAttachment(0, 0);
+    fdlMaxPoolSize.right = new FormAttachment(middle, 0);
+    wlMaxPoolSize.setLayoutData(fdlMaxPoolSize);
+    wMaxPoolSize =
+        new TextVar(manager.getVariables(), wPoolingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    props.setLook(wMaxPoolSize);
+    FormData fdMaxPoolSize = new FormData();
+    fdMaxPoolSize.top = new FormAttachment(wlMaxPoolSize, 0, SWT.CENTER);
+    fdMaxPoolSize.left = new FormAttachment(middle, margin); // To the right of the label
+    fdMaxPoolSize.right = new FormAttachment(100, 0);
+    wMaxPoolSize.setLayoutData(fdMaxPoolSize);
+    lastControl = wMaxPoolSize;
+
+    ColumnInfo[] poolColumns =
+        new ColumnInfo[] {
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "DatabaseDialog.column.PoolParameter"),
+              ColumnInfo.COLUMN_TYPE_CCOMBO,
+              DatabaseConnectionPoolParameter.getParameterNames(
+                  BaseDatabaseMeta.poolingParameters),
+              false),
+          new ColumnInfo(
+              BaseMessages.getString(PKG, "DatabaseDialog.column.PoolValue"),
+              ColumnInfo.COLUMN_TYPE_TEXT,
+              false),
+        };
+    poolColumns[1].setUsingVariables(true);
+
+    // The pool parameters
+    //
+    Label wlPoolParameters = new Label(wPoolingComp, SWT.LEFT);
+    props.setLook(wlPoolParameters);
+    wlPoolParameters.setText(BaseMessages.getString(PKG, "DatabaseDialog.label.PoolParameters"));
+    FormData fdlPoolParameters = new FormData();
+    fdlPoolParameters.top = new FormAttachment(lastControl, margin * 2);
+    fdlPoolParameters.left = new FormAttachment(0, 0);
+    fdlPoolParameters.right = new FormAttachment(100, 0);
+    wlPoolParameters.setLayoutData(fdlPoolParameters);
+    wPoolParameters =
+        new TableView(
+            manager.getVariables(),
+            wPoolingComp,
+            SWT.BORDER,
+            poolColumns,
+            BaseDatabaseMeta.poolingParameters.length,
+            event -> setChanged(),
+            props);
+    props.setLook(wPoolParameters);
+    FormData fdPoolParameters = new FormData();
+    fdPoolParameters.top = new FormAttachment(wlPoolParameters, margin);
+    fdPoolParameters.bottom = new FormAttachment(100, 0);
+    fdPoolParameters.left = new FormAttachment(0, 0);
+    fdPoolParameters.right = new FormAttachment(100, 0);
+    wPoolParameters.setLayoutData(fdPoolParameters);
+
+    FormData fdPoolingComp = new FormData();
+    fdPoolingComp.left = new FormAttachment(0, 0);
+    fdPoolingComp.top = new FormAttachment(0, 0);
+    fdPoolingComp.right = new FormAttachment(100, 0);
+    fdPoolingComp.bottom = new FormAttachment(100, 0);
+    wPoolingComp.setLayoutData(fdPoolingComp);
+
+    wPoolingComp.layout();
+    wPoolingTab.setControl(wPoolingComp);
+  }
+
   private void addOptionsTab() {
 
     DatabaseMeta databaseMeta = this.getMetadata();
@@ -701,6 +818,10 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     //
     guiCompositeWidgets.enableWidgets(
         getMetadata().getIDatabase(), DatabaseMeta.GUI_PLUGIN_ELEMENT_PARENT_ID, !manualUrl);
+
+    boolean usePool = wUsePool.getSelection();
+    wMaxPoolSize.setEnabled(usePool);
+    wPoolParameters.setEnabled(usePool);
   }
 
   private void test() {
@@ -763,6 +884,23 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wPreferredSchema.setText(Const.NVL(databaseMeta.getPreferredSchemaName(), ""));
     wSqlStatements.setText(Const.NVL(databaseMeta.getConnectSql(), ""));
 
+    wUsePool.setSelection(databaseMeta.isUsingConnectionPool());
+    wMaxPoolSize.setText(Const.NVL(databaseMeta.getMaximumPoolSizeString(), ""));
+    wPoolParameters.clearAll(false);
+    Properties poolProperties = databaseMeta.getConnectionPoolingProperties();
+    for (DatabaseConnectionPoolParameter parameter : BaseDatabaseMeta.poolingParameters) {
+      TableItem item = new TableItem(wPoolParameters.table, SWT.NONE);
+      item.setText(1, parameter.getParameter());
+      item.setText(
+          2,
+          Const.NVL(
+              poolProperties.getProperty(parameter.getParameter()),
+              Const.NVL(parameter.getDefaultValue(), "")));
+    }
+    wPoolParameters.removeEmptyRows();
+    wPoolParameters.setRowNums();
+    wPoolParameters.optWidth(true);
+
     wOptions.clearAll(false);
     Map<String, String> optionsMap = databaseMeta.getExtraOptionsMap();
     List<String> options = new ArrayList<>(optionsMap.keySet());
@@ -804,6 +942,19 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     meta.setPreferredSchemaName(wPreferredSchema.getText());
     meta.setConnectSql(wSqlStatements.getText());
 
+    meta.setUsingConnectionPool(wUsePool.getSelection());
+    meta.setMaximumPoolSizeString(wMaxPoolSize.getText());
+    Properties poolProperties = new Properties();
+    for (int i = 0; i < wPoolParameters.nrNonEmpty(); i++) {
+      TableItem item = wPoolParameters.getNonEmpty(i);
+      String parameter = item.getText(1);
+      String value = item.getText(2);
+      if (StringUtils.isNotEmpty(parameter) && StringUtils.isNotEmpty(value)) {
+        poolProperties.setProperty(parameter, value);
+      }
+    }
+    meta.setConnectionPoolingProperties(poolProperties);
+
     meta.getExtraOptions().clear();
     for (int i = 0; i < wOptions.nrNonEmpty(); i++) {
       TableItem item = wOptions.getNonEmpty(i);